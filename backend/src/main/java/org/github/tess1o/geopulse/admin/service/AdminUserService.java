@@ -3,11 +3,13 @@ package org.github.tess1o.geopulse.admin.service;
 import io.quarkus.panache.common.Page;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.admin.model.Role;
+import org.github.tess1o.geopulse.user.events.UserAccessChangedEvent;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 import org.github.tess1o.geopulse.user.repository.UserRepository;
 import org.github.tess1o.geopulse.user.service.SecurePasswordUtils;
@@ -27,6 +29,7 @@ public class AdminUserService {
     private final UserRepository userRepository;
     private final SecurePasswordUtils passwordUtils;
     private final EntityManager entityManager;
+    private final Event<UserAccessChangedEvent> userAccessChangedEvent;
 
     private static final String TEMP_PASSWORD_CHARS = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghjkmnpqrstuvwxyz23456789";
     private static final int TEMP_PASSWORD_LENGTH = 12;
@@ -34,10 +37,12 @@ public class AdminUserService {
     @Inject
     public AdminUserService(UserRepository userRepository,
                             SecurePasswordUtils passwordUtils,
-                            EntityManager entityManager) {
+                            EntityManager entityManager,
+                            Event<UserAccessChangedEvent> userAccessChangedEvent) {
         this.userRepository = userRepository;
         this.passwordUtils = passwordUtils;
         this.entityManager = entityManager;
+        this.userAccessChangedEvent = userAccessChangedEvent;
     }
 
     /**
@@ -140,6 +145,7 @@ public class AdminUserService {
         }
 
         user.setActive(active);
+        fireUserAccessChanged(userId);
         log.info("User {} {} by admin", userId, active ? "enabled" : "disabled");
     }
 
@@ -163,6 +169,7 @@ public class AdminUserService {
 
         Role oldRole = user.getRole();
         user.setRole(newRole);
+        fireUserAccessChanged(userId);
         log.info("User {} role changed from {} to {}", userId, oldRole, newRole);
     }
 
@@ -275,10 +282,15 @@ public class AdminUserService {
 
         // Finally delete the user
         userRepository.deleteById(userId);
+        fireUserAccessChanged(userId);
 
         log.info("User {} ({}) deleted with all associated data", userId, email);
     }
 
+    private void fireUserAccessChanged(UUID userId) {
+        userAccessChangedEvent.fire(new UserAccessChangedEvent(userId));
+    }
+
     private String generateTemporaryPassword() {
         SecureRandom random = new SecureRandom();
         StringBuilder password = new StringBuilder(TEMP_PASSWORD_LENGTH);
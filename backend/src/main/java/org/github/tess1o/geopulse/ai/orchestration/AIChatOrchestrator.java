@@ -115,7 +115,7 @@ public class AIChatOrchestrator {
                     }
 
                     try {
-                        String result = toolRegistry.invokeTool(toolName, arguments);
+                        String result = toolRegistry.invokeTool(userId, toolName, arguments);
 
                         // Truncate result if it's too large to avoid token limit issues
                         int maxToolResultLength = systemSettingsService.getInteger("ai.tool-result.max-length");
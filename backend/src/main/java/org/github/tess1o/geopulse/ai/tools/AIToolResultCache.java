@@ -0,0 +1,209 @@
+package org.github.tess1o.geopulse.ai.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.prometheus.GeoPulseWorkloadMetrics;
+import org.github.tess1o.geopulse.streaming.events.FavoriteDeletedEvent;
+import org.github.tess1o.geopulse.streaming.events.FavoriteRenamedEvent;
+import org.github.tess1o.geopulse.streaming.events.FavoritesChangedEvent;
+import org.github.tess1o.geopulse.streaming.events.TimelineDataChangedEvent;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes AI tool results per user, so a chat that repeats the same tool call across turns does not re-run
+ * the timeline aggregation queries.
+ * <p>
+ * Entries are keyed by (tool, normalized arguments) within a per-user bucket and stamped with that user's
+ * timeline data version. The version is bumped, and the bucket dropped, when the user's timeline is regenerated
+ * or their favorites change, so a result computed before the change can never be served after it. Entries also
+ * expire after {@code geopulse.ai.tool-cache.ttl-minutes} to bound staleness from edits that fire no event.
+ */
+@ApplicationScoped
+@Slf4j
+public class AIToolResultCache {
+
+    @ConfigProperty(name = "geopulse.ai.tool-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "geopulse.ai.tool-cache.max-entries-per-user", defaultValue = "64")
+    int maxEntriesPerUser;
+
+    @ConfigProperty(name = "geopulse.ai.tool-cache.ttl-minutes", defaultValue = "30")
+    long ttlMinutes;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    GeoPulseWorkloadMetrics workloadMetrics;
+
+    private final ConcurrentHashMap<UUID, UserBucket> buckets = new ConcurrentHashMap<>();
+
+    private record CachedResult(String result, long dataVersion, long createdAtMillis, long executionNanos,
+                                long lastAccessMillis) {
+        CachedResult touch(long touchedAtMillis) {
+            return new CachedResult(result, dataVersion, createdAtMillis, executionNanos, touchedAtMillis);
+        }
+    }
+
+    private static final class UserBucket {
+        private final AtomicLong dataVersion = new AtomicLong();
+        private final ConcurrentHashMap<String, CachedResult> results = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Return the cached result of {@code toolName(argumentsJson)} for the user, or run {@code invoker} and cache
+     * its result. Error results are returned but never cached.
+     */
+    public String getOrCompute(UUID userId, String toolName, String argumentsJson, Supplier<String> invoker) {
+        if (!enabled || userId == null) {
+            return invoker.get();
+        }
+
+        String key = toolName + ':' + normalizeArguments(argumentsJson);
+        UserBucket bucket = buckets.computeIfAbsent(userId, ignored -> new UserBucket());
+        long version = bucket.dataVersion.get();
+        long now = System.currentTimeMillis();
+
+        CachedResult cached = bucket.results.computeIfPresent(key, (ignored, value) -> value.touch(now));
+        if (cached != null && cached.dataVersion() == version && !isExpired(cached, now)) {
+            recordLookup(toolName, "hit");
+            recordSaved(toolName, cached.executionNanos());
+            log.debug("AI tool cache hit for user {}: {}", userId, key);
+            return cached.result();
+        }
+
+        recordLookup(toolName, "miss");
+        long startedAt = System.nanoTime();
+        String result = invoker.get();
+        long executionNanos = System.nanoTime() - startedAt;
+
+        // Compared against the version read before the call: a timeline change during execution discards the result
+        if (result != null && !isErrorResult(result) && bucket.dataVersion.get() == version) {
+            bucket.results.put(key, new CachedResult(result, version, now, executionNanos, now));
+            evictOverflow(bucket);
+        }
+        return result;
+    }
+
+    public void invalidate(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        UserBucket bucket = buckets.get(userId);
+        if (bucket != null) {
+            bucket.dataVersion.incrementAndGet();
+            bucket.results.clear();
+        }
+    }
+
+    void onTimelineDataChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TimelineDataChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    void onFavoritesChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) FavoritesChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    void onFavoriteRenamed(@Observes(during = TransactionPhase.AFTER_SUCCESS) FavoriteRenamedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    void onFavoriteDeleted(@Observes(during = TransactionPhase.AFTER_SUCCESS) FavoriteDeletedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    private boolean isExpired(CachedResult cached, long now) {
+        return now - cached.createdAtMillis() > Duration.ofMinutes(ttlMinutes).toMillis();
+    }
+
+    private void evictOverflow(UserBucket bucket) {
+        int overflow = bucket.results.size() - Math.max(1, maxEntriesPerUser);
+        if (overflow <= 0) {
+            return;
+        }
+        Iterator<Map.Entry<String, CachedResult>> oldestFirst = bucket.results.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccessMillis()))
+                .limit(overflow)
+                .iterator();
+        while (oldestFirst.hasNext()) {
+            Map.Entry<String, CachedResult> entry = oldestFirst.next();
+            bucket.results.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Canonical form of the tool arguments: keys sorted, strings trimmed, null and blank values dropped,
+     * so {@code {"endDate":"2026-01-02","startDate":"2026-01-01","targetUser":null}} and its reordered
+     * variants share one entry.
+     */
+    String normalizeArguments(String argumentsJson) {
+        if (argumentsJson == null || argumentsJson.isBlank()) {
+            return "{}";
+        }
+        try {
+            return objectMapper.writeValueAsString(canonicalize(objectMapper.readTree(argumentsJson)));
+        } catch (Exception e) {
+            return argumentsJson.trim();
+        }
+    }
+
+    private Object canonicalize(JsonNode node) {
+        if (node.isObject()) {
+            Map<String, Object> sorted = new TreeMap<>();
+            node.fields().forEachRemaining(field -> {
+                Object value = canonicalize(field.getValue());
+                if (value != null) {
+                    sorted.put(field.getKey(), value);
+                }
+            });
+            return sorted;
+        }
+        if (node.isNull() || node.isMissingNode()) {
+            return null;
+        }
+        if (node.isTextual()) {
+            String text = node.asText().trim();
+            return text.isEmpty() ? null : text;
+        }
+        return node;
+    }
+
+    private static boolean isErrorResult(String result) {
+        // Both structured tool errors and the fallback payload serialize as {"error": {...}}
+        return result.startsWith("{\"error\"");
+    }
+
+    private void recordLookup(String toolName, String outcome) {
+        if (workloadMetrics != null) {
+            workloadMetrics.increment("geopulse.ai.tool.cache.requests", "tool", toolName, "result", outcome);
+        }
+    }
+
+    private void recordSaved(String toolName, long executionNanos) {
+        if (workloadMetrics != null) {
+            workloadMetrics.recordDuration("geopulse.ai.tool.cache.saved", Duration.ofNanos(executionNanos),
+                    "tool", toolName);
+        }
+    }
+
+    int cachedEntries(UUID userId) {
+        UserBucket bucket = buckets.get(userId);
+        return bucket == null ? 0 : bucket.results.size();
+    }
+}
@@ -18,6 +18,7 @@ import org.github.tess1o.geopulse.ai.service.SimpleAITools;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @ApplicationScoped
@@ -28,27 +29,30 @@ public class ToolRegistry {
     private final AIFriendLiveTools aiFriendLiveTools;
     private final SimpleAITools simpleAITools;
     private final ObjectMapper objectMapper;
+    private final AIToolResultCache toolResultCache;
     private final Map<String, RegisteredTool> tools = new LinkedHashMap<>();
 
     @Inject
     public ToolRegistry(AITimelineTools aiTimelineTools,
                         AIFriendLiveTools aiFriendLiveTools,
                         SimpleAITools simpleAITools,
-                        ObjectMapper objectMapper) {
+                        ObjectMapper objectMapper,
+                        AIToolResultCache toolResultCache) {
         this.aiTimelineTools = aiTimelineTools;
         this.aiFriendLiveTools = aiFriendLiveTools;
         this.simpleAITools = simpleAITools;
         this.objectMapper = objectMapper;
+        this.toolResultCache = toolResultCache;
     }
 
     @PostConstruct
     public void registerTools() {
-        register("queryTimeline", this::invokeQueryTimeline, createQueryTimelineSpec());
-        register("getVisitedLocations", this::invokeGetVisitedLocations, createGetVisitedLocationsSpec());
-        register("getTripMovements", this::invokeTripMovements, createTripMovementsSpec());
-        register("getStayStats", this::invokeGetStayStats, createGetStayStatsSpec());
-        register("getTripStats", this::invokeGetTripStats, createGetTripStatsSpec());
-        register("getRoutePatterns", this::invokeGetRoutePatterns, createRoutePatternsSpec());
+        registerCacheable("queryTimeline", this::invokeQueryTimeline, createQueryTimelineSpec());
+        registerCacheable("getVisitedLocations", this::invokeGetVisitedLocations, createGetVisitedLocationsSpec());
+        registerCacheable("getTripMovements", this::invokeTripMovements, createTripMovementsSpec());
+        registerCacheable("getStayStats", this::invokeGetStayStats, createGetStayStatsSpec());
+        registerCacheable("getTripStats", this::invokeGetTripStats, createGetTripStatsSpec());
+        registerCacheable("getRoutePatterns", this::invokeGetRoutePatterns, createRoutePatternsSpec());
         register("listAccessibleTimelineFriends", this::invokeListAccessibleTimelineFriends, createListAccessibleTimelineFriendsSpec());
         register("listAccessibleLiveFriends", this::invokeListAccessibleLiveFriends, createListAccessibleLiveFriendsSpec());
         register("getFriendLiveLocation", this::invokeGetFriendLiveLocation, createGetFriendLiveLocationSpec());
@@ -58,7 +62,14 @@ public class ToolRegistry {
     }
 
     private void register(String name, Function<String, String> invoker, FunctionDefinition definition) {
-        tools.put(name, new RegisteredTool(definition, invoker));
+        tools.put(name, new RegisteredTool(definition, invoker, false));
+    }
+
+    /**
+     * Register a read-only timeline tool whose SELF-scoped results may be memoized per user.
+     */
+    private void registerCacheable(String name, Function<String, String> invoker, FunctionDefinition definition) {
+        tools.put(name, new RegisteredTool(definition, invoker, true));
     }
 
     public List<FunctionDefinition> getAllToolDefinitions() {
@@ -75,6 +86,31 @@ public class ToolRegistry {
         return tool.invoker().apply(argumentsJson);
     }
 
+    /**
+     * Invoke a tool on behalf of {@code userId}, serving repeated timeline queries from {@link AIToolResultCache}.
+     * Only queries against the user's own timeline are cached: the cache is invalidated by the owner's timeline
+     * events, and a FRIEND query's owner is only known after target resolution.
+     */
+    public String invokeTool(UUID userId, String name, String argumentsJson) {
+        RegisteredTool tool = tools.get(name);
+        if (tool == null) {
+            throw new IllegalArgumentException("Unknown tool: " + name);
+        }
+        if (!tool.cacheable() || !isSelfScoped(argumentsJson)) {
+            return tool.invoker().apply(argumentsJson);
+        }
+        return toolResultCache.getOrCompute(userId, name, argumentsJson, () -> tool.invoker().apply(argumentsJson));
+    }
+
+    private boolean isSelfScoped(String argumentsJson) {
+        try {
+            String targetScope = getOptionalText(parseArgs(argumentsJson), "targetScope");
+            return targetScope == null || "SELF".equalsIgnoreCase(targetScope);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     private String invokeQueryTimeline(String argumentsJson) {
         try {
             JsonNode args = parseArgs(argumentsJson);
@@ -471,6 +507,6 @@ public class ToolRegistry {
         return "{\"error\": {\"code\": \"TOOL_EXECUTION_ERROR\", \"message\": \"" + message + "\"}}";
     }
 
-    private record RegisteredTool(FunctionDefinition definition, Function<String, String> invoker) {
+    private record RegisteredTool(FunctionDefinition definition, Function<String, String> invoker, boolean cacheable) {
     }
 }
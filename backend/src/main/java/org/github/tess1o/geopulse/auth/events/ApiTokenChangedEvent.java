@@ -0,0 +1,18 @@
+package org.github.tess1o.geopulse.auth.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Fired when an API token was updated or revoked.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ApiTokenChangedEvent {
+
+    private final UUID tokenId;
+}
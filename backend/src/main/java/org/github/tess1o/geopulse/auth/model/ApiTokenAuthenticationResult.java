@@ -1,9 +1,23 @@
 package org.github.tess1o.geopulse.auth.model;
 
-import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.github.tess1o.geopulse.admin.model.Role;
 
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * What a request authenticated with an API token needs to know about the token and its owner.
+ * Holds no entities, so it can be cached across requests.
+ */
 public record ApiTokenAuthenticationResult(
-        UserApiTokenEntity apiToken,
-        UserEntity user
+        UUID tokenId,
+        UUID userId,
+        String userEmail,
+        Role role,
+        Instant expiresAt
 ) {
+
+    public boolean isExpiredAt(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
 }
@@ -15,8 +15,17 @@ import java.util.UUID;
 @ApplicationScoped
 public class UserApiTokenRepository implements PanacheRepositoryBase<UserApiTokenEntity, UUID> {
 
-    public Optional<UserApiTokenEntity> findByHash(String tokenHash) {
-        return find("tokenHash", tokenHash).firstResultOptional();
+    /**
+     * Token with its owner fetched in the same query.
+     */
+    public Optional<UserApiTokenEntity> findByHashWithUser(String tokenHash) {
+        return find("from UserApiTokenEntity t join fetch t.user where t.tokenHash = ?1", tokenHash)
+                .firstResultOptional();
+    }
+
+    public void updateLastUsed(UUID tokenId, Instant lastUsedAt, String lastUsedIp) {
+        update("lastUsedAt = ?1, lastUsedIp = ?2 where id = ?3 and (lastUsedAt is null or lastUsedAt < ?1)",
+                lastUsedAt, lastUsedIp, tokenId);
     }
 
     public List<UserApiTokenEntity> findByUserId(UUID userId) {
@@ -17,7 +17,6 @@ import jakarta.ws.rs.Priorities;
 import jakarta.ws.rs.core.MediaType;
 import org.github.tess1o.geopulse.auth.model.ApiTokenAuthenticationResult;
 import org.github.tess1o.geopulse.shared.api.UserIpAddress;
-import org.github.tess1o.geopulse.user.model.UserEntity;
 
 import java.security.Principal;
 import java.util.Optional;
@@ -77,17 +76,17 @@ public class ApiTokenAuthenticationMechanism implements HttpAuthenticationMechan
         }
 
         ApiTokenAuthenticationResult auth = result.get();
-        UserEntity user = auth.user();
-        Principal principal = () -> user.getEmail();
+        String email = auth.userEmail();
+        Principal principal = () -> email;
         SecurityIdentity identity = QuarkusSecurityIdentity.builder()
                 .setPrincipal(principal)
-                .addRole(user.getRole().name())
+                .addRole(auth.role().name())
                 .addAttribute(ATTR_AUTH_TYPE, "api-token")
-                .addAttribute(ATTR_USER_ID, user.getId().toString())
-                .addAttribute(ATTR_USER_EMAIL, user.getEmail())
+                .addAttribute(ATTR_USER_ID, auth.userId().toString())
+                .addAttribute(ATTR_USER_EMAIL, email)
                 .build();
 
-        apiTokenService.recordUsage(auth.apiToken().getId(), ipAddress);
+        apiTokenService.recordUsage(auth.tokenId(), ipAddress);
         return Optional.of(identity);
     }
 
@@ -0,0 +1,113 @@
+package org.github.tess1o.geopulse.auth.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.auth.events.ApiTokenChangedEvent;
+import org.github.tess1o.geopulse.auth.model.ApiTokenAuthenticationResult;
+import org.github.tess1o.geopulse.prometheus.GeoPulseWorkloadMetrics;
+import org.github.tess1o.geopulse.user.events.UserAccessChangedEvent;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of authenticated API token identities, keyed by token hash, so automation clients calling
+ * the API in a loop do not query the token and its owner on every request.
+ * <p>
+ * Entries are dropped after commit when the token is updated or revoked and when its owner is disabled,
+ * deleted or changes role; token expiry is checked on every hit. The TTL bounds staleness for anything else.
+ * Unknown tokens are never cached, so guessing tokens cannot fill the cache.
+ */
+@ApplicationScoped
+@Slf4j
+public class ApiTokenIdentityCache {
+
+    @ConfigProperty(name = "geopulse.auth.api-token.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "geopulse.auth.api-token.cache.ttl-seconds", defaultValue = "60")
+    long ttlSeconds;
+
+    @ConfigProperty(name = "geopulse.auth.api-token.cache.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    @Inject
+    GeoPulseWorkloadMetrics workloadMetrics;
+
+    private final ConcurrentHashMap<String, CachedIdentity> identities = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; a load that raced one is returned but not stored
+    private final AtomicLong version = new AtomicLong();
+
+    private record CachedIdentity(ApiTokenAuthenticationResult identity, long loadedAtMillis) {
+    }
+
+    public Optional<ApiTokenAuthenticationResult> getOrLoad(String tokenHash,
+                                                           Supplier<Optional<ApiTokenAuthenticationResult>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        long now = System.currentTimeMillis();
+        CachedIdentity cached = identities.get(tokenHash);
+        if (cached != null && now - cached.loadedAtMillis() <= ttlSeconds * 1_000L) {
+            if (cached.identity().isExpiredAt(Instant.now())) {
+                identities.remove(tokenHash, cached);
+                recordLookup("expired");
+                return Optional.empty();
+            }
+            recordLookup("hit");
+            return Optional.of(cached.identity());
+        }
+
+        recordLookup("miss");
+        long loadVersion = version.get();
+        Optional<ApiTokenAuthenticationResult> loaded = loader.get();
+        if (loaded.isPresent() && version.get() == loadVersion) {
+            identities.put(tokenHash, new CachedIdentity(loaded.get(), now));
+            evictOverflow();
+        } else if (loaded.isEmpty()) {
+            identities.remove(tokenHash);
+        }
+        return loaded;
+    }
+
+    void onApiTokenChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ApiTokenChangedEvent event) {
+        version.incrementAndGet();
+        identities.values().removeIf(cached -> cached.identity().tokenId().equals(event.getTokenId()));
+    }
+
+    void onUserAccessChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserAccessChangedEvent event) {
+        version.incrementAndGet();
+        identities.values().removeIf(cached -> cached.identity().userId().equals(event.getUserId()));
+    }
+
+    private void evictOverflow() {
+        int overflow = identities.size() - Math.max(1, maxEntries);
+        if (overflow <= 0) {
+            return;
+        }
+        identities.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().loadedAtMillis()))
+                .limit(overflow)
+                .toList()
+                .forEach(entry -> identities.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private void recordLookup(String outcome) {
+        if (workloadMetrics != null) {
+            workloadMetrics.increment("geopulse.auth.api_token.cache.requests", "result", outcome);
+        }
+    }
+
+    int cachedEntries() {
+        return identities.size();
+    }
+}
@@ -1,6 +1,8 @@
 package org.github.tess1o.geopulse.auth.service;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.github.tess1o.geopulse.admin.model.ActionType;
@@ -8,6 +10,7 @@ import org.github.tess1o.geopulse.admin.model.TargetType;
 import org.github.tess1o.geopulse.admin.service.AuditLogService;
 import org.github.tess1o.geopulse.auth.dto.ApiTokenResponse;
 import org.github.tess1o.geopulse.auth.dto.CreateApiTokenResponse;
+import org.github.tess1o.geopulse.auth.events.ApiTokenChangedEvent;
 import org.github.tess1o.geopulse.auth.model.ApiTokenAuthenticationResult;
 import org.github.tess1o.geopulse.auth.model.ApiTokenStatus;
 import org.github.tess1o.geopulse.auth.model.UserApiTokenEntity;
@@ -15,13 +18,11 @@ import org.github.tess1o.geopulse.auth.repository.UserApiTokenRepository;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 import org.github.tess1o.geopulse.user.repository.UserRepository;
 
-import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 
 @ApplicationScoped
 public class ApiTokenService {
-    private static final Duration LAST_USED_UPDATE_INTERVAL = Duration.ofMinutes(5);
 
     @Inject
     UserApiTokenRepository apiTokenRepository;
@@ -35,6 +36,15 @@ public class ApiTokenService {
     @Inject
     ApiTokenSecretService apiTokenSecretService;
 
+    @Inject
+    ApiTokenIdentityCache identityCache;
+
+    @Inject
+    ApiTokenUsageTracker usageTracker;
+
+    @Inject
+    Event<ApiTokenChangedEvent> apiTokenChangedEvent;
+
     @Transactional
     public CreateApiTokenResponse createToken(UUID userId, String name, Instant expiresAt, String ipAddress) {
         UserEntity user = findUserOrThrow(userId);
@@ -95,6 +105,7 @@ public class ApiTokenService {
         entity.setName(normalizeName(name));
         entity.setExpiresAt(expiresAt);
         apiTokenRepository.persist(entity);
+        apiTokenChangedEvent.fire(new ApiTokenChangedEvent(entity.getId()));
 
         auditLogService.logAction(
                 userId,
@@ -121,43 +132,34 @@ public class ApiTokenService {
         revoke(entity, adminUserId, ActionType.API_TOKEN_ADMIN_REVOKED, ipAddress);
     }
 
-    @Transactional
+    /**
+     * Resolve a raw token to its owner. Repeated calls with the same token are served from
+     * {@link ApiTokenIdentityCache} without touching the database.
+     */
     public Optional<ApiTokenAuthenticationResult> authenticate(String rawToken) {
         if (!apiTokenSecretService.hasTokenPrefix(rawToken)) {
             return Optional.empty();
         }
 
-        Optional<UserApiTokenEntity> tokenOpt = apiTokenRepository.findByHash(apiTokenSecretService.hashToken(rawToken));
-        if (tokenOpt.isEmpty()) {
-            return Optional.empty();
-        }
-
-        UserApiTokenEntity token = tokenOpt.get();
-        UserEntity user = token.getUser();
-        if (user == null || !user.isActive() || !token.isActive()) {
-            return Optional.empty();
-        }
-
-        return Optional.of(new ApiTokenAuthenticationResult(token, user));
+        String tokenHash = apiTokenSecretService.hashToken(rawToken);
+        return identityCache.getOrLoad(tokenHash, () -> loadIdentity(tokenHash));
     }
 
-    @Transactional
+    /**
+     * Buffered in memory and written in batches by {@link ApiTokenUsageTracker}.
+     */
     public void recordUsage(UUID tokenId, String ipAddress) {
-        UserApiTokenEntity token = apiTokenRepository.findById(tokenId);
-        if (token == null) {
-            return;
-        }
-
-        Instant now = Instant.now();
-        if (token.getLastUsedAt() != null
-                && token.getLastUsedAt().isAfter(now.minus(LAST_USED_UPDATE_INTERVAL))
-                && Objects.equals(token.getLastUsedIp(), ipAddress)) {
-            return;
-        }
+        usageTracker.recordUsage(tokenId, ipAddress);
+    }
 
-        token.setLastUsedAt(now);
-        token.setLastUsedIp(ipAddress);
-        apiTokenRepository.persist(token);
+    private Optional<ApiTokenAuthenticationResult> loadIdentity(String tokenHash) {
+        return QuarkusTransaction.joiningExisting().call(() -> apiTokenRepository.findByHashWithUser(tokenHash)
+                .filter(token -> token.isActive() && token.getUser() != null && token.getUser().isActive())
+                .map(token -> {
+                    UserEntity user = token.getUser();
+                    return new ApiTokenAuthenticationResult(
+                            token.getId(), user.getId(), user.getEmail(), user.getRole(), token.getExpiresAt());
+                }));
     }
 
     public ApiTokenResponse toResponse(UserApiTokenEntity entity) {
@@ -203,6 +205,7 @@ public class ApiTokenService {
         entity.setRevokedAt(Instant.now());
         entity.setRevokedBy(revokedBy);
         apiTokenRepository.persist(entity);
+        apiTokenChangedEvent.fire(new ApiTokenChangedEvent(entity.getId()));
 
         auditLogService.logAction(
                 revokedBy,
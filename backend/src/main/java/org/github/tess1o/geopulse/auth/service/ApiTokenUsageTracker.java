@@ -0,0 +1,101 @@
+package org.github.tess1o.geopulse.auth.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.github.tess1o.geopulse.auth.repository.UserApiTokenRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces API token {@code last_used_at}/{@code last_used_ip} updates in memory and writes them in batches,
+ * so authenticated requests do not open a transaction of their own.
+ * <p>
+ * As before, a token's usage is only written again once it is {@link #LAST_USED_UPDATE_INTERVAL} old
+ * or comes from a different address. Usage recorded since the last flush is lost if the process is killed.
+ */
+@ApplicationScoped
+@Slf4j
+public class ApiTokenUsageTracker {
+
+    static final Duration LAST_USED_UPDATE_INTERVAL = Duration.ofMinutes(5);
+
+    private final UserApiTokenRepository apiTokenRepository;
+
+    // Latest usage per token waiting for the next flush
+    private final ConcurrentHashMap<UUID, Usage> pendingUsage = new ConcurrentHashMap<>();
+    // Last usage accepted for writing per token, to skip the ones the interval would not write anyway
+    private final ConcurrentHashMap<UUID, Usage> lastRecorded = new ConcurrentHashMap<>();
+
+    record Usage(Instant usedAt, String ipAddress) {
+    }
+
+    @Inject
+    public ApiTokenUsageTracker(UserApiTokenRepository apiTokenRepository) {
+        this.apiTokenRepository = apiTokenRepository;
+    }
+
+    public void recordUsage(UUID tokenId, String ipAddress) {
+        Instant now = Instant.now();
+        Usage previous = lastRecorded.get(tokenId);
+        if (previous != null
+                && previous.usedAt().isAfter(now.minus(LAST_USED_UPDATE_INTERVAL))
+                && Objects.equals(previous.ipAddress(), ipAddress)) {
+            return;
+        }
+        Usage usage = new Usage(now, ipAddress);
+        lastRecorded.put(tokenId, usage);
+        pendingUsage.put(tokenId, usage);
+    }
+
+    @Scheduled(every = "${geopulse.auth.api-token.usage-flush-interval:30s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flush() {
+        Map<UUID, Usage> drained = drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        try {
+            QuarkusTransaction.requiringNew().run(() -> drained.forEach((tokenId, usage) ->
+                    apiTokenRepository.updateLastUsed(tokenId, usage.usedAt(), usage.ipAddress())));
+            log.debug("Flushed last-used time for {} API tokens", drained.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush last-used time for {} API tokens, retrying on next flush: {}",
+                    drained.size(), e.getMessage());
+            // Keep anything recorded after the drain, it is newer
+            drained.forEach(pendingUsage::putIfAbsent);
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        flush();
+    }
+
+    private Map<UUID, Usage> drain() {
+        Map<UUID, Usage> drained = new HashMap<>();
+        for (UUID tokenId : pendingUsage.keySet()) {
+            Usage usage = pendingUsage.remove(tokenId);
+            if (usage != null) {
+                drained.put(tokenId, usage);
+            }
+        }
+        // Tokens idle for a full interval would be written on their next use anyway
+        Instant idleBefore = Instant.now().minus(LAST_USED_UPDATE_INTERVAL);
+        lastRecorded.values().removeIf(usage -> usage.usedAt().isBefore(idleBefore));
+        return drained;
+    }
+
+    int pendingTokens() {
+        return pendingUsage.size();
+    }
+}
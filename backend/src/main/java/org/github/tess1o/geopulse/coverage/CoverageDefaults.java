@@ -6,6 +6,18 @@ import java.util.Set;
 public final class CoverageDefaults {
     public static final List<Integer> GRID_SIZES_METERS_ORDERED = List.of(20, 50, 250, 1000, 5000, 20000, 40000);
     public static final Set<Integer> GRID_SIZES_METERS = Set.copyOf(GRID_SIZES_METERS_ORDERED);
+
+    /**
+     * Grid sizes rasterized directly from GPS points. 20 m is not a divisor of 50 m, so it stays a standalone level.
+     */
+    public static final List<Integer> RASTERIZED_GRID_SIZES = List.of(20, 50);
+
+    /**
+     * Pyramid levels above the 50 m base, finest first. Each level is an integer multiple of the previous one
+     * and is rolled up from it rather than rasterized.
+     */
+    public static final int PYRAMID_BASE_GRID_METERS = 50;
+    public static final List<Integer> ROLLUP_GRID_SIZES_ORDERED = List.of(250, 1000, 5000, 20000, 40000);
     public static final int DEFAULT_GRID_METERS = 50;
     public static final int DEFAULT_CELLS_PER_VIEW = 12_000;
     public static final int MAX_CELLS_PER_VIEW = 12_000;
@@ -77,10 +77,7 @@ public class CoverageCalculationJob {
     public void processCoverage() {
         long startedAtNanos = metricsStart();
         String result = "success";
-        List<UUID> usersToProcess = coverageRepository.findUsersWithNewCoverage(
-                CoverageDefaults.MAX_ACCURACY_METERS,
-                processingStaleTimeoutSeconds
-        );
+        List<UUID> usersToProcess = coverageRepository.findUsersWithNewCoverage(processingStaleTimeoutSeconds);
         countUsers("discovered", usersToProcess.size());
 
         if (usersToProcess.isEmpty()) {
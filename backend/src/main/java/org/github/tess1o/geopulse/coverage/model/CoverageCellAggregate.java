@@ -0,0 +1,15 @@
+package org.github.tess1o.geopulse.coverage.model;
+
+import java.time.Instant;
+
+/**
+ * Coverage cell aggregated in memory for one batch, ready to be merged into {@code coverage_cells}.
+ */
+public record CoverageCellAggregate(
+        long cellX,
+        long cellY,
+        Instant firstSeen,
+        Instant lastSeen,
+        long seenCount
+) {
+}
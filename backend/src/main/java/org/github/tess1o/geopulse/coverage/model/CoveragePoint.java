@@ -0,0 +1,14 @@
+package org.github.tess1o.geopulse.coverage.model;
+
+import java.time.Instant;
+
+/**
+ * GPS point projected to Web Mercator (EPSG:3857) meters, as consumed by the JVM coverage rasterizer.
+ */
+public record CoveragePoint(
+        long id,
+        Instant timestamp,
+        double x,
+        double y
+) {
+}
@@ -4,12 +4,16 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
+import jakarta.persistence.Query;
 import jakarta.transaction.Transactional;
 import org.github.tess1o.geopulse.coverage.model.CoverageCell;
+import org.github.tess1o.geopulse.coverage.model.CoverageCellAggregate;
+import org.github.tess1o.geopulse.coverage.model.CoveragePoint;
 import org.github.tess1o.geopulse.coverage.model.CoverageProcessingCursor;
 import org.github.tess1o.geopulse.coverage.model.CoverageStatusSnapshot;
 import org.github.tess1o.geopulse.shared.service.TimestampUtils;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -73,23 +77,20 @@ public class CoverageRepository {
                 .executeUpdate();
     }
 
-    public List<UUID> findUsersWithNewCoverage(double maxAccuracyMeters, int staleTimeoutSeconds) {
+    /**
+     * Users whose GPS data watermark is ahead of what coverage processing has caught up to.
+     * Reads only {@code coverage_state}, so the cost does not grow with {@code gps_points}.
+     */
+    public List<UUID> findUsersWithNewCoverage(int staleTimeoutSeconds) {
         @SuppressWarnings("unchecked")
         List<Object> results = entityManager.createNativeQuery(
-                        "SELECT DISTINCT gp.user_id " +
-                                "FROM gps_points gp " +
-                                "JOIN users u ON u.id = gp.user_id AND u.is_active = true AND u.coverage_enabled = true " +
-                                "LEFT JOIN coverage_state cs ON cs.user_id = gp.user_id " +
-                                "WHERE gp.coordinates IS NOT NULL " +
-                                "  AND gp.timestamp IS NOT NULL " +
-                                "  AND (gp.accuracy IS NULL OR gp.accuracy <= :maxAccuracy) " +
-                                "  AND (cs.last_processed IS NULL " +
-                                "       OR gp.timestamp > cs.last_processed " +
-                                "       OR (gp.timestamp = cs.last_processed AND gp.id > COALESCE(cs.last_processed_point_id, -1))) " +
-                                "  AND (cs.processing IS NULL OR cs.processing = false " +
+                        "SELECT cs.user_id " +
+                                "FROM coverage_state cs " +
+                                "JOIN users u ON u.id = cs.user_id AND u.is_active = true AND u.coverage_enabled = true " +
+                                "WHERE cs.data_version > cs.processed_data_version " +
+                                "  AND (cs.processing = false " +
                                 "       OR cs.processing_started_at IS NULL " +
                                 "       OR cs.processing_started_at < NOW() - (:staleTimeoutSeconds * INTERVAL '1 second'))")
-                .setParameter("maxAccuracy", maxAccuracyMeters)
                 .setParameter("staleTimeoutSeconds", staleTimeoutSeconds)
                 .getResultList();
 
@@ -98,6 +99,41 @@ public class CoverageRepository {
                 .toList();
     }
 
+    /**
+     * Bump the user's data watermark. Called in the transaction that inserts GPS points, so the
+     * row lock is held only until that transaction commits.
+     */
+    public void markNewData(UUID userId) {
+        entityManager.createNativeQuery(
+                        "INSERT INTO coverage_state (user_id, last_processed, last_processed_point_id, updated_at, data_version) " +
+                                "VALUES (:userId, NULL, NULL, NOW(), 1) " +
+                                "ON CONFLICT (user_id) DO UPDATE SET " +
+                                "data_version = coverage_state.data_version + 1")
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+
+    @Transactional
+    public long findDataVersion(UUID userId) {
+        @SuppressWarnings("unchecked")
+        List<Object> results = entityManager.createNativeQuery(
+                        "SELECT data_version FROM coverage_state WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .getResultList();
+        return results.isEmpty() || results.get(0) == null ? 0L : ((Number) results.get(0)).longValue();
+    }
+
+    @Transactional
+    public void markDataVersionProcessed(UUID userId, long dataVersion) {
+        entityManager.createNativeQuery(
+                        "UPDATE coverage_state " +
+                                "SET processed_data_version = GREATEST(processed_data_version, :dataVersion) " +
+                                "WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .setParameter("dataVersion", dataVersion)
+                .executeUpdate();
+    }
+
     public CoverageStatusSnapshot findCoverageStatusSnapshot(UUID userId) {
         try {
             Object[] result = (Object[]) entityManager.createNativeQuery(
@@ -167,6 +203,7 @@ public class CoverageRepository {
                                 "  AND gp.coordinates IS NOT NULL " +
                                 "  AND gp.timestamp IS NOT NULL " +
                                 "  AND (gp.accuracy IS NULL OR gp.accuracy <= :maxAccuracy) " +
+                                "  AND gp.timestamp >= COALESCE(CAST(:lowerTs AS timestamptz), '-infinity'::timestamptz) " +
                                 "  AND (CAST(:lowerTs AS timestamptz) IS NULL " +
                                 "       OR gp.timestamp > CAST(:lowerTs AS timestamptz) " +
                                 "       OR (gp.timestamp = CAST(:lowerTs AS timestamptz) " +
@@ -203,6 +240,7 @@ public class CoverageRepository {
                                 "  AND gp.coordinates IS NOT NULL " +
                                 "  AND gp.timestamp IS NOT NULL " +
                                 "  AND (gp.accuracy IS NULL OR gp.accuracy <= :maxAccuracy) " +
+                                "  AND gp.timestamp >= COALESCE(CAST(:lowerTs AS timestamptz), '-infinity'::timestamptz) " +
                                 "  AND (CAST(:lowerTs AS timestamptz) IS NULL " +
                                 "       OR gp.timestamp > CAST(:lowerTs AS timestamptz) " +
                                 "       OR (gp.timestamp = CAST(:lowerTs AS timestamptz) " +
@@ -246,6 +284,7 @@ public class CoverageRepository {
                       AND gp.timestamp IS NOT NULL
                       AND (gp.accuracy IS NULL OR gp.accuracy <= :maxAccuracy)
                       AND CAST(:lowerTs AS timestamptz) IS NOT NULL
+                      AND gp.timestamp <= CAST(:lowerTs AS timestamptz)
                       AND (gp.timestamp < CAST(:lowerTs AS timestamptz)
                            OR (gp.timestamp = CAST(:lowerTs AS timestamptz)
                                AND gp.id <= COALESCE(CAST(:lowerPointId AS bigint), 9223372036854775807)))
@@ -259,6 +298,8 @@ public class CoverageRepository {
                     FROM gps_points gp
                     WHERE gp.user_id = :userId
                       AND gp.timestamp IS NOT NULL
+                      AND gp.timestamp >= COALESCE(CAST(:lowerTs AS timestamptz), '-infinity'::timestamptz)
+                      AND gp.timestamp <= CAST(:upperTs AS timestamptz)
                       AND (CAST(:lowerTs AS timestamptz) IS NULL
                            OR gp.timestamp > CAST(:lowerTs AS timestamptz)
                            OR (gp.timestamp = CAST(:lowerTs AS timestamptz)
@@ -376,6 +417,179 @@ public class CoverageRepository {
                 .executeUpdate();
     }
 
+    /**
+     * Last eligible point at or before {@code lowerBound}: the start of the first segment of a batch.
+     */
+    public CoveragePoint findCoverageAnchorPoint(UUID userId,
+                                                 CoverageProcessingCursor lowerBound,
+                                                 double maxAccuracyMeters) {
+        if (lowerBound == null || lowerBound.timestamp() == null) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = entityManager.createNativeQuery(
+                        "SELECT gp.id, gp.timestamp, " +
+                                "ST_X(ST_Transform(gp.coordinates, 3857)), ST_Y(ST_Transform(gp.coordinates, 3857)) " +
+                                "FROM gps_points gp " +
+                                "WHERE gp.user_id = :userId " +
+                                "  AND gp.coordinates IS NOT NULL " +
+                                "  AND gp.timestamp IS NOT NULL " +
+                                "  AND (gp.accuracy IS NULL OR gp.accuracy <= :maxAccuracy) " +
+                                "  AND gp.timestamp <= :lowerTs " +
+                                "  AND (gp.timestamp < :lowerTs " +
+                                "       OR (gp.timestamp = :lowerTs " +
+                                "           AND gp.id <= COALESCE(CAST(:lowerPointId AS bigint), 9223372036854775807))) " +
+                                "ORDER BY gp.timestamp DESC, gp.id DESC " +
+                                "LIMIT 1")
+                .setParameter("userId", userId)
+                .setParameter("maxAccuracy", maxAccuracyMeters)
+                .setParameter("lowerTs", lowerBound.timestamp())
+                .setParameter("lowerPointId", lowerBound.pointId())
+                .getResultList();
+
+        return results.isEmpty() ? null : toCoveragePoint(results.get(0));
+    }
+
+    /**
+     * Keyset page of eligible points in {@code (after, upperBound]}, projected to EPSG:3857.
+     */
+    public List<CoveragePoint> findCoveragePointChunk(UUID userId,
+                                                      CoverageProcessingCursor after,
+                                                      CoverageProcessingCursor upperBound,
+                                                      double maxAccuracyMeters,
+                                                      int limit) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = entityManager.createNativeQuery(
+                        "SELECT gp.id, gp.timestamp, " +
+                                "ST_X(ST_Transform(gp.coordinates, 3857)), ST_Y(ST_Transform(gp.coordinates, 3857)) " +
+                                "FROM gps_points gp " +
+                                "WHERE gp.user_id = :userId " +
+                                "  AND gp.coordinates IS NOT NULL " +
+                                "  AND gp.timestamp IS NOT NULL " +
+                                "  AND (gp.accuracy IS NULL OR gp.accuracy <= :maxAccuracy) " +
+                                "  AND gp.timestamp >= COALESCE(CAST(:afterTs AS timestamptz), '-infinity'::timestamptz) " +
+                                "  AND (CAST(:afterTs AS timestamptz) IS NULL " +
+                                "       OR gp.timestamp > CAST(:afterTs AS timestamptz) " +
+                                "       OR (gp.timestamp = CAST(:afterTs AS timestamptz) " +
+                                "           AND gp.id > COALESCE(CAST(:afterPointId AS bigint), -1))) " +
+                                "  AND gp.timestamp <= :upperTs " +
+                                "  AND (gp.timestamp < :upperTs " +
+                                "       OR (gp.timestamp = :upperTs AND gp.id <= :upperPointId)) " +
+                                "ORDER BY gp.timestamp ASC, gp.id ASC " +
+                                "LIMIT :limit")
+                .setParameter("userId", userId)
+                .setParameter("maxAccuracy", maxAccuracyMeters)
+                .setParameter("afterTs", after == null ? null : after.timestamp())
+                .setParameter("afterPointId", after == null ? null : after.pointId())
+                .setParameter("upperTs", upperBound.timestamp())
+                .setParameter("upperPointId", upperBound.pointId())
+                .setParameter("limit", limit)
+                .getResultList();
+
+        return results.stream()
+                .map(CoverageRepository::toCoveragePoint)
+                .toList();
+    }
+
+    /**
+     * Merge cells aggregated in memory into {@code coverage_cells} with one multi-row upsert.
+     * The caller guarantees unique (cell_x, cell_y) within {@code cells}.
+     */
+    public int upsertCoverageCellAggregates(UUID userId, int gridMeters, List<CoverageCellAggregate> cells) {
+        if (cells.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO coverage_cells (user_id, grid_m, cell_x, cell_y, first_seen, last_seen, seen_count) VALUES ");
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?, ?, ?, ?)");
+        }
+        sql.append(" ON CONFLICT (user_id, grid_m, cell_x, cell_y) DO UPDATE SET " +
+                "first_seen = LEAST(coverage_cells.first_seen, EXCLUDED.first_seen), " +
+                "last_seen = GREATEST(coverage_cells.last_seen, EXCLUDED.last_seen), " +
+                "seen_count = coverage_cells.seen_count + EXCLUDED.seen_count");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        int index = 1;
+        for (CoverageCellAggregate cell : cells) {
+            query.setParameter(index++, userId);
+            query.setParameter(index++, gridMeters);
+            query.setParameter(index++, cell.cellX());
+            query.setParameter(index++, cell.cellY());
+            query.setParameter(index++, cell.firstSeen());
+            query.setParameter(index++, cell.lastSeen());
+            query.setParameter(index++, cell.seenCount());
+        }
+        return query.executeUpdate();
+    }
+
+    /**
+     * Recompute the {@code parentGridMeters} cells covering every {@code childGridMeters} cell seen at or after
+     * {@code sinceTs} (all cells when {@code sinceTs} is null). A parent is the exact union of the
+     * {@code ratio x ratio} children under it: first/last seen are their min/max and seen count is their sum.
+     * Parents are overwritten, not merged, so re-running a roll-up is idempotent.
+     */
+    public int rollupCoverageLevel(UUID userId, int childGridMeters, int parentGridMeters, Instant sinceTs) {
+        if (parentGridMeters % childGridMeters != 0) {
+            throw new IllegalArgumentException("Grid " + parentGridMeters + " is not a multiple of " + childGridMeters);
+        }
+        String sql = """
+                WITH touched AS (
+                    SELECT DISTINCT
+                        floor(c.cell_x / CAST(:ratio AS double precision))::bigint AS parent_x,
+                        floor(c.cell_y / CAST(:ratio AS double precision))::bigint AS parent_y
+                    FROM coverage_cells c
+                    WHERE c.user_id = :userId
+                      AND c.grid_m = :childGrid
+                      AND (CAST(:sinceTs AS timestamptz) IS NULL OR c.last_seen >= CAST(:sinceTs AS timestamptz))
+                ),
+                aggregated AS (
+                    SELECT
+                        t.parent_x,
+                        t.parent_y,
+                        MIN(c.first_seen) AS first_seen,
+                        MAX(c.last_seen) AS last_seen,
+                        SUM(c.seen_count) AS seen_count
+                    FROM touched t
+                    JOIN coverage_cells c
+                      ON c.user_id = :userId
+                     AND c.grid_m = :childGrid
+                     AND c.cell_x BETWEEN t.parent_x * :ratio AND t.parent_x * :ratio + :ratio - 1
+                     AND c.cell_y BETWEEN t.parent_y * :ratio AND t.parent_y * :ratio + :ratio - 1
+                    GROUP BY t.parent_x, t.parent_y
+                )
+                INSERT INTO coverage_cells (user_id, grid_m, cell_x, cell_y, first_seen, last_seen, seen_count)
+                SELECT :userId, :parentGrid, parent_x, parent_y, first_seen, last_seen, seen_count
+                FROM aggregated
+                ON CONFLICT (user_id, grid_m, cell_x, cell_y)
+                DO UPDATE SET
+                  first_seen = EXCLUDED.first_seen,
+                  last_seen = EXCLUDED.last_seen,
+                  seen_count = EXCLUDED.seen_count
+                """;
+
+        return entityManager.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .setParameter("childGrid", childGridMeters)
+                .setParameter("parentGrid", parentGridMeters)
+                .setParameter("ratio", (long) (parentGridMeters / childGridMeters))
+                .setParameter("sinceTs", sinceTs)
+                .executeUpdate();
+    }
+
+    private static CoveragePoint toCoveragePoint(Object[] row) {
+        return new CoveragePoint(
+                ((Number) row[0]).longValue(),
+                TimestampUtils.getInstantSafe(row[1]),
+                ((Number) row[2]).doubleValue(),
+                ((Number) row[3]).doubleValue()
+        );
+    }
+
     public List<CoverageCell> findCoverageCells(UUID userId,
                                                 double minLon,
                                                 double minLat,
@@ -427,6 +641,47 @@ public class CoverageRepository {
                 .toList();
     }
 
+    /**
+     * Number of cells of one grid level inside the bbox, counting no further than {@code cap}.
+     * Lets the read path probe a level without counting a continent's worth of fine cells.
+     */
+    public long countCoverageCellsInBbox(UUID userId,
+                                         double minLon,
+                                         double minLat,
+                                         double maxLon,
+                                         double maxLat,
+                                         int gridMeters,
+                                         int cap) {
+        String sql = """
+                WITH bounds AS (
+                    SELECT
+                        ST_Transform(ST_SetSRID(ST_MakePoint(:minLon, :minLat), 4326), 3857) AS min_pt,
+                        ST_Transform(ST_SetSRID(ST_MakePoint(:maxLon, :maxLat), 4326), 3857) AS max_pt
+                )
+                SELECT COUNT(*) FROM (
+                    SELECT 1
+                    FROM coverage_cells c, bounds b
+                    WHERE c.user_id = :userId
+                      AND c.grid_m = :gridMeters
+                      AND c.cell_x BETWEEN floor(ST_X(b.min_pt) / :gridMeters) AND floor(ST_X(b.max_pt) / :gridMeters)
+                      AND c.cell_y BETWEEN floor(ST_Y(b.min_pt) / :gridMeters) AND floor(ST_Y(b.max_pt) / :gridMeters)
+                    LIMIT :cap
+                ) capped
+                """;
+
+        Object result = entityManager.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .setParameter("gridMeters", gridMeters)
+                .setParameter("minLon", minLon)
+                .setParameter("minLat", minLat)
+                .setParameter("maxLon", maxLon)
+                .setParameter("maxLat", maxLat)
+                .setParameter("cap", cap)
+                .getSingleResult();
+
+        return result == null ? 0L : ((Number) result).longValue();
+    }
+
     @Transactional
     public int resetStuckProcessingStates() {
         return entityManager.createNativeQuery(
@@ -3,24 +3,42 @@ package org.github.tess1o.geopulse.coverage.service;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.github.tess1o.geopulse.coverage.CoverageDefaults;
+import org.github.tess1o.geopulse.coverage.model.CoveragePoint;
 import org.github.tess1o.geopulse.coverage.model.CoverageProcessingCursor;
 import org.github.tess1o.geopulse.coverage.repository.CoverageRepository;
 import org.github.tess1o.geopulse.prometheus.GeoPulseWorkloadMetrics;
 
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @ApplicationScoped
 public class CoverageBatchProcessor {
 
+    static final String ENGINE_SQL = "sql";
+    static final String ENGINE_JVM = "jvm";
+
     private final CoverageRepository coverageRepository;
+    private final CoverageJvmEngine coverageJvmEngine;
 
     @Inject
     GeoPulseWorkloadMetrics workloadMetrics;
 
+    /**
+     * {@code sql} rasterizes inside PostgreSQL with one statement per grid size; {@code jvm} streams the
+     * batch's points once and rasterizes the base grid sizes in {@link CoverageJvmEngine}.
+     * Either way the coarser levels are then rolled up from the 50 m cells.
+     */
+    @ConfigProperty(name = "geopulse.coverage.processing.engine", defaultValue = ENGINE_SQL)
+    String engine;
+
     @Inject
-    public CoverageBatchProcessor(CoverageRepository coverageRepository) {
+    public CoverageBatchProcessor(CoverageRepository coverageRepository, CoverageJvmEngine coverageJvmEngine) {
         this.coverageRepository = coverageRepository;
+        this.coverageJvmEngine = coverageJvmEngine;
     }
 
     @Transactional(Transactional.TxType.REQUIRES_NEW)
@@ -59,7 +77,69 @@ public class CoverageBatchProcessor {
             return null;
         }
 
-        for (int gridMeters : CoverageDefaults.GRID_SIZES_METERS_ORDERED) {
+        if (useJvmEngine()) {
+            upsertWithJvmEngine(userId, lowerBound, batchUpperBound);
+        } else {
+            upsertWithSqlEngine(userId, lowerBound, batchUpperBound);
+        }
+        rollUpPyramid(userId, lowerBound == null ? null : lowerBound.timestamp());
+
+        startedAtNanos = metricsStart();
+        coverageRepository.upsertLastProcessed(userId, batchUpperBound);
+        recordStage(startedAtNanos, "update_cursor", "none", "success");
+        return batchUpperBound;
+    }
+
+    /**
+     * Rasterize the user's next archived month and roll it up the pyramid. Archived points always go through the
+     * JVM engine, as they are not in {@code gps_points} for the SQL engine to read.
+     *
+     * @param after where the walk over archived months stands, or null to start at the oldest month
+     * @return the walk after this month, or null when no archived month is left
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public CoverageJvmEngine.ArchiveCursor processNextArchivedMonth(UUID userId, CoverageJvmEngine.ArchiveCursor after) {
+        long startedAtNanos = metricsStart();
+        Optional<CoverageJvmEngine.ArchiveCursor> next;
+        try {
+            next = coverageJvmEngine.upsertNextArchivedMonth(userId, after);
+            recordStage(startedAtNanos, "rasterize_archive", "all", next.isEmpty() ? "empty" : "success");
+        } catch (Exception e) {
+            recordStage(startedAtNanos, "rasterize_archive", "all", "error");
+            throw e;
+        }
+        if (next.isEmpty()) {
+            return null;
+        }
+
+        CoveragePoint anchor = after == null ? null : after.lastPoint();
+        rollUpPyramid(userId, anchor == null ? null : anchor.timestamp());
+        return next.get();
+    }
+
+    private boolean useJvmEngine() {
+        return ENGINE_JVM.equalsIgnoreCase(engine);
+    }
+
+    private void upsertWithJvmEngine(UUID userId,
+                                     CoverageProcessingCursor lowerBound,
+                                     CoverageProcessingCursor batchUpperBound) {
+        long startedAtNanos = metricsStart();
+        try {
+            Map<Integer, Integer> upserted = coverageJvmEngine.upsertCoverageCells(userId, lowerBound, batchUpperBound);
+            recordStage(startedAtNanos, "rasterize_jvm", "all", "success");
+            upserted.forEach((gridMeters, count) -> countCells(count, gridMeters));
+        } catch (Exception e) {
+            recordStage(startedAtNanos, "rasterize_jvm", "all", "error");
+            throw e;
+        }
+    }
+
+    private void upsertWithSqlEngine(UUID userId,
+                                     CoverageProcessingCursor lowerBound,
+                                     CoverageProcessingCursor batchUpperBound) {
+        long startedAtNanos;
+        for (int gridMeters : CoverageDefaults.RASTERIZED_GRID_SIZES) {
             startedAtNanos = metricsStart();
             try {
                 int upserted = coverageRepository.upsertCoverageCells(
@@ -80,11 +160,27 @@ public class CoverageBatchProcessor {
                 throw e;
             }
         }
+    }
 
-        startedAtNanos = metricsStart();
-        coverageRepository.upsertLastProcessed(userId, batchUpperBound);
-        recordStage(startedAtNanos, "update_cursor", "none", "success");
-        return batchUpperBound;
+    /**
+     * Roll the batch up the pyramid, level by level from the 50 m base. Every cell the batch touched has
+     * {@code last_seen} at or after the batch's lower bound, so only parents of those cells are recomputed;
+     * a null {@code sinceTs} (first batch or rebuild) recomputes every level from scratch.
+     */
+    private void rollUpPyramid(UUID userId, Instant sinceTs) {
+        int childGridMeters = CoverageDefaults.PYRAMID_BASE_GRID_METERS;
+        for (int gridMeters : CoverageDefaults.ROLLUP_GRID_SIZES_ORDERED) {
+            long startedAtNanos = metricsStart();
+            try {
+                int upserted = coverageRepository.rollupCoverageLevel(userId, childGridMeters, gridMeters, sinceTs);
+                recordStage(startedAtNanos, "rollup_grid", String.valueOf(gridMeters), "success");
+                countCells(upserted, gridMeters);
+            } catch (Exception e) {
+                recordStage(startedAtNanos, "rollup_grid", String.valueOf(gridMeters), "error");
+                throw e;
+            }
+            childGridMeters = gridMeters;
+        }
     }
 
     @Transactional(Transactional.TxType.REQUIRES_NEW)
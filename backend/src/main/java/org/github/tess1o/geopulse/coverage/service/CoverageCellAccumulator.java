@@ -0,0 +1,108 @@
+package org.github.tess1o.geopulse.coverage.service;
+
+/**
+ * Open-addressing map from a packed (cellX, cellY) key to first seen / last seen / seen count,
+ * kept in parallel primitive arrays so a dense batch does not allocate one object per cell hit.
+ * <p>
+ * Times are epoch microseconds, the resolution of {@code timestamptz}. Not thread-safe.
+ */
+final class CoverageCellAccumulator {
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    interface CellVisitor {
+        void visit(long cellX, long cellY, long firstSeenMicros, long lastSeenMicros, long seenCount);
+    }
+
+    private long[] keys;
+    private long[] firstSeen;
+    private long[] lastSeen;
+    private long[] counts;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    CoverageCellAccumulator() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    void add(long cellX, long cellY, long firstSeenMicros, long lastSeenMicros) {
+        long key = pack(cellX, cellY);
+        int slot = slot(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                firstSeen[slot] = Math.min(firstSeen[slot], firstSeenMicros);
+                lastSeen[slot] = Math.max(lastSeen[slot], lastSeenMicros);
+                counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        used[slot] = true;
+        keys[slot] = key;
+        firstSeen[slot] = firstSeenMicros;
+        lastSeen[slot] = lastSeenMicros;
+        counts[slot] = 1;
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(CellVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                visitor.visit(keys[i] >> 32, (int) keys[i], firstSeen[i], lastSeen[i], counts[i]);
+            }
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldFirstSeen = firstSeen;
+        long[] oldLastSeen = lastSeen;
+        long[] oldCounts = counts;
+        boolean[] oldUsed = used;
+
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) {
+                continue;
+            }
+            int slot = slot(oldKeys[i]);
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = oldKeys[i];
+            firstSeen[slot] = oldFirstSeen[i];
+            lastSeen[slot] = oldLastSeen[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        firstSeen = new long[capacity];
+        lastSeen = new long[capacity];
+        counts = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    /**
+     * Web Mercator cells at the smallest grid (20 m) stay within +/- 2^21, so both indexes fit 32 bits.
+     */
+    static long pack(long cellX, long cellY) {
+        return (cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
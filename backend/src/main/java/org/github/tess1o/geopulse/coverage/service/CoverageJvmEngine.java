@@ -0,0 +1,179 @@
+package org.github.tess1o.geopulse.coverage.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.coverage.CoverageDefaults;
+import org.github.tess1o.geopulse.coverage.model.CoverageCellAggregate;
+import org.github.tess1o.geopulse.coverage.model.CoveragePoint;
+import org.github.tess1o.geopulse.coverage.model.CoverageProcessingCursor;
+import org.github.tess1o.geopulse.coverage.repository.CoverageRepository;
+import org.github.tess1o.geopulse.gps.repository.GpsPointArchiveReader;
+import org.github.tess1o.geopulse.gps.repository.GpsPointArchiveReader.ArchivedMonth;
+import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+import org.github.tess1o.geopulse.streaming.model.domain.GPSPoint;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Coverage engine that rasterizes in the JVM instead of in PostgreSQL.
+ * <p>
+ * Points of the batch are read once in keyset pages and fed to one {@link CoverageRasterizer} per base grid size;
+ * the aggregated cells are then merged with multi-row upserts. PostgreSQL only serves index range scans and
+ * upserts, instead of expanding every segment sample into rows inside one statement.
+ * Must be called inside the batch transaction.
+ */
+@ApplicationScoped
+@Slf4j
+public class CoverageJvmEngine {
+
+    private final CoverageRepository coverageRepository;
+    private final GpsPointArchiveReader archiveReader;
+
+    @ConfigProperty(name = "geopulse.coverage.jvm.read-chunk-size", defaultValue = "5000")
+    int readChunkSize;
+
+    @ConfigProperty(name = "geopulse.coverage.jvm.upsert-chunk-size", defaultValue = "1000")
+    int upsertChunkSize;
+
+    @Inject
+    public CoverageJvmEngine(CoverageRepository coverageRepository, GpsPointArchiveReader archiveReader) {
+        this.coverageRepository = coverageRepository;
+        this.archiveReader = archiveReader;
+    }
+
+    /**
+     * Where a walk over the user's archived months stands.
+     *
+     * @param periodStart month rasterized last
+     * @param lastPoint   last eligible point so far, the start of the next month's first segment; null if none yet
+     */
+    public record ArchiveCursor(Instant periodStart, CoveragePoint lastPoint) {
+    }
+
+    /**
+     * Rasterize points in {@code (lowerBound, upperBound]} for every directly rasterized grid size.
+     *
+     * @return rows upserted per grid size, in {@link CoverageDefaults#RASTERIZED_GRID_SIZES} order
+     */
+    public Map<Integer, Integer> upsertCoverageCells(UUID userId,
+                                                     CoverageProcessingCursor lowerBound,
+                                                     CoverageProcessingCursor upperBound) {
+        List<CoverageRasterizer> rasterizers = newRasterizers();
+
+        CoveragePoint anchor = coverageRepository.findCoverageAnchorPoint(
+                userId, lowerBound, CoverageDefaults.MAX_ACCURACY_METERS);
+        if (anchor != null) {
+            rasterizers.forEach(rasterizer -> rasterizer.anchor(anchor));
+        }
+
+        int chunkSize = Math.max(1, readChunkSize);
+        CoverageProcessingCursor after = lowerBound;
+        long points = 0;
+        while (true) {
+            List<CoveragePoint> chunk = coverageRepository.findCoveragePointChunk(
+                    userId, after, upperBound, CoverageDefaults.MAX_ACCURACY_METERS, chunkSize);
+            for (CoveragePoint point : chunk) {
+                for (CoverageRasterizer rasterizer : rasterizers) {
+                    rasterizer.accept(point);
+                }
+            }
+            points += chunk.size();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            CoveragePoint last = chunk.get(chunk.size() - 1);
+            after = new CoverageProcessingCursor(last.timestamp(), last.id());
+        }
+
+        Map<Integer, Integer> upserted = flushAll(userId, rasterizers);
+        log.debug("JVM coverage rasterized {} points for user {}: {}", points, userId, upserted);
+        return upserted;
+    }
+
+    /**
+     * Rasterize the user's next archived month for every directly rasterized grid size. Archived months are no
+     * longer in {@code gps_points}, so a rebuild walks them through here before it processes the live points.
+     *
+     * @param after where the walk stands, or null to start at the oldest month
+     * @return the walk after this month, or empty when no archived month is left
+     */
+    public Optional<ArchiveCursor> upsertNextArchivedMonth(UUID userId, ArchiveCursor after) {
+        Optional<ArchivedMonth> month = archiveReader.findNextMonth(userId, after == null ? null : after.periodStart());
+        if (month.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<CoverageRasterizer> rasterizers = newRasterizers();
+        CoveragePoint lastPoint = after == null ? null : after.lastPoint();
+        if (lastPoint != null) {
+            CoveragePoint anchor = lastPoint;
+            rasterizers.forEach(rasterizer -> rasterizer.anchor(anchor));
+        }
+        for (GPSPoint point : month.get().points()) {
+            if (point.getAccuracy() > CoverageDefaults.MAX_ACCURACY_METERS) {
+                continue;
+            }
+            CoveragePoint coveragePoint = new CoveragePoint(
+                    point.getId() != null ? point.getId() : 0L,
+                    point.getTimestamp(),
+                    GeoUtils.webMercatorX(point.getLongitude()),
+                    GeoUtils.webMercatorY(point.getLatitude()));
+            for (CoverageRasterizer rasterizer : rasterizers) {
+                rasterizer.accept(coveragePoint);
+            }
+            lastPoint = coveragePoint;
+        }
+
+        Map<Integer, Integer> upserted = flushAll(userId, rasterizers);
+        log.debug("JVM coverage rasterized archived month {} of user {}: {}",
+                month.get().periodStart(), userId, upserted);
+        return Optional.of(new ArchiveCursor(month.get().periodStart(), lastPoint));
+    }
+
+    private static List<CoverageRasterizer> newRasterizers() {
+        return CoverageDefaults.RASTERIZED_GRID_SIZES.stream()
+                .map(gridMeters -> new CoverageRasterizer(
+                        gridMeters,
+                        CoverageDefaults.RADIUS_METERS,
+                        CoverageDefaults.SEGMENTIZE_METERS,
+                        CoverageDefaults.MAX_GAP_SECONDS,
+                        CoverageDefaults.MAX_SPEED_MPS))
+                .toList();
+    }
+
+    private Map<Integer, Integer> flushAll(UUID userId, List<CoverageRasterizer> rasterizers) {
+        Map<Integer, Integer> upserted = new LinkedHashMap<>();
+        for (CoverageRasterizer rasterizer : rasterizers) {
+            upserted.put(rasterizer.gridMeters(), flush(userId, rasterizer));
+        }
+        return upserted;
+    }
+
+    private int flush(UUID userId, CoverageRasterizer rasterizer) {
+        int chunkSize = Math.max(1, upsertChunkSize);
+        List<CoverageCellAggregate> pending = new ArrayList<>(Math.min(chunkSize, rasterizer.cells().size()));
+        int[] upserted = {0};
+        rasterizer.cells().forEach((cellX, cellY, firstSeenMicros, lastSeenMicros, seenCount) -> {
+            pending.add(new CoverageCellAggregate(
+                    cellX,
+                    cellY,
+                    CoverageRasterizer.fromMicros(firstSeenMicros),
+                    CoverageRasterizer.fromMicros(lastSeenMicros),
+                    seenCount));
+            if (pending.size() >= chunkSize) {
+                upserted[0] += coverageRepository.upsertCoverageCellAggregates(userId, rasterizer.gridMeters(), pending);
+                pending.clear();
+            }
+        });
+        upserted[0] += coverageRepository.upsertCoverageCellAggregates(userId, rasterizer.gridMeters(), pending);
+        return upserted[0];
+    }
+}
@@ -0,0 +1,100 @@
+package org.github.tess1o.geopulse.coverage.service;
+
+import org.github.tess1o.geopulse.coverage.model.CoveragePoint;
+
+import java.time.Instant;
+
+/**
+ * Rasterizes a time-ordered point stream into coverage cells of one grid size, in the JVM.
+ * <p>
+ * Produces the same cells as {@code CoverageRepository.upsertCoverageCells}: every point stamps the square of
+ * cells within {@code radiusMeters}; every plausible segment (gap and speed within limits) is walked DDA-style
+ * in equal steps of at most {@code segmentizeMeters} (the {@code ST_Segmentize} sampling) and each sample
+ * stamps the same square. A cell's seen count is the number of stamps that covered it.
+ */
+final class CoverageRasterizer {
+
+    private final int gridMeters;
+    private final int radiusMeters;
+    private final int segmentizeMeters;
+    private final long maxGapMicros;
+    private final double maxSpeedMps;
+    private final CoverageCellAccumulator cells = new CoverageCellAccumulator();
+
+    private CoveragePoint previous;
+    private long previousMicros;
+
+    CoverageRasterizer(int gridMeters, int radiusMeters, int segmentizeMeters, int maxGapSeconds, double maxSpeedMps) {
+        this.gridMeters = gridMeters;
+        this.radiusMeters = radiusMeters;
+        this.segmentizeMeters = segmentizeMeters;
+        this.maxGapMicros = maxGapSeconds * 1_000_000L;
+        this.maxSpeedMps = maxSpeedMps;
+    }
+
+    /**
+     * Start the stream from an already processed point: it opens the first segment but stamps nothing itself.
+     */
+    void anchor(CoveragePoint point) {
+        previous = point;
+        previousMicros = toMicros(point.timestamp());
+    }
+
+    void accept(CoveragePoint point) {
+        long micros = toMicros(point.timestamp());
+        stamp(point.x(), point.y(), micros, micros);
+
+        if (previous != null) {
+            walkSegment(previous, previousMicros, point, micros);
+        }
+        previous = point;
+        previousMicros = micros;
+    }
+
+    CoverageCellAccumulator cells() {
+        return cells;
+    }
+
+    int gridMeters() {
+        return gridMeters;
+    }
+
+    private void walkSegment(CoveragePoint from, long fromMicros, CoveragePoint to, long toMicros) {
+        long dtMicros = toMicros - fromMicros;
+        if (dtMicros <= 0 || dtMicros > maxGapMicros) {
+            return;
+        }
+        double dx = to.x() - from.x();
+        double dy = to.y() - from.y();
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if (distance / (dtMicros / 1_000_000.0) > maxSpeedMps) {
+            return;
+        }
+
+        int steps = distance <= segmentizeMeters ? 1 : (int) Math.ceil(distance / segmentizeMeters);
+        for (int i = 0; i <= steps; i++) {
+            double fraction = (double) i / steps;
+            stamp(from.x() + dx * fraction, from.y() + dy * fraction, fromMicros, toMicros);
+        }
+    }
+
+    private void stamp(double x, double y, long firstSeenMicros, long lastSeenMicros) {
+        long minX = (long) Math.floor((x - radiusMeters) / gridMeters);
+        long maxX = (long) Math.floor((x + radiusMeters) / gridMeters);
+        long minY = (long) Math.floor((y - radiusMeters) / gridMeters);
+        long maxY = (long) Math.floor((y + radiusMeters) / gridMeters);
+        for (long cellX = minX; cellX <= maxX; cellX++) {
+            for (long cellY = minY; cellY <= maxY; cellY++) {
+                cells.add(cellX, cellY, firstSeenMicros, lastSeenMicros);
+            }
+        }
+    }
+
+    static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000L);
+    }
+
+    static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+}
@@ -23,6 +23,9 @@ import java.util.UUID;
 @Slf4j
 public class CoverageService {
 
+    private static final double EARTH_RADIUS_METERS = 6_378_137.0;
+    private static final double MAX_MERCATOR_LATITUDE = 85.05112878;
+
     private final CoverageRepository coverageRepository;
     private final UserRepository userRepository;
     private final CoverageBatchProcessor coverageBatchProcessor;
@@ -51,6 +54,8 @@ public class CoverageService {
         long jobStart = metricsStart();
         String result = "success";
         int validatedBatchSize = validateBatchSize();
+        // Read before the first batch: points committed after this bump the watermark past it
+        long dataVersion = coverageRepository.findDataVersion(userId);
         CoverageProcessingCursor lowerBound = coverageBatchProcessor.findProcessingCursor(userId);
         int batchNum = 0;
 
@@ -75,6 +80,7 @@ public class CoverageService {
                 log.debug("Processing coverage batch {} for user {} (cursor: {})", batchNum, userId, batchUpperBound);
                 lowerBound = batchUpperBound;
             }
+            coverageRepository.markDataVersionProcessed(userId, dataVersion);
         } catch (Exception e) {
             result = "error";
             throw e;
@@ -87,9 +93,28 @@ public class CoverageService {
         long stageStart = metricsStart();
         coverageBatchProcessor.resetForRebuild(userId);
         recordCoverageStage(stageStart, "reset_rebuild", "full", "success");
+        rebuildArchivedCoverage(userId);
         processUserCoverage(userId, "full");
     }
 
+    /**
+     * Archived months are no longer in {@code gps_points}, so the batch loop would never see them again after a
+     * reset; they are rasterized one month per transaction first.
+     */
+    private void rebuildArchivedCoverage(UUID userId) {
+        long stageStart = metricsStart();
+        int months = 0;
+        CoverageJvmEngine.ArchiveCursor cursor = coverageBatchProcessor.processNextArchivedMonth(userId, null);
+        while (cursor != null) {
+            months++;
+            cursor = coverageBatchProcessor.processNextArchivedMonth(userId, cursor);
+        }
+        recordCoverageStage(stageStart, "rebuild_archive", "full", "success");
+        if (months > 0) {
+            log.debug("Rebuilt coverage of {} archived months for user {}", months, userId);
+        }
+    }
+
     public List<CoverageCell> getCoverageCells(UUID userId,
                                                double minLon,
                                                double minLat,
@@ -99,7 +124,44 @@ public class CoverageService {
                                                int limit) {
         ensureGridSupported(gridMeters);
         int boundedLimit = Math.max(1, Math.min(limit, CoverageDefaults.MAX_CELLS_PER_VIEW));
-        return coverageRepository.findCoverageCells(userId, minLon, minLat, maxLon, maxLat, gridMeters, boundedLimit);
+        int levelMeters = selectGridLevel(userId, minLon, minLat, maxLon, maxLat, gridMeters, boundedLimit);
+        return coverageRepository.findCoverageCells(userId, minLon, minLat, maxLon, maxLat, levelMeters, boundedLimit);
+    }
+
+    /**
+     * Finest pyramid level, starting at the requested grid, whose cells in the bbox fit the limit, so a
+     * zoomed-out view gets a complete coarser picture instead of an arbitrary top-N of fine cells.
+     * A level whose bbox cannot hold more than {@code limit} cells is taken without querying; otherwise
+     * its cells are counted up to {@code limit + 1}. Falls back to the coarsest level.
+     */
+    int selectGridLevel(UUID userId,
+                        double minLon,
+                        double minLat,
+                        double maxLon,
+                        double maxLat,
+                        int gridMeters,
+                        int limit) {
+        List<Integer> levels = CoverageDefaults.GRID_SIZES_METERS_ORDERED;
+        double widthMeters = mercatorX(maxLon) - mercatorX(minLon);
+        double heightMeters = mercatorY(maxLat) - mercatorY(minLat);
+        for (int level : levels.subList(levels.indexOf(gridMeters), levels.size() - 1)) {
+            double bboxCells = (Math.floor(widthMeters / level) + 2) * (Math.floor(heightMeters / level) + 2);
+            if (bboxCells <= limit
+                    || coverageRepository.countCoverageCellsInBbox(
+                    userId, minLon, minLat, maxLon, maxLat, level, limit + 1) <= limit) {
+                return level;
+            }
+        }
+        return levels.get(levels.size() - 1);
+    }
+
+    private static double mercatorX(double lon) {
+        return Math.toRadians(lon) * EARTH_RADIUS_METERS;
+    }
+
+    private static double mercatorY(double lat) {
+        double clamped = Math.max(-MAX_MERCATOR_LATITUDE, Math.min(MAX_MERCATOR_LATITUDE, lat));
+        return Math.log(Math.tan(Math.PI / 4 + Math.toRadians(clamped) / 2)) * EARTH_RADIUS_METERS;
     }
 
     public CoverageSummary getCoverageSummary(UUID userId, int gridMeters) {
@@ -114,13 +176,22 @@ public class CoverageService {
         return CoverageDefaults.GRID_SIZES_METERS.contains(gridMeters);
     }
 
+    /**
+     * Switching coverage on bumps the data watermark, so history stored before the watermark existed is processed
+     * without waiting for new points. Processing resumes from the stored cursor, which for a user never processed
+     * is their earliest point.
+     */
     @Transactional
     public void setUserCoverageEnabled(UUID userId, boolean enabled) {
         UserEntity user = userRepository.findById(userId);
         if (user == null) {
             throw new IllegalArgumentException("User not found");
         }
+        boolean switchedOn = enabled && !user.isCoverageEnabled();
         user.setCoverageEnabled(enabled);
+        if (switchedOn) {
+            coverageRepository.markNewData(userId);
+        }
     }
 
     public CoverageStatus getCoverageStatus(UUID userId) {
@@ -1,5 +1,6 @@
 package org.github.tess1o.geopulse.export.model;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -7,6 +8,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Getter
 @Setter
@@ -27,6 +29,9 @@ public class ExportJob {
     private String fileExtension;  // File extension (.zip, .json, .gpx, .csv)
     private String error;
     private long fileSizeBytes;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong exportedRecords = new AtomicLong();  // Records written so far, for throughput metrics
 
     public ExportJob() {
         this.jobId = UUID.randomUUID();
@@ -59,4 +64,12 @@ public class ExportJob {
         this.progress = Math.min(100, Math.max(0, progress));
         this.progressMessage = message;
     }
-}
\ No newline at end of file
+
+    public void addExportedRecords(long count) {
+        exportedRecords.addAndGet(count);
+    }
+
+    public long getExportedRecords() {
+        return exportedRecords.get();
+    }
+}
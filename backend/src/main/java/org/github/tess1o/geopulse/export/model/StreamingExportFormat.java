@@ -0,0 +1,52 @@
+package org.github.tess1o.geopulse.export.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Export formats that can be written straight into the HTTP response, without a background job or temp file.
+ * These are single-document formats produced from the keyset-paged GPS point cursor; ZIP based exports
+ * (GeoPulse native, GPX per trip) still go through {@code ExportJobManager}.
+ */
+public enum StreamingExportFormat {
+
+    GPX("gpx", "application/gpx+xml", "gpx"),
+    GEOJSON("geojson", "application/geo+json", "geojson"),
+    CSV("csv", "text/csv; charset=utf-8", "csv"),
+    OWNTRACKS("owntracks", "application/json", "json");
+
+    private final String value;
+    private final String contentType;
+    private final String fileExtension;
+
+    StreamingExportFormat(String value, String contentType, String fileExtension) {
+        this.value = value;
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * @return matching format (case-insensitive), or empty if the format cannot be streamed directly
+     */
+    public static Optional<StreamingExportFormat> fromString(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        String normalizedValue = value.trim();
+        return Arrays.stream(values())
+                .filter(format -> format.value.equalsIgnoreCase(normalizedValue))
+                .findFirst();
+    }
+}
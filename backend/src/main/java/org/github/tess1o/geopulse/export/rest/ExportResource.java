@@ -1,34 +1,42 @@
 package org.github.tess1o.geopulse.export.rest;
 
 import io.quarkus.security.Authenticated;
+import io.vertx.ext.web.RoutingContext;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.StreamingOutput;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.github.tess1o.geopulse.admin.service.SystemSettingsService;
 import org.github.tess1o.geopulse.auth.service.CurrentUserService;
 import org.github.tess1o.geopulse.export.model.CreateExportRequest;
 import org.github.tess1o.geopulse.export.model.DebugExportRequest;
+import org.github.tess1o.geopulse.export.model.ExportDateRange;
 import org.github.tess1o.geopulse.export.model.ExportJob;
 import org.github.tess1o.geopulse.export.model.ExportJobResponse;
+import org.github.tess1o.geopulse.export.model.StreamingExportFormat;
 import org.github.tess1o.geopulse.export.service.DebugExportService;
 import org.github.tess1o.geopulse.export.service.ExportJobManager;
 import org.github.tess1o.geopulse.shared.api.ApiResponse;
 import org.github.tess1o.geopulse.shared.exportimport.ExportImportConstants;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 @jakarta.ws.rs.Path("/api/export")
@@ -51,6 +59,9 @@ public class ExportResource {
     @Inject
     SystemSettingsService settingsService;
 
+    @ConfigProperty(name = "geopulse.export.streaming.gzip-enabled", defaultValue = "true")
+    boolean streamingGzipEnabled;
+
     /**
      * @deprecated Use {@link #createExport(CreateExportRequest)} with format field instead.
      * This endpoint is kept for backward compatibility.
@@ -201,6 +212,92 @@ public class ExportResource {
         }
     }
 
+    /**
+     * Synchronous export streamed straight into the response: no job, no polling and no temp file.
+     * Points are written from the DB cursor as they are read, so the download starts immediately.
+     * The body is gzip-encoded when the client accepts it.
+     *
+     * @param format   gpx, geojson, csv or owntracks
+     * @param startDate ISO-8601 instant, inclusive
+     * @param endDate   ISO-8601 instant, inclusive
+     * @param ownTracksFormat optional OwnTracks layout ("ocat" or "array")
+     */
+    @GET
+    @jakarta.ws.rs.Path("/stream/{format}")
+    @Produces({ "application/gpx+xml", "application/geo+json", "text/csv", "application/json" })
+    public Response streamExport(@jakarta.ws.rs.PathParam("format") String format,
+            @QueryParam("startDate") String startDate,
+            @QueryParam("endDate") String endDate,
+            @QueryParam("owntracksFormat") String ownTracksFormat,
+            @HeaderParam("Accept-Encoding") String acceptEncoding,
+            @Context RoutingContext routingContext) {
+        var streamingFormat = StreamingExportFormat.fromString(format);
+        if (streamingFormat.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(createErrorResponse("INVALID_REQUEST",
+                            "Format '" + format + "' cannot be streamed. Use gpx, geojson, csv or owntracks, or create an export job."))
+                    .build();
+        }
+
+        ExportDateRange dateRange = new ExportDateRange();
+        try {
+            dateRange.setStartDate(startDate != null ? Instant.parse(startDate) : null);
+            dateRange.setEndDate(endDate != null ? Instant.parse(endDate) : null);
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(createErrorResponse("INVALID_REQUEST", "Dates must be ISO-8601 instants"))
+                    .build();
+        }
+        var validationError = validateDateRange(dateRange);
+        if (validationError.isPresent()) {
+            return validationError.get();
+        }
+
+        Map<String, Object> options = ownTracksFormat != null ? Map.of("owntracksFormat", ownTracksFormat) : null;
+        UUID userId = currentUserService.getCurrentUserId();
+        StreamingExportFormat exportFormat = streamingFormat.get();
+        ExportJob job;
+        try {
+            job = exportJobManager.reserveStreamingExport(userId, exportFormat, dateRange, options);
+        } catch (IllegalStateException e) {
+            return handleTooManyRequests(e);
+        }
+        try {
+            // HEAD requests and clients that disconnect before the body is written never run the stream
+            routingContext.addEndHandler(ignored -> exportJobManager.releaseStreamingExport(job));
+            return streamingExportResponse(job, userId, exportFormat, acceptEncoding);
+        } catch (RuntimeException e) {
+            exportJobManager.releaseStreamingExport(job);
+            throw e;
+        }
+    }
+
+    private Response streamingExportResponse(ExportJob job, UUID userId, StreamingExportFormat exportFormat,
+                                             String acceptEncoding) {
+        boolean gzip = streamingGzipEnabled && acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingOutput stream = output -> {
+            OutputStream target = gzip ? new GZIPOutputStream(output, 64 * 1024) : output;
+            try {
+                exportJobManager.runStreamingExport(job, exportFormat, target);
+            } finally {
+                target.close();
+            }
+        };
+
+        job.setFileExtension("." + exportFormat.getFileExtension());
+        String filename = generateFilename(job, userId);
+        Response.ResponseBuilder response = Response.ok(stream)
+                .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
+                .header("Content-Type", exportFormat.getContentType())
+                .header("Vary", "Accept-Encoding");
+        if (gzip) {
+            response.header("Content-Encoding", "gzip");
+        }
+        return response.build();
+    }
+
     @GET
     @jakarta.ws.rs.Path("/status/{exportJobId}")
     public Response getExportStatus(@jakarta.ws.rs.PathParam("exportJobId") UUID exportJobId) {
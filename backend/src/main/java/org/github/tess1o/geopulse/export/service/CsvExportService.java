@@ -36,6 +36,9 @@ public class CsvExportService {
     @Inject
     ExportTempFileService tempFileService;
 
+    @Inject
+    StreamingExportService streamingExportService;
+
     /**
      * Generates a CSV export for the given export job using STREAMING approach.
      * Writes directly to a temporary file to avoid memory issues.
@@ -48,13 +51,31 @@ public class CsvExportService {
 
         job.updateProgress(5, "Initializing CSV export...");
 
-        int batchSize = settingsService.getInteger("export.batch-size");
-
         // Create temp file
         java.nio.file.Path tempFile = tempFileService.createTempFile(job.getJobId(), ".csv");
 
-        try (java.io.OutputStream os = java.nio.file.Files.newOutputStream(tempFile);
-                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8))) {
+        try (java.io.OutputStream os = java.nio.file.Files.newOutputStream(tempFile)) {
+            writeCsv(job, os);
+        }
+
+        // Update job with file info
+        job.setTempFilePath(tempFile.toString());
+        job.setFileExtension(".csv");
+        job.setContentType("text/csv");
+        job.setFileSizeBytes(java.nio.file.Files.size(tempFile));
+
+        job.updateProgress(95, "Finalizing CSV export...");
+        job.updateProgress(100, "Export completed");
+    }
+
+    /**
+     * Writes the CSV export for the job to the given stream.
+     * Used both for temp-file jobs and for direct streaming downloads; the stream is closed when done.
+     */
+    public void writeCsv(ExportJob job, java.io.OutputStream outputStream) throws IOException {
+        int batchSize = settingsService.getInteger("export.batch-size");
+
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
 
             // Write CSV header
             writer.write("timestamp,latitude,longitude,accuracy,velocity,altitude,battery,device_id,source_type,telemetry\n");
@@ -64,12 +85,14 @@ public class CsvExportService {
             int[] totalWritten = {0};
             int[] batchCount = {0};
             try {
-                gpsPointRepository.streamByUserAndDateRangeForExport(
-                        job.getUserId(),
-                        job.getDateRange().getStartDate(),
-                        job.getDateRange().getEndDate(),
-                        batchSize,
-                        batch -> {
+                streamingExportService.<GpsPointEntity>pipelined(
+                        downstream -> gpsPointRepository.streamByUserAndDateRangeForExport(
+                                job.getUserId(),
+                                job.getDateRange().getStartDate(),
+                                job.getDateRange().getEndDate(),
+                                batchSize,
+                                downstream),
+                        job).produce(batch -> {
                             try {
                                 for (GpsPointEntity point : batch) {
                                     writer.write(formatCsvRow(point));
@@ -96,15 +119,6 @@ public class CsvExportService {
 
             log.info("Completed streaming CSV export: {} records in {} batches", totalWritten[0], batchCount[0]);
         }
-
-        // Update job with file info
-        job.setTempFilePath(tempFile.toString());
-        job.setFileExtension(".csv");
-        job.setContentType("text/csv");
-        job.setFileSizeBytes(java.nio.file.Files.size(tempFile));
-
-        job.updateProgress(95, "Finalizing CSV export...");
-        job.updateProgress(100, "Export completed");
     }
 
     /**
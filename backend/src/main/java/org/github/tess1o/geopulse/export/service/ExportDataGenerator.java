@@ -4,8 +4,10 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.export.model.ExportJob;
+import org.github.tess1o.geopulse.export.model.StreamingExportFormat;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * Main orchestrator for export operations using STREAMING approach.
@@ -68,6 +70,19 @@ public class ExportDataGenerator {
         gpxExportService.generateGpxExport(job, zipPerTrip, zipGroupBy);
     }
 
+    /**
+     * Writes a single-document export straight to {@code outputStream} (no temp file).
+     * GPX is always written as one document; per-trip ZIP layouts require a background job.
+     */
+    public void streamExport(ExportJob job, StreamingExportFormat format, OutputStream outputStream) throws IOException {
+        switch (format) {
+            case GPX -> gpxExportService.writeGpx(job, outputStream);
+            case GEOJSON -> geoJsonExportService.writeGeoJson(job, outputStream);
+            case CSV -> csvExportService.writeCsv(job, outputStream);
+            case OWNTRACKS -> ownTracksExportService.writeOwnTracks(job, outputStream);
+        }
+    }
+
     /**
      * Generates a GPX file for a single trip.
      */
@@ -1,19 +1,29 @@
 package org.github.tess1o.geopulse.export.service;
 
 import io.quarkus.scheduler.Scheduled;
+import io.smallrye.common.annotation.Identifier;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.github.tess1o.geopulse.admin.service.SystemSettingsService;
 import org.github.tess1o.geopulse.export.model.ExportDateRange;
 import org.github.tess1o.geopulse.export.model.ExportJob;
 import org.github.tess1o.geopulse.export.model.ExportStatus;
+import org.github.tess1o.geopulse.export.model.StreamingExportFormat;
+import org.github.tess1o.geopulse.prometheus.GeoPulseWorkloadMetrics;
+import org.github.tess1o.geopulse.shared.exportimport.ExportImportConstants;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -29,8 +39,22 @@ public class ExportJobManager {
     @Inject
     ExportTempFileService tempFileService;
 
+    @Inject
+    @Identifier("export-processing")
+    ExecutorService exportExecutor;
+
+    @Inject
+    GeoPulseWorkloadMetrics workloadMetrics;
+
+    @ConfigProperty(name = "geopulse.export.streaming.max-concurrent", defaultValue = "4")
+    int maxConcurrentStreamingExports;
+
     private final ConcurrentHashMap<UUID, ExportJob> activeJobs = new ConcurrentHashMap<>();
+    private final Set<UUID> runningJobs = ConcurrentHashMap.newKeySet();
     private volatile boolean processing = false;
+    private Semaphore streamingExportSlots;
+    // Direct exports holding a slot; release is idempotent because both the body and the response end release it
+    private final Set<UUID> reservedStreamingExports = ConcurrentHashMap.newKeySet();
 
     public ExportJob createExportJob(UUID userId, List<String> dataTypes, ExportDateRange dateRange, String format) {
         return createExportJob(userId, dataTypes, dateRange, format, null);
@@ -61,6 +85,60 @@ public class ExportJobManager {
         }
     }
 
+    /**
+     * Reserve a slot for a direct (response-streamed) export. Direct exports are not listed as jobs and never
+     * touch the temp directory; the returned job only carries the parameters, progress and record count.
+     * The slot is released by {@link #runStreamingExport}; the caller must also call
+     * {@link #releaseStreamingExport} when the response ends, since the body may never be written.
+     *
+     * @throws IllegalStateException when too many direct exports are already running
+     */
+    public ExportJob reserveStreamingExport(UUID userId, StreamingExportFormat format, ExportDateRange dateRange,
+                                            Map<String, Object> options) {
+        if (!streamingExportSlots.tryAcquire()) {
+            throw new IllegalStateException("Too many exports are being streamed right now. Please try again shortly.");
+        }
+        ExportJob job = new ExportJob(userId, List.of(ExportImportConstants.DataTypes.RAW_GPS),
+                dateRange, format.getValue(), options);
+        reservedStreamingExports.add(job.getJobId());
+        return job;
+    }
+
+    /**
+     * Release the slot of a direct export; calling it again, or after {@link #runStreamingExport}, has no effect.
+     */
+    public void releaseStreamingExport(ExportJob job) {
+        if (reservedStreamingExports.remove(job.getJobId())) {
+            streamingExportSlots.release();
+        }
+    }
+
+    int availableStreamingExportSlots() {
+        return streamingExportSlots.availablePermits();
+    }
+
+    /**
+     * Write a reserved direct export into {@code outputStream} on the calling thread.
+     */
+    public void runStreamingExport(ExportJob job, StreamingExportFormat format, OutputStream outputStream) throws IOException {
+        long startedAt = workloadMetrics.start();
+        String result = "success";
+        try {
+            log.info("Streaming {} export directly to client for user {}", format.getValue(), job.getUserId());
+            exportDataGenerator.streamExport(job, format, outputStream);
+            job.setStatus(ExportStatus.COMPLETED);
+            job.setCompletedAt(Instant.now());
+        } catch (IOException | RuntimeException e) {
+            result = "failure";
+            job.setStatus(ExportStatus.FAILED);
+            job.setError(e.getMessage());
+            throw e;
+        } finally {
+            releaseStreamingExport(job);
+            recordJobMetrics(job, startedAt, result);
+        }
+    }
+
     public byte[] exportSingleTrip(UUID userId, Long tripId) throws Exception {
         return exportDataGenerator.generateSingleTripGpx(userId, tripId);
     }
@@ -92,12 +170,13 @@ public class ExportJobManager {
             return false;
         }
 
-        // Clean up temp file if exists
-        if (job.getTempFilePath() != null) {
+        activeJobs.remove(jobId);
+
+        // Clean up temp file if exists; a running job cleans up after itself once it notices the removal
+        if (job.getTempFilePath() != null && !runningJobs.contains(jobId)) {
             tempFileService.deleteTempFile(job.getTempFilePath());
         }
 
-        activeJobs.remove(jobId);
         log.info("Deleted export job {} for user {}", jobId, userId);
         return true;
     }
@@ -106,6 +185,7 @@ public class ExportJobManager {
 
     @jakarta.annotation.PostConstruct
     public void init() {
+        streamingExportSlots = new Semaphore(Math.max(1, maxConcurrentStreamingExports));
         exportStrategies.put("owntracks", job -> exportDataGenerator.generateOwnTracksExport(job));
         exportStrategies.put("geojson", job -> exportDataGenerator.generateGeoJsonExport(job));
         exportStrategies.put("csv", job -> exportDataGenerator.generateCsvExport(job));
@@ -150,61 +230,120 @@ public class ExportJobManager {
         }
     }
 
+    /**
+     * Hand pending jobs to export workers. Jobs run concurrently up to {@code export.concurrent-jobs-limit};
+     * the scheduler only dispatches, so a long export no longer delays the jobs queued behind it.
+     */
     private void processAvailableJobs() {
         int concurrentLimit = settingsService.getInteger("export.concurrent-jobs-limit");
+        int freeSlots = concurrentLimit - runningJobs.size();
+        if (freeSlots <= 0) {
+            return;
+        }
+
         List<ExportJob> pendingJobs = activeJobs.values().stream()
                 .filter(job -> job.getStatus() == ExportStatus.PROCESSING)
                 .filter(job -> job.getTempFilePath() == null) // Not yet processed
-                .limit(concurrentLimit)
+                .filter(job -> !runningJobs.contains(job.getJobId()))
+                .sorted(Comparator.comparing(ExportJob::getCreatedAt))
+                .limit(freeSlots)
                 .collect(Collectors.toList());
 
         for (ExportJob job : pendingJobs) {
+            if (!runningJobs.add(job.getJobId())) {
+                continue;
+            }
             try {
-                log.debug("Processing export job {} with format {}", job.getJobId(), job.getFormat());
-
-                // Get format-specific processor - fail fast if unsupported
-                ExportJobProcessor processor = exportStrategies.get(job.getFormat());
-                if (processor == null) {
-                    throw new IllegalArgumentException(
-                            String.format("Unsupported export format: '%s'. Supported formats: %s",
-                                    job.getFormat(),
-                                    String.join(", ", exportStrategies.keySet()))
-                    );
-                }
-
-                processor.process(job);
-
-                // Status and progress are updated by the generator services,
-                // but we finalize it here to ensure consistency
-                job.setStatus(ExportStatus.COMPLETED);
-                job.setCompletedAt(Instant.now());
-                job.setProgress(100);
-
-                log.info("Completed {} export job {} - {} bytes written to {}",
-                        job.getFormat(), job.getJobId(), job.getFileSizeBytes(), job.getTempFilePath());
-
-            } catch (Exception e) {
-                log.error("Failed to process export job {}: {}", job.getJobId(), e.getMessage(), e);
-
-                job.setStatus(ExportStatus.FAILED);
-                job.setError(e.getMessage());
-                job.setProgress(0);
-
-                // Clean up temp file if it was created
-                if (job.getTempFilePath() != null) {
-                    tempFileService.deleteTempFile(job.getTempFilePath());
-                    job.setTempFilePath(null);
-                }
+                exportExecutor.submit(() -> runJob(job));
+            } catch (RejectedExecutionException e) {
+                runningJobs.remove(job.getJobId());
+                log.warn("Export executor rejected job {}, will retry on next run", job.getJobId());
             }
         }
     }
 
+    @ActivateRequestContext
+    void runJob(ExportJob job) {
+        try {
+            processJob(job);
+        } finally {
+            runningJobs.remove(job.getJobId());
+            // Deleted or expired while running: nobody can download the file anymore
+            if (!activeJobs.containsKey(job.getJobId()) && job.getTempFilePath() != null) {
+                tempFileService.deleteTempFile(job.getTempFilePath());
+            }
+        }
+    }
+
+    private void processJob(ExportJob job) {
+        long startedAt = workloadMetrics.start();
+        String result = "success";
+        try {
+            log.debug("Processing export job {} with format {}", job.getJobId(), job.getFormat());
+
+            // Get format-specific processor - fail fast if unsupported
+            ExportJobProcessor processor = exportStrategies.get(job.getFormat());
+            if (processor == null) {
+                throw new IllegalArgumentException(
+                        String.format("Unsupported export format: '%s'. Supported formats: %s",
+                                job.getFormat(),
+                                String.join(", ", exportStrategies.keySet()))
+                );
+            }
+
+            processor.process(job);
+
+            // Status and progress are updated by the generator services,
+            // but we finalize it here to ensure consistency
+            job.setStatus(ExportStatus.COMPLETED);
+            job.setCompletedAt(Instant.now());
+            job.setProgress(100);
+
+            log.info("Completed {} export job {} - {} bytes written to {}",
+                    job.getFormat(), job.getJobId(), job.getFileSizeBytes(), job.getTempFilePath());
+
+        } catch (Exception e) {
+            result = "failure";
+            log.error("Failed to process export job {}: {}", job.getJobId(), e.getMessage(), e);
+
+            job.setStatus(ExportStatus.FAILED);
+            job.setError(e.getMessage());
+            job.setProgress(0);
+
+            // Clean up temp file if it was created
+            if (job.getTempFilePath() != null) {
+                tempFileService.deleteTempFile(job.getTempFilePath());
+                job.setTempFilePath(null);
+            }
+        } finally {
+            recordJobMetrics(job, startedAt, result);
+        }
+    }
+
+    private void recordJobMetrics(ExportJob job, long startedAtNanos, String result) {
+        String format = String.valueOf(job.getFormat());
+        workloadMetrics.recordTimer("geopulse.export.job.duration", startedAtNanos, "format", format, "result", result);
+
+        long records = job.getExportedRecords();
+        if (records <= 0) {
+            return;
+        }
+        workloadMetrics.increment("geopulse.export.points", records, "format", format);
+        long elapsedNanos = Math.max(1, System.nanoTime() - startedAtNanos);
+        long pointsPerSecond = records * 1_000_000_000L / elapsedNanos;
+        workloadMetrics.setGauge("geopulse.export.throughput", pointsPerSecond, "format", format);
+        log.info("Export job {} wrote {} points in {} ms ({} points/s)",
+                job.getJobId(), records, elapsedNanos / 1_000_000, pointsPerSecond);
+    }
+
     private void cleanupExpiredJobs() {
         int jobExpiryHours = settingsService.getInteger("export.job-expiry-hours");
         Instant cutoff = Instant.now().minus(jobExpiryHours, ChronoUnit.HOURS);
 
+        // Running jobs are left alone until they finish; they are picked up on a later run
         List<ExportJob> expiredJobs = activeJobs.values().stream()
                 .filter(job -> job.getCreatedAt().isBefore(cutoff))
+                .filter(job -> !runningJobs.contains(job.getJobId()))
                 .collect(Collectors.toList());
 
         for (ExportJob job : expiredJobs) {
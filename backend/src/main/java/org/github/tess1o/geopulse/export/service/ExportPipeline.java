@@ -0,0 +1,136 @@
+package org.github.tess1o.geopulse.export.service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Splits a batch stream into a reader stage and a writer stage connected by a bounded queue.
+ * <p>
+ * The source producer keeps running on the calling thread, so it still sees the caller's transaction and
+ * request context while it pages through the database. Batches are handed to a writer task on {@code executor}
+ * that runs the downstream consumer (serialization, compression, file I/O). The queue bound keeps memory at
+ * {@code queueCapacity} batches: a slow writer blocks the reader instead of buffering the whole export.
+ * <p>
+ * Batches must be safe to hand to another thread, i.e. detached snapshots rather than lazily loaded entities.
+ */
+final class ExportPipeline {
+
+    private static final List<Object> END_OF_STREAM = List.of();
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private ExportPipeline() {
+    }
+
+    /**
+     * Wrap {@code source} so that every batch it publishes is consumed on the executor.
+     * {@code produce} returns once the writer has consumed the last batch; a failure in either stage is
+     * rethrown on the calling thread unchanged, so existing {@code UncheckedIOException} style handlers keep working.
+     *
+     * @param recordCounter receives the size of every batch after it has been written, may be null
+     */
+    static <T> StreamingExportService.BatchProducer<T> pipelined(StreamingExportService.BatchProducer<T> source,
+                                                                 Executor executor,
+                                                                 int queueCapacity,
+                                                                 LongConsumer recordCounter) {
+        return downstream -> {
+            BlockingQueue<List<?>> queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> drain(queue, downstream, recordCounter), executor);
+
+            try {
+                source.produce(batch -> {
+                    if (batch != null && !batch.isEmpty()) {
+                        put(queue, batch, writer);
+                    }
+                });
+                put(queue, END_OF_STREAM, writer);
+            } catch (RuntimeException | Error e) {
+                // Drop pending batches and let the writer finish before the caller closes its output stream.
+                // When the writer failed first, its error is the root cause the caller cares about.
+                queue.clear();
+                queue.offer(END_OF_STREAM);
+                awaitQuietly(writer);
+                if (writer.isCompletedExceptionally()) {
+                    rethrow(writer);
+                }
+                throw e;
+            }
+
+            rethrow(writer);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void drain(BlockingQueue<List<?>> queue, Consumer<List<T>> downstream, LongConsumer recordCounter) {
+        try {
+            while (true) {
+                List<?> batch = queue.take();
+                if (batch == END_OF_STREAM) {
+                    return;
+                }
+                downstream.accept((List<T>) batch);
+                if (recordCounter != null) {
+                    recordCounter.accept(batch.size());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Export writer interrupted", e);
+        }
+    }
+
+    private static void put(BlockingQueue<List<?>> queue, List<?> batch, CompletableFuture<Void> writer) {
+        try {
+            while (!queue.offer(batch, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                if (writer.isDone()) {
+                    // Writer stopped early (failed); stop reading and surface its error
+                    rethrow(writer);
+                    throw new IllegalStateException("Export writer finished before the stream ended");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Export reader interrupted", e);
+        }
+    }
+
+    private static void awaitQuietly(CompletableFuture<Void> writer) {
+        try {
+            writer.join();
+        } catch (CompletionException | CancellationException ignored) {
+            // Inspected by the caller
+        }
+    }
+
+    private static void rethrow(CompletableFuture<Void> writer) {
+        try {
+            writer.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for export writer", e);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Export writer failed", cause);
+    }
+}
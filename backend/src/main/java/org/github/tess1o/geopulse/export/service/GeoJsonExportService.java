@@ -45,41 +45,8 @@ public class GeoJsonExportService {
         // Create temp file
         java.nio.file.Path tempFile = tempFileService.createTempFile(job.getJobId(), ".geojson");
 
-        try (java.io.OutputStream os = java.nio.file.Files.newOutputStream(tempFile);
-                java.io.BufferedOutputStream bos = new java.io.BufferedOutputStream(os)) {
-
-            // Count total points for progress tracking (optional, can be skipped for
-            // performance)
-            // For now, we'll estimate based on batches
-            int totalRecords = -1; // Unknown, will update progress based on batches
-
-            job.updateProgress(10, "Starting to stream GPS data...");
-
-            int batchSize = streamingExportService.getBatchSize();
-
-            // Stream GeoJSON FeatureCollection with features array
-            streamingExportService.<GpsPointEntity>streamJsonObjectWithArray(
-                    bos,
-                    // Write GeoJSON FeatureCollection metadata
-                    (gen, mapper) -> gen.writeStringField("type", "FeatureCollection"),
-                    // Array field name
-                    "features",
-                    batchConsumer -> gpsPointRepository.streamByUserAndDateRangeForExport(
-                            job.getUserId(),
-                            job.getDateRange().getStartDate(),
-                            job.getDateRange().getEndDate(),
-                            batchSize,
-                            batchConsumer),
-                    // Write each GPS point as GeoJSON feature
-                    this::writeGpsPointAsGeoJsonFeature,
-                    // Progress tracking
-                    job,
-                    totalRecords,
-                    10, // progress start: 10%
-                    90, // progress end: 90%
-                    "Exporting GPS points:");
-
-            log.info("Completed streaming GeoJSON export");
+        try (java.io.OutputStream os = java.nio.file.Files.newOutputStream(tempFile)) {
+            writeGeoJson(job, os);
         }
 
         // Update job with file info
@@ -92,6 +59,53 @@ public class GeoJsonExportService {
         job.updateProgress(100, "Export completed");
     }
 
+    /**
+     * Writes the GeoJSON FeatureCollection for the job to the given stream.
+     * Used both for temp-file jobs and for direct streaming downloads; the stream is closed when done.
+     *
+     * @param job the export job (user, date range, progress)
+     * @param outputStream destination stream
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeGeoJson(ExportJob job, java.io.OutputStream outputStream) throws IOException {
+        java.io.BufferedOutputStream bos = new java.io.BufferedOutputStream(outputStream);
+
+        // Count total points for progress tracking (optional, can be skipped for
+        // performance)
+        // For now, we'll estimate based on batches
+        int totalRecords = -1; // Unknown, will update progress based on batches
+
+        job.updateProgress(10, "Starting to stream GPS data...");
+
+        int batchSize = streamingExportService.getBatchSize();
+
+        // Stream GeoJSON FeatureCollection with features array
+        streamingExportService.<GpsPointEntity>streamJsonObjectWithArray(
+                bos,
+                // Write GeoJSON FeatureCollection metadata
+                (gen, mapper) -> gen.writeStringField("type", "FeatureCollection"),
+                // Array field name
+                "features",
+                streamingExportService.pipelined(
+                        batchConsumer -> gpsPointRepository.streamByUserAndDateRangeForExport(
+                                job.getUserId(),
+                                job.getDateRange().getStartDate(),
+                                job.getDateRange().getEndDate(),
+                                batchSize,
+                                batchConsumer),
+                        job),
+                // Write each GPS point as GeoJSON feature
+                this::writeGpsPointAsGeoJsonFeature,
+                // Progress tracking
+                job,
+                totalRecords,
+                10, // progress start: 10%
+                90, // progress end: 90%
+                "Exporting GPS points:");
+
+        log.info("Completed streaming GeoJSON export");
+    }
+
     /**
      * Writes a single GPS point as a GeoJSON feature directly to the JSON stream.
      * This method is called for each GPS point without accumulating them in memory.
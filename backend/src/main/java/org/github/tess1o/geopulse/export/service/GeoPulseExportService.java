@@ -187,12 +187,14 @@ public class GeoPulseExportService {
                 },
                 // Array field name
                 "points",
-                batchConsumer -> gpsPointRepository.streamByUserAndDateRangeForExport(
-                        job.getUserId(),
-                        job.getDateRange().getStartDate(),
-                        job.getDateRange().getEndDate(),
-                        batchSize,
-                        batchConsumer),
+                streamingExportService.pipelined(
+                        batchConsumer -> gpsPointRepository.streamByUserAndDateRangeForExport(
+                                job.getUserId(),
+                                job.getDateRange().getStartDate(),
+                                job.getDateRange().getEndDate(),
+                                batchSize,
+                                batchConsumer),
+                        job),
                 // Convert entity to DTO
                 gpsPoint -> exportDataMapper.toGpsPointDto(gpsPoint),
                 // Progress tracking
@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.admin.service.SystemSettingsService;
 import org.github.tess1o.geopulse.export.model.ExportJob;
 import org.github.tess1o.geopulse.gps.integrations.gpx.model.*;
+import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
 import org.github.tess1o.geopulse.streaming.model.entity.TimelineStayEntity;
 import org.github.tess1o.geopulse.streaming.model.entity.TimelineTripEntity;
 
@@ -49,6 +50,9 @@ public class GpxExportService {
     @Inject
     ExportTempFileService tempFileService;
 
+    @Inject
+    StreamingExportService streamingExportService;
+
     /**
      * Converts a list of GPS points to a GPX track.
      * This is the core conversion logic used by all export methods.
@@ -146,6 +150,23 @@ public class GpxExportService {
         }
     }
 
+    /**
+     * Writes a single GPX document (raw track, trips, stays) for the job to the given stream.
+     * Used for direct streaming downloads; the stream is flushed but left open.
+     *
+     * @param job          the export job
+     * @param outputStream the output stream to write to
+     * @throws IOException if writing or data collection fails
+     */
+    public void writeGpx(ExportJob job, java.io.OutputStream outputStream) throws IOException {
+        try {
+            streamGpxFileToOutput(job, outputStream);
+            outputStream.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to generate GPX export: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Streams a complete GPX file to the output stream without loading all data
      * into memory.
@@ -219,12 +240,14 @@ public class GpxExportService {
         job.updateProgress(15, "Streaming raw GPS data...");
 
         try {
-            dataCollectorService.getGpsPointRepository().streamByUserAndDateRangeForExport(
-                    job.getUserId(),
-                    job.getDateRange().getStartDate(),
-                    job.getDateRange().getEndDate(),
-                    batchSize,
-                    batch -> {
+            streamingExportService.<GpsPointEntity>pipelined(
+                    downstream -> dataCollectorService.getGpsPointRepository().streamByUserAndDateRangeForExport(
+                            job.getUserId(),
+                            job.getDateRange().getStartDate(),
+                            job.getDateRange().getEndDate(),
+                            batchSize,
+                            downstream),
+                    job).produce(batch -> {
                         try {
                             // Start track on first batch
                             if (!trackStarted[0]) {
@@ -51,50 +51,12 @@ public class OwnTracksExportService {
         log.info("Starting streaming OwnTracks export for user {}", job.getUserId());
 
         job.updateProgress(5, "Initializing OwnTracks export...");
-        String ownTracksFormat = resolveOwnTracksFormat(job);
 
         // Create temp file
         java.nio.file.Path tempFile = tempFileService.createTempFile(job.getJobId(), ".json");
 
-        try (java.io.OutputStream os = java.nio.file.Files.newOutputStream(tempFile);
-                java.io.BufferedOutputStream bos = new java.io.BufferedOutputStream(os)) {
-
-            job.updateProgress(10, "Starting to stream GPS data...");
-
-            int batchSize = streamingExportService.getBatchSize();
-            long totalRecords = gpsPointRepository.countByUserIdAndTimePeriod(
-                    job.getUserId(),
-                    job.getDateRange().getStartDate(),
-                    job.getDateRange().getEndDate());
-
-            int totalWritten;
-            if (FORMAT_ARRAY.equals(ownTracksFormat)) {
-                totalWritten = streamingExportService.<GpsPointEntity, OwnTracksLocationMessage>streamJsonArray(
-                        bos,
-                        batchConsumer -> streamExportPoints(job, batchSize, batchConsumer),
-                        gpsPoint -> gpsPointMapper.toOwnTracksLocationMessage(gpsPoint),
-                        job,
-                        toProgressTotal(totalRecords),
-                        10,
-                        90,
-                        "Exporting GPS points:");
-            } else {
-                totalWritten = streamingExportService.<GpsPointEntity>streamJsonObjectWithArray(
-                        bos,
-                        (gen, mapper) -> gen.writeNumberField("count", totalRecords),
-                        "locations",
-                        batchConsumer -> streamExportPoints(job, batchSize, batchConsumer),
-                        (gen, gpsPoint, mapper) ->
-                                gen.writeObject(gpsPointMapper.toOwnTracksLocationMessage(gpsPoint)),
-                        job,
-                        toProgressTotal(totalRecords),
-                        10,
-                        90,
-                        "Exporting GPS points:");
-            }
-
-            log.info("Completed streaming OwnTracks export: {} messages, format={}",
-                    totalWritten, ownTracksFormat);
+        try (java.io.OutputStream os = java.nio.file.Files.newOutputStream(tempFile)) {
+            writeOwnTracks(job, os);
         }
 
         // Update job with file info
@@ -107,13 +69,61 @@ public class OwnTracksExportService {
         job.updateProgress(100, "Export completed");
     }
 
-    private void streamExportPoints(ExportJob job, int batchSize, Consumer<List<GpsPointEntity>> batchConsumer) {
-        gpsPointRepository.streamByUserAndDateRangeForExport(
+    /**
+     * Writes the OwnTracks export for the job to the given stream in the requested layout (ocat or array).
+     * Used both for temp-file jobs and for direct streaming downloads; the stream is closed when done.
+     */
+    public void writeOwnTracks(ExportJob job, java.io.OutputStream outputStream) throws IOException {
+        String ownTracksFormat = resolveOwnTracksFormat(job);
+        java.io.BufferedOutputStream bos = new java.io.BufferedOutputStream(outputStream);
+
+        job.updateProgress(10, "Starting to stream GPS data...");
+
+        int batchSize = streamingExportService.getBatchSize();
+        long totalRecords = gpsPointRepository.countByUserIdAndTimePeriod(
                 job.getUserId(),
                 job.getDateRange().getStartDate(),
-                job.getDateRange().getEndDate(),
-                batchSize,
-                batchConsumer);
+                job.getDateRange().getEndDate());
+
+        int totalWritten;
+        if (FORMAT_ARRAY.equals(ownTracksFormat)) {
+            totalWritten = streamingExportService.<GpsPointEntity, OwnTracksLocationMessage>streamJsonArray(
+                    bos,
+                    batchConsumer -> streamExportPoints(job, batchSize, batchConsumer),
+                    gpsPoint -> gpsPointMapper.toOwnTracksLocationMessage(gpsPoint),
+                    job,
+                    toProgressTotal(totalRecords),
+                    10,
+                    90,
+                    "Exporting GPS points:");
+        } else {
+            totalWritten = streamingExportService.<GpsPointEntity>streamJsonObjectWithArray(
+                    bos,
+                    (gen, mapper) -> gen.writeNumberField("count", totalRecords),
+                    "locations",
+                    batchConsumer -> streamExportPoints(job, batchSize, batchConsumer),
+                    (gen, gpsPoint, mapper) ->
+                            gen.writeObject(gpsPointMapper.toOwnTracksLocationMessage(gpsPoint)),
+                    job,
+                    toProgressTotal(totalRecords),
+                    10,
+                    90,
+                    "Exporting GPS points:");
+        }
+
+        log.info("Completed streaming OwnTracks export: {} messages, format={}",
+                totalWritten, ownTracksFormat);
+    }
+
+    private void streamExportPoints(ExportJob job, int batchSize, Consumer<List<GpsPointEntity>> batchConsumer) {
+        streamingExportService.<GpsPointEntity>pipelined(
+                downstream -> gpsPointRepository.streamByUserAndDateRangeForExport(
+                        job.getUserId(),
+                        job.getDateRange().getStartDate(),
+                        job.getDateRange().getEndDate(),
+                        batchSize,
+                        downstream),
+                job).produce(batchConsumer);
     }
 
     private String resolveOwnTracksFormat(ExportJob job) {
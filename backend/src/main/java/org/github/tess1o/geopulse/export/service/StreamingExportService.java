@@ -4,9 +4,11 @@ import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.common.annotation.Identifier;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.github.tess1o.geopulse.admin.service.SystemSettingsService;
 import org.github.tess1o.geopulse.export.model.ExportJob;
 
@@ -14,6 +16,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -37,6 +40,13 @@ public class StreamingExportService {
     @Inject
     SystemSettingsService settingsService;
 
+    @Inject
+    @Identifier("export-processing")
+    ExecutorService exportExecutor;
+
+    @ConfigProperty(name = "geopulse.export.pipeline.queue-batches", defaultValue = "4")
+    int pipelineQueueBatches;
+
     private final JsonFactory jsonFactory = new JsonFactory();
 
     /**
@@ -221,6 +231,19 @@ public class StreamingExportService {
         }
     }
 
+    /**
+     * Decouple reading from writing: the returned producer reads batches on the calling thread and
+     * serializes them on an export worker, with at most {@code geopulse.export.pipeline.queue-batches}
+     * batches buffered in between. Written records are added to the job's exported record count.
+     * <p>
+     * Only use for sources that publish detached snapshots (e.g. GPS point export rows); lazily loaded
+     * entities must stay on the thread that owns their persistence context.
+     */
+    public <T> BatchProducer<T> pipelined(BatchProducer<T> source, ExportJob job) {
+        return ExportPipeline.pipelined(source, exportExecutor, pipelineQueueBatches,
+                job != null ? job::addExportedRecords : null);
+    }
+
     @FunctionalInterface
     public interface BatchProducer<T> {
         void produce(Consumer<List<T>> batchConsumer);
@@ -0,0 +1,293 @@
+package org.github.tess1o.geopulse.favorites.model;
+
+import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable per-user spatial index of favorite points and areas.
+ * <p>
+ * Favorites are bucketed into a uniform lat/lon grid. Each favorite is registered in every cell touched by
+ * its bounding box expanded by the matching distance (point radius for points, boundary tolerance for areas),
+ * so a lookup only inspects the single cell containing the query coordinate. Very large areas are kept in a
+ * separate list that is always checked.
+ * <p>
+ * Matching mirrors {@code FavoritesRepository#findAllByPoint}: points match within {@code pointRadiusMeters},
+ * areas match when they cover the coordinate or their boundary is within {@code areaToleranceMeters}.
+ */
+public final class FavoritesSpatialIndex {
+
+    /**
+     * Grid cell size in degrees (~1.1 km of latitude).
+     */
+    private static final double CELL_SIZE_DEGREES = 0.01;
+    private static final long CELL_KEY_STRIDE = 100_000L;
+    private static final int MAX_CELLS_PER_ENTRY = 256;
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+    private static final int[] NO_ENTRIES = new int[0];
+
+    private static final FavoritesSpatialIndex EMPTY = new Builder(0, 0).build();
+
+    /**
+     * Ordering of competing matches.
+     */
+    public enum MatchOrder {
+        /**
+         * Covering areas first, then everything else by distance (single-point lookup).
+         */
+        COVERING_AREAS_FIRST,
+        /**
+         * Covering areas, then nearby areas, then points; distance within each group (batch lookup).
+         */
+        AREAS_BEFORE_POINTS
+    }
+
+    private final int pointRadiusMeters;
+    private final int areaToleranceMeters;
+
+    private final double[] areaMinLat;
+    private final double[] areaMaxLat;
+    private final double[] areaMinLon;
+    private final double[] areaMaxLon;
+    private final FavoriteAreaDto[] areas;
+    private final Map<Long, int[]> areaCells;
+    private final int[] largeAreas;
+
+    private final double[] pointLat;
+    private final double[] pointLon;
+    private final FavoritePointDto[] points;
+    private final Map<Long, int[]> pointCells;
+
+    private FavoritesSpatialIndex(Builder builder) {
+        this.pointRadiusMeters = builder.pointRadiusMeters;
+        this.areaToleranceMeters = builder.areaToleranceMeters;
+
+        int areaCount = builder.areas.size();
+        this.areas = builder.areas.toArray(new FavoriteAreaDto[0]);
+        this.areaMinLat = new double[areaCount];
+        this.areaMaxLat = new double[areaCount];
+        this.areaMinLon = new double[areaCount];
+        this.areaMaxLon = new double[areaCount];
+        Map<Long, List<Integer>> areaBuckets = new HashMap<>();
+        List<Integer> large = new ArrayList<>();
+        for (int i = 0; i < areaCount; i++) {
+            FavoriteAreaDto area = areas[i];
+            areaMinLat[i] = area.getSouthWestLat();
+            areaMaxLat[i] = area.getNorthEastLat();
+            areaMinLon[i] = area.getSouthWestLon();
+            areaMaxLon[i] = area.getNorthEastLon();
+            if (!register(areaBuckets, i, areaMinLat[i], areaMaxLat[i], areaMinLon[i], areaMaxLon[i], areaToleranceMeters)) {
+                large.add(i);
+            }
+        }
+        this.areaCells = freeze(areaBuckets);
+        this.largeAreas = large.stream().mapToInt(Integer::intValue).toArray();
+
+        int pointCount = builder.points.size();
+        this.points = builder.points.toArray(new FavoritePointDto[0]);
+        this.pointLat = new double[pointCount];
+        this.pointLon = new double[pointCount];
+        Map<Long, List<Integer>> pointBuckets = new HashMap<>();
+        for (int i = 0; i < pointCount; i++) {
+            pointLat[i] = points[i].getLatitude();
+            pointLon[i] = points[i].getLongitude();
+            // Point radius is a few dozen meters, so a point never spans more than a handful of cells
+            register(pointBuckets, i, pointLat[i], pointLat[i], pointLon[i], pointLon[i], pointRadiusMeters);
+        }
+        this.pointCells = freeze(pointBuckets);
+    }
+
+    public static FavoritesSpatialIndex empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder(int pointRadiusMeters, int areaToleranceMeters) {
+        return new Builder(pointRadiusMeters, areaToleranceMeters);
+    }
+
+    public int getPointRadiusMeters() {
+        return pointRadiusMeters;
+    }
+
+    public int getAreaToleranceMeters() {
+        return areaToleranceMeters;
+    }
+
+    public boolean isEmpty() {
+        return areas.length == 0 && points.length == 0;
+    }
+
+    public int size() {
+        return areas.length + points.length;
+    }
+
+    /**
+     * Find the favorite area whose rectangle strictly contains the coordinate (no boundary tolerance).
+     * When areas overlap, the one added first wins, matching a linear scan over the area list.
+     *
+     * @return containing area, or null if none
+     */
+    public FavoriteAreaDto findContainingArea(double latitude, double longitude) {
+        int best = -1;
+        for (int i : areaCells.getOrDefault(cellKey(latitude, longitude), NO_ENTRIES)) {
+            if ((best < 0 || i < best) && covers(i, latitude, longitude)) {
+                best = i;
+            }
+        }
+        for (int i : largeAreas) {
+            if ((best < 0 || i < best) && covers(i, latitude, longitude)) {
+                best = i;
+            }
+        }
+        return best >= 0 ? areas[best] : null;
+    }
+
+    /**
+     * Find the best matching favorite for a coordinate.
+     *
+     * @return single-favorite result (one point or one area), or null when nothing matches
+     */
+    public FavoriteLocationsDto findBestMatch(double latitude, double longitude, MatchOrder order) {
+        long key = cellKey(latitude, longitude);
+
+        int bestArea = -1;
+        int bestAreaRank = Integer.MAX_VALUE;
+        double bestAreaDistance = Double.MAX_VALUE;
+        for (int[] candidates : new int[][]{areaCells.getOrDefault(key, NO_ENTRIES), largeAreas}) {
+            for (int i : candidates) {
+                int rank;
+                double distance;
+                if (covers(i, latitude, longitude)) {
+                    rank = 0;
+                    distance = 0.0;
+                } else {
+                    distance = distanceToArea(i, latitude, longitude);
+                    if (distance > areaToleranceMeters) {
+                        continue;
+                    }
+                    rank = 1;
+                }
+                if (rank < bestAreaRank || (rank == bestAreaRank && distance < bestAreaDistance)) {
+                    bestArea = i;
+                    bestAreaRank = rank;
+                    bestAreaDistance = distance;
+                }
+            }
+        }
+
+        if (bestArea >= 0 && (bestAreaRank == 0 || order == MatchOrder.AREAS_BEFORE_POINTS)) {
+            return new FavoriteLocationsDto(List.of(), List.of(areas[bestArea]));
+        }
+
+        int bestPoint = -1;
+        double bestPointDistance = Double.MAX_VALUE;
+        for (int i : pointCells.getOrDefault(key, NO_ENTRIES)) {
+            double distance = GeoUtils.haversine(latitude, longitude, pointLat[i], pointLon[i]);
+            if (distance <= pointRadiusMeters && distance < bestPointDistance) {
+                bestPoint = i;
+                bestPointDistance = distance;
+            }
+        }
+
+        if (bestArea >= 0 && (bestPoint < 0 || bestAreaDistance <= bestPointDistance)) {
+            return new FavoriteLocationsDto(List.of(), List.of(areas[bestArea]));
+        }
+        if (bestPoint >= 0) {
+            return new FavoriteLocationsDto(List.of(points[bestPoint]), List.of());
+        }
+        return null;
+    }
+
+    private boolean covers(int area, double latitude, double longitude) {
+        return latitude >= areaMinLat[area] && latitude <= areaMaxLat[area]
+                && longitude >= areaMinLon[area] && longitude <= areaMaxLon[area];
+    }
+
+    private double distanceToArea(int area, double latitude, double longitude) {
+        double nearestLat = Math.max(areaMinLat[area], Math.min(areaMaxLat[area], latitude));
+        double nearestLon = Math.max(areaMinLon[area], Math.min(areaMaxLon[area], longitude));
+        return GeoUtils.haversine(latitude, longitude, nearestLat, nearestLon);
+    }
+
+    /**
+     * Register an entry in every cell its expanded bounding box touches.
+     *
+     * @return false if the entry spans too many cells and must be checked on every lookup instead
+     */
+    private static boolean register(Map<Long, List<Integer>> buckets, int entry,
+                                    double minLat, double maxLat, double minLon, double maxLon, double marginMeters) {
+        double latMargin = marginMeters / METERS_PER_DEGREE_LAT;
+        double maxAbsLat = Math.min(89.0, Math.max(Math.abs(minLat), Math.abs(maxLat)) + latMargin);
+        double lonMargin = marginMeters / (METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(maxAbsLat)));
+
+        long minLatCell = cell(minLat - latMargin);
+        long maxLatCell = cell(maxLat + latMargin);
+        long minLonCell = cell(minLon - lonMargin);
+        long maxLonCell = cell(maxLon + lonMargin);
+        if ((maxLatCell - minLatCell + 1) * (maxLonCell - minLonCell + 1) > MAX_CELLS_PER_ENTRY) {
+            return false;
+        }
+
+        for (long latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (long lonCell = minLonCell; lonCell <= maxLonCell; lonCell++) {
+                buckets.computeIfAbsent(latCell * CELL_KEY_STRIDE + lonCell, ignored -> new ArrayList<>()).add(entry);
+            }
+        }
+        return true;
+    }
+
+    private static Map<Long, int[]> freeze(Map<Long, List<Integer>> buckets) {
+        Map<Long, int[]> frozen = new HashMap<>(Math.max(16, buckets.size() * 2));
+        buckets.forEach((key, entries) -> frozen.put(key, entries.stream().mapToInt(Integer::intValue).toArray()));
+        return frozen;
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return cell(latitude) * CELL_KEY_STRIDE + cell(longitude);
+    }
+
+    private static long cell(double degrees) {
+        return (long) Math.floor((degrees + 360.0) / CELL_SIZE_DEGREES);
+    }
+
+    public static final class Builder {
+        private final int pointRadiusMeters;
+        private final int areaToleranceMeters;
+        private final List<FavoriteAreaDto> areas = new ArrayList<>();
+        private final List<FavoritePointDto> points = new ArrayList<>();
+
+        private Builder(int pointRadiusMeters, int areaToleranceMeters) {
+            this.pointRadiusMeters = Math.max(0, pointRadiusMeters);
+            this.areaToleranceMeters = Math.max(0, areaToleranceMeters);
+        }
+
+        public Builder addAll(FavoriteLocationsDto favorites) {
+            if (favorites != null) {
+                if (favorites.getAreas() != null) {
+                    areas.addAll(favorites.getAreas());
+                }
+                if (favorites.getPoints() != null) {
+                    points.addAll(favorites.getPoints());
+                }
+            }
+            return this;
+        }
+
+        public Builder addArea(FavoriteAreaDto area) {
+            areas.add(area);
+            return this;
+        }
+
+        public Builder addPoint(FavoritePointDto point) {
+            points.add(point);
+            return this;
+        }
+
+        public FavoritesSpatialIndex build() {
+            return new FavoritesSpatialIndex(this);
+        }
+    }
+}
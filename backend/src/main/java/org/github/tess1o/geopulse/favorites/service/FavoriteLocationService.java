@@ -20,6 +20,7 @@ import org.github.tess1o.geopulse.shared.geo.GeoUtils;
 import org.github.tess1o.geopulse.streaming.config.TimelineConfigurationProvider;
 import org.github.tess1o.geopulse.streaming.events.FavoriteDeletedEvent;
 import org.github.tess1o.geopulse.streaming.events.FavoriteRenamedEvent;
+import org.github.tess1o.geopulse.streaming.events.FavoritesChangedEvent;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
 
@@ -45,32 +46,38 @@ public class FavoriteLocationService {
     private final GeocodingService geocodingService;
     private final Event<FavoriteDeletedEvent> favoriteDeletedEvent;
     private final Event<FavoriteRenamedEvent> favoriteRenamedEvent;
+    private final Event<FavoritesChangedEvent> favoritesChangedEvent;
     private final org.github.tess1o.geopulse.streaming.service.AsyncTimelineGenerationService asyncTimelineGenerationService;
     private final ReconciliationJobProgressService reconciliationProgressService;
     private final TimelineConfigurationProvider timelineConfigurationProvider;
     private final ManagedExecutor managedExecutor;
     private final UserLocationNormalizationService userLocationNormalizationService;
+    private final FavoritesSpatialIndexCache spatialIndexCache;
 
     public FavoriteLocationService(FavoritesRepository repository,
                                    FavoriteLocationMapper mapper,
                                    GeocodingService geocodingService,
                                    Event<FavoriteDeletedEvent> favoriteDeletedEvent,
                                    Event<FavoriteRenamedEvent> favoriteRenamedEvent,
+                                   Event<FavoritesChangedEvent> favoritesChangedEvent,
                                    org.github.tess1o.geopulse.streaming.service.AsyncTimelineGenerationService asyncTimelineGenerationService,
                                    ReconciliationJobProgressService reconciliationProgressService,
                                    TimelineConfigurationProvider timelineConfigurationProvider,
                                    ManagedExecutor managedExecutor,
-                                   UserLocationNormalizationService userLocationNormalizationService) {
+                                   UserLocationNormalizationService userLocationNormalizationService,
+                                   FavoritesSpatialIndexCache spatialIndexCache) {
         this.repository = repository;
         this.mapper = mapper;
         this.geocodingService = geocodingService;
         this.favoriteDeletedEvent = favoriteDeletedEvent;
         this.favoriteRenamedEvent = favoriteRenamedEvent;
+        this.favoritesChangedEvent = favoritesChangedEvent;
         this.asyncTimelineGenerationService = asyncTimelineGenerationService;
         this.reconciliationProgressService = reconciliationProgressService;
         this.timelineConfigurationProvider = timelineConfigurationProvider;
         this.managedExecutor = managedExecutor;
         this.userLocationNormalizationService = userLocationNormalizationService;
+        this.spatialIndexCache = spatialIndexCache;
     }
 
     public FavoriteLocationsDto getFavorites(UUID userId) {
@@ -105,6 +112,7 @@ public class FavoriteLocationService {
         }
 
         repository.persist(entity);
+        fireFavoritesChanged(userId);
 
         log.info("Successfully added point favorite {} for user {}", favorite.getName(), userId);
     }
@@ -140,6 +148,7 @@ public class FavoriteLocationService {
         }
 
         repository.persist(entity);
+        fireFavoritesChanged(userId);
 
         log.info("Successfully added area favorite {} for user {}", favorite.getName(), userId);
     }
@@ -230,6 +239,9 @@ public class FavoriteLocationService {
 
         log.info("Bulk add favorites completed for user {}: {} successful, {} failed out of {} total",
                 userId, successCount, failedCount, totalRequested);
+        if (successCount > 0) {
+            fireFavoritesChanged(userId);
+        }
 
         return BulkAddFavoritesResult.builder()
                 .totalRequested(totalRequested)
@@ -241,51 +253,61 @@ public class FavoriteLocationService {
     }
 
     public FavoriteLocationsDto findByPoint(UUID userId, Point point) {
-        int maxDistanceFromPoint = getFavoritePointMatchingDistanceMeters(userId);
-        Optional<FavoritesEntity> favorite = repository.findByPoint(
-                userId,
-                point,
-                maxDistanceFromPoint,
-                maxDistanceFromArea
+        return getSpatialIndex(userId).findBestMatch(
+                point.getY(),
+                point.getX(),
+                FavoritesSpatialIndex.MatchOrder.COVERING_AREAS_FIRST
         );
-        if (favorite.isEmpty()) {
-            return null;
-        }
-        List<FavoritesEntity> favorites = List.of(favorite.get());
-        return mapper.toFavoriteLocationDto(favorites);
     }
 
     /**
      * Batch find favorites by multiple points with spatial matching.
-     * Uses true batch processing to avoid N+1 query problem.
+     * Served from the user's in-memory favorites index, so no query is issued per point.
      *
      * @param userId User ID for favorite location lookup
      * @param points List of points to search for
      * @return Map of coordinate string (lon,lat) to FavoriteLocationsDto
      */
     public Map<String, FavoriteLocationsDto> findByPointsBatch(UUID userId, List<Point> points) {
-        int maxDistanceFromPoint = getFavoritePointMatchingDistanceMeters(userId);
-        Map<String, FavoritesEntity> entities = repository.findByPointsBatch(
-                userId,
-                points,
-                maxDistanceFromPoint,
-                maxDistanceFromArea
-        );
+        if (points == null || points.isEmpty()) {
+            return Map.of();
+        }
 
+        FavoritesSpatialIndex index = getSpatialIndex(userId);
         Map<String, FavoriteLocationsDto> results = new java.util.HashMap<>();
-        for (Map.Entry<String, FavoritesEntity> entry : entities.entrySet()) {
-            String coordKey = entry.getKey();
-            FavoritesEntity entity = entry.getValue();
+        if (index.isEmpty()) {
+            return results;
+        }
 
-            // Convert single entity to DTO format (same as findByPoint)
-            List<FavoritesEntity> favorites = List.of(entity);
-            FavoriteLocationsDto dto = mapper.toFavoriteLocationDto(favorites);
-            results.put(coordKey, dto);
+        for (Point point : points) {
+            FavoriteLocationsDto match = index.findBestMatch(
+                    point.getY(),
+                    point.getX(),
+                    FavoritesSpatialIndex.MatchOrder.AREAS_BEFORE_POINTS
+            );
+            if (match != null) {
+                results.put(point.getX() + "," + point.getY(), match);
+            }
         }
 
         return results;
     }
 
+    /**
+     * Cached spatial index of the user's favorites, built with the user's current matching distances.
+     */
+    public FavoritesSpatialIndex getSpatialIndex(UUID userId) {
+        return spatialIndexCache.getIndex(userId, getFavoritePointMatchingDistanceMeters(userId), maxDistanceFromArea);
+    }
+
+    /**
+     * Rebuild the user's favorites index from the database. Called once at the start of a timeline
+     * regeneration so the run never works with a stale view, then shared by all lookups of that run.
+     */
+    public FavoritesSpatialIndex rebuildSpatialIndex(UUID userId) {
+        return spatialIndexCache.rebuild(userId, getFavoritePointMatchingDistanceMeters(userId), maxDistanceFromArea);
+    }
+
     /**
      * Favorite point matching radius is tied to the user's stay detection radius.
      * This keeps favorite matching behavior consistent with timeline stay detection.
@@ -354,6 +376,9 @@ public class FavoriteLocationService {
         int failedCount = failures.size();
         log.info("Bulk update favorites completed for user {}: {} successful, {} failed out of {} total",
                 userId, successCount, failedCount, bulkDto.getFavoriteIds().size());
+        if (successCount > 0) {
+            fireFavoritesChanged(userId);
+        }
 
         return BulkUpdateFavoritesResult.builder()
                 .totalRequested(bulkDto.getFavoriteIds().size())
@@ -452,6 +477,7 @@ public class FavoriteLocationService {
         }
 
         repository.persistAndFlush(favoritesEntity);
+        fireFavoritesChanged(userId);
 
         // Fire event for timeline system (only if name changed)
         if (!oldName.equals(dto.getName())) {
@@ -625,6 +651,7 @@ public class FavoriteLocationService {
             favorite.setCity(normalized.city());
             favorite.setCountry(normalized.country());
             repository.persistAndFlush(favorite);
+            fireFavoritesChanged(userId);
 
             log.debug("Reconciled favorite {}: city='{}', country='{}'",
                     favoriteId, normalized.city(), normalized.country());
@@ -694,6 +721,9 @@ public class FavoriteLocationService {
             }
         }
 
+        if (updated > 0) {
+            fireFavoritesChanged(userId);
+        }
         return new BulkDomainApplyResult(processed, updated, failed);
     }
 
@@ -722,11 +752,18 @@ public class FavoriteLocationService {
             }
         }
 
+        if (updated > 0) {
+            fireFavoritesChanged(userId);
+        }
         return new BulkDomainApplyResult(processed, updated, failed);
     }
 
     public record BulkDomainApplyResult(int processed, int updated, int failed) {}
 
+    private void fireFavoritesChanged(UUID userId) {
+        favoritesChangedEvent.fire(FavoritesChangedEvent.builder().userId(userId).build());
+    }
+
     // Validation methods
     private void validatePointFavorite(AddPointToFavoritesDto favorite) {
         if (favorite == null) {
@@ -0,0 +1,114 @@
+package org.github.tess1o.geopulse.favorites.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.favorites.mapper.FavoriteLocationMapper;
+import org.github.tess1o.geopulse.favorites.model.FavoritesSpatialIndex;
+import org.github.tess1o.geopulse.favorites.repository.FavoritesRepository;
+import org.github.tess1o.geopulse.streaming.events.FavoriteDeletedEvent;
+import org.github.tess1o.geopulse.streaming.events.FavoriteRenamedEvent;
+import org.github.tess1o.geopulse.streaming.events.FavoritesChangedEvent;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user cache of immutable {@link FavoritesSpatialIndex} instances.
+ * <p>
+ * Timeline regeneration rebuilds the index once at the start of a run; stay detection and
+ * location resolution then share it instead of querying favorites per point. Entries are dropped
+ * after favorite changes commit, when the matching radius changes, and after a TTL as a safety net
+ * for bulk writes (imports) that bypass {@link FavoriteLocationService}.
+ */
+@ApplicationScoped
+@Slf4j
+public class FavoritesSpatialIndexCache {
+
+    @ConfigProperty(name = "geopulse.favorites.spatial-index.ttl-seconds", defaultValue = "600")
+    long ttlSeconds;
+
+    @ConfigProperty(name = "geopulse.favorites.spatial-index.max-users", defaultValue = "500")
+    int maxUsers;
+
+    private final FavoritesRepository repository;
+    private final FavoriteLocationMapper mapper;
+    private final ConcurrentHashMap<UUID, CachedIndex> cache = new ConcurrentHashMap<>();
+    // Bumped by every invalidation, so a rebuild that read favorites before it does not cache the old index.
+    // Shared by all users rather than kept per user, so it needs no pruning; a rebuild racing another user's
+    // invalidation just returns its index uncached.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Inject
+    public FavoritesSpatialIndexCache(FavoritesRepository repository, FavoriteLocationMapper mapper) {
+        this.repository = repository;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Get the cached index for the user, building it if missing, expired or built for other matching distances.
+     */
+    public FavoritesSpatialIndex getIndex(UUID userId, int pointRadiusMeters, int areaToleranceMeters) {
+        long now = System.currentTimeMillis();
+        CachedIndex cached = cache.get(userId);
+        if (cached != null
+                && cached.expiresAtEpochMillis() > now
+                && cached.index().getPointRadiusMeters() == pointRadiusMeters
+                && cached.index().getAreaToleranceMeters() == areaToleranceMeters) {
+            return cached.index();
+        }
+        return rebuild(userId, pointRadiusMeters, areaToleranceMeters);
+    }
+
+    /**
+     * Build a fresh index from the database and cache it, unless an invalidation happened while it was
+     * being built.
+     */
+    public FavoritesSpatialIndex rebuild(UUID userId, int pointRadiusMeters, int areaToleranceMeters) {
+        long version = invalidations.get();
+        FavoritesSpatialIndex index = FavoritesSpatialIndex.builder(pointRadiusMeters, areaToleranceMeters)
+                .addAll(mapper.toFavoriteLocationDto(repository.findByUserId(userId)))
+                .build();
+
+        if (cache.size() >= Math.max(1, maxUsers) && !cache.containsKey(userId)) {
+            evictOldest();
+        }
+        CachedIndex built = new CachedIndex(index, System.currentTimeMillis() + Math.max(1L, ttlSeconds) * 1000L);
+        cache.compute(userId, (id, current) -> invalidations.get() == version ? built : current);
+        log.debug("Built favorites spatial index for user {} with {} favorites", userId, index.size());
+        return index;
+    }
+
+    public void invalidate(UUID userId) {
+        if (userId != null) {
+            // Bump before removing: a rebuild that already stored its index loses it below, later ones skip the put
+            invalidations.incrementAndGet();
+            cache.remove(userId);
+        }
+    }
+
+    void onFavoriteDeleted(@Observes(during = TransactionPhase.AFTER_COMPLETION) FavoriteDeletedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    void onFavoriteRenamed(@Observes(during = TransactionPhase.AFTER_COMPLETION) FavoriteRenamedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    void onFavoritesChanged(@Observes(during = TransactionPhase.AFTER_COMPLETION) FavoritesChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    private void evictOldest() {
+        cache.entrySet().stream()
+                .min((a, b) -> Long.compare(a.getValue().expiresAtEpochMillis(), b.getValue().expiresAtEpochMillis()))
+                .ifPresent(entry -> cache.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private record CachedIndex(FavoritesSpatialIndex index, long expiresAtEpochMillis) {
+    }
+}
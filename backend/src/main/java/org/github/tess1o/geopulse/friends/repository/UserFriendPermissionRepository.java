@@ -62,6 +62,25 @@ public class UserFriendPermissionRepository implements PanacheRepository<UserFri
                 .getResultList();
     }
 
+    /**
+     * Get all friends who have granted live location permission to the current user.
+     *
+     * @param currentUserId The user requesting access
+     * @return List of user IDs whose live location the current user can view
+     */
+    public List<UUID> findFriendsWhoSharedLiveLocationWithUser(UUID currentUserId) {
+        String query = """
+                SELECT p.user.id
+                FROM UserFriendPermissionEntity p
+                WHERE p.friend.id = :currentUserId
+                AND p.shareLiveLocation = true
+                """;
+
+        return entityManager.createQuery(query, UUID.class)
+                .setParameter("currentUserId", currentUserId)
+                .getResultList();
+    }
+
     /**
      * Create default permission record for a new friendship.
      * By default, timeline sharing is disabled (opt-in).
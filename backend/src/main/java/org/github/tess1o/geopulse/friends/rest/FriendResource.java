@@ -1,5 +1,7 @@
 package org.github.tess1o.geopulse.friends.rest;
 
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -17,6 +19,7 @@ import org.github.tess1o.geopulse.friends.service.FriendService;
 import org.github.tess1o.geopulse.gps.mapper.GpsPointMapper;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
 import org.github.tess1o.geopulse.gps.model.GpsPointPathPointDTO;
+import org.github.tess1o.geopulse.livelocation.model.LiveLocationUpdate;
 import org.github.tess1o.geopulse.shared.api.ApiResponse;
 import org.github.tess1o.geopulse.user.exceptions.NotAuthorizedUserException;
 import org.github.tess1o.geopulse.user.model.UserSearchDTO;
@@ -28,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 
 @Path("/api/friends")
 @ApplicationScoped
@@ -156,6 +160,23 @@ public class FriendResource {
         }
     }
 
+    /**
+     * Stream location updates of all friends who shared live location with the current user
+     * as server-sent events. Only changes are pushed; load the current positions with
+     * {@code GET /location/trails} or {@code GET /{friendId}/location} first.
+     *
+     * @return Stream of location updates and periodic heartbeats
+     */
+    @GET
+    @Path("/location/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Blocking
+    public Multi<LiveLocationUpdate> streamFriendsLocation() {
+        UUID userId = currentUserService.getCurrentUserId();
+        return friendService.streamFriendsLiveLocation(userId);
+    }
+
     /**
      * Get recent location trails for all friends who shared live location.
      *
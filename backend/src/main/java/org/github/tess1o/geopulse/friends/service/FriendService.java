@@ -3,6 +3,7 @@ package org.github.tess1o.geopulse.friends.service;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import io.smallrye.mutiny.Multi;
 import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.friends.exceptions.FriendsException;
 import org.github.tess1o.geopulse.friends.invitation.repository.FriendInvitationRepository;
@@ -13,6 +14,8 @@ import org.github.tess1o.geopulse.friends.repository.FriendshipRepository;
 import org.github.tess1o.geopulse.friends.repository.UserFriendPermissionRepository;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
 import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.livelocation.model.LiveLocationUpdate;
+import org.github.tess1o.geopulse.livelocation.service.LiveLocationHub;
 import org.github.tess1o.geopulse.shared.geo.GeoUtils;
 import org.github.tess1o.geopulse.shared.service.LocationPointResolver;
 import org.github.tess1o.geopulse.user.exceptions.NotAuthorizedUserException;
@@ -40,6 +43,9 @@ public class FriendService {
     private final UserRepository userRepository;
     private final UserFriendPermissionRepository permissionRepository;
 
+    @Inject
+    LiveLocationHub liveLocationHub;
+
     @Inject
     public FriendService(
             GpsPointRepository gpsPointRepository,
@@ -73,6 +79,8 @@ public class FriendService {
         // Delete the friendship (both directions)
         long deletedCount = friendshipRepository.deleteFriendship(userId, friendId);
         log.info("Friendship removed between {} and {}, deleted {} records", userId, friendId, deletedCount);
+        liveLocationHub.revokeViewer(userId, friendId);
+        liveLocationHub.revokeViewer(friendId, userId);
     }
 
     /**
@@ -98,6 +106,18 @@ public class FriendService {
         return gpsPointRepository.findByUserIdLatestGpsPoint(friendId);
     }
 
+    /**
+     * Open a live stream of location updates from all friends who shared live location with the user.
+     * Permissions are resolved once here; later changes reach the open stream through {@link LiveLocationHub}.
+     *
+     * @param userId The ID of the viewing user
+     * @return Stream of location updates
+     */
+    public Multi<LiveLocationUpdate> streamFriendsLiveLocation(UUID userId) {
+        List<UUID> friendIds = permissionRepository.findFriendsWhoSharedLiveLocationWithUser(userId);
+        return liveLocationHub.subscribeAsViewer(userId, friendIds);
+    }
+
     /**
      * Get recent location history for all friends who shared live location with the current user.
      *
@@ -278,6 +298,11 @@ public class FriendService {
         }
 
         log.info("Updated live location permission for user {} -> friend {}: shareLiveLocation={}", userId, friendId, shareLiveLocation);
+        if (shareLiveLocation) {
+            liveLocationHub.grantViewer(userId, friendId);
+        } else {
+            liveLocationHub.revokeViewer(userId, friendId);
+        }
 
         // Return current permissions
         return getFriendPermissions(userId, friendId);
@@ -0,0 +1,320 @@
+package org.github.tess1o.geopulse.geocoding.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Immutable in-memory nearest-neighbour index over GeoNames cities.
+ * <p>
+ * Cities are projected onto the unit sphere (x, y, z) and stored as an implicit, balanced KD-tree
+ * in primitive arrays. Euclidean chord distance on the unit sphere is monotonic with great-circle
+ * distance, so the tree needs no special handling for the antimeridian or poles.
+ * <p>
+ * Results mirror {@code GeonamesCityRepository#findNearestNormalizedLocation}: nearest city by
+ * spherical distance (same radius as PostGIS {@code ST_DistanceSphere}), ties broken by larger population.
+ * Instances are safe to share between threads.
+ */
+public final class GeonamesCityIndex {
+
+    /**
+     * Sphere radius used by PostGIS ST_DistanceSphere, kept identical so the index and the SQL fallback agree.
+     */
+    static final double SPHERE_RADIUS_METERS = 6370986.0;
+
+    private static final int DIMENSIONS = 3;
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final long[] geonameIds;
+    private final long[] populations;
+    private final String[] cityNames;
+    private final String[] countryNames;
+    private final String[] countryCodes;
+
+    private GeonamesCityIndex(double[] x, double[] y, double[] z, long[] geonameIds, long[] populations,
+                              String[] cityNames, String[] countryNames, String[] countryCodes) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.geonameIds = geonameIds;
+        this.populations = populations;
+        this.cityNames = cityNames;
+        this.countryNames = countryNames;
+        this.countryCodes = countryCodes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return geonameIds.length;
+    }
+
+    /**
+     * Find the nearest city to the given coordinates.
+     *
+     * @param latitude          latitude in decimal degrees
+     * @param longitude         longitude in decimal degrees
+     * @param maxDistanceMeters optional inclusive distance limit, {@code null} for unlimited
+     * @return nearest city within the limit, or empty when none qualifies
+     */
+    public Optional<GeonamesNormalizedLocation> findNearest(double latitude, double longitude, Double maxDistanceMeters) {
+        if (geonameIds.length == 0 || Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            return Optional.empty();
+        }
+
+        double latRad = Math.toRadians(latitude);
+        double lonRad = Math.toRadians(longitude);
+        double cosLat = Math.cos(latRad);
+        Search search = new Search(
+                cosLat * Math.cos(lonRad),
+                cosLat * Math.sin(lonRad),
+                Math.sin(latRad),
+                maxChordSquared(maxDistanceMeters)
+        );
+        search.descend(0, geonameIds.length, 0);
+
+        if (search.bestIndex < 0) {
+            return Optional.empty();
+        }
+
+        int i = search.bestIndex;
+        return Optional.of(new GeonamesNormalizedLocation(
+                geonameIds[i],
+                cityNames[i],
+                countryNames[i] != null ? countryNames[i] : countryCodes[i],
+                countryCodes[i],
+                chordSquaredToMeters(search.bestDistanceSquared)
+        ));
+    }
+
+    private static double maxChordSquared(Double maxDistanceMeters) {
+        if (maxDistanceMeters == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double angle = maxDistanceMeters / SPHERE_RADIUS_METERS;
+        if (angle >= Math.PI) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (angle < 0) {
+            return -1.0;
+        }
+        double chord = 2.0 * Math.sin(angle / 2.0);
+        return chord * chord;
+    }
+
+    private static double chordSquaredToMeters(double chordSquared) {
+        double halfChord = Math.min(1.0, Math.sqrt(chordSquared) / 2.0);
+        return 2.0 * SPHERE_RADIUS_METERS * Math.asin(halfChord);
+    }
+
+    private double coordinate(int axis, int index) {
+        return switch (axis) {
+            case 0 -> x[index];
+            case 1 -> y[index];
+            default -> z[index];
+        };
+    }
+
+    /**
+     * Per-query mutable state; the index itself is never modified.
+     */
+    private final class Search {
+        private final double qx;
+        private final double qy;
+        private final double qz;
+        private double bestDistanceSquared;
+        private int bestIndex = -1;
+
+        private Search(double qx, double qy, double qz, double limitSquared) {
+            this.qx = qx;
+            this.qy = qy;
+            this.qz = qz;
+            this.bestDistanceSquared = limitSquared;
+        }
+
+        private void descend(int from, int to, int depth) {
+            if (from >= to) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            consider(mid);
+
+            int axis = depth % DIMENSIONS;
+            double diff = queryCoordinate(axis) - coordinate(axis, mid);
+            if (diff < 0) {
+                descend(from, mid, depth + 1);
+                if (diff * diff <= bestDistanceSquared) {
+                    descend(mid + 1, to, depth + 1);
+                }
+            } else {
+                descend(mid + 1, to, depth + 1);
+                if (diff * diff <= bestDistanceSquared) {
+                    descend(from, mid, depth + 1);
+                }
+            }
+        }
+
+        private void consider(int index) {
+            double dx = x[index] - qx;
+            double dy = y[index] - qy;
+            double dz = z[index] - qz;
+            double distanceSquared = dx * dx + dy * dy + dz * dz;
+            if (distanceSquared < bestDistanceSquared
+                    || (distanceSquared == bestDistanceSquared
+                    && (bestIndex < 0 || populations[index] > populations[bestIndex]))) {
+                bestDistanceSquared = distanceSquared;
+                bestIndex = index;
+            }
+        }
+
+        private double queryCoordinate(int axis) {
+            return switch (axis) {
+                case 0 -> qx;
+                case 1 -> qy;
+                default -> qz;
+            };
+        }
+    }
+
+    /**
+     * Accumulates rows (typically streamed from {@code geonames_city}) and produces an immutable index.
+     * Not thread-safe.
+     */
+    public static final class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private double[] latitudes = new double[INITIAL_CAPACITY];
+        private double[] longitudes = new double[INITIAL_CAPACITY];
+        private long[] geonameIds = new long[INITIAL_CAPACITY];
+        private long[] populations = new long[INITIAL_CAPACITY];
+        private String[] cityNames = new String[INITIAL_CAPACITY];
+        private String[] countryNames = new String[INITIAL_CAPACITY];
+        private String[] countryCodes = new String[INITIAL_CAPACITY];
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder add(long geonameId, String cityName, String countryName, String countryCode,
+                           double latitude, double longitude, Long population) {
+            if (size == geonameIds.length) {
+                grow();
+            }
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            geonameIds[size] = geonameId;
+            populations[size] = population != null ? population : 0L;
+            cityNames[size] = cityName;
+            countryNames[size] = countryName;
+            countryCodes[size] = countryCode;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public GeonamesCityIndex build() {
+            double[] ux = new double[size];
+            double[] uy = new double[size];
+            double[] uz = new double[size];
+            for (int i = 0; i < size; i++) {
+                double latRad = Math.toRadians(latitudes[i]);
+                double lonRad = Math.toRadians(longitudes[i]);
+                double cosLat = Math.cos(latRad);
+                ux[i] = cosLat * Math.cos(lonRad);
+                uy[i] = cosLat * Math.sin(lonRad);
+                uz[i] = Math.sin(latRad);
+            }
+
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            double[][] axes = {ux, uy, uz};
+            arrange(order, axes, 0, size, 0);
+
+            double[] tx = new double[size];
+            double[] ty = new double[size];
+            double[] tz = new double[size];
+            long[] tIds = new long[size];
+            long[] tPopulations = new long[size];
+            String[] tCities = new String[size];
+            String[] tCountries = new String[size];
+            String[] tCodes = new String[size];
+            for (int i = 0; i < size; i++) {
+                int source = order[i];
+                tx[i] = ux[source];
+                ty[i] = uy[source];
+                tz[i] = uz[source];
+                tIds[i] = geonameIds[source];
+                tPopulations[i] = populations[source];
+                tCities[i] = cityNames[source];
+                tCountries[i] = countryNames[source];
+                tCodes[i] = countryCodes[source];
+            }
+            return new GeonamesCityIndex(tx, ty, tz, tIds, tPopulations, tCities, tCountries, tCodes);
+        }
+
+        private void grow() {
+            int capacity = geonameIds.length * 2;
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            geonameIds = Arrays.copyOf(geonameIds, capacity);
+            populations = Arrays.copyOf(populations, capacity);
+            cityNames = Arrays.copyOf(cityNames, capacity);
+            countryNames = Arrays.copyOf(countryNames, capacity);
+            countryCodes = Arrays.copyOf(countryCodes, capacity);
+        }
+
+        /**
+         * Recursively place the median of each range (by the depth's axis) at the range midpoint.
+         */
+        private static void arrange(int[] order, double[][] axes, int from, int to, int depth) {
+            if (to - from <= 1) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            select(order, axes[depth % DIMENSIONS], from, to - 1, mid);
+            arrange(order, axes, from, mid, depth + 1);
+            arrange(order, axes, mid + 1, to, depth + 1);
+        }
+
+        /**
+         * Quickselect: reorder {@code order[left..right]} so that position {@code k} holds the k-th smallest value.
+         */
+        private static void select(int[] order, double[] values, int left, int right, int k) {
+            while (right > left) {
+                double pivot = values[order[(left + right) >>> 1]];
+                int i = left;
+                int j = right;
+                while (i <= j) {
+                    while (values[order[i]] < pivot) {
+                        i++;
+                    }
+                    while (values[order[j]] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        int tmp = order[i];
+                        order[i] = order[j];
+                        order[j] = tmp;
+                        i++;
+                        j--;
+                    }
+                }
+                if (k <= j) {
+                    right = j;
+                } else if (k >= i) {
+                    left = i;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+}
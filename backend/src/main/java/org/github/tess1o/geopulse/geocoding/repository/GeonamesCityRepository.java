@@ -4,12 +4,14 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.github.tess1o.geopulse.geocoding.model.GeonamesCityIndex;
 import org.github.tess1o.geopulse.geocoding.model.GeonamesCityRecord;
 import org.github.tess1o.geopulse.geocoding.model.GeonamesNormalizedLocation;
 import org.hibernate.Session;
 
 import java.sql.Date;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.List;
@@ -19,6 +21,7 @@ import java.util.Optional;
 public class GeonamesCityRepository {
 
     private static final String STAGING_TABLE = "geonames_city_import_staging";
+    private static final int INDEX_FETCH_SIZE = 10_000;
 
     private static final String UPSERT_STAGING_SQL = """
             INSERT INTO geonames_city_import_staging (
@@ -163,6 +166,47 @@ public class GeonamesCityRepository {
         ));
     }
 
+    /**
+     * Stream every city with coordinates into the given index builder using a server-side cursor,
+     * so the full table is never materialized as entities.
+     */
+    @Transactional
+    public void loadIntoIndex(GeonamesCityIndex.Builder builder) {
+        Session session = entityManager.unwrap(Session.class);
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("""
+                    SELECT
+                        gc.geonameid,
+                        gc.name,
+                        gct.country_name,
+                        gc.country_code,
+                        gc.latitude,
+                        gc.longitude,
+                        gc.population
+                    FROM geonames_city gc
+                    LEFT JOIN geonames_country gct ON gct.iso_alpha2 = gc.country_code
+                    WHERE gc.latitude IS NOT NULL
+                      AND gc.longitude IS NOT NULL
+                    """)) {
+                statement.setFetchSize(INDEX_FETCH_SIZE);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        long population = rs.getLong(7);
+                        builder.add(
+                                rs.getLong(1),
+                                rs.getString(2),
+                                rs.getString(3),
+                                rs.getString(4),
+                                rs.getDouble(5),
+                                rs.getDouble(6),
+                                rs.wasNull() ? null : population
+                        );
+                    }
+                }
+            }
+        });
+    }
+
     private void bind(PreparedStatement statement, GeonamesCityRecord record) throws SQLException {
         int index = 1;
         statement.setLong(index++, record.geonameId());
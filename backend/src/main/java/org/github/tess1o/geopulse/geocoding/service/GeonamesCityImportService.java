@@ -55,22 +55,30 @@ public class GeonamesCityImportService {
     private final GeonamesCityRepository geonamesCityRepository;
     private final GeonamesCityLineParser lineParser;
     private final ManagedExecutor managedExecutor;
+    private final GeonamesCityIndexService cityIndexService;
     private final AtomicBoolean importInProgress = new AtomicBoolean(false);
 
     @Inject
     public GeonamesCityImportService(
             GeonamesCityRepository geonamesCityRepository,
             GeonamesCityLineParser lineParser,
-            ManagedExecutor managedExecutor
+            ManagedExecutor managedExecutor,
+            GeonamesCityIndexService cityIndexService
     ) {
         this.geonamesCityRepository = geonamesCityRepository;
         this.lineParser = lineParser;
         this.managedExecutor = managedExecutor;
+        this.cityIndexService = cityIndexService;
     }
 
     void onStart(@Observes StartupEvent ignored) {
         if (!importEnabled) {
             log.info("GeoNames city import is disabled");
+            managedExecutor.runAsync(cityIndexService::rebuild)
+                    .exceptionally(throwable -> {
+                        log.error("GeoNames city index build failed: {}", throwable.getMessage(), throwable);
+                        return null;
+                    });
             return;
         }
 
@@ -91,6 +99,7 @@ public class GeonamesCityImportService {
             long existingRows = geonamesCityRepository.countCities();
             if (!forceRefresh && existingRows >= minimumRowThreshold) {
                 log.info("GeoNames city table already populated ({} rows), skipping startup import", existingRows);
+                cityIndexService.rebuild();
                 return;
             }
 
@@ -104,6 +113,8 @@ public class GeonamesCityImportService {
             importFromRemoteArchive();
         } catch (Exception e) {
             log.error("Failed to import GeoNames cities on startup: {}", e.getMessage(), e);
+            // Index whatever the table still holds so lookups don't fall back to full scans
+            cityIndexService.rebuild();
         } finally {
             importInProgress.set(false);
         }
@@ -184,6 +195,8 @@ public class GeonamesCityImportService {
         long totalRows = geonamesCityRepository.countCities();
         log.info("GeoNames import finished: processed={} staged={} skipped={} stagedRows={} totalTableRows={}",
                 processedLines, stagedRows, skippedLines, totalStagedRows, totalRows);
+
+        cityIndexService.rebuild();
     }
 
     private ZipEntry findFirstTxtEntry(ZipInputStream zis) throws IOException {
@@ -0,0 +1,77 @@
+package org.github.tess1o.geopulse.geocoding.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.geocoding.model.GeonamesCityIndex;
+import org.github.tess1o.geopulse.geocoding.repository.GeonamesCityRepository;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current in-memory GeoNames city index.
+ * <p>
+ * The index is built once the city table is ready (after startup import or when the import is skipped)
+ * and replaced atomically after every re-import, so readers never observe a partially built tree.
+ * While no index is loaded, callers fall back to the database query.
+ */
+@ApplicationScoped
+@Slf4j
+public class GeonamesCityIndexService {
+
+    @ConfigProperty(name = "geopulse.geonames.index.enabled", defaultValue = "true")
+    boolean indexEnabled;
+
+    private final GeonamesCityRepository geonamesCityRepository;
+    private final AtomicReference<GeonamesCityIndex> currentIndex = new AtomicReference<>();
+
+    @Inject
+    public GeonamesCityIndexService(GeonamesCityRepository geonamesCityRepository) {
+        this.geonamesCityRepository = geonamesCityRepository;
+    }
+
+    /**
+     * @return the loaded index, or empty when disabled or not built yet
+     */
+    public Optional<GeonamesCityIndex> getIndex() {
+        return Optional.ofNullable(currentIndex.get());
+    }
+
+    /**
+     * Build a fresh index from {@code geonames_city} and swap it in.
+     * Serialized so concurrent triggers (city and country imports) don't build twice in parallel.
+     */
+    public synchronized void rebuild() {
+        if (!indexEnabled) {
+            return;
+        }
+
+        try {
+            long startedAt = System.currentTimeMillis();
+            GeonamesCityIndex.Builder builder = GeonamesCityIndex.builder();
+            geonamesCityRepository.loadIntoIndex(builder);
+            if (builder.size() == 0) {
+                log.info("GeoNames city table is empty, nearest-city index not built");
+                return;
+            }
+
+            GeonamesCityIndex index = builder.build();
+            currentIndex.set(index);
+            log.info("GeoNames nearest-city index built: cities={} durationMs={}",
+                    index.size(), System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.error("Failed to build GeoNames nearest-city index, keeping previous index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuild only when an index is already loaded, e.g. after country names changed.
+     */
+    public void refreshIfLoaded() {
+        if (currentIndex.get() != null) {
+            rebuild();
+        }
+    }
+}
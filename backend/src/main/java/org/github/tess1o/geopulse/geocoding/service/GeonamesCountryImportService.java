@@ -57,17 +57,20 @@ public class GeonamesCountryImportService {
     private final GeonamesCountryRepository geonamesCountryRepository;
     private final GeonamesCountryLineParser lineParser;
     private final ManagedExecutor managedExecutor;
+    private final GeonamesCityIndexService cityIndexService;
     private final AtomicBoolean importInProgress = new AtomicBoolean(false);
 
     @Inject
     public GeonamesCountryImportService(
             GeonamesCountryRepository geonamesCountryRepository,
             GeonamesCountryLineParser lineParser,
-            ManagedExecutor managedExecutor
+            ManagedExecutor managedExecutor,
+            GeonamesCityIndexService cityIndexService
     ) {
         this.geonamesCountryRepository = geonamesCountryRepository;
         this.lineParser = lineParser;
         this.managedExecutor = managedExecutor;
+        this.cityIndexService = cityIndexService;
     }
 
     void onStart(@Observes StartupEvent ignored) {
@@ -173,6 +176,9 @@ public class GeonamesCountryImportService {
         long totalRows = geonamesCountryRepository.countCountries();
         log.info("GeoNames country import finished: processed={} staged={} skipped={} stagedRows={} totalTableRows={}",
                 processedLines, stagedRows, skippedLines, totalStagedRows, totalRows);
+
+        // City index snapshots country names, refresh it if it was built before countries were imported
+        cityIndexService.refreshIfLoaded();
     }
 
     private GeonamesCountryRecord applyCountryNameOverride(GeonamesCountryRecord record) {
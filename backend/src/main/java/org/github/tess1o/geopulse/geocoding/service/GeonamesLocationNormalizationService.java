@@ -2,6 +2,7 @@ package org.github.tess1o.geopulse.geocoding.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.github.tess1o.geopulse.geocoding.model.GeonamesCityIndex;
 import org.github.tess1o.geopulse.geocoding.model.GeonamesNormalizedLocation;
 import org.github.tess1o.geopulse.geocoding.repository.GeonamesCityRepository;
 
@@ -11,10 +12,13 @@ import java.util.Optional;
 public class GeonamesLocationNormalizationService {
 
     private final GeonamesCityRepository geonamesCityRepository;
+    private final GeonamesCityIndexService geonamesCityIndexService;
 
     @Inject
-    public GeonamesLocationNormalizationService(GeonamesCityRepository geonamesCityRepository) {
+    public GeonamesLocationNormalizationService(GeonamesCityRepository geonamesCityRepository,
+                                                GeonamesCityIndexService geonamesCityIndexService) {
         this.geonamesCityRepository = geonamesCityRepository;
+        this.geonamesCityIndexService = geonamesCityIndexService;
     }
 
     public Optional<GeonamesNormalizedLocation> normalizeByCoordinates(
@@ -22,6 +26,10 @@ public class GeonamesLocationNormalizationService {
             double longitude,
             Double maxDistanceMeters
     ) {
+        Optional<GeonamesCityIndex> index = geonamesCityIndexService.getIndex();
+        if (index.isPresent()) {
+            return index.get().findNearest(latitude, longitude, maxDistanceMeters);
+        }
         return geonamesCityRepository.findNearestNormalizedLocation(latitude, longitude, maxDistanceMeters);
     }
 }
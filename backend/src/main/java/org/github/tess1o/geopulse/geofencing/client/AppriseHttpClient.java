@@ -15,6 +15,7 @@ import java.security.SecureRandom;
 import java.time.Duration;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.net.ssl.*;
 import java.security.cert.X509Certificate;
 
@@ -22,7 +23,13 @@ import java.security.cert.X509Certificate;
 @Slf4j
 public class AppriseHttpClient {
 
+    /**
+     * Profiles only change when an admin edits the Apprise settings; the bound just drops stale clients.
+     */
+    private static final int MAX_CACHED_CLIENTS = 8;
+
     private final ObjectMapper objectMapper;
+    private final Map<ClientProfile, HttpClient> clients = new ConcurrentHashMap<>();
 
     @Inject
     public AppriseHttpClient(ObjectMapper objectMapper) {
@@ -32,7 +39,7 @@ public class AppriseHttpClient {
     public AppriseClientResult ping(String baseUrl, String authToken, int timeoutMs, boolean verifyTls) {
         try {
             URI uri = normalizeBaseUrl(baseUrl);
-            HttpClient client = buildHttpClient(timeoutMs, verifyTls);
+            HttpClient client = clientFor(timeoutMs, verifyTls);
 
             HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(uri)
                     .GET()
@@ -68,7 +75,7 @@ public class AppriseHttpClient {
                                       String body) {
         try {
             URI endpoint = normalizeNotifyUrl(baseUrl);
-            HttpClient client = buildHttpClient(timeoutMs, verifyTls);
+            HttpClient client = clientFor(timeoutMs, verifyTls);
 
             List<String> urls = NotificationDestinationParser.parseUrls(destination);
             if (urls.isEmpty()) {
@@ -129,7 +136,7 @@ public class AppriseHttpClient {
             }
 
             URI endpoint = normalizeConfigNotifyUrl(baseUrl, configKey);
-            HttpClient client = buildHttpClient(timeoutMs, verifyTls);
+            HttpClient client = clientFor(timeoutMs, verifyTls);
 
             Map<String, Object> payload = new LinkedHashMap<>();
             payload.put("title", title != null ? title : "GeoPulse");
@@ -234,6 +241,25 @@ public class AppriseHttpClient {
         return URI.create(raw.endsWith("/") ? raw + encodedKey : raw + "/" + encodedKey);
     }
 
+    /**
+     * Reuse one client (and its connection pool and SSL context) per timeout/TLS profile
+     * instead of paying a TCP and TLS handshake for every notification.
+     */
+    HttpClient clientFor(int timeoutMs, boolean verifyTls) throws Exception {
+        ClientProfile profile = new ClientProfile(timeoutMs, verifyTls);
+        HttpClient cached = clients.get(profile);
+        if (cached != null) {
+            return cached;
+        }
+
+        HttpClient created = buildHttpClient(timeoutMs, verifyTls);
+        if (clients.size() >= MAX_CACHED_CLIENTS) {
+            clients.clear();
+        }
+        HttpClient existing = clients.putIfAbsent(profile, created);
+        return existing != null ? existing : created;
+    }
+
     private HttpClient buildHttpClient(int timeoutMs, boolean verifyTls) throws Exception {
         HttpClient.Builder builder = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofMillis(timeoutMs));
@@ -267,4 +293,7 @@ public class AppriseHttpClient {
 
         return builder.build();
     }
+
+    private record ClientProfile(int timeoutMs, boolean verifyTls) {
+    }
 }
@@ -0,0 +1,18 @@
+package org.github.tess1o.geopulse.geofencing.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Fired when a geofence event was stored with PENDING external delivery.
+ * Delivery starts once the surrounding transaction commits.
+ */
+@Data
+@AllArgsConstructor
+public class GeofenceDeliveryQueuedEvent {
+    private Long eventId;
+    /**
+     * Notification template the event is routed to; deliveries are throttled per template.
+     */
+    private Long templateId;
+}
@@ -0,0 +1,143 @@
+package org.github.tess1o.geopulse.geofencing.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs geofence delivery attempts on an executor.
+ * <p>
+ * Each event is tracked from the moment it is queued until its last attempt, so it is never attempted twice at
+ * once. Events for one target (notification template) start in the order they were queued, with at most
+ * {@code perTargetConcurrency} running; a global limit applies across targets. An attempt that asks for a retry
+ * is queued again at the back of its target after the requested delay.
+ */
+@Slf4j
+final class GeofenceDeliveryDispatcher {
+
+    private static final long NO_TARGET = -1L;
+
+    /**
+     * One delivery attempt.
+     */
+    @FunctionalInterface
+    interface Attempt {
+        /**
+         * @return delay before the next attempt, or null when the event needs no further attempts
+         */
+        Duration run(Long eventId, Long templateId) throws Exception;
+    }
+
+    private final Executor executor;
+    private final Attempt attempt;
+    private final Semaphore globalPermits;
+    private final int perTargetConcurrency;
+    private final ScheduledExecutorService retryScheduler;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<Long, TargetQueue> targets = new ConcurrentHashMap<>();
+
+    GeofenceDeliveryDispatcher(Executor executor, int maxConcurrency, int perTargetConcurrency, Attempt attempt) {
+        this.executor = executor;
+        this.attempt = attempt;
+        this.globalPermits = new Semaphore(Math.max(1, maxConcurrency));
+        this.perTargetConcurrency = Math.max(1, perTargetConcurrency);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("geofence-delivery-retry").daemon().factory());
+    }
+
+    /**
+     * Queue an event unless it is already queued, running or waiting for a retry.
+     */
+    void enqueue(Long eventId, Long templateId) {
+        if (eventId == null || !inFlight.add(eventId)) {
+            return;
+        }
+        offer(new QueuedDelivery(eventId, templateId));
+    }
+
+    void shutdown() {
+        retryScheduler.shutdownNow();
+    }
+
+    private void offer(QueuedDelivery delivery) {
+        TargetQueue target = targets.computeIfAbsent(
+                delivery.templateId() != null ? delivery.templateId() : NO_TARGET, ignored -> new TargetQueue());
+        synchronized (target) {
+            target.pending.add(delivery);
+            if (target.running >= perTargetConcurrency) {
+                return;
+            }
+            target.running++;
+        }
+        try {
+            executor.execute(() -> drain(target));
+        } catch (RejectedExecutionException e) {
+            synchronized (target) {
+                target.running--;
+                target.pending.forEach(dropped -> inFlight.remove(dropped.eventId()));
+                target.pending.clear();
+            }
+            log.debug("Geofence delivery executor is shut down, event {} left for the recovery sweep", delivery.eventId());
+        }
+    }
+
+    private void drain(TargetQueue target) {
+        while (true) {
+            QueuedDelivery next;
+            synchronized (target) {
+                next = target.pending.poll();
+                if (next == null) {
+                    target.running--;
+                    return;
+                }
+            }
+            run(next);
+        }
+    }
+
+    private void run(QueuedDelivery delivery) {
+        Duration retryDelay = null;
+        try {
+            globalPermits.acquire();
+            try {
+                retryDelay = attempt.run(delivery.eventId(), delivery.templateId());
+            } finally {
+                globalPermits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Geofence delivery failed for event {}", delivery.eventId(), e);
+        }
+        if (retryDelay == null || !scheduleRetry(delivery, retryDelay)) {
+            inFlight.remove(delivery.eventId());
+        }
+    }
+
+    private boolean scheduleRetry(QueuedDelivery delivery, Duration delay) {
+        try {
+            retryScheduler.schedule(() -> offer(delivery), Math.max(0L, delay.toMillis()), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private record QueuedDelivery(Long eventId, Long templateId) {
+    }
+
+    private static final class TargetQueue {
+        private final ArrayDeque<QueuedDelivery> pending = new ArrayDeque<>();
+        private int running;
+    }
+}
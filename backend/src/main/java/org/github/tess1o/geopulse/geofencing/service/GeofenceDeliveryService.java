@@ -1,22 +1,42 @@
 package org.github.tess1o.geopulse.geofencing.service;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.scheduler.Scheduled;
+import io.smallrye.common.annotation.Identifier;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.github.tess1o.geopulse.geofencing.client.AppriseClientResult;
+import org.github.tess1o.geopulse.geofencing.events.GeofenceDeliveryQueuedEvent;
 import org.github.tess1o.geopulse.geofencing.model.entity.AppriseExternalRoutingMode;
 import org.github.tess1o.geopulse.geofencing.model.entity.GeofenceDeliveryStatus;
 import org.github.tess1o.geopulse.geofencing.model.entity.GeofenceEventEntity;
 import org.github.tess1o.geopulse.geofencing.model.entity.NotificationTemplateEntity;
 import org.github.tess1o.geopulse.geofencing.repository.GeofenceEventRepository;
 import org.github.tess1o.geopulse.notifications.service.GeofenceNotificationProjectionService;
+import org.github.tess1o.geopulse.prometheus.GeoPulseWorkloadMetrics;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Delivers geofence events to Apprise.
+ * <p>
+ * New events are handed over right after their transaction commits and delivered concurrently on virtual
+ * threads by a {@link GeofenceDeliveryDispatcher}, limited globally and per notification template. Failed
+ * attempts are retried in-process with exponential backoff. The scheduled poll only recovers events this instance does not already track,
+ * e.g. after a restart.
+ */
 @ApplicationScoped
 @Slf4j
 public class GeofenceDeliveryService {
@@ -27,48 +47,134 @@ public class GeofenceDeliveryService {
     private final GeofenceEventRepository eventRepository;
     private final AppriseNotificationService appriseNotificationService;
     private final GeofenceNotificationProjectionService notificationProjectionService;
+    private final ExecutorService deliveryExecutor;
+    private final GeoPulseWorkloadMetrics workloadMetrics;
+
+    @ConfigProperty(name = "geopulse.geofence.delivery.max-concurrency", defaultValue = "16")
+    int maxConcurrency;
+
+    @ConfigProperty(name = "geopulse.geofence.delivery.per-target-concurrency", defaultValue = "2")
+    int perTargetConcurrency;
+
+    @ConfigProperty(name = "geopulse.geofence.delivery.retry-base-delay-ms", defaultValue = "2000")
+    long retryBaseDelayMillis;
+
+    @ConfigProperty(name = "geopulse.geofence.delivery.retry-max-delay-ms", defaultValue = "300000")
+    long retryMaxDelayMillis;
+
+    private GeofenceDeliveryDispatcher dispatcher;
 
     @Inject
     public GeofenceDeliveryService(GeofenceEventRepository eventRepository,
                                    AppriseNotificationService appriseNotificationService,
-                                   GeofenceNotificationProjectionService notificationProjectionService) {
+                                   GeofenceNotificationProjectionService notificationProjectionService,
+                                   @Identifier("geofence-delivery") ExecutorService deliveryExecutor,
+                                   GeoPulseWorkloadMetrics workloadMetrics) {
         this.eventRepository = eventRepository;
         this.appriseNotificationService = appriseNotificationService;
         this.notificationProjectionService = notificationProjectionService;
+        this.deliveryExecutor = deliveryExecutor;
+        this.workloadMetrics = workloadMetrics;
+    }
+
+    @PostConstruct
+    void init() {
+        dispatcher = new GeofenceDeliveryDispatcher(deliveryExecutor, maxConcurrency, perTargetConcurrency,
+                this::attemptDelivery);
+    }
+
+    // The delivery executor itself is shut down by its producer
+    @PreDestroy
+    void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    void onDeliveryQueued(@Observes(during = TransactionPhase.AFTER_SUCCESS) GeofenceDeliveryQueuedEvent queued) {
+        dispatcher.enqueue(queued.getEventId(), queued.getTemplateId());
     }
 
-    @Scheduled(every = "${geopulse.geofence.delivery.interval:30s}")
+    /**
+     * Recovery sweep for pending events that are not queued in this instance.
+     */
+    @Scheduled(every = "${geopulse.geofence.delivery.interval:60s}")
     @Transactional
     public void processPendingDeliveries() {
         List<GeofenceEventEntity> pending = eventRepository.findPendingForDelivery(DELIVERY_BATCH_SIZE, MAX_ATTEMPTS);
-        if (pending.isEmpty()) {
-            return;
+        for (GeofenceEventEntity event : pending) {
+            dispatcher.enqueue(event.getId(), event.getTemplate() != null ? event.getTemplate().getId() : null);
         }
+    }
 
-        if (!appriseNotificationService.isEnabledAndConfigured()) {
-            pending.forEach(event -> markSkipped(event, "Apprise delivery disabled or not configured"));
-            return;
+    /**
+     * @return delay before the next attempt, or null when the event is done
+     */
+    private Duration attemptDelivery(Long eventId, Long templateId) {
+        PreparedDelivery prepared = QuarkusTransaction.requiringNew().call(() -> prepareDelivery(eventId));
+        if (prepared == null) {
+            return null;
         }
 
-        for (GeofenceEventEntity event : pending) {
-            processEvent(event);
+        // The HTTP call runs outside a transaction so slow endpoints don't pin database connections
+        long requestStart = workloadMetrics.start();
+        AppriseClientResult result = appriseNotificationService.sendToTemplate(
+                prepared.template(), prepared.title(), prepared.message());
+        String outcome = result.isSuccess() ? "success" : "failure";
+        workloadMetrics.recordTimer("geopulse.geofence.delivery.request.duration", requestStart, "result", outcome);
+
+        Integer attempts = QuarkusTransaction.requiringNew().call(() -> recordResult(eventId, result));
+        if (result.isSuccess()) {
+            if (prepared.createdAt() != null) {
+                workloadMetrics.recordDuration("geopulse.geofence.delivery.latency",
+                        Duration.between(prepared.createdAt(), Instant.now()));
+            }
+            return null;
+        }
+        if (attempts == null || attempts >= MAX_ATTEMPTS) {
+            workloadMetrics.increment("geopulse.geofence.delivery.failed");
+            return null;
         }
+        long delayMillis = retryDelayMillis(attempts, retryBaseDelayMillis, retryMaxDelayMillis);
+        log.debug("Geofence delivery for event {} to template {} failed (attempt {}), retrying in {} ms",
+                eventId, templateId, attempts, delayMillis);
+        return Duration.ofMillis(delayMillis);
+    }
+
+    /**
+     * Exponential backoff with up to 20% jitter, so retries against a recovering endpoint spread out.
+     */
+    static long retryDelayMillis(int attempts, long baseDelayMillis, long maxDelayMillis) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        long delay = Math.min(maxDelayMillis, Math.max(1L, baseDelayMillis) << exponent);
+        long jitter = (long) (delay * 0.2 * ThreadLocalRandom.current().nextDouble());
+        return Math.min(maxDelayMillis, delay + jitter);
     }
 
-    private void processEvent(GeofenceEventEntity event) {
+    private PreparedDelivery prepareDelivery(Long eventId) {
+        GeofenceEventEntity event = eventRepository.findById(eventId);
+        if (event == null || event.getDeliveryStatus() != GeofenceDeliveryStatus.PENDING) {
+            return null;
+        }
+
+        if (!appriseNotificationService.isEnabledAndConfigured()) {
+            markSkipped(event, "Apprise delivery disabled or not configured");
+            return null;
+        }
+
         NotificationTemplateEntity template = event.getTemplate();
         if (!isExternallyDeliverable(template)) {
             markSkipped(event, "No enabled template external routing configured");
-            return;
+            return null;
         }
 
         String consistencyError = validateEventOwnershipConsistency(event, template);
         if (consistencyError != null) {
             log.warn("Skipping geofence delivery for event {} due to ownership mismatch: {}",
-                    event != null ? event.getId() : null,
+                    event.getId(),
                     consistencyError);
             markSkipped(event, consistencyError);
-            return;
+            return null;
         }
 
         log.info("Processing geofence delivery eventId={} ownerUserId={} subjectUserId={} pointUserId={} templateId={} templateUserId={} ruleId={}",
@@ -76,12 +182,20 @@ public class GeofenceDeliveryService {
                 event.getOwnerUser() != null ? event.getOwnerUser().getId() : null,
                 event.getSubjectUser() != null ? event.getSubjectUser().getId() : null,
                 event.getPoint() != null && event.getPoint().getUser() != null ? event.getPoint().getUser().getId() : null,
-                template != null ? template.getId() : null,
-                template != null && template.getUser() != null ? template.getUser().getId() : null,
+                template.getId(),
+                template.getUser() != null ? template.getUser().getId() : null,
                 event.getRule() != null ? event.getRule().getId() : null
         );
 
-        AppriseClientResult result = appriseNotificationService.sendToTemplate(template, event.getTitle(), event.getMessage());
+        // The template was initialized above, so its fields stay readable after the transaction ends
+        return new PreparedDelivery(template, event.getTitle(), event.getMessage(), event.getCreatedAt());
+    }
+
+    private Integer recordResult(Long eventId, AppriseClientResult result) {
+        GeofenceEventEntity event = eventRepository.findById(eventId);
+        if (event == null) {
+            return null;
+        }
 
         int attempts = event.getDeliveryAttempts() == null ? 0 : event.getDeliveryAttempts();
         event.setDeliveryAttempts(attempts + 1);
@@ -91,7 +205,7 @@ public class GeofenceDeliveryService {
             event.setDeliveredAt(Instant.now());
             event.setLastDeliveryError(null);
             syncNotificationDeliveryStatus(event);
-            return;
+            return event.getDeliveryAttempts();
         }
 
         event.setLastDeliveryError(result.getMessage());
@@ -101,6 +215,7 @@ public class GeofenceDeliveryService {
             event.setDeliveryStatus(GeofenceDeliveryStatus.PENDING);
         }
         syncNotificationDeliveryStatus(event);
+        return event.getDeliveryAttempts();
     }
 
     private boolean isExternallyDeliverable(NotificationTemplateEntity template) {
@@ -159,4 +274,7 @@ public class GeofenceDeliveryService {
                 event.getDeliveryStatus()
         );
     }
+
+    private record PreparedDelivery(NotificationTemplateEntity template, String title, String message, Instant createdAt) {
+    }
 }
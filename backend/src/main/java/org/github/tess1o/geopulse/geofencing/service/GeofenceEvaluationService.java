@@ -1,11 +1,13 @@
 package org.github.tess1o.geopulse.geofencing.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.friends.repository.FriendshipRepository;
 import org.github.tess1o.geopulse.friends.repository.UserFriendPermissionRepository;
+import org.github.tess1o.geopulse.geofencing.events.GeofenceDeliveryQueuedEvent;
 import org.github.tess1o.geopulse.geofencing.model.entity.*;
 import org.github.tess1o.geopulse.geofencing.repository.GeofenceEventRepository;
 import org.github.tess1o.geopulse.geofencing.repository.GeofenceRuleRepository;
@@ -13,6 +15,7 @@ import org.github.tess1o.geopulse.geofencing.repository.GeofenceRuleStateReposit
 import org.github.tess1o.geopulse.geofencing.repository.NotificationTemplateRepository;
 import org.github.tess1o.geopulse.notifications.service.GeofenceNotificationProjectionService;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 
 import java.time.DateTimeException;
@@ -45,6 +48,8 @@ public class GeofenceEvaluationService {
     private final UserFriendPermissionRepository permissionRepository;
     private final GeofenceTemplateRenderer templateRenderer;
     private final GeofenceNotificationProjectionService notificationProjectionService;
+    private final GpsPointRepository gpsPointRepository;
+    private final Event<GeofenceDeliveryQueuedEvent> deliveryQueuedEvent;
 
     @Inject
     public GeofenceEvaluationService(GeofenceRuleRepository ruleRepository,
@@ -54,7 +59,9 @@ public class GeofenceEvaluationService {
                                      FriendshipRepository friendshipRepository,
                                      UserFriendPermissionRepository permissionRepository,
                                      GeofenceTemplateRenderer templateRenderer,
-                                     GeofenceNotificationProjectionService notificationProjectionService) {
+                                     GeofenceNotificationProjectionService notificationProjectionService,
+                                     GpsPointRepository gpsPointRepository,
+                                     Event<GeofenceDeliveryQueuedEvent> deliveryQueuedEvent) {
         this.ruleRepository = ruleRepository;
         this.stateRepository = stateRepository;
         this.eventRepository = eventRepository;
@@ -63,6 +70,8 @@ public class GeofenceEvaluationService {
         this.permissionRepository = permissionRepository;
         this.templateRenderer = templateRenderer;
         this.notificationProjectionService = notificationProjectionService;
+        this.gpsPointRepository = gpsPointRepository;
+        this.deliveryQueuedEvent = deliveryQueuedEvent;
     }
 
     @Transactional
@@ -95,6 +104,50 @@ public class GeofenceEvaluationService {
         }
     }
 
+    /**
+     * Evaluate a batch of points inserted for one subject (batch ingest).
+     * Rules and friendship checks are resolved once for the batch; points are evaluated in timestamp order
+     * so ENTER/LEAVE transitions inside the batch are detected the same way as with per-point evaluation.
+     * Points are only loaded when the subject has active rules.
+     */
+    @Transactional
+    public void handlePersistedPoints(UUID subjectUserId, List<Long> pointIds) {
+        if (subjectUserId == null || pointIds == null || pointIds.isEmpty()) {
+            return;
+        }
+
+        List<GeofenceRuleEntity> rules = ruleRepository.findActiveBySubject(subjectUserId);
+        if (rules.isEmpty()) {
+            return;
+        }
+
+        List<GpsPointEntity> points = gpsPointRepository.list("id in ?1 ORDER BY timestamp ASC, id ASC", pointIds);
+        if (points.isEmpty()) {
+            return;
+        }
+
+        UserEntity subject = points.get(0).getUser();
+        List<GeofenceRuleEntity> trackableRules = rules.stream()
+                .filter(rule -> isSubjectTrackable(rule.getOwnerUser(), subject))
+                .toList();
+        log.info("Evaluating {} points against {} geofence rules for user {}", points.size(), trackableRules.size(), subjectUserId);
+
+        for (GpsPointEntity point : points) {
+            if (point.getCoordinates() == null || point.getTimestamp() == null) {
+                continue;
+            }
+            double latitude = point.getCoordinates().getY();
+            double longitude = point.getCoordinates().getX();
+            for (GeofenceRuleEntity rule : trackableRules) {
+                try {
+                    evaluateRulePoint(rule, subject, point, latitude, longitude);
+                } catch (Exception e) {
+                    log.warn("Failed to evaluate geofence rule {} for point {}: {}", rule.getId(), point.getId(), e.getMessage());
+                }
+            }
+        }
+    }
+
     private boolean isSubjectTrackable(UserEntity ownerUser, UserEntity subjectUser) {
         if (ownerUser == null || ownerUser.getId() == null || subjectUser == null || subjectUser.getId() == null) {
             return false;
@@ -261,6 +314,10 @@ public class GeofenceEvaluationService {
         eventRepository.persist(event);
         eventRepository.flush();
 
+        if (deliveryStatus == GeofenceDeliveryStatus.PENDING) {
+            deliveryQueuedEvent.fire(new GeofenceDeliveryQueuedEvent(event.getId(), template.getId()));
+        }
+
         Map<String, Object> metadataSnapshot = new LinkedHashMap<>();
         metadataSnapshot.put("ruleId", rule.getId());
         metadataSnapshot.put("ruleName", rule.getName());
@@ -0,0 +1,18 @@
+package org.github.tess1o.geopulse.gps.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.github.tess1o.geopulse.gps.model.GpsPointPathPointDTO;
+
+import java.util.UUID;
+
+/**
+ * Fired after new GPS points were stored for a user. Carries only the newest stored point,
+ * which is what live location subscribers need.
+ */
+@Data
+@AllArgsConstructor
+public class GpsPointPersistedEvent {
+    private UUID userId;
+    private GpsPointPathPointDTO latestPoint;
+}
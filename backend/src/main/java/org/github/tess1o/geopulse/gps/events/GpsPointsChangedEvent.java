@@ -0,0 +1,39 @@
+package org.github.tess1o.geopulse.gps.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Fired when a user's stored GPS points were written, edited or deleted, so the recent-point
+ * window used by ingest duplicate checks can drop state that no longer matches the database
+ * and per-user metrics can follow the change.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class GpsPointsChangedEvent {
+
+    private final UUID userId;
+
+    /**
+     * True when the points came through real-time ingest and were added to the user's window, which
+     * only happens while the window is loaded; such a change only invalidates the window if its
+     * transaction rolls back.
+     */
+    private final boolean recordedInWindow;
+
+    /**
+     * Number of new points stored by real-time ingest; 0 when the change is not a plain insert
+     * and its effect on the user's point count is unknown.
+     */
+    private final int addedPoints;
+
+    /**
+     * Newest timestamp among the added points, or null.
+     */
+    private final Instant latestTimestamp;
+}
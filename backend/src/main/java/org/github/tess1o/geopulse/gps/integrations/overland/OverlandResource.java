@@ -6,7 +6,6 @@ import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
-import org.github.tess1o.geopulse.gps.integrations.overland.model.OverlandLocationMessage;
 import org.github.tess1o.geopulse.gps.integrations.overland.model.OverlandLocations;
 import org.github.tess1o.geopulse.gps.integrations.overland.model.OverlandResultResponse;
 import org.github.tess1o.geopulse.gps.service.auth.GpsIntegrationAuthenticatorRegistry;
@@ -53,8 +52,6 @@ public class OverlandResource {
     }
 
     private void saveToDb(OverlandLocations overlandLocations, UUID userId, org.github.tess1o.geopulse.gpssource.model.GpsSourceConfigEntity config) {
-        for (OverlandLocationMessage locationMessage : overlandLocations.getLocations()) {
-            gpsPointService.saveOverlandGpsPoint(locationMessage, userId, GpsSourceType.OVERLAND, config);
-        }
+        gpsPointService.saveOverlandGpsPoints(overlandLocations.getLocations(), userId, GpsSourceType.OVERLAND, config);
     }
 }
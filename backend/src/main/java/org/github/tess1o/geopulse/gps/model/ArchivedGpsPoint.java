@@ -0,0 +1,32 @@
+package org.github.tess1o.geopulse.gps.model;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+/**
+ * One GPS point as stored in an archive block. Carries every column of {@code gps_points} except the user, which
+ * belongs to the block.
+ *
+ * @param sourceType    {@link org.github.tess1o.geopulse.shared.gps.GpsSourceType} name
+ * @param telemetryJson telemetry as stored in the {@code jsonb} column, or null
+ */
+public record ArchivedGpsPoint(long id,
+                               Instant timestamp,
+                               Double latitude,
+                               Double longitude,
+                               Double accuracy,
+                               Double battery,
+                               Double velocity,
+                               Double altitude,
+                               String deviceId,
+                               String sourceType,
+                               Instant createdAt,
+                               String telemetryJson) {
+
+    /**
+     * Order of points within a block and of every stream over archived points.
+     */
+    public static final Comparator<ArchivedGpsPoint> ORDER = Comparator
+            .comparing(ArchivedGpsPoint::timestamp)
+            .thenComparingLong(ArchivedGpsPoint::id);
+}
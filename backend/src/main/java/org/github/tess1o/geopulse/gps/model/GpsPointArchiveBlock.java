@@ -0,0 +1,21 @@
+package org.github.tess1o.geopulse.gps.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Row of {@code gps_point_archive_blocks}: the archived points of one user and UTC month.
+ *
+ * @param periodStart     start of the month the block covers
+ * @param encodingVersion payload format version
+ * @param payload         compressed points, see {@code GpsPointArchiveCodec}
+ */
+public record GpsPointArchiveBlock(long id,
+                                   UUID userId,
+                                   Instant periodStart,
+                                   Instant firstTimestamp,
+                                   Instant lastTimestamp,
+                                   int pointCount,
+                                   int encodingVersion,
+                                   byte[] payload) {
+}
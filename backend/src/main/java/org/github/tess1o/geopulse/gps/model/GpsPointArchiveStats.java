@@ -0,0 +1,9 @@
+package org.github.tess1o.geopulse.gps.model;
+
+/**
+ * Size of the GPS point archive over all users.
+ *
+ * @param payloadBytes compressed payload size, without row and index overhead
+ */
+public record GpsPointArchiveStats(long blocks, long points, long payloadBytes) {
+}
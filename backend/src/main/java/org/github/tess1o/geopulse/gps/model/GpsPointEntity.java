@@ -36,6 +36,7 @@ public class GpsPointEntity implements GpsPoint, Serializable {
     @Column(columnDefinition = "geometry(Point,4326)")
     private Point coordinates;
 
+    @Column(nullable = false)
     private Instant timestamp;
     private Double accuracy;
     private Double battery;
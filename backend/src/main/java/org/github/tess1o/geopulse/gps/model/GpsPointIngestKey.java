@@ -0,0 +1,11 @@
+package org.github.tess1o.geopulse.gps.model;
+
+import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
+
+import java.time.Instant;
+
+/**
+ * Lightweight projection of an existing GPS point used for in-memory duplicate checks during batch ingest.
+ */
+public record GpsPointIngestKey(Instant timestamp, double latitude, double longitude, GpsSourceType sourceType) {
+}
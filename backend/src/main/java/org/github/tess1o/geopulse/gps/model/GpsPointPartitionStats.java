@@ -0,0 +1,12 @@
+package org.github.tess1o.geopulse.gps.model;
+
+/**
+ * Size of one partition of {@code gps_points} or {@code gps_point_environment}.
+ *
+ * @param tableName     partitioned parent table
+ * @param partitionName partition table, e.g. {@code gps_points_y2024} or {@code gps_points_default}
+ * @param estimatedRows planner row estimate, 0 until the partition has been analyzed
+ * @param totalBytes    table, index and TOAST size
+ */
+public record GpsPointPartitionStats(String tableName, String partitionName, long estimatedRows, long totalBytes) {
+}
@@ -0,0 +1,361 @@
+package org.github.tess1o.geopulse.gps.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.github.tess1o.geopulse.gps.model.ArchivedGpsPoint;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary format of archive block payloads. Encoding is lossless: decoding a payload returns exactly the points
+ * that were encoded, in the same order.
+ * <p>
+ * Version 1 layout, deflate-compressed as a whole:
+ * <ul>
+ *     <li>point count, then a string dictionary holding every device id and source type of the block</li>
+ *     <li>per point: id and timestamp (microseconds) as deltas from the previous point, a field-presence mask,
+ *     latitude and longitude as deltas in units of 1e-7 degrees, accuracy, battery, velocity and altitude in
+ *     hundredths, dictionary references, creation time relative to the timestamp and the telemetry JSON</li>
+ * </ul>
+ * Any coordinate or measurement that does not survive the fixed-point scaling exactly is stored as a raw double.
+ * All integers are zigzag varints, so small deltas take one or two bytes.
+ */
+@ApplicationScoped
+public class GpsPointArchiveCodec {
+
+    public static final int VERSION = 1;
+
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final double MEASUREMENT_SCALE = 100.0;
+
+    // Two bits per numeric field
+    private static final int ABSENT = 0;
+    private static final int SCALED = 1;
+    private static final int RAW = 2;
+
+    private static final int LATITUDE_SHIFT = 0;
+    private static final int LONGITUDE_SHIFT = 2;
+    private static final int ACCURACY_SHIFT = 4;
+    private static final int BATTERY_SHIFT = 6;
+    private static final int VELOCITY_SHIFT = 8;
+    private static final int ALTITUDE_SHIFT = 10;
+    private static final int CREATED_AT_FLAG = 1 << 12;
+    private static final int TELEMETRY_FLAG = 1 << 13;
+
+    /**
+     * Encode points sorted by timestamp and id.
+     */
+    public byte[] encode(List<ArchivedGpsPoint> points) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> dictionaryEntries = new ArrayList<>();
+        for (ArchivedGpsPoint point : points) {
+            addToDictionary(point.deviceId(), dictionary, dictionaryEntries);
+            addToDictionary(point.sourceType(), dictionary, dictionaryEntries);
+        }
+
+        Writer out = new Writer();
+        out.writeUnsigned(points.size());
+        out.writeUnsigned(dictionaryEntries.size());
+        for (String entry : dictionaryEntries) {
+            out.writeString(entry);
+        }
+
+        long previousId = 0;
+        long previousMicros = 0;
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        for (ArchivedGpsPoint point : points) {
+            long micros = toMicros(point.timestamp());
+            out.writeSigned(point.id() - previousId);
+            out.writeSigned(micros - previousMicros);
+            previousId = point.id();
+            previousMicros = micros;
+
+            int latitudeMode = mode(point.latitude(), COORDINATE_SCALE);
+            int longitudeMode = mode(point.longitude(), COORDINATE_SCALE);
+            int mask = latitudeMode << LATITUDE_SHIFT
+                    | longitudeMode << LONGITUDE_SHIFT
+                    | mode(point.accuracy(), MEASUREMENT_SCALE) << ACCURACY_SHIFT
+                    | mode(point.battery(), MEASUREMENT_SCALE) << BATTERY_SHIFT
+                    | mode(point.velocity(), MEASUREMENT_SCALE) << VELOCITY_SHIFT
+                    | mode(point.altitude(), MEASUREMENT_SCALE) << ALTITUDE_SHIFT
+                    | (point.createdAt() != null ? CREATED_AT_FLAG : 0)
+                    | (point.telemetryJson() != null ? TELEMETRY_FLAG : 0);
+            out.writeUnsigned(mask);
+
+            if (latitudeMode == SCALED) {
+                long latitude = Math.round(point.latitude() * COORDINATE_SCALE);
+                out.writeSigned(latitude - previousLatitude);
+                previousLatitude = latitude;
+            } else if (latitudeMode == RAW) {
+                out.writeDouble(point.latitude());
+            }
+            if (longitudeMode == SCALED) {
+                long longitude = Math.round(point.longitude() * COORDINATE_SCALE);
+                out.writeSigned(longitude - previousLongitude);
+                previousLongitude = longitude;
+            } else if (longitudeMode == RAW) {
+                out.writeDouble(point.longitude());
+            }
+            writeMeasurement(out, point.accuracy());
+            writeMeasurement(out, point.battery());
+            writeMeasurement(out, point.velocity());
+            writeMeasurement(out, point.altitude());
+
+            out.writeUnsigned(point.deviceId() == null ? 0 : dictionary.get(point.deviceId()) + 1);
+            out.writeUnsigned(point.sourceType() == null ? 0 : dictionary.get(point.sourceType()) + 1);
+            if (point.createdAt() != null) {
+                out.writeSigned(toMicros(point.createdAt()) - micros);
+            }
+            if (point.telemetryJson() != null) {
+                out.writeString(point.telemetryJson());
+            }
+        }
+        return compress(out.toByteArray());
+    }
+
+    public List<ArchivedGpsPoint> decode(int encodingVersion, byte[] payload) {
+        if (encodingVersion != VERSION) {
+            throw new IllegalStateException("Unsupported GPS point archive encoding version " + encodingVersion);
+        }
+        Reader in = new Reader(decompress(payload));
+        int count = (int) in.readUnsigned();
+        int dictionarySize = (int) in.readUnsigned();
+        String[] dictionary = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionary[i] = in.readString();
+        }
+
+        List<ArchivedGpsPoint> points = new ArrayList<>(count);
+        long id = 0;
+        long micros = 0;
+        long latitudeUnits = 0;
+        long longitudeUnits = 0;
+        for (int i = 0; i < count; i++) {
+            id += in.readSigned();
+            micros += in.readSigned();
+            int mask = (int) in.readUnsigned();
+
+            Double latitude = null;
+            int latitudeMode = (mask >>> LATITUDE_SHIFT) & 3;
+            if (latitudeMode == SCALED) {
+                latitudeUnits += in.readSigned();
+                latitude = latitudeUnits / COORDINATE_SCALE;
+            } else if (latitudeMode == RAW) {
+                latitude = in.readDouble();
+            }
+            Double longitude = null;
+            int longitudeMode = (mask >>> LONGITUDE_SHIFT) & 3;
+            if (longitudeMode == SCALED) {
+                longitudeUnits += in.readSigned();
+                longitude = longitudeUnits / COORDINATE_SCALE;
+            } else if (longitudeMode == RAW) {
+                longitude = in.readDouble();
+            }
+            Double accuracy = readMeasurement(in, (mask >>> ACCURACY_SHIFT) & 3);
+            Double battery = readMeasurement(in, (mask >>> BATTERY_SHIFT) & 3);
+            Double velocity = readMeasurement(in, (mask >>> VELOCITY_SHIFT) & 3);
+            Double altitude = readMeasurement(in, (mask >>> ALTITUDE_SHIFT) & 3);
+
+            int deviceRef = (int) in.readUnsigned();
+            int sourceRef = (int) in.readUnsigned();
+            Instant createdAt = (mask & CREATED_AT_FLAG) != 0 ? fromMicros(micros + in.readSigned()) : null;
+            String telemetry = (mask & TELEMETRY_FLAG) != 0 ? in.readString() : null;
+
+            points.add(new ArchivedGpsPoint(
+                    id,
+                    fromMicros(micros),
+                    latitude,
+                    longitude,
+                    accuracy,
+                    battery,
+                    velocity,
+                    altitude,
+                    deviceRef == 0 ? null : dictionary[deviceRef - 1],
+                    sourceRef == 0 ? null : dictionary[sourceRef - 1],
+                    createdAt,
+                    telemetry));
+        }
+        return points;
+    }
+
+    private static void addToDictionary(String value, Map<String, Integer> dictionary, List<String> entries) {
+        if (value != null && !dictionary.containsKey(value)) {
+            dictionary.put(value, entries.size());
+            entries.add(value);
+        }
+    }
+
+    private static int mode(Double value, double scale) {
+        if (value == null) {
+            return ABSENT;
+        }
+        double scaled = value * scale;
+        // Fixed point only when decoding gives back the identical double
+        if (Math.abs(scaled) < 1e15 && Double.compare(Math.round(scaled) / scale, value) == 0) {
+            return SCALED;
+        }
+        return RAW;
+    }
+
+    private static void writeMeasurement(Writer out, Double value) {
+        int mode = mode(value, MEASUREMENT_SCALE);
+        if (mode == SCALED) {
+            out.writeSigned(Math.round(value * MEASUREMENT_SCALE));
+        } else if (mode == RAW) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static Double readMeasurement(Reader in, int mode) {
+        return switch (mode) {
+            case SCALED -> in.readSigned() / MEASUREMENT_SCALE;
+            case RAW -> in.readDouble();
+            default -> null;
+        };
+    }
+
+    // Postgres timestamps have microsecond precision
+    private static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    private static byte[] compress(byte[] raw) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            out.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] payload) {
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(payload))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt GPS point archive payload", e);
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[4096];
+        private int size;
+
+        void writeUnsigned(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeSigned(long value) {
+            writeUnsigned((value << 1) ^ (value >> 63));
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (bits >>> shift);
+            }
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[size];
+            System.arraycopy(buffer, 0, result, 0, size);
+            return result;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, size + extra)];
+                System.arraycopy(buffer, 0, grown, 0, size);
+                buffer = grown;
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        long readUnsigned() {
+            long value = 0;
+            int shift = 0;
+            while (true) {
+                byte b = next();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+                shift += 7;
+                if (shift > 63) {
+                    throw new IllegalStateException("Corrupt GPS point archive payload: varint too long");
+                }
+            }
+        }
+
+        long readSigned() {
+            long raw = readUnsigned();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (next() & 0xFFL);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() {
+            int length = (int) readUnsigned();
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalStateException("Corrupt GPS point archive payload: string out of bounds");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private byte next() {
+            if (position >= buffer.length) {
+                throw new IllegalStateException("Corrupt GPS point archive payload: unexpected end");
+            }
+            return buffer[position++];
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package org.github.tess1o.geopulse.gps.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.github.tess1o.geopulse.gps.model.ArchivedGpsPoint;
+import org.github.tess1o.geopulse.gps.model.GpsPointArchiveBlock;
+import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
+import org.github.tess1o.geopulse.streaming.model.domain.GPSPoint;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read side of the GPS point archive. Blocks are loaded and decoded one at a time, so walking a long archive keeps
+ * a single month of points in memory.
+ * <p>
+ * Archived points are returned in the shapes the live read paths produce: {@link GPSPoint} for timeline
+ * processing and detached {@link GpsPointEntity} snapshots for exports. Archived points have no environment
+ * evidence, so their {@code onWater} is unknown. Points without coordinates are skipped, as no reader can use them.
+ */
+@ApplicationScoped
+@Slf4j
+public class GpsPointArchiveReader {
+
+    private static final ObjectReader TELEMETRY_READER = new ObjectMapper()
+            .readerFor(new TypeReference<LinkedHashMap<String, Object>>() {
+            });
+
+    private final GpsPointArchiveRepository archiveRepository;
+    private final GpsPointArchiveCodec codec;
+
+    @Inject
+    public GpsPointArchiveReader(GpsPointArchiveRepository archiveRepository, GpsPointArchiveCodec codec) {
+        this.archiveRepository = archiveRepository;
+        this.codec = codec;
+    }
+
+    /**
+     * Archived points of a user from {@code from} onwards, in timestamp and id order.
+     */
+    public Iterator<GPSPoint> iterateEssentialPoints(UUID userId, Instant from) {
+        return new BlockIterator<>(userId, from, null, GpsPointArchiveReader::toEssentialPoint);
+    }
+
+    /**
+     * Archived points of a user in [start, end], in timestamp and id order.
+     */
+    public List<GPSPoint> findEssentialPoints(UUID userId, Instant start, Instant end) {
+        List<GpsPointArchiveBlock> blocks = archiveRepository.findBlocks(userId, start, end);
+        if (blocks.isEmpty()) {
+            return List.of();
+        }
+        List<GPSPoint> points = new ArrayList<>();
+        for (GpsPointArchiveBlock block : blocks) {
+            for (ArchivedGpsPoint point : decode(block)) {
+                if (isWithin(point, start, end)) {
+                    points.add(toEssentialPoint(point));
+                }
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Whether any archived month of the user overlaps [start, end]. A null bound is open.
+     */
+    public boolean hasArchivedPoints(UUID userId, Instant start, Instant end) {
+        return archiveRepository.hasBlocks(userId, start, end);
+    }
+
+    /**
+     * Dates in {@code zone} on which the user has archived points. Walks the archive one block at a time.
+     */
+    public Set<LocalDate> findTrackingDates(UUID userId, ZoneId zone) {
+        Set<LocalDate> dates = new HashSet<>();
+        Instant afterPeriodStart = null;
+        Optional<GpsPointArchiveBlock> block;
+        while ((block = archiveRepository.findNextBlock(userId, null, null, afterPeriodStart)).isPresent()) {
+            for (ArchivedGpsPoint point : decode(block.get())) {
+                dates.add(LocalDate.ofInstant(point.timestamp(), zone));
+            }
+            afterPeriodStart = block.get().periodStart();
+        }
+        return dates;
+    }
+
+    /**
+     * Archived points of the user's first block after {@code afterPeriodStart}, or of the oldest block when it is
+     * null, in timestamp and id order. Lets callers walk the whole archive one month at a time.
+     */
+    public Optional<ArchivedMonth> findNextMonth(UUID userId, Instant afterPeriodStart) {
+        return archiveRepository.findNextBlock(userId, null, null, afterPeriodStart)
+                .map(block -> new ArchivedMonth(block.periodStart(), decode(block).stream()
+                        .filter(point -> isWithin(point, null, null))
+                        .map(GpsPointArchiveReader::toEssentialPoint)
+                        .toList()));
+    }
+
+    /**
+     * Archived points of a user in [start, end] as detached export snapshots, in timestamp and id order.
+     */
+    public Iterator<GpsPointEntity> iterateExportSnapshots(UUID userId, Instant start, Instant end) {
+        return new BlockIterator<>(userId, start, end, GpsPointArchiveReader::toExportSnapshot);
+    }
+
+    /**
+     * Archived point count of a user from {@code from} onwards, counting a block that straddles {@code from}
+     * whole.
+     */
+    public long estimatePointCount(UUID userId, Instant from) {
+        return archiveRepository.countPointsFrom(userId, from);
+    }
+
+    /**
+     * @param periodStart start of the archived UTC month
+     * @param points      points of the month with coordinates, in timestamp and id order
+     */
+    public record ArchivedMonth(Instant periodStart, List<GPSPoint> points) {
+    }
+
+    private List<ArchivedGpsPoint> decode(GpsPointArchiveBlock block) {
+        return codec.decode(block.encodingVersion(), block.payload());
+    }
+
+    private static boolean isWithin(ArchivedGpsPoint point, Instant start, Instant end) {
+        return point.latitude() != null
+                && point.longitude() != null
+                && (start == null || !point.timestamp().isBefore(start))
+                && (end == null || !point.timestamp().isAfter(end));
+    }
+
+    private static GPSPoint toEssentialPoint(ArchivedGpsPoint point) {
+        GPSPoint gpsPoint = new GPSPoint(
+                point.latitude(),
+                point.longitude(),
+                point.velocity() != null ? point.velocity() / 3.6 : 0.0,
+                point.accuracy() != null ? point.accuracy() : 0.0,
+                point.timestamp());
+        gpsPoint.setId(point.id());
+        return gpsPoint;
+    }
+
+    private static GpsPointEntity toExportSnapshot(ArchivedGpsPoint point) {
+        GpsPointEntity entity = new GpsPointEntity();
+        entity.setId(point.id());
+        entity.setDeviceId(point.deviceId());
+        entity.setCoordinates(GeoUtils.createPoint(point.longitude(), point.latitude()));
+        entity.setTimestamp(point.timestamp());
+        entity.setAccuracy(point.accuracy());
+        entity.setBattery(point.battery());
+        entity.setVelocity(point.velocity());
+        entity.setAltitude(point.altitude());
+        entity.setSourceType(point.sourceType() != null ? GpsSourceType.valueOf(point.sourceType()) : null);
+        entity.setCreatedAt(point.createdAt());
+        entity.setTelemetry(parseTelemetry(point.telemetryJson()));
+        return entity;
+    }
+
+    private static LinkedHashMap<String, Object> parseTelemetry(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return TELEMETRY_READER.readValue(json);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable telemetry of an archived GPS point: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Walks the blocks of a user in period order, loading the next block only once the current one is consumed.
+     */
+    private final class BlockIterator<T> implements Iterator<T> {
+        private final UUID userId;
+        private final Instant from;
+        private final Instant to;
+        private final Function<ArchivedGpsPoint, T> mapper;
+
+        private Iterator<ArchivedGpsPoint> current = Collections.emptyIterator();
+        private Instant lastPeriodStart;
+        private boolean exhausted;
+        private ArchivedGpsPoint next;
+
+        BlockIterator(UUID userId, Instant from, Instant to, Function<ArchivedGpsPoint, T> mapper) {
+            this.userId = userId;
+            this.from = from;
+            this.to = to;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (current.hasNext()) {
+                    ArchivedGpsPoint candidate = current.next();
+                    if (isWithin(candidate, from, to)) {
+                        next = candidate;
+                    }
+                } else if (exhausted || !loadNextBlock()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more archived GPS points available");
+            }
+            ArchivedGpsPoint point = next;
+            next = null;
+            return mapper.apply(point);
+        }
+
+        private boolean loadNextBlock() {
+            Optional<GpsPointArchiveBlock> block = archiveRepository.findNextBlock(userId, from, to, lastPeriodStart);
+            if (block.isEmpty()) {
+                exhausted = true;
+                return false;
+            }
+            lastPeriodStart = block.get().periodStart();
+            current = decode(block.get()).iterator();
+            log.debug("Loaded archived GPS block for user {}: period {}, {} points",
+                    userId, lastPeriodStart, block.get().pointCount());
+            return true;
+        }
+    }
+}
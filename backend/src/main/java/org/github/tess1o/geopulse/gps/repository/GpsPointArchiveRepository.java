@@ -0,0 +1,264 @@
+package org.github.tess1o.geopulse.gps.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.github.tess1o.geopulse.gps.model.ArchivedGpsPoint;
+import org.github.tess1o.geopulse.gps.model.GpsPointArchiveBlock;
+import org.github.tess1o.geopulse.gps.model.GpsPointArchiveStats;
+import org.github.tess1o.geopulse.shared.service.TimestampUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Access to {@code gps_point_archive_blocks} and to the live rows being moved into them.
+ */
+@ApplicationScoped
+public class GpsPointArchiveRepository {
+
+    private static final String BLOCK_COLUMNS =
+            "id, user_id, period_start, first_timestamp, last_timestamp, point_count, encoding_version, payload ";
+
+    private final EntityManager entityManager;
+
+    @Inject
+    public GpsPointArchiveRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * One user and UTC month of live points.
+     */
+    public record UserMonth(UUID userId, Instant periodStart) {
+    }
+
+    /**
+     * User months holding live points older than the cutoff, oldest first.
+     */
+    public List<UserMonth> findArchivableMonths(Instant cutoff, int limit) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                        SELECT gp.user_id, date_trunc('month', gp.timestamp, 'UTC') AS period_start
+                        FROM gps_points gp
+                        WHERE gp.timestamp < :cutoff
+                        GROUP BY gp.user_id, period_start
+                        ORDER BY period_start, gp.user_id
+                        LIMIT :limit
+                        """)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new UserMonth((UUID) row[0], TimestampUtils.getInstantSafe(row[1])))
+                .toList();
+    }
+
+    /**
+     * Delete the live points of a user in [from, to) and return them sorted by timestamp and id.
+     */
+    public List<ArchivedGpsPoint> deleteLivePoints(UUID userId, Instant from, Instant to) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                        DELETE FROM gps_points
+                        WHERE user_id = :userId
+                          AND timestamp >= :fromTime
+                          AND timestamp < :toTime
+                        RETURNING id, timestamp, ST_Y(coordinates), ST_X(coordinates), accuracy, battery, velocity,
+                                  altitude, device_id, source_type, created_at, CAST(telemetry AS text)
+                        """)
+                .setParameter("userId", userId)
+                .setParameter("fromTime", from)
+                .setParameter("toTime", to)
+                .getResultList();
+
+        List<ArchivedGpsPoint> points = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            points.add(new ArchivedGpsPoint(
+                    ((Number) row[0]).longValue(),
+                    TimestampUtils.getInstantSafe(row[1]),
+                    toDouble(row[2]),
+                    toDouble(row[3]),
+                    toDouble(row[4]),
+                    toDouble(row[5]),
+                    toDouble(row[6]),
+                    toDouble(row[7]),
+                    (String) row[8],
+                    row[9] != null ? row[9].toString() : null,
+                    row[10] != null ? TimestampUtils.getInstantSafe(row[10]) : null,
+                    (String) row[11]));
+        }
+        points.sort(ArchivedGpsPoint.ORDER);
+        return points;
+    }
+
+    /**
+     * Blocks of a user overlapping [from, to], ordered by time. A null bound is open.
+     */
+    public List<GpsPointArchiveBlock> findBlocks(UUID userId, Instant from, Instant to) {
+        var query = entityManager.createNativeQuery(
+                        "SELECT " + BLOCK_COLUMNS +
+                                "FROM gps_point_archive_blocks " +
+                                "WHERE user_id = :userId " +
+                                (from != null ? "AND last_timestamp >= :fromTime " : "") +
+                                (to != null ? "AND first_timestamp <= :toTime " : "") +
+                                "ORDER BY period_start")
+                .setParameter("userId", userId);
+        if (from != null) {
+            query.setParameter("fromTime", from);
+        }
+        if (to != null) {
+            query.setParameter("toTime", to);
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows.stream().map(GpsPointArchiveRepository::toBlock).toList();
+    }
+
+    /**
+     * Whether any block of a user overlaps [from, to]. A null bound is open.
+     */
+    public boolean hasBlocks(UUID userId, Instant from, Instant to) {
+        var query = entityManager.createNativeQuery(
+                        "SELECT EXISTS (SELECT 1 FROM gps_point_archive_blocks " +
+                                "WHERE user_id = :userId " +
+                                (from != null ? "AND last_timestamp >= :fromTime " : "") +
+                                (to != null ? "AND first_timestamp <= :toTime " : "") +
+                                ")")
+                .setParameter("userId", userId);
+        if (from != null) {
+            query.setParameter("fromTime", from);
+        }
+        if (to != null) {
+            query.setParameter("toTime", to);
+        }
+        return Boolean.TRUE.equals(query.getSingleResult());
+    }
+
+    /**
+     * First block of a user after the given period that overlaps [from, to]; lets readers walk a long archive one
+     * block at a time. Null bounds are open.
+     */
+    public Optional<GpsPointArchiveBlock> findNextBlock(UUID userId, Instant from, Instant to, Instant afterPeriodStart) {
+        var query = entityManager.createNativeQuery(
+                        "SELECT " + BLOCK_COLUMNS +
+                                "FROM gps_point_archive_blocks " +
+                                "WHERE user_id = :userId " +
+                                (from != null ? "AND last_timestamp >= :fromTime " : "") +
+                                (to != null ? "AND first_timestamp <= :toTime " : "") +
+                                (afterPeriodStart != null ? "AND period_start > :afterPeriodStart " : "") +
+                                "ORDER BY period_start " +
+                                "LIMIT 1")
+                .setParameter("userId", userId);
+        if (from != null) {
+            query.setParameter("fromTime", from);
+        }
+        if (to != null) {
+            query.setParameter("toTime", to);
+        }
+        if (afterPeriodStart != null) {
+            query.setParameter("afterPeriodStart", afterPeriodStart);
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows.stream().findFirst().map(GpsPointArchiveRepository::toBlock);
+    }
+
+    /**
+     * Block of one user month, locked until the end of the transaction.
+     */
+    public Optional<GpsPointArchiveBlock> findBlockForUpdate(UUID userId, Instant periodStart) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT " + BLOCK_COLUMNS +
+                                "FROM gps_point_archive_blocks " +
+                                "WHERE user_id = :userId AND period_start = :periodStart " +
+                                "FOR UPDATE")
+                .setParameter("userId", userId)
+                .setParameter("periodStart", periodStart)
+                .getResultList();
+        return rows.stream().findFirst().map(GpsPointArchiveRepository::toBlock);
+    }
+
+    public void upsertBlock(UUID userId, Instant periodStart, Instant firstTimestamp, Instant lastTimestamp,
+                            int pointCount, int encodingVersion, byte[] payload) {
+        entityManager.createNativeQuery("""
+                        INSERT INTO gps_point_archive_blocks (user_id, period_start, first_timestamp, last_timestamp,
+                                                              point_count, encoding_version, payload)
+                        VALUES (:userId, :periodStart, :firstTimestamp, :lastTimestamp, :pointCount,
+                                :encodingVersion, :payload)
+                        ON CONFLICT (user_id, period_start) DO UPDATE
+                        SET first_timestamp  = EXCLUDED.first_timestamp,
+                            last_timestamp   = EXCLUDED.last_timestamp,
+                            point_count      = EXCLUDED.point_count,
+                            encoding_version = EXCLUDED.encoding_version,
+                            payload          = EXCLUDED.payload,
+                            updated_at       = NOW()
+                        """)
+                .setParameter("userId", userId)
+                .setParameter("periodStart", periodStart)
+                .setParameter("firstTimestamp", firstTimestamp)
+                .setParameter("lastTimestamp", lastTimestamp)
+                .setParameter("pointCount", pointCount)
+                .setParameter("encodingVersion", encodingVersion)
+                .setParameter("payload", payload)
+                .executeUpdate();
+    }
+
+    public void deleteBlock(long blockId) {
+        entityManager.createNativeQuery("DELETE FROM gps_point_archive_blocks WHERE id = :id")
+                .setParameter("id", blockId)
+                .executeUpdate();
+    }
+
+    public int deleteByUserId(UUID userId) {
+        return entityManager.createNativeQuery("DELETE FROM gps_point_archive_blocks WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+
+    /**
+     * Number of archived points of a user in blocks reaching {@code from} or later. Blocks straddling
+     * {@code from} are counted whole; callers use it as an estimate.
+     */
+    public long countPointsFrom(UUID userId, Instant from) {
+        Number count = (Number) entityManager.createNativeQuery("""
+                        SELECT COALESCE(SUM(point_count), 0)
+                        FROM gps_point_archive_blocks
+                        WHERE user_id = :userId AND last_timestamp >= :fromTime
+                        """)
+                .setParameter("userId", userId)
+                .setParameter("fromTime", from)
+                .getSingleResult();
+        return count == null ? 0 : count.longValue();
+    }
+
+    public GpsPointArchiveStats findStats() {
+        Object[] row = (Object[]) entityManager.createNativeQuery("""
+                        SELECT COUNT(*), COALESCE(SUM(point_count), 0), COALESCE(SUM(octet_length(payload)), 0)
+                        FROM gps_point_archive_blocks
+                        """)
+                .getSingleResult();
+        return new GpsPointArchiveStats(
+                ((Number) row[0]).longValue(), ((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+    }
+
+    private static GpsPointArchiveBlock toBlock(Object[] row) {
+        return new GpsPointArchiveBlock(
+                ((Number) row[0]).longValue(),
+                (UUID) row[1],
+                TimestampUtils.getInstantSafe(row[2]),
+                TimestampUtils.getInstantSafe(row[3]),
+                TimestampUtils.getInstantSafe(row[4]),
+                ((Number) row[5]).intValue(),
+                ((Number) row[6]).intValue(),
+                (byte[]) row[7]);
+    }
+
+    private static Double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+}
@@ -0,0 +1,105 @@
+package org.github.tess1o.geopulse.gps.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.github.tess1o.geopulse.gps.model.GpsPointPartitionStats;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Catalog access for the yearly partitions of {@code gps_points} and {@code gps_point_environment}.
+ * Partitions are created by the {@code ensure_gps_points_year_partition} database function.
+ */
+@ApplicationScoped
+public class GpsPointPartitionRepository {
+
+    private static final String YEAR_PARTITION_PREFIX = "gps_points_y";
+
+    private final EntityManager entityManager;
+
+    @Inject
+    public GpsPointPartitionRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Years that have a {@code gps_points} partition.
+     */
+    public List<Integer> findPartitionYears() {
+        @SuppressWarnings("unchecked")
+        List<String> names = entityManager.createNativeQuery("""
+                        SELECT child.relname
+                        FROM pg_inherits i
+                        JOIN pg_class child ON child.oid = i.inhrelid
+                        WHERE i.inhparent = 'gps_points'::regclass
+                        """)
+                .getResultList();
+        return names.stream()
+                .map(GpsPointPartitionRepository::parseYear)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Create the partitions of one UTC year unless they exist. Must run in its own short transaction: creating a
+     * partition locks {@code gps_points} exclusively until commit.
+     *
+     * @return false when the default partition already holds points of that year and the year was left there
+     */
+    public boolean ensureYearPartition(int year, Duration lockTimeout) {
+        entityManager.createNativeQuery("SELECT set_config('lock_timeout', ?1, true)")
+                .setParameter(1, lockTimeout.toMillis() + "ms")
+                .getSingleResult();
+        Object created = entityManager.createNativeQuery("SELECT ensure_gps_points_year_partition(?1)")
+                .setParameter(1, year)
+                .getSingleResult();
+        return Boolean.TRUE.equals(created);
+    }
+
+    public List<GpsPointPartitionStats> findPartitionStats() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                        SELECT parent.relname,
+                               child.relname,
+                               GREATEST(child.reltuples, 0)::bigint,
+                               pg_total_relation_size(child.oid)
+                        FROM pg_inherits i
+                        JOIN pg_class parent ON parent.oid = i.inhparent
+                        JOIN pg_class child ON child.oid = i.inhrelid
+                        WHERE i.inhparent IN ('gps_points'::regclass, 'gps_point_environment'::regclass)
+                        ORDER BY parent.relname, child.relname
+                        """)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new GpsPointPartitionStats(
+                        row[0].toString(),
+                        row[1].toString(),
+                        ((Number) row[2]).longValue(),
+                        ((Number) row[3]).longValue()))
+                .toList();
+    }
+
+    /**
+     * Exact number of points no year partition covers.
+     */
+    public long countDefaultPartitionPoints() {
+        Number count = (Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM gps_points_default")
+                .getSingleResult();
+        return count == null ? 0 : count.longValue();
+    }
+
+    static Integer parseYear(String partitionName) {
+        if (partitionName == null || !partitionName.startsWith(YEAR_PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(partitionName.substring(YEAR_PARTITION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
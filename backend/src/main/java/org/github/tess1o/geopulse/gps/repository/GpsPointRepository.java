@@ -1,24 +1,53 @@
 package org.github.tess1o.geopulse.gps.repository;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
 import org.github.tess1o.geopulse.gps.model.GpsPointFilterDTO;
+import org.github.tess1o.geopulse.gps.model.GpsPointIngestKey;
+import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
 import org.github.tess1o.geopulse.shared.service.TimestampUtils;
 import org.github.tess1o.geopulse.streaming.model.domain.GPSPoint;
 import org.locationtech.jts.geom.Point;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
 
 @ApplicationScoped
+@Slf4j
 public class GpsPointRepository implements PanacheRepository<GpsPointEntity> {
+
+    private static final ObjectReader TELEMETRY_READER = new ObjectMapper()
+            .readerFor(new TypeReference<LinkedHashMap<String, Object>>() {
+            });
+
+    private final GpsPointArchiveReader archiveReader;
+
+    @Inject
+    public GpsPointRepository(GpsPointArchiveReader archiveReader) {
+        this.archiveReader = archiveReader;
+    }
+
     /**
      * Find GPS points for a specific user within a time period.
      * Results are ordered by timestamp to ensure the path is in chronological order.
@@ -187,6 +216,11 @@ public class GpsPointRepository implements PanacheRepository<GpsPointEntity> {
     /**
      * Stream GPS points for export with keyset pagination.
      * Results are ordered by timestamp and id so duplicate timestamps are handled deterministically.
+     * <p>
+     * Points are read through a column projection and returned as detached, read-only snapshots: they are never
+     * attached to the persistence context and the {@code user} association is not populated. This keeps long
+     * exports memory-bounded and lets batches be serialized on a different thread than the one reading them.
+     * Points of archived months are merged in timestamp order.
      */
     public void streamByUserAndDateRangeForExport(UUID userId, Instant startTime, Instant endTime,
                                                   int batchSize, Consumer<List<GpsPointEntity>> consumer) {
@@ -194,6 +228,12 @@ public class GpsPointRepository implements PanacheRepository<GpsPointEntity> {
         Long cursorId = null;
         int normalizedBatchSize = Math.max(1, batchSize);
 
+        Iterator<GpsPointEntity> archived = archiveReader.iterateExportSnapshots(userId, startTime, endTime);
+        if (archived.hasNext()) {
+            streamMergedForExport(userId, startTime, endTime, normalizedBatchSize, archived, consumer);
+            return;
+        }
+
         while (true) {
             List<GpsPointEntity> batch = findExportDateRangeChunk(
                     userId, startTime, endTime, cursorTimestamp, cursorId, normalizedBatchSize);
@@ -206,27 +246,74 @@ public class GpsPointRepository implements PanacheRepository<GpsPointEntity> {
             GpsPointEntity lastPoint = batch.get(batch.size() - 1);
             cursorTimestamp = lastPoint.getTimestamp();
             cursorId = lastPoint.getId();
+        }
+    }
 
-            // Clear the persistence context to keep long exports memory-bounded.
-            getEntityManager().clear();
+    // Archived months interleaved with live rows; batches are rebuilt from the merged stream
+    private void streamMergedForExport(UUID userId, Instant startTime, Instant endTime, int batchSize,
+                                       Iterator<GpsPointEntity> archived, Consumer<List<GpsPointEntity>> consumer) {
+        Iterator<GpsPointEntity> live = new Iterator<>() {
+            private List<GpsPointEntity> chunk = List.of();
+            private int position;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (position < chunk.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                GpsPointEntity last = chunk.isEmpty() ? null : chunk.get(chunk.size() - 1);
+                chunk = findExportDateRangeChunk(userId, startTime, endTime,
+                        last != null ? last.getTimestamp() : null, last != null ? last.getId() : null, batchSize);
+                position = 0;
+                exhausted = chunk.size() < batchSize;
+                return !chunk.isEmpty();
+            }
+
+            @Override
+            public GpsPointEntity next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.get(position++);
+            }
+        };
+
+        Iterator<GpsPointEntity> merged = SortedMergeIterator.ofExportPoints(live, archived);
+        List<GpsPointEntity> batch = new ArrayList<>(batchSize);
+        while (merged.hasNext()) {
+            batch.add(merged.next());
+            if (batch.size() == batchSize) {
+                consumer.accept(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
         }
     }
 
+    @SuppressWarnings("unchecked")
     private List<GpsPointEntity> findExportDateRangeChunk(UUID userId, Instant startTime, Instant endTime,
                                                           Instant cursorTimestamp, Long cursorId, int batchSize) {
         String cursorPredicate = cursorTimestamp != null && cursorId != null
                 ? " AND (gp.timestamp > :cursorTimestamp OR (gp.timestamp = :cursorTimestamp AND gp.id > :cursorId))"
                 : "";
 
-        Query query = getEntityManager().createQuery(
-                        "SELECT gp FROM GpsPointEntity gp " +
-                                "WHERE gp.user.id = :userId " +
+        Query query = getEntityManager().createNativeQuery(
+                        "SELECT gp.id, gp.device_id, ST_X(gp.coordinates), ST_Y(gp.coordinates), gp.timestamp, " +
+                                "gp.accuracy, gp.battery, gp.velocity, gp.altitude, gp.source_type, gp.created_at, " +
+                                "CAST(gp.telemetry AS text) " +
+                                "FROM gps_points gp " +
+                                "WHERE gp.user_id = :userId " +
                                 "AND gp.timestamp IS NOT NULL " +
                                 "AND gp.timestamp >= :startTime " +
                                 "AND gp.timestamp <= :endTime" +
                                 cursorPredicate +
-                                " ORDER BY gp.timestamp ASC, gp.id ASC",
-                        GpsPointEntity.class)
+                                " ORDER BY gp.timestamp ASC, gp.id ASC")
                 .setParameter("userId", userId)
                 .setParameter("startTime", startTime)
                 .setParameter("endTime", endTime)
@@ -237,7 +324,44 @@ public class GpsPointRepository implements PanacheRepository<GpsPointEntity> {
             query.setParameter("cursorId", cursorId);
         }
 
-        return query.getResultList();
+        List<Object[]> rows = query.getResultList();
+        List<GpsPointEntity> points = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            points.add(toExportSnapshot(row));
+        }
+        return points;
+    }
+
+    private static GpsPointEntity toExportSnapshot(Object[] row) {
+        GpsPointEntity point = new GpsPointEntity();
+        point.setId(((Number) row[0]).longValue());
+        point.setDeviceId((String) row[1]);
+        point.setCoordinates(GeoUtils.createPoint(((Number) row[2]).doubleValue(), ((Number) row[3]).doubleValue()));
+        point.setTimestamp(TimestampUtils.getInstantSafe(row[4]));
+        point.setAccuracy(toDouble(row[5]));
+        point.setBattery(toDouble(row[6]));
+        point.setVelocity(toDouble(row[7]));
+        point.setAltitude(toDouble(row[8]));
+        point.setSourceType(row[9] != null ? GpsSourceType.valueOf(row[9].toString()) : null);
+        point.setCreatedAt(row[10] != null ? TimestampUtils.getInstantSafe(row[10]) : null);
+        point.setTelemetry(parseTelemetry((String) row[11]));
+        return point;
+    }
+
+    private static Double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+
+    private static LinkedHashMap<String, Object> parseTelemetry(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return TELEMETRY_READER.readValue(json);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable telemetry in GPS export: {}", e.getOriginalMessage());
+            return null;
+        }
     }
 
     /**
@@ -277,6 +401,10 @@ public class GpsPointRepository implements PanacheRepository<GpsPointEntity> {
                 .getSingleResult();
     }
 
+    /**
+     * Deletes the user's live points only; archived months are removed with
+     * {@code GpsPointArchiveService.deleteAll}.
+     */
     public void deleteByUserId(UUID userId) {
         delete("user.id = ?1", userId);
     }
@@ -290,6 +418,34 @@ public class GpsPointRepository implements PanacheRepository<GpsPointEntity> {
                 .firstResultOptional();
     }
 
+    /**
+     * Load the duplicate-detection keys of all points in a time window with a single query.
+     * Used by batch ingest to deduplicate a whole payload in memory instead of querying per point.
+     *
+     * @param userId    The user ID
+     * @param startTime Window start (inclusive)
+     * @param endTime   Window end (inclusive)
+     * @return timestamp, coordinates and source type of every point in the window
+     */
+    public List<GpsPointIngestKey> findIngestKeysInWindow(UUID userId, Instant startTime, Instant endTime) {
+        List<Object[]> rows = getEntityManager().createNativeQuery(
+                        "SELECT gp.timestamp, ST_Y(gp.coordinates), ST_X(gp.coordinates), gp.source_type " +
+                                "FROM gps_points gp " +
+                                "WHERE gp.user_id = :userId AND gp.timestamp >= :startTime AND gp.timestamp <= :endTime")
+                .setParameter("userId", userId)
+                .setParameter("startTime", startTime)
+                .setParameter("endTime", endTime)
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> new GpsPointIngestKey(
+                        TimestampUtils.getInstantSafe(row[0]),
+                        ((Number) row[1]).doubleValue(),
+                        ((Number) row[2]).doubleValue(),
+                        row[3] != null ? GpsSourceType.valueOf(row[3].toString()) : null))
+                .toList();
+    }
+
     /**
      * Load essential GPS data in chunks for large datasets.
      * Prevents query timeouts and provides better resource management.
@@ -314,7 +470,8 @@ public class GpsPointRepository implements PanacheRepository<GpsPointEntity> {
                 : "env.on_water as on_water ";
         String environmentJoin = environmentDatasetVersion == null
                 ? ""
-                : "LEFT JOIN gps_point_environment env ON env.gps_point_id = gp.id AND env.environment_dataset_version = :environmentDatasetVersion ";
+                : "LEFT JOIN gps_point_environment env ON env.gps_point_id = gp.id AND env.gps_point_timestamp = gp.timestamp " +
+                "AND env.environment_dataset_version = :environmentDatasetVersion ";
         String cursorPredicate = cursorTimestamp != null && cursorId != null
                 ? "AND (gp.timestamp > :cursorTimestamp OR (gp.timestamp = :cursorTimestamp AND gp.id > :cursorId)) "
                 : "";
@@ -361,7 +518,8 @@ public class GpsPointRepository implements PanacheRepository<GpsPointEntity> {
                 : "env.on_water as on_water ";
         String environmentJoin = environmentDatasetVersion == null
                 ? ""
-                : "LEFT JOIN gps_point_environment env ON env.gps_point_id = gp.id AND env.environment_dataset_version = :environmentDatasetVersion ";
+                : "LEFT JOIN gps_point_environment env ON env.gps_point_id = gp.id AND env.gps_point_timestamp = gp.timestamp " +
+                "AND env.environment_dataset_version = :environmentDatasetVersion ";
 
         Query query = getEntityManager().createNativeQuery(
                         "SELECT gp.timestamp as timestamp_utc, ST_Y(gp.coordinates) as latitude, ST_X(gp.coordinates) as longitude, " +
@@ -381,9 +539,40 @@ public class GpsPointRepository implements PanacheRepository<GpsPointEntity> {
 
         List<Object[]> results = query.getResultList();
 
-        return results.stream()
+        List<GPSPoint> livePoints = results.stream()
                 .map(this::mapToGPSPoint)
                 .toList();
+        List<GPSPoint> archivedPoints = archiveReader.findEssentialPoints(userId, start, end);
+        if (archivedPoints.isEmpty()) {
+            return livePoints;
+        }
+        List<GPSPoint> merged = new ArrayList<>(livePoints.size() + archivedPoints.size());
+        SortedMergeIterator.ofStreamingPoints(livePoints.iterator(), archivedPoints.iterator())
+                .forEachRemaining(merged::add);
+        return merged;
+    }
+
+    /**
+     * Archived points of a user from {@code fromTimestamp} onwards, in the order of
+     * {@link #findEssentialDataChunk}. Archived points carry no environment evidence.
+     */
+    public Iterator<GPSPoint> iterateArchivedEssentialPoints(UUID userId, Instant fromTimestamp) {
+        return archiveReader.iterateEssentialPoints(userId, fromTimestamp);
+    }
+
+    /**
+     * Whether part of [start, end] has been moved to the archive, so queries reading {@code gps_points} directly
+     * would miss points of that window. A null bound is open.
+     */
+    public boolean hasArchivedPoints(UUID userId, Instant start, Instant end) {
+        return archiveReader.hasArchivedPoints(userId, start, end);
+    }
+
+    /**
+     * Dates in {@code zone} on which the user has archived points; live points are not included.
+     */
+    public Set<LocalDate> findArchivedTrackingDates(UUID userId, ZoneId zone) {
+        return archiveReader.findTrackingDates(userId, zone);
     }
 
     /**
@@ -402,7 +591,8 @@ public class GpsPointRepository implements PanacheRepository<GpsPointEntity> {
         query.setParameter("userId", userId);
         query.setParameter("fromTimestamp", fromTimestamp);
 
-        return (Long) query.getSingleResult();
+        Long livePoints = (Long) query.getSingleResult();
+        return livePoints + archiveReader.estimatePointCount(userId, fromTimestamp);
     }
 
     /**
@@ -0,0 +1,94 @@
+package org.github.tess1o.geopulse.gps.repository;
+
+import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.streaming.model.domain.GPSPoint;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+
+/**
+ * Merges live and archived points, both already sorted by the same order, into one sorted stream.
+ * <p>
+ * A point can briefly exist in both tiers when it was imported again after its month had been archived; the next
+ * archive run folds it into the block. Until then the archived copy is skipped when it sits next to the live one.
+ */
+public class SortedMergeIterator<T> implements Iterator<T> {
+
+    private final Iterator<T> live;
+    private final Iterator<T> archived;
+    private final Comparator<? super T> order;
+    private final BiPredicate<? super T, ? super T> samePoint;
+
+    private T nextLive;
+    private T nextArchived;
+
+    public SortedMergeIterator(Iterator<T> live, Iterator<T> archived, Comparator<? super T> order,
+                               BiPredicate<? super T, ? super T> samePoint) {
+        this.live = live;
+        this.archived = archived;
+        this.order = order;
+        this.samePoint = samePoint;
+    }
+
+    /**
+     * Merge for timeline streaming; archived points and live interval reads may carry no id.
+     */
+    public static Iterator<GPSPoint> ofStreamingPoints(Iterator<GPSPoint> live, Iterator<GPSPoint> archived) {
+        return new SortedMergeIterator<>(live, archived,
+                Comparator.comparing(GPSPoint::getTimestamp)
+                        .thenComparing(GPSPoint::getId, Comparator.nullsLast(Comparator.naturalOrder())),
+                (a, b) -> a.getTimestamp().equals(b.getTimestamp())
+                        && a.getLatitude() == b.getLatitude()
+                        && a.getLongitude() == b.getLongitude());
+    }
+
+    public static Iterator<GpsPointEntity> ofExportPoints(Iterator<GpsPointEntity> live,
+                                                          Iterator<GpsPointEntity> archived) {
+        return new SortedMergeIterator<>(live, archived,
+                Comparator.comparing(GpsPointEntity::getTimestamp)
+                        .thenComparing(GpsPointEntity::getId, Comparator.nullsLast(Comparator.naturalOrder())),
+                (a, b) -> a.getTimestamp().equals(b.getTimestamp())
+                        && Objects.equals(a.getCoordinates(), b.getCoordinates()));
+    }
+
+    @Override
+    public boolean hasNext() {
+        return peekLive() != null || peekArchived() != null;
+    }
+
+    @Override
+    public T next() {
+        T livePoint = peekLive();
+        T archivedPoint = peekArchived();
+        if (livePoint == null && archivedPoint == null) {
+            throw new NoSuchElementException("No more GPS points available");
+        }
+        if (livePoint != null && archivedPoint != null && samePoint.test(livePoint, archivedPoint)) {
+            nextArchived = null;
+            archivedPoint = peekArchived();
+        }
+        if (archivedPoint == null || (livePoint != null && order.compare(livePoint, archivedPoint) <= 0)) {
+            nextLive = null;
+            return livePoint;
+        }
+        nextArchived = null;
+        return archivedPoint;
+    }
+
+    private T peekLive() {
+        if (nextLive == null && live.hasNext()) {
+            nextLive = live.next();
+        }
+        return nextLive;
+    }
+
+    private T peekArchived() {
+        if (nextArchived == null && archived.hasNext()) {
+            nextArchived = archived.next();
+        }
+        return nextArchived;
+    }
+}
@@ -0,0 +1,312 @@
+package org.github.tess1o.geopulse.gps.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.geofencing.service.GeofenceEvaluationService;
+import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.gps.model.GpsPointIngestKey;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.gps.service.filter.GpsDataFilteringService;
+import org.github.tess1o.geopulse.gpssource.model.GpsSourceConfigEntity;
+import org.github.tess1o.geopulse.prometheus.GeoPulseWorkloadMetrics;
+import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
+import org.github.tess1o.geopulse.shared.service.TimestampUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Set-based ingest path for GPS payloads that carry many points (offline sync from mobile apps, Dawarich, Overland).
+ * <p>
+ * Instead of running duplicate lookups, a persist and geofence evaluation per point, the whole batch is:
+ * <ol>
+ *     <li>sorted by timestamp,</li>
+ *     <li>deduplicated in memory against one range query of existing points covering the batch's time window
+ *     (plus the duplicate-detection threshold) and against earlier points of the same batch,</li>
+ *     <li>filtered with the source's accuracy/speed filters,</li>
+ *     <li>inserted with multi-row {@code INSERT ... ON CONFLICT DO NOTHING} statements,</li>
+ *     <li>handed to geofence evaluation once.</li>
+ * </ol>
+ * Duplicate semantics match the per-point path in {@link GpsPointService}.
+ */
+@ApplicationScoped
+@Slf4j
+public class GpsPointBatchIngestService {
+
+    // Same ~11 meters tolerance as GpsPointDuplicateDetectionService
+    private static final double LOCATION_TOLERANCE = 0.0001;
+
+    private static final String INSERT_PREFIX = """
+            INSERT INTO gps_points
+            (user_id, device_id, coordinates, timestamp, accuracy, battery, velocity, altitude, source_type, created_at, telemetry)
+            VALUES\s""";
+    private static final String INSERT_ROW = "(?::uuid, ?, ST_SetSRID(ST_MakePoint(?, ?), 4326), ?, ?, ?, ?, ?, ?, ?, ?::jsonb)";
+    private static final String INSERT_SUFFIX = """
+             ON CONFLICT (user_id, timestamp, coordinates) DO NOTHING
+            RETURNING id, timestamp, ST_Y(coordinates), ST_X(coordinates)
+            """;
+
+    private final GpsPointRepository gpsPointRepository;
+    private final GpsDataFilteringService filteringService;
+    private final GeofenceEvaluationService geofenceEvaluationService;
+    private final EntityManager em;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    GeoPulseWorkloadMetrics workloadMetrics;
+
+    @ConfigProperty(name = "geopulse.gps.batch-ingest.insert-chunk-size", defaultValue = "500")
+    int insertChunkSize;
+
+    @Inject
+    public GpsPointBatchIngestService(GpsPointRepository gpsPointRepository,
+                                      GpsDataFilteringService filteringService,
+                                      GeofenceEvaluationService geofenceEvaluationService,
+                                      EntityManager em,
+                                      ObjectMapper objectMapper) {
+        this.gpsPointRepository = gpsPointRepository;
+        this.filteringService = filteringService;
+        this.geofenceEvaluationService = geofenceEvaluationService;
+        this.em = em;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Deduplicate, filter and insert a batch of mapped GPS points for one user.
+     *
+     * @param userId                    owner of the points
+     * @param candidates                mapped entities (not persisted yet); entries without timestamp or coordinates are ignored
+     * @param config                    source configuration (filters and duplicate detection)
+     * @param duplicateThresholdMinutes effective location duplicate threshold, used when duplicate detection is enabled
+     * @return saved points in timestamp order, with generated ids assigned
+     */
+    @Transactional
+    public List<GpsPointEntity> ingest(UUID userId, List<GpsPointEntity> candidates, GpsSourceConfigEntity config,
+                                       int duplicateThresholdMinutes) {
+        List<GpsPointEntity> sorted = new ArrayList<>(candidates.size());
+        for (GpsPointEntity point : candidates) {
+            if (point.getTimestamp() == null || point.getCoordinates() == null) {
+                continue;
+            }
+            // gps_points stores microseconds; align so RETURNING rows map back to their entities exactly
+            point.setTimestamp(point.getTimestamp().truncatedTo(ChronoUnit.MICROS));
+            sorted.add(point);
+        }
+        sorted.sort(Comparator.comparing(GpsPointEntity::getTimestamp));
+        if (sorted.isEmpty()) {
+            return List.of();
+        }
+
+        GpsSourceType sourceType = sorted.get(0).getSourceType();
+        boolean locationDuplicateCheck = config.isEnableDuplicateDetection();
+        int thresholdMinutes = locationDuplicateCheck ? Math.max(0, duplicateThresholdMinutes) : 0;
+
+        long stageStart = metricsStart();
+        Instant windowStart = sorted.get(0).getTimestamp().minus(thresholdMinutes, ChronoUnit.MINUTES);
+        Instant windowEnd = sorted.get(sorted.size() - 1).getTimestamp().plus(thresholdMinutes, ChronoUnit.MINUTES);
+        NavigableMap<Instant, List<GpsPointIngestKey>> known = new TreeMap<>();
+        for (GpsPointIngestKey key : gpsPointRepository.findIngestKeysInWindow(userId, windowStart, windowEnd)) {
+            remember(known, key);
+        }
+        recordStage(stageStart, sourceType, "batch_duplicate_lookup", "success");
+
+        List<GpsPointEntity> accepted = new ArrayList<>(sorted.size());
+        int duplicates = 0;
+        int filtered = 0;
+        for (GpsPointEntity point : sorted) {
+            GpsPointIngestKey key = new GpsPointIngestKey(point.getTimestamp(), point.getLatitude(), point.getLongitude(), point.getSourceType());
+
+            if (locationDuplicateCheck
+                    ? isLocationDuplicate(known, key, thresholdMinutes)
+                    : isSameTimestampDuplicate(known, key)) {
+                duplicates++;
+                continue;
+            }
+            if (filteringService.filter(point, config).isRejected()) {
+                filtered++;
+                continue;
+            }
+            if (isExactDuplicate(known, key)) {
+                duplicates++;
+                continue;
+            }
+
+            remember(known, key);
+            accepted.add(point);
+        }
+
+        stageStart = metricsStart();
+        List<GpsPointEntity> saved = insert(userId, accepted);
+        recordStage(stageStart, sourceType, "batch_persist", "success");
+        duplicates += accepted.size() - saved.size();
+
+        if (!saved.isEmpty()) {
+            stageStart = metricsStart();
+            geofenceEvaluationService.handlePersistedPoints(userId, saved.stream().map(GpsPointEntity::getId).toList());
+            recordStage(stageStart, sourceType, "geofence", "success");
+        }
+
+        countPoints(sourceType, "saved", saved.size());
+        countPoints(sourceType, "duplicate", duplicates);
+        countPoints(sourceType, "filtered", filtered);
+        log.info("Batch-ingested {} GPS points for user {}: saved={}, duplicates={}, filtered={}",
+                sourceType, userId, saved.size(), duplicates, filtered);
+        return saved;
+    }
+
+    private List<GpsPointEntity> insert(UUID userId, List<GpsPointEntity> points) {
+        if (points.isEmpty()) {
+            return List.of();
+        }
+
+        Map<GpsPointIngestKey, GpsPointEntity> byKey = new HashMap<>(points.size() * 2);
+        for (GpsPointEntity point : points) {
+            byKey.put(new GpsPointIngestKey(point.getTimestamp(), point.getLatitude(), point.getLongitude(), null), point);
+        }
+
+        List<GpsPointEntity> saved = new ArrayList<>(points.size());
+        int chunkSize = Math.max(1, insertChunkSize);
+        for (int start = 0; start < points.size(); start += chunkSize) {
+            List<GpsPointEntity> chunk = points.subList(start, Math.min(start + chunkSize, points.size()));
+            for (Object[] row : insertChunk(userId, chunk)) {
+                GpsPointEntity point = byKey.get(new GpsPointIngestKey(
+                        TimestampUtils.getInstantSafe(row[1]),
+                        ((Number) row[2]).doubleValue(),
+                        ((Number) row[3]).doubleValue(),
+                        null));
+                if (point != null) {
+                    point.setId(((Number) row[0]).longValue());
+                    saved.add(point);
+                }
+            }
+        }
+
+        saved.sort(Comparator.comparing(GpsPointEntity::getTimestamp).thenComparing(GpsPointEntity::getId));
+        return saved;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> insertChunk(UUID userId, List<GpsPointEntity> chunk) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * (INSERT_ROW.length() + 2) + INSERT_SUFFIX.length());
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_ROW);
+        }
+        sql.append(INSERT_SUFFIX);
+
+        var query = em.createNativeQuery(sql.toString());
+        int paramIndex = 1;
+        for (GpsPointEntity point : chunk) {
+            query.setParameter(paramIndex++, userId.toString());
+            query.setParameter(paramIndex++, point.getDeviceId());
+            query.setParameter(paramIndex++, point.getLongitude());
+            query.setParameter(paramIndex++, point.getLatitude());
+            query.setParameter(paramIndex++, point.getTimestamp());
+            query.setParameter(paramIndex++, point.getAccuracy());
+            query.setParameter(paramIndex++, point.getBattery());
+            query.setParameter(paramIndex++, point.getVelocity());
+            query.setParameter(paramIndex++, point.getAltitude());
+            query.setParameter(paramIndex++, point.getSourceType() != null ? point.getSourceType().name() : null);
+            query.setParameter(paramIndex++, point.getCreatedAt() != null ? point.getCreatedAt() : Instant.now());
+            query.setParameter(paramIndex++, toJson(point.getTelemetry()));
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Same rule as {@link GpsPointDuplicateDetectionService#isLocationDuplicate}: same source, ~11 m, within ± threshold.
+     */
+    static boolean isLocationDuplicate(NavigableMap<Instant, List<GpsPointIngestKey>> known, GpsPointIngestKey point,
+                                       int thresholdMinutes) {
+        if (thresholdMinutes <= 0) {
+            return false;
+        }
+        Instant from = point.timestamp().minus(thresholdMinutes, ChronoUnit.MINUTES);
+        Instant to = point.timestamp().plus(thresholdMinutes, ChronoUnit.MINUTES);
+        for (List<GpsPointIngestKey> keys : known.subMap(from, true, to, true).values()) {
+            for (GpsPointIngestKey existing : keys) {
+                if (existing.sourceType() == point.sourceType()
+                        && Math.abs(existing.latitude() - point.latitude()) < LOCATION_TOLERANCE
+                        && Math.abs(existing.longitude() - point.longitude()) < LOCATION_TOLERANCE) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same rule as {@link GpsPointDuplicateDetectionService#isDuplicatePoint}: same source at the same timestamp.
+     */
+    static boolean isSameTimestampDuplicate(NavigableMap<Instant, List<GpsPointIngestKey>> known, GpsPointIngestKey point) {
+        return known.getOrDefault(point.timestamp(), List.of()).stream()
+                .anyMatch(existing -> existing.sourceType() == point.sourceType());
+    }
+
+    /**
+     * Unique key of {@code gps_points}: same timestamp and coordinates, regardless of source.
+     */
+    static boolean isExactDuplicate(NavigableMap<Instant, List<GpsPointIngestKey>> known, GpsPointIngestKey point) {
+        return known.getOrDefault(point.timestamp(), List.of()).stream()
+                .anyMatch(existing -> existing.latitude() == point.latitude() && existing.longitude() == point.longitude());
+    }
+
+    static void remember(NavigableMap<Instant, List<GpsPointIngestKey>> known, GpsPointIngestKey key) {
+        known.computeIfAbsent(key.timestamp(), ignored -> new ArrayList<>(1)).add(key);
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.warn("Unable to serialize GPS telemetry payload. Skipping telemetry field.", e);
+            return null;
+        }
+    }
+
+    private long metricsStart() {
+        return workloadMetrics == null ? System.nanoTime() : workloadMetrics.start();
+    }
+
+    private void recordStage(long startedAtNanos, GpsSourceType sourceType, String stage, String result) {
+        if (workloadMetrics == null) {
+            return;
+        }
+        workloadMetrics.recordTimer("geopulse.gps.ingest.stage.duration", startedAtNanos,
+                "component", "gps",
+                "source", sourceType == null ? "UNKNOWN" : sourceType.name(),
+                "stage", stage,
+                "result", result);
+    }
+
+    private void countPoints(GpsSourceType sourceType, String result, int count) {
+        if (workloadMetrics == null || count <= 0) {
+            return;
+        }
+        workloadMetrics.increment("geopulse.gps.ingest.points", count,
+                "component", "gps",
+                "source", sourceType == null ? "UNKNOWN" : sourceType.name(),
+                "transport", "service",
+                "result", result);
+    }
+}
@@ -12,6 +12,7 @@ import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -25,14 +26,17 @@ public class GpsPointDuplicateDetectionService {
     private static final double LOCATION_TOLERANCE = 0.0001;
 
     private final GpsPointRepository gpsPointRepository;
+    private final RecentGpsPointWindow recentPointWindow;
 
     @ConfigProperty(name = "geopulse.gps.duplicate-detection.location-time-threshold-minutes", defaultValue = "2")
     @StaticInitSafe
     int locationTimeThresholdMinutes;
 
     @Inject
-    public GpsPointDuplicateDetectionService(GpsPointRepository gpsPointRepository) {
+    public GpsPointDuplicateDetectionService(GpsPointRepository gpsPointRepository,
+                                             RecentGpsPointWindow recentPointWindow) {
         this.gpsPointRepository = gpsPointRepository;
+        this.recentPointWindow = recentPointWindow;
     }
 
     /**
@@ -45,12 +49,10 @@ public class GpsPointDuplicateDetectionService {
      * @return true if a duplicate exists, false otherwise
      */
     public boolean isDuplicatePoint(UUID userId, Instant timestamp, GpsSourceType sourceType) {
-        long existingCount = gpsPointRepository.findByUserIdAndTimePeriod(userId, timestamp, timestamp)
-                .stream()
-                .filter(point -> point.getSourceType() == sourceType)
-                .count();
-
-        boolean isDuplicate = existingCount > 0;
+        boolean isDuplicate = recentPointWindow.findSameTimestampDuplicate(userId, timestamp, sourceType)
+                .orElseGet(() -> gpsPointRepository.findByUserIdAndTimePeriod(userId, timestamp, timestamp)
+                        .stream()
+                        .anyMatch(point -> point.getSourceType() == sourceType));
         if (isDuplicate) {
             log.warn("Duplicate GPS point detected for user {} at timestamp {} from source {}", 
                     userId, timestamp, sourceType);
@@ -102,6 +104,17 @@ public class GpsPointDuplicateDetectionService {
             return false;
         }
 
+        // Retransmissions of recent points are answered from the in-memory window
+        Optional<Boolean> recentDuplicate =
+                recentPointWindow.findLocationDuplicate(userId, latitude, longitude, timestamp, sourceType, thresholdMinutes);
+        if (recentDuplicate.isPresent()) {
+            if (recentDuplicate.get()) {
+                log.debug("Location duplicate detected for user {}: same coordinates within {} minutes window, skipping",
+                        userId, thresholdMinutes);
+            }
+            return recentDuplicate.get();
+        }
+
         // Calculate time window: timestamp ± threshold
         Instant startTime = timestamp.minus(thresholdMinutes, ChronoUnit.MINUTES);
         Instant endTime = timestamp.plus(thresholdMinutes, ChronoUnit.MINUTES);
@@ -125,4 +138,4 @@ public class GpsPointDuplicateDetectionService {
 
         return hasDuplicate;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package org.github.tess1o.geopulse.gps.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.gps.model.GpsPointPartitionStats;
+import org.github.tess1o.geopulse.gps.repository.GpsPointPartitionRepository;
+import org.github.tess1o.geopulse.prometheus.GeoPulseWorkloadMetrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the yearly partitions of {@code gps_points} and {@code gps_point_environment} in place.
+ * <p>
+ * The scheduled run creates the current year and the configured years ahead, so live ingest never lands in the
+ * default partition, and publishes partition sizes. Imports call {@link #ensurePartitionsFor} before inserting
+ * history. A year whose points already sit in the default partition is left there; those points stay readable,
+ * only without partition pruning, and are reported by the scheduled run.
+ */
+@ApplicationScoped
+@Slf4j
+public class GpsPointPartitionManager {
+
+    @ConfigProperty(name = "geopulse.gps.partitions.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "geopulse.gps.partitions.years-ahead", defaultValue = "1")
+    int yearsAhead;
+
+    @ConfigProperty(name = "geopulse.gps.partitions.lock-timeout", defaultValue = "5s")
+    Duration lockTimeout;
+
+    @Inject
+    GeoPulseWorkloadMetrics workloadMetrics;
+
+    private final GpsPointPartitionRepository partitionRepository;
+    private final Set<Integer> knownYears = ConcurrentHashMap.newKeySet();
+    // Years held by the default partition; not retried until the next scheduled run
+    private final Set<Integer> yearsInDefault = ConcurrentHashMap.newKeySet();
+    private volatile boolean knownYearsLoaded;
+
+    @Inject
+    public GpsPointPartitionManager(GpsPointPartitionRepository partitionRepository) {
+        this.partitionRepository = partitionRepository;
+    }
+
+    @Scheduled(every = "${geopulse.gps.partitions.maintenance-interval:6h}",
+            delayed = "${geopulse.gps.partitions.maintenance-delay:1m}",
+            identity = "gps-point-partition-maintenance",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        knownYearsLoaded = false;
+        yearsInDefault.clear();
+
+        int currentYear = Year.now(ZoneOffset.UTC).getValue();
+        Set<Integer> years = new TreeSet<>();
+        for (int year = currentYear; year <= currentYear + Math.max(0, yearsAhead); year++) {
+            years.add(year);
+        }
+        ensureYears(years);
+
+        try {
+            reportPartitions();
+        } catch (RuntimeException e) {
+            log.warn("Failed to collect GPS point partition sizes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Create the yearly partitions the given timestamps fall into. Call before the inserting transaction touches
+     * {@code gps_points}; partitions are created in their own transactions.
+     */
+    public void ensurePartitionsFor(Collection<Instant> timestamps) {
+        if (!enabled || timestamps == null || timestamps.isEmpty()) {
+            return;
+        }
+        Set<Integer> years = new TreeSet<>();
+        timestamps.stream()
+                .filter(Objects::nonNull)
+                .forEach(timestamp -> years.add(yearOf(timestamp)));
+        ensureYears(years);
+    }
+
+    public List<GpsPointPartitionStats> getPartitionStats() {
+        return QuarkusTransaction.requiringNew().call(partitionRepository::findPartitionStats);
+    }
+
+    static int yearOf(Instant timestamp) {
+        return timestamp.atOffset(ZoneOffset.UTC).getYear();
+    }
+
+    private void ensureYears(Set<Integer> years) {
+        loadKnownYears();
+        for (int year : years) {
+            if (knownYears.contains(year) || yearsInDefault.contains(year)) {
+                continue;
+            }
+            try {
+                boolean created = QuarkusTransaction.requiringNew()
+                        .call(() -> partitionRepository.ensureYearPartition(year, lockTimeout));
+                if (created) {
+                    knownYears.add(year);
+                    log.info("GPS point partitions for {} are in place", year);
+                } else {
+                    yearsInDefault.add(year);
+                    log.warn("GPS points of {} are already stored in the default partition; no partition created for that year",
+                            year);
+                }
+            } catch (RuntimeException e) {
+                // Points of this year go to the default partition; the next run tries again
+                log.warn("Failed to create GPS point partitions for {}: {}", year, e.getMessage());
+            }
+        }
+    }
+
+    private void loadKnownYears() {
+        if (knownYearsLoaded) {
+            return;
+        }
+        try {
+            List<Integer> years = QuarkusTransaction.requiringNew().call(partitionRepository::findPartitionYears);
+            knownYears.clear();
+            knownYears.addAll(years);
+            knownYearsLoaded = true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to read GPS point partitions: {}", e.getMessage());
+        }
+    }
+
+    private void reportPartitions() {
+        List<GpsPointPartitionStats> stats = getPartitionStats();
+        long totalBytes = 0;
+        for (GpsPointPartitionStats partition : stats) {
+            totalBytes += partition.totalBytes();
+            if (workloadMetrics != null) {
+                workloadMetrics.setGauge("geopulse.gps.partition.rows", partition.estimatedRows(),
+                        "table", partition.tableName(), "partition", partition.partitionName());
+                workloadMetrics.setGauge("geopulse.gps.partition.bytes", partition.totalBytes(),
+                        "table", partition.tableName(), "partition", partition.partitionName());
+            }
+        }
+
+        long defaultPoints = QuarkusTransaction.requiringNew().call(partitionRepository::countDefaultPartitionPoints);
+        if (defaultPoints > 0) {
+            log.warn("{} GPS points are stored in the default partition outside the yearly partitions", defaultPoints);
+        }
+        log.info("GPS point partitions: {} partitions, {} MB in total, {} points in the default partition",
+                stats.size(), totalBytes / (1024 * 1024), defaultPoints);
+    }
+}
@@ -1,6 +1,7 @@
 package org.github.tess1o.geopulse.gps.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
@@ -10,11 +11,15 @@ import org.github.tess1o.geopulse.gps.integrations.dawarich.model.point.Dawarich
 import org.github.tess1o.geopulse.gps.integrations.homeassistant.model.HomeAssistantGpsData;
 import org.github.tess1o.geopulse.gps.integrations.traccar.model.TraccarPositionData;
 import org.github.tess1o.geopulse.geofencing.service.GeofenceEvaluationService;
+import org.github.tess1o.geopulse.coverage.repository.CoverageRepository;
+import org.github.tess1o.geopulse.gps.events.GpsPointPersistedEvent;
 import org.github.tess1o.geopulse.gps.mapper.GpsPointMapper;
 import org.github.tess1o.geopulse.gps.model.*;
 import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
 import org.github.tess1o.geopulse.gps.service.filter.GpsDataFilteringService;
+import org.github.tess1o.geopulse.gps.service.archive.GpsPointArchiveService;
 import org.github.tess1o.geopulse.gpssource.model.GpsSourceConfigEntity;
+import org.github.tess1o.geopulse.livelocation.service.LiveLocationHub;
 import org.github.tess1o.geopulse.prometheus.GeoPulseWorkloadMetrics;
 import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
 import org.github.tess1o.geopulse.gps.integrations.overland.model.OverlandLocationMessage;
@@ -57,6 +62,12 @@ public class GpsPointService {
     private final GeofenceEvaluationService geofenceEvaluationService;
     private final TimelineConfigurationProvider timelineConfigurationProvider;
     private final GpsPointEnvironmentService gpsPointEnvironmentService;
+    private final GpsPointArchiveService archiveService;
+    private final GpsPointBatchIngestService batchIngestService;
+    private final LiveLocationHub liveLocationHub;
+    private final Event<GpsPointPersistedEvent> gpsPointPersistedEvent;
+    private final CoverageRepository coverageRepository;
+    private final RecentGpsPointWindow recentPointWindow;
 
     @Inject
     LocationPointResolver locationPointResolver;
@@ -67,6 +78,13 @@ public class GpsPointService {
     @ConfigProperty(name = "geopulse.gps.duplicate-detection.location-time-threshold-minutes", defaultValue = "2")
     int globalDuplicateDetectionThresholdMinutes;
 
+    /**
+     * Payloads with at least this many points go through the set-based batch ingest path.
+     * Smaller payloads (regular real-time updates) keep the per-point path.
+     */
+    @ConfigProperty(name = "geopulse.gps.batch-ingest.min-points", defaultValue = "20")
+    int batchIngestMinPoints;
+
     @Inject
     public GpsPointService(GpsPointMapper gpsPointMapper, GpsPointRepository gpsPointRepository,
                            GpsPointDuplicateDetectionService duplicateDetectionService, EntityManager em,
@@ -75,7 +93,13 @@ public class GpsPointService {
                            GpsTelemetryRenderingService telemetryRenderingService,
                            GeofenceEvaluationService geofenceEvaluationService,
                            TimelineConfigurationProvider timelineConfigurationProvider,
-                           GpsPointEnvironmentService gpsPointEnvironmentService) {
+                           GpsPointEnvironmentService gpsPointEnvironmentService,
+                           GpsPointArchiveService archiveService,
+                           GpsPointBatchIngestService batchIngestService,
+                           LiveLocationHub liveLocationHub,
+                           Event<GpsPointPersistedEvent> gpsPointPersistedEvent,
+                           CoverageRepository coverageRepository,
+                           RecentGpsPointWindow recentPointWindow) {
         this.gpsPointMapper = gpsPointMapper;
         this.gpsPointRepository = gpsPointRepository;
         this.duplicateDetectionService = duplicateDetectionService;
@@ -86,6 +110,12 @@ public class GpsPointService {
         this.geofenceEvaluationService = geofenceEvaluationService;
         this.timelineConfigurationProvider = timelineConfigurationProvider;
         this.gpsPointEnvironmentService = gpsPointEnvironmentService;
+        this.archiveService = archiveService;
+        this.batchIngestService = batchIngestService;
+        this.liveLocationHub = liveLocationHub;
+        this.gpsPointPersistedEvent = gpsPointPersistedEvent;
+        this.coverageRepository = coverageRepository;
+        this.recentPointWindow = recentPointWindow;
     }
 
     /**
@@ -107,16 +137,14 @@ public class GpsPointService {
             return Optional.empty();
         }
 
-        // Check for existing point with the same unique key
+        // Check for existing point with the same unique key, from the recent-point window when it covers the timestamp
         stageStart = metricsStart();
-        Optional<GpsPointEntity> existingPoint = gpsPointRepository.findByUniqueKey(
-                entity.getUser().getId(),
-                entity.getTimestamp(),
-                entity.getCoordinates()
-        );
-        recordGpsStage(stageStart, sourceType, "exact_duplicate_lookup", existingPoint.isPresent() ? "duplicate" : "success");
-
-        if (existingPoint.isPresent()) {
+        UUID userId = entity.getUser().getId();
+        boolean duplicate = recentPointWindow.findExactDuplicate(userId, entity.getTimestamp(), entity.getLatitude(), entity.getLongitude())
+                .orElseGet(() -> gpsPointRepository.findByUniqueKey(userId, entity.getTimestamp(), entity.getCoordinates()).isPresent());
+        recordGpsStage(stageStart, sourceType, "exact_duplicate_lookup", duplicate ? "duplicate" : "success");
+
+        if (duplicate) {
             // It's a duplicate, reject it
             log.info("Skipping duplicate GPS point for user {} at timestamp {} with same coordinates", entity.getUser().getId(), entity.getTimestamp());
             countGpsPoint(sourceType, "duplicate");
@@ -125,12 +153,15 @@ public class GpsPointService {
             // Persist the new entity
             stageStart = metricsStart();
             gpsPointRepository.persist(entity);
+            recordRecentPoints(userId, List.of(entity));
             recordGpsStage(stageStart, sourceType, "persist", "success");
             stageStart = metricsStart();
             geofenceEvaluationService.handlePersistedPoint(entity);
             recordGpsStage(stageStart, sourceType, "geofence", "success");
             log.info("Saved {} GPS point for user {} at timestamp {}", entity.getSourceType(), entity.getUser().getId(), entity.getTimestamp());
             countGpsPoint(sourceType, "saved");
+            markCoverageData(entity.getUser().getId(), List.of(entity));
+            publishLiveLocation(entity.getUser().getId(), List.of(entity));
             return Optional.of(entity);
         }
     }
@@ -239,6 +270,27 @@ public class GpsPointService {
                 .ifPresent(savedPoint -> enrichSavedGpsPointsIfBoatReady(userId, List.of(savedPoint)));
     }
 
+    @Transactional
+    public void saveOverlandGpsPoints(List<OverlandLocationMessage> messages, UUID userId, GpsSourceType sourceType, GpsSourceConfigEntity config) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+
+        if (!useBatchIngest(messages.size())) {
+            for (OverlandLocationMessage message : messages) {
+                saveOverlandGpsPoint(message, userId, sourceType, config);
+            }
+            return;
+        }
+
+        UserEntity user = em.getReference(UserEntity.class, userId);
+        List<GpsPointEntity> candidates = messages.stream()
+                .filter(message -> message.getProperties() != null && message.getProperties().getTimestamp() != null)
+                .map(message -> gpsPointMapper.toEntity(message, user, sourceType))
+                .toList();
+        ingestBatch(userId, candidates, config);
+    }
+
     @Transactional
     public void saveDarawichGpsPoints(DawarichPayload payload, UUID userId, GpsSourceType sourceType, GpsSourceConfigEntity config) {
         UserEntity user = em.getReference(UserEntity.class, userId);
@@ -251,6 +303,18 @@ public class GpsPointService {
                 : globalDuplicateDetectionThresholdMinutes;
         }
 
+        if (useBatchIngest(payload.getLocations().size())) {
+            List<GpsPointEntity> candidates = new ArrayList<>(payload.getLocations().size());
+            for (DawarichLocation location : payload.getLocations()) {
+                if (location.getProperties().getSpeed() != null && location.getProperties().getSpeed() < 0) {
+                    location.getProperties().setSpeed(0.0);
+                }
+                candidates.add(gpsPointMapper.toEntity(location, user, sourceType));
+            }
+            ingestBatch(userId, candidates, config);
+            return;
+        }
+
         List<GpsPointEntity> savedPoints = new ArrayList<>();
         for (DawarichLocation location : payload.getLocations()) {
             Instant timestamp = location.getProperties().getTimestamp();
@@ -402,12 +466,23 @@ public class GpsPointService {
             return;
         }
 
-        List<GpsPointEntity> savedPoints = new ArrayList<>();
-        data.stream()
+        List<GpsPointDTO> timestampedPoints = data.stream()
                 .filter(point -> point.getTimestamp() != null)
                 .sorted(Comparator.comparing(GpsPointDTO::getTimestamp))
-                .forEach(point -> saveMobileAppGpsPointInternal(point, deviceId, userId, sourceType, config)
-                        .ifPresent(savedPoints::add));
+                .toList();
+
+        if (useBatchIngest(timestampedPoints.size())) {
+            UserEntity user = em.getReference(UserEntity.class, userId);
+            List<GpsPointEntity> candidates = timestampedPoints.stream()
+                    .map(point -> gpsPointMapper.toEntity(point, deviceId, user, sourceType))
+                    .toList();
+            ingestBatch(userId, candidates, config);
+            return;
+        }
+
+        List<GpsPointEntity> savedPoints = new ArrayList<>();
+        timestampedPoints.forEach(point -> saveMobileAppGpsPointInternal(point, deviceId, userId, sourceType, config)
+                .ifPresent(savedPoints::add));
         enrichSavedGpsPointsIfBoatReady(userId, savedPoints);
     }
 
@@ -417,6 +492,59 @@ public class GpsPointService {
                 .ifPresent(savedPoint -> enrichSavedGpsPointsIfBoatReady(userId, List.of(savedPoint)));
     }
 
+    private void ingestBatch(UUID userId, List<GpsPointEntity> candidates, GpsSourceConfigEntity config) {
+        List<GpsPointEntity> savedPoints = batchIngestService.ingest(userId, candidates, config, resolveDuplicateThresholdMinutes(config));
+        recordRecentPoints(userId, savedPoints);
+        enrichSavedGpsPointsIfBoatReady(userId, savedPoints);
+        markCoverageData(userId, savedPoints);
+        publishLiveLocation(userId, savedPoints);
+    }
+
+    private void recordRecentPoints(UUID userId, List<GpsPointEntity> savedPoints) {
+        recentPointWindow.record(userId, savedPoints);
+    }
+
+    /**
+     * Points changed outside the ingest path; the recent-point window is rebuilt after commit.
+     */
+    private void markRecentPointsChanged(UUID userId) {
+        recentPointWindow.markChanged(userId);
+    }
+
+    /**
+     * Advance the user's coverage watermark so the coverage job picks them up on its next tick.
+     */
+    private void markCoverageData(UUID userId, List<GpsPointEntity> savedPoints) {
+        if (savedPoints.isEmpty()) {
+            return;
+        }
+        coverageRepository.markNewData(userId);
+    }
+
+    /**
+     * Hand the newest stored point to open live location streams once the transaction commits.
+     * Skipped entirely when nobody watches this user.
+     */
+    private void publishLiveLocation(UUID userId, List<GpsPointEntity> savedPoints) {
+        if (savedPoints.isEmpty() || !liveLocationHub.hasSubscribers(userId)) {
+            return;
+        }
+        savedPoints.stream()
+                .max(Comparator.comparing(GpsPointEntity::getTimestamp))
+                .map(gpsPointMapper::toPathPoint)
+                .ifPresent(latest -> gpsPointPersistedEvent.fire(new GpsPointPersistedEvent(userId, latest)));
+    }
+
+    private boolean useBatchIngest(int pointCount) {
+        return batchIngestMinPoints > 0 && pointCount >= batchIngestMinPoints;
+    }
+
+    private int resolveDuplicateThresholdMinutes(GpsSourceConfigEntity config) {
+        return config.getDuplicateDetectionThresholdMinutes() != null
+                ? config.getDuplicateDetectionThresholdMinutes()
+                : globalDuplicateDetectionThresholdMinutes;
+    }
+
     private Optional<GpsPointEntity> saveMobileAppGpsPointInternal(GpsPointDTO data, String deviceId, UUID userId, GpsSourceType sourceType, GpsSourceConfigEntity config) {
         Instant timestamp = data.getTimestamp();
 
@@ -581,6 +709,7 @@ public class GpsPointService {
         gpsPoint.setAccuracy(dto.getAccuracy());
 
         gpsPointRepository.persist(gpsPoint);
+        markRecentPointsChanged(userId);
         enrichSavedGpsPointsIfBoatReady(userId, List.of(gpsPoint));
 
         // Trigger synchronous timeline regeneration if needed
@@ -616,6 +745,7 @@ public class GpsPointService {
 
         // Delete the GPS point
         gpsPointRepository.delete(gpsPoint);
+        markRecentPointsChanged(userId);
 
         return new GpsPointDeleteResult(1, pointTimestamp);
     }
@@ -657,6 +787,7 @@ public class GpsPointService {
             gpsPointRepository.delete(point);
             deletedCount++;
         }
+        markRecentPointsChanged(userId);
 
         log.info("Successfully deleted {} GPS points for user {}", deletedCount, userId);
         return new GpsPointDeleteResult(deletedCount, earliestTimestamp);
@@ -832,6 +963,8 @@ public class GpsPointService {
         em.createNativeQuery("DELETE FROM gps_points WHERE user_id = :userId")
                 .setParameter("userId", userId)
                 .executeUpdate();
+        archiveService.deleteAll(userId);
+        markRecentPointsChanged(userId);
 
         log.info("Successfully deleted all GPS and timeline data for user {}", userId);
     }
@@ -0,0 +1,294 @@
+package org.github.tess1o.geopulse.gps.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.gps.events.GpsPointsChangedEvent;
+import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.gps.model.GpsPointIngestKey;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.prometheus.GeoPulseWorkloadMetrics;
+import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
+import org.github.tess1o.geopulse.user.events.UserAccessChangedEvent;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory window of the most recent GPS points of each active user, so the per-point ingest path can answer
+ * duplicate checks for retransmitted points without querying {@code gps_points}.
+ * <p>
+ * A user's window is seeded with one range query on first use and from then on receives every point the ingest
+ * path stores, immediately at persist so later points of the same transaction see it. It is authoritative for
+ * timestamps from its start onwards; older timestamps, users without a window and windows still being seeded
+ * are answered as unknown and the caller queries the database. The window is dropped when an ingest transaction
+ * rolls back, when points are edited, deleted or imported through any other path, and when the user is removed.
+ * Duplicate rules are the ones {@link GpsPointBatchIngestService} applies to a batch.
+ */
+@ApplicationScoped
+@Slf4j
+public class RecentGpsPointWindow {
+
+    // The seed covers everything from the window start, including points with device clocks running ahead
+    private static final Instant SEED_UNTIL = Instant.parse("9999-12-31T00:00:00Z");
+
+    @ConfigProperty(name = "geopulse.gps.recent-window.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "geopulse.gps.recent-window.minutes", defaultValue = "30")
+    int windowMinutes;
+
+    @ConfigProperty(name = "geopulse.gps.recent-window.max-users", defaultValue = "10000")
+    int maxUsers;
+
+    @ConfigProperty(name = "geopulse.gps.recent-window.max-points-per-user", defaultValue = "5000")
+    int maxPointsPerUser;
+
+    @Inject
+    GpsPointRepository gpsPointRepository;
+
+    @Inject
+    GeoPulseWorkloadMetrics workloadMetrics;
+
+    @Inject
+    Event<GpsPointsChangedEvent> gpsPointsChangedEvent;
+
+    private final ConcurrentHashMap<UUID, UserWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Same rule as {@link GpsPointDuplicateDetectionService#isDuplicatePoint}: same source at the same timestamp.
+     *
+     * @return the answer, or empty when the window does not cover the timestamp and the database must be asked
+     */
+    public Optional<Boolean> findSameTimestampDuplicate(UUID userId, Instant timestamp, GpsSourceType sourceType) {
+        GpsPointIngestKey key = key(timestamp, 0, 0, sourceType);
+        return lookup(userId, key.timestamp(), "same_timestamp",
+                known -> GpsPointBatchIngestService.isSameTimestampDuplicate(known, key));
+    }
+
+    /**
+     * Same rule as {@link GpsPointDuplicateDetectionService#isLocationDuplicate}: same source, ~11 m, within ± threshold.
+     *
+     * @return the answer, or empty when the window does not cover the threshold range and the database must be asked
+     */
+    public Optional<Boolean> findLocationDuplicate(UUID userId, double latitude, double longitude, Instant timestamp,
+                                                   GpsSourceType sourceType, int thresholdMinutes) {
+        if (thresholdMinutes <= 0) {
+            return Optional.of(false);
+        }
+        GpsPointIngestKey key = key(timestamp, latitude, longitude, sourceType);
+        return lookup(userId, key.timestamp().minus(thresholdMinutes, ChronoUnit.MINUTES), "location",
+                known -> GpsPointBatchIngestService.isLocationDuplicate(known, key, thresholdMinutes));
+    }
+
+    /**
+     * Unique key of {@code gps_points}: same timestamp and coordinates, regardless of source.
+     *
+     * @return the answer, or empty when the window does not cover the timestamp and the database must be asked
+     */
+    public Optional<Boolean> findExactDuplicate(UUID userId, Instant timestamp, double latitude, double longitude) {
+        GpsPointIngestKey key = key(timestamp, latitude, longitude, null);
+        return lookup(userId, key.timestamp(), "exact",
+                known -> GpsPointBatchIngestService.isExactDuplicate(known, key));
+    }
+
+    /**
+     * Add points the ingest path has just persisted for the user. Must be called inside the storing transaction;
+     * the window is dropped if that transaction rolls back.
+     */
+    public void record(UUID userId, Collection<GpsPointEntity> points) {
+        if (points.isEmpty()) {
+            return;
+        }
+        UserWindow window = enabled ? windows.get(userId) : null;
+        if (window != null) {
+            List<GpsPointIngestKey> keys = points.stream()
+                    .map(point -> key(point.getTimestamp(), point.getLatitude(), point.getLongitude(), point.getSourceType()))
+                    .toList();
+            window.add(keys, cutoff(), maxPointsPerUser);
+        }
+        Instant latest = points.stream()
+                .map(GpsPointEntity::getTimestamp)
+                .max(Instant::compareTo)
+                .orElse(null);
+        fire(new GpsPointsChangedEvent(userId, window != null, points.size(), latest));
+    }
+
+    /**
+     * Drop the user's window once the current transaction completes. Call from any path that writes or deletes
+     * GPS points without going through {@link #record}.
+     */
+    public void markChanged(UUID userId) {
+        fire(new GpsPointsChangedEvent(userId, false, 0, null));
+    }
+
+    void onGpsPointsChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) GpsPointsChangedEvent event) {
+        if (!event.isRecordedInWindow()) {
+            invalidate(event.getUserId());
+        }
+    }
+
+    void onGpsPointsChangeRolledBack(@Observes(during = TransactionPhase.AFTER_FAILURE) GpsPointsChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    void onUserAccessChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserAccessChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    void invalidate(UUID userId) {
+        windows.remove(userId);
+    }
+
+    int cachedUsers() {
+        return windows.size();
+    }
+
+    private Optional<Boolean> lookup(UUID userId, Instant from, String check,
+                                     Predicate<NavigableMap<Instant, List<GpsPointIngestKey>>> duplicateRule) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Instant cutoff = cutoff();
+        UserWindow window = windows.get(userId);
+        String result = "hit";
+        if (window == null) {
+            if (from.isBefore(cutoff)) {
+                recordLookup(check, "miss");
+                return Optional.empty();
+            }
+            window = seed(userId, cutoff);
+            // The seed query replaced this lookup's own query
+            result = "seed";
+        }
+
+        Optional<Boolean> answer = window.check(from, cutoff, duplicateRule);
+        recordLookup(check, answer.isPresent() ? result : "miss");
+        return answer;
+    }
+
+    // Points recorded while the seed query runs are kept; the window only answers once the seed is merged in
+    private UserWindow seed(UUID userId, Instant coveredFrom) {
+        UserWindow created = new UserWindow(coveredFrom);
+        UserWindow existing = windows.putIfAbsent(userId, created);
+        if (existing != null) {
+            return existing;
+        }
+        evictOverflow();
+
+        try {
+            created.seeded(gpsPointRepository.findIngestKeysInWindow(userId, coveredFrom, SEED_UNTIL), maxPointsPerUser);
+        } catch (RuntimeException e) {
+            windows.remove(userId, created);
+            throw e;
+        }
+        log.debug("Seeded recent GPS point window for user {} from {}", userId, coveredFrom);
+        return created;
+    }
+
+    private void evictOverflow() {
+        int overflow = windows.size() - Math.max(1, maxUsers);
+        if (overflow <= 0) {
+            return;
+        }
+        windows.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(a.lastUsedMillis, b.lastUsedMillis)))
+                .limit(overflow)
+                .toList()
+                .forEach(entry -> windows.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private Instant cutoff() {
+        return Instant.now().minus(Math.max(1, windowMinutes), ChronoUnit.MINUTES);
+    }
+
+    // gps_points stores microseconds, so keys are compared at that precision
+    private static GpsPointIngestKey key(Instant timestamp, double latitude, double longitude, GpsSourceType sourceType) {
+        return new GpsPointIngestKey(timestamp.truncatedTo(ChronoUnit.MICROS), latitude, longitude, sourceType);
+    }
+
+    private void fire(GpsPointsChangedEvent event) {
+        if (gpsPointsChangedEvent != null) {
+            gpsPointsChangedEvent.fire(event);
+        }
+    }
+
+    private void recordLookup(String check, String result) {
+        if (workloadMetrics != null) {
+            workloadMetrics.increment("geopulse.gps.ingest.recent_window.lookups", "check", check, "result", result);
+        }
+    }
+
+    private static final class UserWindow {
+
+        private final NavigableMap<Instant, List<GpsPointIngestKey>> known = new TreeMap<>();
+        private Instant coveredFrom;
+        private boolean seeded;
+        private int size;
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+
+        private UserWindow(Instant coveredFrom) {
+            this.coveredFrom = coveredFrom;
+        }
+
+        synchronized void seeded(List<GpsPointIngestKey> keys, int maxPoints) {
+            keys.forEach(this::remember);
+            trim(maxPoints);
+            seeded = true;
+        }
+
+        synchronized void add(List<GpsPointIngestKey> keys, Instant cutoff, int maxPoints) {
+            keys.forEach(this::remember);
+            prune(cutoff);
+            trim(maxPoints);
+        }
+
+        synchronized Optional<Boolean> check(Instant from, Instant cutoff,
+                                             Predicate<NavigableMap<Instant, List<GpsPointIngestKey>>> duplicateRule) {
+            lastUsedMillis = System.currentTimeMillis();
+            prune(cutoff);
+            if (!seeded || from.isBefore(coveredFrom)) {
+                return Optional.empty();
+            }
+            return Optional.of(duplicateRule.test(known));
+        }
+
+        private void remember(GpsPointIngestKey key) {
+            GpsPointBatchIngestService.remember(known, key);
+            size++;
+        }
+
+        // Time moves the covered range forward; older points are answered by the database again
+        private void prune(Instant cutoff) {
+            if (cutoff.isAfter(coveredFrom)) {
+                coveredFrom = cutoff;
+            }
+            while (!known.isEmpty() && known.firstKey().isBefore(coveredFrom)) {
+                size -= known.pollFirstEntry().getValue().size();
+            }
+        }
+
+        // A full window gives up its oldest timestamps rather than growing without bound
+        private void trim(int maxPoints) {
+            while (size > Math.max(1, maxPoints) && !known.isEmpty()) {
+                Map.Entry<Instant, List<GpsPointIngestKey>> oldest = known.pollFirstEntry();
+                size -= oldest.getValue().size();
+                coveredFrom = oldest.getKey().plusNanos(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package org.github.tess1o.geopulse.gps.service.archive;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.gps.model.ArchivedGpsPoint;
+import org.github.tess1o.geopulse.gps.model.GpsPointArchiveBlock;
+import org.github.tess1o.geopulse.gps.model.GpsPointArchiveStats;
+import org.github.tess1o.geopulse.gps.repository.GpsPointArchiveCodec;
+import org.github.tess1o.geopulse.gps.repository.GpsPointArchiveRepository;
+import org.github.tess1o.geopulse.gps.repository.GpsPointArchiveRepository.UserMonth;
+import org.github.tess1o.geopulse.prometheus.GeoPulseWorkloadMetrics;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Moves closed months of GPS history out of {@code gps_points} into compressed archive blocks, one per user and
+ * UTC month, and keeps those blocks in step when a user deletes points.
+ * <p>
+ * A month is archived once it ended more than the configured number of months ago. Its live rows are deleted and
+ * packed in one transaction, so a point is always in exactly one tier. Points imported into an already archived
+ * month land in {@code gps_points} again and are folded into the block by the next run; exact duplicates of
+ * archived points are dropped then. Timeline streaming and exports read both tiers through
+ * {@code GpsPointArchiveReader}; the raw point table and the raw map only show live points.
+ */
+@ApplicationScoped
+@Slf4j
+public class GpsPointArchiveService {
+
+    @ConfigProperty(name = "geopulse.gps.archive.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "geopulse.gps.archive.cutover-months", defaultValue = "24")
+    int cutoverMonths;
+
+    @ConfigProperty(name = "geopulse.gps.archive.max-months-per-run", defaultValue = "200")
+    int maxMonthsPerRun;
+
+    @Inject
+    GeoPulseWorkloadMetrics workloadMetrics;
+
+    private final GpsPointArchiveRepository archiveRepository;
+    private final GpsPointArchiveCodec codec;
+
+    @Inject
+    public GpsPointArchiveService(GpsPointArchiveRepository archiveRepository, GpsPointArchiveCodec codec) {
+        this.archiveRepository = archiveRepository;
+        this.codec = codec;
+    }
+
+    @Scheduled(every = "${geopulse.gps.archive.interval:6h}",
+            delayed = "${geopulse.gps.archive.delay:10m}",
+            identity = "gps-point-archive",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void archiveClosedMonths() {
+        if (!enabled) {
+            return;
+        }
+        long startedAtNanos = workloadMetrics != null ? workloadMetrics.start() : System.nanoTime();
+        Instant cutoff = cutoffFor(YearMonth.now(ZoneOffset.UTC), cutoverMonths);
+
+        List<UserMonth> months;
+        try {
+            months = QuarkusTransaction.requiringNew()
+                    .call(() -> archiveRepository.findArchivableMonths(cutoff, Math.max(1, maxMonthsPerRun)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to find GPS point months to archive: {}", e.getMessage());
+            return;
+        }
+
+        long archivedPoints = 0;
+        int failedMonths = 0;
+        for (UserMonth month : months) {
+            try {
+                archivedPoints += QuarkusTransaction.requiringNew().call(() -> archiveMonth(month));
+            } catch (RuntimeException e) {
+                failedMonths++;
+                log.warn("Failed to archive GPS points of user {} for {}: {}",
+                        month.userId(), month.periodStart(), e.getMessage());
+            }
+        }
+
+        if (workloadMetrics != null) {
+            workloadMetrics.recordTimer("geopulse.gps.archive.duration", startedAtNanos);
+            workloadMetrics.increment("geopulse.gps.archive.points", archivedPoints);
+            reportArchiveSize();
+        }
+        if (!months.isEmpty()) {
+            log.info("Archived {} GPS points in {} user months older than {} ({} failed)",
+                    archivedPoints, months.size() - failedMonths, cutoff, failedMonths);
+        }
+    }
+
+    /**
+     * Remove archived points of a user in [from, to], rewriting the blocks that hold them. Runs in the caller's
+     * transaction, next to the matching delete on {@code gps_points}.
+     *
+     * @return number of archived points removed
+     */
+    @Transactional
+    public int deleteRange(UUID userId, Instant from, Instant to) {
+        int removed = 0;
+        for (GpsPointArchiveBlock overlapping : archiveRepository.findBlocks(userId, from, to)) {
+            Optional<GpsPointArchiveBlock> locked = archiveRepository.findBlockForUpdate(userId, overlapping.periodStart());
+            if (locked.isEmpty()) {
+                continue;
+            }
+            GpsPointArchiveBlock block = locked.get();
+            List<ArchivedGpsPoint> points = codec.decode(block.encodingVersion(), block.payload());
+            List<ArchivedGpsPoint> kept = points.stream()
+                    .filter(point -> point.timestamp().isBefore(from) || point.timestamp().isAfter(to))
+                    .toList();
+            if (kept.size() == points.size()) {
+                continue;
+            }
+            removed += points.size() - kept.size();
+            if (kept.isEmpty()) {
+                archiveRepository.deleteBlock(block.id());
+            } else {
+                writeBlock(userId, block.periodStart(), kept);
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} archived GPS points of user {} between {} and {}", removed, userId, from, to);
+        }
+        return removed;
+    }
+
+    /**
+     * Remove every archived point of a user. Runs in the caller's transaction.
+     */
+    @Transactional
+    public int deleteAll(UUID userId) {
+        int blocks = archiveRepository.deleteByUserId(userId);
+        if (blocks > 0) {
+            log.info("Removed {} archived GPS point blocks of user {}", blocks, userId);
+        }
+        return blocks;
+    }
+
+    /**
+     * Start of the oldest month that is not archived yet.
+     */
+    static Instant cutoffFor(YearMonth currentMonth, int cutoverMonths) {
+        return currentMonth.minusMonths(Math.max(1, cutoverMonths))
+                .atDay(1)
+                .atStartOfDay(ZoneOffset.UTC)
+                .toInstant();
+    }
+
+    /**
+     * Combine archived and newly archived points of a month: sorted by timestamp and id, without points that repeat
+     * the timestamp and coordinates of an earlier one, as the live duplicate index would have rejected them.
+     */
+    static List<ArchivedGpsPoint> mergePoints(List<ArchivedGpsPoint> archived, List<ArchivedGpsPoint> live) {
+        List<ArchivedGpsPoint> all = new ArrayList<>(archived.size() + live.size());
+        all.addAll(archived);
+        all.addAll(live);
+        all.sort(ArchivedGpsPoint.ORDER);
+
+        Set<PointKey> seen = new HashSet<>();
+        List<ArchivedGpsPoint> merged = new ArrayList<>(all.size());
+        for (ArchivedGpsPoint point : all) {
+            if (seen.add(new PointKey(point.timestamp(), point.latitude(), point.longitude()))) {
+                merged.add(point);
+            }
+        }
+        return merged;
+    }
+
+    private long archiveMonth(UserMonth month) {
+        Instant periodStart = month.periodStart();
+        Instant periodEnd = periodStart.atOffset(ZoneOffset.UTC).plusMonths(1).toInstant();
+
+        // Lock the block first so a concurrent delete of this month waits for the new payload
+        Optional<GpsPointArchiveBlock> existing = archiveRepository.findBlockForUpdate(month.userId(), periodStart);
+        List<ArchivedGpsPoint> live = archiveRepository.deleteLivePoints(month.userId(), periodStart, periodEnd);
+        if (live.isEmpty()) {
+            return 0;
+        }
+        List<ArchivedGpsPoint> archived = existing
+                .map(block -> codec.decode(block.encodingVersion(), block.payload()))
+                .orElse(List.of());
+
+        writeBlock(month.userId(), periodStart, mergePoints(archived, live));
+        log.debug("Archived {} GPS points of user {} for {}", live.size(), month.userId(), periodStart);
+        return live.size();
+    }
+
+    private void writeBlock(UUID userId, Instant periodStart, List<ArchivedGpsPoint> points) {
+        archiveRepository.upsertBlock(
+                userId,
+                periodStart,
+                points.getFirst().timestamp(),
+                points.getLast().timestamp(),
+                points.size(),
+                GpsPointArchiveCodec.VERSION,
+                codec.encode(points));
+    }
+
+    private void reportArchiveSize() {
+        try {
+            GpsPointArchiveStats stats = QuarkusTransaction.requiringNew().call(archiveRepository::findStats);
+            workloadMetrics.setGauge("geopulse.gps.archive.blocks", stats.blocks());
+            workloadMetrics.setGauge("geopulse.gps.archive.archived.points", stats.points());
+            workloadMetrics.setGauge("geopulse.gps.archive.bytes", stats.payloadBytes());
+        } catch (RuntimeException e) {
+            log.warn("Failed to collect GPS point archive size: {}", e.getMessage());
+        }
+    }
+
+    private record PointKey(Instant timestamp, Double latitude, Double longitude) {
+    }
+}
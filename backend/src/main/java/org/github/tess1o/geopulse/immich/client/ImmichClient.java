@@ -3,8 +3,16 @@ package org.github.tess1o.geopulse.immich.client;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -13,16 +21,24 @@ import org.github.tess1o.geopulse.immich.model.ImmichAsset;
 import org.github.tess1o.geopulse.immich.model.ImmichSearchRequest;
 import org.github.tess1o.geopulse.immich.model.ImmichSearchResponse;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @ApplicationScoped
 @Slf4j
 public class ImmichClient {
     private static final int DEFAULT_PAGE_SIZE = 500;
     private static final int MAX_PAGES = 1000;
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int ORIGINAL_OPEN_TIMEOUT_SECONDS = 30;
+    private static final int ORIGINAL_IDLE_TIMEOUT_SECONDS = 60;
 
     @Inject
     Vertx vertx;
@@ -33,6 +49,28 @@ public class ImmichClient {
     @ConfigProperty(name = "immich.photos.search-timeout-seconds", defaultValue = "15")
     int searchTimeoutSeconds;
 
+    /**
+     * Shared client for streamed downloads. WebClient only completes once the whole body has been read, so
+     * originals go through the core client on the same Vert.x instance and are read chunk by chunk.
+     */
+    private HttpClient streamingClient;
+
+    /**
+     * Open upstream response for a streamed asset. The caller must close {@link #body()}.
+     */
+    public record AssetStream(InputStream body, String contentType, long contentLength, String contentDisposition) {
+    }
+
+    @PostConstruct
+    void init() {
+        streamingClient = vertx.createHttpClient(new HttpClientOptions().setConnectTimeout(CONNECT_TIMEOUT_MS));
+    }
+
+    @PreDestroy
+    void close() {
+        streamingClient.close();
+    }
+
     public CompletableFuture<ImmichSearchResponse> searchAssetsAllPages(String baseUrl, String apiKey, ImmichSearchRequest request) {
         return searchAssets(baseUrl, apiKey, request)
                 .thenCompose(firstPage -> {
@@ -203,8 +241,74 @@ public class ImmichClient {
         return getAssetBytes(baseUrl, apiKey, assetId, "/api/assets/" + assetId + "/thumbnail?size=preview");
     }
 
-    public CompletableFuture<byte[]> getOriginal(String baseUrl, String apiKey, String assetId) {
-        return getAssetBytes(baseUrl, apiKey, assetId, "/api/assets/" + assetId + "/original");
+    /**
+     * Open the original file as a stream instead of buffering it; originals can be hundreds of MB (videos, RAW).
+     * Blocking call, use from a worker thread.
+     */
+    public AssetStream openOriginal(String baseUrl, String apiKey, String assetId) throws IOException {
+        RequestOptions options = new RequestOptions()
+                .setMethod(HttpMethod.GET)
+                .setAbsoluteURI(baseUrl + "/api/assets/" + assetId + "/original")
+                .putHeader("x-api-key", apiKey)
+                .setFollowRedirects(true)
+                .setIdleTimeout(TimeUnit.SECONDS.toMillis(ORIGINAL_IDLE_TIMEOUT_SECONDS));
+
+        CompletableFuture<AssetStream> opened = new CompletableFuture<>();
+        streamingClient.request(options)
+                .compose(request -> request.send())
+                .onComplete(ar -> {
+                    if (ar.failed()) {
+                        opened.completeExceptionally(ar.cause());
+                        return;
+                    }
+                    HttpClientResponse response = ar.result();
+                    if (response.statusCode() != 200) {
+                        response.request().reset();
+                        opened.completeExceptionally(new IOException("Failed to get asset: " + response.statusCode()));
+                        return;
+                    }
+                    // Handlers are attached here on the event loop, before the first chunk is delivered
+                    InputStream body = new ReadStreamInputStream(response, Vertx.currentContext(),
+                            () -> response.request().reset());
+                    String contentType = response.getHeader(HttpHeaders.CONTENT_TYPE);
+                    opened.complete(new AssetStream(
+                            body,
+                            contentType != null ? contentType : "application/octet-stream",
+                            parseContentLength(response.getHeader(HttpHeaders.CONTENT_LENGTH)),
+                            response.getHeader("Content-Disposition")));
+                });
+
+        try {
+            return opened.get(ORIGINAL_OPEN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException("Failed to open asset " + assetId, e.getCause());
+        } catch (TimeoutException e) {
+            opened.thenAccept(late -> closeQuietly(late.body()));
+            throw new IOException("Timed out opening asset " + assetId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            opened.thenAccept(late -> closeQuietly(late.body()));
+            throw new IOException("Interrupted while opening asset " + assetId, e);
+        }
+    }
+
+    private static long parseContentLength(String value) {
+        if (value == null) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            log.debug("Failed to close Immich asset stream: {}", e.getMessage());
+        }
     }
 
     private CompletableFuture<byte[]> getAssetBytes(String baseUrl, String apiKey, String assetId, String path) {
@@ -0,0 +1,134 @@
+package org.github.tess1o.geopulse.immich.client;
+
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Objects;
+
+/**
+ * Blocking {@link InputStream} over a Vert.x {@link ReadStream}: the event loop queues chunks and a worker thread
+ * drains them. The source is paused while more than {@link #MAX_QUEUED_BYTES} are waiting, so a slow reader never
+ * buffers a whole file.
+ * <p>
+ * Create it on the source's event loop, before the first chunk can be delivered.
+ */
+final class ReadStreamInputStream extends InputStream {
+
+    static final int MAX_QUEUED_BYTES = 1024 * 1024;
+
+    private final ReadStream<Buffer> source;
+    private final Context context;
+    private final Runnable abort;
+    private final ArrayDeque<Buffer> chunks = new ArrayDeque<>();
+    private Buffer current;
+    private int position;
+    private long queuedBytes;
+    private boolean paused;
+    private boolean ended;
+    private boolean closed;
+    private Throwable failure;
+
+    /**
+     * @param abort called on close before the source ended, e.g. to reset the HTTP request
+     */
+    ReadStreamInputStream(ReadStream<Buffer> source, Context context, Runnable abort) {
+        this.source = source;
+        this.context = context;
+        this.abort = abort;
+        source.exceptionHandler(this::onEnd);
+        source.endHandler(ignored -> onEnd(null));
+        source.handler(this::onChunk);
+    }
+
+    private synchronized void onChunk(Buffer chunk) {
+        if (closed || chunk.length() == 0) {
+            return;
+        }
+        chunks.add(chunk);
+        queuedBytes += chunk.length();
+        if (!paused && queuedBytes > MAX_QUEUED_BYTES) {
+            paused = true;
+            source.pause();
+        }
+        notifyAll();
+    }
+
+    private synchronized void onEnd(Throwable cause) {
+        if (!ended) {
+            ended = true;
+            failure = cause;
+        }
+        notifyAll();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public synchronized int read(byte[] target, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, target.length);
+        if (length == 0) {
+            return 0;
+        }
+        while (current == null) {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            Buffer next = chunks.poll();
+            if (next != null) {
+                current = next;
+                position = 0;
+                queuedBytes -= next.length();
+                if (paused && queuedBytes <= MAX_QUEUED_BYTES / 2) {
+                    paused = false;
+                    context.runOnContext(ignored -> source.resume());
+                }
+            } else if (ended) {
+                if (failure != null) {
+                    throw new IOException("Upstream stream failed: " + failure.getMessage(), failure);
+                }
+                return -1;
+            } else {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for upstream data");
+                }
+            }
+        }
+        int count = Math.min(length, current.length() - position);
+        current.getBytes(position, position + count, target, offset);
+        position += count;
+        if (position == current.length()) {
+            current = null;
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        boolean abortSource;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            abortSource = !ended;
+            chunks.clear();
+            current = null;
+            notifyAll();
+        }
+        if (abortSource) {
+            context.runOnContext(ignored -> abort.run());
+        }
+    }
+}
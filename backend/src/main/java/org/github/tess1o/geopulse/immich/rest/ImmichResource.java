@@ -1,23 +1,34 @@
 package org.github.tess1o.geopulse.immich.rest;
 
 import io.smallrye.common.annotation.Blocking;
+import io.vertx.ext.web.RoutingContext;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.auth.service.CurrentUserService;
+import org.github.tess1o.geopulse.immich.client.ImmichClient;
 import org.github.tess1o.geopulse.immich.model.*;
+import org.github.tess1o.geopulse.immich.service.ImmichAssetCache;
 import org.github.tess1o.geopulse.immich.service.ImmichService;
 import org.github.tess1o.geopulse.shared.api.ApiResponse;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 @Path("/api/users")
@@ -28,12 +39,20 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 @Tag(name = "User: Immich", description = "Manage Immich configuration and retrieve Immich photo data.")
 public class ImmichResource {
 
+    /**
+     * Thumbnails and previews of an asset do not change; a day keeps timeline revisits local.
+     */
+    private static final int ASSET_CACHE_MAX_AGE_SECONDS = 86400;
+
     @Inject
     ImmichService immichService;
 
     @Inject
     CurrentUserService currentUserService;
 
+    @Inject
+    ImmichAssetCache assetCache;
+
     @GET
     @Path("/{userId}/immich-config")
     @RolesAllowed({"USER", "ADMIN"})
@@ -215,21 +234,19 @@ public class ImmichResource {
 
     @GET
     @Path("/{userId}/immich/photos/{photoId}/thumbnail")
-    @Produces("image/jpeg")
+    @Produces({"image/jpeg", "image/webp", "image/png"})
     @RolesAllowed({"USER", "ADMIN"})
     @Blocking
     public CompletableFuture<Response> getPhotoThumbnail(
             @PathParam("userId") String userIdStr,
-            @PathParam("photoId") String photoId) {
+            @PathParam("photoId") String photoId,
+            @Context Request request,
+            @Context RoutingContext routingContext) {
         
         UUID userId = parseUserId(userIdStr);
         validateUserAccess(userId);
 
-        return immichService.getPhotoThumbnail(userId, photoId)
-                .thenApply(imageBytes -> 
-                        Response.ok(imageBytes)
-                                .header("Cache-Control", "max-age=3600")
-                                .build())
+        return serveCachedAsset(() -> immichService.getPhotoThumbnail(userId, photoId), request, routingContext)
                 .exceptionally(throwable -> {
                     log.error("Failed to get thumbnail for photo {} and user {}: {}", 
                             photoId, userId, throwable.getMessage(), throwable);
@@ -239,21 +256,19 @@ public class ImmichResource {
 
     @GET
     @Path("/{userId}/immich/photos/{photoId}/preview")
-    @Produces("image/jpeg")
+    @Produces({"image/jpeg", "image/webp", "image/png"})
     @RolesAllowed({"USER", "ADMIN"})
     @Blocking
     public CompletableFuture<Response> getPhotoPreview(
             @PathParam("userId") String userIdStr,
-            @PathParam("photoId") String photoId) {
+            @PathParam("photoId") String photoId,
+            @Context Request request,
+            @Context RoutingContext routingContext) {
 
         UUID userId = parseUserId(userIdStr);
         validateUserAccess(userId);
 
-        return immichService.getPhotoPreview(userId, photoId)
-                .thenApply(imageBytes ->
-                        Response.ok(imageBytes)
-                                .header("Cache-Control", "max-age=3600")
-                                .build())
+        return serveCachedAsset(() -> immichService.getPhotoPreview(userId, photoId), request, routingContext)
                 .exceptionally(throwable -> {
                     log.error("Failed to get preview for photo {} and user {}: {}",
                             photoId, userId, throwable.getMessage(), throwable);
@@ -263,26 +278,99 @@ public class ImmichResource {
 
     @GET
     @Path("/{userId}/immich/photos/{photoId}/download")
-    @Produces("image/jpeg")
+    @Produces(MediaType.WILDCARD)
     @RolesAllowed({"USER", "ADMIN"})
     @Blocking
-    public CompletableFuture<Response> downloadPhoto(
+    public Response downloadPhoto(
             @PathParam("userId") String userIdStr,
-            @PathParam("photoId") String photoId) {
+            @PathParam("photoId") String photoId,
+            @Context RoutingContext routingContext) {
         
         UUID userId = parseUserId(userIdStr);
         validateUserAccess(userId);
 
-        return immichService.getPhotoOriginal(userId, photoId)
-                .thenApply(imageBytes -> 
-                        Response.ok(imageBytes)
-                                .header("Content-Disposition", "attachment; filename=\"photo_" + photoId + ".jpg\"")
-                                .build())
-                .exceptionally(throwable -> {
-                    log.error("Failed to download photo {} for user {}: {}", 
-                            photoId, userId, throwable.getMessage(), throwable);
-                    return Response.status(Response.Status.NOT_FOUND).build();
-                });
+        ImmichClient.AssetStream original;
+        try {
+            original = immichService.openPhotoOriginal(userId, photoId);
+        } catch (Exception e) {
+            log.error("Failed to download photo {} for user {}: {}", 
+                    photoId, userId, e.getMessage(), e);
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        // Also releases the upstream connection when the client goes away before the body is written
+        routingContext.addEndHandler(ignored -> closeQuietly(original.body()));
+
+        // Pipe the upstream body to the client without buffering the whole file
+        StreamingOutput stream = output -> {
+            try (InputStream input = original.body()) {
+                input.transferTo(output);
+            }
+        };
+
+        Response.ResponseBuilder response = Response.ok(stream)
+                .type(original.contentType())
+                .header("Content-Disposition", original.contentDisposition() != null
+                        ? original.contentDisposition()
+                        : "attachment; filename=\"photo_" + photoId + ".jpg\"");
+        if (original.contentLength() >= 0) {
+            response.header("Content-Length", original.contentLength());
+        }
+        return response.build();
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            log.debug("Failed to close Immich asset stream: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load a thumbnail/preview and pin its cache file until the response ends, so eviction cannot delete it while
+     * it is still being sent. An asset evicted between loading and pinning is loaded once more.
+     */
+    private CompletableFuture<Response> serveCachedAsset(Supplier<CompletableFuture<ImmichAssetCache.CachedAsset>> loader,
+                                                         Request request, RoutingContext routingContext) {
+        return loader.get().thenCompose(asset -> assetCache.pin(asset)
+                .map(pin -> CompletableFuture.completedFuture(pinnedAssetResponse(asset, pin, request, routingContext)))
+                .orElseGet(() -> loader.get().thenApply(reloaded -> assetCache.pin(reloaded)
+                        .map(pin -> pinnedAssetResponse(reloaded, pin, request, routingContext))
+                        .orElseThrow(() -> new IllegalStateException("Immich cache entry evicted while loading")))));
+    }
+
+    private Response pinnedAssetResponse(ImmichAssetCache.CachedAsset asset, ImmichAssetCache.Pin pin,
+                                         Request request, RoutingContext routingContext) {
+        try {
+            Response response = cachedAssetResponse(asset, request);
+            routingContext.addEndHandler(ignored -> pin.close());
+            return response;
+        } catch (RuntimeException e) {
+            pin.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Serve a cached thumbnail/preview with validators: clients revalidate with If-None-Match and get a 304.
+     */
+    private Response cachedAssetResponse(ImmichAssetCache.CachedAsset asset, Request request) {
+        EntityTag etag = new EntityTag(asset.etag());
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setMaxAge(ASSET_CACHE_MAX_AGE_SECONDS);
+
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).tag(etag).build();
+        }
+
+        Object entity = asset.file() != null ? asset.file().toFile() : asset.bytes();
+        return Response.ok(entity)
+                .type(asset.contentType())
+                .tag(etag)
+                .cacheControl(cacheControl)
+                .build();
     }
 
     @GET
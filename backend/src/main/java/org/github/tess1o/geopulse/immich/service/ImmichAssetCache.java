@@ -0,0 +1,355 @@
+package org.github.tess1o.geopulse.immich.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded on-disk cache for Immich thumbnails and previews.
+ * <p>
+ * Entries are keyed by a hash of (server URL, API key, asset id, variant), so a user only ever hits entries
+ * fetched with their own credentials. Each file is named {@code <keyHash>-<contentHash>}: the content hash is
+ * the ETag, and the index can be rebuilt from the directory listing after a restart. When the total size
+ * exceeds {@code immich.photos.asset-cache.max-size-mb}, least recently served entries are deleted first.
+ * <p>
+ * Concurrent misses for the same key share one upstream fetch. Files handed to a response are pinned until the
+ * response ends: eviction skips them and files replaced or removed meanwhile are deleted on the last release.
+ */
+@ApplicationScoped
+@Slf4j
+public class ImmichAssetCache {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    @ConfigProperty(name = "immich.photos.asset-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "immich.photos.asset-cache.directory", defaultValue = "/tmp/geopulse/immich-cache")
+    String directory;
+
+    @ConfigProperty(name = "immich.photos.asset-cache.max-size-mb", defaultValue = "512")
+    long maxSizeMb;
+
+    private final ConcurrentHashMap<String, CachedAsset> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<CachedAsset>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    // Open responses per file; compute() on the same key makes pin and delete mutually exclusive
+    private final ConcurrentHashMap<Path, Integer> pinnedFiles = new ConcurrentHashMap<>();
+    private final Set<Path> deleteOnRelease = ConcurrentHashMap.newKeySet();
+    private volatile Path cacheDirectory;
+
+    /**
+     * A cached asset. {@code file} is null when the disk cache is disabled and the bytes are served from memory.
+     */
+    public record CachedAsset(String key, Path file, byte[] bytes, String etag, String contentType,
+                              long sizeBytes, long lastAccessEpochMillis) {
+        CachedAsset touch(long touchedAtEpochMillis) {
+            return new CachedAsset(key, file, bytes, etag, contentType, sizeBytes, touchedAtEpochMillis);
+        }
+    }
+
+    /**
+     * Keeps a pinned file on disk; closing it more than once has no effect.
+     */
+    public interface Pin extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            if (!Files.isWritable(dir)) {
+                log.warn("Immich asset cache directory {} is not writable, disk cache disabled", dir);
+                return;
+            }
+            cacheDirectory = dir;
+            loadExistingEntries(dir);
+            log.info("Immich asset cache initialized at {}: entries={} sizeBytes={}", dir, entries.size(), totalBytes.get());
+        } catch (IOException e) {
+            log.warn("Failed to initialize Immich asset cache at {}, disk cache disabled: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Serve a cached asset or fetch it through {@code loader} and store it.
+     *
+     * @param writeExecutor executor for the disk write, so it never runs on the HTTP client's event loop
+     */
+    public CompletableFuture<CachedAsset> getOrLoad(String serverUrl, String apiKey, String assetId, String variant,
+                                                    Supplier<CompletableFuture<byte[]>> loader, Executor writeExecutor) {
+        String key = cacheKey(serverUrl, apiKey, assetId, variant);
+        CachedAsset cached = lookup(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<CachedAsset> pending = new CompletableFuture<>();
+        CompletableFuture<CachedAsset> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            return existing;
+        }
+
+        // Completed after putIfAbsent returns: a loader that finishes synchronously removes the in-flight entry itself
+        try {
+            loader.get()
+                    .thenApplyAsync(bytes -> store(key, bytes), writeExecutor)
+                    .whenComplete((asset, throwable) -> {
+                        inFlight.remove(key, pending);
+                        if (throwable != null) {
+                            pending.completeExceptionally(throwable);
+                        } else {
+                            pending.complete(asset);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, pending);
+            pending.completeExceptionally(e);
+        }
+        return pending;
+    }
+
+    /**
+     * Pin the asset's file while a response streams it.
+     *
+     * @return empty when the file was deleted before it could be pinned, the asset has to be loaded again
+     */
+    public Optional<Pin> pin(CachedAsset asset) {
+        Path file = asset.file();
+        if (file == null) {
+            return Optional.of(() -> {
+            });
+        }
+        pinnedFiles.merge(file, 1, Integer::sum);
+        if (!Files.exists(file)) {
+            release(file);
+            return Optional.empty();
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return Optional.of(() -> {
+            if (released.compareAndSet(false, true)) {
+                release(file);
+            }
+        });
+    }
+
+    private void release(Path file) {
+        pinnedFiles.compute(file, (ignored, count) -> {
+            if (count != null && count > 1) {
+                return count - 1;
+            }
+            if (deleteOnRelease.remove(file)) {
+                deleteQuietly(file);
+            }
+            return null;
+        });
+    }
+
+    private void deleteUnlessPinned(Path file) {
+        if (file == null) {
+            return;
+        }
+        pinnedFiles.compute(file, (ignored, count) -> {
+            if (count == null) {
+                deleteQuietly(file);
+            } else {
+                deleteOnRelease.add(file);
+            }
+            return count;
+        });
+    }
+
+    private CachedAsset lookup(String key) {
+        long now = System.currentTimeMillis();
+        CachedAsset cached = entries.computeIfPresent(key, (ignored, value) -> value.touch(now));
+        if (cached == null) {
+            return null;
+        }
+        if (!Files.exists(cached.file())) {
+            // Removed behind our back (tmp cleaner, manual wipe)
+            remove(key);
+            return null;
+        }
+        return cached;
+    }
+
+    CachedAsset store(String key, byte[] bytes) {
+        String etag = sha256(bytes).substring(0, 32);
+        String contentType = detectContentType(bytes);
+        long now = System.currentTimeMillis();
+
+        Path dir = cacheDirectory;
+        if (dir == null) {
+            return new CachedAsset(key, null, bytes, etag, contentType, bytes.length, now);
+        }
+
+        Path target = dir.resolve(key + "-" + etag);
+        try {
+            Path temp = Files.createTempFile(dir, key, TEMP_SUFFIX);
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write Immich asset cache entry {}: {}", key, e.getMessage());
+            return new CachedAsset(key, null, bytes, etag, contentType, bytes.length, now);
+        }
+
+        CachedAsset asset = new CachedAsset(key, target, null, etag, contentType, bytes.length, now);
+        CachedAsset previous = entries.put(key, asset);
+        totalBytes.addAndGet(bytes.length - (previous != null ? previous.sizeBytes() : 0));
+        if (previous != null && !previous.file().equals(target)) {
+            deleteUnlessPinned(previous.file());
+        }
+        evictForSizeLimit();
+        return asset;
+    }
+
+    private void evictForSizeLimit() {
+        long maxBytes = Math.max(1L, maxSizeMb) * 1024L * 1024L;
+        long overflow = totalBytes.get() - maxBytes;
+        if (overflow <= 0) {
+            return;
+        }
+
+        List<CachedAsset> oldestFirst = entries.values().stream()
+                .sorted(Comparator.comparingLong(CachedAsset::lastAccessEpochMillis))
+                .collect(Collectors.toList());
+
+        long freed = 0;
+        int evicted = 0;
+        for (CachedAsset asset : oldestFirst) {
+            if (freed >= overflow) {
+                break;
+            }
+            if (pinnedFiles.containsKey(asset.file())) {
+                continue;
+            }
+            if (entries.remove(asset.key(), asset)) {
+                totalBytes.addAndGet(-asset.sizeBytes());
+                deleteUnlessPinned(asset.file());
+                freed += asset.sizeBytes();
+                evicted++;
+            }
+        }
+        log.debug("Evicted {} Immich asset cache entries ({} bytes) due to size limit {} MB", evicted, freed, maxSizeMb);
+    }
+
+    private void remove(String key) {
+        CachedAsset removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes.addAndGet(-removed.sizeBytes());
+            deleteUnlessPinned(removed.file());
+        }
+    }
+
+    private void loadExistingEntries(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            Map<Boolean, List<Path>> byTemp = files
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.partitioningBy(file -> file.getFileName().toString().endsWith(TEMP_SUFFIX)));
+            byTemp.get(true).forEach(this::deleteQuietly);
+
+            for (Path file : byTemp.get(false)) {
+                String name = file.getFileName().toString();
+                int separator = name.indexOf('-');
+                if (separator <= 0) {
+                    continue;
+                }
+                String key = name.substring(0, separator);
+                String etag = name.substring(separator + 1);
+                long size = Files.size(file);
+                long lastAccess = Files.getLastModifiedTime(file).toMillis();
+                CachedAsset asset = new CachedAsset(key, file, null, etag, detectContentType(file), size, lastAccess);
+                CachedAsset previous = entries.put(key, asset);
+                totalBytes.addAndGet(size - (previous != null ? previous.sizeBytes() : 0));
+                if (previous != null) {
+                    deleteQuietly(previous.file());
+                }
+            }
+        }
+        evictForSizeLimit();
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Failed to delete Immich cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    static String cacheKey(String serverUrl, String apiKey, String assetId, String variant) {
+        String raw = serverUrl + '\n' + apiKey + '\n' + assetId + '\n' + variant;
+        return sha256(raw.getBytes(StandardCharsets.UTF_8)).substring(0, 40);
+    }
+
+    private static String detectContentType(Path file) {
+        try (var input = Files.newInputStream(file)) {
+            return detectContentType(input.readNBytes(12));
+        } catch (IOException e) {
+            return "image/jpeg";
+        }
+    }
+
+    /**
+     * Immich serves thumbnails as WebP or JPEG depending on server settings; sniff instead of trusting the route.
+     */
+    static String detectContentType(byte[] bytes) {
+        if (bytes.length >= 12 && bytes[0] == 'R' && bytes[1] == 'I' && bytes[2] == 'F' && bytes[3] == 'F'
+                && bytes[8] == 'W' && bytes[9] == 'E' && bytes[10] == 'B' && bytes[11] == 'P') {
+            return "image/webp";
+        }
+        if (bytes.length >= 4 && (bytes[0] & 0xFF) == 0x89 && bytes[1] == 'P' && bytes[2] == 'N' && bytes[3] == 'G') {
+            return "image/png";
+        }
+        return "image/jpeg";
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    Optional<CachedAsset> peek(String key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    long totalBytes() {
+        return totalBytes.get();
+    }
+}
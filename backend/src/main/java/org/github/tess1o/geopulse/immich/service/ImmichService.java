@@ -1,5 +1,6 @@
 package org.github.tess1o.geopulse.immich.service;
 
+import io.smallrye.common.annotation.Identifier;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -13,6 +14,7 @@ import org.github.tess1o.geopulse.shared.geo.GeoUtils;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 import org.github.tess1o.geopulse.user.repository.UserRepository;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
@@ -23,6 +25,7 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -42,6 +45,13 @@ public class ImmichService {
     @Inject
     GeonamesLocationNormalizationService geonamesLocationNormalizationService;
 
+    @Inject
+    ImmichAssetCache assetCache;
+
+    @Inject
+    @Identifier("immich-assets")
+    ExecutorService assetExecutor;
+
     @ConfigProperty(name = "immich.photos.search-cache-ttl-seconds", defaultValue = "300")
     long photoSearchCacheTtlSeconds;
 
@@ -135,16 +145,20 @@ public class ImmichService {
         });
     }
 
-    public CompletableFuture<byte[]> getPhotoThumbnail(UUID userId, String photoId) {
-        return getPhotoBytes(userId, photoId, PhotoAssetSize.THUMBNAIL);
+    public CompletableFuture<ImmichAssetCache.CachedAsset> getPhotoThumbnail(UUID userId, String photoId) {
+        return getCachedPhoto(userId, photoId, PhotoAssetSize.THUMBNAIL);
     }
 
-    public CompletableFuture<byte[]> getPhotoPreview(UUID userId, String photoId) {
-        return getPhotoBytes(userId, photoId, PhotoAssetSize.PREVIEW);
+    public CompletableFuture<ImmichAssetCache.CachedAsset> getPhotoPreview(UUID userId, String photoId) {
+        return getCachedPhoto(userId, photoId, PhotoAssetSize.PREVIEW);
     }
 
-    public CompletableFuture<byte[]> getPhotoOriginal(UUID userId, String photoId) {
-        return getPhotoBytes(userId, photoId, PhotoAssetSize.ORIGINAL);
+    /**
+     * Open the original file as an upstream stream; the caller pipes it to the client and closes it.
+     */
+    public ImmichClient.AssetStream openPhotoOriginal(UUID userId, String photoId) throws IOException {
+        ImmichPreferences immichPrefs = requireEnabledPreferences(userId);
+        return immichClient.openOriginal(immichPrefs.getServerUrl(), immichPrefs.getApiKey(), photoId);
     }
 
     public Optional<ImmichConfigResponse> getUserImmichConfig(UUID userId) {
@@ -266,7 +280,18 @@ public class ImmichService {
                 });
     }
 
-    private CompletableFuture<byte[]> getPhotoBytes(UUID userId, String photoId, PhotoAssetSize size) {
+    private CompletableFuture<ImmichAssetCache.CachedAsset> getCachedPhoto(UUID userId, String photoId, PhotoAssetSize size) {
+        ImmichPreferences immichPrefs = requireEnabledPreferences(userId);
+        String serverUrl = immichPrefs.getServerUrl();
+        String apiKey = immichPrefs.getApiKey();
+
+        return assetCache.getOrLoad(serverUrl, apiKey, photoId, size.name(), () -> switch (size) {
+            case THUMBNAIL -> immichClient.getThumbnail(serverUrl, apiKey, photoId);
+            case PREVIEW -> immichClient.getPreview(serverUrl, apiKey, photoId);
+        }, assetExecutor);
+    }
+
+    private ImmichPreferences requireEnabledPreferences(UUID userId) {
         UserEntity user = userRepository.findById(userId);
         if (user == null) {
             throw new IllegalArgumentException("User not found: " + userId);
@@ -276,12 +301,7 @@ public class ImmichService {
         if (immichPrefs == null || !Boolean.TRUE.equals(immichPrefs.getEnabled())) {
             throw new IllegalStateException("Immich not configured or disabled for user: " + userId);
         }
-
-        return switch (size) {
-            case THUMBNAIL -> immichClient.getThumbnail(immichPrefs.getServerUrl(), immichPrefs.getApiKey(), photoId);
-            case PREVIEW -> immichClient.getPreview(immichPrefs.getServerUrl(), immichPrefs.getApiKey(), photoId);
-            case ORIGINAL -> immichClient.getOriginal(immichPrefs.getServerUrl(), immichPrefs.getApiKey(), photoId);
-        };
+        return immichPrefs;
     }
 
     private CompletableFuture<List<ImmichPhotoDto>> loadAllFilteredPhotos(UUID userId, ImmichPhotoSearchRequest searchRequest) {
@@ -599,8 +619,7 @@ public class ImmichService {
 
     private enum PhotoAssetSize {
         THUMBNAIL,
-        PREVIEW,
-        ORIGINAL
+        PREVIEW
     }
 
     private record MapMarkerAccumulator(
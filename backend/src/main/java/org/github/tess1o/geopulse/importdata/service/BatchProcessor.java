@@ -8,7 +8,10 @@ import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.admin.service.SystemSettingsService;
+import org.github.tess1o.geopulse.coverage.repository.CoverageRepository;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.gps.service.GpsPointPartitionManager;
+import org.github.tess1o.geopulse.gps.service.RecentGpsPointWindow;
 import org.github.tess1o.geopulse.importdata.model.ImportJob;
 import org.github.tess1o.geopulse.shared.exportimport.NativeSqlImportTemplates;
 
@@ -21,15 +24,28 @@ import java.util.List;
 @Slf4j
 public class BatchProcessor {
 
-    @Inject
-    EntityManager entityManager;
+    private final EntityManager entityManager;
+    private final SystemSettingsService settingsService;
+    private final ObjectMapper objectMapper;
+    private final CoverageRepository coverageRepository;
+    private final RecentGpsPointWindow recentPointWindow;
+    private final GpsPointPartitionManager partitionManager;
 
     @Inject
-    SystemSettingsService settingsService;
+    public BatchProcessor(EntityManager entityManager,
+                          SystemSettingsService settingsService,
+                          ObjectMapper objectMapper,
+                          CoverageRepository coverageRepository,
+                          RecentGpsPointWindow recentPointWindow,
+                          GpsPointPartitionManager partitionManager) {
+        this.entityManager = entityManager;
+        this.settingsService = settingsService;
+        this.objectMapper = objectMapper;
+        this.coverageRepository = coverageRepository;
+        this.recentPointWindow = recentPointWindow;
+        this.partitionManager = partitionManager;
+    }
 
-    @Inject
-    ObjectMapper objectMapper;
-    
     /**
      * Process a batch of GPS points using intelligent upsert logic.
      * Both CLEAR and MERGE modes use the same insert with ON CONFLICT DO UPDATE.
@@ -77,6 +93,9 @@ public class BatchProcessor {
         long startTime = System.currentTimeMillis();
         String mode = clearModeEnabled ? "CLEAR" : "MERGE";
 
+        // Imported history usually predates the partitions the scheduled manager keeps; create them up front
+        partitionManager.ensurePartitionsFor(gpsPoints.stream().map(GpsPointEntity::getTimestamp).toList());
+
         for (int i = 0; i < gpsPoints.size(); i += batchSize) {
             int endIndex = Math.min(i + batchSize, gpsPoints.size());
             List<GpsPointEntity> subBatch = gpsPoints.subList(i, endIndex);
@@ -106,6 +125,16 @@ public class BatchProcessor {
             }
         }
 
+        if (totalUpserted > 0) {
+            gpsPoints.stream()
+                    .map(point -> point.getUser().getId())
+                    .distinct()
+                    .forEach(userId -> {
+                        coverageRepository.markNewData(userId);
+                        recentPointWindow.markChanged(userId);
+                    });
+        }
+
         long totalDuration = System.currentTimeMillis() - startTime;
         log.info("{} MODE summary: {} points upserted in {}ms", mode, totalUpserted, totalDuration);
         return totalUpserted;
@@ -229,6 +258,9 @@ public class BatchProcessor {
         String mode = clearModeEnabled ? "CLEAR" : "MERGE";
         String importMode = clearModeEnabled ? "bulk inserting" : "merging with existing data";
         long overallStartTime = System.currentTimeMillis();
+
+        // All batches share this transaction, so later batches could not create their partitions any more
+        partitionManager.ensurePartitionsFor(allPoints.stream().map(GpsPointEntity::getTimestamp).toList());
         
         log.info("Processing {} GPS points in {} batches using {} mode", 
                 allPoints.size(), (allPoints.size() + batchSize - 1) / batchSize, mode);
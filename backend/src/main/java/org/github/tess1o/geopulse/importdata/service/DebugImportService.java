@@ -7,6 +7,7 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.github.tess1o.geopulse.coverage.repository.CoverageRepository;
 import org.github.tess1o.geopulse.favorites.model.AddAreaToFavoritesDto;
 import org.github.tess1o.geopulse.favorites.model.AddPointToFavoritesDto;
 import org.github.tess1o.geopulse.favorites.service.FavoriteLocationService;
@@ -14,6 +15,8 @@ import org.github.tess1o.geopulse.gps.integrations.owntracks.model.OwnTracksLoca
 import org.github.tess1o.geopulse.gps.mapper.GpsPointMapper;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
 import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.gps.service.RecentGpsPointWindow;
+import org.github.tess1o.geopulse.gps.service.archive.GpsPointArchiveService;
 import org.github.tess1o.geopulse.importdata.model.DebugImportRequest;
 import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
 import org.github.tess1o.geopulse.streaming.repository.TimelineStayRepository;
@@ -40,6 +43,15 @@ public class DebugImportService {
     @Inject
     GpsPointRepository gpsPointRepository;
 
+    @Inject
+    GpsPointArchiveService archiveService;
+
+    @Inject
+    RecentGpsPointWindow recentPointWindow;
+
+    @Inject
+    CoverageRepository coverageRepository;
+
     @Inject
     TimelineStayRepository timelineStayRepository;
 
@@ -82,6 +94,8 @@ public class DebugImportService {
 
         // 3. Import GPS points
         importGpsPoints(userId, data.gpsData);
+        recentPointWindow.markChanged(userId);
+        coverageRepository.markNewData(userId);
 
         // 4. Import favorite locations
         importFavoriteLocations(userId, data.favoriteLocations);
@@ -156,6 +170,7 @@ public class DebugImportService {
         timelineTripRepository.deleteByUserId(userId);
         timelineStayRepository.deleteByUserId(userId);
         gpsPointRepository.deleteByUserId(userId);
+        archiveService.deleteAll(userId);
 
         log.info("Existing data cleared for user {}", userId);
     }
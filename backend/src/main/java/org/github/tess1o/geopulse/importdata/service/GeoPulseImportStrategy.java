@@ -6,6 +6,7 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.narayana.jta.QuarkusTransactionException;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
@@ -15,6 +16,7 @@ import org.github.tess1o.geopulse.favorites.model.FavoritesEntity;
 import org.github.tess1o.geopulse.favorites.model.FavoriteLocationType;
 import org.github.tess1o.geopulse.favorites.repository.FavoritesRepository;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.gps.service.GpsPointPartitionManager;
 import org.github.tess1o.geopulse.gpssource.model.GpsSourceConfigEntity;
 import org.github.tess1o.geopulse.gpssource.repository.GpsSourceRepository;
 import org.github.tess1o.geopulse.importdata.mapper.ImportDataMapper;
@@ -22,6 +24,7 @@ import org.github.tess1o.geopulse.importdata.model.ImportJob;
 import org.github.tess1o.geopulse.shared.exportimport.ExportImportConstants;
 import org.github.tess1o.geopulse.shared.exportimport.SequenceResetService;
 import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+import org.github.tess1o.geopulse.streaming.events.TimelinePreferencesUpdatedEvent;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 import org.github.tess1o.geopulse.user.repository.UserRepository;
 import org.locationtech.jts.geom.*;
@@ -61,12 +64,18 @@ public class GeoPulseImportStrategy implements ImportStrategy {
     @Inject
     BatchProcessor batchProcessor;
 
+    @Inject
+    GpsPointPartitionManager partitionManager;
+
     @Inject
     FavoritesRepository favoritesRepository;
 
     @Inject
     GpsSourceRepository gpsSourceRepository;
 
+    @Inject
+    Event<TimelinePreferencesUpdatedEvent> preferencesUpdatedEvent;
+
     private final ObjectMapper objectMapper = JsonMapper.builder()
             .addModule(new JavaTimeModule())
             .build();
@@ -525,6 +534,8 @@ public class GeoPulseImportStrategy implements ImportStrategy {
         if (userData.getPreferences() != null) {
             user.setTimelinePreferences(importDataMapper.updateTimelinePreferences(
                     userData.getPreferences(), user.getTimelinePreferences()));
+            preferencesUpdatedEvent.fire(new TimelinePreferencesUpdatedEvent(
+                    user.getId(), user.getTimelinePreferences(), false));
         }
 
         userRepository.persist(user);
@@ -823,6 +834,11 @@ public class GeoPulseImportStrategy implements ImportStrategy {
                 .max(Instant::compareTo)
                 .orElse(null);
             
+            // Clearing locks gps_points for the rest of the import transaction, so partitions are created first
+            partitionManager.ensurePartitionsFor(gpsData.getPoints().stream()
+                    .map(RawGpsDataDto.GpsPointDto::getTimestamp)
+                    .toList());
+
             if (minTimestamp != null && maxTimestamp != null) {
                 ImportDataClearingService.DateRange fileDataRange = 
                     new ImportDataClearingService.DateRange(minTimestamp, maxTimestamp);
@@ -6,6 +6,8 @@ import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.gps.service.RecentGpsPointWindow;
+import org.github.tess1o.geopulse.gps.service.archive.GpsPointArchiveService;
 import org.github.tess1o.geopulse.importdata.model.ImportJob;
 
 import java.time.Instant;
@@ -20,8 +22,17 @@ import java.util.UUID;
 @Slf4j
 public class ImportDataClearingService {
 
+    private final EntityManager entityManager;
+    private final RecentGpsPointWindow recentPointWindow;
+    private final GpsPointArchiveService archiveService;
+
     @Inject
-    EntityManager entityManager;
+    public ImportDataClearingService(EntityManager entityManager, RecentGpsPointWindow recentPointWindow,
+                                     GpsPointArchiveService archiveService) {
+        this.entityManager = entityManager;
+        this.recentPointWindow = recentPointWindow;
+        this.archiveService = archiveService;
+    }
 
     /**
      * Calculate the smart deletion range based on user filters and actual file data.
@@ -114,7 +125,13 @@ public class ImportDataClearingService {
                 .setParameter("startDate", deletionRange.getStartDate())
                 .setParameter("endDate", deletionRange.getEndDate())
                 .executeUpdate();
+
+        // Archived months are replaced as well
+        deletedCount += archiveService.deleteRange(userId, deletionRange.getStartDate(), deletionRange.getEndDate());
         
+        if (deletedCount > 0) {
+            recentPointWindow.markChanged(userId);
+        }
         log.info("Cleared {} GPS points for user {} in date range", deletedCount, userId);
         return deletedCount;
     }
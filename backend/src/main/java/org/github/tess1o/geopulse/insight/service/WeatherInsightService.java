@@ -26,13 +26,14 @@ public class WeatherInsightService {
             SELECT ws.requested_latitude,
                    ws.requested_longitude,
                    ws.observed_at,
-                   ws.weather_code,
-                   ws.temperature,
-                   ws.precipitation,
-                   ws.snowfall,
-                   ws.wind_speed,
+                   wo.weather_code,
+                   wo.temperature,
+                   wo.precipitation,
+                   wo.snowfall,
+                   wo.wind_speed,
                    DATE(ws.observed_at AT TIME ZONE COALESCE(u.timezone, 'UTC')) AS local_date
             FROM weather_samples ws
+            JOIN weather_observations wo ON wo.id = ws.observation_id
             JOIN users u ON ws.user_id = u.id
             WHERE ws.user_id = :userId
             ORDER BY ws.observed_at ASC
@@ -3,6 +3,7 @@ package org.github.tess1o.geopulse.insight.service.badge;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
 import org.github.tess1o.geopulse.insight.model.Badge;
 import org.github.tess1o.geopulse.shared.service.TimestampUtils;
 
@@ -10,15 +11,21 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @ApplicationScoped
 public class FirstMonthBadgeCalculator implements BadgeCalculator {
 
     private final EntityManager entityManager;
+    private final GpsPointRepository gpsPointRepository;
 
-    public FirstMonthBadgeCalculator(EntityManager entityManager) {
+    public FirstMonthBadgeCalculator(EntityManager entityManager, GpsPointRepository gpsPointRepository) {
         this.entityManager = entityManager;
+        this.gpsPointRepository = gpsPointRepository;
     }
 
     @Override
@@ -28,17 +35,47 @@ public class FirstMonthBadgeCalculator implements BadgeCalculator {
 
     @Override
     public Badge calculateBadge(UUID userId) {
+        if (gpsPointRepository.hasArchivedPoints(userId, null, null)) {
+            return calculateBadgeWithArchive(userId);
+        }
+
         int[] trackingData = getTrackingDays(userId);
         int trackedDays = trackingData[0];
         boolean firstMonthComplete = trackedDays >= 30;
 
+        return badge(firstMonthComplete, firstMonthComplete ? getTrackingStartDate(userId) : null);
+    }
+
+    /**
+     * Archived months are no longer in {@code gps_points}, so their UTC dates are merged with the live ones.
+     */
+    private Badge calculateBadgeWithArchive(UUID userId) {
+        @SuppressWarnings("unchecked")
+        List<LocalDate> liveDates = entityManager.createNativeQuery("""
+                        SELECT DISTINCT DATE(timestamp AT TIME ZONE 'UTC')
+                        FROM gps_points
+                        WHERE user_id = :userId
+                        """)
+                .setParameter("userId", userId)
+                .getResultList();
+
+        Set<LocalDate> trackedDates = new HashSet<>(liveDates);
+        trackedDates.addAll(gpsPointRepository.findArchivedTrackingDates(userId, ZoneOffset.UTC));
+        boolean firstMonthComplete = trackedDates.size() >= 30;
+
+        return badge(firstMonthComplete, firstMonthComplete
+                ? Collections.min(trackedDates).format(DateTimeFormatter.ofPattern("MMMM d, yyyy"))
+                : null);
+    }
+
+    private Badge badge(boolean firstMonthComplete, String earnedDate) {
         return new Badge(
                 getBadgeId(),
                 "First Month Complete!",
                 "Successfully tracked for 30 days",
                 "🎉",
                 firstMonthComplete,
-                firstMonthComplete ? getTrackingStartDate(userId) : null,
+                earnedDate,
                 null, null, null
         );
     }
@@ -2,8 +2,13 @@ package org.github.tess1o.geopulse.insight.service.badge;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityManager;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
 import org.github.tess1o.geopulse.insight.model.Badge;
+import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+import org.github.tess1o.geopulse.streaming.iterator.StreamingGpsIterator;
+import org.github.tess1o.geopulse.streaming.model.domain.GPSPoint;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @ApplicationScoped
@@ -11,6 +16,9 @@ public class SpeedBadgeCalculator {
 
     private static final int MAX_JUMP = 2000;
     private static final int MAX_SPEED_KM_H = 210;
+    private static final int MIN_SECONDS_DIFF = 3;
+    private static final int MAX_SECONDS_DIFF = 120;
+    private static final int ARCHIVE_BUFFER_SIZE = 5000;
 
     private static final String QUERY = """
             WITH ordered AS (
@@ -43,19 +51,17 @@ public class SpeedBadgeCalculator {
             """;
 
     private final EntityManager entityManager;
+    private final GpsPointRepository gpsPointRepository;
 
-    public SpeedBadgeCalculator(EntityManager entityManager) {
+    public SpeedBadgeCalculator(EntityManager entityManager, GpsPointRepository gpsPointRepository) {
         this.entityManager = entityManager;
+        this.gpsPointRepository = gpsPointRepository;
     }
 
     public Badge calculateSpeedBadget(UUID userId, String title, int targetSpeedKmH) {
-        var query = entityManager.createNativeQuery(QUERY);
-        query.setParameter("userId", userId);
-        query.setParameter("maxSpeedKmH", MAX_SPEED_KM_H);
-        query.setParameter("maxJump", MAX_JUMP);
-
-        Number result = (Number) query.getSingleResult();
-        int maxSpeed = result != null ? result.intValue() : 0;
+        int maxSpeed = gpsPointRepository.hasArchivedPoints(userId, null, null)
+                ? findMaxSpeedWithArchive(userId)
+                : findMaxSpeed(userId);
         return Badge.builder()
                 .id("speed_deamon_%d".formatted(targetSpeedKmH))
                 .icon("\uD83C\uDFC3")
@@ -67,4 +73,40 @@ public class SpeedBadgeCalculator {
                 .earned(maxSpeed >= targetSpeedKmH)
                 .build();
     }
+
+    private int findMaxSpeed(UUID userId) {
+        var query = entityManager.createNativeQuery(QUERY);
+        query.setParameter("userId", userId);
+        query.setParameter("maxSpeedKmH", MAX_SPEED_KM_H);
+        query.setParameter("maxJump", MAX_JUMP);
+
+        Number result = (Number) query.getSingleResult();
+        return result != null ? result.intValue() : 0;
+    }
+
+    /**
+     * Same filters as {@link #QUERY}, over the merged live and archived history of a user with archived months.
+     */
+    private int findMaxSpeedWithArchive(UUID userId) {
+        StreamingGpsIterator points = new StreamingGpsIterator(
+                gpsPointRepository, userId, Instant.EPOCH, ARCHIVE_BUFFER_SIZE);
+        GPSPoint previous = null;
+        double maxSpeed = 0;
+        while (points.hasNext()) {
+            GPSPoint point = points.next();
+            if (previous != null && point.getTimestamp().isAfter(previous.getTimestamp())) {
+                double seconds = (point.getTimestamp().toEpochMilli() - previous.getTimestamp().toEpochMilli()) / 1000.0;
+                double meters = GeoUtils.haversine(previous.getLatitude(), previous.getLongitude(),
+                        point.getLatitude(), point.getLongitude());
+                if (seconds >= MIN_SECONDS_DIFF && seconds <= MAX_SECONDS_DIFF && meters < MAX_JUMP) {
+                    double speedKmH = meters / seconds * 3.6;
+                    if (speedKmH < MAX_SPEED_KM_H) {
+                        maxSpeed = Math.max(maxSpeed, speedKmH);
+                    }
+                }
+            }
+            previous = point;
+        }
+        return (int) maxSpeed;
+    }
 }
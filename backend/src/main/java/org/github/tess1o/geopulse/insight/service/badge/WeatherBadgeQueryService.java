@@ -31,47 +31,53 @@ public class WeatherBadgeQueryService {
 
     private static final String COUNT_RAINY_SAMPLES_QUERY = """
             SELECT COUNT(*)
-            FROM weather_samples
-            WHERE user_id = :userId
-              AND precipitation > 0
+            FROM weather_samples ws
+            JOIN weather_observations wo ON wo.id = ws.observation_id
+            WHERE ws.user_id = :userId
+              AND wo.precipitation > 0
             """;
 
     private static final String NTH_RAINY_SAMPLE_QUERY = """
-            SELECT observed_at
-            FROM weather_samples
-            WHERE user_id = :userId
-              AND precipitation > 0
-            ORDER BY observed_at ASC
+            SELECT ws.observed_at
+            FROM weather_samples ws
+            JOIN weather_observations wo ON wo.id = ws.observation_id
+            WHERE ws.user_id = :userId
+              AND wo.precipitation > 0
+            ORDER BY ws.observed_at ASC
             LIMIT 1 OFFSET :offset
             """;
 
     private static final String MAX_TEMPERATURE_QUERY = """
-            SELECT MAX(temperature)
-            FROM weather_samples
-            WHERE user_id = :userId
+            SELECT MAX(wo.temperature)
+            FROM weather_samples ws
+            JOIN weather_observations wo ON wo.id = ws.observation_id
+            WHERE ws.user_id = :userId
             """;
 
     private static final String FIRST_HEATWAVE_SAMPLE_QUERY = """
-            SELECT observed_at
-            FROM weather_samples
-            WHERE user_id = :userId
-              AND temperature >= :threshold
-            ORDER BY observed_at ASC
+            SELECT ws.observed_at
+            FROM weather_samples ws
+            JOIN weather_observations wo ON wo.id = ws.observation_id
+            WHERE ws.user_id = :userId
+              AND wo.temperature >= :threshold
+            ORDER BY ws.observed_at ASC
             LIMIT 1
             """;
 
     private static final String MIN_TEMPERATURE_QUERY = """
-            SELECT MIN(temperature)
-            FROM weather_samples
-            WHERE user_id = :userId
+            SELECT MIN(wo.temperature)
+            FROM weather_samples ws
+            JOIN weather_observations wo ON wo.id = ws.observation_id
+            WHERE ws.user_id = :userId
             """;
 
     private static final String FIRST_FROST_SAMPLE_QUERY = """
-            SELECT observed_at
-            FROM weather_samples
-            WHERE user_id = :userId
-              AND temperature <= :threshold
-            ORDER BY observed_at ASC
+            SELECT ws.observed_at
+            FROM weather_samples ws
+            JOIN weather_observations wo ON wo.id = ws.observation_id
+            WHERE ws.user_id = :userId
+              AND wo.temperature <= :threshold
+            ORDER BY ws.observed_at ASC
             LIMIT 1
             """;
 
@@ -3,11 +3,14 @@ package org.github.tess1o.geopulse.insight.service.badge;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
 import org.github.tess1o.geopulse.insight.model.Badge;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.TreeSet;
 import java.util.UUID;
 
 @ApplicationScoped
@@ -21,10 +24,18 @@ public class WeekStreakBadgeCalculator implements BadgeCalculator {
             ORDER BY tracking_date ASC
             """;
 
+    private static final String USER_TIMEZONE_QUERY = """
+            SELECT timezone
+            FROM users
+            WHERE id = :userId
+            """;
+
     private final EntityManager entityManager;
+    private final GpsPointRepository gpsPointRepository;
 
-    public WeekStreakBadgeCalculator(EntityManager entityManager) {
+    public WeekStreakBadgeCalculator(EntityManager entityManager, GpsPointRepository gpsPointRepository) {
         this.entityManager = entityManager;
+        this.gpsPointRepository = gpsPointRepository;
     }
 
     @Override
@@ -38,6 +49,9 @@ public class WeekStreakBadgeCalculator implements BadgeCalculator {
         query.setParameter("userId", userId);
 
         List<LocalDate> trackingDates = (List<LocalDate>) query.getResultList();
+        if (gpsPointRepository.hasArchivedPoints(userId, null, null)) {
+            trackingDates = withArchivedDates(userId, trackingDates);
+        }
 
         if (trackingDates == null || trackingDates.isEmpty()) {
             return Badge.builder()
@@ -85,4 +99,16 @@ public class WeekStreakBadgeCalculator implements BadgeCalculator {
                 .earnedDate(earned ? maxStreakStartDate.format(DateTimeFormatter.ISO_DATE) : null)
                 .build();
     }
+
+    /**
+     * Archived months are no longer in {@code gps_points}; their dates in the user's timezone are merged in order.
+     */
+    private List<LocalDate> withArchivedDates(UUID userId, List<LocalDate> liveDates) {
+        String timezone = (String) entityManager.createNativeQuery(USER_TIMEZONE_QUERY)
+                .setParameter("userId", userId)
+                .getSingleResult();
+        TreeSet<LocalDate> dates = new TreeSet<>(liveDates);
+        dates.addAll(gpsPointRepository.findArchivedTrackingDates(userId, ZoneId.of(timezone)));
+        return List.copyOf(dates);
+    }
 }
@@ -0,0 +1,41 @@
+package org.github.tess1o.geopulse.livelocation.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Single server-sent event of a live location stream.
+ * Streams carry only changes; clients load the initial location through the regular REST endpoints.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveLocationUpdate {
+
+    public enum Type {
+        LOCATION,
+        HEARTBEAT
+    }
+
+    private Type type;
+    /**
+     * Whose location this is. Always null on shared link streams, which only ever carry the link owner.
+     */
+    private UUID userId;
+    private Double latitude;
+    private Double longitude;
+    private Instant timestamp;
+    private Double accuracy;
+    private Double altitude;
+    private Double velocity;
+
+    public static LiveLocationUpdate heartbeat() {
+        return LiveLocationUpdate.builder().type(Type.HEARTBEAT).build();
+    }
+}
@@ -0,0 +1,241 @@
+package org.github.tess1o.geopulse.livelocation.service;
+
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.gps.events.GpsPointPersistedEvent;
+import org.github.tess1o.geopulse.gps.model.GpsPointPathPointDTO;
+import org.github.tess1o.geopulse.livelocation.model.LiveLocationUpdate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process fan-out of freshly stored GPS points to open live location streams.
+ * <p>
+ * Permissions are resolved once when a stream is opened; afterwards a new point costs a map lookup and an
+ * emit per subscriber, with no database access. Friend permission changes and shared link edits call back
+ * into the hub ({@link #revokeViewer}, {@link #grantViewer}, {@link #closeSharedLink}) so open streams
+ * follow them without polling.
+ */
+@ApplicationScoped
+@Slf4j
+public class LiveLocationHub {
+
+    @ConfigProperty(name = "geopulse.live-location.min-interval-ms", defaultValue = "1000")
+    long minIntervalMillis;
+
+    @ConfigProperty(name = "geopulse.live-location.heartbeat-seconds", defaultValue = "25")
+    long heartbeatSeconds;
+
+    @ConfigProperty(name = "geopulse.live-location.max-streams", defaultValue = "1000")
+    int maxStreams;
+
+    @ConfigProperty(name = "geopulse.live-location.max-streams-per-viewer", defaultValue = "5")
+    int maxStreamsPerViewer;
+
+    /**
+     * Events buffered for a slow client before its stream is dropped.
+     */
+    @ConfigProperty(name = "geopulse.live-location.buffer-size", defaultValue = "64")
+    int bufferSize;
+
+    private final Set<LiveLocationSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Set<LiveLocationSubscription>> subscriptionsBySubject = new ConcurrentHashMap<>();
+    private final Map<UUID, Instant> lastPublishedTimestamps = new ConcurrentHashMap<>();
+
+    /**
+     * Open a stream of location updates for the given friends of a user.
+     */
+    public Multi<LiveLocationUpdate> subscribeAsViewer(UUID viewerUserId, Collection<UUID> subjectUserIds) {
+        return subscribe(viewerUserId, null, subjectUserIds, null);
+    }
+
+    /**
+     * Open a stream of the link owner's location updates that completes when the link or its access token expires.
+     */
+    public Multi<LiveLocationUpdate> subscribeToSharedLink(UUID linkId, UUID ownerUserId, Instant expiresAt) {
+        return subscribe(null, linkId, List.of(ownerUserId), expiresAt);
+    }
+
+    /**
+     * Cheap check used by the ingest path to skip building events nobody listens to.
+     */
+    public boolean hasSubscribers(UUID subjectUserId) {
+        return subjectUserId != null && subscriptionsBySubject.containsKey(subjectUserId);
+    }
+
+    void onGpsPointPersisted(@Observes(during = TransactionPhase.AFTER_SUCCESS) GpsPointPersistedEvent event) {
+        publish(event.getUserId(), event.getLatestPoint());
+    }
+
+    public void publish(UUID subjectUserId, GpsPointPathPointDTO point) {
+        if (point == null || point.getTimestamp() == null || !hasSubscribers(subjectUserId)) {
+            return;
+        }
+
+        // Offline clients upload their backlog later; never move the live marker backwards
+        Instant timestamp = point.getTimestamp();
+        Instant latest = lastPublishedTimestamps.merge(subjectUserId, timestamp,
+                (previous, candidate) -> candidate.isAfter(previous) ? candidate : previous);
+        if (!latest.equals(timestamp)) {
+            return;
+        }
+
+        Set<LiveLocationSubscription> subjectSubscriptions = subscriptionsBySubject.get(subjectUserId);
+        if (subjectSubscriptions == null) {
+            return;
+        }
+        LiveLocationUpdate update = LiveLocationUpdate.builder()
+                .type(LiveLocationUpdate.Type.LOCATION)
+                .userId(subjectUserId)
+                .latitude(point.getLatitude())
+                .longitude(point.getLongitude())
+                .timestamp(timestamp)
+                .accuracy(point.getAccuracy())
+                .altitude(point.getAltitude())
+                .velocity(point.getVelocity())
+                .build();
+        long now = System.currentTimeMillis();
+        for (LiveLocationSubscription subscription : subjectSubscriptions) {
+            subscription.offer(subjectUserId, update, now, minIntervalMillis);
+        }
+    }
+
+    /**
+     * Stop sending the subject's location to the viewer's open streams (friend removed or sharing turned off).
+     */
+    public void revokeViewer(UUID subjectUserId, UUID viewerUserId) {
+        Set<LiveLocationSubscription> subjectSubscriptions = subscriptionsBySubject.get(subjectUserId);
+        if (subjectSubscriptions == null) {
+            return;
+        }
+        for (LiveLocationSubscription subscription : subjectSubscriptions) {
+            if (viewerUserId.equals(subscription.getViewerUserId())) {
+                subscription.removeSubject(subjectUserId);
+                detach(subjectUserId, subscription);
+            }
+        }
+    }
+
+    /**
+     * Start sending the subject's location to the viewer's already open streams (sharing turned on).
+     */
+    public void grantViewer(UUID subjectUserId, UUID viewerUserId) {
+        for (LiveLocationSubscription subscription : subscriptions) {
+            if (viewerUserId.equals(subscription.getViewerUserId()) && subscription.addSubject(subjectUserId)) {
+                attach(subjectUserId, subscription);
+            }
+        }
+    }
+
+    /**
+     * Complete all streams opened through a shared link, e.g. after it was edited or deleted.
+     * Viewers reconnect and go through token and link validation again.
+     */
+    public void closeSharedLink(UUID linkId) {
+        for (LiveLocationSubscription subscription : subscriptions) {
+            if (linkId.equals(subscription.getLinkId())) {
+                subscription.close();
+            }
+        }
+    }
+
+    @Scheduled(every = "${geopulse.live-location.flush-interval:1s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flushPending() {
+        flush(System.currentTimeMillis());
+    }
+
+    void flush(long nowMillis) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.ofEpochMilli(nowMillis);
+        long heartbeatIntervalMillis = heartbeatSeconds * 1000L;
+        for (LiveLocationSubscription subscription : subscriptions) {
+            if (subscription.isExpired(now)) {
+                subscription.close();
+            } else {
+                subscription.flush(nowMillis, minIntervalMillis, heartbeatIntervalMillis);
+            }
+        }
+    }
+
+    int streamCount() {
+        return subscriptions.size();
+    }
+
+    private Multi<LiveLocationUpdate> subscribe(UUID viewerUserId, UUID linkId, Collection<UUID> subjectUserIds,
+                                                Instant expiresAt) {
+        ensureCapacity(viewerUserId, linkId);
+        return Multi.createFrom().<LiveLocationUpdate>emitter(emitter -> {
+            LiveLocationSubscription subscription = new LiveLocationSubscription(
+                    viewerUserId, linkId, subjectUserIds, expiresAt, emitter, System.currentTimeMillis());
+            emitter.onTermination(() -> unregister(subscription));
+            subscriptions.add(subscription);
+            subscription.getSubjects().forEach(subject -> attach(subject, subscription));
+            if (subscription.isClosed()) {
+                unregister(subscription);
+                return;
+            }
+            // Opens the stream right away so clients and proxies see the response start
+            emitter.emit(LiveLocationUpdate.heartbeat());
+            log.debug("Live location stream opened: viewer={} link={} subjects={}",
+                    viewerUserId, linkId, subjectUserIds.size());
+        }, bufferSize);
+    }
+
+    private void ensureCapacity(UUID viewerUserId, UUID linkId) {
+        if (subscriptions.size() >= maxStreams) {
+            throw new ServiceUnavailableException("Too many open live location streams");
+        }
+        long perViewer = subscriptions.stream()
+                .filter(subscription -> (viewerUserId != null && viewerUserId.equals(subscription.getViewerUserId()))
+                        || (linkId != null && linkId.equals(subscription.getLinkId())))
+                .count();
+        if (perViewer >= maxStreamsPerViewer) {
+            throw new ClientErrorException("Too many open live location streams", Response.Status.TOO_MANY_REQUESTS);
+        }
+    }
+
+    private void unregister(LiveLocationSubscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            subscription.getSubjects().forEach(subject -> detach(subject, subscription));
+            log.debug("Live location stream closed: viewer={} link={}",
+                    subscription.getViewerUserId(), subscription.getLinkId());
+        }
+    }
+
+    private void attach(UUID subjectUserId, LiveLocationSubscription subscription) {
+        subscriptionsBySubject.compute(subjectUserId, (ignored, subjectSubscriptions) -> {
+            Set<LiveLocationSubscription> result = Objects.requireNonNullElseGet(
+                    subjectSubscriptions, ConcurrentHashMap::newKeySet);
+            result.add(subscription);
+            return result;
+        });
+    }
+
+    private void detach(UUID subjectUserId, LiveLocationSubscription subscription) {
+        subscriptionsBySubject.computeIfPresent(subjectUserId, (ignored, subjectSubscriptions) -> {
+            subjectSubscriptions.remove(subscription);
+            return subjectSubscriptions.isEmpty() ? null : subjectSubscriptions;
+        });
+        if (!subscriptionsBySubject.containsKey(subjectUserId)) {
+            lastPublishedTimestamps.remove(subjectUserId);
+        }
+    }
+}
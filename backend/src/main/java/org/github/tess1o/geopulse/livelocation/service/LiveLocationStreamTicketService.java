@@ -0,0 +1,94 @@
+package org.github.tess1o.geopulse.livelocation.service;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived, single-use tickets for opening a shared link's location stream.
+ * <p>
+ * Browsers' EventSource cannot send an Authorization header, so the stream URL has to carry the credential.
+ * Instead of the link's access token, viewers exchange that token for a ticket first: a ticket only opens one
+ * stream of one link, is consumed by that request and expires after a few seconds, so a URL that ends up in
+ * logs or browser history is useless.
+ */
+@ApplicationScoped
+public class LiveLocationStreamTicketService {
+
+    private static final int TICKET_BYTES = 32;
+
+    @ConfigProperty(name = "geopulse.live-location.stream-ticket-ttl-seconds", defaultValue = "30")
+    long ticketTtlSeconds;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, StreamTicket> tickets = new ConcurrentHashMap<>();
+
+    /**
+     * @param value     opaque ticket to pass as the {@code ticket} query parameter
+     * @param expiresAt when the ticket can no longer be redeemed
+     */
+    public record IssuedTicket(String value, Instant expiresAt) {
+    }
+
+    /**
+     * A redeemed ticket.
+     *
+     * @param linkId          link the ticket was issued for
+     * @param accessExpiresAt when the access token the ticket was exchanged for expires; the stream must end by then
+     * @param expiresAt       when the ticket itself expired or expires
+     */
+    public record StreamTicket(UUID linkId, Instant accessExpiresAt, Instant expiresAt) {
+    }
+
+    /**
+     * Issue a ticket for one stream of the link.
+     *
+     * @param accessExpiresAt expiry of the access token presented for the exchange
+     */
+    public IssuedTicket issue(UUID linkId, Instant accessExpiresAt) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant expiresAt = Instant.now().plusSeconds(Math.max(1L, ticketTtlSeconds));
+        if (accessExpiresAt.isBefore(expiresAt)) {
+            expiresAt = accessExpiresAt;
+        }
+        tickets.put(ticket, new StreamTicket(linkId, accessExpiresAt, expiresAt));
+        return new IssuedTicket(ticket, expiresAt);
+    }
+
+    /**
+     * Consume a ticket. A ticket is removed on the first attempt, even one for another link.
+     *
+     * @return the ticket, or empty if it is unknown, expired, already used or issued for another link
+     */
+    public Optional<StreamTicket> redeem(String ticket, UUID linkId) {
+        if (ticket == null || ticket.isBlank()) {
+            return Optional.empty();
+        }
+        StreamTicket redeemed = tickets.remove(ticket);
+        if (redeemed == null || !redeemed.linkId().equals(linkId) || !redeemed.expiresAt().isAfter(Instant.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(redeemed);
+    }
+
+    @Scheduled(every = "1m", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purgeExpired() {
+        Instant now = Instant.now();
+        tickets.values().removeIf(ticket -> !ticket.expiresAt().isAfter(now));
+    }
+
+    int size() {
+        return tickets.size();
+    }
+}
@@ -0,0 +1,121 @@
+package org.github.tess1o.geopulse.livelocation.service;
+
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import org.github.tess1o.geopulse.livelocation.model.LiveLocationUpdate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One open live location stream: either a user watching friends or an anonymous viewer of a shared link.
+ * <p>
+ * Updates for a subject are sent at most once per minimum interval; anything arriving faster replaces the
+ * pending update for that subject, so a burst of points collapses into the newest one.
+ */
+final class LiveLocationSubscription {
+
+    private final UUID viewerUserId;
+    private final UUID linkId;
+    private final Instant expiresAt;
+    private final Set<UUID> subjects = ConcurrentHashMap.newKeySet();
+    private final MultiEmitter<? super LiveLocationUpdate> emitter;
+
+    private final Map<UUID, LiveLocationUpdate> pending = new LinkedHashMap<>();
+    private final Map<UUID, Long> lastSentAtMillis = new HashMap<>();
+    private long lastEmitAtMillis;
+
+    LiveLocationSubscription(UUID viewerUserId, UUID linkId, Collection<UUID> subjects, Instant expiresAt,
+                             MultiEmitter<? super LiveLocationUpdate> emitter, long nowMillis) {
+        this.viewerUserId = viewerUserId;
+        this.linkId = linkId;
+        this.expiresAt = expiresAt;
+        this.subjects.addAll(subjects);
+        this.emitter = emitter;
+        this.lastEmitAtMillis = nowMillis;
+    }
+
+    UUID getViewerUserId() {
+        return viewerUserId;
+    }
+
+    UUID getLinkId() {
+        return linkId;
+    }
+
+    Set<UUID> getSubjects() {
+        return subjects;
+    }
+
+    boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+
+    boolean isClosed() {
+        return emitter.isCancelled();
+    }
+
+    boolean addSubject(UUID subject) {
+        return subjects.add(subject);
+    }
+
+    synchronized void removeSubject(UUID subject) {
+        subjects.remove(subject);
+        pending.remove(subject);
+        lastSentAtMillis.remove(subject);
+    }
+
+    synchronized void offer(UUID subject, LiveLocationUpdate update, long nowMillis, long minIntervalMillis) {
+        if (isClosed() || !subjects.contains(subject)) {
+            return;
+        }
+        Long lastSent = lastSentAtMillis.get(subject);
+        if (lastSent == null || nowMillis - lastSent >= minIntervalMillis) {
+            pending.remove(subject);
+            send(subject, update, nowMillis);
+        } else {
+            pending.put(subject, update);
+        }
+    }
+
+    /**
+     * Send coalesced updates whose interval has passed, and a heartbeat when the stream has been idle
+     * long enough that proxies might close it.
+     */
+    synchronized void flush(long nowMillis, long minIntervalMillis, long heartbeatIntervalMillis) {
+        if (isClosed()) {
+            return;
+        }
+        Iterator<Map.Entry<UUID, LiveLocationUpdate>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, LiveLocationUpdate> entry = iterator.next();
+            Long lastSent = lastSentAtMillis.get(entry.getKey());
+            if (lastSent == null || nowMillis - lastSent >= minIntervalMillis) {
+                iterator.remove();
+                send(entry.getKey(), entry.getValue(), nowMillis);
+            }
+        }
+        if (nowMillis - lastEmitAtMillis >= heartbeatIntervalMillis) {
+            emitter.emit(LiveLocationUpdate.heartbeat());
+            lastEmitAtMillis = nowMillis;
+        }
+    }
+
+    void close() {
+        emitter.complete();
+    }
+
+    private void send(UUID subject, LiveLocationUpdate update, long nowMillis) {
+        // Shared link viewers are anonymous and must not learn the owner's user id
+        LiveLocationUpdate payload = linkId == null ? update : update.toBuilder().userId(null).build();
+        emitter.emit(payload);
+        lastSentAtMillis.put(subject, nowMillis);
+        lastEmitAtMillis = nowMillis;
+    }
+}
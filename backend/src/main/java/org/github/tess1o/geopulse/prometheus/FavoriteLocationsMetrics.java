@@ -10,11 +10,13 @@ import jakarta.inject.Singleton;
 import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.github.tess1o.geopulse.favorites.repository.FavoritesRepository;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 import org.github.tess1o.geopulse.user.repository.UserRepository;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -29,9 +31,6 @@ public class FavoriteLocationsMetrics {
     @Inject
     MeterRegistry registry;
 
-    @Inject
-    FavoritesRepository repository;
-
     @Inject
     UserRepository userRepository;
 
@@ -72,14 +71,23 @@ public class FavoriteLocationsMetrics {
         setMetricValues();
     }
 
+    // One grouped count per refresh instead of a count per user; adding favorites fires no change event
     private void setMetricValues() {
-        long total = repository.count();
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "SELECT user_id, COUNT(*) FROM favorite_locations GROUP BY user_id")
+                .getResultList();
+        Map<UUID, Long> countsByUser = new HashMap<>();
+        long total = 0;
+        for (Object[] row : rows) {
+            long count = ((Number) row[1]).longValue();
+            countsByUser.put((UUID) row[0], count);
+            total += count;
+        }
         favoriteLocationsTotal.set(total);
 
         // Calculate average favorites per user (among users with favorites)
-        Long usersWithFavorites = (Long) entityManager.createNativeQuery(
-                "SELECT COUNT(DISTINCT user_id) FROM favorite_locations")
-                .getSingleResult();
+        long usersWithFavorites = countsByUser.size();
         if (usersWithFavorites > 0) {
             avgFavoritesPerUser.set(total / usersWithFavorites);
         } else {
@@ -96,7 +104,7 @@ public class FavoriteLocationsMetrics {
                         .register(registry);
                 return h;
             });
-            countHolder.set(repository.countByUserId(user.getId()));
+            countHolder.set(countsByUser.getOrDefault(user.getId(), 0L));
         }
     }
 }
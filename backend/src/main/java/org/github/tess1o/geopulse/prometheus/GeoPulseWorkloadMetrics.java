@@ -9,6 +9,7 @@ import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -49,6 +50,21 @@ public class GeoPulseWorkloadMetrics {
         }
     }
 
+    public void recordDuration(String name, Duration duration, String... tags) {
+        if (!isEnabled() || duration == null || duration.isNegative()) {
+            return;
+        }
+        try {
+            Timer.builder(name)
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(duration);
+        } catch (Exception e) {
+            log.debug("Failed to record workload timer {}", name, e);
+        }
+    }
+
     public void increment(String name, String... tags) {
         increment(name, 1.0d, tags);
     }
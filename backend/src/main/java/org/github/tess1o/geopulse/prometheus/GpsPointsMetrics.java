@@ -5,32 +5,71 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.runtime.StartupEvent;
 import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.gps.events.GpsPointsChangedEvent;
 import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.shared.service.TimestampUtils;
+import org.github.tess1o.geopulse.user.events.UserAccessChangedEvent;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 import org.github.tess1o.geopulse.user.repository.UserRepository;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * GPS point counts, overall and per user, including archived points.
+ * <p>
+ * Per-user counts and latest timestamps are loaded with one grouped query at startup and kept in memory.
+ * Real-time ingest adds its points as they are committed; any other change (imports, edits, deletes) marks the
+ * user, and only marked users are counted again on the next refresh. A full recount at the reconcile interval
+ * corrects any drift.
+ * <p>
+ * A count read from the database may or may not include points committed while it runs, so an added-points event
+ * arriving during a recount cannot be applied on top of it; such events only mark the user for the next refresh.
+ */
 @Singleton
 @Slf4j
 public class GpsPointsMetrics {
 
+    private static final String USER_COUNTS_SQL = """
+            SELECT user_id, SUM(points), MAX(latest)
+            FROM (SELECT user_id, COUNT(*) AS points, MAX(timestamp) AS latest
+                  FROM gps_points
+                  %1$s
+                  GROUP BY user_id
+                  UNION ALL
+                  SELECT user_id, SUM(point_count), MAX(last_timestamp)
+                  FROM gps_point_archive_blocks
+                  %1$s
+                  GROUP BY user_id) counts
+            GROUP BY user_id
+            """;
+
     private final AtomicLong totalGpsPoints = new AtomicLong();
     private final AtomicLong lastGpsTimestamp = new AtomicLong();
     private final AtomicLong gpsPointsLast24h = new AtomicLong();
     private final AtomicLong avgGpsPointsPerUser = new AtomicLong();
-    private final Map<String, AtomicLong> gpsPerUser = new ConcurrentHashMap<>();
-    private final Map<String, AtomicLong> lastestGpsPerUser = new ConcurrentHashMap<>();
+    private final Set<UUID> changedUsers = ConcurrentHashMap.newKeySet();
+    // Events apply their points under the read lock; recounts hold the write lock
+    private final ReentrantReadWriteLock countLock = new ReentrantReadWriteLock();
+    private PerUserGauge gpsPerUser;
+    private PerUserGauge latestGpsPerUser;
+    private volatile boolean seeded;
 
     @Inject
     MeterRegistry registry;
@@ -57,8 +96,13 @@ public class GpsPointsMetrics {
         }
 
         try {
+            gpsPerUser = new PerUserGauge(registry, "gps_points_per_user_total",
+                    "Total number of GPS points for this user");
+            latestGpsPerUser = new PerUserGauge(registry, "gps_last_timestamp_per_user",
+                    "Unix timestamp of last GPS point for this user");
+
             // Set all metric values before registering gauges
-            setMetricValues();
+            reconcile();
 
             // Register overall metrics (without user tags)
             Gauge.builder("gps_points_total", totalGpsPoints, AtomicLong::get)
@@ -81,58 +125,120 @@ public class GpsPointsMetrics {
 
     @Scheduled(every = "${geopulse.prometheus.refresh-interval:10m}")
     void refreshTotalGps() {
-        if (!prometheusEnabled || !gpsPointsMetricsEnabled) {
+        if (!isEnabled() || !seeded) {
+            return;
+        }
+        recountChangedUsers();
+    }
+
+    @Scheduled(every = "${geopulse.prometheus.reconcile-interval:6h}",
+            delayed = "${geopulse.prometheus.reconcile-interval:6h}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reconcileGps() {
+        if (!isEnabled() || !seeded) {
+            return;
+        }
+        reconcile();
+    }
+
+    void onGpsPointsChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) GpsPointsChangedEvent event) {
+        if (!seeded) {
             return;
         }
-        setMetricValues();
+        UUID userId = event.getUserId();
+        Lock applyLock = countLock.readLock();
+        if (event.getAddedPoints() == 0 || !applyLock.tryLock()) {
+            changedUsers.add(userId);
+            return;
+        }
+        try {
+            if (!gpsPerUser.add(userId, event.getAddedPoints())) {
+                changedUsers.add(userId);
+                return;
+            }
+            totalGpsPoints.addAndGet(event.getAddedPoints());
+            if (event.getLatestTimestamp() != null) {
+                long latest = event.getLatestTimestamp().getEpochSecond();
+                latestGpsPerUser.raiseTo(userId, latest);
+                lastGpsTimestamp.accumulateAndGet(latest, Math::max);
+            }
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    void onUserAccessChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserAccessChangedEvent event) {
+        if (seeded) {
+            changedUsers.add(event.getUserId());
+        }
+    }
+
+    void reconcile() {
+        countLock.writeLock().lock();
+        try {
+            // The full count covers every user marked so far
+            changedUsers.clear();
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.createNativeQuery(USER_COUNTS_SQL.formatted(""))
+                    .getResultList();
+            Map<UUID, Object[]> countsByUser = new HashMap<>();
+            rows.forEach(row -> countsByUser.put((UUID) row[0], row));
+
+            for (UserEntity user : userRepository.findAll().stream().toList()) {
+                setUserCounts(user, countsByUser.get(user.getId()));
+            }
+            seeded = true;
+            publishTotals();
+        } finally {
+            countLock.writeLock().unlock();
+        }
+    }
+
+    void recountChangedUsers() {
+        countLock.writeLock().lock();
+        try {
+            for (UUID userId : List.copyOf(changedUsers)) {
+                changedUsers.remove(userId);
+                Optional<UserEntity> user = userRepository.findByIdOptional(userId);
+                if (user.isEmpty()) {
+                    gpsPerUser.remove(userId);
+                    latestGpsPerUser.remove(userId);
+                    continue;
+                }
+                @SuppressWarnings("unchecked")
+                List<Object[]> rows = entityManager.createNativeQuery(USER_COUNTS_SQL.formatted("WHERE user_id = :userId"))
+                        .setParameter("userId", userId)
+                        .getResultList();
+                setUserCounts(user.get(), rows.isEmpty() ? null : rows.get(0));
+            }
+            publishTotals();
+        } finally {
+            countLock.writeLock().unlock();
+        }
     }
 
-    private void setMetricValues() {
-        long total = gpsRepository.count();
+    private void setUserCounts(UserEntity user, Object[] row) {
+        long points = row != null && row[1] != null ? ((Number) row[1]).longValue() : 0;
+        Instant latest = row != null ? TimestampUtils.getInstantSafe(row[2]) : null;
+        gpsPerUser.set(user.getId(), user.getEmail(), points);
+        latestGpsPerUser.set(user.getId(), user.getEmail(), latest != null ? latest.getEpochSecond() : 0);
+    }
+
+    private void publishTotals() {
+        long total = gpsPerUser.sum();
         totalGpsPoints.set(total);
-        gpsRepository.findLatest().ifPresent(
-                latest -> lastGpsTimestamp.set(latest.getTimestamp().toEpochMilli() / 1000)
-        );
+        lastGpsTimestamp.set(latestGpsPerUser.max());
 
-        // Count GPS points in last 24 hours
-        Long pointsLast24h = getPointsLast24h();
-        gpsPointsLast24h.set(pointsLast24h);
+        // Count GPS points in last 24 hours; a range read on the timestamp index
+        gpsPointsLast24h.set(getPointsLast24h());
 
         // Calculate average GPS points per user (among users with GPS data)
-        Long usersWithData = (Long) entityManager.createNativeQuery(
-                        "SELECT COUNT(DISTINCT user_id) FROM gps_points")
-                .getSingleResult();
+        long usersWithData = gpsPerUser.countUsers(count -> count > 0);
         if (usersWithData > 0) {
             avgGpsPointsPerUser.set(total / usersWithData);
         } else {
             avgGpsPointsPerUser.set(0);
         }
-
-        for (UserEntity user : userRepository.findAll().stream().toList()) {
-            // GPS points per user
-            AtomicLong countHolder = gpsPerUser.computeIfAbsent(user.getEmail(), e -> {
-                AtomicLong h = new AtomicLong();
-                Gauge.builder("gps_points_per_user_total", h, AtomicLong::get)
-                        .tag("user", e)
-                        .description("Total number of GPS points for this user")
-                        .register(registry);
-                return h;
-            });
-            countHolder.set(gpsRepository.countByUser(user.getId()));
-
-            // Latest GPS timestamp per user
-            AtomicLong latestTimestampHolder = lastestGpsPerUser.computeIfAbsent(user.getEmail(), e -> {
-                AtomicLong h = new AtomicLong();
-                Gauge.builder("gps_last_timestamp_per_user", h, AtomicLong::get)
-                        .tag("user", e)
-                        .description("Unix timestamp of last GPS point for this user")
-                        .register(registry);
-                return h;
-            });
-            gpsRepository.findLatest(user.getId()).map(GpsPointEntity::getTimestamp).ifPresent(
-                    t -> latestTimestampHolder.set(t.toEpochMilli() / 1000)
-            );
-        }
     }
 
     private Long getPointsLast24h() {
@@ -152,6 +258,32 @@ public class GpsPointsMetrics {
         return prometheusEnabled && gpsPointsMetricsEnabled;
     }
 
+    /**
+     * Whether per-user counts are loaded, so user activity can be answered from memory
+     * @return true once the startup count has completed
+     */
+    public boolean hasUserCounts() {
+        return isEnabled() && seeded;
+    }
+
+    /**
+     * Number of users whose latest GPS point is at or after the given time
+     * @param since lower bound of the latest point timestamp
+     * @return active users count, from memory
+     */
+    public long countUsersWithPointsSince(Instant since) {
+        long threshold = since.getEpochSecond();
+        return latestGpsPerUser.countUsers(latest -> latest > 0 && latest >= threshold);
+    }
+
+    /**
+     * Number of users with at least one GPS point, live or archived
+     * @return users with GPS data count, from memory
+     */
+    public long countUsersWithPoints() {
+        return gpsPerUser.countUsers(count -> count > 0);
+    }
+
     /**
      * Get total number of GPS points (queries DB directly if metrics disabled)
      * @return total GPS points count
@@ -0,0 +1,88 @@
+package org.github.tess1o.geopulse.prometheus;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory value of one per-user gauge, tagged with the user's email. Values are seeded and reconciled from
+ * the database and adjusted in between from change events, so a scrape never queries per user.
+ */
+final class PerUserGauge {
+
+    private final MeterRegistry registry;
+    private final String name;
+    private final String description;
+    private final Map<String, AtomicLong> byEmail = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicLong> byUser = new ConcurrentHashMap<>();
+
+    PerUserGauge(MeterRegistry registry, String name, String description) {
+        this.registry = registry;
+        this.name = name;
+        this.description = description;
+    }
+
+    void set(UUID userId, String email, long value) {
+        AtomicLong holder = byEmail.computeIfAbsent(email, e -> {
+            AtomicLong h = new AtomicLong();
+            Gauge.builder(name, h, AtomicLong::get)
+                    .tag("user", e)
+                    .description(description)
+                    .register(registry);
+            return h;
+        });
+        holder.set(value);
+        byUser.put(userId, holder);
+    }
+
+    /**
+     * @return false when the user has no value yet and must be counted from the database
+     */
+    boolean add(UUID userId, long delta) {
+        AtomicLong holder = byUser.get(userId);
+        if (holder == null) {
+            return false;
+        }
+        holder.addAndGet(delta);
+        return true;
+    }
+
+    /**
+     * @return false when the user has no value yet and must be counted from the database
+     */
+    boolean raiseTo(UUID userId, long value) {
+        AtomicLong holder = byUser.get(userId);
+        if (holder == null) {
+            return false;
+        }
+        holder.accumulateAndGet(value, Math::max);
+        return true;
+    }
+
+    /**
+     * Zero the gauge of a removed user and stop tracking them.
+     */
+    void remove(UUID userId) {
+        AtomicLong holder = byUser.remove(userId);
+        if (holder != null) {
+            holder.set(0);
+        }
+    }
+
+    long sum() {
+        return byUser.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    long max() {
+        return byUser.values().stream().mapToLong(AtomicLong::get).max().orElse(0);
+    }
+
+    long countUsers(LongPredicate predicate) {
+        return byUser.values().stream().mapToLong(AtomicLong::get).filter(predicate).count();
+    }
+}
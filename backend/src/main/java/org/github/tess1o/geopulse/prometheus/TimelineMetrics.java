@@ -5,20 +5,37 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.runtime.StartupEvent;
 import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.gps.events.GpsPointsChangedEvent;
+import org.github.tess1o.geopulse.streaming.events.TimelineDataChangedEvent;
 import org.github.tess1o.geopulse.streaming.repository.TimelineDataGapRepository;
 import org.github.tess1o.geopulse.streaming.repository.TimelineStayRepository;
 import org.github.tess1o.geopulse.streaming.repository.TimelineTripRepository;
+import org.github.tess1o.geopulse.user.events.UserAccessChangedEvent;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 import org.github.tess1o.geopulse.user.repository.UserRepository;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Timeline stay, trip and data gap counts, overall and per user.
+ * <p>
+ * Counts are loaded with one grouped query per table at startup. Timeline regeneration, GPS data deletion and
+ * user changes mark the user, and only marked users are counted again on the next refresh. A full recount at the
+ * reconcile interval corrects any drift.
+ */
 @Singleton
 @Slf4j
 public class TimelineMetrics {
@@ -26,9 +43,11 @@ public class TimelineMetrics {
     private final AtomicLong staysTotal = new AtomicLong();
     private final AtomicLong tripsTotal = new AtomicLong();
     private final AtomicLong dataGapsTotal = new AtomicLong();
-    private final Map<String, AtomicLong> staysPerUser = new ConcurrentHashMap<>();
-    private final Map<String, AtomicLong> tripsPerUser = new ConcurrentHashMap<>();
-    private final Map<String, AtomicLong> dataGapsPerUser = new ConcurrentHashMap<>();
+    private final Set<UUID> changedUsers = ConcurrentHashMap.newKeySet();
+    private PerUserGauge staysPerUser;
+    private PerUserGauge tripsPerUser;
+    private PerUserGauge dataGapsPerUser;
+    private volatile boolean seeded;
 
     @Inject
     MeterRegistry registry;
@@ -45,6 +64,9 @@ public class TimelineMetrics {
     @Inject
     UserRepository userRepository;
 
+    @Inject
+    EntityManager entityManager;
+
     @ConfigProperty(name = "geopulse.prometheus.enabled", defaultValue = "true")
     boolean prometheusEnabled;
 
@@ -58,8 +80,15 @@ public class TimelineMetrics {
         }
 
         try {
+            staysPerUser = new PerUserGauge(registry, "timeline_stays_per_user_total",
+                    "Total number of Timeline stays for this user");
+            tripsPerUser = new PerUserGauge(registry, "timeline_trips_per_user_total",
+                    "Total number of Timeline trips for this user");
+            dataGapsPerUser = new PerUserGauge(registry, "timeline_data_gaps_per_user_total",
+                    "Total number of Timeline data gaps for this user");
+
             // Set all metric values before registering gauges
-            setMetrics();
+            reconcile();
 
             // Register overall metrics (without user tags)
             Gauge.builder("timeline_stays_total", staysTotal, AtomicLong::get)
@@ -78,47 +107,90 @@ public class TimelineMetrics {
 
     @Scheduled(every = "${geopulse.prometheus.refresh-interval:10m}")
     void refreshTotals() {
-        if (!prometheusEnabled || !timelineMetricsEnabled) {
+        if (!prometheusEnabled || !timelineMetricsEnabled || !seeded) {
             return;
         }
-        setMetrics();
+        recountChangedUsers();
+        publishTotals();
     }
 
-    private void setMetrics() {
-        staysTotal.set(stayRepository.count());
-        tripsTotal.set(tripRepository.count());
-        dataGapsTotal.set(dataGapRepository.count());
+    @Scheduled(every = "${geopulse.prometheus.reconcile-interval:6h}",
+            delayed = "${geopulse.prometheus.reconcile-interval:6h}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reconcileTotals() {
+        if (!prometheusEnabled || !timelineMetricsEnabled || !seeded) {
+            return;
+        }
+        reconcile();
+    }
+
+    void onTimelineDataChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TimelineDataChangedEvent event) {
+        markChanged(event.getUserId());
+    }
+
+    // Deleting all GPS data of a user deletes the timeline with it
+    void onGpsPointsChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) GpsPointsChangedEvent event) {
+        if (event.getAddedPoints() == 0) {
+            markChanged(event.getUserId());
+        }
+    }
+
+    void onUserAccessChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserAccessChangedEvent event) {
+        markChanged(event.getUserId());
+    }
+
+    private void markChanged(UUID userId) {
+        if (seeded) {
+            changedUsers.add(userId);
+        }
+    }
+
+    private synchronized void reconcile() {
+        // The full count covers every user marked so far
+        changedUsers.clear();
+        Map<UUID, Long> stays = countByUser("timeline_stays");
+        Map<UUID, Long> trips = countByUser("timeline_trips");
+        Map<UUID, Long> dataGaps = countByUser("timeline_data_gaps");
 
         for (UserEntity user : userRepository.findAll().stream().toList()) {
-            AtomicLong stayCountHolder = staysPerUser.computeIfAbsent(user.getEmail(), e -> {
-                AtomicLong h = new AtomicLong();
-                Gauge.builder("timeline_stays_per_user_total", h, AtomicLong::get)
-                        .tag("user", e)
-                        .description("Total number of Timeline stays for this user")
-                        .register(registry);
-                return h;
-            });
-            stayCountHolder.set(stayRepository.countByUser(user.getId()));
-
-            AtomicLong tripCountHolder = tripsPerUser.computeIfAbsent(user.getEmail(), e -> {
-                AtomicLong h = new AtomicLong();
-                Gauge.builder("timeline_trips_per_user_total", h, AtomicLong::get)
-                        .tag("user", e)
-                        .description("Total number of Timeline trips for this user")
-                        .register(registry);
-                return h;
-            });
-            tripCountHolder.set(tripRepository.countByUser(user.getId()));
-
-            AtomicLong dataGapsCountHolder = dataGapsPerUser.computeIfAbsent(user.getEmail(), e -> {
-                AtomicLong h = new AtomicLong();
-                Gauge.builder("timeline_data_gaps_per_user_total", h, AtomicLong::get)
-                        .tag("user", e)
-                        .description("Total number of Timeline data gaps for this user")
-                        .register(registry);
-                return h;
-            });
-            dataGapsCountHolder.set(dataGapRepository.countByUser(user.getId()));
+            staysPerUser.set(user.getId(), user.getEmail(), stays.getOrDefault(user.getId(), 0L));
+            tripsPerUser.set(user.getId(), user.getEmail(), trips.getOrDefault(user.getId(), 0L));
+            dataGapsPerUser.set(user.getId(), user.getEmail(), dataGaps.getOrDefault(user.getId(), 0L));
+        }
+        seeded = true;
+        publishTotals();
+    }
+
+    private synchronized void recountChangedUsers() {
+        for (UUID userId : List.copyOf(changedUsers)) {
+            changedUsers.remove(userId);
+            Optional<UserEntity> user = userRepository.findByIdOptional(userId);
+            if (user.isEmpty()) {
+                staysPerUser.remove(userId);
+                tripsPerUser.remove(userId);
+                dataGapsPerUser.remove(userId);
+                continue;
+            }
+            String email = user.get().getEmail();
+            staysPerUser.set(userId, email, stayRepository.countByUser(userId));
+            tripsPerUser.set(userId, email, tripRepository.countByUser(userId));
+            dataGapsPerUser.set(userId, email, dataGapRepository.countByUser(userId));
         }
     }
+
+    private Map<UUID, Long> countByUser(String table) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT user_id, COUNT(*) FROM " + table + " GROUP BY user_id")
+                .getResultList();
+        Map<UUID, Long> counts = new HashMap<>();
+        rows.forEach(row -> counts.put((UUID) row[0], ((Number) row[1]).longValue()));
+        return counts;
+    }
+
+    private void publishTotals() {
+        staysTotal.set(staysPerUser.sum());
+        tripsTotal.set(tripsPerUser.sum());
+        dataGapsTotal.set(dataGapsPerUser.sum());
+    }
 }
@@ -40,6 +40,13 @@ public class UserMetrics {
     @ConfigProperty(name = "geopulse.prometheus.user-metrics.enabled", defaultValue = "true")
     boolean userMetricsEnabled;
 
+    private final GpsPointsMetrics gpsPointsMetrics;
+
+    @Inject
+    public UserMetrics(GpsPointsMetrics gpsPointsMetrics) {
+        this.gpsPointsMetrics = gpsPointsMetrics;
+    }
+
     void onStart(@Observes StartupEvent ev) {
         if (!prometheusEnabled || !userMetricsEnabled) {
             log.info("User metrics disabled");
@@ -78,6 +85,15 @@ public class UserMetrics {
     private void setMetricValues() {
         usersTotal.set(userRepository.count());
 
+        // Answered from the per-user GPS counts once they are loaded
+        if (gpsPointsMetrics.hasUserCounts()) {
+            Instant now = Instant.now();
+            usersActiveLast24h.set(gpsPointsMetrics.countUsersWithPointsSince(now.minus(24, ChronoUnit.HOURS)));
+            usersActiveLast7d.set(gpsPointsMetrics.countUsersWithPointsSince(now.minus(7, ChronoUnit.DAYS)));
+            usersWithGpsData.set(gpsPointsMetrics.countUsersWithPoints());
+            return;
+        }
+
         // Count users with GPS data in last 24 hours
         Instant last24h = Instant.now().minus(24, ChronoUnit.HOURS);
         Long activeUsersLast24h = (Long) entityManager.createNativeQuery(
@@ -73,8 +73,7 @@ public final class NativeSqlImportTemplates {
         (id, user_id, timestamp, coordinates, accuracy, altitude, velocity, battery,
          device_id, source_type, created_at)
         VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-        ON CONFLICT (id) DO UPDATE SET
-            timestamp = EXCLUDED.timestamp,
+        ON CONFLICT (id, timestamp) DO UPDATE SET
             coordinates = EXCLUDED.coordinates,
             accuracy = EXCLUDED.accuracy,
             altitude = EXCLUDED.altitude,
@@ -44,6 +44,11 @@ public final class GeoUtils {
      * 8 decimal places provides approximately 1.1 meter precision at the equator.
      */
     private static final int POINT_SCALE = 8;
+
+    /**
+     * Sphere radius of the Web Mercator projection (EPSG:3857), the WGS84 semi-major axis.
+     */
+    private static final double WEB_MERCATOR_RADIUS_METERS = 6_378_137.0;
     
     /**
      * Private constructor to prevent instantiation of utility class.
@@ -95,6 +100,34 @@ public final class GeoUtils {
         return EARTH_RADIUS_METERS * c;
     }
 
+    /**
+     * Web Mercator (EPSG:3857) x of a longitude, as {@code ST_Transform(..., 3857)} computes it.
+     */
+    public static double webMercatorX(double lon) {
+        return Math.toRadians(lon) * WEB_MERCATOR_RADIUS_METERS;
+    }
+
+    /**
+     * Web Mercator (EPSG:3857) y of a latitude, as {@code ST_Transform(..., 3857)} computes it.
+     */
+    public static double webMercatorY(double lat) {
+        return Math.log(Math.tan(Math.PI / 4 + Math.toRadians(lat) / 2)) * WEB_MERCATOR_RADIUS_METERS;
+    }
+
+    /**
+     * Longitude of a Web Mercator (EPSG:3857) x.
+     */
+    public static double webMercatorLongitude(double x) {
+        return Math.toDegrees(x / WEB_MERCATOR_RADIUS_METERS);
+    }
+
+    /**
+     * Latitude of a Web Mercator (EPSG:3857) y.
+     */
+    public static double webMercatorLatitude(double y) {
+        return Math.toDegrees(2 * Math.atan(Math.exp(y / WEB_MERCATOR_RADIUS_METERS)) - Math.PI / 2);
+    }
+
     /**
      * Create a JTS Point geometry from string coordinates.
      * 
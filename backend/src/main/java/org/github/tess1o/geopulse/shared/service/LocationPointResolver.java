@@ -143,7 +143,7 @@ public class LocationPointResolver {
         int totalLocations = uniqueCount;
         updateGeocodingProgress(jobId, "Starting location resolution", totalLocations, 0, 0, 0, 0, 0);
 
-        // Step 1: Batch check for favorite locations using true batch processing
+        // Step 1: Batch check for favorite locations against the user's cached favorites index
         Map<String, FavoriteLocationsDto> favoriteResults = favoriteLocationService.findByPointsBatch(userId, uniqueCoordinates);
 
         Map<String, LocationResolutionResult> results = new java.util.HashMap<>();
@@ -0,0 +1,18 @@
+package org.github.tess1o.geopulse.sharing.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Fired when a share link's settings were updated or the link was deleted.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class SharedLinkChangedEvent {
+
+    private final UUID linkId;
+}
@@ -0,0 +1,40 @@
+package org.github.tess1o.geopulse.sharing.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Immutable copy of the share link settings the public endpoints need, safe to keep across requests.
+ */
+public record SharedLinkSnapshot(
+        UUID id,
+        UUID userId,
+        ShareType shareType,
+        Instant expiresAt,
+        boolean showHistory,
+        int historyHours,
+        Instant startDate,
+        Instant endDate,
+        Boolean showCurrentLocation,
+        Boolean showNotes
+) {
+
+    public static SharedLinkSnapshot from(SharedLinkEntity entity) {
+        return new SharedLinkSnapshot(
+                entity.getId(),
+                entity.getUser().getId(),
+                entity.getShareType(),
+                entity.getExpiresAt(),
+                entity.isShowHistory(),
+                entity.getHistoryHours(),
+                entity.getStartDate(),
+                entity.getEndDate(),
+                entity.getShowCurrentLocation(),
+                entity.getShowNotes()
+        );
+    }
+
+    public boolean isActiveAt(Instant now) {
+        return expiresAt == null || expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,7 @@
+package org.github.tess1o.geopulse.sharing.model;
+
+/**
+ * A public share response together with the entity tag identifying that exact body.
+ */
+public record SharedPayload<T>(T body, String etag) {
+}
@@ -0,0 +1,17 @@
+package org.github.tess1o.geopulse.sharing.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamTicketResponse {
+
+    private String ticket;
+
+    @JsonProperty("expires_in")
+    private long expiresIn;
+}
@@ -29,8 +29,8 @@ public class SharedLinkRepository implements PanacheRepositoryBase<SharedLinkEnt
         return find("id = ?1 and user.id = ?2", id, userId).firstResultOptional();
     }
 
-    public void incrementViewCount(UUID id) {
-        update("viewCount = viewCount + 1 where id = ?1", id);
+    public void addViewCount(UUID id, int views) {
+        update("viewCount = viewCount + ?1 where id = ?2", views, id);
     }
 
     /**
@@ -1,19 +1,24 @@
 package org.github.tess1o.geopulse.sharing.rest;
 
 import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
-import org.github.tess1o.geopulse.gps.model.GpsPointPathDTO;
+import org.github.tess1o.geopulse.livelocation.model.LiveLocationUpdate;
 import org.github.tess1o.geopulse.sharing.model.*;
 import org.github.tess1o.geopulse.sharing.service.SharedLinkService;
 import org.github.tess1o.geopulse.shared.api.ApiResponse;
-import org.github.tess1o.geopulse.streaming.model.dto.MovementTimelineDTO;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 
 import java.time.Instant;
 import java.util.Optional;
@@ -30,6 +35,9 @@ public class PublicSharedLinkResource {
     @Inject
     SharedLinkService sharedLinkService;
 
+    @Context
+    Request request;
+
     @GET
     @Path("/{linkId}/info")
     public Response getSharedLocationInfo(@PathParam("linkId") UUID linkId) {
@@ -81,8 +89,7 @@ public class PublicSharedLinkResource {
             }
 
             String token = authHeader.substring("Bearer ".length());
-            LocationHistoryResponse result = sharedLinkService.getSharedLocation(linkId, token);
-            return Response.ok(result).build();
+            return conditionalOk(sharedLinkService.getSharedLocation(linkId, token));
         } catch (NotFoundException e) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(ApiResponse.error("Link not found or expired"))
@@ -146,8 +153,7 @@ public class PublicSharedLinkResource {
                         .build();
             }
 
-            MovementTimelineDTO result = sharedLinkService.getSharedTimeline(linkId, token, startInstant, endInstant);
-            return Response.ok(result).build();
+            return conditionalOk(sharedLinkService.getSharedTimeline(linkId, token, startInstant, endInstant));
         } catch (NotFoundException e) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(ApiResponse.error("Link not found or expired"))
@@ -271,8 +277,7 @@ public class PublicSharedLinkResource {
                         .build();
             }
 
-            GpsPointPathDTO result = sharedLinkService.getSharedPath(linkId, token, startInstant, endInstant);
-            return Response.ok(result).build();
+            return conditionalOk(sharedLinkService.getSharedPath(linkId, token, startInstant, endInstant));
         } catch (NotFoundException e) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(ApiResponse.error("Link not found or expired"))
@@ -293,6 +298,81 @@ public class PublicSharedLinkResource {
         }
     }
 
+    /**
+     * 304 when the viewer already holds this exact body, otherwise the body with its entity tag.
+     * Responses stay private: they are only valid for the bearer of the share token.
+     */
+    private Response conditionalOk(SharedPayload<?> payload) {
+        if (payload.etag() == null) {
+            return Response.ok(payload.body()).build();
+        }
+        EntityTag etag = new EntityTag(payload.etag());
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setMaxAge(0);
+        cacheControl.setMustRevalidate(true);
+
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).build();
+        }
+        return Response.ok(payload.body()).tag(etag).cacheControl(cacheControl).build();
+    }
+
+    /**
+     * Exchange the temporary access token for a short-lived, single-use ticket for
+     * {@code GET /{linkId}/location/stream?ticket=...}, since browsers' EventSource cannot set headers.
+     */
+    @POST
+    @Path("/{linkId}/location/stream-ticket")
+    public Response createStreamTicket(@PathParam("linkId") UUID linkId, @HeaderParam("Authorization") String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return Response.status(Response.Status.UNAUTHORIZED)
+                        .entity(ApiResponse.error("Authorization token required"))
+                        .build();
+            }
+
+            String token = authHeader.substring("Bearer ".length());
+            return Response.ok(sharedLinkService.createStreamTicket(linkId, token)).build();
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ApiResponse.error("Live location not available"))
+                    .build();
+        } catch (ForbiddenException e) {
+            return Response.status(Response.Status.FORBIDDEN)
+                    .entity(ApiResponse.error("Access denied"))
+                    .build();
+        } catch (Exception e) {
+            log.error("Error creating stream ticket for linkId: {}", linkId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Failed to create stream ticket"))
+                    .build();
+        }
+    }
+
+    /**
+     * Server-sent stream of the link owner's location updates. Authorized by the temporary token in the
+     * Authorization header (fetch-based clients) or by a ticket from {@code POST /{linkId}/location/stream-ticket}.
+     * The access token itself is never accepted in the URL.
+     */
+    @GET
+    @Path("/{linkId}/location/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Blocking
+    public Multi<LiveLocationUpdate> streamSharedLocation(@PathParam("linkId") UUID linkId,
+                                                         @HeaderParam("Authorization") String authHeader,
+                                                         @QueryParam("ticket") String ticket) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return sharedLinkService.streamSharedLocation(linkId, authHeader.substring("Bearer ".length()));
+        }
+        if (ticket == null || ticket.isBlank()) {
+            throw new NotAuthorizedException("Authorization token or stream ticket required", "Bearer");
+        }
+        return sharedLinkService.streamSharedLocationWithTicket(linkId, ticket);
+    }
+
     @GET
     @Path("/{linkId}/current")
     public Response getSharedCurrentLocation(@PathParam("linkId") UUID linkId, @HeaderParam("Authorization") String authHeader) {
@@ -0,0 +1,242 @@
+package org.github.tess1o.geopulse.sharing.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.prometheus.GeoPulseWorkloadMetrics;
+import org.github.tess1o.geopulse.sharing.events.SharedLinkChangedEvent;
+import org.github.tess1o.geopulse.sharing.model.SharedLinkSnapshot;
+import org.github.tess1o.geopulse.sharing.model.SharedPayload;
+import org.github.tess1o.geopulse.streaming.events.FavoriteDeletedEvent;
+import org.github.tess1o.geopulse.streaming.events.FavoriteRenamedEvent;
+import org.github.tess1o.geopulse.streaming.events.FavoritesChangedEvent;
+import org.github.tess1o.geopulse.streaming.events.TimelineDataChangedEvent;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serving cache for public share links, so a link posted to a group chat costs one database pass instead of
+ * one per viewer.
+ * <p>
+ * Two layers: link settings ({@link SharedLinkSnapshot}) for {@code geopulse.sharing.cache.link-ttl-seconds},
+ * and built response bodies per (link, kind, range). A body is dropped when the owner's timeline is regenerated
+ * over an overlapping range, when the owner's favorites change, when the link is edited or deleted, or after
+ * its TTL. Concurrent misses for the same body wait for the first one instead of all querying.
+ * Every cached body carries an entity tag, so viewers can revalidate with {@code If-None-Match}.
+ */
+@ApplicationScoped
+@Slf4j
+public class SharedLinkCache {
+
+    public enum PayloadKind {
+        /**
+         * Current location and recent history of a live share. New points do not invalidate it (the persisted
+         * event only fires for live subscribers), so it relies on a short TTL instead.
+         */
+        LOCATION,
+        TIMELINE,
+        PATH
+    }
+
+    @ConfigProperty(name = "geopulse.sharing.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "geopulse.sharing.cache.link-ttl-seconds", defaultValue = "60")
+    long linkTtlSeconds;
+
+    @ConfigProperty(name = "geopulse.sharing.cache.payload-ttl-seconds", defaultValue = "300")
+    long payloadTtlSeconds;
+
+    @ConfigProperty(name = "geopulse.sharing.cache.location-ttl-seconds", defaultValue = "10")
+    long locationTtlSeconds;
+
+    @ConfigProperty(name = "geopulse.sharing.cache.max-payloads", defaultValue = "256")
+    int maxPayloads;
+
+    @Inject
+    GeoPulseWorkloadMetrics workloadMetrics;
+
+    private final ConcurrentHashMap<UUID, CachedLink> links = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CachedPayload> payloads = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<CachedPayload>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, AtomicLong> ownerVersions = new ConcurrentHashMap<>();
+    private final AtomicLong etagSequence = new AtomicLong();
+    private final String etagPrefix = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    private record CachedLink(SharedLinkSnapshot snapshot, long loadedAtMillis) {
+    }
+
+    private record CachedPayload(UUID linkId, UUID ownerId, PayloadKind kind, Instant start, Instant end,
+                                 Object body, String etag, long createdAtMillis) {
+    }
+
+    /**
+     * Active link settings, loaded through {@code loader} when not cached. Expiry is re-checked on every call.
+     */
+    public Optional<SharedLinkSnapshot> findActiveLink(UUID linkId, Supplier<Optional<SharedLinkSnapshot>> loader) {
+        long now = System.currentTimeMillis();
+        CachedLink cached = enabled ? links.get(linkId) : null;
+        if (cached != null && now - cached.loadedAtMillis() <= linkTtlSeconds * 1_000L) {
+            return cached.snapshot().isActiveAt(Instant.now()) ? Optional.of(cached.snapshot()) : Optional.empty();
+        }
+
+        Optional<SharedLinkSnapshot> loaded = loader.get();
+        if (enabled) {
+            loaded.ifPresentOrElse(
+                    snapshot -> links.put(linkId, new CachedLink(snapshot, now)),
+                    () -> links.remove(linkId));
+        }
+        return loaded;
+    }
+
+    /**
+     * Cached body of {@code kind} for the link and range, or the result of {@code loader} cached for the next viewer.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> SharedPayload<T> getOrCompute(SharedLinkSnapshot link, PayloadKind kind, Instant start, Instant end,
+                                             Supplier<T> loader) {
+        if (!enabled) {
+            return new SharedPayload<>(loader.get(), nextEtag());
+        }
+
+        String key = link.id() + ":" + kind + ":" + start + ":" + end;
+        long now = System.currentTimeMillis();
+        CachedPayload cached = payloads.get(key);
+        if (cached != null && !isExpired(cached, now)) {
+            recordLookup(kind, "hit");
+            return new SharedPayload<>((T) cached.body(), cached.etag());
+        }
+
+        CompletableFuture<CachedPayload> mine = new CompletableFuture<>();
+        CompletableFuture<CachedPayload> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            recordLookup(kind, "coalesced");
+            CachedPayload shared = await(leader);
+            return new SharedPayload<>((T) shared.body(), shared.etag());
+        }
+
+        recordLookup(kind, "miss");
+        try {
+            AtomicLong ownerVersion = ownerVersions.computeIfAbsent(link.userId(), ignored -> new AtomicLong());
+            long version = ownerVersion.get();
+            T body = loader.get();
+            CachedPayload computed = new CachedPayload(link.id(), link.userId(), kind, start, end, body, nextEtag(), now);
+            // An invalidation during the load may have been about data the loader already read past
+            if (ownerVersion.get() == version) {
+                payloads.put(key, computed);
+                evictOverflow();
+            }
+            mine.complete(computed);
+            return new SharedPayload<>(body, computed.etag());
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public void invalidateLink(UUID linkId) {
+        links.remove(linkId);
+        payloads.values().removeIf(payload -> payload.linkId().equals(linkId));
+    }
+
+    /**
+     * Drop the owner's bodies whose range overlaps {@code [from, to]}; null bounds are open.
+     * Location bodies always go, their window ends now.
+     */
+    public void invalidateOwner(UUID ownerId, Instant from, Instant to) {
+        if (ownerId == null) {
+            return;
+        }
+        ownerVersions.computeIfAbsent(ownerId, ignored -> new AtomicLong()).incrementAndGet();
+        payloads.values().removeIf(payload -> payload.ownerId().equals(ownerId)
+                && (payload.kind() == PayloadKind.LOCATION || overlaps(payload, from, to)));
+    }
+
+    void onSharedLinkChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) SharedLinkChangedEvent event) {
+        invalidateLink(event.getLinkId());
+    }
+
+    void onTimelineDataChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TimelineDataChangedEvent event) {
+        invalidateOwner(event.getUserId(), event.getAffectedFrom(), event.getAffectedTo());
+    }
+
+    void onFavoritesChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) FavoritesChangedEvent event) {
+        invalidateOwner(event.getUserId(), null, null);
+    }
+
+    void onFavoriteRenamed(@Observes(during = TransactionPhase.AFTER_SUCCESS) FavoriteRenamedEvent event) {
+        invalidateOwner(event.getUserId(), null, null);
+    }
+
+    void onFavoriteDeleted(@Observes(during = TransactionPhase.AFTER_SUCCESS) FavoriteDeletedEvent event) {
+        invalidateOwner(event.getUserId(), null, null);
+    }
+
+    private static boolean overlaps(CachedPayload payload, Instant from, Instant to) {
+        boolean startsBeforeEnd = to == null || payload.start() == null || !payload.start().isAfter(to);
+        boolean endsAfterStart = from == null || payload.end() == null || !payload.end().isBefore(from);
+        return startsBeforeEnd && endsAfterStart;
+    }
+
+    private boolean isExpired(CachedPayload payload, long now) {
+        long ttlSeconds = payload.kind() == PayloadKind.LOCATION ? locationTtlSeconds : payloadTtlSeconds;
+        return now - payload.createdAtMillis() > ttlSeconds * 1_000L;
+    }
+
+    private void evictOverflow() {
+        int overflow = payloads.size() - Math.max(1, maxPayloads);
+        if (overflow <= 0) {
+            return;
+        }
+        Iterator<Map.Entry<String, CachedPayload>> oldestFirst = payloads.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().createdAtMillis()))
+                .limit(overflow)
+                .iterator();
+        while (oldestFirst.hasNext()) {
+            Map.Entry<String, CachedPayload> entry = oldestFirst.next();
+            payloads.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static CachedPayload await(CompletableFuture<CachedPayload> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String nextEtag() {
+        return etagPrefix + "-" + Long.toHexString(etagSequence.incrementAndGet());
+    }
+
+    private void recordLookup(PayloadKind kind, String outcome) {
+        if (workloadMetrics != null) {
+            workloadMetrics.increment("geopulse.sharing.cache.requests",
+                    "kind", kind.name().toLowerCase(), "result", outcome);
+        }
+    }
+
+    int cachedPayloads() {
+        return payloads.size();
+    }
+}
@@ -2,7 +2,9 @@ package org.github.tess1o.geopulse.sharing.service;
 
 import io.quarkus.runtime.annotations.StaticInitSafe;
 import io.smallrye.jwt.build.Jwt;
+import io.smallrye.mutiny.Multi;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.ForbiddenException;
@@ -14,6 +16,9 @@ import org.github.tess1o.geopulse.gps.model.GpsPointPathDTO;
 import org.github.tess1o.geopulse.gps.model.GpsPointPathPointDTO;
 import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
 import org.github.tess1o.geopulse.gps.service.simplification.PathSimplificationService;
+import org.github.tess1o.geopulse.livelocation.model.LiveLocationUpdate;
+import org.github.tess1o.geopulse.livelocation.service.LiveLocationHub;
+import org.github.tess1o.geopulse.livelocation.service.LiveLocationStreamTicketService;
 import org.github.tess1o.geopulse.notes.model.NoteSearchResponse;
 import org.github.tess1o.geopulse.notes.service.TimelineNoteService;
 import org.github.tess1o.geopulse.shared.geo.GpsPoint;
@@ -22,6 +27,7 @@ import org.github.tess1o.geopulse.streaming.config.TimelineConfig;
 import org.github.tess1o.geopulse.streaming.config.TimelineConfigurationProvider;
 import org.github.tess1o.geopulse.streaming.model.dto.MovementTimelineDTO;
 import org.github.tess1o.geopulse.streaming.service.StreamingTimelineAggregator;
+import org.github.tess1o.geopulse.sharing.events.SharedLinkChangedEvent;
 import org.github.tess1o.geopulse.sharing.exceptions.TooManyLinksException;
 import org.github.tess1o.geopulse.sharing.model.*;
 import org.github.tess1o.geopulse.sharing.repository.SharedLinkRepository;
@@ -36,6 +42,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -74,6 +81,18 @@ public class SharedLinkService {
     @Inject
     SecurePasswordUtils passwordUtils;
 
+    @Inject
+    LiveLocationHub liveLocationHub;
+
+    @Inject
+    LiveLocationStreamTicketService streamTicketService;
+
+    @Inject
+    SharedLinkViewCounter viewCounter;
+
+    @Inject
+    Event<SharedLinkChangedEvent> sharedLinkChangedEvent;
+
     @Inject
     @ConfigProperty(name = "smallrye.jwt.new-token.issuer")
     @StaticInitSafe
@@ -92,6 +111,13 @@ public class SharedLinkService {
     @Inject
     io.smallrye.jwt.auth.principal.JWTParser jwtParser;
 
+    private final SharedLinkCache sharedLinkCache;
+
+    @Inject
+    public SharedLinkService(SharedLinkCache sharedLinkCache) {
+        this.sharedLinkCache = sharedLinkCache;
+    }
+
     @Transactional
     public CreateShareLinkResponse createShareLink(CreateShareLinkRequest request, UserEntity user) {
         ShareType shareType = request.getShareType() != null ? ShareType.valueOf(request.getShareType()) : ShareType.LIVE_LOCATION;
@@ -189,6 +215,9 @@ public class SharedLinkService {
             entity.setEndDate(normalizedRange.end());
         }
         sharedLinkRepository.persist(entity);
+        // Open streams were authorized against the old settings; viewers reconnect and re-validate
+        liveLocationHub.closeSharedLink(linkId);
+        sharedLinkChangedEvent.fire(new SharedLinkChangedEvent(linkId));
 
         return mapper.toDto(entity);
     }
@@ -267,6 +296,8 @@ public class SharedLinkService {
         }
 
         sharedLinkRepository.delete(entityOpt.get());
+        liveLocationHub.closeSharedLink(linkId);
+        sharedLinkChangedEvent.fire(new SharedLinkChangedEvent(linkId));
         log.info("Share link deleted successfully: {}", linkId);
     }
 
@@ -304,29 +335,32 @@ public class SharedLinkService {
         return new AccessTokenResponse(tempToken, tokenLifespan);
     }
 
-    @Transactional
-    public LocationHistoryResponse getSharedLocation(UUID linkId, String tempToken) {
+    public SharedPayload<LocationHistoryResponse> getSharedLocation(UUID linkId, String tempToken) {
         log.debug("Location access attempt for linkId: {}", linkId);
 
         validateTemporaryToken(tempToken, linkId);
 
-        Optional<SharedLinkEntity> entityOpt = sharedLinkRepository.findActiveById(linkId);
-        if (entityOpt.isEmpty()) {
+        Optional<SharedLinkSnapshot> linkOpt = findActiveLink(linkId);
+        if (linkOpt.isEmpty()) {
             log.warn("Link not found or expired for location access: {}", linkId);
             throw new NotFoundException("Link not found or expired");
         }
 
-        SharedLinkEntity entity = entityOpt.get();
+        SharedLinkSnapshot link = linkOpt.get();
 
-        sharedLinkRepository.incrementViewCount(linkId);
-        log.info("Location accessed successfully for linkId: {}, showHistory: {}", linkId, entity.isShowHistory());
+        viewCounter.recordView(linkId);
+        log.debug("Location accessed for linkId: {}, showHistory: {}", linkId, link.showHistory());
 
-        GpsPointEntity currentLocation = gpsPointRepository.findByUserIdLatestGpsPoint(entity.getUser().getId());
+        return cachedPayload(link, SharedLinkCache.PayloadKind.LOCATION, null, null, () -> loadSharedLocation(link));
+    }
+
+    private LocationHistoryResponse loadSharedLocation(SharedLinkSnapshot link) {
+        GpsPointEntity currentLocation = gpsPointRepository.findByUserIdLatestGpsPoint(link.userId());
 
-        if (entity.isShowHistory()) {
-            Instant startDate = Instant.now().minus(entity.getHistoryHours(), ChronoUnit.HOURS);
+        if (link.showHistory()) {
+            Instant startDate = Instant.now().minus(link.historyHours(), ChronoUnit.HOURS);
             List<GpsPointEntity> history = gpsPointRepository.findByUserIdAndTimePeriod(
-                    entity.getUser().getId(), startDate, Instant.now());
+                    link.userId(), startDate, Instant.now());
 
             return mapper.toLocationHistoryResponse(currentLocation, history);
         } else {
@@ -345,6 +379,79 @@ public class SharedLinkService {
         }
     }
 
+    /**
+     * Exchange the temporary access token for a single-use ticket that opens one location stream of the link,
+     * for clients that cannot send headers with the stream request (browser EventSource).
+     */
+    public StreamTicketResponse createStreamTicket(UUID linkId, String tempToken) {
+        org.eclipse.microprofile.jwt.JsonWebToken jwt = validateTemporaryToken(tempToken, linkId);
+        Instant accessExpiresAt = Instant.ofEpochSecond(jwt.getExpirationTime());
+        // Fail the exchange, not the stream request, when the link has no live location to stream
+        resolveSharedStream(linkId, accessExpiresAt);
+
+        LiveLocationStreamTicketService.IssuedTicket ticket = streamTicketService.issue(linkId, accessExpiresAt);
+        long expiresIn = Math.max(0L, Duration.between(Instant.now(), ticket.expiresAt()).getSeconds());
+        return new StreamTicketResponse(ticket.value(), expiresIn);
+    }
+
+    /**
+     * Open a live stream of the link owner's location updates.
+     * The token and link are validated once; the stream completes when either of them expires,
+     * or when the timeline period ends for timeline shares showing the current location.
+     */
+    public Multi<LiveLocationUpdate> streamSharedLocation(UUID linkId, String tempToken) {
+        log.debug("Live location stream attempt for linkId: {}", linkId);
+
+        org.eclipse.microprofile.jwt.JsonWebToken jwt = validateTemporaryToken(tempToken, linkId);
+        return openSharedStream(linkId, Instant.ofEpochSecond(jwt.getExpirationTime()));
+    }
+
+    /**
+     * Open a live stream with a ticket from {@link #createStreamTicket}. The ticket is consumed; the stream ends
+     * no later than the access token it was exchanged for would have expired.
+     */
+    public Multi<LiveLocationUpdate> streamSharedLocationWithTicket(UUID linkId, String ticket) {
+        log.debug("Live location stream attempt with ticket for linkId: {}", linkId);
+
+        LiveLocationStreamTicketService.StreamTicket redeemed = streamTicketService.redeem(ticket, linkId)
+                .orElseThrow(() -> new ForbiddenException("Invalid or expired stream ticket"));
+        return openSharedStream(linkId, redeemed.accessExpiresAt());
+    }
+
+    private Multi<LiveLocationUpdate> openSharedStream(UUID linkId, Instant accessExpiresAt) {
+        SharedStream stream = resolveSharedStream(linkId, accessExpiresAt);
+        return liveLocationHub.subscribeToSharedLink(linkId, stream.ownerUserId(), stream.expiresAt());
+    }
+
+    private SharedStream resolveSharedStream(UUID linkId, Instant accessExpiresAt) {
+        SharedLinkSnapshot link = findActiveLink(linkId)
+                .orElseThrow(() -> new NotFoundException("Link not found or expired"));
+
+        Instant streamExpiresAt = accessExpiresAt;
+        if (link.shareType() == ShareType.TIMELINE) {
+            if (link.showCurrentLocation() == null || !link.showCurrentLocation()) {
+                throw new NotFoundException("Current location not available for this share");
+            }
+            TimelineRange shareRange = normalizeTimelineRange(link.startDate(), link.endDate());
+            Instant now = Instant.now();
+            if (now.isBefore(shareRange.start()) || now.isAfter(shareRange.end())) {
+                throw new NotFoundException("Current location only available during the timeline period");
+            }
+            streamExpiresAt = earliest(streamExpiresAt, shareRange.end());
+        }
+        if (link.expiresAt() != null) {
+            streamExpiresAt = earliest(streamExpiresAt, link.expiresAt());
+        }
+        return new SharedStream(link.userId(), streamExpiresAt);
+    }
+
+    private record SharedStream(UUID ownerUserId, Instant expiresAt) {
+    }
+
+    private static Instant earliest(Instant first, Instant second) {
+        return first.isBefore(second) ? first : second;
+    }
+
     private String createTemporaryAccessToken(UUID linkId, Long lifespan) {
         return Jwt.issuer(issuer)
                 .subject("shared-link")
@@ -354,7 +461,7 @@ public class SharedLinkService {
                 .sign();
     }
 
-    private void validateTemporaryToken(String token, UUID expectedLinkId) {
+    private org.eclipse.microprofile.jwt.JsonWebToken validateTemporaryToken(String token, UUID expectedLinkId) {
         try {
             log.debug("Validating temporary token for linkId: {}", expectedLinkId);
 
@@ -373,6 +480,7 @@ public class SharedLinkService {
             }
 
             log.debug("Temporary token validation successful for linkId: {}", expectedLinkId);
+            return jwt;
 
         } catch (Exception e) {
             log.warn("Temporary token validation failed for linkId: {}, error: {}", expectedLinkId, e.getMessage());
@@ -388,31 +496,27 @@ public class SharedLinkService {
 
         validateTemporaryToken(tempToken, linkId);
 
-        Optional<SharedLinkEntity> entityOpt = sharedLinkRepository.findActiveById(linkId);
-        if (entityOpt.isEmpty()) {
-            throw new NotFoundException("Link not found or expired");
-        }
-
-        SharedLinkEntity entity = entityOpt.get();
+        SharedLinkSnapshot link = findActiveLink(linkId)
+                .orElseThrow(() -> new NotFoundException("Link not found or expired"));
 
         // Only return current location for timeline shares
-        if (entity.getShareType() != ShareType.TIMELINE) {
+        if (link.shareType() != ShareType.TIMELINE) {
             throw new IllegalArgumentException("This endpoint is only for timeline shares");
         }
 
         // Check if share is configured to show current location
-        if (entity.getShowCurrentLocation() == null || !entity.getShowCurrentLocation()) {
+        if (link.showCurrentLocation() == null || !link.showCurrentLocation()) {
             throw new NotFoundException("Current location not available for this share");
         }
 
         // Check if we're within the active timeline period
-        TimelineRange shareRange = normalizeTimelineRange(entity.getStartDate(), entity.getEndDate());
+        TimelineRange shareRange = normalizeTimelineRange(link.startDate(), link.endDate());
         Instant now = Instant.now();
         if (now.isBefore(shareRange.start()) || now.isAfter(shareRange.end())) {
             throw new NotFoundException("Current location only available during the timeline period");
         }
 
-        GpsPointEntity currentLocation = gpsPointRepository.findByUserIdLatestGpsPoint(entity.getUser().getId());
+        GpsPointEntity currentLocation = gpsPointRepository.findByUserIdLatestGpsPoint(link.userId());
         if (currentLocation == null) {
             return Optional.empty();
         }
@@ -421,43 +525,39 @@ public class SharedLinkService {
     }
 
     /**
-     * Get timeline data for timeline share
+     * Get timeline data for timeline share. Viewers of the same link and range share one cached body.
      */
     @Transactional
-    public MovementTimelineDTO getSharedTimeline(UUID linkId, String tempToken, Instant startTime, Instant endTime) {
+    public SharedPayload<MovementTimelineDTO> getSharedTimeline(UUID linkId, String tempToken, Instant startTime, Instant endTime) {
         log.debug("Timeline data access attempt for linkId: {}", linkId);
 
         validateTemporaryToken(tempToken, linkId);
 
-        Optional<SharedLinkEntity> entityOpt = sharedLinkRepository.findActiveById(linkId);
-        if (entityOpt.isEmpty()) {
-            throw new NotFoundException("Link not found or expired");
-        }
-
-        SharedLinkEntity entity = entityOpt.get();
+        SharedLinkSnapshot link = findActiveLink(linkId)
+                .orElseThrow(() -> new NotFoundException("Link not found or expired"));
 
         // Only return timeline data for timeline shares
-        if (entity.getShareType() != ShareType.TIMELINE) {
+        if (link.shareType() != ShareType.TIMELINE) {
             throw new IllegalArgumentException("This endpoint is only for timeline shares");
         }
 
-        TimelineRange effectiveRange = resolveRequestedTimelineRange(entity, startTime, endTime);
-
-        // Increment view count on first timeline access
-        sharedLinkRepository.incrementViewCount(linkId);
+        TimelineRange effectiveRange = resolveRequestedTimelineRange(link, startTime, endTime);
 
-        // Get timeline data for the effective date range
-        // This automatically includes overnight stays via boundary expansion
-        MovementTimelineDTO timeline = timelineAggregator.getTimelineFromDb(
-                entity.getUser().getId(),
-                effectiveRange.start(),
-                effectiveRange.end()
-        );
+        viewCounter.recordView(linkId);
 
-        log.info("Timeline data accessed successfully for linkId: {}, items: {}, dateRange: {} to {}",
-                linkId, timeline.getStaysCount() + timeline.getTripsCount(), effectiveRange.start(), effectiveRange.end());
+        return cachedPayload(link, SharedLinkCache.PayloadKind.TIMELINE, effectiveRange.start(), effectiveRange.end(), () -> {
+            // Get timeline data for the effective date range
+            // This automatically includes overnight stays via boundary expansion
+            MovementTimelineDTO timeline = timelineAggregator.getTimelineFromDb(
+                    link.userId(),
+                    effectiveRange.start(),
+                    effectiveRange.end()
+            );
 
-        return timeline;
+            log.info("Timeline data loaded for linkId: {}, items: {}, dateRange: {} to {}",
+                    linkId, timeline.getStaysCount() + timeline.getTripsCount(), effectiveRange.start(), effectiveRange.end());
+            return timeline;
+        });
     }
 
     public java.util.concurrent.CompletableFuture<NoteSearchResponse> getSharedNotes(UUID linkId, String tempToken, Instant startTime, Instant endTime) {
@@ -465,17 +565,13 @@ public class SharedLinkService {
 
         validateTemporaryToken(tempToken, linkId);
 
-        Optional<SharedLinkEntity> entityOpt = sharedLinkRepository.findActiveById(linkId);
-        if (entityOpt.isEmpty()) {
-            throw new NotFoundException("Link not found or expired");
-        }
-
-        SharedLinkEntity entity = entityOpt.get();
-        if (entity.getShareType() != ShareType.TIMELINE) {
+        SharedLinkSnapshot link = findActiveLink(linkId)
+                .orElseThrow(() -> new NotFoundException("Link not found or expired"));
+        if (link.shareType() != ShareType.TIMELINE) {
             throw new IllegalArgumentException("This endpoint is only for timeline shares");
         }
 
-        if (!Boolean.TRUE.equals(entity.getShowNotes())) {
+        if (!Boolean.TRUE.equals(link.showNotes())) {
             return java.util.concurrent.CompletableFuture.completedFuture(NoteSearchResponse.builder()
                     .notes(List.of())
                     .totalCount(0)
@@ -484,9 +580,9 @@ public class SharedLinkService {
                     .build());
         }
 
-        TimelineRange effectiveRange = resolveRequestedTimelineRange(entity, startTime, endTime);
+        TimelineRange effectiveRange = resolveRequestedTimelineRange(link, startTime, endTime);
         return timelineNoteService.searchNotes(
-                entity.getUser().getId(),
+                link.userId(),
                 effectiveRange.start(),
                 effectiveRange.end(),
                 true,
@@ -498,30 +594,33 @@ public class SharedLinkService {
     }
 
     /**
-     * Get GPS path data for timeline share
+     * Get GPS path data for timeline share. Viewers of the same link and range share one cached body.
      */
-    public GpsPointPathDTO getSharedPath(UUID linkId, String tempToken, Instant startTime, Instant endTime) {
+    public SharedPayload<GpsPointPathDTO> getSharedPath(UUID linkId, String tempToken, Instant startTime, Instant endTime) {
         log.debug("Path data access attempt for linkId: {}", linkId);
 
         validateTemporaryToken(tempToken, linkId);
 
-        Optional<SharedLinkEntity> entityOpt = sharedLinkRepository.findActiveById(linkId);
-        if (entityOpt.isEmpty()) {
-            throw new NotFoundException("Link not found or expired");
-        }
-
-        SharedLinkEntity entity = entityOpt.get();
+        SharedLinkSnapshot link = findActiveLink(linkId)
+                .orElseThrow(() -> new NotFoundException("Link not found or expired"));
 
         // Only return path data for timeline shares
-        if (entity.getShareType() != ShareType.TIMELINE) {
+        if (link.shareType() != ShareType.TIMELINE) {
             throw new IllegalArgumentException("This endpoint is only for timeline shares");
         }
 
-        TimelineRange effectiveRange = resolveRequestedTimelineRange(entity, startTime, endTime);
+        TimelineRange effectiveRange = resolveRequestedTimelineRange(link, startTime, endTime);
+
+        return cachedPayload(link, SharedLinkCache.PayloadKind.PATH, effectiveRange.start(), effectiveRange.end(),
+                () -> loadSharedPath(link, effectiveRange));
+    }
+
+    private GpsPointPathDTO loadSharedPath(SharedLinkSnapshot link, TimelineRange effectiveRange) {
+        UUID ownerId = link.userId();
 
         // Get GPS points for the effective date range
         List<GpsPointEntity> gpsPoints = gpsPointRepository.findByUserIdAndTimePeriod(
-                entity.getUser().getId(),
+                ownerId,
                 effectiveRange.start(),
                 effectiveRange.end()
         );
@@ -536,25 +635,36 @@ public class SharedLinkService {
                         gp.getAccuracy(),
                         gp.getAltitude(),
                         gp.getVelocity(),
-                        entity.getUser().getId(),
+                        ownerId,
                         gp.getSourceType().name()
                 ))
                 .collect(Collectors.toList());
 
         // Get user's timeline config for simplification
-        TimelineConfig config = timelineConfigurationProvider.getConfigurationForUser(entity.getUser().getId());
+        TimelineConfig config = timelineConfigurationProvider.getConfigurationForUser(ownerId);
 
         // Simplify the path to reduce data size
         List<? extends GpsPoint> simplifiedPoints = pathSimplificationService.simplify(convertedPoints, config);
 
-        log.info("Path data accessed for linkId: {}, original points: {}, simplified: {}",
-                linkId, gpsPoints.size(), simplifiedPoints.size());
+        log.info("Path data loaded for linkId: {}, original points: {}, simplified: {}",
+                link.id(), gpsPoints.size(), simplifiedPoints.size());
+
+        return new GpsPointPathDTO(ownerId, (List<GpsPointPathPointDTO>) simplifiedPoints);
+    }
+
+    private Optional<SharedLinkSnapshot> findActiveLink(UUID linkId) {
+        Supplier<Optional<SharedLinkSnapshot>> loader =
+                () -> sharedLinkRepository.findActiveById(linkId).map(SharedLinkSnapshot::from);
+        return sharedLinkCache.findActiveLink(linkId, loader);
+    }
 
-        return new GpsPointPathDTO(entity.getUser().getId(), (List<GpsPointPathPointDTO>) simplifiedPoints);
+    private <T> SharedPayload<T> cachedPayload(SharedLinkSnapshot link, SharedLinkCache.PayloadKind kind,
+                                               Instant start, Instant end, Supplier<T> loader) {
+        return sharedLinkCache.getOrCompute(link, kind, start, end, loader);
     }
 
-    private TimelineRange resolveRequestedTimelineRange(SharedLinkEntity entity, Instant startTime, Instant endTime) {
-        TimelineRange shareRange = normalizeTimelineRange(entity.getStartDate(), entity.getEndDate());
+    private TimelineRange resolveRequestedTimelineRange(SharedLinkSnapshot link, Instant startTime, Instant endTime) {
+        TimelineRange shareRange = normalizeTimelineRange(link.startDate(), link.endDate());
         Instant effectiveStart = startTime != null ? startTime : shareRange.start();
         Instant effectiveEnd = endTime != null ? endTime : shareRange.end();
         TimelineRange effectiveRange = normalizeTimelineRange(effectiveStart, effectiveEnd);
@@ -0,0 +1,69 @@
+package org.github.tess1o.geopulse.sharing.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.github.tess1o.geopulse.sharing.repository.SharedLinkRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffers share link views in memory and writes them in one small transaction per flush,
+ * so serving a cached share response never takes a row lock on {@code shared_link}.
+ * Views counted since the last flush are lost if the process is killed; a clean shutdown flushes them.
+ */
+@ApplicationScoped
+@Slf4j
+public class SharedLinkViewCounter {
+
+    private final SharedLinkRepository sharedLinkRepository;
+    private final ConcurrentHashMap<UUID, Long> pendingViews = new ConcurrentHashMap<>();
+
+    @Inject
+    public SharedLinkViewCounter(SharedLinkRepository sharedLinkRepository) {
+        this.sharedLinkRepository = sharedLinkRepository;
+    }
+
+    public void recordView(UUID linkId) {
+        pendingViews.merge(linkId, 1L, Long::sum);
+    }
+
+    @Scheduled(every = "${geopulse.sharing.view-count.flush-interval:30s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flush() {
+        Map<UUID, Long> drained = drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        try {
+            QuarkusTransaction.requiringNew().run(() -> drained.forEach((linkId, views) ->
+                    sharedLinkRepository.addViewCount(linkId, (int) Math.min(views, Integer.MAX_VALUE))));
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush view counts for {} share links, retrying on next flush: {}",
+                    drained.size(), e.getMessage());
+            drained.forEach((linkId, views) -> pendingViews.merge(linkId, views, Long::sum));
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        flush();
+    }
+
+    private Map<UUID, Long> drain() {
+        Map<UUID, Long> drained = new HashMap<>();
+        for (UUID linkId : pendingViews.keySet()) {
+            Long views = pendingViews.remove(linkId);
+            if (views != null) {
+                drained.put(linkId, views);
+            }
+        }
+        return drained;
+    }
+}
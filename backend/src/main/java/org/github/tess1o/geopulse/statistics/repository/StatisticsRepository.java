@@ -1,10 +1,14 @@
 package org.github.tess1o.geopulse.statistics.repository;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import lombok.extern.slf4j.Slf4j;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
 import org.github.tess1o.geopulse.statistics.model.*;
+import org.github.tess1o.geopulse.streaming.iterator.StreamingGpsIterator;
+import org.github.tess1o.geopulse.streaming.model.domain.GPSPoint;
 
 import java.time.Instant;
 import java.util.List;
@@ -19,10 +23,15 @@ import java.util.UUID;
 @Slf4j
 public class StatisticsRepository {
 
+    private static final int ARCHIVED_TRIP_HEATMAP_BUFFER_SIZE = 5000;
+
     private final EntityManager entityManager;
+    private final GpsPointRepository gpsPointRepository;
 
-    public StatisticsRepository(EntityManager entityManager) {
+    @Inject
+    public StatisticsRepository(EntityManager entityManager, GpsPointRepository gpsPointRepository) {
         this.entityManager = entityManager;
+        this.gpsPointRepository = gpsPointRepository;
     }
 
     /**
@@ -171,6 +180,10 @@ public class StatisticsRepository {
                                                    Instant endTime,
                                                    int gridSizeMeters,
                                                    int maxGapSeconds) {
+        if (gpsPointRepository.hasArchivedPoints(userId, startTime, endTime)) {
+            return getArchivedTripHeatmapPlaces(userId, startTime, endTime, gridSizeMeters, maxGapSeconds);
+        }
+
         String sql = """
                 WITH trip_points AS (
                     SELECT
@@ -232,6 +245,51 @@ public class StatisticsRepository {
                 .toList();
     }
 
+    /**
+     * Trip heatmap of a window that reaches archived months. The archived points cannot be joined in SQL, so the
+     * merged history is streamed through {@link TripHeatmapAccumulator}, which weights and snaps points the same way
+     * as the query above.
+     */
+    private List<HeatmapPlace> getArchivedTripHeatmapPlaces(UUID userId,
+                                                           Instant startTime,
+                                                           Instant endTime,
+                                                           int gridSizeMeters,
+                                                           int maxGapSeconds) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> tripRows = entityManager.createNativeQuery("""
+                        SELECT timestamp, timestamp + (trip_duration || ' seconds')::interval
+                        FROM timeline_trips
+                        WHERE user_id = ?
+                          AND timestamp <= ?
+                          AND timestamp + (trip_duration || ' seconds')::interval >= ?
+                        ORDER BY timestamp
+                        """)
+                .setParameter(1, userId)
+                .setParameter(2, endTime)
+                .setParameter(3, startTime)
+                .getResultList();
+        if (tripRows.isEmpty()) {
+            return List.of();
+        }
+
+        TripHeatmapAccumulator accumulator = new TripHeatmapAccumulator(
+                tripRows.stream()
+                        .map(row -> new TripHeatmapAccumulator.TripInterval((Instant) row[0], (Instant) row[1]))
+                        .toList(),
+                gridSizeMeters,
+                maxGapSeconds);
+        StreamingGpsIterator points = new StreamingGpsIterator(
+                gpsPointRepository, userId, startTime, ARCHIVED_TRIP_HEATMAP_BUFFER_SIZE);
+        while (points.hasNext()) {
+            GPSPoint point = points.next();
+            if (point.getTimestamp().isAfter(endTime)) {
+                break;
+            }
+            accumulator.accept(point.getTimestamp(), point.getLatitude(), point.getLongitude());
+        }
+        return accumulator.places();
+    }
+
     /**
      * Get top places by visit count and duration.
      */
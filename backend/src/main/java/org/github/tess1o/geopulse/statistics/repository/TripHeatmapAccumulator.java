@@ -0,0 +1,105 @@
+package org.github.tess1o.geopulse.statistics.repository;
+
+import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+import org.github.tess1o.geopulse.statistics.model.HeatmapPlace;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JVM counterpart of the trip heatmap query in {@link StatisticsRepository}, for windows that reach archived months
+ * whose points are no longer in {@code gps_points}. Points must be fed in timestamp order; each one is weighted by
+ * the clamped time to the next point of the same trip and snapped to the same Web Mercator grid as
+ * {@code ST_SnapToGrid(ST_Transform(coordinates, 3857), grid)}.
+ */
+class TripHeatmapAccumulator {
+
+    /**
+     * @param start trip start
+     * @param end   trip start plus its duration, inclusive
+     */
+    record TripInterval(Instant start, Instant end) {
+    }
+
+    private record Cell(long x, long y) {
+    }
+
+    private record PreviousPoint(Instant timestamp, Cell cell) {
+    }
+
+    private static final class CellTotals {
+        private double durationSeconds;
+        private long visits;
+    }
+
+    private final List<TripInterval> trips;
+    private final int gridSizeMeters;
+    private final int maxGapSeconds;
+    private final PreviousPoint[] previousPoints;
+    private final Map<Cell, CellTotals> cells = new HashMap<>();
+    private int firstOpenTrip;
+
+    /**
+     * @param trips trips ordered by start
+     */
+    TripHeatmapAccumulator(List<TripInterval> trips, int gridSizeMeters, int maxGapSeconds) {
+        this.trips = trips;
+        this.gridSizeMeters = gridSizeMeters;
+        this.maxGapSeconds = maxGapSeconds;
+        this.previousPoints = new PreviousPoint[trips.size()];
+    }
+
+    void accept(Instant timestamp, double latitude, double longitude) {
+        while (firstOpenTrip < trips.size() && trips.get(firstOpenTrip).end().isBefore(timestamp)) {
+            firstOpenTrip++;
+        }
+
+        Cell cell = null;
+        for (int i = firstOpenTrip; i < trips.size(); i++) {
+            TripInterval trip = trips.get(i);
+            if (trip.start().isAfter(timestamp)) {
+                break;
+            }
+            if (trip.end().isBefore(timestamp)) {
+                continue;
+            }
+            if (cell == null) {
+                cell = snap(latitude, longitude);
+            }
+            PreviousPoint previous = previousPoints[i];
+            if (previous != null) {
+                double dt = (timestamp.toEpochMilli() - previous.timestamp().toEpochMilli()) / 1000.0;
+                CellTotals totals = cells.computeIfAbsent(previous.cell(), ignored -> new CellTotals());
+                totals.durationSeconds += Math.max(0, Math.min(dt, maxGapSeconds));
+                totals.visits++;
+            }
+            previousPoints[i] = new PreviousPoint(timestamp, cell);
+        }
+    }
+
+    /**
+     * Cells ordered by total duration, longest first.
+     */
+    List<HeatmapPlace> places() {
+        return cells.entrySet().stream()
+                .sorted(Comparator.comparingDouble(
+                        (Map.Entry<Cell, CellTotals> entry) -> entry.getValue().durationSeconds).reversed())
+                .map(entry -> HeatmapPlace.builder()
+                        .latitude(GeoUtils.webMercatorLatitude((double) entry.getKey().y() * gridSizeMeters))
+                        .longitude(GeoUtils.webMercatorLongitude((double) entry.getKey().x() * gridSizeMeters))
+                        .durationSeconds((long) entry.getValue().durationSeconds)
+                        .visits(entry.getValue().visits)
+                        .name(null)
+                        .build())
+                .toList();
+    }
+
+    private Cell snap(double latitude, double longitude) {
+        return new Cell(
+                (long) Math.rint(GeoUtils.webMercatorX(longitude) / gridSizeMeters),
+                (long) Math.rint(GeoUtils.webMercatorY(latitude) / gridSizeMeters));
+    }
+}
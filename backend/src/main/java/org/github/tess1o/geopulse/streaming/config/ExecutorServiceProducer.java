@@ -2,6 +2,7 @@ package org.github.tess1o.geopulse.streaming.config;
 
 import io.smallrye.common.annotation.Identifier;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
 
 import java.util.concurrent.ExecutorService;
@@ -36,4 +37,36 @@ public class ExecutorServiceProducer {
                 Thread.ofVirtual().name("weather-", 0).factory()
         );
     }
+
+    @Produces
+    @ApplicationScoped
+    @Identifier("geofence-delivery")
+    public ExecutorService geofenceDeliveryExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("geofence-delivery-", 0).factory()
+        );
+    }
+
+    // Lets deliveries already running finish; new submissions are rejected and left to the recovery sweep
+    void closeGeofenceDeliveryExecutor(@Disposes @Identifier("geofence-delivery") ExecutorService executor) {
+        executor.shutdown();
+    }
+
+    @Produces
+    @ApplicationScoped
+    @Identifier("export-processing")
+    public ExecutorService exportProcessingExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("export-", 0).factory()
+        );
+    }
+
+    @Produces
+    @ApplicationScoped
+    @Identifier("immich-assets")
+    public ExecutorService immichAssetExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("immich-assets-", 0).factory()
+        );
+    }
 }
@@ -1,22 +1,34 @@
 package org.github.tess1o.geopulse.streaming.config;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.streaming.events.TimelinePreferencesUpdatedEvent;
 import org.github.tess1o.geopulse.user.exceptions.UserNotFoundException;
 import org.github.tess1o.geopulse.user.mapper.TimelinePreferencesMapper;
 import org.github.tess1o.geopulse.user.model.TimelinePreferences;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 import org.github.tess1o.geopulse.user.repository.UserRepository;
 
+import java.util.Comparator;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service responsible for providing timeline configuration.
  * Handles merging of global defaults with user-specific preferences
  * while maintaining clean separation between user domain and timeline domain.
+ * <p>
+ * Resolved configurations are cached per user. Cached entries are never handed out directly:
+ * callers always receive a copy, so they may freely modify the returned config. Entries are
+ * invalidated on {@link TimelinePreferencesUpdatedEvent} and expire after a TTL.
  */
 @ApplicationScoped
 @Slf4j
@@ -29,6 +41,19 @@ public class TimelineConfigurationProvider {
     private final TimelinePreferencesMapper timelinePreferencesMapper;
     private final EntityManager entityManager;
 
+    private final ConcurrentHashMap<UUID, CachedValue<TimelineConfig>> configCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, CachedValue<Boolean>> boatEnabledCache = new ConcurrentHashMap<>();
+    // Bumped by every invalidation, so a value resolved from preferences read before it is not cached.
+    // One counter for all users instead of one per user, so nothing accumulates for users that are gone.
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile TimelineConfig defaultConfig;
+
+    @ConfigProperty(name = "geopulse.timeline.config-cache.ttl-seconds", defaultValue = "600")
+    long cacheTtlSeconds;
+
+    @ConfigProperty(name = "geopulse.timeline.config-cache.max-entries", defaultValue = "1000")
+    int cacheMaxEntries;
+
     @Inject
     public TimelineConfigurationProvider(UserRepository userRepository,
                                          GlobalTimelineConfig globalDefaults,
@@ -54,7 +79,19 @@ public class TimelineConfigurationProvider {
      * @return effective timeline configuration
      */
     public TimelineConfig getConfigurationForUser(UUID userId) {
-        log.debug("Getting timeline configuration for user {}", userId);
+        CachedValue<TimelineConfig> cached = configCache.get(userId);
+        if (cached != null && !cached.isExpired()) {
+            return cached.value().toBuilder().build();
+        }
+
+        long version = invalidations.get();
+        TimelineConfig resolved = resolveConfigurationForUser(userId);
+        put(configCache, userId, version, resolved.toBuilder().build());
+        return resolved;
+    }
+
+    private TimelineConfig resolveConfigurationForUser(UUID userId) {
+        log.debug("Resolving timeline configuration for user {}", userId);
 
         UserEntity user = userRepository.findById(userId);
 
@@ -62,7 +99,7 @@ public class TimelineConfigurationProvider {
             throw new UserNotFoundException("User not found: " + userId);
         }
 
-        TimelineConfig baseConfig = globalDefaults.getDefaultTimelineConfig();
+        TimelineConfig baseConfig = getDefaultConfig();
 
         if (user.timelinePreferences != null) {
             TimelineConfig userPrefsAsConfig = convertPreferencesToConfig(user.timelinePreferences);
@@ -92,7 +129,17 @@ public class TimelineConfigurationProvider {
      * This keeps GPS point save flows from initializing lazy user associations.
      */
     public boolean isBoatEnabledForUser(UUID userId) {
+        CachedValue<TimelineConfig> cachedConfig = configCache.get(userId);
+        if (cachedConfig != null && !cachedConfig.isExpired()) {
+            return Boolean.TRUE.equals(cachedConfig.value().getBoatEnabled());
+        }
+        CachedValue<Boolean> cachedFlag = boatEnabledCache.get(userId);
+        if (cachedFlag != null && !cachedFlag.isExpired()) {
+            return cachedFlag.value();
+        }
+
         log.debug("Getting boat-enabled configuration for user {}", userId);
+        long version = invalidations.get();
 
         try {
             Object result = entityManager.createNativeQuery("""
@@ -103,16 +150,77 @@ public class TimelineConfigurationProvider {
                     .setParameter("userId", userId)
                     .getSingleResult();
 
-            if (result instanceof Boolean boatEnabled) {
-                return boatEnabled;
-            }
-
-            return Boolean.TRUE.equals(globalDefaults.getDefaultTimelineConfig().getBoatEnabled());
+            boolean boatEnabled = result instanceof Boolean userBoatEnabled
+                    ? userBoatEnabled
+                    : Boolean.TRUE.equals(getDefaultConfig().getBoatEnabled());
+            put(boatEnabledCache, userId, version, boatEnabled);
+            return boatEnabled;
         } catch (NoResultException e) {
             throw new UserNotFoundException("User not found: " + userId);
         }
     }
 
+    /**
+     * Drop the cached configuration of a single user.
+     */
+    public void invalidateUser(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        // Bump before removing: a reader that already stored its value loses it below, later ones skip the put
+        invalidations.incrementAndGet();
+        configCache.remove(userId);
+        boatEnabledCache.remove(userId);
+    }
+
+    /**
+     * Invalidate immediately so reads later in the same transaction see the new preferences...
+     */
+    void onTimelinePreferencesUpdated(@Observes TimelinePreferencesUpdatedEvent event) {
+        invalidateUser(event.getUserId());
+    }
+
+    /**
+     * ...and again once the transaction finishes, dropping anything cached from uncommitted state
+     * (or stale state read concurrently by another request) before the commit or rollback.
+     */
+    void onTimelinePreferencesUpdateCompleted(
+            @Observes(during = TransactionPhase.AFTER_COMPLETION) TimelinePreferencesUpdatedEvent event) {
+        invalidateUser(event.getUserId());
+    }
+
+    /**
+     * Global defaults come from application properties and only change on restart, so they are loaded
+     * once instead of on every request. Returns a copy the caller may modify.
+     */
+    private TimelineConfig getDefaultConfig() {
+        TimelineConfig defaults = defaultConfig;
+        if (defaults == null) {
+            defaults = globalDefaults.getDefaultTimelineConfig();
+            defaultConfig = defaults;
+        }
+        return defaults.toBuilder().build();
+    }
+
+    /**
+     * Cache a value resolved after reading the invalidation counter, unless an invalidation happened since.
+     */
+    private <T> void put(ConcurrentHashMap<UUID, CachedValue<T>> cache, UUID userId, long version, T value) {
+        long expiresAt = System.currentTimeMillis() + Math.max(1L, cacheTtlSeconds) * 1000L;
+        CachedValue<T> resolved = new CachedValue<>(value, expiresAt);
+        cache.compute(userId, (id, current) -> invalidations.get() == version ? resolved : current);
+
+        int overflow = cache.size() - Math.max(1, cacheMaxEntries);
+        if (overflow > 0) {
+            cache.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAtEpochMillis()))
+                    .limit(overflow)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(cache::remove);
+        }
+    }
+
     /**
      * Convert timeline preferences to configuration format for merging.
      * This maintains module boundaries while enabling configuration reuse.
@@ -123,4 +231,10 @@ public class TimelineConfigurationProvider {
     private TimelineConfig convertPreferencesToConfig(TimelinePreferences preferences) {
         return timelinePreferencesMapper.preferencesToConfig(preferences);
     }
+
+    private record CachedValue<T>(T value, long expiresAtEpochMillis) {
+        private boolean isExpired() {
+            return expiresAtEpochMillis <= System.currentTimeMillis();
+        }
+    }
 }
@@ -8,8 +8,8 @@ import org.github.tess1o.geopulse.streaming.config.TimelineConfig;
 import org.github.tess1o.geopulse.streaming.iterator.StreamingGpsIterable;
 import org.github.tess1o.geopulse.streaming.model.domain.*;
 import org.github.tess1o.geopulse.favorites.service.FavoriteLocationService;
-import org.github.tess1o.geopulse.favorites.model.FavoriteLocationsDto;
 import org.github.tess1o.geopulse.favorites.model.FavoriteAreaDto;
+import org.github.tess1o.geopulse.favorites.model.FavoritesSpatialIndex;
 import org.github.tess1o.geopulse.streaming.service.TimelineJobProgressService;
 import org.github.tess1o.geopulse.streaming.util.TimelineGpsAccuracyFilter;
 
@@ -96,8 +96,8 @@ public class StreamingTimelineProcessor {
         UserState userState = new UserState();
         List<TimelineEvent> finalizedEvents = new ArrayList<>();
 
-        // Pre-load user's favorite areas for stay detection enhancement
-        List<FavoriteAreaDto> userFavoriteAreas = loadUserFavoriteAreas(userId);
+        // Build the user's favorites index once per run; location resolution reuses the cached index
+        FavoritesSpatialIndex userFavoriteAreas = loadUserFavoriteAreas(userId);
 
         // Determine total point count for progress tracking
         Long totalPoints = null;
@@ -187,7 +187,7 @@ public class StreamingTimelineProcessor {
      * @param detectGaps        whether to detect data gaps
      * @param userFavoriteAreas user's favorite areas for enhanced stay detection
      */
-    private void processPoint(GPSPoint point, UserState userState, TimelineConfig config, List<TimelineEvent> finalizedEvents, List<FavoriteAreaDto> userFavoriteAreas) {
+    private void processPoint(GPSPoint point, UserState userState, TimelineConfig config, List<TimelineEvent> finalizedEvents, FavoritesSpatialIndex userFavoriteAreas) {
         List<TimelineEvent> gapEvents = dataGapEngine.checkForDataGap(point, userState, config);
         finalizedEvents.addAll(gapEvents);
 
@@ -208,7 +208,7 @@ public class StreamingTimelineProcessor {
      * @param userFavoriteAreas user's favorite areas for enhanced stay detection
      * @return processing result from state machine
      */
-    private ProcessingResult processStateMachine(GPSPoint point, UserState userState, TimelineConfig config, List<FavoriteAreaDto> userFavoriteAreas) {
+    private ProcessingResult processStateMachine(GPSPoint point, UserState userState, TimelineConfig config, FavoritesSpatialIndex userFavoriteAreas) {
         switch (userState.getCurrentMode()) {
             case UNKNOWN:
                 return handleUnknownState(point, userState);
@@ -243,7 +243,7 @@ public class StreamingTimelineProcessor {
      * Handle POTENTIAL_STAY state - check distance and duration to determine next state.
      * Enhanced with favorite area detection to handle walking within larger areas.
      */
-    private ProcessingResult handlePotentialStayState(GPSPoint point, UserState userState, TimelineConfig config, List<FavoriteAreaDto> userFavoriteAreas) {
+    private ProcessingResult handlePotentialStayState(GPSPoint point, UserState userState, TimelineConfig config, FavoritesSpatialIndex userFavoriteAreas) {
         GPSPoint centroid = userState.calculateCentroid();
         double distance = centroid.distanceTo(point);
         double stayRadius = getStayRadius(config);
@@ -257,7 +257,9 @@ public class StreamingTimelineProcessor {
 
             // Before transitioning to trip, check if both points are within same favorite area
             FavoriteAreaDto currentPointArea = findContainingFavoriteArea(point, userFavoriteAreas);
-            FavoriteAreaDto centroidArea = findContainingFavoriteArea(centroid, userFavoriteAreas);
+            FavoriteAreaDto centroidArea = currentPointArea != null
+                    ? findContainingFavoriteArea(centroid, userFavoriteAreas)
+                    : null;
 
             if (currentPointArea != null && centroidArea != null &&
                     currentPointArea.getId() == centroidArea.getId()) {
@@ -304,7 +306,7 @@ public class StreamingTimelineProcessor {
      * Handle CONFIRMED_STAY state - check if user has moved away.
      * Enhanced with favorite area detection to handle walking within larger areas.
      */
-    private ProcessingResult handleConfirmedStayState(GPSPoint point, UserState userState, TimelineConfig config, List<FavoriteAreaDto> userFavoriteAreas) {
+    private ProcessingResult handleConfirmedStayState(GPSPoint point, UserState userState, TimelineConfig config, FavoritesSpatialIndex userFavoriteAreas) {
         GPSPoint centroid = userState.calculateCentroid();
         double distance = centroid.distanceTo(point);
         double stayRadius = getStayRadius(config);
@@ -315,7 +317,9 @@ public class StreamingTimelineProcessor {
 
             // Before finalizing stay, check if both points are within same favorite area
             FavoriteAreaDto currentPointArea = findContainingFavoriteArea(point, userFavoriteAreas);
-            FavoriteAreaDto centroidArea = findContainingFavoriteArea(centroid, userFavoriteAreas);
+            FavoriteAreaDto centroidArea = currentPointArea != null
+                    ? findContainingFavoriteArea(centroid, userFavoriteAreas)
+                    : null;
 
             if (currentPointArea != null && centroidArea != null &&
                     currentPointArea.getId() == centroidArea.getId()) {
@@ -700,49 +704,36 @@ public class StreamingTimelineProcessor {
     }
 
     /**
-     * Load user's favorite areas for enhanced stay detection.
-     * This method retrieves all favorite areas for the user to enable
-     * area-based stay detection that can handle walking within larger locations.
+     * Load the user's favorites spatial index for enhanced stay detection.
+     * The index is rebuilt at the start of each run so that area-based stay detection
+     * (walking within larger locations) and later location resolution see current favorites.
      *
      * @param userId user identifier
-     * @return list of user's favorite areas
+     * @return user's favorites index, empty if favorites could not be loaded
      */
-    private List<FavoriteAreaDto> loadUserFavoriteAreas(UUID userId) {
+    private FavoritesSpatialIndex loadUserFavoriteAreas(UUID userId) {
         try {
-            FavoriteLocationsDto favoriteLocations = favoriteLocationService.getFavorites(userId);
-            return favoriteLocations != null && favoriteLocations.getAreas() != null
-                    ? favoriteLocations.getAreas()
-                    : new ArrayList<>();
+            FavoritesSpatialIndex index = favoriteLocationService.rebuildSpatialIndex(userId);
+            return index != null ? index : FavoritesSpatialIndex.empty();
         } catch (Exception e) {
             log.warn("Failed to load favorite areas for user {}: {}", userId, e.getMessage());
-            return new ArrayList<>();
+            return FavoritesSpatialIndex.empty();
         }
     }
 
     /**
      * Find the favorite area that contains the given GPS point.
-     * Uses rectangular bounding box containment check.
+     * Uses rectangular bounding box containment check against the grid-bucketed index.
      *
-     * @param point         GPS point to check
-     * @param favoriteAreas list of favorite areas to search
+     * @param point          GPS point to check
+     * @param favoritesIndex user's favorites index
      * @return favorite area containing the point, or null if none found
      */
-    private FavoriteAreaDto findContainingFavoriteArea(GPSPoint point, List<FavoriteAreaDto> favoriteAreas) {
-        if (point == null || favoriteAreas == null || favoriteAreas.isEmpty()) {
+    private FavoriteAreaDto findContainingFavoriteArea(GPSPoint point, FavoritesSpatialIndex favoritesIndex) {
+        if (point == null || favoritesIndex == null || favoritesIndex.isEmpty()) {
             return null;
         }
 
-        double pointLat = point.getLatitude();
-        double pointLon = point.getLongitude();
-
-        for (FavoriteAreaDto area : favoriteAreas) {
-            // Check if point is within the rectangular area bounds
-            if (pointLat >= area.getSouthWestLat() && pointLat <= area.getNorthEastLat() &&
-                    pointLon >= area.getSouthWestLon() && pointLon <= area.getNorthEastLon()) {
-                return area;
-            }
-        }
-
-        return null;
+        return favoritesIndex.findContainingArea(point.getLatitude(), point.getLongitude());
     }
 }
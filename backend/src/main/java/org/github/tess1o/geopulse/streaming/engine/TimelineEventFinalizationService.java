@@ -12,6 +12,7 @@ import org.github.tess1o.geopulse.streaming.model.shared.TripType;
 import org.github.tess1o.geopulse.streaming.service.trips.GpsStatisticsCalculator;
 import org.github.tess1o.geopulse.streaming.service.trips.TravelClassification;
 import org.github.tess1o.geopulse.streaming.service.trips.TripGpsStatistics;
+import org.github.tess1o.geopulse.streaming.service.trips.TripPathLevelService;
 import org.github.tess1o.geopulse.streaming.service.trips.TripWaterClassificationService;
 import org.github.tess1o.geopulse.streaming.service.trips.TripWaterStatistics;
 import org.locationtech.jts.geom.Point;
@@ -43,6 +44,9 @@ public class TimelineEventFinalizationService {
     @Inject
     TripWaterClassificationService tripWaterClassificationService;
 
+    @Inject
+    TripPathLevelService tripPathLevelService;
+
     /**
      * Finalize a stay event from user state without location resolution.
      * Location data will be populated later via batch processing.
@@ -196,6 +200,7 @@ public class TimelineEventFinalizationService {
                 .endPoint(lastPoint)
                 .distanceMeters(totalDistance)
                 .tripType(tripType)
+                .pathLevels(tripPathLevelService.buildLevels(tripPath))
                 .build();
 
         return trip;
@@ -238,6 +243,7 @@ public class TimelineEventFinalizationService {
                 .waterStatistics(waterStatistics)
                 .distanceMeters(totalDistance)
                 .tripType(tripType)
+                .pathLevels(tripPathLevelService.buildLevels(tripPath))
                 .build();
     }
 
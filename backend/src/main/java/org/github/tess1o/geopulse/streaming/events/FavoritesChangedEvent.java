@@ -0,0 +1,16 @@
+package org.github.tess1o.geopulse.streaming.events;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Fired when a user's favorites were added or edited in a way that is not covered by
+ * {@link FavoriteDeletedEvent} or {@link FavoriteRenamedEvent} (new favorites, bounds or city/country edits).
+ */
+@Data
+@Builder
+public class FavoritesChangedEvent {
+    private UUID userId;
+}
@@ -2,6 +2,7 @@ package org.github.tess1o.geopulse.streaming.iterator;
 
 import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.gps.repository.SortedMergeIterator;
 import org.github.tess1o.geopulse.streaming.model.domain.GPSPoint;
 
 import java.time.Instant;
@@ -18,6 +19,9 @@ import java.util.concurrent.TimeUnit;
  * This iterator maintains a small buffer of GPS points and loads the next batch
  * from the database when the current buffer is exhausted. This allows processing
  * millions of GPS points with constant memory usage.
+ *
+ * Points of archived months are read block by block and merged in timestamp order,
+ * so callers see one continuous history.
  */
 @Slf4j
 public class StreamingGpsIterator implements Iterator<GPSPoint> {
@@ -27,6 +31,7 @@ public class StreamingGpsIterator implements Iterator<GPSPoint> {
     private final Instant fromTimestamp;
     private final int bufferSize;
     private final String environmentDatasetVersion;
+    private final Iterator<GPSPoint> points;
 
     private List<GPSPoint> currentBuffer;
     private int positionInBuffer;
@@ -62,10 +67,35 @@ public class StreamingGpsIterator implements Iterator<GPSPoint> {
 
         // Load first buffer
         loadNextBuffer();
+
+        Iterator<GPSPoint> live = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return hasNextLive();
+            }
+
+            @Override
+            public GPSPoint next() {
+                return nextLive();
+            }
+        };
+        Iterator<GPSPoint> archived = repository.iterateArchivedEssentialPoints(userId, fromTimestamp);
+        this.points = SortedMergeIterator.ofStreamingPoints(live, archived);
     }
 
     @Override
     public boolean hasNext() {
+        return points.hasNext();
+    }
+
+    @Override
+    public GPSPoint next() {
+        GPSPoint point = points.next();
+        processedCount++;
+        return point;
+    }
+
+    private boolean hasNextLive() {
         // If we have points in current buffer, return true
         if (currentBuffer != null && positionInBuffer < currentBuffer.size()) {
             return true;
@@ -80,15 +110,13 @@ public class StreamingGpsIterator implements Iterator<GPSPoint> {
         return false;
     }
 
-    @Override
-    public GPSPoint next() {
-        if (!hasNext()) {
+    private GPSPoint nextLive() {
+        if (!hasNextLive()) {
             throw new NoSuchElementException("No more GPS points available");
         }
 
         GPSPoint point = currentBuffer.get(positionInBuffer);
         positionInBuffer++;
-        processedCount++;
 
         return point;
     }
@@ -48,7 +48,8 @@ public class BoatWaterEvidenceMaintenanceJob {
                         SELECT gp.user_id
                         FROM gps_points gp
                         JOIN users u ON u.id = gp.user_id
-                        LEFT JOIN gps_point_environment env ON env.gps_point_id = gp.id
+                        LEFT JOIN gps_point_environment env
+                            ON env.gps_point_id = gp.id AND env.gps_point_timestamp = gp.timestamp
                         WHERE u.timeline_preferences ->> 'boatEnabled' = 'true'
                           AND gp.coordinates IS NOT NULL
                           AND (
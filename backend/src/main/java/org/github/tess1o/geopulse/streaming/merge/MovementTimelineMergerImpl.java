@@ -3,13 +3,11 @@ package org.github.tess1o.geopulse.streaming.merge;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
-import org.github.tess1o.geopulse.streaming.model.domain.DataGap;
 import org.github.tess1o.geopulse.streaming.model.domain.Stay;
 import org.github.tess1o.geopulse.streaming.model.domain.Trip;
 import org.github.tess1o.geopulse.streaming.model.domain.RawTimeline;
 import org.github.tess1o.geopulse.streaming.config.TimelineConfig;
 
-import java.time.Instant;
 import java.util.*;
 
 @ApplicationScoped
@@ -60,8 +58,9 @@ public class MovementTimelineMergerImpl implements MovementTimelineMerger {
 
         log.debug("Processing {} stays and {} trips for merging", stays.size(), trips.size());
 
-        // Process merges using orchestrated services
-        MergeResult result = performMerges(timelineConfig, stays, trips, timeline.getDataGaps());
+        // Process merges using orchestrated services; trips and gaps between two stays are looked up in the index
+        TimelineMergeIndex index = TimelineMergeIndex.of(trips, timeline.getDataGaps());
+        MergeResult result = performMerges(timelineConfig, stays, trips, index);
 
         log.info("Merge completed: {} stays merged to {}, {} trips remain", 
                 stays.size(), result.mergedStays.size(), result.remainingTrips.size());
@@ -83,23 +82,23 @@ public class MovementTimelineMergerImpl implements MovementTimelineMerger {
     private MergeResult performMerges(TimelineConfig timelineConfig,
                                       List<Stay> stays,
                                       List<Trip> trips,
-                                      List<DataGap> dataGaps) {
+                                      TimelineMergeIndex index) {
         List<Stay> mergedStays = new ArrayList<>();
         Set<Integer> allRemovedTripIndices = new HashSet<>();
 
         int i = 0;
         while (i < stays.size()) {
             Stay currentStay = stays.get(i);
-            List<Integer> mergeGroup = findMergeGroup(timelineConfig, stays, trips, dataGaps, i);
+            List<Integer> mergeGroup = findMergeGroup(timelineConfig, stays, index, i);
 
             if (mergeGroup.size() > 1) {
                 // Create merged stay using execution service
-                Stay mergedStay = executionService.createMergedStay(stays, mergeGroup, trips);
+                Stay mergedStay = executionService.createMergedStay(stays, mergeGroup, index);
                 mergedStays.add(mergedStay);
 
                 // Mark trips for removal using filtering service
                 Set<Integer> removedTripIndices = tripFilteringService.markTripsForRemovalInMergeGroup(
-                    mergeGroup, stays, trips);
+                    mergeGroup, stays, index);
                 allRemovedTripIndices.addAll(removedTripIndices);
                 
                 log.debug("Merged {} stays into one, marked {} trips for removal", 
@@ -130,8 +129,7 @@ public class MovementTimelineMergerImpl implements MovementTimelineMerger {
      */
     private List<Integer> findMergeGroup(TimelineConfig timelineConfig,
                                          List<Stay> stays,
-                                         List<Trip> trips,
-                                         List<DataGap> dataGaps,
+                                         TimelineMergeIndex index,
                                          int startIndex) {
         List<Integer> mergeGroup = new ArrayList<>();
         mergeGroup.add(startIndex);
@@ -150,8 +148,8 @@ public class MovementTimelineMergerImpl implements MovementTimelineMerger {
 
             // INTEGRITY CHECK (within this merge pass): if there are NO trips/gaps between
             // same-location stays, merge independent of distance/time thresholds.
-            boolean hasNoTripsBetween = !hasAnyTripBetweenStays(lastMergedStay, candidateStay, trips);
-            boolean hasNoDataGapBetween = !analysisService.hasDataGapBetweenStays(lastMergedStay, candidateStay, dataGaps);
+            boolean hasNoTripsBetween = !index.hasTripBetween(lastMergedStay.getStartTime(), candidateStay.getStartTime());
+            boolean hasNoDataGapBetween = !analysisService.hasDataGapBetweenStays(lastMergedStay, candidateStay, index);
 
             if (hasNoTripsBetween && hasNoDataGapBetween) {
                 // INTEGRITY MERGE: independent of merge distance/time threshold settings.
@@ -160,7 +158,7 @@ public class MovementTimelineMergerImpl implements MovementTimelineMerger {
                         "merging for timeline consistency inside merge pass (stay {} and {})",
                         currentStay.getLocationName(), mergeGroup.getLast(), j);
             } else if (timelineConfig.getIsMergeEnabled() &&
-                       analysisService.canMergeStays(timelineConfig, lastMergedStay, candidateStay, trips, dataGaps)) {
+                       analysisService.canMergeStays(timelineConfig, lastMergedStay, candidateStay, index)) {
                 // USER PREFERENCE MERGE: Short trip between stays, respect config
                 mergeGroup.add(j);
                 log.debug("Added stay {} to merge group based on user config (location: '{}')",
@@ -175,25 +173,6 @@ public class MovementTimelineMergerImpl implements MovementTimelineMerger {
         return mergeGroup;
     }
 
-    /**
-     * Check if there are ANY trips between two stays (used for integrity checks).
-     */
-    private boolean hasAnyTripBetweenStays(Stay firstStay, Stay secondStay, List<Trip> trips) {
-        if (firstStay == null || secondStay == null || trips == null) {
-            return false;
-        }
-
-        Instant firstStayTime = firstStay.getStartTime();
-        Instant secondStayTime = secondStay.getStartTime();
-
-        for (Trip trip : trips) {
-            if (analysisService.isTripBetweenStays(trip, firstStayTime, secondStayTime)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Check if two stay locations represent the same location by comparing source references.
      * This approach is resistant to name changes in favorites.
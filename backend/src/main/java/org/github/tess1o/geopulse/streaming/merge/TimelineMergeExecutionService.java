@@ -6,7 +6,6 @@ import org.github.tess1o.geopulse.streaming.model.domain.Stay;
 import org.github.tess1o.geopulse.streaming.model.domain.Trip;
 
 import java.time.Duration;
-import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 
@@ -25,12 +24,12 @@ public class TimelineMergeExecutionService {
      *
      * @param stays      all stays in the timeline
      * @param mergeGroup indices of stays to merge
-     * @param trips      all trips for duration calculation
+     * @param index      trips of the timeline for duration calculation
      * @return merged stay with combined duration
      */
     public Stay createMergedStay(List<Stay> stays,
                                  List<Integer> mergeGroup,
-                                 List<Trip> trips) {
+                                 TimelineMergeIndex index) {
         if (stays == null || mergeGroup == null || mergeGroup.isEmpty()) {
             throw new IllegalArgumentException("Invalid parameters for stay merge");
         }
@@ -43,7 +42,7 @@ public class TimelineMergeExecutionService {
         long totalDuration = calculateStayGroupDuration(stays, mergeGroup);
 
         // Add duration of trips between merged stays
-        long tripDuration = calculateInterStayTripDuration(stays, mergeGroup, trips);
+        long tripDuration = calculateInterStayTripDuration(stays, mergeGroup, index);
 
         long finalDuration = totalDuration + tripDuration;
 
@@ -91,13 +90,13 @@ public class TimelineMergeExecutionService {
      *
      * @param stays      all stays
      * @param mergeGroup indices of stays being merged
-     * @param trips      all trips
+     * @param index      trips of the timeline
      * @return total trip duration in minutes
      */
     public long calculateInterStayTripDuration(List<Stay> stays,
                                                List<Integer> mergeGroup,
-                                               List<Trip> trips) {
-        if (stays == null || mergeGroup == null || trips == null || mergeGroup.size() < 2) {
+                                               TimelineMergeIndex index) {
+        if (stays == null || mergeGroup == null || index == null || mergeGroup.size() < 2) {
             return 0;
         }
 
@@ -108,7 +107,7 @@ public class TimelineMergeExecutionService {
             Stay currentStay = stays.get(mergeGroup.get(i));
             Stay nextStay = stays.get(mergeGroup.get(i + 1));
 
-            long tripDuration = findTripDurationBetweenStays(currentStay, nextStay, trips);
+            long tripDuration = findTripDurationBetweenStays(currentStay, nextStay, index);
             totalTripDuration += tripDuration;
 
             log.debug("Trip duration between stay {} and {}: {}min",
@@ -124,24 +123,18 @@ public class TimelineMergeExecutionService {
      *
      * @param currentStay first stay
      * @param nextStay    second stay
-     * @param trips       all trips to search
+     * @param index       trips of the timeline
      * @return total duration of trips between the stays in minutes
      */
-    public long findTripDurationBetweenStays(Stay currentStay, Stay nextStay, List<Trip> trips) {
-        if (currentStay == null || nextStay == null || trips == null) {
+    public long findTripDurationBetweenStays(Stay currentStay, Stay nextStay, TimelineMergeIndex index) {
+        if (currentStay == null || nextStay == null || index == null) {
             return 0;
         }
 
-        Instant currentStayTime = currentStay.getStartTime();
-        Instant nextStayTime = nextStay.getStartTime();
-
         long totalDuration = 0;
 
-        for (Trip trip : trips) {
-            if (trip.getStartTime().isAfter(currentStayTime) &&
-                    trip.getStartTime().isBefore(nextStayTime)) {
-                totalDuration += trip.getDuration().getSeconds();
-            }
+        for (Trip trip : index.tripsBetween(currentStay.getStartTime(), nextStay.getStartTime())) {
+            totalDuration += trip.getDuration().getSeconds();
         }
 
         return totalDuration;
@@ -0,0 +1,138 @@
+package org.github.tess1o.geopulse.streaming.merge;
+
+import org.github.tess1o.geopulse.streaming.model.domain.DataGap;
+import org.github.tess1o.geopulse.streaming.model.domain.Trip;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Trips and data gaps of one merge pass, ordered by time, so the trips and gaps between two stays are found by
+ * binary search instead of scanning every trip and gap for every pair of stays.
+ * <p>
+ * Trips must already be sorted by start time; trip positions returned here are indices into that list.
+ * A trip is between two stays when it starts strictly after the first stay starts and strictly before the second
+ * one starts.
+ */
+public final class TimelineMergeIndex {
+
+    private final List<Trip> trips;
+    private final Instant[] tripStarts;
+    private final Instant[] gapStarts;
+    private final Instant[] gapEnds;
+    // Latest end among the gaps starting at or before gapStarts[i]
+    private final Instant[] latestGapEnds;
+
+    private TimelineMergeIndex(List<Trip> trips, List<DataGap> dataGaps) {
+        this.trips = trips;
+        this.tripStarts = new Instant[trips.size()];
+        for (int i = 0; i < tripStarts.length; i++) {
+            tripStarts[i] = trips.get(i).getStartTime();
+            if (i > 0 && tripStarts[i].isBefore(tripStarts[i - 1])) {
+                throw new IllegalArgumentException("Trips must be sorted by start time");
+            }
+        }
+
+        List<DataGap> gaps = dataGaps.stream()
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(DataGap::getStartTime))
+                .toList();
+        this.gapStarts = new Instant[gaps.size()];
+        this.gapEnds = new Instant[gaps.size()];
+        this.latestGapEnds = new Instant[gaps.size()];
+        for (int i = 0; i < gaps.size(); i++) {
+            gapStarts[i] = gaps.get(i).getStartTime();
+            gapEnds[i] = gaps.get(i).getEndTime();
+            latestGapEnds[i] = i == 0 || gapEnds[i].isAfter(latestGapEnds[i - 1]) ? gapEnds[i] : latestGapEnds[i - 1];
+        }
+        Arrays.sort(gapEnds);
+    }
+
+    /**
+     * @param trips    trips sorted by start time, may be null
+     * @param dataGaps data gaps in any order, may be null
+     */
+    public static TimelineMergeIndex of(List<Trip> trips, List<DataGap> dataGaps) {
+        return new TimelineMergeIndex(trips != null ? trips : List.of(), dataGaps != null ? dataGaps : List.of());
+    }
+
+    public boolean hasTripBetween(Instant after, Instant before) {
+        return firstTripBetween(after) < endOfTripsBetween(after, before);
+    }
+
+    /**
+     * @return trips between the two instants in start time order, as a view of the indexed list
+     */
+    public List<Trip> tripsBetween(Instant after, Instant before) {
+        int from = firstTripBetween(after);
+        int to = endOfTripsBetween(after, before);
+        return from < to ? trips.subList(from, to) : List.of();
+    }
+
+    public IntStream tripIndicesBetween(Instant after, Instant before) {
+        return IntStream.range(firstTripBetween(after), endOfTripsBetween(after, before));
+    }
+
+    /**
+     * A data gap lies between two stays when it starts or ends strictly inside the interval between their start
+     * times, or starts before the first and ends after the second.
+     */
+    public boolean hasDataGapBetween(Instant after, Instant before) {
+        if (after == null || before == null || gapStarts.length == 0) {
+            return false;
+        }
+        int firstStartAfter = firstAfter(gapStarts, after);
+        if (firstStartAfter < gapStarts.length && gapStarts[firstStartAfter].isBefore(before)) {
+            return true;
+        }
+        int firstEndAfter = firstAfter(gapEnds, after);
+        if (firstEndAfter < gapEnds.length && gapEnds[firstEndAfter].isBefore(before)) {
+            return true;
+        }
+        int startingBefore = firstAtOrAfter(gapStarts, after);
+        return startingBefore > 0 && latestGapEnds[startingBefore - 1].isAfter(before);
+    }
+
+    private int firstTripBetween(Instant after) {
+        return after == null ? tripStarts.length : firstAfter(tripStarts, after);
+    }
+
+    // Without both bounds no trip is between the stays, so the range ends before it starts
+    private int endOfTripsBetween(Instant after, Instant before) {
+        return after == null || before == null ? 0 : firstAtOrAfter(tripStarts, before);
+    }
+
+    // Index of the first element strictly after the instant
+    private static int firstAfter(Instant[] sorted, Instant instant) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].isAfter(instant)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // Index of the first element at or after the instant
+    private static int firstAtOrAfter(Instant[] sorted, Instant instant) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].isBefore(instant)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -5,7 +5,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.streaming.model.domain.Stay;
 import org.github.tess1o.geopulse.streaming.model.domain.Trip;
 
-import java.time.Instant;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -26,11 +25,12 @@ public class TripFilteringService {
      *
      * @param mergeGroup indices of stays being merged
      * @param stays      all stays in the timeline
-     * @param trips      all trips in the timeline
+     * @param index      trips of the timeline
      * @return set of trip indices to remove
      */
-    public Set<Integer> markTripsForRemovalInMergeGroup(List<Integer> mergeGroup, List<Stay> stays, List<Trip> trips) {
-        if (mergeGroup == null || mergeGroup.size() < 2 || stays == null || trips == null) {
+    public Set<Integer> markTripsForRemovalInMergeGroup(List<Integer> mergeGroup, List<Stay> stays,
+                                                        TimelineMergeIndex index) {
+        if (mergeGroup == null || mergeGroup.size() < 2 || stays == null || index == null) {
             return new LinkedHashSet<>();
         }
 
@@ -43,7 +43,7 @@ public class TripFilteringService {
             Stay currentStay = stays.get(mergeGroup.get(i));
             Stay nextStay = stays.get(mergeGroup.get(i + 1));
 
-            Set<Integer> tripsBetweenStays = findTripsBetweenStays(currentStay, nextStay, trips);
+            Set<Integer> tripsBetweenStays = findTripsBetweenStays(currentStay, nextStay, index);
             removedTripIndices.addAll(tripsBetweenStays);
 
             log.debug("Found {} trips to remove between stay {} and stay {}",
@@ -59,49 +59,20 @@ public class TripFilteringService {
      *
      * @param firstStay  first stay
      * @param secondStay second stay
-     * @param trips      all trips to search
+     * @param index      trips of the timeline
      * @return set of indices of trips that occur between the stays
      */
-    public Set<Integer> findTripsBetweenStays(Stay firstStay, Stay secondStay, List<Trip> trips) {
-        if (firstStay == null || secondStay == null || trips == null) {
+    public Set<Integer> findTripsBetweenStays(Stay firstStay, Stay secondStay, TimelineMergeIndex index) {
+        if (firstStay == null || secondStay == null || index == null) {
             return new LinkedHashSet<>();
         }
 
-        Instant firstStayTime = firstStay.getStartTime();
-        Instant secondStayTime = secondStay.getStartTime();
-
+        // A trip between stays should be after the first stay starts and before the second stay starts
         Set<Integer> tripIndices = new LinkedHashSet<>();
-
-        for (int i = 0; i < trips.size(); i++) {
-            Trip trip = trips.get(i);
-
-            // A trip between stays should be after the first stay starts and before the second stay starts
-            if (isTripBetweenTimes(trip, firstStayTime, secondStayTime)) {
-                tripIndices.add(i);
-                log.debug("Trip at index {} occurs between stays: {}", i, trip.getStartTime());
-            }
-        }
-
+        index.tripIndicesBetween(firstStay.getStartTime(), secondStay.getStartTime()).forEach(tripIndices::add);
         return tripIndices;
     }
 
-    /**
-     * Check if a trip occurs between two timestamps.
-     *
-     * @param trip      trip to check
-     * @param startTime start boundary (exclusive)
-     * @param endTime   end boundary (exclusive)
-     * @return true if trip timestamp is between the boundaries
-     */
-    public boolean isTripBetweenTimes(Trip trip, Instant startTime, Instant endTime) {
-        if (trip == null || startTime == null || endTime == null) {
-            return false;
-        }
-
-        return trip.getStartTime().isAfter(startTime) &&
-                trip.getStartTime().isBefore(endTime);
-    }
-
     /**
      * Filter trips to remove those marked for deletion.
      * Creates a new list containing only trips that should be retained.
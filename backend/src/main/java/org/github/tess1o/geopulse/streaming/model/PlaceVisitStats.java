@@ -0,0 +1,74 @@
+package org.github.tess1o.geopulse.streaming.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Precomputed visit aggregate of one place, summed over its {@code place_visit_stats} rows.
+ *
+ * @param timezone            zone the histograms were bucketed in, or null if the rows disagree
+ * @param dayOfWeekCounts     visits per ISO day of week, Monday first
+ * @param arrivalPeriodCounts visits per arrival period, in {@link #ARRIVAL_PERIODS} order
+ */
+public record PlaceVisitStats(
+        long visitCount,
+        long totalDuration,
+        long minDuration,
+        long maxDuration,
+        Instant firstVisit,
+        Instant lastVisit,
+        String timezone,
+        long[] dayOfWeekCounts,
+        long[] arrivalPeriodCounts
+) {
+
+    public static final String[] ARRIVAL_PERIODS = {"Morning", "Afternoon", "Evening", "Night"};
+
+    public long averageDuration() {
+        return visitCount == 0 ? 0 : totalDuration / visitCount;
+    }
+
+    /**
+     * ISO day of week (1 = Monday) with the most visits; ties go to the earlier day.
+     */
+    public int mostCommonDayOfWeek() {
+        return indexOfMax(dayOfWeekCounts) + 1;
+    }
+
+    public long mostCommonDayVisitCount() {
+        return dayOfWeekCounts[indexOfMax(dayOfWeekCounts)];
+    }
+
+    /**
+     * Arrival period with the most visits; ties go to the earlier period of the day.
+     */
+    public String mostCommonArrivalPeriod() {
+        return ARRIVAL_PERIODS[indexOfMax(arrivalPeriodCounts)];
+    }
+
+    public long mostCommonArrivalPeriodVisitCount() {
+        return arrivalPeriodCounts[indexOfMax(arrivalPeriodCounts)];
+    }
+
+    /**
+     * Mean gap between consecutive visits. The gaps telescope, so this is the first-to-last span
+     * divided by the number of gaps.
+     */
+    public Double averageDaysBetweenVisits() {
+        if (visitCount < 2 || firstVisit == null || lastVisit == null) {
+            return null;
+        }
+        double spanDays = Duration.between(firstVisit, lastVisit).toNanos() / 1_000_000_000.0 / 86_400.0;
+        return spanDays / (visitCount - 1);
+    }
+
+    private static int indexOfMax(long[] counts) {
+        int best = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] > counts[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -3,13 +3,17 @@ package org.github.tess1o.geopulse.streaming.model.domain;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.github.tess1o.geopulse.streaming.model.shared.TripType;
 import org.github.tess1o.geopulse.streaming.service.trips.TripGpsStatistics;
+import org.github.tess1o.geopulse.streaming.service.trips.TripPathLevel;
 import org.github.tess1o.geopulse.streaming.service.trips.TripWaterStatistics;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
 /**
  * Represents a trip event - a period of movement between locations.
@@ -31,6 +35,14 @@ public class Trip implements TimelineEvent {
     private TripGpsStatistics statistics;
     private TripWaterStatistics waterStatistics;
 
+    /**
+     * Simplified paths built from the trip points when it was finalized, finest first. Only carried
+     * until persistence; null for trips inferred without points.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<TripPathLevel> pathLevels;
+
     @Override
     public TimelineEventType getType() {
         return TimelineEventType.TRIP;
@@ -0,0 +1,27 @@
+package org.github.tess1o.geopulse.streaming.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.github.tess1o.geopulse.shared.geo.GpsPoint;
+
+import java.time.Instant;
+
+/**
+ * Vertex of a stored, simplified trip path. Only coordinates are kept so zoomed-out maps
+ * receive the smallest possible payload.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripPathPointDTO implements GpsPoint {
+    private double latitude;
+    private double longitude;
+
+    @Override
+    @JsonIgnore
+    public Instant getTimestamp() {
+        return null;
+    }
+}
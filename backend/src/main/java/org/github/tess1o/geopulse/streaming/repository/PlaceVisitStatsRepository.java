@@ -0,0 +1,144 @@
+package org.github.tess1o.geopulse.streaming.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.github.tess1o.geopulse.shared.service.TimestampUtils;
+import org.github.tess1o.geopulse.streaming.model.PlaceVisitStats;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads the {@code place_visit_stats} aggregate. The table is maintained by database triggers on
+ * {@code timeline_stays}: every transaction that inserts, updates or deletes stays has the affected
+ * places recomputed when it commits, whichever code path wrote them.
+ */
+@ApplicationScoped
+public class PlaceVisitStatsRepository {
+
+    private static final String PLACE_STATS_SELECT = """
+            SELECT COALESCE(SUM(p.visit_count), 0),
+                   SUM(p.total_duration),
+                   MIN(p.min_duration),
+                   MAX(p.max_duration),
+                   MIN(p.first_visit),
+                   MAX(p.last_visit),
+                   CASE WHEN COUNT(DISTINCT p.timezone) = 1 THEN MIN(p.timezone) END,
+                   SUM(p.monday_visits),
+                   SUM(p.tuesday_visits),
+                   SUM(p.wednesday_visits),
+                   SUM(p.thursday_visits),
+                   SUM(p.friday_visits),
+                   SUM(p.saturday_visits),
+                   SUM(p.sunday_visits),
+                   SUM(p.morning_visits),
+                   SUM(p.afternoon_visits),
+                   SUM(p.evening_visits),
+                   SUM(p.night_visits)
+            FROM place_visit_stats p
+            WHERE p.user_id = :userId
+              AND p.%s = :placeId
+            """;
+
+    private final EntityManager entityManager;
+
+    @Inject
+    public PlaceVisitStatsRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Optional<PlaceVisitStats> findByFavoriteLocationId(Long favoriteId, UUID userId) {
+        return findByPlaceColumn("favorite_id", favoriteId, userId);
+    }
+
+    public Optional<PlaceVisitStats> findByGeocodingLocationId(Long geocodingId, UUID userId) {
+        return findByPlaceColumn("geocoding_id", geocodingId, userId);
+    }
+
+    private Optional<PlaceVisitStats> findByPlaceColumn(String placeColumn, Long placeId, UUID userId) {
+        Object[] row = (Object[]) entityManager.createNativeQuery(PLACE_STATS_SELECT.formatted(placeColumn))
+                .setParameter("userId", userId)
+                .setParameter("placeId", placeId)
+                .getSingleResult();
+
+        long visitCount = ((Number) row[0]).longValue();
+        if (visitCount == 0) {
+            return Optional.empty();
+        }
+
+        long[] dayOfWeekCounts = new long[7];
+        for (int i = 0; i < dayOfWeekCounts.length; i++) {
+            dayOfWeekCounts[i] = ((Number) row[7 + i]).longValue();
+        }
+        long[] arrivalPeriodCounts = new long[PlaceVisitStats.ARRIVAL_PERIODS.length];
+        for (int i = 0; i < arrivalPeriodCounts.length; i++) {
+            arrivalPeriodCounts[i] = ((Number) row[14 + i]).longValue();
+        }
+
+        return Optional.of(new PlaceVisitStats(
+                visitCount,
+                ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue(),
+                ((Number) row[3]).longValue(),
+                TimestampUtils.getInstantSafe(row[4]),
+                TimestampUtils.getInstantSafe(row[5]),
+                (String) row[6],
+                dayOfWeekCounts,
+                arrivalPeriodCounts
+        ));
+    }
+
+    /**
+     * Cities the user visited, most visited first.
+     *
+     * @return rows of [city, country, visitCount, totalDuration, uniquePlaces]
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getCitiesWithCounts(UUID userId) {
+        String sql = """
+                SELECT COALESCE(f.city, g.city) AS city,
+                       COALESCE(f.country, g.country) AS country,
+                       SUM(p.visit_count) AS visit_count,
+                       SUM(p.total_duration) AS total_duration,
+                       COUNT(DISTINCT CASE WHEN f.id IS NOT NULL THEN f.id ELSE g.id END) AS unique_places
+                FROM place_visit_stats p
+                LEFT JOIN favorite_locations f ON f.id = p.favorite_id
+                LEFT JOIN reverse_geocoding_location g ON g.id = p.geocoding_id
+                WHERE p.user_id = :userId
+                  AND COALESCE(f.city, g.city) IS NOT NULL
+                GROUP BY COALESCE(f.city, g.city), COALESCE(f.country, g.country)
+                ORDER BY visit_count DESC
+                """;
+        return entityManager.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .getResultList();
+    }
+
+    /**
+     * Countries the user visited, most visited first.
+     *
+     * @return rows of [country, visitCount, cityCount, totalDuration, uniquePlaces]
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getCountriesWithCounts(UUID userId) {
+        String sql = """
+                SELECT COALESCE(f.country, g.country) AS country,
+                       SUM(p.visit_count) AS visit_count,
+                       COUNT(DISTINCT COALESCE(f.city, g.city)) AS city_count,
+                       SUM(p.total_duration) AS total_duration,
+                       COUNT(DISTINCT CASE WHEN f.id IS NOT NULL THEN f.id ELSE g.id END) AS unique_places
+                FROM place_visit_stats p
+                LEFT JOIN favorite_locations f ON f.id = p.favorite_id
+                LEFT JOIN reverse_geocoding_location g ON g.id = p.geocoding_id
+                WHERE p.user_id = :userId
+                  AND COALESCE(f.country, g.country) IS NOT NULL
+                GROUP BY COALESCE(f.country, g.country)
+                ORDER BY visit_count DESC
+                """;
+        return entityManager.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .getResultList();
+    }
+}
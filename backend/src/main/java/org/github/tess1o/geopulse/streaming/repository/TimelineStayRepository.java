@@ -811,46 +811,6 @@ public class TimelineStayRepository implements PanacheRepository<TimelineStayEnt
         return results;
     }
 
-    /**
-     * Get aggregate statistics for stays at a specific favorite location.
-     *
-     * @param favoriteId ID of the favorite location
-     * @param userId     user ID
-     * @return array containing [totalDuration, avgDuration, minDuration, maxDuration, firstVisit, lastVisit]
-     */
-    public Object[] getStatisticsByFavoriteLocationId(Long favoriteId, UUID userId) {
-        String query = """
-                SELECT SUM(s.stayDuration), AVG(s.stayDuration), MIN(s.stayDuration),
-                       MAX(s.stayDuration), MIN(s.timestamp), MAX(s.timestamp)
-                FROM TimelineStayEntity s
-                WHERE s.favoriteLocation.id = ?1 AND s.user.id = ?2
-                """;
-        return (Object[]) getEntityManager().createQuery(query)
-                .setParameter(1, favoriteId)
-                .setParameter(2, userId)
-                .getSingleResult();
-    }
-
-    /**
-     * Get aggregate statistics for stays at a specific geocoding location.
-     *
-     * @param geocodingId ID of the geocoding location
-     * @param userId      user ID
-     * @return array containing [totalDuration, avgDuration, minDuration, maxDuration, firstVisit, lastVisit]
-     */
-    public Object[] getStatisticsByGeocodingLocationId(Long geocodingId, UUID userId) {
-        String query = """
-                SELECT SUM(s.stayDuration), AVG(s.stayDuration), MIN(s.stayDuration),
-                       MAX(s.stayDuration), MIN(s.timestamp), MAX(s.timestamp)
-                FROM TimelineStayEntity s
-                WHERE s.geocodingLocation.id = ?1 AND s.user.id = ?2
-                """;
-        return (Object[]) getEntityManager().createQuery(query)
-                .setParameter(1, geocodingId)
-                .setParameter(2, userId)
-                .getSingleResult();
-    }
-
     /**
      * Get time-based visit counts for a specific favorite location.
      *
@@ -1031,60 +991,6 @@ public class TimelineStayRepository implements PanacheRepository<TimelineStayEnt
 
     // Location Analytics Feature - City/Country aggregation and search
 
-    /**
-     * Get list of all cities with visit counts for a user.
-     * Returns city name, country, visit count, total duration, and unique places count.
-     *
-     * @param userId user ID
-     * @return list of Object arrays containing city summary data
-     */
-    public List<Object[]> getCitiesWithCounts(UUID userId) {
-        String query = """
-                SELECT COALESCE(f.city, g.city) as city,
-                       COALESCE(f.country, g.country) as country,
-                       COUNT(s) as visitCount,
-                       SUM(s.stayDuration) as totalDuration,
-                       COUNT(DISTINCT CASE WHEN f.id IS NOT NULL THEN f.id ELSE g.id END) as uniquePlaces
-                FROM TimelineStayEntity s
-                LEFT JOIN s.favoriteLocation f
-                LEFT JOIN s.geocodingLocation g
-                WHERE s.user.id = ?1
-                  AND COALESCE(f.city, g.city) IS NOT NULL
-                GROUP BY COALESCE(f.city, g.city), COALESCE(f.country, g.country)
-                ORDER BY visitCount DESC
-                """;
-        return getEntityManager().createQuery(query)
-                .setParameter(1, userId)
-                .getResultList();
-    }
-
-    /**
-     * Get list of all countries with visit counts for a user.
-     * Returns country name, visit count, city count, total duration, and unique places count.
-     *
-     * @param userId user ID
-     * @return list of Object arrays containing country summary data
-     */
-    public List<Object[]> getCountriesWithCounts(UUID userId) {
-        String query = """
-                SELECT COALESCE(f.country, g.country) as country,
-                       COUNT(s) as visitCount,
-                       COUNT(DISTINCT COALESCE(f.city, g.city)) as cityCount,
-                       SUM(s.stayDuration) as totalDuration,
-                       COUNT(DISTINCT CASE WHEN f.id IS NOT NULL THEN f.id ELSE g.id END) as uniquePlaces
-                FROM TimelineStayEntity s
-                LEFT JOIN s.favoriteLocation f
-                LEFT JOIN s.geocodingLocation g
-                WHERE s.user.id = ?1
-                  AND COALESCE(f.country, g.country) IS NOT NULL
-                GROUP BY COALESCE(f.country, g.country)
-                ORDER BY visitCount DESC
-                """;
-        return getEntityManager().createQuery(query)
-                .setParameter(1, userId)
-                .getResultList();
-    }
-
     /**
      * Get aggregated places for map visualization.
      * Results are grouped by place identity and sorted by last visit time descending.
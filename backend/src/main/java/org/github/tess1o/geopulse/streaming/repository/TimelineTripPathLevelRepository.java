@@ -0,0 +1,126 @@
+package org.github.tess1o.geopulse.streaming.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.github.tess1o.geopulse.shared.geo.GpsPoint;
+import org.github.tess1o.geopulse.streaming.model.dto.TripPathPointDTO;
+import org.github.tess1o.geopulse.streaming.service.trips.TripPathLevel;
+import org.github.tess1o.geopulse.streaming.service.trips.TripPathTolerance;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.util.*;
+
+/**
+ * Stores and reads the simplified trip paths in {@code timeline_trip_path_levels}. Rows are removed
+ * together with their trip by the foreign key.
+ */
+@ApplicationScoped
+@Slf4j
+public class TimelineTripPathLevelRepository {
+
+    // Keeps one insert statement well below the PostgreSQL bind parameter limit
+    private static final int INSERT_BATCH_ROWS = 2000;
+
+    private final EntityManager entityManager;
+
+    @Inject
+    public TimelineTripPathLevelRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Insert the path levels of freshly persisted trips with one statement per batch of rows.
+     *
+     * @param levelsByTripId levels keyed by trip id
+     * @return number of inserted rows
+     */
+    public int insertLevels(Map<Long, List<TripPathLevel>> levelsByTripId) {
+        List<Object[]> rows = new ArrayList<>();
+        levelsByTripId.forEach((tripId, levels) -> levels.forEach(level ->
+                rows.add(new Object[]{tripId, level.toleranceMeters(), level.pointCount(), level.path().toText()})));
+
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_ROWS) {
+            inserted += insertBatch(rows.subList(from, Math.min(rows.size(), from + INSERT_BATCH_ROWS)));
+        }
+        return inserted;
+    }
+
+    /**
+     * Load one stored path per trip for the requested tolerance: the coarsest level not exceeding it,
+     * or the finest stored level when every level is coarser than requested. A tolerance scaled by
+     * latitude is applied at the latitude where each trip starts.
+     *
+     * @param tripIds   trips to load paths for
+     * @param tolerance acceptable simplification error, usually the size of one map pixel
+     * @return path vertices keyed by trip id; trips without stored levels are absent
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, List<GpsPoint>> findPaths(Collection<Long> tripIds, TripPathTolerance tolerance) {
+        if (tripIds == null || tripIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                        SELECT DISTINCT ON (trip_id) trip_id, ST_AsText(path)
+                        FROM (SELECT trip_id, tolerance_meters, path,
+                                     tolerance_meters <= :tolerance *
+                                         CASE WHEN CAST(:scaledByLatitude AS BOOLEAN)
+                                              THEN COS(RADIANS(ST_Y(ST_StartPoint(path))))
+                                              ELSE 1 END AS within_tolerance
+                              FROM timeline_trip_path_levels
+                              WHERE trip_id IN (:tripIds)) levels
+                        ORDER BY trip_id,
+                                 within_tolerance DESC,
+                                 CASE WHEN within_tolerance THEN -tolerance_meters ELSE tolerance_meters END
+                        """)
+                .setParameter("tripIds", tripIds)
+                .setParameter("tolerance", tolerance.meters())
+                .setParameter("scaledByLatitude", tolerance.scaledByLatitude())
+                .getResultList();
+
+        WKTReader reader = new WKTReader();
+        Map<Long, List<GpsPoint>> paths = new HashMap<>();
+        for (Object[] row : rows) {
+            Long tripId = ((Number) row[0]).longValue();
+            try {
+                Coordinate[] coordinates = reader.read((String) row[1]).getCoordinates();
+                List<GpsPoint> points = new ArrayList<>(coordinates.length);
+                for (Coordinate coordinate : coordinates) {
+                    points.add(new TripPathPointDTO(coordinate.getY(), coordinate.getX()));
+                }
+                paths.put(tripId, points);
+            } catch (ParseException e) {
+                log.warn("Skipping unreadable stored path for trip {}: {}", tripId, e.getMessage());
+            }
+        }
+        return paths;
+    }
+
+    private int insertBatch(List<Object[]> rows) {
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < rows.size(); i++) {
+            int parameter = i * 4 + 1;
+            values.add("(CAST(?%d AS BIGINT), CAST(?%d AS INTEGER), CAST(?%d AS INTEGER), ST_GeomFromText(CAST(?%d AS TEXT), 4326))"
+                    .formatted(parameter, parameter + 1, parameter + 2, parameter + 3));
+        }
+
+        Query query = entityManager.createNativeQuery("""
+                INSERT INTO timeline_trip_path_levels (trip_id, tolerance_meters, point_count, path)
+                VALUES %s
+                ON CONFLICT (trip_id, tolerance_meters) DO NOTHING
+                """.formatted(values));
+        int parameter = 1;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                query.setParameter(parameter++, value);
+            }
+        }
+        return query.executeUpdate();
+    }
+}
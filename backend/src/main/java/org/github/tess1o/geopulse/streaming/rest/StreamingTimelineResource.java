@@ -25,6 +25,7 @@ import org.github.tess1o.geopulse.streaming.service.StreamingTimelineGenerationS
 import org.github.tess1o.geopulse.streaming.service.TimelineJobProgressService;
 import org.github.tess1o.geopulse.streaming.service.TimelineLocationLookupService;
 import org.github.tess1o.geopulse.streaming.service.TripMovementTypeOverrideService;
+import org.github.tess1o.geopulse.streaming.service.trips.TripPathTolerance;
 import org.github.tess1o.geopulse.streaming.model.shared.TripType;
 
 import java.time.Instant;
@@ -86,9 +87,18 @@ public class StreamingTimelineResource {
     @Inject
     TimelineLocationLookupService timelineLocationLookupService;
 
+    /**
+     * Get the stored timeline. Trip paths are included only when a map zoom ({@code pathZoom}) or a
+     * simplification tolerance in meters ({@code pathTolerance}) is requested; they come from the
+     * simplified levels stored with each trip, so zoomed-out maps get small payloads. A zoom is turned
+     * into the ground size of one pixel at the latitude of each trip.
+     */
     @GET
     @RolesAllowed({"USER", "ADMIN"})
-    public Response getTimeline(@QueryParam("startTime") String startTime, @QueryParam("endTime") String endTime) {
+    public Response getTimeline(@QueryParam("startTime") String startTime,
+                                @QueryParam("endTime") String endTime,
+                                @QueryParam("pathZoom") Integer pathZoom,
+                                @QueryParam("pathTolerance") Double pathTolerance) {
         UUID userId = currentUserService.getCurrentUserId();
         log.info("Streaming timeline request from user {} for period {} to {}", userId, startTime, endTime);
 
@@ -104,7 +114,15 @@ public class StreamingTimelineResource {
                         .build();
             }
 
-            MovementTimelineDTO timeline = streamingTimelineAggregator.getTimelineFromDb(userId, start, end);
+            if (pathTolerance != null && pathTolerance < 0) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(ApiResponse.error("Path tolerance must not be negative"))
+                        .build();
+            }
+            TripPathTolerance tripPathTolerance = pathTolerance != null ? TripPathTolerance.ofMeters(pathTolerance)
+                    : pathZoom != null ? TripPathTolerance.forZoom(pathZoom) : null;
+
+            MovementTimelineDTO timeline = streamingTimelineAggregator.getTimelineFromDb(userId, start, end, tripPathTolerance);
 
             log.info("Streaming timeline generated for user {}: {} stays, {} trips, {} gaps",
                     userId, timeline.getStaysCount(), timeline.getTripsCount(), timeline.getDataGapsCount());
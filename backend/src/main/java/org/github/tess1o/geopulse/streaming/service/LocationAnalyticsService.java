@@ -10,6 +10,7 @@ import org.github.tess1o.geopulse.geocoding.repository.ReverseGeocodingLocationR
 import org.github.tess1o.geopulse.shared.service.TimestampUtils;
 import org.github.tess1o.geopulse.streaming.model.dto.*;
 import org.github.tess1o.geopulse.streaming.model.entity.TimelineStayEntity;
+import org.github.tess1o.geopulse.streaming.repository.PlaceVisitStatsRepository;
 import org.github.tess1o.geopulse.streaming.repository.TimelineStayRepository;
 
 import java.time.Instant;
@@ -29,6 +30,9 @@ public class LocationAnalyticsService {
     @Inject
     TimelineStayRepository stayRepository;
 
+    @Inject
+    PlaceVisitStatsRepository placeVisitStatsRepository;
+
     @Inject
     FavoritesRepository favoritesRepository;
 
@@ -132,7 +136,7 @@ public class LocationAnalyticsService {
      * @return list of city summaries
      */
     public List<CitySummaryDTO> getAllCities(UUID userId) {
-        List<Object[]> citiesData = stayRepository.getCitiesWithCounts(userId);
+        List<Object[]> citiesData = placeVisitStatsRepository.getCitiesWithCounts(userId);
 
         return citiesData.stream()
                 .map(row -> CitySummaryDTO.builder()
@@ -152,7 +156,7 @@ public class LocationAnalyticsService {
      * @return list of country summaries
      */
     public List<CountrySummaryDTO> getAllCountries(UUID userId) {
-        List<Object[]> countriesData = stayRepository.getCountriesWithCounts(userId);
+        List<Object[]> countriesData = placeVisitStatsRepository.getCountriesWithCounts(userId);
 
         return countriesData.stream()
                 .map(row -> CountrySummaryDTO.builder()
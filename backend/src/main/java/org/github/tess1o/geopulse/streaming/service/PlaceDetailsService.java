@@ -1,6 +1,7 @@
 package org.github.tess1o.geopulse.streaming.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
@@ -12,8 +13,11 @@ import org.github.tess1o.geopulse.favorites.service.FavoriteLocationService;
 import org.github.tess1o.geopulse.geocoding.model.ReverseGeocodingLocationEntity;
 import org.github.tess1o.geopulse.geocoding.repository.ReverseGeocodingLocationRepository;
 import org.github.tess1o.geopulse.shared.service.TimestampUtils;
+import org.github.tess1o.geopulse.streaming.events.FavoritesChangedEvent;
+import org.github.tess1o.geopulse.streaming.model.PlaceVisitStats;
 import org.github.tess1o.geopulse.streaming.model.dto.*;
 import org.github.tess1o.geopulse.streaming.model.entity.TimelineStayEntity;
+import org.github.tess1o.geopulse.streaming.repository.PlaceVisitStatsRepository;
 import org.github.tess1o.geopulse.streaming.repository.TimelineStayRepository;
 import org.locationtech.jts.geom.*;
 
@@ -27,6 +31,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Service for fetching place details and statistics.
@@ -40,6 +45,9 @@ public class PlaceDetailsService {
     @Inject
     TimelineStayRepository timelineStayRepository;
 
+    @Inject
+    PlaceVisitStatsRepository placeVisitStatsRepository;
+
     @Inject
     FavoritesRepository favoritesRepository;
 
@@ -49,6 +57,9 @@ public class PlaceDetailsService {
     @Inject
     FavoriteLocationService favoriteLocationService;
 
+    @Inject
+    Event<FavoritesChangedEvent> favoritesChangedEvent;
+
     /**
      * Get comprehensive details for a place including statistics.
      *
@@ -220,6 +231,7 @@ public class PlaceDetailsService {
         FavoritesEntity favorite = favoriteOpt.get();
         favorite.setName(newName);
         favoritesRepository.persist(favorite);
+        favoritesChangedEvent.fire(FavoritesChangedEvent.builder().userId(userId).build());
 
         // Update all timeline stays that reference this favorite to maintain data consistency
         int updatedStays = timelineStayRepository.updateLocationNameByFavoriteId(id, userId, newName);
@@ -379,87 +391,87 @@ public class PlaceDetailsService {
     }
 
     private PlaceStatisticsDTO calculateFavoriteStatistics(Long favoriteId, UUID userId, String timezone) {
-        long totalVisits = timelineStayRepository.countByFavoriteLocationId(favoriteId, userId);
-        Object[] stats = timelineStayRepository.getStatisticsByFavoriteLocationId(favoriteId, userId);
+        Optional<PlaceVisitStats> stats = placeVisitStatsRepository.findByFavoriteLocationId(favoriteId, userId);
+        if (stats.isEmpty()) {
+            return emptyStatisticsDTO();
+        }
         Object[] visitCounts = timelineStayRepository.getVisitCountsByFavoriteLocationId(favoriteId, userId);
-        PlaceVisitPatternsDTO visitPatterns = calculateFavoriteVisitPatterns(favoriteId, userId, timezone, totalVisits);
+        PlaceVisitPatternsDTO visitPatterns = calculateVisitPatterns(stats.get(), timezone,
+                () -> timelineStayRepository.getVisitPatternsByFavoriteLocationId(favoriteId, userId, timezone));
 
-        return buildStatisticsDTO(totalVisits, stats, visitCounts, visitPatterns);
+        return buildStatisticsDTO(stats.get(), visitCounts, visitPatterns);
     }
 
     private PlaceStatisticsDTO calculateGeocodingStatistics(Long geocodingId, UUID userId, String timezone) {
-        long totalVisits = timelineStayRepository.countByGeocodingLocationId(geocodingId, userId);
-        Object[] stats = timelineStayRepository.getStatisticsByGeocodingLocationId(geocodingId, userId);
+        Optional<PlaceVisitStats> stats = placeVisitStatsRepository.findByGeocodingLocationId(geocodingId, userId);
+        if (stats.isEmpty()) {
+            return emptyStatisticsDTO();
+        }
         Object[] visitCounts = timelineStayRepository.getVisitCountsByGeocodingLocationId(geocodingId, userId);
-        PlaceVisitPatternsDTO visitPatterns = calculateGeocodingVisitPatterns(geocodingId, userId, timezone, totalVisits);
+        PlaceVisitPatternsDTO visitPatterns = calculateVisitPatterns(stats.get(), timezone,
+                () -> timelineStayRepository.getVisitPatternsByGeocodingLocationId(geocodingId, userId, timezone));
 
-        return buildStatisticsDTO(totalVisits, stats, visitCounts, visitPatterns);
+        return buildStatisticsDTO(stats.get(), visitCounts, visitPatterns);
+    }
+
+    private PlaceStatisticsDTO emptyStatisticsDTO() {
+        return PlaceStatisticsDTO.builder()
+                .totalVisits(0)
+                .visitsThisWeek(0)
+                .visitsThisMonth(0)
+                .visitsThisYear(0)
+                .totalDuration(0)
+                .averageDuration(0)
+                .minDuration(0)
+                .maxDuration(0)
+                .firstVisit(null)
+                .lastVisit(null)
+                .visitPatterns(null)
+                .build();
     }
 
     private PlaceStatisticsDTO buildStatisticsDTO(
-            long totalVisits,
-            Object[] stats,
+            PlaceVisitStats stats,
             Object[] visitCounts,
             PlaceVisitPatternsDTO visitPatterns
     ) {
-        // Handle case where there are no visits
-        if (stats[0] == null) {
-            return PlaceStatisticsDTO.builder()
-                    .totalVisits(0)
-                    .visitsThisWeek(0)
-                    .visitsThisMonth(0)
-                    .visitsThisYear(0)
-                    .totalDuration(0)
-                    .averageDuration(0)
-                    .minDuration(0)
-                    .maxDuration(0)
-                    .firstVisit(null)
-                    .lastVisit(null)
-                    .visitPatterns(null)
-                    .build();
-        }
-
         return PlaceStatisticsDTO.builder()
-                .totalVisits(totalVisits)
+                .totalVisits(stats.visitCount())
                 .visitsThisWeek(((Number) visitCounts[0]).longValue())
                 .visitsThisMonth(((Number) visitCounts[1]).longValue())
                 .visitsThisYear(((Number) visitCounts[2]).longValue())
-                .totalDuration(((Number) stats[0]).longValue())
-                .averageDuration(((Number) stats[1]).longValue())
-                .minDuration(((Number) stats[2]).longValue())
-                .maxDuration(((Number) stats[3]).longValue())
-                .firstVisit((Instant) stats[4])
-                .lastVisit((Instant) stats[5])
+                .totalDuration(stats.totalDuration())
+                .averageDuration(stats.averageDuration())
+                .minDuration(stats.minDuration())
+                .maxDuration(stats.maxDuration())
+                .firstVisit(stats.firstVisit())
+                .lastVisit(stats.lastVisit())
                 .visitPatterns(visitPatterns)
                 .build();
     }
 
-    private PlaceVisitPatternsDTO calculateFavoriteVisitPatterns(
-            Long favoriteId,
-            UUID userId,
+    private PlaceVisitPatternsDTO calculateVisitPatterns(
+            PlaceVisitStats stats,
             String timezone,
-            long totalVisits
+            Supplier<Object[]> livePatterns
     ) {
-        if (totalVisits < VISIT_PATTERNS_MINIMUM_VISITS) {
+        if (stats.visitCount() < VISIT_PATTERNS_MINIMUM_VISITS) {
             return null;
         }
 
-        Object[] row = timelineStayRepository.getVisitPatternsByFavoriteLocationId(favoriteId, userId, timezone);
-        return buildVisitPatternsDTO(row);
-    }
-
-    private PlaceVisitPatternsDTO calculateGeocodingVisitPatterns(
-            Long geocodingId,
-            UUID userId,
-            String timezone,
-            long totalVisits
-    ) {
-        if (totalVisits < VISIT_PATTERNS_MINIMUM_VISITS) {
-            return null;
+        // Histograms are bucketed in the user's zone; right after a timezone change they may not be yet
+        if (!timezone.equals(stats.timezone())) {
+            return buildVisitPatternsDTO(livePatterns.get());
         }
 
-        Object[] row = timelineStayRepository.getVisitPatternsByGeocodingLocationId(geocodingId, userId, timezone);
-        return buildVisitPatternsDTO(row);
+        return PlaceVisitPatternsDTO.builder()
+                .mostCommonDayOfWeek(formatDayOfWeek(stats.mostCommonDayOfWeek()))
+                .mostCommonDayVisitCount(stats.mostCommonDayVisitCount())
+                .mostCommonArrivalPeriod(stats.mostCommonArrivalPeriod())
+                .mostCommonArrivalPeriodVisitCount(stats.mostCommonArrivalPeriodVisitCount())
+                .averageDaysBetweenVisits(stats.averageDaysBetweenVisits())
+                .minimumVisitsRequired(VISIT_PATTERNS_MINIMUM_VISITS)
+                .build();
     }
 
     private PlaceVisitPatternsDTO buildVisitPatternsDTO(Object[] row) {
@@ -16,10 +16,14 @@ import org.github.tess1o.geopulse.streaming.model.entity.TimelineStayEntity;
 import org.github.tess1o.geopulse.streaming.model.entity.TimelineTripEntity;
 import org.github.tess1o.geopulse.streaming.repository.TimelineDataGapRepository;
 import org.github.tess1o.geopulse.streaming.repository.TimelineStayRepository;
+import org.github.tess1o.geopulse.streaming.repository.TimelineTripPathLevelRepository;
 import org.github.tess1o.geopulse.streaming.repository.TimelineTripRepository;
 import org.github.tess1o.geopulse.streaming.service.converters.StreamingTimelineConverter;
+import org.github.tess1o.geopulse.streaming.service.trips.TripPathLevel;
+import org.github.tess1o.geopulse.streaming.service.trips.TripPathLevelService;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +45,12 @@ public class StreamingPersistenceManager {
     @Inject
     TimelineTripRepository tripRepository;
 
+    @Inject
+    TimelineTripPathLevelRepository tripPathLevelRepository;
+
+    @Inject
+    TripPathLevelService tripPathLevelService;
+
     @Inject
     TimelineDataGapRepository gapRepository;
 
@@ -77,18 +87,26 @@ public class StreamingPersistenceManager {
     }
 
     /**
-     * Persist trips with GPS statistics calculation from rich domain objects.
+     * Persist trips with GPS statistics calculation from rich domain objects, together with
+     * their simplified path levels. The levels are released once they are queued for insert.
      */
     private int persistTripsWithGpsStats(List<Trip> trips, UserEntity userRef) {
         int tripCount = 0;
+        Map<Long, List<TripPathLevel>> pathLevels = new LinkedHashMap<>();
         for (Trip trip : trips) {
             TimelineTripEntity tripEntity = converter.convertStreamingTripToEntity(trip, userRef);
             if (tripEntity != null) {
                 tripRepository.persist(tripEntity);
                 tripCount++;
+                List<TripPathLevel> levels = tripPathLevelService.levelsToStore(trip);
+                if (!levels.isEmpty()) {
+                    pathLevels.put(tripEntity.getId(), levels);
+                }
             }
+            trip.setPathLevels(null);
         }
-        log.debug("Persisted {} trip entities with GPS statistics", tripCount);
+        int levelCount = pathLevels.isEmpty() ? 0 : tripPathLevelRepository.insertLevels(pathLevels);
+        log.debug("Persisted {} trip entities with GPS statistics and {} path levels", tripCount, levelCount);
         return tripCount;
     }
 
@@ -5,6 +5,7 @@ import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import org.github.tess1o.geopulse.ai.model.*;
 import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.shared.geo.GpsPoint;
 import org.github.tess1o.geopulse.streaming.model.dto.MovementTimelineDTO;
 import org.github.tess1o.geopulse.streaming.model.dto.TimelineDataGapDTO;
 import org.github.tess1o.geopulse.streaming.model.dto.TimelineStayLocationDTO;
@@ -12,8 +13,10 @@ import org.github.tess1o.geopulse.streaming.model.dto.TimelineTripDTO;
 import org.github.tess1o.geopulse.streaming.repository.TimelineDataGapRepository;
 import org.github.tess1o.geopulse.streaming.repository.TimelineDataGapStayOverrideRepository;
 import org.github.tess1o.geopulse.streaming.repository.TimelineStayRepository;
+import org.github.tess1o.geopulse.streaming.repository.TimelineTripPathLevelRepository;
 import org.github.tess1o.geopulse.streaming.repository.TimelineTripRepository;
 import org.github.tess1o.geopulse.streaming.service.converters.StreamingTimelineConverter;
+import org.github.tess1o.geopulse.streaming.service.trips.TripPathTolerance;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -30,6 +33,9 @@ public class StreamingTimelineAggregator {
     @Inject
     TimelineTripRepository timelineTripRepository;
 
+    @Inject
+    TimelineTripPathLevelRepository timelineTripPathLevelRepository;
+
     @Inject
     TimelineDataGapRepository timelineDataGapRepository;
 
@@ -46,6 +52,20 @@ public class StreamingTimelineAggregator {
         return getExistingTimelineEvents(userId, startTime, endTime);
     }
 
+    /**
+     * Get the timeline with trip paths attached from the stored path levels.
+     *
+     * @param pathTolerance simplification error the caller can tolerate, e.g. one pixel at the map zoom;
+     *                      null leaves trip paths empty
+     */
+    public MovementTimelineDTO getTimelineFromDb(UUID userId, Instant startTime, Instant endTime, TripPathTolerance pathTolerance) {
+        MovementTimelineDTO timeline = getExistingTimelineEvents(userId, startTime, endTime);
+        if (pathTolerance != null) {
+            attachTripPaths(timeline.getTrips(), pathTolerance);
+        }
+        return timeline;
+    }
+
     /**
      * Get timeline item counts for a given time range without fetching full data.
      * Used for checking if dataset is too large for Timeline page.
@@ -205,6 +225,18 @@ public class StreamingTimelineAggregator {
         return timeline;
     }
 
+    private void attachTripPaths(List<TimelineTripDTO> trips, TripPathTolerance pathTolerance) {
+        List<Long> tripIds = trips.stream()
+                .map(TimelineTripDTO::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<Long, List<GpsPoint>> paths = timelineTripPathLevelRepository.findPaths(tripIds, pathTolerance);
+        for (TimelineTripDTO trip : trips) {
+            trip.setPath(paths.get(trip.getId()));
+        }
+        log.debug("Attached stored paths to {} of {} trips at {}", paths.size(), trips.size(), pathTolerance);
+    }
+
     private void attachDataGapOverrideMetadata(UUID userId, List<TimelineStayLocationDTO> stays) {
         if (stays == null || stays.isEmpty()) {
             return;
@@ -134,6 +134,7 @@ public abstract class AbstractTripAlgorithm implements StreamTripAlgorithm {
                 .statistics(tripGpsStatistics)
                 .waterStatistics(tripWaterStatistics)
                 .tripType(overallTripType)
+                .pathLevels(TripPathLevelService.mergeLevels(trips))
                 .build();
 
         log.debug("Merged {} trips into single trip: {}m, {}min, {}",
@@ -74,7 +74,8 @@ public class GpsPointEnvironmentService {
         Number result = (Number) entityManager.createNativeQuery("""
                         SELECT COUNT(*)
                         FROM gps_points gp
-                        LEFT JOIN gps_point_environment env ON env.gps_point_id = gp.id
+                        LEFT JOIN gps_point_environment env
+                            ON env.gps_point_id = gp.id AND env.gps_point_timestamp = gp.timestamp
                         WHERE gp.user_id = :userId
                           AND gp.timestamp >= :fromTimestamp
                           AND gp.coordinates IS NOT NULL
@@ -121,7 +122,7 @@ public class GpsPointEnvironmentService {
         Number result = (Number) entityManager.createNativeQuery("""
                         SELECT COUNT(*)
                         FROM gps_point_environment env
-                        JOIN gps_points gp ON gp.id = env.gps_point_id
+                        JOIN gps_points gp ON gp.id = env.gps_point_id AND gp.timestamp = env.gps_point_timestamp
                         WHERE gp.user_id = :userId
                           AND env.environment_dataset_version = :environmentDatasetVersion
                         """)
@@ -142,7 +143,7 @@ public class GpsPointEnvironmentService {
         long startedAtNanos = metricsStart();
         Query query = entityManager.createNativeQuery("""
                         WITH candidate AS (
-                            SELECT gp.id, gp.coordinates
+                            SELECT gp.id, gp.timestamp, gp.coordinates
                             FROM gps_points gp
                             WHERE gp.user_id = :userId
                               AND gp.id IN (:gpsPointIds)
@@ -151,6 +152,7 @@ public class GpsPointEnvironmentService {
                         classified AS (
                             SELECT
                                 c.id AS gps_point_id,
+                                c.timestamp AS gps_point_timestamp,
                                 water_match.source IS NOT NULL AS on_water,
                                 water_match.source AS water_source
                             FROM candidate c
@@ -165,6 +167,7 @@ public class GpsPointEnvironmentService {
                         )
                         INSERT INTO gps_point_environment (
                             gps_point_id,
+                            gps_point_timestamp,
                             environment_dataset_version,
                             on_water,
                             water_source,
@@ -172,12 +175,13 @@ public class GpsPointEnvironmentService {
                         )
                         SELECT
                             gps_point_id,
+                            gps_point_timestamp,
                             :environmentDatasetVersion,
                             on_water,
                             water_source,
                             NOW()
                         FROM classified
-                        ON CONFLICT (gps_point_id) DO UPDATE SET
+                        ON CONFLICT (gps_point_id, gps_point_timestamp) DO UPDATE SET
                             environment_dataset_version = EXCLUDED.environment_dataset_version,
                             on_water = EXCLUDED.on_water,
                             water_source = EXCLUDED.water_source,
@@ -210,9 +214,10 @@ public class GpsPointEnvironmentService {
         long startedAtNanos = metricsStart();
         Query query = entityManager.createNativeQuery("""
                         WITH candidate AS (
-                            SELECT gp.id, gp.coordinates
+                            SELECT gp.id, gp.timestamp, gp.coordinates
                             FROM gps_points gp
-                            LEFT JOIN gps_point_environment env ON env.gps_point_id = gp.id
+                            LEFT JOIN gps_point_environment env
+                                ON env.gps_point_id = gp.id AND env.gps_point_timestamp = gp.timestamp
                             WHERE gp.user_id = :userId
                               AND gp.timestamp >= :fromTimestamp
                               AND gp.coordinates IS NOT NULL
@@ -226,6 +231,7 @@ public class GpsPointEnvironmentService {
                         classified AS (
                             SELECT
                                 c.id AS gps_point_id,
+                                c.timestamp AS gps_point_timestamp,
                                 water_match.source IS NOT NULL AS on_water,
                                 water_match.source AS water_source
                             FROM candidate c
@@ -240,6 +246,7 @@ public class GpsPointEnvironmentService {
                         )
                         INSERT INTO gps_point_environment (
                             gps_point_id,
+                            gps_point_timestamp,
                             environment_dataset_version,
                             on_water,
                             water_source,
@@ -247,12 +254,13 @@ public class GpsPointEnvironmentService {
                         )
                         SELECT
                             gps_point_id,
+                            gps_point_timestamp,
                             :environmentDatasetVersion,
                             on_water,
                             water_source,
                             NOW()
                         FROM classified
-                        ON CONFLICT (gps_point_id) DO UPDATE SET
+                        ON CONFLICT (gps_point_id, gps_point_timestamp) DO UPDATE SET
                             environment_dataset_version = EXCLUDED.environment_dataset_version,
                             on_water = EXCLUDED.on_water,
                             water_source = EXCLUDED.water_source,
@@ -0,0 +1,16 @@
+package org.github.tess1o.geopulse.streaming.service.trips;
+
+import org.locationtech.jts.geom.LineString;
+
+/**
+ * One stored level of detail of a trip path.
+ *
+ * @param toleranceMeters Douglas-Peucker tolerance the path was simplified with
+ * @param path simplified path geometry
+ */
+public record TripPathLevel(int toleranceMeters, LineString path) {
+
+    public int pointCount() {
+        return path.getNumPoints();
+    }
+}
@@ -0,0 +1,173 @@
+package org.github.tess1o.geopulse.streaming.service.trips;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.gps.service.simplification.GpsPathSimplifier;
+import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+import org.github.tess1o.geopulse.streaming.model.domain.GPSPoint;
+import org.github.tess1o.geopulse.streaming.model.domain.Trip;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Builds the simplified path levels stored with each trip, so map reads can pick a geometry
+ * matching their zoom instead of loading and simplifying GPS points per request.
+ * <p>
+ * Levels are built when a trip is finalized and the trip carries only them, so a timeline
+ * regeneration never holds the GPS points of all its trips at once.
+ */
+@ApplicationScoped
+public class TripPathLevelService {
+
+    // Web Mercator ground resolution of one pixel at zoom 0 on the equator
+    private static final double METERS_PER_PIXEL_AT_ZOOM_0 = 156_543.03392;
+
+    @ConfigProperty(name = "geopulse.timeline.trip.path_levels.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "geopulse.timeline.trip.path_levels.tolerances_meters", defaultValue = "10,50,250,1000")
+    List<Integer> tolerancesMeters;
+
+    /**
+     * Simplify the trip points once per configured tolerance. Every level is simplified from the raw points,
+     * so its error stays within its own tolerance instead of adding up across levels.
+     *
+     * @param points GPS points of the trip in time order
+     * @return one level per configured tolerance, finest first; empty when disabled or for fewer than two points
+     */
+    public List<TripPathLevel> buildLevels(List<GPSPoint> points) {
+        if (!enabled || points == null || points.size() < 2) {
+            return List.of();
+        }
+
+        List<TripPathLevel> levels = new ArrayList<>();
+        for (int toleranceMeters : tolerances()) {
+            LineString path = GeoUtils.convertGpsPointsToLineString(GpsPathSimplifier.simplifyPath(points, toleranceMeters));
+            if (path != null) {
+                levels.add(new TripPathLevel(toleranceMeters, path));
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Levels to store for a trip. A level that keeps as many points as the finer one before it is not stored;
+     * readers fall back to the finer one. Trips inferred without points get a straight start-end path.
+     *
+     * @return levels ordered by ascending tolerance, empty when the trip has no usable path
+     */
+    public List<TripPathLevel> levelsToStore(Trip trip) {
+        if (!enabled || trip == null) {
+            return List.of();
+        }
+
+        List<TripPathLevel> levels = trip.getPathLevels();
+        if (levels == null || levels.isEmpty()) {
+            if (trip.getStartLocation() == null || trip.getEndLocation() == null) {
+                return List.of();
+            }
+            levels = buildLevels(List.of(trip.getStartLocation(), trip.getEndLocation()));
+        }
+
+        List<TripPathLevel> stored = new ArrayList<>();
+        int previousPointCount = -1;
+        for (TripPathLevel level : levels) {
+            if (level.pointCount() != previousPointCount) {
+                stored.add(level);
+                previousPointCount = level.pointCount();
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Path levels of a trip merged from consecutive segments: each level is the concatenation of the segments'
+     * levels with the same tolerance, which stays within that tolerance of the concatenated points. Segments
+     * without levels (inferred trips) contribute their endpoints.
+     *
+     * @return merged levels, or null when no segment has levels
+     */
+    public static List<TripPathLevel> mergeLevels(List<Trip> trips) {
+        TreeSet<Integer> tolerances = new TreeSet<>();
+        GeometryFactory factory = null;
+        for (Trip trip : trips) {
+            if (trip.getPathLevels() != null) {
+                for (TripPathLevel level : trip.getPathLevels()) {
+                    tolerances.add(level.toleranceMeters());
+                    factory = level.path().getFactory();
+                }
+            }
+        }
+        if (factory == null) {
+            return null;
+        }
+
+        List<TripPathLevel> merged = new ArrayList<>(tolerances.size());
+        for (int toleranceMeters : tolerances) {
+            List<Coordinate> coordinates = new ArrayList<>();
+            for (Trip trip : trips) {
+                LineString segment = segmentPath(trip, toleranceMeters);
+                if (segment != null) {
+                    for (Coordinate coordinate : segment.getCoordinates()) {
+                        append(coordinates, coordinate);
+                    }
+                } else {
+                    if (trip.getStartLocation() != null) {
+                        append(coordinates, coordinate(trip.getStartLocation()));
+                    }
+                    if (trip.getEndLocation() != null) {
+                        append(coordinates, coordinate(trip.getEndLocation()));
+                    }
+                }
+            }
+            if (coordinates.size() >= 2) {
+                merged.add(new TripPathLevel(toleranceMeters,
+                        factory.createLineString(coordinates.toArray(Coordinate[]::new))));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Tolerance matching one screen pixel at the given web map zoom level on the equator. Web Mercator pixels
+     * cover {@code cos(latitude)} times as much ground elsewhere.
+     */
+    public static double equatorToleranceForZoom(int zoom) {
+        int clampedZoom = Math.max(0, Math.min(zoom, 24));
+        return METERS_PER_PIXEL_AT_ZOOM_0 / Math.pow(2, clampedZoom);
+    }
+
+    private List<Integer> tolerances() {
+        if (tolerancesMeters == null) {
+            return List.of();
+        }
+        return tolerancesMeters.stream().filter(t -> t > 0).distinct().sorted().toList();
+    }
+
+    private static LineString segmentPath(Trip trip, int toleranceMeters) {
+        if (trip.getPathLevels() == null) {
+            return null;
+        }
+        for (TripPathLevel level : trip.getPathLevels()) {
+            if (level.toleranceMeters() == toleranceMeters) {
+                return level.path();
+            }
+        }
+        return null;
+    }
+
+    private static void append(List<Coordinate> coordinates, Coordinate coordinate) {
+        if (coordinates.isEmpty() || !coordinates.getLast().equals2D(coordinate)) {
+            coordinates.add(coordinate);
+        }
+    }
+
+    private static Coordinate coordinate(GPSPoint point) {
+        return new Coordinate(point.getLongitude(), point.getLatitude());
+    }
+}
@@ -0,0 +1,22 @@
+package org.github.tess1o.geopulse.streaming.service.trips;
+
+/**
+ * Simplification error a reader of stored trip paths can accept.
+ *
+ * @param meters            tolerance in meters; for a map zoom, the size of one pixel on the equator
+ * @param scaledByLatitude  whether {@code meters} is scaled by the cosine of each trip's latitude, as the
+ *                          ground size of a Web Mercator pixel is
+ */
+public record TripPathTolerance(double meters, boolean scaledByLatitude) {
+
+    public static TripPathTolerance ofMeters(double meters) {
+        return new TripPathTolerance(meters, false);
+    }
+
+    /**
+     * One screen pixel at the given web map zoom level, at each trip's own latitude.
+     */
+    public static TripPathTolerance forZoom(int zoom) {
+        return new TripPathTolerance(TripPathLevelService.equatorToleranceForZoom(zoom), true);
+    }
+}
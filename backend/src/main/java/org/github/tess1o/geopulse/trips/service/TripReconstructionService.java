@@ -3,8 +3,10 @@ package org.github.tess1o.geopulse.trips.service;
 import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityManager;
+import org.github.tess1o.geopulse.coverage.repository.CoverageRepository;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
 import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.gps.service.RecentGpsPointWindow;
 import org.github.tess1o.geopulse.shared.geo.GeoUtils;
 import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
 import org.github.tess1o.geopulse.streaming.config.TimelineConfig;
@@ -44,17 +46,23 @@ public class TripReconstructionService {
     private final GpsPointRepository gpsPointRepository;
     private final AsyncTimelineGenerationService asyncTimelineGenerationService;
     private final EntityManager entityManager;
+    private final CoverageRepository coverageRepository;
+    private final RecentGpsPointWindow recentPointWindow;
 
     public TripReconstructionService(TripAccessService tripAccessService,
                                      TimelineConfigurationProvider timelineConfigurationProvider,
                                      GpsPointRepository gpsPointRepository,
                                      AsyncTimelineGenerationService asyncTimelineGenerationService,
-                                     EntityManager entityManager) {
+                                     EntityManager entityManager,
+                                     CoverageRepository coverageRepository,
+                                     RecentGpsPointWindow recentPointWindow) {
         this.tripAccessService = tripAccessService;
         this.timelineConfigurationProvider = timelineConfigurationProvider;
         this.gpsPointRepository = gpsPointRepository;
         this.asyncTimelineGenerationService = asyncTimelineGenerationService;
         this.entityManager = entityManager;
+        this.coverageRepository = coverageRepository;
+        this.recentPointWindow = recentPointWindow;
     }
 
     public TripReconstructionPreviewDto preview(UUID actorUserId,
@@ -144,6 +152,10 @@ public class TripReconstructionService {
             }
         }
 
+        if (insertedPoints > 0) {
+            coverageRepository.markNewData(ownerUserId);
+            recentPointWindow.markChanged(ownerUserId);
+        }
         return new PersistenceResult(insertedPoints, duplicatePoints, earliestInsertedTimestamp);
     }
 
@@ -0,0 +1,19 @@
+package org.github.tess1o.geopulse.user.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Fired when a user was enabled, disabled, deleted or given a different role,
+ * so anything holding a cached identity for that user can drop it.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class UserAccessChangedEvent {
+
+    private final UUID userId;
+}
@@ -17,6 +17,7 @@ import org.github.tess1o.geopulse.streaming.events.TravelClassificationUpdatedEv
 import org.github.tess1o.geopulse.streaming.events.TimelineStructureUpdatedEvent;
 import org.github.tess1o.geopulse.streaming.service.AsyncTimelineGenerationService;
 import org.github.tess1o.geopulse.shared.map.MapRenderMode;
+import org.github.tess1o.geopulse.user.events.UserAccessChangedEvent;
 import org.github.tess1o.geopulse.user.exceptions.UserNotFoundException;
 import org.github.tess1o.geopulse.user.model.*;
 import org.github.tess1o.geopulse.user.repository.UserAvatarRepository;
@@ -49,6 +50,7 @@ public class UserService {
     private final DefaultNotificationTemplateService defaultNotificationTemplateService;
     private final SystemSettingsService systemSettingsService;
     private final AdminBootstrapService adminBootstrapService;
+    private final Event<UserAccessChangedEvent> userAccessChangedEvent;
 
     @ConfigProperty(name = "geopulse.coverage.enabled-by-default", defaultValue = "false")
     boolean coverageEnabledByDefault;
@@ -82,7 +84,8 @@ public class UserService {
                        AsyncTimelineGenerationService asyncTimelineGenerationService,
                        DefaultNotificationTemplateService defaultNotificationTemplateService,
                        SystemSettingsService systemSettingsService,
-                       AdminBootstrapService adminBootstrapService) {
+                       AdminBootstrapService adminBootstrapService,
+                       Event<UserAccessChangedEvent> userAccessChangedEvent) {
         this.userRepository = userRepository;
         this.userAvatarRepository = userAvatarRepository;
         this.securePasswordUtils = securePasswordUtils;
@@ -95,6 +98,7 @@ public class UserService {
         this.defaultNotificationTemplateService = defaultNotificationTemplateService;
         this.systemSettingsService = systemSettingsService;
         this.adminBootstrapService = adminBootstrapService;
+        this.userAccessChangedEvent = userAccessChangedEvent;
     }
 
     /**
@@ -229,6 +233,7 @@ public class UserService {
         if (user != null) {
             user.setRole(role);
             // No explicit persist needed - dirty checking handles it within transaction
+            userAccessChangedEvent.fire(new UserAccessChangedEvent(userId));
             return Optional.of(user);
         }
         return Optional.empty();
@@ -693,6 +698,7 @@ public class UserService {
 
         // Use registry-based updater - eliminates all the manual if/else logic
         preferencesUpdater.updatePreferences(user.timelinePreferences, update);
+        preferencesUpdatedEvent.fire(new TimelinePreferencesUpdatedEvent(userId, user.timelinePreferences, false));
 
         // Determine which type of event to fire based on parameter types
         boolean hasClassificationChanges = hasClassificationParameters(update);
@@ -734,6 +740,7 @@ public class UserService {
             throw new UserNotFoundException("User not found");
         }
         user.timelinePreferences = null;
+        preferencesUpdatedEvent.fire(new TimelinePreferencesUpdatedEvent(userId, null, true));
         log.info("Reset timeline preferences to defaults for user {}", userId);
         return true; // Always need timeline regeneration when resetting
     }
@@ -859,7 +866,7 @@ public class UserService {
             log.debug("Updated map render mode for user {} to {}", userId, request.getMapRenderMode());
         }
 
-        // Update display preference columns (no event firing, no regeneration)
+        // Update display preference columns (no regeneration; the event only refreshes cached timeline config)
         if (request.getPathSimplificationEnabled() != null) {
             user.setTimelineDisplayPathSimplificationEnabled(request.getPathSimplificationEnabled());
         }
@@ -882,6 +889,7 @@ public class UserService {
             user.setTimelineDisplayAutoShowTripReplayControls(request.getAutoShowTripReplayControls());
         }
 
+        preferencesUpdatedEvent.fire(new TimelinePreferencesUpdatedEvent(userId, user.timelinePreferences, false));
         log.info("Updated timeline display preferences for user {} (no regeneration required)", userId);
     }
 
@@ -6,6 +6,7 @@ import org.github.tess1o.geopulse.weather.client.PirateWeatherRestClient;
 import org.github.tess1o.geopulse.weather.client.WeatherProviderErrorKind;
 import org.github.tess1o.geopulse.weather.client.WeatherProviderException;
 import org.github.tess1o.geopulse.weather.dto.*;
+import org.github.tess1o.geopulse.weather.model.WeatherObservationEntity;
 import org.github.tess1o.geopulse.weather.model.WeatherSampleEntity;
 import org.github.tess1o.geopulse.weather.model.WeatherSampleTargetEntity;
 import org.github.tess1o.geopulse.weather.model.WeatherTargetSource;
@@ -13,6 +14,7 @@ import org.github.tess1o.geopulse.weather.model.WeatherTargetStatus;
 
 @RegisterForReflection(targets = {
         WeatherSampleEntity.class,
+        WeatherObservationEntity.class,
         WeatherSampleTargetEntity.class,
         WeatherTargetSource.class,
         WeatherTargetStatus.class,
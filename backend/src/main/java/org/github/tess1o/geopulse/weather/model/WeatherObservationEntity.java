@@ -0,0 +1,118 @@
+package org.github.tess1o.geopulse.weather.model;
+
+import io.hypersistence.utils.hibernate.type.json.JsonType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Type;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Provider measurements for one coordinate bucket and hour, shared by every user whose samples
+ * fall into that bucket hour.
+ */
+@Entity
+@Table(
+        name = "weather_observations",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uq_weather_observations_provider_bucket_time",
+                columnNames = {"provider", "latitude_bucket", "longitude_bucket", "observed_at"}
+        )
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeatherObservationEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String provider;
+
+    @Column(name = "latitude_bucket", nullable = false)
+    private double latitudeBucket;
+
+    @Column(name = "longitude_bucket", nullable = false)
+    private double longitudeBucket;
+
+    @Column(name = "observed_at", nullable = false)
+    private Instant observedAt;
+
+    @Column(name = "provider_latitude")
+    private Double providerLatitude;
+
+    @Column(name = "provider_longitude")
+    private Double providerLongitude;
+
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+
+    @Column(name = "timezone", length = 100)
+    private String timezone;
+
+    @Column(name = "weather_code")
+    private Integer weatherCode;
+
+    @Column(name = "temperature")
+    private Double temperature;
+
+    @Column(name = "apparent_temperature")
+    private Double apparentTemperature;
+
+    @Column(name = "humidity")
+    private Double humidity;
+
+    @Column(name = "precipitation")
+    private Double precipitation;
+
+    @Column(name = "rain")
+    private Double rain;
+
+    @Column(name = "snowfall")
+    private Double snowfall;
+
+    @Column(name = "cloud_cover")
+    private Double cloudCover;
+
+    @Column(name = "wind_speed")
+    private Double windSpeed;
+
+    @Column(name = "wind_gust")
+    private Double windGust;
+
+    @Column(name = "wind_direction")
+    private Double windDirection;
+
+    @Column(name = "pressure")
+    private Double pressure;
+
+    @Type(JsonType.class)
+    @Column(name = "raw_data", columnDefinition = "jsonb")
+    private Map<String, Object> rawData;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        Instant now = Instant.now();
+        if (fetchedAt == null) {
+            fetchedAt = now;
+        }
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+}
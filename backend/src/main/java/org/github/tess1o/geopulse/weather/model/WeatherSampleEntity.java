@@ -1,14 +1,15 @@
 package org.github.tess1o.geopulse.weather.model;
 
-import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import lombok.*;
 import org.github.tess1o.geopulse.user.model.UserEntity;
-import org.hibernate.annotations.Type;
 
 import java.time.Instant;
-import java.util.Map;
 
+/**
+ * A user's weather sample: where and when the user was, referencing the shared
+ * {@link WeatherObservationEntity} that holds the measurements for that bucket hour.
+ */
 @Entity
 @Table(
         name = "weather_samples",
@@ -45,12 +46,6 @@ public class WeatherSampleEntity {
     @Column(name = "requested_longitude", nullable = false)
     private double requestedLongitude;
 
-    @Column(name = "provider_latitude")
-    private Double providerLatitude;
-
-    @Column(name = "provider_longitude")
-    private Double providerLongitude;
-
     @Column(name = "latitude_bucket", nullable = false)
     private double latitudeBucket;
 
@@ -60,51 +55,9 @@ public class WeatherSampleEntity {
     @Column(name = "observed_at", nullable = false)
     private Instant observedAt;
 
-    @Column(name = "fetched_at", nullable = false)
-    private Instant fetchedAt;
-
-    @Column(name = "timezone", length = 100)
-    private String timezone;
-
-    @Column(name = "weather_code")
-    private Integer weatherCode;
-
-    @Column(name = "temperature")
-    private Double temperature;
-
-    @Column(name = "apparent_temperature")
-    private Double apparentTemperature;
-
-    @Column(name = "humidity")
-    private Double humidity;
-
-    @Column(name = "precipitation")
-    private Double precipitation;
-
-    @Column(name = "rain")
-    private Double rain;
-
-    @Column(name = "snowfall")
-    private Double snowfall;
-
-    @Column(name = "cloud_cover")
-    private Double cloudCover;
-
-    @Column(name = "wind_speed")
-    private Double windSpeed;
-
-    @Column(name = "wind_gust")
-    private Double windGust;
-
-    @Column(name = "wind_direction")
-    private Double windDirection;
-
-    @Column(name = "pressure")
-    private Double pressure;
-
-    @Type(JsonType.class)
-    @Column(name = "raw_data", columnDefinition = "jsonb")
-    private Map<String, Object> rawData;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "observation_id", nullable = false)
+    private WeatherObservationEntity observation;
 
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
@@ -115,9 +68,6 @@ public class WeatherSampleEntity {
     @PrePersist
     protected void onCreate() {
         Instant now = Instant.now();
-        if (fetchedAt == null) {
-            fetchedAt = now;
-        }
         createdAt = now;
         updatedAt = now;
     }
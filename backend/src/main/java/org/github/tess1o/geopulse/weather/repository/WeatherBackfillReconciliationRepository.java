@@ -4,7 +4,9 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
 import org.github.tess1o.geopulse.shared.service.TimestampUtils;
+import org.github.tess1o.geopulse.streaming.model.domain.GPSPoint;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -27,6 +29,9 @@ public class WeatherBackfillReconciliationRepository {
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    GpsPointRepository gpsPointRepository;
+
     public void enqueue(UUID userId, Instant rangeStart, Instant rangeEnd) {
         if (userId == null || rangeStart == null || rangeEnd == null || !rangeEnd.isAfter(rangeStart)) {
             return;
@@ -249,6 +254,10 @@ public class WeatherBackfillReconciliationRepository {
             long durationSeconds,
             Instant targetAt) {
         Instant tripEnd = tripStart.plusSeconds(durationSeconds);
+        if (gpsPointRepository.hasArchivedPoints(userId, tripStart, tripEnd)) {
+            return findNearestMergedTripCoordinate(userId, tripStart, tripEnd, targetAt);
+        }
+
         List<Object[]> rows = entityManager.createNativeQuery("""
                 SELECT latitude, longitude
                 FROM (
@@ -300,6 +309,37 @@ public class WeatherBackfillReconciliationRepository {
         });
     }
 
+    /**
+     * Same choice as the query in {@link #findNearestTripCoordinate}, over live and archived points of a trip
+     * reaching an archived month.
+     */
+    private Optional<double[]> findNearestMergedTripCoordinate(
+            UUID userId,
+            Instant tripStart,
+            Instant tripEnd,
+            Instant targetAt) {
+        GPSPoint before = null;
+        GPSPoint after = null;
+        for (GPSPoint point : gpsPointRepository.findEssentialPointsInInterval(userId, tripStart, tripEnd)) {
+            if (!point.getTimestamp().isAfter(targetAt)) {
+                before = point;
+            }
+            if (after == null && !point.getTimestamp().isBefore(targetAt)) {
+                after = point;
+            }
+        }
+
+        GPSPoint nearest = before;
+        if (nearest == null || (after != null && Duration.between(targetAt, after.getTimestamp()).abs()
+                .compareTo(Duration.between(nearest.getTimestamp(), targetAt).abs()) < 0)) {
+            nearest = after;
+        }
+        if (nearest == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new double[]{nearest.getLatitude(), nearest.getLongitude()});
+    }
+
     private UUID toUuid(Object value) {
         return value instanceof UUID uuid ? uuid : UUID.fromString(String.valueOf(value));
     }
@@ -0,0 +1,15 @@
+package org.github.tess1o.geopulse.weather.repository;
+
+import org.github.tess1o.geopulse.weather.dto.WeatherProviderSample;
+
+import java.time.Instant;
+
+/**
+ * A provider sample matched to the claimed target it answers, ready to be stored.
+ */
+public record WeatherFetchedSample(
+        WeatherSampleTargetClaim target,
+        Instant observedAt,
+        WeatherProviderSample sample
+) {
+}
@@ -2,7 +2,10 @@ package org.github.tess1o.geopulse.weather.repository;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+import org.github.tess1o.geopulse.weather.dto.WeatherProviderSample;
 import org.github.tess1o.geopulse.weather.dto.WeatherSampleDTO;
+import org.github.tess1o.geopulse.weather.model.WeatherObservationEntity;
 import org.github.tess1o.geopulse.weather.model.WeatherSampleEntity;
 import org.github.tess1o.geopulse.weather.model.WeatherTargetSource;
 
@@ -11,11 +14,20 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
 import java.util.UUID;
 
 @ApplicationScoped
 public class WeatherSampleRepository implements PanacheRepository<WeatherSampleEntity> {
 
+    // Column types of one row of the multi-row insert in storeFetchedSamples, in binding order
+    private static final List<String> FETCHED_SAMPLE_COLUMN_TYPES = List.of(
+            "UUID", "VARCHAR", "DOUBLE PRECISION", "DOUBLE PRECISION", "DOUBLE PRECISION", "DOUBLE PRECISION",
+            "TIMESTAMPTZ", "DOUBLE PRECISION", "DOUBLE PRECISION", "VARCHAR", "INTEGER", "DOUBLE PRECISION",
+            "DOUBLE PRECISION", "DOUBLE PRECISION", "DOUBLE PRECISION", "DOUBLE PRECISION", "DOUBLE PRECISION",
+            "DOUBLE PRECISION", "DOUBLE PRECISION", "DOUBLE PRECISION", "DOUBLE PRECISION", "DOUBLE PRECISION"
+    );
+
     public List<WeatherSampleEntity> findByUserAndRange(
             UUID userId,
             Instant startTime,
@@ -26,9 +38,11 @@ public class WeatherSampleRepository implements PanacheRepository<WeatherSampleE
             Double maxLon) {
 
         StringBuilder jpql = new StringBuilder("""
-                user.id = :userId
-                and observedAt >= :startTime
-                and observedAt <= :endTime
+                from WeatherSampleEntity sample
+                join fetch sample.observation
+                where sample.user.id = :userId
+                and sample.observedAt >= :startTime
+                and sample.observedAt <= :endTime
                 """);
         Map<String, Object> params = new HashMap<>();
         params.put("userId", userId);
@@ -36,17 +50,17 @@ public class WeatherSampleRepository implements PanacheRepository<WeatherSampleE
         params.put("endTime", endTime);
 
         if (minLat != null && maxLat != null) {
-            jpql.append(" and requestedLatitude >= :minLat and requestedLatitude <= :maxLat");
+            jpql.append(" and sample.requestedLatitude >= :minLat and sample.requestedLatitude <= :maxLat");
             params.put("minLat", Math.min(minLat, maxLat));
             params.put("maxLat", Math.max(minLat, maxLat));
         }
         if (minLon != null && maxLon != null) {
-            jpql.append(" and requestedLongitude >= :minLon and requestedLongitude <= :maxLon");
+            jpql.append(" and sample.requestedLongitude >= :minLon and sample.requestedLongitude <= :maxLon");
             params.put("minLon", Math.min(minLon, maxLon));
             params.put("maxLon", Math.max(minLon, maxLon));
         }
 
-        jpql.append(" order by observedAt asc");
+        jpql.append(" order by sample.observedAt asc");
         return find(jpql.toString(), params).list();
     }
 
@@ -79,6 +93,199 @@ public class WeatherSampleRepository implements PanacheRepository<WeatherSampleE
                 userId, provider, latitudeBucket, longitudeBucket, observedAt) > 0;
     }
 
+    /**
+     * Gives the user a sample for the bucket hour when the shared observation pool already has one,
+     * so no target or provider request is needed for it.
+     *
+     * @return true when the user now has a sample for the bucket hour
+     */
+    @Transactional
+    public boolean linkPooledObservation(
+            UUID userId,
+            String provider,
+            double requestedLatitude,
+            double requestedLongitude,
+            double latitudeBucket,
+            double longitudeBucket,
+            Instant observedAt,
+            WeatherTargetSource source) {
+        Instant now = Instant.now();
+        int linked = getEntityManager().createNativeQuery("""
+                INSERT INTO weather_samples (
+                    user_id,
+                    provider,
+                    source,
+                    requested_latitude,
+                    requested_longitude,
+                    latitude_bucket,
+                    longitude_bucket,
+                    observed_at,
+                    observation_id,
+                    created_at,
+                    updated_at
+                )
+                SELECT ?1, observation.provider, ?2, ?3, ?4, observation.latitude_bucket,
+                       observation.longitude_bucket, observation.observed_at, observation.id, ?5, ?5
+                FROM weather_observations observation
+                WHERE observation.provider = ?6
+                  AND observation.latitude_bucket = ?7
+                  AND observation.longitude_bucket = ?8
+                  AND observation.observed_at = ?9
+                ON CONFLICT ON CONSTRAINT uq_weather_samples_user_provider_bucket_time DO NOTHING
+                """)
+                .setParameter(1, userId)
+                .setParameter(2, source.name())
+                .setParameter(3, requestedLatitude)
+                .setParameter(4, requestedLongitude)
+                .setParameter(5, now)
+                .setParameter(6, provider)
+                .setParameter(7, latitudeBucket)
+                .setParameter(8, longitudeBucket)
+                .setParameter(9, observedAt)
+                .executeUpdate();
+        return linked > 0;
+    }
+
+    /**
+     * Stores one provider response in a single statement: its hours are upserted into the shared observation
+     * pool and every claimed target gets a sample referencing its hour. Hours the user already has are left as is.
+     *
+     * @return number of user samples inserted
+     */
+    @Transactional
+    public int storeFetchedSamples(String provider, List<WeatherFetchedSample> fetched) {
+        if (provider == null || fetched == null || fetched.isEmpty()) {
+            return 0;
+        }
+
+        StringJoiner values = new StringJoiner(", ");
+        int parameter = 1;
+        for (int i = 0; i < fetched.size(); i++) {
+            StringJoiner row = new StringJoiner(", ", "(", ")");
+            for (String type : FETCHED_SAMPLE_COLUMN_TYPES) {
+                row.add("CAST(?" + parameter++ + " AS " + type + ")");
+            }
+            values.add(row.toString());
+        }
+        int providerParameter = parameter++;
+        int nowParameter = parameter;
+
+        String sql = """
+                WITH fetched (
+                    user_id, source, requested_latitude, requested_longitude, latitude_bucket, longitude_bucket,
+                    observed_at, provider_latitude, provider_longitude, timezone, weather_code, temperature,
+                    apparent_temperature, humidity, precipitation, rain, snowfall, cloud_cover, wind_speed,
+                    wind_gust, wind_direction, pressure
+                ) AS (
+                    VALUES %s
+                ), observations AS (
+                    INSERT INTO weather_observations (
+                        provider,
+                        latitude_bucket,
+                        longitude_bucket,
+                        observed_at,
+                        provider_latitude,
+                        provider_longitude,
+                        fetched_at,
+                        timezone,
+                        weather_code,
+                        temperature,
+                        apparent_temperature,
+                        humidity,
+                        precipitation,
+                        rain,
+                        snowfall,
+                        cloud_cover,
+                        wind_speed,
+                        wind_gust,
+                        wind_direction,
+                        pressure,
+                        created_at,
+                        updated_at
+                    )
+                    SELECT DISTINCT ON (latitude_bucket, longitude_bucket, observed_at)
+                           ?%d, latitude_bucket, longitude_bucket, observed_at, provider_latitude, provider_longitude,
+                           ?%d, timezone, weather_code, temperature, apparent_temperature, humidity, precipitation,
+                           rain, snowfall, cloud_cover, wind_speed, wind_gust, wind_direction, pressure, ?%d, ?%d
+                    FROM fetched
+                    ORDER BY latitude_bucket, longitude_bucket, observed_at
+                    ON CONFLICT ON CONSTRAINT uq_weather_observations_provider_bucket_time
+                        DO UPDATE SET updated_at = weather_observations.updated_at
+                    RETURNING id, latitude_bucket, longitude_bucket, observed_at
+                )
+                INSERT INTO weather_samples (
+                    user_id,
+                    provider,
+                    source,
+                    requested_latitude,
+                    requested_longitude,
+                    latitude_bucket,
+                    longitude_bucket,
+                    observed_at,
+                    observation_id,
+                    created_at,
+                    updated_at
+                )
+                SELECT fetched.user_id,
+                       ?%d,
+                       fetched.source,
+                       fetched.requested_latitude,
+                       fetched.requested_longitude,
+                       fetched.latitude_bucket,
+                       fetched.longitude_bucket,
+                       fetched.observed_at,
+                       observations.id,
+                       ?%d,
+                       ?%d
+                FROM fetched
+                JOIN observations ON observations.latitude_bucket = fetched.latitude_bucket
+                                 AND observations.longitude_bucket = fetched.longitude_bucket
+                                 AND observations.observed_at = fetched.observed_at
+                ON CONFLICT ON CONSTRAINT uq_weather_samples_user_provider_bucket_time DO NOTHING
+                """.formatted(
+                values,
+                providerParameter,
+                nowParameter,
+                nowParameter,
+                nowParameter,
+                providerParameter,
+                nowParameter,
+                nowParameter
+        );
+
+        var query = getEntityManager().createNativeQuery(sql);
+        parameter = 1;
+        for (WeatherFetchedSample row : fetched) {
+            WeatherSampleTargetClaim target = row.target();
+            WeatherProviderSample sample = row.sample();
+            query.setParameter(parameter++, target.userId());
+            query.setParameter(parameter++, target.source().name());
+            query.setParameter(parameter++, sample.getRequestedLatitude());
+            query.setParameter(parameter++, sample.getRequestedLongitude());
+            query.setParameter(parameter++, target.latitudeBucket());
+            query.setParameter(parameter++, target.longitudeBucket());
+            query.setParameter(parameter++, row.observedAt());
+            query.setParameter(parameter++, sample.getProviderLatitude());
+            query.setParameter(parameter++, sample.getProviderLongitude());
+            query.setParameter(parameter++, sample.getTimezone());
+            query.setParameter(parameter++, sample.getWeatherCode());
+            query.setParameter(parameter++, sample.getTemperature());
+            query.setParameter(parameter++, sample.getApparentTemperature());
+            query.setParameter(parameter++, sample.getHumidity());
+            query.setParameter(parameter++, sample.getPrecipitation());
+            query.setParameter(parameter++, sample.getRain());
+            query.setParameter(parameter++, sample.getSnowfall());
+            query.setParameter(parameter++, sample.getCloudCover());
+            query.setParameter(parameter++, sample.getWindSpeed());
+            query.setParameter(parameter++, sample.getWindGust());
+            query.setParameter(parameter++, sample.getWindDirection());
+            query.setParameter(parameter++, sample.getPressure());
+        }
+        query.setParameter(providerParameter, provider);
+        query.setParameter(nowParameter, Instant.now());
+        return query.executeUpdate();
+    }
+
     public long countSamples() {
         return count();
     }
@@ -90,6 +297,7 @@ public class WeatherSampleRepository implements PanacheRepository<WeatherSampleE
     }
 
     public WeatherSampleDTO toDto(WeatherSampleEntity sample) {
+        WeatherObservationEntity observation = sample.getObservation();
         return WeatherSampleDTO.builder()
                 .id(sample.getId())
                 .provider(sample.getProvider())
@@ -97,19 +305,19 @@ public class WeatherSampleRepository implements PanacheRepository<WeatherSampleE
                 .latitude(sample.getRequestedLatitude())
                 .longitude(sample.getRequestedLongitude())
                 .observedAt(sample.getObservedAt())
-                .fetchedAt(sample.getFetchedAt())
-                .weatherCode(sample.getWeatherCode())
-                .temperature(sample.getTemperature())
-                .apparentTemperature(sample.getApparentTemperature())
-                .humidity(sample.getHumidity())
-                .precipitation(sample.getPrecipitation())
-                .rain(sample.getRain())
-                .snowfall(sample.getSnowfall())
-                .cloudCover(sample.getCloudCover())
-                .windSpeed(sample.getWindSpeed())
-                .windGust(sample.getWindGust())
-                .windDirection(sample.getWindDirection())
-                .pressure(sample.getPressure())
+                .fetchedAt(observation.getFetchedAt())
+                .weatherCode(observation.getWeatherCode())
+                .temperature(observation.getTemperature())
+                .apparentTemperature(observation.getApparentTemperature())
+                .humidity(observation.getHumidity())
+                .precipitation(observation.getPrecipitation())
+                .rain(observation.getRain())
+                .snowfall(observation.getSnowfall())
+                .cloudCover(observation.getCloudCover())
+                .windSpeed(observation.getWindSpeed())
+                .windGust(observation.getWindGust())
+                .windDirection(observation.getWindDirection())
+                .pressure(observation.getPressure())
                 .build();
     }
 }
@@ -12,10 +12,12 @@ import org.github.tess1o.geopulse.weather.model.WeatherTargetSource;
 import org.github.tess1o.geopulse.weather.model.WeatherTargetStatus;
 
 import java.time.Instant;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.StringJoiner;
 import java.util.UUID;
 
@@ -106,6 +108,12 @@ public class WeatherSampleTargetRepository implements PanacheRepository<WeatherS
         return inserted > 0;
     }
 
+    /**
+     * Queues targets the user has no sample for. Candidates whose bucket hour is already in the shared
+     * observation pool are linked to the user as samples right away instead of being queued.
+     *
+     * @return number of targets queued
+     */
     @Transactional
     public int enqueueMissingBatch(
             UUID userId,
@@ -146,6 +154,38 @@ public class WeatherSampleTargetRepository implements PanacheRepository<WeatherS
         String sql = """
                 WITH candidates (latitude, longitude, latitude_bucket, longitude_bucket, target_at) AS (
                     VALUES %s
+                ), linked AS (
+                    INSERT INTO weather_samples (
+                        user_id,
+                        provider,
+                        source,
+                        requested_latitude,
+                        requested_longitude,
+                        latitude_bucket,
+                        longitude_bucket,
+                        observed_at,
+                        observation_id,
+                        created_at,
+                        updated_at
+                    )
+                    SELECT ?%d,
+                           observation.provider,
+                           ?%d,
+                           candidate.latitude,
+                           candidate.longitude,
+                           observation.latitude_bucket,
+                           observation.longitude_bucket,
+                           observation.observed_at,
+                           observation.id,
+                           ?%d,
+                           ?%d
+                    FROM candidates candidate
+                    JOIN weather_observations observation
+                      ON observation.provider = ?%d
+                     AND observation.latitude_bucket = candidate.latitude_bucket
+                     AND observation.longitude_bucket = candidate.longitude_bucket
+                     AND observation.observed_at = candidate.target_at
+                    ON CONFLICT ON CONSTRAINT uq_weather_samples_user_provider_bucket_time DO NOTHING
                 )
                 INSERT INTO weather_sample_targets (
                     user_id,
@@ -186,11 +226,24 @@ public class WeatherSampleTargetRepository implements PanacheRepository<WeatherS
                       AND sample.latitude_bucket = candidate.latitude_bucket
                       AND sample.longitude_bucket = candidate.longitude_bucket
                       AND sample.observed_at = candidate.target_at
+                )
+                  AND NOT EXISTS (
+                    SELECT 1
+                    FROM weather_observations observation
+                    WHERE observation.provider = ?%d
+                      AND observation.latitude_bucket = candidate.latitude_bucket
+                      AND observation.longitude_bucket = candidate.longitude_bucket
+                      AND observation.observed_at = candidate.target_at
                 )
                 ON CONFLICT ON CONSTRAINT uq_weather_targets_user_provider_bucket_time DO NOTHING
                 """.formatted(
                 values,
                 userParameter,
+                sourceParameter,
+                nowParameter,
+                nowParameter,
+                providerParameter,
+                userParameter,
                 providerParameter,
                 sourceParameter,
                 priorityParameter,
@@ -198,6 +251,7 @@ public class WeatherSampleTargetRepository implements PanacheRepository<WeatherS
                 nowParameter,
                 nowParameter,
                 userParameter,
+                providerParameter,
                 providerParameter
         );
 
@@ -279,11 +333,15 @@ public class WeatherSampleTargetRepository implements PanacheRepository<WeatherS
     /**
      * Claims one provider request worth of work: an anchor selected by priority followed by
      * targets for the same user, provider, coordinate bucket, and UTC day.
+     * <p>
+     * Claimed targets whose bucket hour is already in the shared observation pool, typically fetched
+     * for another user, are completed with a reference to the pooled observation and are not returned
+     * for fetching.
      */
     @Transactional
-    public List<WeatherSampleTargetClaim> claimNextTargetGroup(int limit) {
+    public WeatherTargetGroupClaim claimNextTargetGroup(int limit) {
         if (limit <= 0) {
-            return List.of();
+            return WeatherTargetGroupClaim.empty();
         }
 
         Instant now = Instant.now();
@@ -335,95 +393,176 @@ public class WeatherSampleTargetRepository implements PanacheRepository<WeatherS
                 .setParameter(4, WeatherTargetStatus.IN_PROGRESS.name())
                 .getResultList();
 
-        return rows.stream()
+        List<WeatherSampleTargetClaim> claimed = rows.stream()
                 .map(this::toClaim)
                 .sorted(java.util.Comparator.comparing(WeatherSampleTargetClaim::targetAt))
                 .toList();
-    }
-
-    @Transactional
-    public void markAttemptStarted(WeatherSampleTargetEntity target) {
-        target.setLastAttemptAt(Instant.now());
-        target.setAttempts(target.getAttempts() + 1);
-    }
-
-    @Transactional
-    public void markAttemptStarted(long targetId) {
-        findByIdOptional(targetId).ifPresent(this::markAttemptStarted);
-    }
+        if (claimed.isEmpty()) {
+            return WeatherTargetGroupClaim.empty();
+        }
 
-    @Transactional
-    public void releaseForQuota(WeatherSampleTargetEntity target) {
-        target.setStatus(WeatherTargetStatus.PENDING);
-        target.setLockedAt(null);
-        target.setNextAttemptAt(Instant.now().plusSeconds(10 * 60L));
-        target.setLastError("Daily weather quota reserve reached");
+        Set<Long> resolved = resolveClaimedFromPool(claimed.stream().map(WeatherSampleTargetClaim::id).toList(), now);
+        List<WeatherSampleTargetClaim> unresolved = resolved.isEmpty()
+                ? claimed
+                : claimed.stream().filter(target -> !resolved.contains(target.id())).toList();
+        return new WeatherTargetGroupClaim(unresolved, resolved.size());
     }
 
-    @Transactional
-    public void releaseForQuota(long targetId) {
-        findByIdOptional(targetId).ifPresent(this::releaseForQuota);
-    }
-
-    @Transactional
-    public void releaseUntil(long targetId, Instant nextAttemptAt, String reason) {
-        findByIdOptional(targetId).ifPresent(target -> {
-            target.setStatus(WeatherTargetStatus.PENDING);
-            target.setLockedAt(null);
-            target.setNextAttemptAt(nextAttemptAt == null ? Instant.now().plusSeconds(10 * 60L) : nextAttemptAt);
-            target.setLastError(limitError(reason));
-        });
+    private Set<Long> resolveClaimedFromPool(List<Long> targetIds, Instant now) {
+        @SuppressWarnings("unchecked")
+        List<Number> rows = entityManager.createNativeQuery("""
+                WITH resolved AS (
+                    SELECT target.id,
+                           target.user_id,
+                           target.latitude,
+                           target.longitude,
+                           target.source,
+                           observation.id AS observation_id,
+                           observation.provider,
+                           observation.latitude_bucket,
+                           observation.longitude_bucket,
+                           observation.observed_at
+                    FROM weather_sample_targets target
+                    JOIN weather_observations observation
+                      ON observation.provider = target.provider
+                     AND observation.latitude_bucket = target.latitude_bucket
+                     AND observation.longitude_bucket = target.longitude_bucket
+                     AND observation.observed_at = target.target_at
+                    WHERE target.id IN (:targetIds)
+                ), linked AS (
+                    INSERT INTO weather_samples (
+                        user_id,
+                        provider,
+                        source,
+                        requested_latitude,
+                        requested_longitude,
+                        latitude_bucket,
+                        longitude_bucket,
+                        observed_at,
+                        observation_id,
+                        created_at,
+                        updated_at
+                    )
+                    SELECT user_id,
+                           provider,
+                           source,
+                           latitude,
+                           longitude,
+                           latitude_bucket,
+                           longitude_bucket,
+                           observed_at,
+                           observation_id,
+                           :now,
+                           :now
+                    FROM resolved
+                    ON CONFLICT ON CONSTRAINT uq_weather_samples_user_provider_bucket_time DO NOTHING
+                )
+                UPDATE weather_sample_targets target
+                SET status = :completed,
+                    locked_at = NULL,
+                    completed_at = :now,
+                    last_error = NULL,
+                    updated_at = :now
+                FROM resolved
+                WHERE target.id = resolved.id
+                RETURNING target.id
+                """)
+                .setParameter("targetIds", targetIds)
+                .setParameter("now", now)
+                .setParameter("completed", WeatherTargetStatus.COMPLETED.name())
+                .getResultList();
+        Set<Long> resolved = new HashSet<>();
+        rows.forEach(id -> resolved.add(id.longValue()));
+        return resolved;
     }
 
+    /**
+     * Records a provider attempt for every target of a claimed group with one statement.
+     */
     @Transactional
-    public void releaseImmediately(long targetId, String reason) {
-        releaseUntil(targetId, Instant.now(), reason);
+    public void markAttemptsStarted(List<Long> targetIds) {
+        if (targetIds == null || targetIds.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        entityManager.createNativeQuery("""
+                UPDATE weather_sample_targets
+                SET attempts = attempts + 1,
+                    last_attempt_at = :now,
+                    updated_at = :now
+                WHERE id IN (:targetIds)
+                """)
+                .setParameter("now", now)
+                .setParameter("targetIds", targetIds)
+                .executeUpdate();
     }
 
     @Transactional
-    public void markCompleted(WeatherSampleTargetEntity target) {
-        target.setStatus(WeatherTargetStatus.COMPLETED);
-        target.setLockedAt(null);
-        target.setCompletedAt(Instant.now());
-        target.setLastError(null);
+    public void releaseUntil(List<Long> targetIds, Instant nextAttemptAt, String reason) {
+        if (targetIds == null || targetIds.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        entityManager.createNativeQuery("""
+                UPDATE weather_sample_targets
+                SET status = :pending,
+                    locked_at = NULL,
+                    next_attempt_at = :nextAttemptAt,
+                    last_error = :reason,
+                    updated_at = :now
+                WHERE id IN (:targetIds)
+                """)
+                .setParameter("pending", WeatherTargetStatus.PENDING.name())
+                .setParameter("nextAttemptAt", nextAttemptAt == null ? now.plusSeconds(10 * 60L) : nextAttemptAt)
+                .setParameter("reason", limitError(reason))
+                .setParameter("now", now)
+                .setParameter("targetIds", targetIds)
+                .executeUpdate();
     }
 
     @Transactional
-    public void markCompleted(long targetId) {
-        findByIdOptional(targetId).ifPresent(this::markCompleted);
+    public void releaseImmediately(List<Long> targetIds, String reason) {
+        releaseUntil(targetIds, Instant.now(), reason);
     }
 
     @Transactional
-    public void markSkipped(WeatherSampleTargetEntity target, String reason) {
-        target.setStatus(WeatherTargetStatus.SKIPPED);
-        target.setLockedAt(null);
-        target.setCompletedAt(Instant.now());
-        target.setLastError(limitError(reason));
+    public void markCompleted(List<Long> targetIds) {
+        finish(targetIds, WeatherTargetStatus.COMPLETED, null);
     }
 
     @Transactional
-    public void markSkipped(long targetId, String reason) {
-        findByIdOptional(targetId).ifPresent(target -> markSkipped(target, reason));
+    public void markSkipped(List<Long> targetIds, String reason) {
+        finish(targetIds, WeatherTargetStatus.SKIPPED, reason);
     }
 
+    /**
+     * Puts a claimed group back to pending with a backoff of attempts² × 10 minutes (at most three hours), or
+     * fails the targets that have used up their five attempts, with one statement.
+     */
     @Transactional
-    public void markFailedOrRetry(WeatherSampleTargetEntity target, String errorSummary) {
-        target.setLockedAt(null);
-        target.setLastError(limitError(errorSummary));
-
-        if (target.getAttempts() >= 5) {
-            target.setStatus(WeatherTargetStatus.FAILED);
+    public void markFailedOrRetry(List<Long> targetIds, String errorSummary) {
+        if (targetIds == null || targetIds.isEmpty()) {
             return;
         }
-
-        long delayMinutes = Math.min(180, (long) Math.pow(target.getAttempts(), 2) * 10L);
-        target.setStatus(WeatherTargetStatus.PENDING);
-        target.setNextAttemptAt(Instant.now().plusSeconds(delayMinutes * 60));
-    }
-
-    @Transactional
-    public void markFailedOrRetry(long targetId, String errorSummary) {
-        findByIdOptional(targetId).ifPresent(target -> markFailedOrRetry(target, errorSummary));
+        Instant now = Instant.now();
+        entityManager.createNativeQuery("""
+                UPDATE weather_sample_targets
+                SET status = CASE WHEN attempts >= 5 THEN :failed ELSE :pending END,
+                    next_attempt_at = CASE
+                        WHEN attempts >= 5 THEN next_attempt_at
+                        ELSE :now + LEAST(180, attempts * attempts * 10) * INTERVAL '1 minute'
+                    END,
+                    locked_at = NULL,
+                    last_error = :error,
+                    updated_at = :now
+                WHERE id IN (:targetIds)
+                """)
+                .setParameter("failed", WeatherTargetStatus.FAILED.name())
+                .setParameter("pending", WeatherTargetStatus.PENDING.name())
+                .setParameter("now", now)
+                .setParameter("error", limitError(errorSummary))
+                .setParameter("targetIds", targetIds)
+                .executeUpdate();
     }
 
     @Transactional
@@ -573,6 +712,27 @@ public class WeatherSampleTargetRepository implements PanacheRepository<WeatherS
                 .orElse(null);
     }
 
+    private void finish(List<Long> targetIds, WeatherTargetStatus status, String reason) {
+        if (targetIds == null || targetIds.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        entityManager.createNativeQuery("""
+                UPDATE weather_sample_targets
+                SET status = :status,
+                    locked_at = NULL,
+                    completed_at = :now,
+                    last_error = :reason,
+                    updated_at = :now
+                WHERE id IN (:targetIds)
+                """)
+                .setParameter("status", status.name())
+                .setParameter("now", now)
+                .setParameter("reason", limitError(reason))
+                .setParameter("targetIds", targetIds)
+                .executeUpdate();
+    }
+
     private String limitError(String value) {
         if (value == null || value.isBlank()) {
             return null;
@@ -0,0 +1,20 @@
+package org.github.tess1o.geopulse.weather.repository;
+
+import java.util.List;
+
+/**
+ * Result of claiming a target group: targets that still need a provider request, and how many
+ * claimed targets were completed straight from the shared observation pool.
+ */
+public record WeatherTargetGroupClaim(
+        List<WeatherSampleTargetClaim> targets,
+        int resolvedFromPool
+) {
+    public static WeatherTargetGroupClaim empty() {
+        return new WeatherTargetGroupClaim(List.of(), 0);
+    }
+
+    public boolean isEmpty() {
+        return targets.isEmpty() && resolvedFromPool == 0;
+    }
+}
@@ -25,15 +25,15 @@ import org.github.tess1o.geopulse.weather.client.WeatherProviderErrorKind;
 import org.github.tess1o.geopulse.weather.client.WeatherProviderException;
 import org.github.tess1o.geopulse.weather.client.WeatherProviderRegistry;
 import org.github.tess1o.geopulse.weather.dto.*;
-import org.github.tess1o.geopulse.weather.model.WeatherSampleEntity;
-import org.github.tess1o.geopulse.weather.model.WeatherSampleTargetEntity;
 import org.github.tess1o.geopulse.weather.model.WeatherTargetSource;
 import org.github.tess1o.geopulse.weather.repository.WeatherSampleRepository;
 import org.github.tess1o.geopulse.weather.repository.WeatherSampleTargetClaim;
 import org.github.tess1o.geopulse.weather.repository.WeatherSampleTargetRepository;
 import org.github.tess1o.geopulse.weather.repository.WeatherBackfillReconciliation;
 import org.github.tess1o.geopulse.weather.repository.WeatherBackfillReconciliationRepository;
+import org.github.tess1o.geopulse.weather.repository.WeatherFetchedSample;
 import org.github.tess1o.geopulse.weather.repository.WeatherTargetBatchRow;
+import org.github.tess1o.geopulse.weather.repository.WeatherTargetGroupClaim;
 import org.locationtech.jts.geom.Point;
 
 import javax.net.ssl.SSLHandshakeException;
@@ -363,61 +363,66 @@ public class WeatherService {
             return WeatherFetchBatchResult.blocked(allProvidersBlockedReason(providerOrder, now));
         }
 
-        List<WeatherSampleTargetClaim> targets = targetRepository.claimNextTargetGroup(24);
-        if (targets.isEmpty()) {
+        WeatherTargetGroupClaim claim = targetRepository.claimNextTargetGroup(24);
+        if (claim.isEmpty()) {
             return WeatherFetchBatchResult.empty();
         }
-        countWeatherTargets(null, "claimed", targets.size());
+        int resolvedFromPool = claim.resolvedFromPool();
+        countWeatherTargets(null, "claimed", claim.targets().size() + resolvedFromPool);
+        countWeatherTargets(null, "pooled", resolvedFromPool);
+        List<WeatherSampleTargetClaim> targets = claim.targets();
+        if (targets.isEmpty()) {
+            return new WeatherFetchBatchResult(true, resolvedFromPool, null);
+        }
         WeatherTargetSource requestSource = targets.stream().anyMatch(target -> target.source() == WeatherTargetSource.ONGOING)
                 ? WeatherTargetSource.ONGOING
                 : targets.getFirst().source();
-        targets.forEach(target -> targetRepository.markAttemptStarted(target.id()));
+        List<Long> targetIds = targets.stream().map(WeatherSampleTargetClaim::id).toList();
+        targetRepository.markAttemptsStarted(targetIds);
 
         long startedAt = metricsStart();
         try {
             ProviderFetchBatchResult fetchResult = fetchProviderSamples(targets, requestSource);
-            int processed = 0;
+            List<WeatherFetchedSample> fetched = new ArrayList<>(targets.size());
+            List<Long> missingTargetIds = new ArrayList<>();
             for (WeatherSampleTargetClaim target : targets) {
                 Instant targetHour = samplingPolicy.truncateToHour(target.targetAt());
                 WeatherProviderSample sample = fetchResult.samples().get(targetHour);
                 if (sample == null) {
-                    targetRepository.releaseImmediately(target.id(),
-                            "Provider response did not include this hour; retrying as the next batch anchor");
-                    continue;
-                }
-                if (requiringNew(() -> storeProviderSample(target,
-                        new ProviderFetchResult(fetchResult.providerKey(), sample)))) {
-                    processed++;
-                    countWeatherTargets(target.source(), "processed", 1);
+                    missingTargetIds.add(target.id());
+                } else {
+                    fetched.add(new WeatherFetchedSample(
+                            target, samplingPolicy.truncateToHour(sample.getObservedAt()), sample));
                 }
             }
+            requiringNew(() -> storeFetchedGroup(fetchResult.providerKey(), fetched, missingTargetIds));
+            fetched.forEach(row -> countWeatherTargets(row.target().source(), "processed", 1));
             recordWeatherStage(startedAt, "provider_fetch_group", requestSource.name(), "success");
-            return new WeatherFetchBatchResult(true, processed, null);
+            return new WeatherFetchBatchResult(true, resolvedFromPool + fetched.size(), null);
         } catch (InternalQuotaExceededException e) {
             Instant retryAt = recordInternalQuotaExceeded(e.getMessage());
-            releaseRemainingClaimedTargets(targets, 0, retryAt, e.getMessage());
+            targetRepository.releaseUntil(targetIds, retryAt, e.getMessage());
             recordWeatherStage(startedAt, "provider_fetch_group", requestSource.name(), "quota");
-            return new WeatherFetchBatchResult(true, 0, e.getMessage());
+            return new WeatherFetchBatchResult(true, resolvedFromPool, e.getMessage());
         } catch (WeatherProviderException e) {
             recordWeatherStage(startedAt, "provider_fetch_group", requestSource.name(), e.getKind().name());
             if (e.getKind() == WeatherProviderErrorKind.NO_DATA) {
-                targets.forEach(target -> targetRepository.markSkipped(target.id(),
-                        "Weather provider has no data: " + e.getMessage()));
-                return new WeatherFetchBatchResult(true, 0, null);
+                targetRepository.markSkipped(targetIds, "Weather provider has no data: " + e.getMessage());
+                return new WeatherFetchBatchResult(true, resolvedFromPool, null);
             }
             if (e.getKind() == WeatherProviderErrorKind.INVALID_RESPONSE) {
-                targets.forEach(target -> targetRepository.markFailedOrRetry(target.id(), e.getMessage()));
-                return new WeatherFetchBatchResult(true, 0, null);
+                targetRepository.markFailedOrRetry(targetIds, e.getMessage());
+                return new WeatherFetchBatchResult(true, resolvedFromPool, null);
             }
             String providerKey = providerKey(e, targets.getFirst().provider());
             Instant retryAt = recordProviderFailure(providerKey, e);
-            releaseRemainingClaimedTargets(targets, 0, retryAt, e.getMessage());
-            return new WeatherFetchBatchResult(true, 0, e.getMessage());
+            targetRepository.releaseUntil(targetIds, retryAt, e.getMessage());
+            return new WeatherFetchBatchResult(true, resolvedFromPool, e.getMessage());
         } catch (Exception e) {
             recordWeatherStage(startedAt, "provider_fetch_group", requestSource.name(), "error");
-            targets.forEach(target -> targetRepository.markFailedOrRetry(target.id(), e.getMessage()));
+            targetRepository.markFailedOrRetry(targetIds, e.getMessage());
             log.error("Weather provider batch failed for {} targets: {}", targets.size(), e.getMessage(), e);
-            return new WeatherFetchBatchResult(true, 0, null);
+            return new WeatherFetchBatchResult(true, resolvedFromPool, null);
         }
     }
 
@@ -654,6 +659,10 @@ public class WeatherService {
         if (sampleRepository.existsAtBucketHour(user.getId(), primaryProviderKey(), latitudeBucket, longitudeBucket, targetAt)) {
             return EnqueueResult.knownResult();
         }
+        if (sampleRepository.linkPooledObservation(user.getId(), primaryProviderKey(), candidate.latitude(),
+                candidate.longitude(), latitudeBucket, longitudeBucket, targetAt, candidate.source())) {
+            return EnqueueResult.knownResult();
+        }
 
         boolean created = targetRepository.enqueueIfMissing(
                 user,
@@ -742,12 +751,6 @@ public class WeatherService {
         return new double[]{latitude, longitude};
     }
 
-    private void releaseRemainingClaimedTargets(List<WeatherSampleTargetClaim> targets, int startIndex, Instant retryAt, String reason) {
-        for (int i = startIndex; i < targets.size(); i++) {
-            targetRepository.releaseUntil(targets.get(i).id(), retryAt, reason);
-        }
-    }
-
     private Instant recordProviderFailure(String providerKey, WeatherProviderException e) {
         return switch (e.getKind()) {
             case QUOTA_EXCEEDED -> recordProviderQuotaExceeded(providerKey, e);
@@ -1067,65 +1070,23 @@ public class WeatherService {
         recordProviderFailure(providerKey, failure);
     }
 
-    private boolean storeProviderSample(WeatherSampleTargetClaim target, ProviderFetchResult fetchResult) {
-        WeatherSampleTargetEntity targetEntity = targetRepository.findById(target.id());
-        if (targetEntity == null) {
-            return false;
-        }
-
-        WeatherProviderSample providerSample = fetchResult.sample();
-        Instant observedAt = samplingPolicy.truncateToHour(providerSample.getObservedAt());
-        if (sampleRepository.existsAtBucketHour(
-                target.userId(),
-                fetchResult.providerKey(),
-                target.latitudeBucket(),
-                target.longitudeBucket(),
-                observedAt)) {
-            targetRepository.markSkipped(targetEntity, "Weather sample already exists");
-            return true;
-        }
-
-        WeatherSampleEntity sample = WeatherSampleEntity.builder()
-                .user(targetEntity.getUser())
-                .provider(fetchResult.providerKey())
-                .source(target.source())
-                .requestedLatitude(providerSample.getRequestedLatitude())
-                .requestedLongitude(providerSample.getRequestedLongitude())
-                .providerLatitude(providerSample.getProviderLatitude())
-                .providerLongitude(providerSample.getProviderLongitude())
-                .latitudeBucket(target.latitudeBucket())
-                .longitudeBucket(target.longitudeBucket())
-                .observedAt(observedAt)
-                .fetchedAt(Instant.now())
-                .timezone(providerSample.getTimezone())
-                .weatherCode(providerSample.getWeatherCode())
-                .temperature(providerSample.getTemperature())
-                .apparentTemperature(providerSample.getApparentTemperature())
-                .humidity(providerSample.getHumidity())
-                .precipitation(providerSample.getPrecipitation())
-                .rain(providerSample.getRain())
-                .snowfall(providerSample.getSnowfall())
-                .cloudCover(providerSample.getCloudCover())
-                .windSpeed(providerSample.getWindSpeed())
-                .windGust(providerSample.getWindGust())
-                .windDirection(providerSample.getWindDirection())
-                .pressure(providerSample.getPressure())
-                .rawData(null)
-                .build();
-
-        sampleRepository.persist(sample);
-        targetRepository.markCompleted(targetEntity);
-        entityManager.flush();
-        return true;
+    /**
+     * Stores a provider response for a claimed group in one transaction: all samples in one multi-row insert,
+     * answered targets completed and targets whose hour was missing released, each with one statement.
+     * A failure rolls back the whole group.
+     */
+    private int storeFetchedGroup(String providerKey, List<WeatherFetchedSample> fetched, List<Long> missingTargetIds) {
+        int stored = sampleRepository.storeFetchedSamples(providerKey, fetched);
+        targetRepository.markCompleted(fetched.stream().map(row -> row.target().id()).toList());
+        targetRepository.releaseImmediately(missingTargetIds,
+                "Provider response did not include this hour; retrying as the next batch anchor");
+        return stored;
     }
 
     protected <T> T requiringNew(Supplier<T> supplier) {
         return QuarkusTransaction.requiringNew().call(supplier::get);
     }
 
-    private record ProviderFetchResult(String providerKey, WeatherProviderSample sample) {
-    }
-
     private record ProviderFetchBatchResult(String providerKey, Map<Instant, WeatherProviderSample> samples) {
     }
 
@@ -0,0 +1,25 @@
+-- Per-user "new data" watermark for coverage. GPS ingest bumps data_version; the coverage job
+-- records the version it caught up to in processed_data_version. Discovering pending users is
+-- then a scan of coverage_state instead of a DISTINCT over gps_points.
+ALTER TABLE coverage_state
+    ADD COLUMN IF NOT EXISTS data_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE coverage_state
+    ADD COLUMN IF NOT EXISTS processed_data_version BIGINT NOT NULL DEFAULT 0;
+
+-- Existing installations need one catch-up pass: mark every known user as pending. Users
+-- without new points finish after a single empty batch lookup.
+UPDATE coverage_state
+SET data_version = 1;
+
+INSERT INTO coverage_state (user_id, last_processed, last_processed_point_id, updated_at, data_version)
+SELECT u.id, NULL, NULL, NOW(), 1
+FROM users u
+WHERE u.coverage_enabled = true
+  AND NOT EXISTS (SELECT 1 FROM coverage_state cs WHERE cs.user_id = u.id)
+  AND EXISTS (SELECT 1 FROM gps_points gp WHERE gp.user_id = u.id)
+ON CONFLICT (user_id) DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS idx_coverage_state_pending
+    ON coverage_state (user_id)
+    WHERE data_version > processed_data_version;
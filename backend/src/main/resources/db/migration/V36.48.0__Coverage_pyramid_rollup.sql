@@ -0,0 +1,44 @@
+-- Coverage levels above 50 m are now rolled up from the 50 m cells instead of rasterized on their own.
+-- Each batch recomputes only the parents of cells it touched, found by last_seen.
+CREATE INDEX IF NOT EXISTS idx_coverage_cells_user_grid_last_seen
+    ON coverage_cells (user_id, grid_m, last_seen);
+
+-- Rebuild the coarse levels of existing installations from the 50 m base, finest first, so every
+-- level keeps the roll-up invariant (parent = exact union of its children) from the start.
+DELETE FROM coverage_cells
+WHERE grid_m IN (250, 1000, 5000, 20000, 40000);
+
+INSERT INTO coverage_cells (user_id, grid_m, cell_x, cell_y, first_seen, last_seen, seen_count)
+SELECT user_id, 250, floor(cell_x / 5.0)::bigint, floor(cell_y / 5.0)::bigint,
+       MIN(first_seen), MAX(last_seen), SUM(seen_count)
+FROM coverage_cells
+WHERE grid_m = 50
+GROUP BY user_id, floor(cell_x / 5.0)::bigint, floor(cell_y / 5.0)::bigint;
+
+INSERT INTO coverage_cells (user_id, grid_m, cell_x, cell_y, first_seen, last_seen, seen_count)
+SELECT user_id, 1000, floor(cell_x / 4.0)::bigint, floor(cell_y / 4.0)::bigint,
+       MIN(first_seen), MAX(last_seen), SUM(seen_count)
+FROM coverage_cells
+WHERE grid_m = 250
+GROUP BY user_id, floor(cell_x / 4.0)::bigint, floor(cell_y / 4.0)::bigint;
+
+INSERT INTO coverage_cells (user_id, grid_m, cell_x, cell_y, first_seen, last_seen, seen_count)
+SELECT user_id, 5000, floor(cell_x / 5.0)::bigint, floor(cell_y / 5.0)::bigint,
+       MIN(first_seen), MAX(last_seen), SUM(seen_count)
+FROM coverage_cells
+WHERE grid_m = 1000
+GROUP BY user_id, floor(cell_x / 5.0)::bigint, floor(cell_y / 5.0)::bigint;
+
+INSERT INTO coverage_cells (user_id, grid_m, cell_x, cell_y, first_seen, last_seen, seen_count)
+SELECT user_id, 20000, floor(cell_x / 4.0)::bigint, floor(cell_y / 4.0)::bigint,
+       MIN(first_seen), MAX(last_seen), SUM(seen_count)
+FROM coverage_cells
+WHERE grid_m = 5000
+GROUP BY user_id, floor(cell_x / 4.0)::bigint, floor(cell_y / 4.0)::bigint;
+
+INSERT INTO coverage_cells (user_id, grid_m, cell_x, cell_y, first_seen, last_seen, seen_count)
+SELECT user_id, 40000, floor(cell_x / 2.0)::bigint, floor(cell_y / 2.0)::bigint,
+       MIN(first_seen), MAX(last_seen), SUM(seen_count)
+FROM coverage_cells
+WHERE grid_m = 20000
+GROUP BY user_id, floor(cell_x / 2.0)::bigint, floor(cell_y / 2.0)::bigint;
@@ -0,0 +1,199 @@
+-- Per-user place visit aggregates for Place Details and the Cities/Countries lists.
+-- One row per (user, favorite, geocoding) combination of timeline_stays, so favorite pages,
+-- geocoding pages and city/country groupings are all exact sums over a handful of rows.
+-- City and country are joined from the place tables at read time, so renaming or re-geocoding
+-- a place needs no refresh here.
+CREATE TABLE place_visit_stats
+(
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    user_id           UUID                                    NOT NULL,
+    favorite_id       BIGINT,
+    geocoding_id      BIGINT,
+    visit_count       BIGINT                                  NOT NULL,
+    total_duration    BIGINT                                  NOT NULL,
+    min_duration      BIGINT                                  NOT NULL,
+    max_duration      BIGINT                                  NOT NULL,
+    first_visit       TIMESTAMPTZ                             NOT NULL,
+    last_visit        TIMESTAMPTZ                             NOT NULL,
+    -- Day-of-week and arrival-period histograms are bucketed in this (the user's) timezone
+    timezone          VARCHAR(255)                            NOT NULL,
+    monday_visits     BIGINT                                  NOT NULL,
+    tuesday_visits    BIGINT                                  NOT NULL,
+    wednesday_visits  BIGINT                                  NOT NULL,
+    thursday_visits   BIGINT                                  NOT NULL,
+    friday_visits     BIGINT                                  NOT NULL,
+    saturday_visits   BIGINT                                  NOT NULL,
+    sunday_visits     BIGINT                                  NOT NULL,
+    morning_visits    BIGINT                                  NOT NULL,
+    afternoon_visits  BIGINT                                  NOT NULL,
+    evening_visits    BIGINT                                  NOT NULL,
+    night_visits      BIGINT                                  NOT NULL,
+    updated_at        TIMESTAMPTZ                             NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_place_visit_stats PRIMARY KEY (id),
+    CONSTRAINT fk_place_visit_stats_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX uk_place_visit_stats_place
+    ON place_visit_stats (user_id, COALESCE(favorite_id, 0), COALESCE(geocoding_id, 0));
+
+CREATE INDEX idx_place_visit_stats_user_favorite
+    ON place_visit_stats (user_id, favorite_id) WHERE favorite_id IS NOT NULL;
+
+CREATE INDEX idx_place_visit_stats_user_geocoding
+    ON place_visit_stats (user_id, geocoding_id) WHERE geocoding_id IS NOT NULL;
+
+-- Places touched by the current transaction. Rows live only until that transaction commits.
+CREATE TABLE place_visit_stats_dirty
+(
+    user_id      UUID NOT NULL,
+    favorite_id  BIGINT,
+    geocoding_id BIGINT
+);
+
+CREATE UNIQUE INDEX uk_place_visit_stats_dirty_place
+    ON place_visit_stats_dirty (user_id, COALESCE(favorite_id, 0), COALESCE(geocoding_id, 0));
+
+-- Recompute one place row from its stays.
+CREATE OR REPLACE FUNCTION refresh_place_visit_stats(p_user_id UUID, p_favorite_id BIGINT, p_geocoding_id BIGINT)
+RETURNS VOID AS $$
+DECLARE
+    v_timezone TEXT;
+BEGIN
+    DELETE FROM place_visit_stats
+    WHERE user_id = p_user_id
+      AND COALESCE(favorite_id, 0) = COALESCE(p_favorite_id, 0)
+      AND COALESCE(geocoding_id, 0) = COALESCE(p_geocoding_id, 0);
+
+    SELECT timezone INTO v_timezone FROM users WHERE id = p_user_id;
+    IF v_timezone IS NULL THEN
+        RETURN;
+    END IF;
+
+    -- A timezone PostgreSQL does not know must not fail the stay write that triggered this
+    BEGIN
+        PERFORM NOW() AT TIME ZONE v_timezone;
+    EXCEPTION WHEN OTHERS THEN
+        v_timezone := 'UTC';
+    END;
+
+    INSERT INTO place_visit_stats (user_id, favorite_id, geocoding_id,
+                                   visit_count, total_duration, min_duration, max_duration,
+                                   first_visit, last_visit, timezone,
+                                   monday_visits, tuesday_visits, wednesday_visits, thursday_visits,
+                                   friday_visits, saturday_visits, sunday_visits,
+                                   morning_visits, afternoon_visits, evening_visits, night_visits,
+                                   updated_at)
+    SELECT p_user_id, p_favorite_id, p_geocoding_id,
+           COUNT(*), SUM(stay_duration), MIN(stay_duration), MAX(stay_duration),
+           MIN(timestamp), MAX(timestamp), v_timezone,
+           COUNT(*) FILTER (WHERE local_day = 1),
+           COUNT(*) FILTER (WHERE local_day = 2),
+           COUNT(*) FILTER (WHERE local_day = 3),
+           COUNT(*) FILTER (WHERE local_day = 4),
+           COUNT(*) FILTER (WHERE local_day = 5),
+           COUNT(*) FILTER (WHERE local_day = 6),
+           COUNT(*) FILTER (WHERE local_day = 7),
+           COUNT(*) FILTER (WHERE local_hour >= 5 AND local_hour < 12),
+           COUNT(*) FILTER (WHERE local_hour >= 12 AND local_hour < 17),
+           COUNT(*) FILTER (WHERE local_hour >= 17 AND local_hour < 22),
+           COUNT(*) FILTER (WHERE local_hour < 5 OR local_hour >= 22),
+           NOW()
+    FROM (
+        SELECT s.stay_duration,
+               s.timestamp,
+               EXTRACT(ISODOW FROM s.timestamp AT TIME ZONE v_timezone)::int AS local_day,
+               EXTRACT(HOUR FROM s.timestamp AT TIME ZONE v_timezone)::int AS local_hour
+        FROM timeline_stays s
+        WHERE s.user_id = p_user_id
+          AND (s.favorite_id = p_favorite_id OR s.geocoding_id = p_geocoding_id)
+          AND s.favorite_id IS NOT DISTINCT FROM p_favorite_id
+          AND s.geocoding_id IS NOT DISTINCT FROM p_geocoding_id
+    ) visits
+    HAVING COUNT(*) > 0;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Row trigger on timeline_stays: only remembers which places changed. Bulk regenerations touch
+-- the same few places thousands of times, so the recompute itself is deferred to commit.
+CREATE OR REPLACE FUNCTION mark_place_visit_stats_dirty()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' AND (OLD.favorite_id IS NOT NULL OR OLD.geocoding_id IS NOT NULL) THEN
+        INSERT INTO place_visit_stats_dirty (user_id, favorite_id, geocoding_id)
+        VALUES (OLD.user_id, OLD.favorite_id, OLD.geocoding_id)
+        ON CONFLICT (user_id, (COALESCE(favorite_id, 0)), (COALESCE(geocoding_id, 0))) DO NOTHING;
+    END IF;
+    IF TG_OP <> 'DELETE' AND (NEW.favorite_id IS NOT NULL OR NEW.geocoding_id IS NOT NULL) THEN
+        INSERT INTO place_visit_stats_dirty (user_id, favorite_id, geocoding_id)
+        VALUES (NEW.user_id, NEW.favorite_id, NEW.geocoding_id)
+        ON CONFLICT (user_id, (COALESCE(favorite_id, 0)), (COALESCE(geocoding_id, 0))) DO NOTHING;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER timeline_stays_place_visit_stats_trigger
+    AFTER INSERT OR DELETE OR UPDATE OF user_id, favorite_id, geocoding_id, timestamp, stay_duration
+    ON timeline_stays
+    FOR EACH ROW
+    EXECUTE FUNCTION mark_place_visit_stats_dirty();
+
+CREATE OR REPLACE FUNCTION clear_place_visit_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM place_visit_stats;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER timeline_stays_place_visit_stats_truncate_trigger
+    AFTER TRUNCATE ON timeline_stays
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION clear_place_visit_stats();
+
+-- Fires once per dirty place at commit: recompute it and drop the marker.
+CREATE OR REPLACE FUNCTION apply_place_visit_stats_dirty()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM place_visit_stats_dirty
+    WHERE user_id = NEW.user_id
+      AND COALESCE(favorite_id, 0) = COALESCE(NEW.favorite_id, 0)
+      AND COALESCE(geocoding_id, 0) = COALESCE(NEW.geocoding_id, 0);
+    PERFORM refresh_place_visit_stats(NEW.user_id, NEW.favorite_id, NEW.geocoding_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE CONSTRAINT TRIGGER place_visit_stats_dirty_apply_trigger
+    AFTER INSERT ON place_visit_stats_dirty
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+    EXECUTE FUNCTION apply_place_visit_stats_dirty();
+
+-- Histograms are bucketed in the user's timezone: re-bucket every place when it changes.
+CREATE OR REPLACE FUNCTION mark_user_place_visit_stats_dirty()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO place_visit_stats_dirty (user_id, favorite_id, geocoding_id)
+    SELECT user_id, favorite_id, geocoding_id
+    FROM place_visit_stats
+    WHERE user_id = NEW.id
+    ON CONFLICT (user_id, (COALESCE(favorite_id, 0)), (COALESCE(geocoding_id, 0))) DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER users_place_visit_stats_timezone_trigger
+    AFTER UPDATE OF timezone ON users
+    FOR EACH ROW
+    WHEN (OLD.timezone IS DISTINCT FROM NEW.timezone)
+    EXECUTE FUNCTION mark_user_place_visit_stats_dirty();
+
+-- Backfill existing timelines
+SELECT refresh_place_visit_stats(places.user_id, places.favorite_id, places.geocoding_id)
+FROM (
+    SELECT DISTINCT user_id, favorite_id, geocoding_id
+    FROM timeline_stays
+    WHERE favorite_id IS NOT NULL
+       OR geocoding_id IS NOT NULL
+) places;
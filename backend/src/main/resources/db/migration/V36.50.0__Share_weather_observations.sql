@@ -0,0 +1,85 @@
+-- Weather is a property of a place and an hour, not of a user. Provider measurements move into a
+-- shared pool keyed by (provider, coordinate bucket, hour); weather_samples keeps one row per user
+-- sample that only references the pooled observation. Provider calls and stored measurements then
+-- grow with distinct places and hours instead of with the number of users visiting them.
+CREATE TABLE weather_observations (
+    id BIGSERIAL PRIMARY KEY,
+    provider VARCHAR(40) NOT NULL,
+    latitude_bucket DOUBLE PRECISION NOT NULL,
+    longitude_bucket DOUBLE PRECISION NOT NULL,
+    observed_at TIMESTAMPTZ NOT NULL,
+    provider_latitude DOUBLE PRECISION,
+    provider_longitude DOUBLE PRECISION,
+    fetched_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    timezone VARCHAR(100),
+    weather_code INTEGER,
+    temperature DOUBLE PRECISION,
+    apparent_temperature DOUBLE PRECISION,
+    humidity DOUBLE PRECISION,
+    precipitation DOUBLE PRECISION,
+    rain DOUBLE PRECISION,
+    snowfall DOUBLE PRECISION,
+    cloud_cover DOUBLE PRECISION,
+    wind_speed DOUBLE PRECISION,
+    wind_gust DOUBLE PRECISION,
+    wind_direction DOUBLE PRECISION,
+    pressure DOUBLE PRECISION,
+    raw_data JSONB,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_weather_observations_provider_bucket_time
+        UNIQUE (provider, latitude_bucket, longitude_bucket, observed_at)
+);
+
+-- Seed the pool from existing samples, keeping the most recently fetched copy of each bucket hour
+INSERT INTO weather_observations (
+    provider, latitude_bucket, longitude_bucket, observed_at, provider_latitude, provider_longitude,
+    fetched_at, timezone, weather_code, temperature, apparent_temperature, humidity, precipitation,
+    rain, snowfall, cloud_cover, wind_speed, wind_gust, wind_direction, pressure, raw_data,
+    created_at, updated_at
+)
+SELECT DISTINCT ON (provider, latitude_bucket, longitude_bucket, observed_at)
+       provider, latitude_bucket, longitude_bucket, observed_at, provider_latitude, provider_longitude,
+       fetched_at, timezone, weather_code, temperature, apparent_temperature, humidity, precipitation,
+       rain, snowfall, cloud_cover, wind_speed, wind_gust, wind_direction, pressure, raw_data,
+       created_at, updated_at
+FROM weather_samples
+ORDER BY provider, latitude_bucket, longitude_bucket, observed_at, fetched_at DESC;
+
+ALTER TABLE weather_samples
+    ADD COLUMN observation_id BIGINT;
+
+UPDATE weather_samples sample
+SET observation_id = observation.id
+FROM weather_observations observation
+WHERE observation.provider = sample.provider
+  AND observation.latitude_bucket = sample.latitude_bucket
+  AND observation.longitude_bucket = sample.longitude_bucket
+  AND observation.observed_at = sample.observed_at;
+
+ALTER TABLE weather_samples
+    ALTER COLUMN observation_id SET NOT NULL,
+    ADD CONSTRAINT fk_weather_samples_observation
+        FOREIGN KEY (observation_id) REFERENCES weather_observations (id) ON DELETE CASCADE;
+
+CREATE INDEX idx_weather_samples_observation
+    ON weather_samples (observation_id);
+
+ALTER TABLE weather_samples
+    DROP COLUMN provider_latitude,
+    DROP COLUMN provider_longitude,
+    DROP COLUMN fetched_at,
+    DROP COLUMN timezone,
+    DROP COLUMN weather_code,
+    DROP COLUMN temperature,
+    DROP COLUMN apparent_temperature,
+    DROP COLUMN humidity,
+    DROP COLUMN precipitation,
+    DROP COLUMN rain,
+    DROP COLUMN snowfall,
+    DROP COLUMN cloud_cover,
+    DROP COLUMN wind_speed,
+    DROP COLUMN wind_gust,
+    DROP COLUMN wind_direction,
+    DROP COLUMN pressure,
+    DROP COLUMN raw_data;
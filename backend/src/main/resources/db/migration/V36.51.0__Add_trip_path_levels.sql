@@ -0,0 +1,11 @@
+-- Trip paths are not stored at full resolution (see timeline_trips.path), so map views re-read and
+-- re-simplify GPS points for every request. Each trip now carries a few Douglas-Peucker simplified
+-- copies of its path, generated once when the timeline is persisted; readers pick the level whose
+-- tolerance matches the map zoom. Levels are dropped together with their trip.
+CREATE TABLE timeline_trip_path_levels (
+    trip_id BIGINT NOT NULL REFERENCES timeline_trips (id) ON DELETE CASCADE,
+    tolerance_meters INTEGER NOT NULL,
+    point_count INTEGER NOT NULL,
+    path geometry(LineString, 4326) NOT NULL,
+    PRIMARY KEY (trip_id, tolerance_meters)
+);
@@ -0,0 +1,225 @@
+-- gps_points and gps_point_environment become range-partitioned by point timestamp, one partition per
+-- UTC year plus a default partition that catches anything outside the created years. Time-bounded
+-- queries only touch the years they ask for, every partition has its own smaller B-tree and GiST
+-- indexes, and deleting old history is confined to the partitions that hold it. The scheduled
+-- partition manager keeps the current and upcoming years created; imports create the years they
+-- need before inserting.
+--
+-- The primary key of a partitioned table must contain the partition key, so it becomes (id, timestamp).
+-- Point ids stay unique through their sequence. gps_point_environment carries the point timestamp so it
+-- can reference the composite key and be partitioned alongside. Geofence rows only keep a loose point id;
+-- a statement trigger clears those references when points are deleted, as the old ON DELETE SET NULL
+-- foreign keys did.
+
+-- The partition key is part of the new primary key, so a point without a timestamp has no partition to
+-- go to, not even the default one. Rather than leave such points behind, the migration stops before
+-- changing anything and names the rows to fix; it runs again once they have a timestamp or are removed.
+DO $$
+DECLARE
+    null_timestamp_count BIGINT;
+    user_count           BIGINT;
+BEGIN
+    SELECT COUNT(*), COUNT(DISTINCT user_id)
+    INTO null_timestamp_count, user_count
+    FROM gps_points
+    WHERE timestamp IS NULL;
+
+    IF null_timestamp_count > 0 THEN
+        RAISE EXCEPTION 'Found % gps_points of % users without a timestamp; they cannot be partitioned. '
+                        'Set their timestamp or delete them (SELECT id, user_id FROM gps_points WHERE timestamp IS NULL) '
+                        'and restart to run this migration again.',
+            null_timestamp_count, user_count;
+    END IF;
+END $$;
+
+ALTER TABLE gps_points RENAME TO gps_points_unpartitioned;
+ALTER TABLE gps_points_unpartitioned ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE gps_points_unpartitioned DROP CONSTRAINT pk_gps_points CASCADE;
+
+DROP INDEX IF EXISTS idx_gps_points_user_id;
+DROP INDEX IF EXISTS idx_gps_points_coordinates;
+DROP INDEX IF EXISTS idx_gps_points_timestamp;
+DROP INDEX IF EXISTS idx_gps_points_user_timestamp;
+DROP INDEX IF EXISTS idx_gps_points_no_duplicates;
+DROP INDEX IF EXISTS idx_gps_points_user_coordinates;
+DROP INDEX IF EXISTS idx_gps_points_timeline_stream_keyset;
+
+ALTER TABLE gps_point_environment RENAME TO gps_point_environment_unpartitioned;
+ALTER TABLE gps_point_environment_unpartitioned DROP CONSTRAINT IF EXISTS gps_point_environment_pkey;
+DROP INDEX IF EXISTS idx_gps_point_environment_dataset;
+
+CREATE SEQUENCE gps_points_id_seq;
+SELECT setval('gps_points_id_seq', COALESCE((SELECT MAX(id) FROM gps_points_unpartitioned), 0) + 1, false);
+
+CREATE TABLE gps_points
+(
+    id          BIGINT      NOT NULL DEFAULT nextval('gps_points_id_seq'),
+    device_id   VARCHAR(255),
+    user_id     UUID        NOT NULL,
+    coordinates GEOMETRY(Point, 4326),
+    timestamp   TIMESTAMPTZ NOT NULL,
+    accuracy    DOUBLE PRECISION,
+    battery     DOUBLE PRECISION,
+    velocity    DOUBLE PRECISION,
+    altitude    DOUBLE PRECISION,
+    source_type VARCHAR(255),
+    created_at  TIMESTAMPTZ,
+    telemetry   JSONB
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE gps_points_id_seq OWNED BY gps_points.id;
+
+CREATE TABLE gps_points_default PARTITION OF gps_points DEFAULT;
+
+CREATE TABLE gps_point_environment
+(
+    gps_point_id                BIGINT      NOT NULL,
+    gps_point_timestamp         TIMESTAMPTZ NOT NULL,
+    environment_dataset_version TEXT        NOT NULL,
+    on_water                    BOOLEAN     NOT NULL,
+    water_source                VARCHAR(100),
+    classified_at               TIMESTAMPTZ NOT NULL DEFAULT NOW()
+) PARTITION BY RANGE (gps_point_timestamp);
+
+CREATE TABLE gps_point_environment_default PARTITION OF gps_point_environment DEFAULT;
+
+-- Creates the partitions of both tables for one UTC year. Returns false when the default partition
+-- already holds rows of that year, because attaching the year would have to move them first.
+CREATE OR REPLACE FUNCTION ensure_gps_points_year_partition(p_year INTEGER)
+RETURNS BOOLEAN
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_from        TIMESTAMPTZ := make_timestamptz(p_year, 1, 1, 0, 0, 0, 'UTC');
+    v_to          TIMESTAMPTZ := make_timestamptz(p_year + 1, 1, 1, 0, 0, 0, 'UTC');
+    v_points      TEXT        := format('gps_points_y%s', p_year);
+    v_environment TEXT        := format('gps_point_environment_y%s', p_year);
+BEGIN
+    IF to_regclass(v_points) IS NULL THEN
+        IF EXISTS (SELECT 1 FROM gps_points_default WHERE timestamp >= v_from AND timestamp < v_to) THEN
+            RETURN FALSE;
+        END IF;
+        EXECUTE format('CREATE TABLE %I PARTITION OF gps_points FOR VALUES FROM (%L) TO (%L)',
+                       v_points, v_from, v_to);
+    END IF;
+
+    IF to_regclass(v_environment) IS NULL THEN
+        IF EXISTS (SELECT 1
+                   FROM gps_point_environment_default
+                   WHERE gps_point_timestamp >= v_from AND gps_point_timestamp < v_to) THEN
+            RETURN FALSE;
+        END IF;
+        EXECUTE format('CREATE TABLE %I PARTITION OF gps_point_environment FOR VALUES FROM (%L) TO (%L)',
+                       v_environment, v_from, v_to);
+    END IF;
+
+    RETURN TRUE;
+END;
+$$;
+
+-- Only years that hold points, plus the current and next year, so sparse history does not create
+-- a run of empty partitions
+DO $$
+DECLARE
+    v_year INTEGER;
+BEGIN
+    FOR v_year IN
+        SELECT DISTINCT EXTRACT(YEAR FROM timestamp AT TIME ZONE 'UTC')::INTEGER
+        FROM gps_points_unpartitioned
+        UNION
+        SELECT EXTRACT(YEAR FROM NOW() AT TIME ZONE 'UTC')::INTEGER
+        UNION
+        SELECT EXTRACT(YEAR FROM NOW() AT TIME ZONE 'UTC')::INTEGER + 1
+    LOOP
+        PERFORM ensure_gps_points_year_partition(v_year);
+    END LOOP;
+END;
+$$;
+
+-- Every point has a timestamp, checked at the start
+INSERT INTO gps_points (id, device_id, user_id, coordinates, timestamp, accuracy, battery, velocity, altitude,
+                        source_type, created_at, telemetry)
+SELECT id, device_id, user_id, coordinates, timestamp, accuracy, battery, velocity, altitude,
+       source_type, created_at, telemetry
+FROM gps_points_unpartitioned;
+
+INSERT INTO gps_point_environment (gps_point_id, gps_point_timestamp, environment_dataset_version, on_water,
+                                   water_source, classified_at)
+SELECT env.gps_point_id, gp.timestamp, env.environment_dataset_version, env.on_water,
+       env.water_source, env.classified_at
+FROM gps_point_environment_unpartitioned env
+JOIN gps_points_unpartitioned gp ON gp.id = env.gps_point_id;
+
+-- Constraints and indexes are built after the copy; every partition inherits them.
+-- idx_gps_points_user_id and idx_gps_points_user_timestamp are not recreated: both are prefixes of
+-- idx_gps_points_timeline_stream_keyset.
+ALTER TABLE gps_points
+    ADD CONSTRAINT pk_gps_points PRIMARY KEY (id, timestamp);
+
+ALTER TABLE gps_points
+    ADD CONSTRAINT fk_gps_points_on_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+CREATE UNIQUE INDEX idx_gps_points_no_duplicates
+    ON gps_points (user_id, timestamp, coordinates);
+
+CREATE INDEX idx_gps_points_timeline_stream_keyset
+    ON gps_points (user_id, timestamp, id);
+
+CREATE INDEX idx_gps_points_timestamp
+    ON gps_points (timestamp);
+
+CREATE INDEX idx_gps_points_coordinates
+    ON gps_points USING GIST (coordinates);
+
+CREATE INDEX idx_gps_points_user_coordinates
+    ON gps_points USING GIST (user_id, coordinates);
+
+ALTER TABLE gps_point_environment
+    ADD CONSTRAINT pk_gps_point_environment PRIMARY KEY (gps_point_id, gps_point_timestamp);
+
+ALTER TABLE gps_point_environment
+    ADD CONSTRAINT fk_gps_point_environment_point
+        FOREIGN KEY (gps_point_id, gps_point_timestamp) REFERENCES gps_points (id, timestamp)
+            ON DELETE CASCADE ON UPDATE CASCADE;
+
+CREATE INDEX idx_gps_point_environment_dataset
+    ON gps_point_environment (environment_dataset_version);
+
+DROP TABLE gps_point_environment_unpartitioned;
+DROP TABLE gps_points_unpartitioned;
+
+CREATE OR REPLACE FUNCTION clear_deleted_gps_point_references()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE geofence_events
+    SET point_id = NULL
+    WHERE point_id IN (SELECT id FROM deleted_points);
+
+    UPDATE geofence_rule_state
+    SET last_point_id = NULL
+    WHERE last_point_id IN (SELECT id FROM deleted_points);
+
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_gps_points_clear_references
+    AFTER DELETE ON gps_points
+    REFERENCING OLD TABLE AS deleted_points
+    FOR EACH STATEMENT
+EXECUTE FUNCTION clear_deleted_gps_point_references();
+
+COMMENT ON TABLE gps_points IS
+    'GPS points, range-partitioned by UTC year of timestamp. gps_points_default holds points outside the created years.';
+COMMENT ON TABLE gps_point_environment IS
+    'Derived GPS point environmental evidence. Populated lazily in bulk during timeline reconciliation when boat detection is enabled.';
+COMMENT ON COLUMN gps_point_environment.gps_point_timestamp IS
+    'Timestamp of the referenced GPS point; partition key shared with gps_points.';
+COMMENT ON COLUMN gps_point_environment.on_water IS
+    'True when the point is inside an imported water-surface polygon.';
+COMMENT ON COLUMN gps_point_environment.water_source IS
+    'Source dataset of the matched water surface, when on_water is true.';
+COMMENT ON COLUMN gps_point_environment.environment_dataset_version IS
+    'Combined water dataset version used to calculate this row.';
@@ -0,0 +1,33 @@
+-- Cold storage for historical GPS points. Once a calendar month (UTC) of a user is older than the configured
+-- cutover age, its rows are moved out of gps_points into one block per user and month: points sorted by
+-- timestamp, delta-encoded and deflate-compressed into a single payload. Readers that stream a user's
+-- history (timeline regeneration, exports) merge these blocks with live rows.
+
+CREATE TABLE gps_point_archive_blocks
+(
+    id               BIGSERIAL PRIMARY KEY,
+    user_id          UUID        NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    period_start     TIMESTAMPTZ NOT NULL,
+    first_timestamp  TIMESTAMPTZ NOT NULL,
+    last_timestamp   TIMESTAMPTZ NOT NULL,
+    point_count      INTEGER     NOT NULL,
+    encoding_version SMALLINT    NOT NULL,
+    payload          BYTEA       NOT NULL,
+    created_at       TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at       TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_gps_point_archive_blocks_user_period UNIQUE (user_id, period_start)
+);
+
+-- Payloads are already compressed; TOAST compression would only spend CPU
+ALTER TABLE gps_point_archive_blocks
+    ALTER COLUMN payload SET STORAGE EXTERNAL;
+
+CREATE INDEX idx_gps_point_archive_blocks_user_time
+    ON gps_point_archive_blocks (user_id, first_timestamp, last_timestamp);
+
+COMMENT ON TABLE gps_point_archive_blocks IS
+    'Archived GPS points, one compressed block per user and UTC month. Points of an archived month no longer exist in gps_points.';
+COMMENT ON COLUMN gps_point_archive_blocks.period_start IS
+    'Start of the UTC month the block covers.';
+COMMENT ON COLUMN gps_point_archive_blocks.encoding_version IS
+    'Payload format version written by GpsPointArchiveCodec.';
@@ -1,8 +1,10 @@
 package org.github.tess1o.geopulse.admin.service;
 
+import jakarta.enterprise.event.Event;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.github.tess1o.geopulse.admin.model.Role;
+import org.github.tess1o.geopulse.user.events.UserAccessChangedEvent;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 import org.github.tess1o.geopulse.user.repository.UserRepository;
 import org.github.tess1o.geopulse.user.service.SecurePasswordUtils;
@@ -17,8 +19,10 @@ import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +38,9 @@ class AdminUserServiceTest {
     @Mock
     EntityManager entityManager;
 
+    @Mock
+    Event<UserAccessChangedEvent> userAccessChangedEvent;
+
     @Test
     void deleteUser_CleansInvitationReferencesBeforeDeletingUser() {
         UUID userId = UUID.randomUUID();
@@ -51,12 +58,14 @@ class AdminUserServiceTest {
             return query;
         });
 
-        AdminUserService adminUserService = new AdminUserService(userRepository, passwordUtils, entityManager);
+        AdminUserService adminUserService = new AdminUserService(userRepository, passwordUtils, entityManager,
+                userAccessChangedEvent);
         adminUserService.deleteUser(userId);
 
         InOrder inOrder = inOrder(entityManager, userRepository);
         inOrder.verify(entityManager).createQuery("UPDATE UserInvitationEntity i SET i.usedBy = null WHERE i.usedBy = :userId");
         inOrder.verify(entityManager).createQuery("DELETE FROM UserInvitationEntity i WHERE i.createdBy = :userId");
         inOrder.verify(userRepository).deleteById(userId);
+        verify(userAccessChangedEvent).fire(argThat(event -> userId.equals(event.getUserId())));
     }
 }
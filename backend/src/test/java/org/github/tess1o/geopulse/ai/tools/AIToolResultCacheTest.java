@@ -0,0 +1,93 @@
+package org.github.tess1o.geopulse.ai.tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.github.tess1o.geopulse.streaming.events.TimelineDataChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class AIToolResultCacheTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private AIToolResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AIToolResultCache();
+        cache.enabled = true;
+        cache.maxEntriesPerUser = 2;
+        cache.ttlMinutes = 30;
+        cache.objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    void getOrCompute_reusesResultForReorderedArguments() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String first = cache.getOrCompute(userId, "getStayStats",
+                "{\"startDate\":\"2026-01-01\",\"endDate\":\"2026-01-31\",\"groupBy\":\"CITY\"}",
+                () -> "[{\"calls\":" + calls.incrementAndGet() + "}]");
+        String second = cache.getOrCompute(userId, "getStayStats",
+                "{\"groupBy\":\"CITY\", \"endDate\":\" 2026-01-31\",\"startDate\":\"2026-01-01\",\"targetUser\":null}",
+                () -> "[{\"calls\":" + calls.incrementAndGet() + "}]");
+
+        assertThat(calls).hasValue(1);
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void getOrCompute_doesNotShareResultsAcrossUsersOrTools() {
+        AtomicInteger calls = new AtomicInteger();
+        String args = "{\"startDate\":\"2026-01-01\",\"endDate\":\"2026-01-31\"}";
+
+        cache.getOrCompute(userId, "queryTimeline", args, () -> "{\"n\":" + calls.incrementAndGet() + "}");
+        cache.getOrCompute(UUID.randomUUID(), "queryTimeline", args, () -> "{\"n\":" + calls.incrementAndGet() + "}");
+        cache.getOrCompute(userId, "getTripMovements", args, () -> "{\"n\":" + calls.incrementAndGet() + "}");
+
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void timelineDataChanged_invalidatesUserEntries() {
+        AtomicInteger calls = new AtomicInteger();
+        String args = "{\"startDate\":\"2026-01-01\",\"endDate\":\"2026-01-31\"}";
+
+        cache.getOrCompute(userId, "queryTimeline", args, () -> "{\"n\":" + calls.incrementAndGet() + "}");
+        cache.onTimelineDataChanged(new TimelineDataChangedEvent(userId, Instant.now(), Instant.now(), null));
+        String afterChange = cache.getOrCompute(userId, "queryTimeline", args,
+                () -> "{\"n\":" + calls.incrementAndGet() + "}");
+
+        assertThat(afterChange).isEqualTo("{\"n\":2}");
+    }
+
+    @Test
+    void getOrCompute_skipsErrorsAndResultsComputedAcrossAnInvalidation() {
+        String args = "{\"startDate\":\"2026-01-01\",\"endDate\":\"2026-01-31\"}";
+
+        cache.getOrCompute(userId, "queryTimeline", args, () -> "{\"error\":{\"code\":\"X\"}}");
+        assertThat(cache.cachedEntries(userId)).isZero();
+
+        cache.getOrCompute(userId, "queryTimeline", args, () -> {
+            cache.invalidate(userId);
+            return "{\"n\":1}";
+        });
+        assertThat(cache.cachedEntries(userId)).isZero();
+    }
+
+    @Test
+    void getOrCompute_boundsEntriesPerUser() {
+        for (int day = 1; day <= 5; day++) {
+            String args = "{\"startDate\":\"2026-01-0" + day + "\",\"endDate\":\"2026-01-0" + day + "\"}";
+            cache.getOrCompute(userId, "queryTimeline", args, () -> "{}");
+        }
+
+        assertThat(cache.cachedEntries(userId)).isEqualTo(2);
+    }
+}
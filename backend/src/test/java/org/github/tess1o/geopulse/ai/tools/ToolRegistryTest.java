@@ -42,7 +42,8 @@ class ToolRegistryTest {
         simpleAITools = Mockito.mock(SimpleAITools.class);
         objectMapper = new ObjectMapper();
 
-        toolRegistry = new ToolRegistry(aiTimelineTools, aiFriendLiveTools, simpleAITools, objectMapper);
+        toolRegistry = new ToolRegistry(aiTimelineTools, aiFriendLiveTools, simpleAITools, objectMapper,
+                Mockito.mock(AIToolResultCache.class));
         toolRegistry.registerTools();
     }
 
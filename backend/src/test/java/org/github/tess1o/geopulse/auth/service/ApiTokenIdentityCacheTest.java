@@ -0,0 +1,84 @@
+package org.github.tess1o.geopulse.auth.service;
+
+import org.github.tess1o.geopulse.admin.model.Role;
+import org.github.tess1o.geopulse.auth.events.ApiTokenChangedEvent;
+import org.github.tess1o.geopulse.auth.model.ApiTokenAuthenticationResult;
+import org.github.tess1o.geopulse.user.events.UserAccessChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class ApiTokenIdentityCacheTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final ApiTokenAuthenticationResult identity = new ApiTokenAuthenticationResult(
+            UUID.randomUUID(), userId, "automation@example.com", Role.USER, null);
+    private ApiTokenIdentityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ApiTokenIdentityCache();
+        cache.enabled = true;
+        cache.ttlSeconds = 60;
+        cache.maxEntries = 100;
+    }
+
+    @Test
+    void getOrLoad_servesRepeatedRequestsWithoutLoading() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(cache.getOrLoad("hash", () -> {
+                loads.incrementAndGet();
+                return Optional.of(identity);
+            })).contains(identity);
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void getOrLoad_rejectsCachedTokenOnceItExpires() {
+        ApiTokenAuthenticationResult expired = new ApiTokenAuthenticationResult(
+                UUID.randomUUID(), userId, "automation@example.com", Role.USER, Instant.now().minusSeconds(1));
+        cache.getOrLoad("expiring", () -> Optional.of(expired));
+
+        assertThat(cache.getOrLoad("expiring", () -> Optional.of(expired))).isEmpty();
+        assertThat(cache.cachedEntries()).isZero();
+    }
+
+    @Test
+    void tokenAndUserChanges_evictCachedIdentities() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getOrLoad("hash", () -> {
+            loads.incrementAndGet();
+            return Optional.of(identity);
+        });
+
+        cache.onApiTokenChanged(new ApiTokenChangedEvent(identity.tokenId()));
+        assertThat(cache.getOrLoad("hash", Optional::empty)).isEmpty();
+
+        cache.getOrLoad("hash", () -> Optional.of(identity));
+        cache.onUserAccessChanged(new UserAccessChangedEvent(userId));
+        assertThat(cache.cachedEntries()).isZero();
+    }
+
+    @Test
+    void getOrLoad_doesNotStoreIdentityLoadedAcrossAnInvalidation() {
+        Optional<ApiTokenAuthenticationResult> loaded = cache.getOrLoad("hash", () -> {
+            cache.onUserAccessChanged(new UserAccessChangedEvent(userId));
+            return Optional.of(identity);
+        });
+
+        assertThat(loaded).contains(identity);
+        assertThat(cache.cachedEntries()).isZero();
+    }
+}
@@ -53,10 +53,7 @@ class CoverageCalculationJobTest {
     void processCoverage_skipsUsersWithActiveImportJobs() {
         UUID activeImportUserId = UUID.randomUUID();
         UUID idleUserId = UUID.randomUUID();
-        when(coverageRepository.findUsersWithNewCoverage(
-                CoverageDefaults.MAX_ACCURACY_METERS,
-                CoverageDefaults.PROCESSING_STALE_TIMEOUT_SECONDS
-        )).thenReturn(List.of(activeImportUserId, idleUserId));
+        when(coverageRepository.findUsersWithNewCoverage(CoverageDefaults.PROCESSING_STALE_TIMEOUT_SECONDS)).thenReturn(List.of(activeImportUserId, idleUserId));
         when(importJobService.hasActiveImportJob(activeImportUserId)).thenReturn(true);
         when(importJobService.hasActiveImportJob(idleUserId)).thenReturn(false);
 
@@ -69,10 +66,7 @@ class CoverageCalculationJobTest {
     @Test
     void processCoverage_doesNothingWhenAllUsersHaveActiveImports() {
         UUID activeImportUserId = UUID.randomUUID();
-        when(coverageRepository.findUsersWithNewCoverage(
-                CoverageDefaults.MAX_ACCURACY_METERS,
-                CoverageDefaults.PROCESSING_STALE_TIMEOUT_SECONDS
-        )).thenReturn(List.of(activeImportUserId));
+        when(coverageRepository.findUsersWithNewCoverage(CoverageDefaults.PROCESSING_STALE_TIMEOUT_SECONDS)).thenReturn(List.of(activeImportUserId));
         when(importJobService.hasActiveImportJob(activeImportUserId)).thenReturn(true);
 
         coverageCalculationJob.processCoverage();
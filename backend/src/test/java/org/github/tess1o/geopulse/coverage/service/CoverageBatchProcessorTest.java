@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,6 +16,7 @@ import java.time.Instant;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -26,6 +28,9 @@ class CoverageBatchProcessorTest {
     @Mock
     CoverageRepository coverageRepository;
 
+    @Mock
+    CoverageJvmEngine coverageJvmEngine;
+
     @InjectMocks
     CoverageBatchProcessor coverageBatchProcessor;
 
@@ -49,7 +54,7 @@ class CoverageBatchProcessorTest {
     }
 
     @Test
-    void processNextBatch_processesAllGridsAndCommitsCursor() {
+    void processNextBatch_rasterizesBaseGridsRollsUpPyramidAndCommitsCursor() {
         CoverageProcessingCursor lowerBound = new CoverageProcessingCursor(
                 Instant.parse("2026-01-01T00:00:00Z"),
                 100L
@@ -66,7 +71,7 @@ class CoverageBatchProcessorTest {
 
         assertThat(result).isEqualTo(upperBound);
         verify(coverageRepository).findBatchUpperBound(userId, lowerBound, CoverageDefaults.MAX_ACCURACY_METERS, 5_000);
-        for (int gridMeters : CoverageDefaults.GRID_SIZES_METERS_ORDERED) {
+        for (int gridMeters : CoverageDefaults.RASTERIZED_GRID_SIZES) {
             verify(coverageRepository).upsertCoverageCells(
                     userId,
                     lowerBound,
@@ -79,10 +84,36 @@ class CoverageBatchProcessorTest {
                     CoverageDefaults.MAX_ACCURACY_METERS
             );
         }
+        verify(coverageRepository).rollupCoverageLevel(userId, 50, 250, lowerBound.timestamp());
+        verify(coverageRepository).rollupCoverageLevel(userId, 250, 1000, lowerBound.timestamp());
+        verify(coverageRepository).rollupCoverageLevel(userId, 1000, 5000, lowerBound.timestamp());
+        verify(coverageRepository).rollupCoverageLevel(userId, 5000, 20000, lowerBound.timestamp());
+        verify(coverageRepository).rollupCoverageLevel(userId, 20000, 40000, lowerBound.timestamp());
         verify(coverageRepository).upsertLastProcessed(userId, upperBound);
         verifyNoMoreInteractions(coverageRepository);
     }
 
+    @Test
+    void processNextBatch_firstBatch_rollsUpWholePyramid() {
+        CoverageProcessingCursor upperBound = new CoverageProcessingCursor(
+                Instant.parse("2026-01-01T01:00:00Z"),
+                5_000L
+        );
+        when(coverageRepository.findBatchUpperBound(userId, null, CoverageDefaults.MAX_ACCURACY_METERS, 5_000))
+                .thenReturn(upperBound);
+
+        coverageBatchProcessor.processNextBatch(userId, null, 5_000);
+
+        InOrder inOrder = inOrder(coverageRepository);
+        int childGridMeters = CoverageDefaults.PYRAMID_BASE_GRID_METERS;
+        for (int gridMeters : CoverageDefaults.ROLLUP_GRID_SIZES_ORDERED) {
+            assertThat(gridMeters % childGridMeters).isZero();
+            inOrder.verify(coverageRepository).rollupCoverageLevel(userId, childGridMeters, gridMeters, null);
+            childGridMeters = gridMeters;
+        }
+        inOrder.verify(coverageRepository).upsertLastProcessed(userId, upperBound);
+    }
+
     @Test
     void resetForRebuild_deletesCoverageAndResetsCursor() {
         coverageBatchProcessor.resetForRebuild(userId);
@@ -0,0 +1,159 @@
+package org.github.tess1o.geopulse.coverage.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.github.tess1o.geopulse.coverage.CoverageDefaults;
+import org.github.tess1o.geopulse.coverage.model.CoverageProcessingCursor;
+import org.github.tess1o.geopulse.coverage.repository.CoverageRepository;
+import org.github.tess1o.geopulse.db.PostgisTestResource;
+import org.github.tess1o.geopulse.testsupport.SerializedDatabaseTest;
+import org.github.tess1o.geopulse.testsupport.TestIds;
+import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.github.tess1o.geopulse.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the SQL and the JVM coverage engines over the same synthetic dense track and compares time and output.
+ * Disabled by default; run with:
+ *
+ * mvn verify -Dit.test=CoverageEngineBenchmarkTest -Dgeopulse.coverage.benchmark=true \
+ *            -Dgeopulse.coverage.benchmark.points=50000
+ */
+@QuarkusTest
+@QuarkusTestResource(value = PostgisTestResource.class)
+@SerializedDatabaseTest
+@EnabledIfSystemProperty(named = "geopulse.coverage.benchmark", matches = "true")
+@Slf4j
+class CoverageEngineBenchmarkTest {
+
+    private static final int ITERATIONS = 3;
+
+    @Inject
+    CoverageRepository coverageRepository;
+
+    @Inject
+    CoverageJvmEngine coverageJvmEngine;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void sqlAndJvmEnginesProduceSameCells() {
+        int points = Integer.getInteger("geopulse.coverage.benchmark.points", 20_000);
+        UUID userId = QuarkusTransaction.requiringNew().call(() -> createUserWithTrack(points));
+        CoverageProcessingCursor upperBound = QuarkusTransaction.requiringNew().call(() ->
+                coverageRepository.findProcessingUpperBound(userId, null, CoverageDefaults.MAX_ACCURACY_METERS));
+
+        long bestSqlNanos = Long.MAX_VALUE;
+        long bestJvmNanos = Long.MAX_VALUE;
+        Map<String, Long> sqlCells = Map.of();
+        Map<String, Long> jvmCells = Map.of();
+        for (int i = 0; i < ITERATIONS; i++) {
+            coverageRepository.deleteCoverageCells(userId);
+            long startedAt = System.nanoTime();
+            QuarkusTransaction.requiringNew().run(() -> runSqlEngine(userId, upperBound));
+            bestSqlNanos = Math.min(bestSqlNanos, System.nanoTime() - startedAt);
+            sqlCells = QuarkusTransaction.requiringNew().call(() -> snapshotCells(userId));
+
+            coverageRepository.deleteCoverageCells(userId);
+            startedAt = System.nanoTime();
+            QuarkusTransaction.requiringNew().run(() -> coverageJvmEngine.upsertCoverageCells(userId, null, upperBound));
+            bestJvmNanos = Math.min(bestJvmNanos, System.nanoTime() - startedAt);
+            jvmCells = QuarkusTransaction.requiringNew().call(() -> snapshotCells(userId));
+        }
+
+        int mismatched = countMismatches(sqlCells, jvmCells);
+        log.info("Coverage engine benchmark: points={}, cells={}, sql={} ms, jvm={} ms, mismatched cells={}",
+                points, sqlCells.size(), bestSqlNanos / 1_000_000, bestJvmNanos / 1_000_000, mismatched);
+
+        // Floating point can put a sample on the other side of a cell edge; anything beyond that is a bug
+        assertThat(jvmCells).isNotEmpty();
+        assertThat(mismatched).isLessThanOrEqualTo(Math.max(1, sqlCells.size() / 1000));
+    }
+
+    private UUID createUserWithTrack(int points) {
+        UserEntity user = new UserEntity();
+        user.setEmail(TestIds.uniqueEmail("coverage-benchmark"));
+        user.setFullName("coverage-benchmark");
+        user.setPasswordHash("test");
+        user.setActive(true);
+        userRepository.persist(user);
+        userRepository.flush();
+
+        // Walking-speed meander with turns every few minutes and a gap every 1000 points
+        entityManager.createNativeQuery("""
+                        INSERT INTO gps_points (user_id, coordinates, timestamp, accuracy, source_type, created_at)
+                        SELECT :userId,
+                               ST_SetSRID(ST_MakePoint(30.50 + i * 0.00003 + 0.0004 * sin(i / 40.0),
+                                                       50.45 + 0.0006 * cos(i / 55.0) + (i / 5000) * 0.001), 4326),
+                               TIMESTAMPTZ '2026-01-01 00:00:00+00' + (i * 5 + (i / 1000) * 600) * INTERVAL '1 second',
+                               CASE WHEN i % 97 = 0 THEN 120.0 ELSE 8.0 END,
+                               'OWNTRACKS',
+                               NOW()
+                        FROM generate_series(1, :points) AS i
+                        """)
+                .setParameter("userId", user.getId())
+                .setParameter("points", points)
+                .executeUpdate();
+        return user.getId();
+    }
+
+    private void runSqlEngine(UUID userId, CoverageProcessingCursor upperBound) {
+        for (int gridMeters : CoverageDefaults.RASTERIZED_GRID_SIZES) {
+            coverageRepository.upsertCoverageCells(
+                    userId,
+                    null,
+                    upperBound,
+                    gridMeters,
+                    CoverageDefaults.RADIUS_METERS,
+                    CoverageDefaults.SEGMENTIZE_METERS,
+                    CoverageDefaults.MAX_GAP_SECONDS,
+                    CoverageDefaults.MAX_SPEED_MPS,
+                    CoverageDefaults.MAX_ACCURACY_METERS
+            );
+        }
+    }
+
+    private Map<String, Long> snapshotCells(UUID userId) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT grid_m, cell_x, cell_y, seen_count FROM coverage_cells WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .getResultList();
+        Map<String, Long> cells = new HashMap<>();
+        for (Object[] row : rows) {
+            cells.put(row[0] + ":" + row[1] + ":" + row[2], ((Number) row[3]).longValue());
+        }
+        return cells;
+    }
+
+    private static int countMismatches(Map<String, Long> expected, Map<String, Long> actual) {
+        Set<String> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        int mismatched = 0;
+        for (String key : keys) {
+            if (!expected.getOrDefault(key, -1L).equals(actual.getOrDefault(key, -1L))) {
+                mismatched++;
+            }
+        }
+        return mismatched;
+    }
+}
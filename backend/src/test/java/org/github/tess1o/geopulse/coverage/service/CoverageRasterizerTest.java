@@ -0,0 +1,97 @@
+package org.github.tess1o.geopulse.coverage.service;
+
+import org.github.tess1o.geopulse.coverage.model.CoveragePoint;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class CoverageRasterizerTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T10:00:00Z");
+
+    @Test
+    void accept_singlePointStampsRadiusSquare() {
+        CoverageRasterizer rasterizer = new CoverageRasterizer(50, 20, 10, 300, 60.0);
+
+        rasterizer.accept(point(1, 0, 125.0, 125.0));
+
+        // 105..145 stays inside cell 2 on both axes
+        assertThat(cells(rasterizer)).containsOnlyKeys(key(2, 2));
+        assertThat(cells(rasterizer).get(key(2, 2))).isEqualTo(1L);
+    }
+
+    @Test
+    void accept_segmentIsWalkedInSegmentizeSteps() {
+        CoverageRasterizer rasterizer = new CoverageRasterizer(1000, 0, 10, 300, 60.0);
+
+        rasterizer.accept(point(1, 0, 100.0, 100.0));
+        rasterizer.accept(point(2, 10, 200.0, 100.0));
+
+        // Two point stamps plus 11 samples for a 100 m segment at 10 m steps, all in one 1 km cell
+        assertThat(cells(rasterizer).get(key(0, 0))).isEqualTo(13L);
+    }
+
+    @Test
+    void accept_skipsSegmentsOverGapOrSpeedLimits() {
+        CoverageRasterizer rasterizer = new CoverageRasterizer(1000, 0, 10, 300, 60.0);
+
+        rasterizer.accept(point(1, 0, 100.0, 100.0));
+        rasterizer.accept(point(2, 301, 150.0, 100.0));
+        rasterizer.accept(point(3, 302, 900.0, 100.0));
+
+        // Only the three point stamps: a 301 s gap, then 750 m in 1 s
+        assertThat(cells(rasterizer).get(key(0, 0))).isEqualTo(3L);
+    }
+
+    @Test
+    void anchor_opensFirstSegmentWithoutStampingItself() {
+        CoverageRasterizer rasterizer = new CoverageRasterizer(50, 0, 10, 300, 60.0);
+
+        rasterizer.anchor(point(1, 0, 10.0, 10.0));
+        rasterizer.accept(point(2, 5, 60.0, 10.0));
+
+        Map<Long, Long> cells = cells(rasterizer);
+        assertThat(cells).containsOnlyKeys(key(0, 0), key(1, 0));
+        // Samples at 10, 20, 30, 40 m fall in cell 0; 50 and 60 m, plus the point stamp, in cell 1
+        assertThat(cells.get(key(0, 0))).isEqualTo(4L);
+        assertThat(cells.get(key(1, 0))).isEqualTo(3L);
+    }
+
+    @Test
+    void accumulator_keepsFirstAndLastSeenAcrossResizes() {
+        CoverageCellAccumulator accumulator = new CoverageCellAccumulator();
+        for (int i = 0; i < 10_000; i++) {
+            accumulator.add(i, -i, 1_000L + i, 2_000L + i);
+        }
+        accumulator.add(7, -7, 5L, 9_999_999L);
+
+        Map<Long, long[]> seen = new HashMap<>();
+        accumulator.forEach((cellX, cellY, first, last, count) ->
+                seen.put(CoverageCellAccumulator.pack(cellX, cellY), new long[]{first, last, count}));
+
+        assertThat(accumulator.size()).isEqualTo(10_000);
+        assertThat(seen.get(CoverageCellAccumulator.pack(7, -7))).containsExactly(5L, 9_999_999L, 2L);
+        assertThat(seen.get(CoverageCellAccumulator.pack(9_999, -9_999))).containsExactly(10_999L, 11_999L, 1L);
+    }
+
+    private static CoveragePoint point(long id, int secondsFromStart, double x, double y) {
+        return new CoveragePoint(id, T0.plusSeconds(secondsFromStart), x, y);
+    }
+
+    private static long key(long cellX, long cellY) {
+        return CoverageCellAccumulator.pack(cellX, cellY);
+    }
+
+    private static Map<Long, Long> cells(CoverageRasterizer rasterizer) {
+        Map<Long, Long> cells = new HashMap<>();
+        rasterizer.cells().forEach((cellX, cellY, first, last, count) ->
+                cells.put(CoverageCellAccumulator.pack(cellX, cellY), count));
+        return cells;
+    }
+}
@@ -3,6 +3,7 @@ package org.github.tess1o.geopulse.coverage.service;
 import jakarta.transaction.Transactional;
 import org.github.tess1o.geopulse.coverage.model.CoverageProcessingCursor;
 import org.github.tess1o.geopulse.coverage.repository.CoverageRepository;
+import org.github.tess1o.geopulse.user.model.UserEntity;
 import org.github.tess1o.geopulse.user.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -19,7 +20,14 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
@@ -139,11 +147,69 @@ class CoverageServiceTest {
 
         InOrder inOrder = inOrder(coverageBatchProcessor);
         inOrder.verify(coverageBatchProcessor).resetForRebuild(userId);
+        inOrder.verify(coverageBatchProcessor).processNextArchivedMonth(userId, null);
         inOrder.verify(coverageBatchProcessor).findProcessingCursor(userId);
         inOrder.verify(coverageBatchProcessor).processNextBatch(userId, null, 5_000);
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    void rebuildUserCoverage_rasterizesEveryArchivedMonthBeforeLivePoints() {
+        CoverageJvmEngine.ArchiveCursor january = new CoverageJvmEngine.ArchiveCursor(
+                Instant.parse("2023-01-01T00:00:00Z"), null);
+        CoverageJvmEngine.ArchiveCursor february = new CoverageJvmEngine.ArchiveCursor(
+                Instant.parse("2023-02-01T00:00:00Z"), null);
+        when(coverageBatchProcessor.processNextArchivedMonth(userId, null)).thenReturn(january);
+        when(coverageBatchProcessor.processNextArchivedMonth(userId, january)).thenReturn(february);
+        when(coverageBatchProcessor.processNextArchivedMonth(userId, february)).thenReturn(null);
+        when(coverageBatchProcessor.findProcessingCursor(userId)).thenReturn(null);
+        when(coverageBatchProcessor.processNextBatch(userId, null, 5_000)).thenReturn(null);
+
+        coverageService.rebuildUserCoverage(userId);
+
+        InOrder inOrder = inOrder(coverageBatchProcessor);
+        inOrder.verify(coverageBatchProcessor).resetForRebuild(userId);
+        inOrder.verify(coverageBatchProcessor).processNextArchivedMonth(userId, null);
+        inOrder.verify(coverageBatchProcessor).processNextArchivedMonth(userId, january);
+        inOrder.verify(coverageBatchProcessor).processNextArchivedMonth(userId, february);
+        inOrder.verify(coverageBatchProcessor).findProcessingCursor(userId);
+        inOrder.verify(coverageBatchProcessor).processNextBatch(userId, null, 5_000);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void processUserCoverage_marksWatermarkReadBeforeFirstBatchAsProcessed() {
+        CoverageProcessingCursor batchCursor = new CoverageProcessingCursor(
+                Instant.parse("2026-01-01T00:00:00Z"),
+                100L
+        );
+
+        when(coverageRepository.findDataVersion(userId)).thenReturn(7L);
+        when(coverageBatchProcessor.findProcessingCursor(userId)).thenReturn(null);
+        when(coverageBatchProcessor.processNextBatch(userId, null, 5_000)).thenReturn(batchCursor);
+        when(coverageBatchProcessor.processNextBatch(userId, batchCursor, 5_000)).thenReturn(null);
+
+        coverageService.processUserCoverage(userId);
+
+        InOrder inOrder = inOrder(coverageRepository, coverageBatchProcessor);
+        inOrder.verify(coverageRepository).findDataVersion(userId);
+        inOrder.verify(coverageBatchProcessor).processNextBatch(userId, batchCursor, 5_000);
+        inOrder.verify(coverageRepository).markDataVersionProcessed(userId, 7L);
+    }
+
+    @Test
+    void processUserCoverage_failedBatch_leavesWatermarkPending() {
+        when(coverageRepository.findDataVersion(userId)).thenReturn(3L);
+        when(coverageBatchProcessor.findProcessingCursor(userId)).thenReturn(null);
+        when(coverageBatchProcessor.processNextBatch(userId, null, 5_000))
+                .thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(() -> coverageService.processUserCoverage(userId))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(coverageRepository, never()).markDataVersionProcessed(any(), anyLong());
+    }
+
     @Test
     void processUserCoverage_invalidBatchSize_failsBeforeTouchingDatabase() {
         coverageService.batchSize = 0;
@@ -155,6 +221,55 @@ class CoverageServiceTest {
         verifyNoInteractions(coverageBatchProcessor);
     }
 
+    @Test
+    void setUserCoverageEnabled_switchingOn_marksExistingHistoryAsNewData() {
+        UserEntity user = new UserEntity();
+        when(userRepository.findById(userId)).thenReturn(user);
+
+        coverageService.setUserCoverageEnabled(userId, true);
+
+        assertThat(user.isCoverageEnabled()).isTrue();
+        verify(coverageRepository).markNewData(userId);
+    }
+
+    @Test
+    void setUserCoverageEnabled_alreadyOnOrSwitchingOff_leavesWatermark() {
+        UserEntity user = new UserEntity();
+        user.setCoverageEnabled(true);
+        when(userRepository.findById(userId)).thenReturn(user);
+
+        coverageService.setUserCoverageEnabled(userId, true);
+        coverageService.setUserCoverageEnabled(userId, false);
+
+        assertThat(user.isCoverageEnabled()).isFalse();
+        verify(coverageRepository, never()).markNewData(any());
+    }
+
+    @Test
+    void getCoverageCells_smallBbox_usesRequestedGridWithoutCounting() {
+        coverageService.getCoverageCells(userId, 30.50, 50.44, 30.51, 50.45, 50, 12_000);
+
+        verify(coverageRepository, never())
+                .countCoverageCellsInBbox(any(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyInt(), anyInt());
+        verify(coverageRepository).findCoverageCells(userId, 30.50, 50.44, 30.51, 50.45, 50, 12_000);
+    }
+
+    @Test
+    void getCoverageCells_tooManyCellsInBbox_fallsBackToCoarserLevel() {
+        when(coverageRepository.countCoverageCellsInBbox(userId, 22.0, 44.0, 40.0, 52.5, 50, 1_001))
+                .thenReturn(1_001L);
+        when(coverageRepository.countCoverageCellsInBbox(userId, 22.0, 44.0, 40.0, 52.5, 250, 1_001))
+                .thenReturn(1_001L);
+        when(coverageRepository.countCoverageCellsInBbox(userId, 22.0, 44.0, 40.0, 52.5, 1000, 1_001))
+                .thenReturn(640L);
+
+        coverageService.getCoverageCells(userId, 22.0, 44.0, 40.0, 52.5, 50, 1_000);
+
+        verify(coverageRepository).findCoverageCells(userId, 22.0, 44.0, 40.0, 52.5, 1000, 1_000);
+        verify(coverageRepository, never())
+                .countCoverageCellsInBbox(any(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), eq(5000), anyInt());
+    }
+
     @Test
     void transactionBoundaries_areOnBatchProcessorNotCoverageLoop() throws NoSuchMethodException {
         Method processUserCoverage = CoverageService.class.getMethod("processUserCoverage", UUID.class);
@@ -167,12 +282,18 @@ class CoverageServiceTest {
                 int.class
         );
         Method resetForRebuild = CoverageBatchProcessor.class.getMethod("resetForRebuild", UUID.class);
+        Method processNextArchivedMonth = CoverageBatchProcessor.class.getMethod(
+                "processNextArchivedMonth",
+                UUID.class,
+                CoverageJvmEngine.ArchiveCursor.class
+        );
 
         assertThat(processUserCoverage.getAnnotation(Transactional.class)).isNull();
         assertThat(rebuildUserCoverage.getAnnotation(Transactional.class)).isNull();
         assertRequiresNew(findProcessingCursor);
         assertRequiresNew(processNextBatch);
         assertRequiresNew(resetForRebuild);
+        assertRequiresNew(processNextArchivedMonth);
     }
 
     private static void assertRequiresNew(Method method) {
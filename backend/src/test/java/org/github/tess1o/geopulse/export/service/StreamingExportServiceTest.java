@@ -13,9 +13,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 /**
@@ -36,6 +39,8 @@ class StreamingExportServiceTest {
         Mockito.when(settingsService.getInteger("export.batch-size")).thenReturn(1000);
         injectField(streamingExportService, "objectMapper", objectMapper);
         injectField(streamingExportService, "settingsService", settingsService);
+        injectField(streamingExportService, "exportExecutor", Executors.newVirtualThreadPerTaskExecutor());
+        injectField(streamingExportService, "pipelineQueueBatches", 2);
     }
 
     private static void injectField(Object target, String fieldName, Object value) {
@@ -345,6 +350,88 @@ class StreamingExportServiceTest {
         assertTrue(job.getProgressMessage().contains("/ 100 records"));
         log.info("Final progress message: {}", job.getProgressMessage());
     }
+    @Test
+    void testPipelined_WritesAllBatchesInOrderOffTheReaderThread() throws Exception {
+        // Arrange
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ExportJob job = new ExportJob();
+        Thread readerThread = Thread.currentThread();
+        List<Thread> writerThreads = new ArrayList<>();
+
+        // Act
+        int totalWritten = streamingExportService.<TestEntity>streamJsonObjectWithArray(
+            baos,
+            null,
+            "items",
+            streamingExportService.pipelined(batchConsumer -> {
+                for (int batch = 0; batch < 10; batch++) {
+                    List<TestEntity> entities = new ArrayList<>();
+                    for (int i = 0; i < 50; i++) {
+                        entities.add(new TestEntity(batch * 50 + i, "Item"));
+                    }
+                    batchConsumer.accept(entities);
+                }
+            }, job),
+            (gen, entity, mapper) -> {
+                writerThreads.add(Thread.currentThread());
+                gen.writeNumber(entity.id);
+            },
+            job,
+            500,
+            0,
+            100,
+            "Exporting:"
+        );
+
+        // Assert
+        assertEquals(500, totalWritten);
+        assertEquals(500, job.getExportedRecords());
+        int[] ids = objectMapper.treeToValue(objectMapper.readTree(baos.toByteArray()).get("items"), int[].class);
+        assertEquals(500, ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(i, ids[i]);
+        }
+        assertTrue(writerThreads.stream().noneMatch(thread -> thread == readerThread));
+    }
+
+    @Test
+    void testPipelined_WriterFailureStopsReaderAndKeepsExceptionType() {
+        // Arrange
+        int[] producedBatches = {0};
+        StreamingExportService.BatchProducer<TestEntity> pipelined = streamingExportService.pipelined(batchConsumer -> {
+            for (int batch = 0; batch < 1000; batch++) {
+                producedBatches[0]++;
+                batchConsumer.accept(List.of(new TestEntity(batch, "Item")));
+            }
+        }, null);
+
+        // Act
+        UncheckedIOException thrown = assertThrows(UncheckedIOException.class, () -> pipelined.produce(batch -> {
+            throw new UncheckedIOException(new IOException("disk full"));
+        }));
+
+        // Assert
+        assertEquals("disk full", thrown.getCause().getMessage());
+        assertTrue(producedBatches[0] < 1000, "reader should stop once the writer failed");
+    }
+
+    @Test
+    void testPipelined_ReaderFailureIsRethrown() {
+        // Arrange
+        List<Integer> written = new ArrayList<>();
+        StreamingExportService.BatchProducer<TestEntity> pipelined = streamingExportService.pipelined(batchConsumer -> {
+            batchConsumer.accept(List.of(new TestEntity(1, "Item")));
+            throw new IllegalStateException("query failed");
+        }, null);
+
+        // Act
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+            () -> pipelined.produce(batch -> batch.forEach(entity -> written.add(entity.id))));
+
+        // Assert
+        assertEquals("query failed", thrown.getMessage());
+    }
+
     // ========================================
     // Test DTOs
     // ========================================
@@ -0,0 +1,196 @@
+package org.github.tess1o.geopulse.export.service;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.github.tess1o.geopulse.auth.model.AuthResponse;
+import org.github.tess1o.geopulse.auth.service.AuthenticationService;
+import org.github.tess1o.geopulse.db.PostgisTestResource;
+import org.github.tess1o.geopulse.export.model.ExportDateRange;
+import org.github.tess1o.geopulse.export.model.ExportJob;
+import org.github.tess1o.geopulse.export.model.StreamingExportFormat;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.testsupport.ExportTestFixtures;
+import org.github.tess1o.geopulse.testsupport.SerializedDatabaseTest;
+import org.github.tess1o.geopulse.testsupport.TestIds;
+import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.github.tess1o.geopulse.user.repository.UserRepository;
+import org.github.tess1o.geopulse.user.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Direct exports hold one of the streaming slots from request arrival until the response ends; every way out
+ * of the request has to give it back.
+ */
+@QuarkusTest
+@QuarkusTestResource(value = PostgisTestResource.class)
+@SerializedDatabaseTest
+class StreamingExportSlotIntegrationTest {
+
+    private static final Instant START = Instant.parse("2025-03-01T00:00:00Z");
+    private static final Instant END = Instant.parse("2025-03-02T00:00:00Z");
+
+    @Inject
+    ExportJobManager exportJobManager;
+
+    @Inject
+    AuthenticationService authenticationService;
+
+    @Inject
+    UserService userService;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    GpsPointRepository gpsPointRepository;
+
+    @ConfigProperty(name = "geopulse.export.streaming.max-concurrent", defaultValue = "4")
+    int maxConcurrent;
+
+    private UserEntity user;
+    private String accessToken;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        String email = TestIds.uniqueEmail("streaming-export");
+        userService.registerUser(email, "password123", "Streaming Export Tester", "UTC");
+        AuthResponse authResponse = authenticationService.authenticate(email, "password123");
+        accessToken = authResponse.getAccessToken();
+        user = userRepository.findByEmail(email).orElseThrow();
+        gpsPointRepository.persist(ExportTestFixtures.gpsPoint(user, START.plus(1, ChronoUnit.HOURS), 50.4501, 30.5234));
+        gpsPointRepository.persist(ExportTestFixtures.gpsPoint(user, START.plus(2, ChronoUnit.HOURS), 50.4511, 30.5244));
+    }
+
+    @AfterEach
+    @Transactional
+    void tearDown() {
+        if (user != null) {
+            gpsPointRepository.delete("user.id", user.getId());
+        }
+    }
+
+    @Test
+    void streamExport_writesPointsAndReleasesSlot() throws Exception {
+        given()
+                .header("Authorization", "Bearer " + accessToken)
+                .header("Accept-Encoding", "identity")
+                .queryParam("startDate", START.toString())
+                .queryParam("endDate", END.toString())
+                .when()
+                .get("/api/export/stream/csv")
+                .then()
+                .statusCode(200)
+                .body(containsString("50.4501"))
+                .body(containsString("30.5244"));
+
+        awaitAllSlotsFree();
+    }
+
+    @Test
+    void streamExport_releasesSlotWhenBodyIsNeverWritten() throws Exception {
+        for (int i = 0; i < maxConcurrent * 2; i++) {
+            given()
+                    .header("Authorization", "Bearer " + accessToken)
+                    .queryParam("startDate", START.toString())
+                    .queryParam("endDate", END.toString())
+                    .when()
+                    .head("/api/export/stream/gpx")
+                    .then()
+                    .statusCode(200);
+        }
+        awaitAllSlotsFree();
+
+        given()
+                .header("Authorization", "Bearer " + accessToken)
+                .queryParam("startDate", START.toString())
+                .queryParam("endDate", END.toString())
+                .when()
+                .get("/api/export/stream/geojson")
+                .then()
+                .statusCode(200);
+    }
+
+    @Test
+    void runStreamingExport_releasesSlotWhenWritingFails() {
+        ExportJob job = exportJobManager.reserveStreamingExport(user.getId(), StreamingExportFormat.CSV,
+                dateRange(), null);
+        assertEquals(maxConcurrent - 1, exportJobManager.availableStreamingExportSlots());
+
+        assertThrows(Exception.class, () -> exportJobManager.runStreamingExport(job, StreamingExportFormat.CSV,
+                new FailingOutputStream()));
+
+        assertEquals(maxConcurrent, exportJobManager.availableStreamingExportSlots());
+    }
+
+    @Test
+    void releaseStreamingExport_releasesEachReservationOnce() {
+        ExportJob job = exportJobManager.reserveStreamingExport(user.getId(), StreamingExportFormat.GPX,
+                dateRange(), null);
+
+        exportJobManager.releaseStreamingExport(job);
+        exportJobManager.releaseStreamingExport(job);
+
+        assertEquals(maxConcurrent, exportJobManager.availableStreamingExportSlots());
+    }
+
+    @Test
+    void reserveStreamingExport_rejectsWhenAllSlotsAreTaken() {
+        ExportJob[] jobs = new ExportJob[maxConcurrent];
+        for (int i = 0; i < maxConcurrent; i++) {
+            jobs[i] = exportJobManager.reserveStreamingExport(user.getId(), StreamingExportFormat.CSV, dateRange(), null);
+        }
+        try {
+            assertThrows(IllegalStateException.class, () ->
+                    exportJobManager.reserveStreamingExport(user.getId(), StreamingExportFormat.CSV, dateRange(), null));
+        } finally {
+            for (ExportJob job : jobs) {
+                exportJobManager.releaseStreamingExport(job);
+            }
+        }
+        assertEquals(maxConcurrent, exportJobManager.availableStreamingExportSlots());
+    }
+
+    // The slot is released from the response end handler, which can run just after the client has the last byte
+    private void awaitAllSlotsFree() throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (exportJobManager.availableStreamingExportSlots() != maxConcurrent && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(maxConcurrent, exportJobManager.availableStreamingExportSlots());
+    }
+
+    private static ExportDateRange dateRange() {
+        ExportDateRange dateRange = new ExportDateRange();
+        dateRange.setStartDate(START);
+        dateRange.setEndDate(END);
+        return dateRange;
+    }
+
+    private static final class FailingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            throw new IOException("Client went away");
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            throw new IOException("Client went away");
+        }
+    }
+}
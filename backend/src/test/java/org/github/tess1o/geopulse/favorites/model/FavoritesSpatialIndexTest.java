@@ -0,0 +1,139 @@
+package org.github.tess1o.geopulse.favorites.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class FavoritesSpatialIndexTest {
+
+    @Test
+    void findContainingArea_ShouldMatchLinearScanOnRandomAreas() {
+        Random random = new Random(7);
+        List<FavoriteAreaDto> areas = new ArrayList<>();
+        FavoritesSpatialIndex.Builder builder = FavoritesSpatialIndex.builder(50, 15);
+        for (int i = 0; i < 300; i++) {
+            double lat = 50.0 + random.nextDouble() * 0.5;
+            double lon = 30.0 + random.nextDouble() * 0.5;
+            double size = random.nextDouble() * (i % 20 == 0 ? 2.0 : 0.01);
+            FavoriteAreaDto area = area(i, lat, lon, lat + size, lon + size);
+            areas.add(area);
+            builder.addArea(area);
+        }
+        FavoritesSpatialIndex index = builder.build();
+
+        for (int q = 0; q < 5_000; q++) {
+            double lat = 49.9 + random.nextDouble() * 0.8;
+            double lon = 29.9 + random.nextDouble() * 0.8;
+
+            FavoriteAreaDto expected = null;
+            for (FavoriteAreaDto area : areas) {
+                if (lat >= area.getSouthWestLat() && lat <= area.getNorthEastLat()
+                        && lon >= area.getSouthWestLon() && lon <= area.getNorthEastLon()) {
+                    expected = area;
+                    break;
+                }
+            }
+
+            assertThat(index.findContainingArea(lat, lon)).isSameAs(expected);
+        }
+    }
+
+    @Test
+    void findBestMatch_ShouldPreferCoveringAreaOverNearbyPoint() {
+        FavoriteAreaDto home = area(1, 50.0, 30.0, 50.001, 30.001);
+        FavoritePointDto cafe = point(2, 50.0005, 30.0005);
+        FavoritesSpatialIndex index = FavoritesSpatialIndex.builder(50, 15)
+                .addPoint(cafe)
+                .addArea(home)
+                .build();
+
+        FavoriteLocationsDto match = index.findBestMatch(50.0005, 30.0005,
+                FavoritesSpatialIndex.MatchOrder.COVERING_AREAS_FIRST);
+
+        assertThat(match.getAreas()).containsExactly(home);
+        assertThat(match.getPoints()).isEmpty();
+    }
+
+    @Test
+    void findBestMatch_ShouldMatchPointWithinRadiusOnly() {
+        FavoritePointDto cafe = point(2, 50.0, 30.0);
+        FavoritesSpatialIndex index = FavoritesSpatialIndex.builder(50, 15)
+                .addPoint(cafe)
+                .build();
+
+        // ~33 m north
+        assertThat(index.findBestMatch(50.0003, 30.0, FavoritesSpatialIndex.MatchOrder.COVERING_AREAS_FIRST).getPoints())
+                .containsExactly(cafe);
+        // ~111 m north
+        assertThat(index.findBestMatch(50.001, 30.0, FavoritesSpatialIndex.MatchOrder.COVERING_AREAS_FIRST))
+                .isNull();
+    }
+
+    @Test
+    void findBestMatch_ShouldRespectAreaBoundaryTolerance() {
+        FavoriteAreaDto park = area(1, 50.0, 30.0, 50.001, 30.001);
+        FavoritesSpatialIndex index = FavoritesSpatialIndex.builder(50, 15)
+                .addArea(park)
+                .build();
+
+        // ~11 m south of the boundary
+        assertThat(index.findBestMatch(49.9999, 30.0005, FavoritesSpatialIndex.MatchOrder.AREAS_BEFORE_POINTS))
+                .isNotNull();
+        // ~33 m south of the boundary
+        assertThat(index.findBestMatch(49.9997, 30.0005, FavoritesSpatialIndex.MatchOrder.AREAS_BEFORE_POINTS))
+                .isNull();
+    }
+
+    @Test
+    void findBestMatch_ShouldOrderNearbyAreaAgainstPointByMatchOrder() {
+        FavoriteAreaDto park = area(1, 50.0, 30.0, 50.001, 30.001);
+        FavoritePointDto kiosk = point(2, 49.99985, 30.0005);
+        FavoritesSpatialIndex index = FavoritesSpatialIndex.builder(50, 15)
+                .addArea(park)
+                .addPoint(kiosk)
+                .build();
+
+        // Query sits on the kiosk, ~11 m outside the park boundary
+        assertThat(index.findBestMatch(49.9999, 30.0005, FavoritesSpatialIndex.MatchOrder.AREAS_BEFORE_POINTS).getAreas())
+                .containsExactly(park);
+        assertThat(index.findBestMatch(49.99985, 30.0005, FavoritesSpatialIndex.MatchOrder.COVERING_AREAS_FIRST).getPoints())
+                .containsExactly(kiosk);
+    }
+
+    @Test
+    void emptyIndex_ShouldReturnNoMatches() {
+        FavoritesSpatialIndex index = FavoritesSpatialIndex.empty();
+
+        assertThat(index.isEmpty()).isTrue();
+        assertThat(index.findContainingArea(0.0, 0.0)).isNull();
+        assertThat(index.findBestMatch(0.0, 0.0, FavoritesSpatialIndex.MatchOrder.COVERING_AREAS_FIRST)).isNull();
+    }
+
+    private static FavoriteAreaDto area(long id, double swLat, double swLon, double neLat, double neLon) {
+        return FavoriteAreaDto.builder()
+                .id(id)
+                .name("Area " + id)
+                .southWestLat(swLat)
+                .southWestLon(swLon)
+                .northEastLat(neLat)
+                .northEastLon(neLon)
+                .type(FavoriteLocationType.AREA.name())
+                .build();
+    }
+
+    private static FavoritePointDto point(long id, double lat, double lon) {
+        return FavoritePointDto.builder()
+                .id(id)
+                .name("Point " + id)
+                .latitude(lat)
+                .longitude(lon)
+                .type(FavoriteLocationType.POINT.name())
+                .build();
+    }
+}
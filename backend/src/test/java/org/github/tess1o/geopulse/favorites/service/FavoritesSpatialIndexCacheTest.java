@@ -0,0 +1,72 @@
+package org.github.tess1o.geopulse.favorites.service;
+
+import org.github.tess1o.geopulse.favorites.mapper.FavoriteLocationMapper;
+import org.github.tess1o.geopulse.favorites.repository.FavoritesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+class FavoritesSpatialIndexCacheTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private FavoritesRepository repository;
+    private FavoritesSpatialIndexCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(FavoritesRepository.class);
+        cache = new FavoritesSpatialIndexCache(repository, new FavoriteLocationMapper());
+        cache.ttlSeconds = 600;
+        cache.maxUsers = 10;
+    }
+
+    @Test
+    void getIndex_reusesCachedIndex() {
+        when(repository.findByUserId(userId)).thenReturn(List.of());
+
+        cache.getIndex(userId, 100, 15);
+        cache.getIndex(userId, 100, 15);
+
+        verify(repository, times(1)).findByUserId(userId);
+    }
+
+    @Test
+    void rebuild_doesNotCacheIndexReadBeforeAnInvalidation() {
+        // A favorite changes and commits while the first rebuild is still reading the old favorites
+        when(repository.findByUserId(userId)).thenAnswer(invocation -> {
+            cache.invalidate(userId);
+            return List.of();
+        }).thenReturn(List.of());
+
+        cache.getIndex(userId, 100, 15);
+        cache.getIndex(userId, 100, 15);
+        cache.getIndex(userId, 100, 15);
+
+        verify(repository, times(2)).findByUserId(userId);
+    }
+
+    @Test
+    void invalidate_keepsOtherUsersCachedIndexes() {
+        UUID otherUserId = UUID.randomUUID();
+        when(repository.findByUserId(userId)).thenReturn(List.of());
+        when(repository.findByUserId(otherUserId)).thenReturn(List.of());
+
+        cache.getIndex(userId, 100, 15);
+        cache.getIndex(otherUserId, 100, 15);
+        cache.invalidate(otherUserId);
+        cache.getIndex(userId, 100, 15);
+        cache.getIndex(otherUserId, 100, 15);
+
+        verify(repository, times(1)).findByUserId(userId);
+        verify(repository, times(2)).findByUserId(otherUserId);
+    }
+}
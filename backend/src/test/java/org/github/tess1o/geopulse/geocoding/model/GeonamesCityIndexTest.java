@@ -0,0 +1,108 @@
+package org.github.tess1o.geopulse.geocoding.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Tag("unit")
+class GeonamesCityIndexTest {
+
+    @Test
+    void findNearest_ShouldMatchBruteForceOnRandomCities() {
+        Random random = new Random(42);
+        int cityCount = 5_000;
+        double[] lats = new double[cityCount];
+        double[] lons = new double[cityCount];
+        GeonamesCityIndex.Builder builder = GeonamesCityIndex.builder();
+        for (int i = 0; i < cityCount; i++) {
+            lats[i] = random.nextDouble() * 180.0 - 90.0;
+            lons[i] = random.nextDouble() * 360.0 - 180.0;
+            builder.add(i, "City " + i, "Country", "CC", lats[i], lons[i], (long) i);
+        }
+        GeonamesCityIndex index = builder.build();
+
+        for (int q = 0; q < 500; q++) {
+            double lat = random.nextDouble() * 180.0 - 90.0;
+            double lon = random.nextDouble() * 360.0 - 180.0;
+
+            int expected = -1;
+            double expectedDistance = Double.MAX_VALUE;
+            for (int i = 0; i < cityCount; i++) {
+                double distance = sphereDistance(lat, lon, lats[i], lons[i]);
+                if (distance < expectedDistance) {
+                    expectedDistance = distance;
+                    expected = i;
+                }
+            }
+
+            GeonamesNormalizedLocation result = index.findNearest(lat, lon, null).orElseThrow();
+            assertThat(result.geonameId()).isEqualTo(expected);
+            assertThat(result.distanceMeters()).isCloseTo(expectedDistance, within(0.5));
+        }
+    }
+
+    @Test
+    void findNearest_ShouldHandleAntimeridian() {
+        GeonamesCityIndex index = GeonamesCityIndex.builder()
+                .add(1L, "West", "Fiji", "FJ", -17.0, 179.9, 100L)
+                .add(2L, "Far", "Fiji", "FJ", -17.0, 170.0, 100L)
+                .build();
+
+        GeonamesNormalizedLocation result = index.findNearest(-17.0, -179.9, null).orElseThrow();
+
+        assertThat(result.geonameId()).isEqualTo(1L);
+        assertThat(result.distanceMeters()).isLessThan(25_000.0);
+    }
+
+    @Test
+    void findNearest_ShouldRespectMaxDistance() {
+        GeonamesCityIndex index = GeonamesCityIndex.builder()
+                .add(1L, "Kyiv", "Ukraine", "UA", 50.4501, 30.5234, 2_900_000L)
+                .build();
+
+        assertThat(index.findNearest(50.4501, 30.6234, 10_000.0)).isPresent();
+        assertThat(index.findNearest(49.8397, 24.0297, 50_000.0)).isEmpty();
+    }
+
+    @Test
+    void findNearest_ShouldPreferLargerPopulationOnTie() {
+        GeonamesCityIndex index = GeonamesCityIndex.builder()
+                .add(1L, "Small", "Country", "CC", 10.0, 10.0, 500L)
+                .add(2L, "Large", "Country", "CC", 10.0, 10.0, 50_000L)
+                .build();
+
+        assertThat(index.findNearest(10.01, 10.01, null))
+                .map(GeonamesNormalizedLocation::geonameId)
+                .contains(2L);
+    }
+
+    @Test
+    void findNearest_ShouldFallBackToCountryCodeWhenCountryNameMissing() {
+        GeonamesCityIndex index = GeonamesCityIndex.builder()
+                .add(1L, "Vaduz", null, "LI", 47.1410, 9.5209, 5_000L)
+                .build();
+
+        GeonamesNormalizedLocation result = index.findNearest(47.14, 9.52, null).orElseThrow();
+
+        assertThat(result.country()).isEqualTo("LI");
+        assertThat(result.countryCode()).isEqualTo("LI");
+    }
+
+    @Test
+    void findNearest_ShouldReturnEmptyForEmptyIndex() {
+        assertThat(GeonamesCityIndex.builder().build().findNearest(0.0, 0.0, null)).isEmpty();
+    }
+
+    private static double sphereDistance(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * GeonamesCityIndex.SPHERE_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -26,6 +26,9 @@ class GeonamesCountryImportServiceTest {
     @Mock
     GeonamesCountryRepository geonamesCountryRepository;
 
+    @Mock
+    GeonamesCityIndexService geonamesCityIndexService;
+
     private GeonamesCountryImportService service;
 
     @BeforeEach
@@ -33,7 +36,8 @@ class GeonamesCountryImportServiceTest {
         service = new GeonamesCountryImportService(
                 geonamesCountryRepository,
                 new GeonamesCountryLineParser(),
-                null
+                null,
+                geonamesCityIndexService
         );
         service.batchSize = 50;
         service.minimumRowThreshold = 1;
@@ -0,0 +1,32 @@
+package org.github.tess1o.geopulse.geofencing.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class AppriseHttpClientTest {
+
+    private final AppriseHttpClient client = new AppriseHttpClient(new ObjectMapper());
+
+    @Test
+    void reusesHttpClientPerTimeoutAndTlsProfile() throws Exception {
+        HttpClient first = client.clientFor(5000, true);
+
+        assertThat(client.clientFor(5000, true)).isSameAs(first);
+        assertThat(client.clientFor(5000, false)).isNotSameAs(first);
+        assertThat(client.clientFor(10000, true)).isNotSameAs(first);
+    }
+
+    @Test
+    void notifyWithoutDestinationsFailsWithoutSending() {
+        AppriseClientResult result = client.notify("http://localhost:1", null, 1000, true, " ", "title", "body");
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getMessage()).isEqualTo("No destination URLs provided");
+    }
+}
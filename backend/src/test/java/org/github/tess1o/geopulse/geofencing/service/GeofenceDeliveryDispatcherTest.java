@@ -0,0 +1,159 @@
+package org.github.tess1o.geopulse.geofencing.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class GeofenceDeliveryDispatcherTest {
+
+    private static final long TEMPLATE_A = 1L;
+    private static final long TEMPLATE_B = 2L;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private GeofenceDeliveryDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    void retriesFailedAttemptAfterRequestedDelay() throws Exception {
+        List<Long> attemptTimes = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        dispatcher = new GeofenceDeliveryDispatcher(executor, 4, 2, (eventId, templateId) -> {
+            attemptTimes.add(System.nanoTime());
+            done.countDown();
+            return attemptTimes.size() < 3 ? Duration.ofMillis(50) : null;
+        });
+
+        dispatcher.enqueue(10L, TEMPLATE_A);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(attemptTimes).hasSize(3);
+        for (int i = 1; i < attemptTimes.size(); i++) {
+            assertThat(attemptTimes.get(i) - attemptTimes.get(i - 1)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    @Test
+    void ignoresEventWhileItWaitsForRetryAndAcceptsItAgainWhenDone() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch retried = new CountDownLatch(2);
+        CountDownLatch requeued = new CountDownLatch(3);
+        dispatcher = new GeofenceDeliveryDispatcher(executor, 4, 2, (eventId, templateId) -> {
+            int attempt = attempts.incrementAndGet();
+            retried.countDown();
+            requeued.countDown();
+            return attempt == 1 ? Duration.ofMillis(200) : null;
+        });
+
+        dispatcher.enqueue(10L, TEMPLATE_A);
+        waitForAttempts(attempts, 1);
+        // The recovery sweep finds the event still pending while its retry is scheduled
+        dispatcher.enqueue(10L, TEMPLATE_A);
+        dispatcher.enqueue(10L, TEMPLATE_A);
+
+        assertThat(retried.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        assertThat(attempts).hasValue(2);
+
+        dispatcher.enqueue(10L, TEMPLATE_A);
+        assertThat(requeued.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void startsEventsOfOneTargetInQueueOrder() throws Exception {
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch allDone = new CountDownLatch(6);
+        dispatcher = new GeofenceDeliveryDispatcher(executor, 4, 1, (eventId, templateId) -> {
+            if (eventId == 1L) {
+                firstStarted.countDown();
+                releaseFirst.await();
+            }
+            delivered.add(eventId);
+            allDone.countDown();
+            return null;
+        });
+
+        dispatcher.enqueue(1L, TEMPLATE_A);
+        assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        for (long eventId = 2; eventId <= 5; eventId++) {
+            dispatcher.enqueue(eventId, TEMPLATE_A);
+        }
+        dispatcher.enqueue(100L, TEMPLATE_B);
+
+        // Another target is not held up by the busy one
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!delivered.contains(100L) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(delivered).containsExactly(100L);
+
+        releaseFirst.countDown();
+        assertThat(allDone.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(delivered).containsExactly(100L, 1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void retriedEventGoesBehindEventsQueuedMeanwhile() throws Exception {
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        CountDownLatch allDone = new CountDownLatch(4);
+        AtomicInteger firstEventAttempts = new AtomicInteger();
+        dispatcher = new GeofenceDeliveryDispatcher(executor, 4, 1, (eventId, templateId) -> {
+            delivered.add(eventId);
+            allDone.countDown();
+            if (eventId == 1L && firstEventAttempts.incrementAndGet() == 1) {
+                return Duration.ofMillis(300);
+            }
+            return null;
+        });
+
+        dispatcher.enqueue(1L, TEMPLATE_A);
+        waitForAttempts(firstEventAttempts, 1);
+        dispatcher.enqueue(2L, TEMPLATE_A);
+        dispatcher.enqueue(3L, TEMPLATE_A);
+
+        assertThat(allDone.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(delivered).containsExactly(1L, 2L, 3L, 1L);
+    }
+
+    @Test
+    void dropsEventsWhenExecutorIsShutDown() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        dispatcher = new GeofenceDeliveryDispatcher(executor, 4, 2, (eventId, templateId) -> {
+            attempts.incrementAndGet();
+            return null;
+        });
+        executor.shutdown();
+
+        dispatcher.enqueue(10L, TEMPLATE_A);
+
+        assertThat(attempts).hasValue(0);
+    }
+
+    private static void waitForAttempts(AtomicInteger attempts, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (attempts.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(attempts).hasValueGreaterThanOrEqualTo(expected);
+    }
+}
@@ -1,5 +1,6 @@
 package org.github.tess1o.geopulse.geofencing.service;
 
+import jakarta.enterprise.event.Event;
 import org.github.tess1o.geopulse.friends.repository.FriendshipRepository;
 import org.github.tess1o.geopulse.geofencing.model.entity.GeofenceEventEntity;
 import org.github.tess1o.geopulse.geofencing.model.entity.GeofenceEventType;
@@ -10,7 +11,9 @@ import org.github.tess1o.geopulse.geofencing.repository.GeofenceEventRepository;
 import org.github.tess1o.geopulse.geofencing.repository.GeofenceRuleRepository;
 import org.github.tess1o.geopulse.geofencing.repository.GeofenceRuleStateRepository;
 import org.github.tess1o.geopulse.geofencing.repository.NotificationTemplateRepository;
+import org.github.tess1o.geopulse.geofencing.events.GeofenceDeliveryQueuedEvent;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
 import org.github.tess1o.geopulse.notifications.service.GeofenceNotificationProjectionService;
 import org.github.tess1o.geopulse.user.model.UserEntity;
 import org.junit.jupiter.api.BeforeEach;
@@ -56,6 +59,10 @@ class GeofenceEvaluationServiceDateFormatTest {
     GeofenceTemplateRenderer templateRenderer;
     @Mock
     GeofenceNotificationProjectionService notificationProjectionService;
+    @Mock
+    GpsPointRepository gpsPointRepository;
+    @Mock
+    Event<GeofenceDeliveryQueuedEvent> deliveryQueuedEvent;
 
     private GeofenceEvaluationService service;
 
@@ -69,7 +76,9 @@ class GeofenceEvaluationServiceDateFormatTest {
                 friendshipRepository,
                 permissionRepository,
                 templateRenderer,
-                notificationProjectionService
+                notificationProjectionService,
+                gpsPointRepository,
+                deliveryQueuedEvent
         );
     }
 
@@ -0,0 +1,228 @@
+package org.github.tess1o.geopulse.gps.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.github.tess1o.geopulse.db.PostgisTestResource;
+import org.github.tess1o.geopulse.gps.model.GpsPointPartitionStats;
+import org.github.tess1o.geopulse.gps.service.GpsPointPartitionManager;
+import org.github.tess1o.geopulse.streaming.model.domain.GPSPoint;
+import org.github.tess1o.geopulse.testsupport.SerializedDatabaseTest;
+import org.github.tess1o.geopulse.testsupport.TestIds;
+import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.github.tess1o.geopulse.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads several years of points for one user and checks that time-bounded reads only touch the partitions of the
+ * years they ask for. Planning and execution times of each read are logged; raise the dataset with
+ * -Dgeopulse.gps.partition.test.points-per-year=1000000 to measure at production scale.
+ */
+@QuarkusTest
+@QuarkusTestResource(value = PostgisTestResource.class)
+@SerializedDatabaseTest
+@Slf4j
+class GpsPointPartitioningIntegrationTest {
+
+    // Years no other test writes, so their partitions can always be created
+    private static final int FIRST_YEAR = 2011;
+    private static final int YEARS = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Inject
+    GpsPointPartitionManager partitionManager;
+
+    @Inject
+    GpsPointRepository gpsPointRepository;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = QuarkusTransaction.requiringNew().call(this::createUser);
+        partitionManager.ensurePartitionsFor(List.of(
+                Instant.parse(FIRST_YEAR + "-06-01T00:00:00Z"),
+                Instant.parse((FIRST_YEAR + 1) + "-06-01T00:00:00Z"),
+                Instant.parse((FIRST_YEAR + 2) + "-06-01T00:00:00Z")));
+        int pointsPerYear = Integer.getInteger("geopulse.gps.partition.test.points-per-year", 20_000);
+        QuarkusTransaction.requiringNew().run(() -> insertTrack(pointsPerYear * YEARS));
+        QuarkusTransaction.requiringNew().run(() ->
+                entityManager.createNativeQuery("ANALYZE gps_points").executeUpdate());
+    }
+
+    @AfterEach
+    void tearDown() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            entityManager.createNativeQuery("DELETE FROM gps_points WHERE user_id = :userId")
+                    .setParameter("userId", userId)
+                    .executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM users WHERE id = :userId")
+                    .setParameter("userId", userId)
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    void historicalPointsAreStoredInTheirYearPartitions() {
+        List<GpsPointPartitionStats> stats = partitionManager.getPartitionStats();
+        assertThat(stats)
+                .extracting(GpsPointPartitionStats::partitionName)
+                .contains("gps_points_y2011", "gps_points_y2012", "gps_points_y2013",
+                        "gps_point_environment_y2011", "gps_points_default");
+
+        long pointsInDefault = QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM gps_points_default WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .getSingleResult()).longValue());
+        assertThat(pointsInDefault).isZero();
+    }
+
+    @Test
+    void timeBoundedReadsOnlyScanTheRequestedYear() {
+        String oneDay = """
+                SELECT gp.timestamp, gp.coordinates
+                FROM gps_points gp
+                WHERE gp.user_id = '%s'
+                  AND gp.timestamp >= TIMESTAMPTZ '2012-05-10 00:00:00+00'
+                  AND gp.timestamp < TIMESTAMPTZ '2012-05-11 00:00:00+00'
+                ORDER BY gp.timestamp
+                """.formatted(userId);
+        assertThat(explain("one_day", oneDay)).containsExactly("gps_points_y2012");
+
+        String yearBoundary = """
+                SELECT COUNT(*)
+                FROM gps_points gp
+                WHERE gp.user_id = '%s'
+                  AND gp.timestamp >= TIMESTAMPTZ '2011-12-31 00:00:00+00'
+                  AND gp.timestamp < TIMESTAMPTZ '2012-01-02 00:00:00+00'
+                """.formatted(userId);
+        assertThat(explain("year_boundary", yearBoundary)).containsExactly("gps_points_y2011", "gps_points_y2012");
+
+        String fullHistory = """
+                SELECT COUNT(*)
+                FROM gps_points gp
+                WHERE gp.user_id = '%s'
+                """.formatted(userId);
+        assertThat(explain("full_history", fullHistory)).contains("gps_points_y2011", "gps_points_y2013");
+    }
+
+    @Test
+    void keysetChunksReadAcrossYearPartitionsInOrder() {
+        Instant from = Instant.parse("2012-12-31T00:00:00Z");
+        List<GPSPoint> firstChunk = QuarkusTransaction.requiringNew().call(() ->
+                gpsPointRepository.findEssentialDataChunk(userId, from, null, null, 500));
+        assertThat(firstChunk).isNotEmpty();
+        assertThat(firstChunk.get(0).getTimestamp()).isAfterOrEqualTo(from);
+
+        GPSPoint last = firstChunk.get(firstChunk.size() - 1);
+        List<GPSPoint> nextChunk = QuarkusTransaction.requiringNew().call(() ->
+                gpsPointRepository.findEssentialDataChunk(userId, from, last.getTimestamp(), last.getId(), 500));
+        assertThat(nextChunk).isNotEmpty();
+        assertThat(nextChunk.get(0).getTimestamp()).isAfter(last.getTimestamp());
+    }
+
+    @Test
+    void deletingPointsRemovesTheirEnvironmentRows() {
+        QuarkusTransaction.requiringNew().run(() -> entityManager.createNativeQuery("""
+                        INSERT INTO gps_point_environment (gps_point_id, gps_point_timestamp, environment_dataset_version,
+                                                           on_water, water_source)
+                        SELECT gp.id, gp.timestamp, 'test', false, NULL
+                        FROM gps_points gp
+                        WHERE gp.user_id = :userId
+                          AND gp.timestamp < TIMESTAMPTZ '2011-02-01 00:00:00+00'
+                        """)
+                .setParameter("userId", userId)
+                .executeUpdate());
+
+        QuarkusTransaction.requiringNew().run(() -> entityManager.createNativeQuery(
+                        "DELETE FROM gps_points WHERE user_id = :userId AND timestamp < TIMESTAMPTZ '2011-02-01 00:00:00+00'")
+                .setParameter("userId", userId)
+                .executeUpdate());
+
+        long remaining = QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM gps_point_environment WHERE environment_dataset_version = 'test'")
+                .getSingleResult()).longValue());
+        assertThat(remaining).isZero();
+    }
+
+    // Partitions the plan reads, in order; logs planning and execution time of the statement
+    private Set<String> explain(String name, String sql) {
+        String plan = QuarkusTransaction.requiringNew().call(() -> entityManager
+                .createNativeQuery("EXPLAIN (ANALYZE, FORMAT JSON) " + sql)
+                .getSingleResult()
+                .toString());
+        try {
+            JsonNode root = objectMapper.readTree(plan).get(0);
+            Set<String> relations = new TreeSet<>();
+            collectRelations(root.get("Plan"), relations);
+            log.info("Partitioned read {}: planning={} ms, execution={} ms, partitions={}",
+                    name, root.get("Planning Time").asDouble(), root.get("Execution Time").asDouble(), relations);
+            return relations;
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable plan: " + plan, e);
+        }
+    }
+
+    private static void collectRelations(JsonNode node, Set<String> relations) {
+        if (node == null) {
+            return;
+        }
+        if (node.has("Relation Name")) {
+            relations.add(node.get("Relation Name").asText());
+        }
+        JsonNode children = node.get("Plans");
+        if (children != null) {
+            children.forEach(child -> collectRelations(child, relations));
+        }
+    }
+
+    private UUID createUser() {
+        UserEntity user = new UserEntity();
+        user.setEmail(TestIds.uniqueEmail("gps-partitions"));
+        user.setFullName("gps-partitions");
+        user.setPasswordHash("test");
+        user.setActive(true);
+        userRepository.persist(user);
+        userRepository.flush();
+        return user.getId();
+    }
+
+    // Evenly spaced points over the test years along a slowly moving track
+    private void insertTrack(int points) {
+        entityManager.createNativeQuery("""
+                        INSERT INTO gps_points (user_id, coordinates, timestamp, accuracy, source_type, created_at)
+                        SELECT :userId,
+                               ST_SetSRID(ST_MakePoint(30.5 + (i % 1000) * 0.0001, 50.4 + (i % 777) * 0.0001), 4326),
+                               TIMESTAMPTZ '2011-01-01 00:00:00+00'
+                                   + (i * ((:years * 365 * 86400) / :points)) * INTERVAL '1 second',
+                               10.0, 'OWNTRACKS', NOW()
+                        FROM generate_series(0, :points - 1) AS i
+                        """)
+                .setParameter("userId", userId)
+                .setParameter("years", YEARS)
+                .setParameter("points", points)
+                .executeUpdate();
+    }
+}
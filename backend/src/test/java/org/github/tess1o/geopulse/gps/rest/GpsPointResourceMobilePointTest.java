@@ -1,8 +1,10 @@
 package org.github.tess1o.geopulse.gps.rest;
 
+import jakarta.enterprise.event.Event;
 import jakarta.ws.rs.core.Response;
 import org.github.tess1o.geopulse.auth.service.CurrentUserService;
 import org.github.tess1o.geopulse.coverage.model.CoverageStatus;
+import org.github.tess1o.geopulse.coverage.repository.CoverageRepository;
 import org.github.tess1o.geopulse.coverage.service.CoverageProcessingService;
 import org.github.tess1o.geopulse.coverage.service.CoverageService;
 import org.github.tess1o.geopulse.geofencing.service.GeofenceEvaluationService;
@@ -14,14 +16,18 @@ import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
 import org.github.tess1o.geopulse.gps.model.GpsPointsRetentionRequest;
 import org.github.tess1o.geopulse.gps.model.BulkDeleteGpsPointsDto;
 import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.gps.service.GpsPointBatchIngestService;
 import org.github.tess1o.geopulse.gps.service.GpsPointService;
 import org.github.tess1o.geopulse.gps.service.GpsPointDuplicateDetectionService;
 import org.github.tess1o.geopulse.gps.service.GpsTelemetryRenderingService;
+import org.github.tess1o.geopulse.gps.service.RecentGpsPointWindow;
+import org.github.tess1o.geopulse.gps.service.archive.GpsPointArchiveService;
 import org.github.tess1o.geopulse.gps.service.filter.GpsDataFilteringService;
 import org.github.tess1o.geopulse.gps.service.filter.GpsFilterResult;
 import org.github.tess1o.geopulse.gps.service.simplification.PathSimplificationService;
 import org.github.tess1o.geopulse.gpssource.model.GpsSourceConfigEntity;
 import org.github.tess1o.geopulse.gpssource.service.GpsSourceService;
+import org.github.tess1o.geopulse.livelocation.service.LiveLocationHub;
 import org.github.tess1o.geopulse.shared.api.ApiResponse;
 import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
 import org.github.tess1o.geopulse.streaming.service.AsyncTimelineGenerationService;
@@ -175,7 +181,13 @@ class GpsPointResourceMobilePointTest {
                 telemetryService,
                 geofenceService,
                 timelineConfigurationProvider,
-                gpsPointEnvironmentService
+                gpsPointEnvironmentService,
+                mock(GpsPointArchiveService.class),
+                mock(GpsPointBatchIngestService.class),
+                mock(LiveLocationHub.class),
+                mock(Event.class),
+                mock(CoverageRepository.class),
+                mock(RecentGpsPointWindow.class)
         );
 
         UUID userId = UUID.randomUUID();
@@ -330,7 +342,13 @@ class GpsPointResourceMobilePointTest {
                 telemetryService,
                 geofenceService,
                 timelineConfigurationProvider,
-                gpsPointEnvironmentService
+                gpsPointEnvironmentService,
+                mock(GpsPointArchiveService.class),
+                mock(GpsPointBatchIngestService.class),
+                mock(LiveLocationHub.class),
+                mock(Event.class),
+                mock(CoverageRepository.class),
+                mock(RecentGpsPointWindow.class)
         );
 
         UUID userId = UUID.randomUUID();
@@ -396,7 +414,13 @@ class GpsPointResourceMobilePointTest {
                 telemetryService,
                 geofenceService,
                 timelineConfigurationProvider,
-                gpsPointEnvironmentService
+                gpsPointEnvironmentService,
+                mock(GpsPointArchiveService.class),
+                mock(GpsPointBatchIngestService.class),
+                mock(LiveLocationHub.class),
+                mock(Event.class),
+                mock(CoverageRepository.class),
+                mock(RecentGpsPointWindow.class)
         );
 
         UUID userId = UUID.randomUUID();
@@ -461,7 +485,13 @@ class GpsPointResourceMobilePointTest {
                 telemetryService,
                 geofenceService,
                 timelineConfigurationProvider,
-                gpsPointEnvironmentService
+                gpsPointEnvironmentService,
+                mock(GpsPointArchiveService.class),
+                mock(GpsPointBatchIngestService.class),
+                mock(LiveLocationHub.class),
+                mock(Event.class),
+                mock(CoverageRepository.class),
+                mock(RecentGpsPointWindow.class)
         );
 
         UUID userId = UUID.randomUUID();
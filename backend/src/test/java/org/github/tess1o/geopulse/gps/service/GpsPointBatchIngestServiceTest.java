@@ -0,0 +1,138 @@
+package org.github.tess1o.geopulse.gps.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.github.tess1o.geopulse.geofencing.service.GeofenceEvaluationService;
+import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.gps.model.GpsPointIngestKey;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.gps.service.filter.GpsDataFilteringService;
+import org.github.tess1o.geopulse.gps.service.filter.GpsFilterResult;
+import org.github.tess1o.geopulse.gpssource.model.GpsSourceConfigEntity;
+import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
+import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+class GpsPointBatchIngestServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UserEntity user = new UserEntity();
+
+    private GpsPointRepository repository;
+    private GpsDataFilteringService filteringService;
+    private GeofenceEvaluationService geofenceService;
+    private EntityManager entityManager;
+    private Query insertQuery;
+    private GpsPointBatchIngestService service;
+
+    @BeforeEach
+    void setUp() {
+        user.setId(userId);
+        repository = mock(GpsPointRepository.class);
+        filteringService = mock(GpsDataFilteringService.class);
+        geofenceService = mock(GeofenceEvaluationService.class);
+        entityManager = mock(EntityManager.class);
+        insertQuery = mock(Query.class);
+
+        when(filteringService.filter(any(GpsPointEntity.class), any())).thenReturn(GpsFilterResult.accepted());
+        when(entityManager.createNativeQuery(anyString())).thenReturn(insertQuery);
+        when(insertQuery.setParameter(anyInt(), any())).thenReturn(insertQuery);
+
+        service = new GpsPointBatchIngestService(repository, filteringService, geofenceService, entityManager, new ObjectMapper());
+        service.insertChunkSize = 500;
+    }
+
+    @Test
+    void ingest_dedupsAgainstExistingAndEarlierBatchPointsWithOneLookup() {
+        Instant existingAt = Instant.parse("2026-05-15T10:01:00Z");
+        when(repository.findIngestKeysInWindow(eq(userId), any(), any())).thenReturn(List.of(
+                new GpsPointIngestKey(existingAt, 50.0, 30.0, GpsSourceType.MOBILE_APP)));
+
+        GpsPointEntity nearExisting = point("2026-05-15T10:00:00Z", 50.00001, 30.00001);
+        GpsPointEntity fresh = point("2026-05-15T10:30:00Z", 51.0, 31.0);
+        GpsPointEntity nearFresh = point("2026-05-15T10:31:00Z", 51.00002, 31.00002);
+        when(insertQuery.getResultList()).thenReturn(rows(new Object[]{42L, fresh.getTimestamp(), 51.0, 31.0}));
+
+        List<GpsPointEntity> saved = service.ingest(userId, List.of(nearFresh, fresh, nearExisting), config(true), 2);
+
+        assertThat(saved).containsExactly(fresh);
+        assertThat(fresh.getId()).isEqualTo(42L);
+        verify(repository).findIngestKeysInWindow(userId,
+                Instant.parse("2026-05-15T09:58:00Z"), Instant.parse("2026-05-15T10:33:00Z"));
+        verify(geofenceService).handlePersistedPoints(userId, List.of(42L));
+    }
+
+    @Test
+    void ingest_withoutDuplicateDetectionSkipsOnlySameTimestampSameSource() {
+        Instant sharedAt = Instant.parse("2026-05-15T12:00:00Z");
+        when(repository.findIngestKeysInWindow(eq(userId), any(), any())).thenReturn(List.of(
+                new GpsPointIngestKey(sharedAt, 10.0, 10.0, GpsSourceType.MOBILE_APP)));
+
+        GpsPointEntity sameTimestamp = point("2026-05-15T12:00:00Z", 20.0, 20.0);
+        GpsPointEntity sameLocationLater = point("2026-05-15T12:00:05Z", 10.0, 10.0);
+        when(insertQuery.getResultList()).thenReturn(rows(new Object[]{7L, sameLocationLater.getTimestamp(), 10.0, 10.0}));
+
+        List<GpsPointEntity> saved = service.ingest(userId, List.of(sameTimestamp, sameLocationLater), config(false), 2);
+
+        assertThat(saved).containsExactly(sameLocationLater);
+        verify(repository).findIngestKeysInWindow(userId, sharedAt, sameLocationLater.getTimestamp());
+    }
+
+    @Test
+    void ingest_reportsOnlyRowsReturnedByInsert() {
+        when(repository.findIngestKeysInWindow(eq(userId), any(), any())).thenReturn(List.of());
+        GpsPointEntity first = point("2026-05-15T08:00:00Z", 1.0, 1.0);
+        GpsPointEntity exactCopy = point("2026-05-15T08:00:00Z", 1.0, 1.0);
+        when(filteringService.filter(eq(first), any())).thenReturn(GpsFilterResult.rejectedByAccuracy(500.0, 100));
+
+        List<GpsPointEntity> saved = service.ingest(userId, new ArrayList<>(List.of(first, exactCopy)), config(false), 2);
+
+        // The filtered point is not remembered, so its copy is attempted; ON CONFLICT returned no row for it
+        assertThat(saved).isEmpty();
+        verify(entityManager).createNativeQuery(anyString());
+        verify(geofenceService, never()).handlePersistedPoints(any(), any());
+    }
+
+    private GpsPointEntity point(String timestamp, double lat, double lon) {
+        GpsPointEntity entity = new GpsPointEntity();
+        entity.setUser(user);
+        entity.setTimestamp(Instant.parse(timestamp));
+        entity.setCoordinates(GeoUtils.createPoint(lon, lat));
+        entity.setSourceType(GpsSourceType.MOBILE_APP);
+        entity.setCreatedAt(Instant.now());
+        return entity;
+    }
+
+    private GpsSourceConfigEntity config(boolean duplicateDetection) {
+        return GpsSourceConfigEntity.builder()
+                .sourceType(GpsSourceType.MOBILE_APP)
+                .active(true)
+                .filterInaccurateData(false)
+                .enableDuplicateDetection(duplicateDetection)
+                .build();
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+}
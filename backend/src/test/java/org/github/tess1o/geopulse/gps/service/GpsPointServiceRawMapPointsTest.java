@@ -1,14 +1,18 @@
 package org.github.tess1o.geopulse.gps.service;
 
+import jakarta.enterprise.event.Event;
 import jakarta.persistence.EntityManager;
 import jakarta.ws.rs.ForbiddenException;
+import org.github.tess1o.geopulse.coverage.repository.CoverageRepository;
 import org.github.tess1o.geopulse.geofencing.service.GeofenceEvaluationService;
 import org.github.tess1o.geopulse.gps.mapper.GpsPointMapper;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
 import org.github.tess1o.geopulse.gps.model.RawGpsPointLocationDTO;
 import org.github.tess1o.geopulse.gps.model.RawGpsPointMapResponseDTO;
 import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.gps.service.archive.GpsPointArchiveService;
 import org.github.tess1o.geopulse.gps.service.filter.GpsDataFilteringService;
+import org.github.tess1o.geopulse.livelocation.service.LiveLocationHub;
 import org.github.tess1o.geopulse.shared.geo.GeoUtils;
 import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
 import org.github.tess1o.geopulse.shared.service.LocationPointResolver;
@@ -190,7 +194,13 @@ class GpsPointServiceRawMapPointsTest {
                 mock(GpsTelemetryRenderingService.class),
                 mock(GeofenceEvaluationService.class),
                 configurationProvider,
-                mock(GpsPointEnvironmentService.class)
+                mock(GpsPointEnvironmentService.class),
+                mock(GpsPointArchiveService.class),
+                mock(GpsPointBatchIngestService.class),
+                mock(LiveLocationHub.class),
+                mock(Event.class),
+                mock(CoverageRepository.class),
+                mock(RecentGpsPointWindow.class)
         );
         service.locationPointResolver = resolver;
         return service;
@@ -3,12 +3,15 @@ package org.github.tess1o.geopulse.gps.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.github.tess1o.geopulse.coverage.repository.CoverageRepository;
 import org.github.tess1o.geopulse.geofencing.service.GeofenceEvaluationService;
 import org.github.tess1o.geopulse.gps.mapper.GpsPointMapper;
 import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
 import org.github.tess1o.geopulse.gps.model.GpsStatusDTO;
 import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.gps.service.archive.GpsPointArchiveService;
 import org.github.tess1o.geopulse.gps.service.filter.GpsDataFilteringService;
+import org.github.tess1o.geopulse.livelocation.service.LiveLocationHub;
 import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
 import org.github.tess1o.geopulse.streaming.config.TimelineConfigurationProvider;
 import org.github.tess1o.geopulse.streaming.service.StreamingTimelineGenerationService;
@@ -16,6 +19,7 @@ import org.github.tess1o.geopulse.streaming.service.trips.GpsPointEnvironmentSer
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import jakarta.enterprise.event.Event;
 import jakarta.persistence.EntityManager;
 
 import java.time.Instant;
@@ -96,7 +100,13 @@ class GpsPointServiceStatusTest {
                 mock(GpsTelemetryRenderingService.class),
                 mock(GeofenceEvaluationService.class),
                 mock(TimelineConfigurationProvider.class),
-                mock(GpsPointEnvironmentService.class)
+                mock(GpsPointEnvironmentService.class),
+                mock(GpsPointArchiveService.class),
+                mock(GpsPointBatchIngestService.class),
+                mock(LiveLocationHub.class),
+                mock(Event.class),
+                mock(CoverageRepository.class),
+                mock(RecentGpsPointWindow.class)
         );
     }
 
@@ -0,0 +1,147 @@
+package org.github.tess1o.geopulse.gps.service;
+
+import jakarta.enterprise.event.Event;
+import org.github.tess1o.geopulse.gps.events.GpsPointsChangedEvent;
+import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.gps.model.GpsPointIngestKey;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
+import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
+import org.github.tess1o.geopulse.user.events.UserAccessChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+class RecentGpsPointWindowTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    private GpsPointRepository repository;
+    private RecentGpsPointWindow window;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(GpsPointRepository.class);
+        window = new RecentGpsPointWindow();
+        window.enabled = true;
+        window.windowMinutes = 30;
+        window.maxUsers = 100;
+        window.maxPointsPerUser = 100;
+        window.gpsPointRepository = repository;
+    }
+
+    @Test
+    void seedsOnceAndAnswersLaterChecksFromMemory() {
+        Instant seen = now.minusSeconds(60);
+        when(repository.findIngestKeysInWindow(eq(userId), any(), any()))
+                .thenReturn(List.of(new GpsPointIngestKey(seen, 50.45, 30.52, GpsSourceType.OWNTRACKS)));
+
+        assertThat(window.findSameTimestampDuplicate(userId, seen, GpsSourceType.OWNTRACKS)).contains(true);
+        assertThat(window.findSameTimestampDuplicate(userId, seen, GpsSourceType.GPSLOGGER)).contains(false);
+        assertThat(window.findExactDuplicate(userId, seen, 50.45, 30.52)).contains(true);
+        assertThat(window.findLocationDuplicate(userId, 50.45001, 30.52001, now, GpsSourceType.OWNTRACKS, 2))
+                .contains(true);
+
+        verify(repository, times(1)).findIngestKeysInWindow(eq(userId), any(), any());
+    }
+
+    @Test
+    void recordedPointsAreVisibleToTheNextCheck() {
+        when(repository.findIngestKeysInWindow(eq(userId), any(), any())).thenReturn(List.of());
+
+        assertThat(window.findExactDuplicate(userId, now, 50.45, 30.52)).contains(false);
+        window.record(userId, List.of(point(now, 50.45, 30.52)));
+
+        assertThat(window.findExactDuplicate(userId, now, 50.45, 30.52)).contains(true);
+        assertThat(window.findSameTimestampDuplicate(userId, now, GpsSourceType.OWNTRACKS)).contains(true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordReportsWhetherThePointsWentIntoAWindow() {
+        Event<GpsPointsChangedEvent> events = mock(Event.class);
+        window.gpsPointsChangedEvent = events;
+        when(repository.findIngestKeysInWindow(eq(userId), any(), any())).thenReturn(List.of());
+        ArgumentCaptor<GpsPointsChangedEvent> fired = ArgumentCaptor.forClass(GpsPointsChangedEvent.class);
+
+        window.record(userId, List.of(point(now, 50.45, 30.52)));
+        window.findExactDuplicate(userId, now, 50.45, 30.52);
+        window.record(userId, List.of(point(now.plusSeconds(10), 50.46, 30.53)));
+
+        verify(events, times(2)).fire(fired.capture());
+        assertThat(fired.getAllValues()).extracting(GpsPointsChangedEvent::isRecordedInWindow)
+                .containsExactly(false, true);
+    }
+
+    @Test
+    void timestampsBeforeTheWindowAreLeftToTheDatabase() {
+        when(repository.findIngestKeysInWindow(eq(userId), any(), any())).thenReturn(List.of());
+        Instant old = now.minus(2, ChronoUnit.HOURS);
+
+        assertThat(window.findExactDuplicate(userId, old, 50.45, 30.52)).isEmpty();
+        assertThat(window.cachedUsers()).isZero();
+
+        assertThat(window.findExactDuplicate(userId, now, 50.45, 30.52)).contains(false);
+        assertThat(window.findExactDuplicate(userId, old, 50.45, 30.52)).isEmpty();
+        assertThat(window.findLocationDuplicate(userId, 50.45, 30.52, now, GpsSourceType.OWNTRACKS, 60)).isEmpty();
+    }
+
+    @Test
+    void fullWindowGivesUpItsOldestTimestamps() {
+        window.maxPointsPerUser = 2;
+        when(repository.findIngestKeysInWindow(eq(userId), any(), any())).thenReturn(List.of());
+        Instant first = now.minusSeconds(30);
+        window.findExactDuplicate(userId, now, 0, 0);
+
+        window.record(userId, List.of(point(first, 1, 1), point(first.plusSeconds(10), 2, 2),
+                point(first.plusSeconds(20), 3, 3)));
+
+        assertThat(window.findExactDuplicate(userId, first, 1, 1)).isEmpty();
+        assertThat(window.findExactDuplicate(userId, first.plusSeconds(20), 3, 3)).contains(true);
+    }
+
+    @Test
+    void invalidationForcesAReseed() {
+        when(repository.findIngestKeysInWindow(eq(userId), any(), any())).thenReturn(List.of());
+        window.findExactDuplicate(userId, now, 50.45, 30.52);
+
+        window.invalidate(userId);
+        assertThat(window.cachedUsers()).isZero();
+        window.findExactDuplicate(userId, now, 50.45, 30.52);
+
+        window.onUserAccessChanged(new UserAccessChangedEvent(userId));
+        assertThat(window.cachedUsers()).isZero();
+        verify(repository, times(2)).findIngestKeysInWindow(eq(userId), any(), any());
+    }
+
+    @Test
+    void disabledWindowNeverAnswers() {
+        window.enabled = false;
+
+        assertThat(window.findExactDuplicate(userId, now, 50.45, 30.52)).isEmpty();
+        verify(repository, times(0)).findIngestKeysInWindow(any(), any(), any());
+    }
+
+    private static GpsPointEntity point(Instant timestamp, double latitude, double longitude) {
+        GpsPointEntity point = new GpsPointEntity();
+        point.setTimestamp(timestamp);
+        point.setCoordinates(GeoUtils.createPoint(longitude, latitude));
+        point.setSourceType(GpsSourceType.OWNTRACKS);
+        return point;
+    }
+}
@@ -0,0 +1,88 @@
+package org.github.tess1o.geopulse.gps.service.archive;
+
+import org.github.tess1o.geopulse.gps.model.ArchivedGpsPoint;
+import org.github.tess1o.geopulse.gps.repository.GpsPointArchiveCodec;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("unit")
+class GpsPointArchiveCodecTest {
+
+    private final GpsPointArchiveCodec codec = new GpsPointArchiveCodec();
+
+    @Test
+    void roundTripKeepsEveryFieldExactly() {
+        Instant base = Instant.parse("2022-04-01T00:00:00.123456Z");
+        List<ArchivedGpsPoint> points = List.of(
+                new ArchivedGpsPoint(1000L, base, 50.4501234, 30.5234567, 12.5, 87.0, 36.0, 180.25,
+                        "phone", "OWNTRACKS", base.plusSeconds(3), "{\"wifi\": \"home\"}"),
+                // Values that do not fit the fixed-point scales, negative deltas and missing fields
+                new ArchivedGpsPoint(998L, base.plusMillis(15_250), 50.45012345678, -0.1278, 3.14159, null,
+                        null, -12.0, null, "OWNTRACKS", null, null),
+                new ArchivedGpsPoint(1003L, base.plusSeconds(30), null, null, null, null, null, null,
+                        "tracker", "GPSLOGGER", base.minusSeconds(5), "{}"),
+                new ArchivedGpsPoint(1004L, base.plusSeconds(45), -33.8688197, 151.2092955, 0.0, 100.0,
+                        0.0, Double.NaN, "phone", null, base.plusSeconds(45), null));
+
+        byte[] payload = codec.encode(points);
+
+        assertThat(codec.decode(GpsPointArchiveCodec.VERSION, payload)).isEqualTo(points);
+    }
+
+    @Test
+    void monthOfTrackingCompressesWellBelowRawColumnSize() {
+        Instant start = YearMonth.of(2022, 5).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        List<ArchivedGpsPoint> points = new ArrayList<>();
+        for (int i = 0; i < 30 * 24 * 60; i++) {
+            points.add(new ArchivedGpsPoint(10_000L + i, start.plusSeconds(60L * i),
+                    50.45 + (i % 500) * 0.00001, 30.52 + (i % 700) * 0.00001, 8.0 + (i % 5),
+                    90.0 - (i % 90), (i % 40) * 1.5, 170.0 + (i % 10), "phone", "OWNTRACKS",
+                    start.plusSeconds(60L * i + 2), null));
+        }
+
+        byte[] payload = codec.encode(points);
+
+        // id, timestamp, coordinates and four measurements alone take 64 bytes per row uncompressed
+        assertThat(payload.length).isLessThan(points.size() * 16);
+        assertThat(codec.decode(GpsPointArchiveCodec.VERSION, payload)).isEqualTo(points);
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        byte[] payload = codec.encode(List.of());
+
+        assertThatThrownBy(() -> codec.decode(GpsPointArchiveCodec.VERSION + 1, payload))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void mergeDropsPointsRepeatingTimestampAndCoordinates() {
+        Instant timestamp = Instant.parse("2022-04-02T10:00:00Z");
+        ArchivedGpsPoint archived = new ArchivedGpsPoint(5L, timestamp, 50.0, 30.0, 5.0, null, null, null,
+                null, "OWNTRACKS", null, null);
+        ArchivedGpsPoint reimported = new ArchivedGpsPoint(90L, timestamp, 50.0, 30.0, 7.0, null, null, null,
+                null, "GPX", null, null);
+        ArchivedGpsPoint earlier = new ArchivedGpsPoint(91L, timestamp.minusSeconds(60), 50.1, 30.1, 5.0, null,
+                null, null, null, "GPX", null, null);
+
+        List<ArchivedGpsPoint> merged = GpsPointArchiveService.mergePoints(List.of(archived),
+                List.of(reimported, earlier));
+
+        assertThat(merged).containsExactly(earlier, archived);
+    }
+
+    @Test
+    void cutoffIsTheStartOfTheFirstMonthKeptLive() {
+        assertThat(GpsPointArchiveService.cutoffFor(YearMonth.of(2026, 10), 24))
+                .isEqualTo(Instant.parse("2024-10-01T00:00:00Z"));
+    }
+}
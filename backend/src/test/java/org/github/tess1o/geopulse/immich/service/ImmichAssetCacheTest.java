@@ -0,0 +1,168 @@
+package org.github.tess1o.geopulse.immich.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class ImmichAssetCacheTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @TempDir
+    Path cacheDir;
+
+    private ImmichAssetCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = newCache(1);
+    }
+
+    @Test
+    void getOrLoad_fetchesOnceAndServesFromDisk() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        byte[] jpeg = jpeg(1000);
+
+        ImmichAssetCache.CachedAsset first = cache.getOrLoad("https://immich", "key", "asset-1", "THUMBNAIL",
+                () -> {
+                    fetches.incrementAndGet();
+                    return CompletableFuture.completedFuture(jpeg);
+                }, DIRECT).join();
+        ImmichAssetCache.CachedAsset second = cache.getOrLoad("https://immich", "key", "asset-1", "THUMBNAIL",
+                () -> {
+                    fetches.incrementAndGet();
+                    return CompletableFuture.completedFuture(jpeg);
+                }, DIRECT).join();
+
+        assertThat(fetches).hasValue(1);
+        assertThat(second.etag()).isEqualTo(first.etag());
+        assertThat(second.contentType()).isEqualTo("image/jpeg");
+        assertThat(Files.readAllBytes(second.file())).isEqualTo(jpeg);
+    }
+
+    @Test
+    void getOrLoad_keysByCredentialsAndVariant() {
+        cache.getOrLoad("https://immich", "key-a", "asset-1", "THUMBNAIL",
+                () -> CompletableFuture.completedFuture(jpeg(10)), DIRECT).join();
+
+        AtomicInteger fetches = new AtomicInteger();
+        cache.getOrLoad("https://immich", "key-b", "asset-1", "THUMBNAIL", () -> {
+            fetches.incrementAndGet();
+            return CompletableFuture.completedFuture(jpeg(10));
+        }, DIRECT).join();
+        cache.getOrLoad("https://immich", "key-a", "asset-1", "PREVIEW", () -> {
+            fetches.incrementAndGet();
+            return CompletableFuture.completedFuture(jpeg(10));
+        }, DIRECT).join();
+
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void store_evictsLeastRecentlyServedEntriesOverSizeLimit() throws Exception {
+        String oldKey = ImmichAssetCache.cacheKey("s", "k", "old", "PREVIEW");
+        String recentKey = ImmichAssetCache.cacheKey("s", "k", "recent", "PREVIEW");
+        String newKey = ImmichAssetCache.cacheKey("s", "k", "new", "PREVIEW");
+
+        ImmichAssetCache.CachedAsset old = cache.store(oldKey, jpeg(400 * 1024));
+        Thread.sleep(5);
+        cache.store(recentKey, jpeg(400 * 1024));
+        Thread.sleep(5);
+        cache.store(newKey, jpeg(400 * 1024));
+
+        assertThat(cache.peek(oldKey)).isEmpty();
+        assertThat(Files.exists(old.file())).isFalse();
+        assertThat(cache.peek(recentKey)).isPresent();
+        assertThat(cache.peek(newKey)).isPresent();
+        assertThat(cache.totalBytes()).isLessThanOrEqualTo(1024 * 1024);
+    }
+
+    @Test
+    void store_skipsPinnedEntriesWhenEvicting() throws Exception {
+        String pinnedKey = ImmichAssetCache.cacheKey("s", "k", "pinned", "PREVIEW");
+        String otherKey = ImmichAssetCache.cacheKey("s", "k", "other", "PREVIEW");
+        String newKey = ImmichAssetCache.cacheKey("s", "k", "new", "PREVIEW");
+
+        ImmichAssetCache.CachedAsset pinned = cache.store(pinnedKey, jpeg(400 * 1024));
+        ImmichAssetCache.Pin pin = cache.pin(pinned).orElseThrow();
+        Thread.sleep(5);
+        ImmichAssetCache.CachedAsset other = cache.store(otherKey, jpeg(400 * 1024));
+        Thread.sleep(5);
+        cache.store(newKey, jpeg(400 * 1024));
+
+        assertThat(cache.peek(pinnedKey)).isPresent();
+        assertThat(Files.exists(pinned.file())).isTrue();
+        assertThat(cache.peek(otherKey)).isEmpty();
+        assertThat(Files.exists(other.file())).isFalse();
+        pin.close();
+    }
+
+    @Test
+    void store_deletesReplacedPinnedFileOnLastRelease() {
+        String key = ImmichAssetCache.cacheKey("s", "k", "asset", "PREVIEW");
+        ImmichAssetCache.CachedAsset first = cache.store(key, jpeg(100));
+        ImmichAssetCache.Pin firstPin = cache.pin(first).orElseThrow();
+        ImmichAssetCache.Pin secondPin = cache.pin(first).orElseThrow();
+
+        ImmichAssetCache.CachedAsset replacement = cache.store(key, jpeg(200));
+
+        assertThat(replacement.file()).isNotEqualTo(first.file());
+        assertThat(Files.exists(first.file())).isTrue();
+        firstPin.close();
+        firstPin.close();
+        assertThat(Files.exists(first.file())).isTrue();
+        secondPin.close();
+        assertThat(Files.exists(first.file())).isFalse();
+        assertThat(cache.pin(first)).isEmpty();
+        assertThat(cache.pin(replacement)).isPresent();
+    }
+
+    @Test
+    void init_rebuildsIndexFromDirectory() {
+        String key = ImmichAssetCache.cacheKey("s", "k", "asset", "THUMBNAIL");
+        ImmichAssetCache.CachedAsset stored = cache.store(key, webp());
+
+        ImmichAssetCache restarted = newCache(1);
+
+        assertThat(restarted.peek(key)).hasValueSatisfying(asset -> {
+            assertThat(asset.etag()).isEqualTo(stored.etag());
+            assertThat(asset.contentType()).isEqualTo("image/webp");
+        });
+    }
+
+    private ImmichAssetCache newCache(long maxSizeMb) {
+        ImmichAssetCache newCache = new ImmichAssetCache();
+        newCache.enabled = true;
+        newCache.directory = cacheDir.toString();
+        newCache.maxSizeMb = maxSizeMb;
+        newCache.init();
+        return newCache;
+    }
+
+    private static byte[] jpeg(int size) {
+        byte[] bytes = new byte[size];
+        bytes[0] = (byte) 0xFF;
+        bytes[1] = (byte) 0xD8;
+        for (int i = 2; i < size; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        return bytes;
+    }
+
+    private static byte[] webp() {
+        byte[] bytes = new byte[64];
+        System.arraycopy("RIFF".getBytes(), 0, bytes, 0, 4);
+        System.arraycopy("WEBP".getBytes(), 0, bytes, 8, 4);
+        return bytes;
+    }
+}
@@ -2,6 +2,7 @@ package org.github.tess1o.geopulse.insight.service.badge;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
+import org.github.tess1o.geopulse.gps.repository.GpsPointRepository;
 import org.github.tess1o.geopulse.insight.model.Badge;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -28,6 +29,9 @@ class FirstMonthBadgeCalculatorTimestampTest {
     @Mock
     EntityManager entityManager;
 
+    @Mock
+    GpsPointRepository gpsPointRepository;
+
     @Mock
     Query firstDateQuery;
 
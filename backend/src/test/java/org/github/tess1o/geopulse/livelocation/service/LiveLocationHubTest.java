@@ -0,0 +1,100 @@
+package org.github.tess1o.geopulse.livelocation.service;
+
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.github.tess1o.geopulse.gps.model.GpsPointPathPointDTO;
+import org.github.tess1o.geopulse.livelocation.model.LiveLocationUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class LiveLocationHubTest {
+
+    private final UUID viewerId = UUID.randomUUID();
+    private final UUID friendId = UUID.randomUUID();
+
+    private LiveLocationHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new LiveLocationHub();
+        hub.minIntervalMillis = 60_000;
+        hub.heartbeatSeconds = 3600;
+        hub.maxStreams = 10;
+        hub.maxStreamsPerViewer = 2;
+        hub.bufferSize = 16;
+    }
+
+    @Test
+    void burstOfPointsIsCoalescedToNewest() {
+        AssertSubscriber<LiveLocationUpdate> subscriber = hub.subscribeAsViewer(viewerId, List.of(friendId))
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        hub.publish(friendId, point(10.0, "2026-05-15T10:00:00Z"));
+        hub.publish(friendId, point(11.0, "2026-05-15T10:00:01Z"));
+        hub.publish(friendId, point(12.0, "2026-05-15T10:00:02Z"));
+        assertThat(locations(subscriber)).containsExactly(10.0);
+
+        hub.flush(System.currentTimeMillis() + 120_000);
+
+        assertThat(locations(subscriber)).containsExactly(10.0, 12.0);
+        assertThat(subscriber.getItems().get(0).getType()).isEqualTo(LiveLocationUpdate.Type.HEARTBEAT);
+    }
+
+    @Test
+    void olderPointsAndRevokedSubjectsAreNotSent() {
+        hub.minIntervalMillis = 0;
+        AssertSubscriber<LiveLocationUpdate> subscriber = hub.subscribeAsViewer(viewerId, List.of(friendId))
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        hub.publish(friendId, point(10.0, "2026-05-15T10:00:00Z"));
+        hub.publish(friendId, point(9.0, "2026-05-15T09:00:00Z"));
+        hub.revokeViewer(friendId, viewerId);
+        hub.publish(friendId, point(11.0, "2026-05-15T10:05:00Z"));
+
+        assertThat(locations(subscriber)).containsExactly(10.0);
+        assertThat(hub.hasSubscribers(friendId)).isFalse();
+
+        hub.grantViewer(friendId, viewerId);
+        hub.publish(friendId, point(12.0, "2026-05-15T10:06:00Z"));
+        assertThat(locations(subscriber)).containsExactly(10.0, 12.0);
+    }
+
+    @Test
+    void sharedLinkStreamHidesOwnerAndCompletesOnExpiry() {
+        UUID linkId = UUID.randomUUID();
+        Instant expiresAt = Instant.now().plusSeconds(30);
+        AssertSubscriber<LiveLocationUpdate> subscriber = hub.subscribeToSharedLink(linkId, friendId, expiresAt)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        hub.publish(friendId, point(10.0, "2026-05-15T10:00:00Z"));
+        assertThat(subscriber.getItems()).last().satisfies(update -> {
+            assertThat(update.getType()).isEqualTo(LiveLocationUpdate.Type.LOCATION);
+            assertThat(update.getUserId()).isNull();
+        });
+
+        hub.flush(expiresAt.toEpochMilli());
+
+        subscriber.assertCompleted();
+        assertThat(hub.streamCount()).isZero();
+        assertThat(hub.hasSubscribers(friendId)).isFalse();
+    }
+
+    private static List<Double> locations(AssertSubscriber<LiveLocationUpdate> subscriber) {
+        return subscriber.getItems().stream()
+                .filter(update -> update.getType() == LiveLocationUpdate.Type.LOCATION)
+                .map(LiveLocationUpdate::getLatitude)
+                .toList();
+    }
+
+    private GpsPointPathPointDTO point(double latitude, String timestamp) {
+        return new GpsPointPathPointDTO(1L, 30.0, latitude, Instant.parse(timestamp), 5.0, null, null,
+                friendId, "OWNTRACKS");
+    }
+}
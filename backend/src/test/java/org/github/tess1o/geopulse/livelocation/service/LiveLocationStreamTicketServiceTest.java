@@ -0,0 +1,73 @@
+package org.github.tess1o.geopulse.livelocation.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class LiveLocationStreamTicketServiceTest {
+
+    private final UUID linkId = UUID.randomUUID();
+    private final Instant accessExpiresAt = Instant.now().plusSeconds(3600);
+
+    private LiveLocationStreamTicketService tickets;
+
+    @BeforeEach
+    void setUp() {
+        tickets = new LiveLocationStreamTicketService();
+        tickets.ticketTtlSeconds = 30;
+    }
+
+    @Test
+    void ticketOpensOneStreamOnly() {
+        String ticket = tickets.issue(linkId, accessExpiresAt).value();
+
+        assertThat(tickets.redeem(ticket, linkId))
+                .hasValueSatisfying(redeemed -> assertThat(redeemed.accessExpiresAt()).isEqualTo(accessExpiresAt));
+        assertThat(tickets.redeem(ticket, linkId)).isEmpty();
+    }
+
+    @Test
+    void ticketForAnotherLinkIsRejectedAndUsedUp() {
+        String ticket = tickets.issue(linkId, accessExpiresAt).value();
+
+        assertThat(tickets.redeem(ticket, UUID.randomUUID())).isEmpty();
+        assertThat(tickets.redeem(ticket, linkId)).isEmpty();
+    }
+
+    @Test
+    void ticketNeverOutlivesTheAccessToken() {
+        Instant soon = Instant.now().plusSeconds(5);
+
+        LiveLocationStreamTicketService.IssuedTicket issued = tickets.issue(linkId, soon);
+
+        assertThat(issued.expiresAt()).isEqualTo(soon);
+        assertThat(tickets.issue(linkId, accessExpiresAt).expiresAt()).isBefore(Instant.now().plusSeconds(31));
+    }
+
+    @Test
+    void expiredTicketsAreRejectedAndPurged() {
+        String expired = tickets.issue(linkId, Instant.now().minusSeconds(1)).value();
+        tickets.issue(linkId, accessExpiresAt);
+
+        tickets.purgeExpired();
+
+        assertThat(tickets.size()).isEqualTo(1);
+        assertThat(tickets.redeem(expired, linkId)).isEmpty();
+    }
+
+    @Test
+    void ticketsAreUnguessable() {
+        String first = tickets.issue(linkId, accessExpiresAt).value();
+        String second = tickets.issue(linkId, accessExpiresAt).value();
+
+        assertThat(first).isNotEqualTo(second).hasSizeGreaterThanOrEqualTo(43);
+        assertThat(tickets.redeem(null, linkId)).isEmpty();
+        assertThat(tickets.redeem("", linkId)).isEmpty();
+    }
+}
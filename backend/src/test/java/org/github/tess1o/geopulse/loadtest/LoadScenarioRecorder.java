@@ -0,0 +1,94 @@
+package org.github.tess1o.geopulse.loadtest;
+
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Times the operations of one load scenario and counts the JDBC statements they prepared, from Hibernate
+ * statistics. Scenarios run one after another, so the statement count is not mixed with other work.
+ */
+final class LoadScenarioRecorder {
+
+    private final String scenario;
+    private final Statistics statistics;
+    private final long statementsAtStart;
+    private long[] latencies = new long[256];
+    private int operations;
+    private long items;
+
+    LoadScenarioRecorder(String scenario, Statistics statistics) {
+        this.scenario = scenario;
+        this.statistics = statistics;
+        this.statementsAtStart = statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Run one operation of the scenario.
+     *
+     * @param itemCount GPS points or timeline requests the operation handles, for throughput
+     */
+    void measure(int itemCount, Runnable operation) {
+        long startedAt = System.nanoTime();
+        operation.run();
+        long elapsed = System.nanoTime() - startedAt;
+        if (operations == latencies.length) {
+            latencies = Arrays.copyOf(latencies, operations * 2);
+        }
+        latencies[operations++] = elapsed;
+        items += itemCount;
+    }
+
+    LoadScenarioResult finish() {
+        long[] sorted = Arrays.copyOf(latencies, operations);
+        Arrays.sort(sorted);
+        return new LoadScenarioResult(scenario, operations, items, Arrays.stream(sorted).sum(),
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                operations == 0 ? 0 : sorted[operations - 1],
+                statistics.getPrepareStatementCount() - statementsAtStart);
+    }
+
+    // Nearest-rank percentile
+    static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    record LoadScenarioResult(String scenario, int operations, long items, long busyNanos, long p50Nanos,
+                              long p95Nanos, long p99Nanos, long maxNanos, long statements) {
+
+        static final String CSV_HEADER =
+                "scenario,operations,items,busy_ms,items_per_second,p50_ms,p95_ms,p99_ms,max_ms,statements,"
+                        + "statements_per_operation";
+
+        double itemsPerSecond() {
+            return busyNanos == 0 ? 0 : items * 1_000_000_000.0 / busyNanos;
+        }
+
+        double statementsPerOperation() {
+            return operations == 0 ? 0 : (double) statements / operations;
+        }
+
+        String summary() {
+            return String.format(Locale.ROOT,
+                    "%-22s ops=%d items=%d busy=%dms throughput=%.1f items/s p50=%.2fms p95=%.2fms p99=%.2fms "
+                            + "max=%.2fms statements=%d (%.1f per op)",
+                    scenario, operations, items, busyNanos / 1_000_000, itemsPerSecond(), millis(p50Nanos),
+                    millis(p95Nanos), millis(p99Nanos), millis(maxNanos), statements, statementsPerOperation());
+        }
+
+        String csvRow() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%d,%.2f",
+                    scenario, operations, items, busyNanos / 1_000_000, itemsPerSecond(), millis(p50Nanos),
+                    millis(p95Nanos), millis(p99Nanos), millis(maxNanos), statements, statementsPerOperation());
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package org.github.tess1o.geopulse.loadtest;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.github.tess1o.geopulse.db.PostgisTestResource;
+import org.github.tess1o.geopulse.gps.model.GpsPointEntity;
+import org.github.tess1o.geopulse.gpssource.model.GpsSourceConfigEntity;
+import org.github.tess1o.geopulse.gpssource.repository.GpsSourceRepository;
+import org.github.tess1o.geopulse.importdata.service.BatchProcessor;
+import org.github.tess1o.geopulse.loadtest.LoadScenarioRecorder.LoadScenarioResult;
+import org.github.tess1o.geopulse.loadtest.SyntheticTrajectoryGenerator.SyntheticGpsPoint;
+import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+import org.github.tess1o.geopulse.shared.gps.GpsSourceType;
+import org.github.tess1o.geopulse.streaming.repository.TimelineStayRepository;
+import org.github.tess1o.geopulse.streaming.service.StreamingTimelineGenerationService;
+import org.github.tess1o.geopulse.testsupport.SerializedDatabaseTest;
+import org.github.tess1o.geopulse.testsupport.TestActor;
+import org.github.tess1o.geopulse.testsupport.TestIds;
+import org.github.tess1o.geopulse.testsupport.TestUserFactory;
+import org.github.tess1o.geopulse.user.service.SecurePasswordUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the ingest and timeline hot paths with a deterministic synthetic history of N users over M years and
+ * reports throughput, latency percentiles and JDBC statement counts per scenario:
+ * <ul>
+ *     <li>import-bulk-upsert: the bulk of the history through {@link BatchProcessor#processBatch}, in import-sized
+ *     batches</li>
+ *     <li>owntracks-http: one point per request through {@code POST /api/owntracks}</li>
+ *     <li>overland-http: batched points through {@code POST /api/overland}</li>
+ *     <li>timeline-generation: a full regeneration per user through
+ *     {@link StreamingTimelineGenerationService#generateTimelineFromTimestamp(UUID, Instant)}</li>
+ *     <li>timeline-read: day, week and month windows through {@code GET /api/streaming-timeline}</li>
+ * </ul>
+ * Results are logged and written as CSV so runs of two builds can be compared. Disabled by default; run with:
+ *
+ * mvn verify -Dit.test=SyntheticLoadHarnessTest -Dgeopulse.loadtest=true \
+ *            -Dgeopulse.loadtest.users=4 -Dgeopulse.loadtest.years=2
+ */
+@QuarkusTest
+@QuarkusTestResource(value = PostgisTestResource.class)
+@SerializedDatabaseTest
+@EnabledIfSystemProperty(named = "geopulse.loadtest", matches = "true")
+@Slf4j
+class SyntheticLoadHarnessTest {
+
+    private static final Instant HISTORY_END = Instant.parse("2025-01-01T00:00:00Z");
+    private static final String DEVICE_ID = "loadtest";
+
+    @Inject
+    BatchProcessor batchProcessor;
+
+    @Inject
+    StreamingTimelineGenerationService timelineGenerationService;
+
+    @Inject
+    TimelineStayRepository stayRepository;
+
+    @Inject
+    GpsSourceRepository gpsSourceRepository;
+
+    @Inject
+    SecurePasswordUtils passwordUtils;
+
+    @Inject
+    TestUserFactory userFactory;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void ingestAndTimelineHotPathsUnderSyntheticLoad() throws IOException {
+        int users = Integer.getInteger("geopulse.loadtest.users", 2);
+        int years = Integer.getInteger("geopulse.loadtest.years", 1);
+        int httpPoints = Integer.getInteger("geopulse.loadtest.http-points", 500);
+        int importBatch = Integer.getInteger("geopulse.loadtest.import-batch", 500);
+        int overlandBatch = Integer.getInteger("geopulse.loadtest.overland-batch", 50);
+        int timelineReads = Integer.getInteger("geopulse.loadtest.timeline-reads", 50);
+        long seed = Long.getLong("geopulse.loadtest.seed", 49L);
+        Path reportPath = Path.of(System.getProperty("geopulse.loadtest.report", "target/load-harness-report.csv"));
+
+        Instant historyStart = HISTORY_END.atZone(ZoneOffset.UTC).minusYears(years).toInstant();
+        SyntheticTrajectoryGenerator generator = new SyntheticTrajectoryGenerator(seed);
+        List<LoadUser> loadUsers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            loadUsers.add(createLoadUser(generator.generate(i, historyStart, HISTORY_END)));
+        }
+        long generatedPoints = loadUsers.stream().mapToLong(user -> user.points().size()).sum();
+        log.info("Synthetic load: users={}, years={}, points={}, seed={}", users, years, generatedPoints, seed);
+
+        Statistics statistics = sessionFactory.getStatistics();
+        assertThat(statistics.isStatisticsEnabled())
+                .as("quarkus.hibernate-orm.statistics must be enabled to count statements")
+                .isTrue();
+        List<LoadScenarioResult> results = new ArrayList<>();
+
+        // Oldest history is imported, the most recent points arrive from the apps, in timestamp order per user
+        LoadScenarioRecorder bulk = new LoadScenarioRecorder("import-bulk-upsert", statistics);
+        for (LoadUser user : loadUsers) {
+            List<SyntheticGpsPoint> imported = user.points().subList(0, user.importedCount(httpPoints));
+            for (int from = 0; from < imported.size(); from += importBatch) {
+                List<GpsPointEntity> batch = imported.subList(from, Math.min(from + importBatch, imported.size()))
+                        .stream()
+                        .map(point -> toEntity(user.actor(), point))
+                        .toList();
+                bulk.measure(batch.size(), () -> batchProcessor.processBatch(batch, false));
+            }
+        }
+        results.add(bulk.finish());
+
+        LoadScenarioRecorder ownTracks = new LoadScenarioRecorder("owntracks-http", statistics);
+        for (LoadUser user : loadUsers) {
+            int from = user.importedCount(httpPoints);
+            for (SyntheticGpsPoint point : user.points().subList(from, from + user.ownTracksCount(httpPoints))) {
+                Map<String, Object> payload = ownTracksPayload(point);
+                ownTracks.measure(1, () -> given()
+                        .auth().preemptive().basic(user.ownTracksUsername(), user.actor().password())
+                        .header("X-Limit-D", DEVICE_ID)
+                        .contentType(ContentType.JSON)
+                        .body(payload)
+                        .post("/api/owntracks")
+                        .then()
+                        .statusCode(200));
+            }
+        }
+        results.add(ownTracks.finish());
+
+        LoadScenarioRecorder overland = new LoadScenarioRecorder("overland-http", statistics);
+        for (LoadUser user : loadUsers) {
+            List<SyntheticGpsPoint> tail = user.points()
+                    .subList(user.importedCount(httpPoints) + user.ownTracksCount(httpPoints), user.points().size());
+            for (int from = 0; from < tail.size(); from += overlandBatch) {
+                List<Map<String, Object>> locations = tail.subList(from, Math.min(from + overlandBatch, tail.size()))
+                        .stream()
+                        .map(this::overlandLocation)
+                        .toList();
+                overland.measure(locations.size(), () -> given()
+                        .header("Authorization", "Bearer " + user.overlandToken())
+                        .contentType(ContentType.JSON)
+                        .body(Map.of("locations", locations))
+                        .post("/api/overland")
+                        .then()
+                        .statusCode(200));
+            }
+        }
+        results.add(overland.finish());
+
+        for (LoadUser user : loadUsers) {
+            assertThat(countGpsPoints(user.actor().userId()))
+                    .as("every generated point is stored once")
+                    .isEqualTo(user.points().size());
+        }
+
+        LoadScenarioRecorder generation = new LoadScenarioRecorder("timeline-generation", statistics);
+        for (LoadUser user : loadUsers) {
+            generation.measure(user.points().size(), () ->
+                    timelineGenerationService.generateTimelineFromTimestamp(user.actor().userId(), historyStart));
+        }
+        results.add(generation.finish());
+
+        for (LoadUser user : loadUsers) {
+            long stays = QuarkusTransaction.requiringNew().call(() -> stayRepository.countByUser(user.actor().userId()));
+            assertThat(stays).as("timeline has stays").isPositive();
+        }
+
+        LoadScenarioRecorder reads = new LoadScenarioRecorder("timeline-read", statistics);
+        Random windows = new Random(seed);
+        long historySeconds = Duration.between(historyStart, HISTORY_END).toSeconds();
+        for (int i = 0; i < timelineReads; i++) {
+            LoadUser user = loadUsers.get(i % loadUsers.size());
+            Duration window = switch (i % 3) {
+                case 0 -> Duration.ofDays(1);
+                case 1 -> Duration.ofDays(7);
+                default -> Duration.ofDays(30);
+            };
+            Instant start = historyStart.plusSeconds(
+                    (long) (windows.nextDouble() * Math.max(1, historySeconds - window.toSeconds())));
+            reads.measure(1, () -> given()
+                    .header("Authorization", "Bearer " + user.actor().accessToken())
+                    .queryParam("startTime", start.toString())
+                    .queryParam("endTime", start.plus(window).toString())
+                    .get("/api/streaming-timeline")
+                    .then()
+                    .statusCode(200));
+        }
+        results.add(reads.finish());
+
+        results.forEach(result -> log.info("Load scenario {}", result.summary()));
+        List<String> lines = new ArrayList<>();
+        lines.add(LoadScenarioResult.CSV_HEADER);
+        results.forEach(result -> lines.add(result.csvRow()));
+        if (reportPath.getParent() != null) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        Files.write(reportPath, lines);
+        log.info("Load report written to {}", reportPath.toAbsolutePath());
+
+        assertThat(results).allSatisfy(result -> assertThat(result.operations()).isPositive());
+    }
+
+    private LoadUser createLoadUser(List<SyntheticGpsPoint> points) {
+        TestActor actor = userFactory.createAuthenticatedUser("loadtest");
+        String ownTracksUsername = TestIds.uniqueValue("loadtest-owntracks");
+        String overlandToken = TestIds.uniqueValue("loadtest-overland");
+        QuarkusTransaction.requiringNew().run(() -> {
+            gpsSourceRepository.persist(GpsSourceConfigEntity.builder()
+                    .user(actor.user())
+                    .sourceType(GpsSourceType.OWNTRACKS)
+                    .username(ownTracksUsername)
+                    .passwordHash(passwordUtils.hashPassword(actor.password()))
+                    .active(true)
+                    .build());
+            gpsSourceRepository.persist(GpsSourceConfigEntity.builder()
+                    .user(actor.user())
+                    .sourceType(GpsSourceType.OVERLAND)
+                    .token(overlandToken)
+                    .active(true)
+                    .build());
+        });
+        return new LoadUser(actor, ownTracksUsername, overlandToken, points);
+    }
+
+    private GpsPointEntity toEntity(TestActor actor, SyntheticGpsPoint point) {
+        GpsPointEntity entity = new GpsPointEntity();
+        entity.setUser(actor.user());
+        entity.setDeviceId(DEVICE_ID);
+        entity.setCoordinates(GeoUtils.createPoint(point.longitude(), point.latitude()));
+        entity.setTimestamp(point.timestamp());
+        entity.setAccuracy(point.accuracy());
+        entity.setVelocity(point.velocityKmh());
+        entity.setAltitude(point.altitude());
+        entity.setSourceType(GpsSourceType.OWNTRACKS);
+        entity.setCreatedAt(point.timestamp());
+        return entity;
+    }
+
+    private Map<String, Object> ownTracksPayload(SyntheticGpsPoint point) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("_type", "location");
+        payload.put("lat", point.latitude());
+        payload.put("lon", point.longitude());
+        payload.put("acc", point.accuracy());
+        payload.put("vel", point.velocityKmh());
+        payload.put("alt", point.altitude());
+        payload.put("tst", point.timestamp().getEpochSecond());
+        return payload;
+    }
+
+    private Map<String, Object> overlandLocation(SyntheticGpsPoint point) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("timestamp", point.timestamp().toString());
+        properties.put("speed", point.velocityKmh() / 3.6);
+        properties.put("horizontal_accuracy", point.accuracy());
+        properties.put("altitude", (int) point.altitude());
+        properties.put("device_id", DEVICE_ID);
+        return Map.of(
+                "type", "Feature",
+                "geometry", Map.of("type", "Point", "coordinates", List.of(point.longitude(), point.latitude())),
+                "properties", properties);
+    }
+
+    private long countGpsPoints(UUID userId) {
+        return QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM gps_points WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .getSingleResult()).longValue());
+    }
+
+    /**
+     * The oldest points go through the import path, the next {@code httpPoints} through OwnTracks and the
+     * newest {@code httpPoints} through Overland.
+     */
+    private record LoadUser(TestActor actor, String ownTracksUsername, String overlandToken,
+                            List<SyntheticGpsPoint> points) {
+
+        int importedCount(int httpPoints) {
+            return Math.max(0, points.size() - 2 * httpPoints);
+        }
+
+        int ownTracksCount(int httpPoints) {
+            return (points.size() - importedCount(httpPoints)) / 2;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package org.github.tess1o.geopulse.loadtest;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic GPS history for load runs. Every user lives in one of a few cities and gets weekday
+ * commutes with long stays at home and work, weekend outings, a flight abroad every couple of months, GPS noise
+ * with occasional outliers, and gaps where the phone was off. The same seed and user index always produce the
+ * same points.
+ */
+public final class SyntheticTrajectoryGenerator {
+
+    static final int STAY_SAMPLE_SECONDS = 300;
+    static final int MOVE_SAMPLE_SECONDS = 30;
+    static final int FLIGHT_SAMPLE_SECONDS = 900;
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final double FLIGHT_SPEED_KMH = 820.0;
+    private static final double TRIP_ABROAD_PROBABILITY = 1.0 / 60;
+    private static final double DAY_GAP_PROBABILITY = 0.08;
+    private static final double MULTI_DAY_GAP_PROBABILITY = 1.0 / 150;
+    private static final double OUTLIER_PROBABILITY = 0.01;
+
+    private static final Place[] CITIES = {
+            new Place(50.4501, 30.5234),   // Kyiv
+            new Place(52.5200, 13.4050),   // Berlin
+            new Place(38.7223, -9.1393),   // Lisbon
+            new Place(40.7128, -74.0060),  // New York
+            new Place(35.6762, 139.6503),  // Tokyo
+            new Place(-33.8688, 151.2093)  // Sydney
+    };
+
+    private final long seed;
+
+    public SyntheticTrajectoryGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param userIndex selects the home city and the random stream of this user
+     * @param start     first instant of the history, inclusive
+     * @param end       last instant of the history, exclusive
+     * @return points ordered by timestamp, at most one per second
+     */
+    public List<SyntheticGpsPoint> generate(int userIndex, Instant start, Instant end) {
+        Random random = new Random(seed * 1_000_003L + userIndex);
+        Track track = new Track(random, start, end, CITIES[Math.floorMod(userIndex, CITIES.length)]);
+        track.run();
+        return track.points;
+    }
+
+    public record SyntheticGpsPoint(Instant timestamp, double latitude, double longitude, double accuracy,
+                                    double velocityKmh, double altitude) {
+    }
+
+    record Place(double latitude, double longitude) {
+
+        Place offset(double bearingRadians, double meters) {
+            double north = Math.cos(bearingRadians) * meters;
+            double east = Math.sin(bearingRadians) * meters;
+            return new Place(latitude + north / METERS_PER_DEGREE,
+                    longitude + east / (METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude))));
+        }
+
+        double distanceMeters(Place other) {
+            double dLat = Math.toRadians(other.latitude - latitude);
+            double dLon = Math.toRadians(other.longitude - longitude);
+            double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                    + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(other.latitude))
+                    * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+            return 2 * 6_371_000 * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+    }
+
+    private static final class Track {
+
+        private final Random random;
+        private final Instant start;
+        private final Instant end;
+        private final Place home;
+        private final Place work;
+        private final Place errand;
+        private final Place park;
+        private final Place homeAirport;
+        private final List<SyntheticGpsPoint> points = new ArrayList<>();
+        private final List<Instant[]> gaps = new ArrayList<>();
+
+        private Instant now;
+        private Place position;
+
+        Track(Random random, Instant start, Instant end, Place city) {
+            this.random = random;
+            this.start = start;
+            this.end = end;
+            this.home = city.offset(bearing(), 1_000 + random.nextDouble() * 4_000);
+            this.work = home.offset(bearing(), 6_000 + random.nextDouble() * 9_000);
+            this.errand = work.offset(bearing(), 1_000 + random.nextDouble() * 2_000);
+            this.park = home.offset(bearing(), 1_000 + random.nextDouble() * 3_000);
+            this.homeAirport = city.offset(bearing(), 15_000 + random.nextDouble() * 10_000);
+            this.now = start;
+            this.position = home;
+        }
+
+        void run() {
+            ZonedDateTime day = start.atZone(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS);
+            while (day.toInstant().isBefore(end)) {
+                planGap(day);
+                if (day.toInstant().isAfter(start) && random.nextDouble() < TRIP_ABROAD_PROBABILITY) {
+                    day = tripAbroad(day);
+                } else if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                    weekend(day);
+                    day = day.plusDays(1);
+                } else {
+                    weekday(day);
+                    day = day.plusDays(1);
+                }
+            }
+            dropGaps();
+        }
+
+        private void weekday(ZonedDateTime day) {
+            stayUntil(home, at(day, 7 * 60 + 30 + random.nextInt(40)));
+            travel(work, 35, MOVE_SAMPLE_SECONDS);
+            stayUntil(work, at(day, 17 * 60 + random.nextInt(60)));
+            if (random.nextDouble() < 0.3) {
+                travel(errand, 30, MOVE_SAMPLE_SECONDS);
+                stayFor(errand, Duration.ofMinutes(30 + random.nextInt(30)));
+            }
+            travel(home, 35, MOVE_SAMPLE_SECONDS);
+            stayUntil(home, day.plusDays(1).toInstant());
+        }
+
+        private void weekend(ZonedDateTime day) {
+            stayUntil(home, at(day, 10 * 60 + random.nextInt(90)));
+            if (random.nextDouble() < 0.6) {
+                travel(park, 15, MOVE_SAMPLE_SECONDS);
+                stayFor(park, Duration.ofMinutes(120 + random.nextInt(120)));
+                travel(home, 15, MOVE_SAMPLE_SECONDS);
+            }
+            stayUntil(home, day.plusDays(1).toInstant());
+        }
+
+        // Fly to another city, stay a few days with one walk a day, and fly back
+        private ZonedDateTime tripAbroad(ZonedDateTime day) {
+            Place city = CITIES[random.nextInt(CITIES.length)];
+            if (city.distanceMeters(home) < 100_000) {
+                weekday(day);
+                return day.plusDays(1);
+            }
+            Place airport = city.offset(bearing(), 15_000 + random.nextDouble() * 10_000);
+            Place hotel = city.offset(bearing(), 500 + random.nextDouble() * 2_500);
+            Place sight = hotel.offset(bearing(), 2_000 + random.nextDouble() * 2_000);
+            int nights = 3 + random.nextInt(5);
+
+            stayUntil(home, at(day, 5 * 60 + random.nextInt(120)));
+            travel(homeAirport, 60, MOVE_SAMPLE_SECONDS);
+            stayFor(homeAirport, Duration.ofMinutes(90 + random.nextInt(60)));
+            travel(airport, FLIGHT_SPEED_KMH, FLIGHT_SAMPLE_SECONDS);
+            stayFor(airport, Duration.ofMinutes(30 + random.nextInt(30)));
+            travel(hotel, 40, MOVE_SAMPLE_SECONDS);
+
+            ZonedDateTime current = day.plusDays(1);
+            for (int night = 1; night < nights && current.toInstant().isBefore(end); night++) {
+                stayUntil(hotel, at(current, 9 * 60 + random.nextInt(90)));
+                travel(sight, 5, MOVE_SAMPLE_SECONDS);
+                stayFor(sight, Duration.ofMinutes(90 + random.nextInt(120)));
+                travel(hotel, 5, MOVE_SAMPLE_SECONDS);
+                current = current.plusDays(1);
+            }
+
+            stayUntil(hotel, at(current, 7 * 60 + random.nextInt(120)));
+            travel(airport, 40, MOVE_SAMPLE_SECONDS);
+            stayFor(airport, Duration.ofMinutes(90 + random.nextInt(60)));
+            travel(homeAirport, FLIGHT_SPEED_KMH, FLIGHT_SAMPLE_SECONDS);
+            stayFor(homeAirport, Duration.ofMinutes(30 + random.nextInt(30)));
+            travel(home, 60, MOVE_SAMPLE_SECONDS);
+            ZonedDateTime next = current.plusDays(1);
+            stayUntil(home, next.toInstant());
+            // A long flight can land after midnight; continue from the day the track is in
+            return now.isBefore(next.toInstant()) ? next : now.atZone(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS);
+        }
+
+        private void stayFor(Place place, Duration duration) {
+            stayUntil(place, now.plus(duration));
+        }
+
+        private void stayUntil(Place place, Instant until) {
+            position = place;
+            while (now.isBefore(until)) {
+                double accuracy = 5 + random.nextDouble() * 20;
+                emit(place, accuracy, random.nextDouble(), 120);
+                now = now.plusSeconds(STAY_SAMPLE_SECONDS - 20 + random.nextInt(41));
+            }
+        }
+
+        private void travel(Place destination, double speedKmh, int sampleSeconds) {
+            Place from = position;
+            double distance = from.distanceMeters(destination);
+            long seconds = Math.max(sampleSeconds, Math.round(distance / (speedKmh / 3.6)));
+            boolean flight = speedKmh >= FLIGHT_SPEED_KMH;
+            for (long elapsed = 0; elapsed < seconds; elapsed += sampleSeconds) {
+                double fraction = (double) elapsed / seconds;
+                // Roads are not straight lines; flights are close enough to one
+                double wobble = flight ? 0 : Math.sin(fraction * Math.PI * 3) * Math.min(400, distance * 0.05);
+                Place along = new Place(from.latitude + (destination.latitude - from.latitude) * fraction,
+                        from.longitude + (destination.longitude - from.longitude) * fraction)
+                        .offset(Math.PI / 2, wobble);
+                double velocity = speedKmh * (0.8 + random.nextDouble() * 0.4);
+                emit(along, 5 + random.nextDouble() * 10, velocity, flight ? 10_000 : 120);
+                now = now.plusSeconds(sampleSeconds);
+            }
+            position = destination;
+        }
+
+        private void emit(Place place, double accuracy, double velocityKmh, double altitude) {
+            if (!now.isBefore(end) || now.isBefore(start)) {
+                return;
+            }
+            Instant timestamp = now.truncatedTo(ChronoUnit.SECONDS);
+            if (!points.isEmpty() && !timestamp.isAfter(points.get(points.size() - 1).timestamp())) {
+                return;
+            }
+            double error = accuracy / 2;
+            if (random.nextDouble() < OUTLIER_PROBABILITY) {
+                accuracy = 150 + random.nextDouble() * 450;
+                error = accuracy;
+            }
+            Place measured = place.offset(bearing(), Math.abs(random.nextGaussian()) * error);
+            points.add(new SyntheticGpsPoint(timestamp, round(measured.latitude), round(measured.longitude),
+                    Math.round(accuracy * 10) / 10.0, Math.round(velocityKmh * 10) / 10.0,
+                    Math.round(altitude + random.nextGaussian() * 5)));
+        }
+
+        private void planGap(ZonedDateTime day) {
+            if (random.nextDouble() < MULTI_DAY_GAP_PROBABILITY) {
+                Instant gapStart = at(day, random.nextInt(24 * 60));
+                gaps.add(new Instant[]{gapStart, gapStart.plus(Duration.ofHours(24 + random.nextInt(48)))});
+            } else if (random.nextDouble() < DAY_GAP_PROBABILITY) {
+                Instant gapStart = at(day, random.nextInt(24 * 60));
+                gaps.add(new Instant[]{gapStart, gapStart.plus(Duration.ofMinutes(120 + random.nextInt(600)))});
+            }
+        }
+
+        private void dropGaps() {
+            if (gaps.isEmpty()) {
+                return;
+            }
+            points.removeIf(point -> gaps.stream().anyMatch(gap ->
+                    !point.timestamp().isBefore(gap[0]) && point.timestamp().isBefore(gap[1])));
+        }
+
+        private Instant at(ZonedDateTime day, int minuteOfDay) {
+            return day.plusMinutes(minuteOfDay).toInstant();
+        }
+
+        private double bearing() {
+            return random.nextDouble() * 2 * Math.PI;
+        }
+
+        private static double round(double degrees) {
+            return Math.round(degrees * 1e7) / 1e7;
+        }
+    }
+}
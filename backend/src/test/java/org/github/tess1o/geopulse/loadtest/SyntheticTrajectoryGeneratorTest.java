@@ -0,0 +1,57 @@
+package org.github.tess1o.geopulse.loadtest;
+
+import org.github.tess1o.geopulse.loadtest.SyntheticTrajectoryGenerator.SyntheticGpsPoint;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class SyntheticTrajectoryGeneratorTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant END = Instant.parse("2024-07-01T00:00:00Z");
+
+    @Test
+    void sameSeedAndUserProduceSameHistory() {
+        List<SyntheticGpsPoint> first = new SyntheticTrajectoryGenerator(7).generate(3, START, END);
+        List<SyntheticGpsPoint> second = new SyntheticTrajectoryGenerator(7).generate(3, START, END);
+
+        assertThat(first).isNotEmpty().isEqualTo(second);
+        assertThat(new SyntheticTrajectoryGenerator(7).generate(4, START, END)).isNotEqualTo(first);
+    }
+
+    @Test
+    void historyIsOrderedAndInsideTheRequestedRange() {
+        List<SyntheticGpsPoint> points = new SyntheticTrajectoryGenerator(11).generate(0, START, END);
+
+        assertThat(points.get(0).timestamp()).isAfterOrEqualTo(START);
+        assertThat(points.get(points.size() - 1).timestamp()).isBefore(END);
+        for (int i = 1; i < points.size(); i++) {
+            assertThat(points.get(i).timestamp()).isAfter(points.get(i - 1).timestamp());
+        }
+    }
+
+    @Test
+    void halfAYearContainsStaysCommutesFlightsOutliersAndGaps() {
+        List<SyntheticGpsPoint> points = new SyntheticTrajectoryGenerator(11).generate(0, START, END);
+
+        assertThat(points).anyMatch(point -> point.velocityKmh() < 1);
+        assertThat(points).anyMatch(point -> point.velocityKmh() > 20 && point.velocityKmh() < 60);
+        assertThat(points).anyMatch(point -> point.velocityKmh() > 500);
+        assertThat(points).anyMatch(point -> point.accuracy() >= 150);
+
+        Duration longestGap = Duration.ZERO;
+        for (int i = 1; i < points.size(); i++) {
+            Duration gap = Duration.between(points.get(i - 1).timestamp(), points.get(i).timestamp());
+            if (gap.compareTo(longestGap) > 0) {
+                longestGap = gap;
+            }
+        }
+        assertThat(longestGap).isGreaterThan(Duration.ofHours(2));
+    }
+}
@@ -0,0 +1,134 @@
+package org.github.tess1o.geopulse.prometheus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.github.tess1o.geopulse.gps.events.GpsPointsChangedEvent;
+import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.github.tess1o.geopulse.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+class GpsPointsMetricsTest {
+
+    private static final Instant LATEST = Instant.parse("2026-01-01T12:00:00Z");
+
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicLong storedPoints = new AtomicLong(10);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private Runnable duringUserRecount = () -> {
+    };
+    private int userRecounts;
+    private GpsPointsMetrics metrics;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        UserEntity user = UserEntity.builder().id(userId).email("metrics@example.com").build();
+        PanacheQuery<UserEntity> allUsers = mock(PanacheQuery.class);
+        when(allUsers.stream()).thenAnswer(invocation -> Stream.of(user));
+        when(userRepository.findAll()).thenReturn(allUsers);
+        when(userRepository.findByIdOptional(userId)).thenReturn(Optional.of(user));
+
+        Query allCounts = mock(Query.class);
+        when(allCounts.getResultList()).thenAnswer(invocation -> userCountRows());
+        Query userCounts = mock(Query.class);
+        when(userCounts.setParameter(anyString(), any())).thenReturn(userCounts);
+        when(userCounts.getResultList()).thenAnswer(invocation -> {
+            userRecounts++;
+            duringUserRecount.run();
+            return userCountRows();
+        });
+        Query pointsLast24h = mock(Query.class);
+        when(pointsLast24h.setParameter(anyString(), any())).thenReturn(pointsLast24h);
+        when(pointsLast24h.getSingleResult()).thenReturn(0L);
+        when(entityManager.createNativeQuery(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.contains(":threshold")) {
+                return pointsLast24h;
+            }
+            return sql.contains(":userId") ? userCounts : allCounts;
+        });
+
+        metrics = new GpsPointsMetrics();
+        metrics.registry = new SimpleMeterRegistry();
+        metrics.entityManager = entityManager;
+        metrics.userRepository = userRepository;
+        metrics.prometheusEnabled = true;
+        metrics.gpsPointsMetricsEnabled = true;
+        metrics.onStart(null);
+    }
+
+    @Test
+    void addedPointsAreAppliedWithoutRecount() {
+        storedPoints.set(15);
+        metrics.onGpsPointsChanged(new GpsPointsChangedEvent(userId, true, 5, LATEST));
+
+        assertThat(metrics.getTotalGpsPoints()).isEqualTo(15);
+        assertThat(metrics.getLastGpsTimestamp()).isEqualTo(LATEST.getEpochSecond());
+
+        metrics.refreshTotalGps();
+        assertThat(userRecounts).isZero();
+    }
+
+    @Test
+    void changesOfUnknownSizeMarkTheUserForTheNextRefresh() {
+        storedPoints.set(4);
+        metrics.onGpsPointsChanged(new GpsPointsChangedEvent(userId, false, 0, null));
+
+        assertThat(metrics.getTotalGpsPoints()).isEqualTo(10);
+
+        metrics.refreshTotalGps();
+        assertThat(userRecounts).isEqualTo(1);
+        assertThat(metrics.getTotalGpsPoints()).isEqualTo(4);
+    }
+
+    @Test
+    void addedPointsArrivingDuringRecountAreCountedOnce() {
+        metrics.onGpsPointsChanged(new GpsPointsChangedEvent(userId, false, 0, null));
+        // Points committed while the recount reads: its count already includes them, and the event races it
+        duringUserRecount = () -> {
+            storedPoints.set(15);
+            duringUserRecount = () -> {
+            };
+            Thread ingest = new Thread(() ->
+                    metrics.onGpsPointsChanged(new GpsPointsChangedEvent(userId, true, 5, LATEST)));
+            ingest.start();
+            try {
+                ingest.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        metrics.refreshTotalGps();
+        assertThat(metrics.getTotalGpsPoints()).isEqualTo(15);
+
+        // The event only marked the user, so the next refresh counts again instead of adding
+        metrics.refreshTotalGps();
+        assertThat(userRecounts).isEqualTo(2);
+        assertThat(metrics.getTotalGpsPoints()).isEqualTo(15);
+        assertThat(metrics.countUsersWithPoints()).isEqualTo(1);
+    }
+
+    private List<Object[]> userCountRows() {
+        return List.<Object[]>of(new Object[]{userId, storedPoints.get(), LATEST});
+    }
+}
@@ -0,0 +1,58 @@
+package org.github.tess1o.geopulse.prometheus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class PerUserGaugeTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PerUserGauge gauge = new PerUserGauge(registry, "gps_points_per_user_total", "test");
+
+    @Test
+    void eventsAdjustSeededUsersWithoutRegisteringNewGauges() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        gauge.set(alice, "alice@example.com", 10);
+        gauge.set(bob, "bob@example.com", 0);
+
+        assertThat(gauge.add(alice, 5)).isTrue();
+        assertThat(gauge.add(UUID.randomUUID(), 3)).isFalse();
+
+        assertThat(registry.get("gps_points_per_user_total").tag("user", "alice@example.com").gauge().value())
+                .isEqualTo(15.0);
+        assertThat(registry.get("gps_points_per_user_total").gauges()).hasSize(2);
+        assertThat(gauge.sum()).isEqualTo(15);
+        assertThat(gauge.countUsers(count -> count > 0)).isEqualTo(1);
+    }
+
+    @Test
+    void raiseToKeepsTheLargerValue() {
+        UUID userId = UUID.randomUUID();
+        gauge.set(userId, "user@example.com", 1_700_000_000L);
+
+        gauge.raiseTo(userId, 1_600_000_000L);
+        assertThat(gauge.max()).isEqualTo(1_700_000_000L);
+
+        gauge.raiseTo(userId, 1_800_000_000L);
+        assertThat(gauge.max()).isEqualTo(1_800_000_000L);
+    }
+
+    @Test
+    void removedUsersAreZeroedAndNoLongerCounted() {
+        UUID userId = UUID.randomUUID();
+        gauge.set(userId, "gone@example.com", 42);
+
+        gauge.remove(userId);
+
+        assertThat(registry.get("gps_points_per_user_total").tag("user", "gone@example.com").gauge().value())
+                .isZero();
+        assertThat(gauge.sum()).isZero();
+        assertThat(gauge.add(userId, 1)).isFalse();
+    }
+}
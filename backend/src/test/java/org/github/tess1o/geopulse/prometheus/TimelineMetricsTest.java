@@ -0,0 +1,102 @@
+package org.github.tess1o.geopulse.prometheus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.github.tess1o.geopulse.gps.events.GpsPointsChangedEvent;
+import org.github.tess1o.geopulse.streaming.events.TimelineDataChangedEvent;
+import org.github.tess1o.geopulse.streaming.repository.TimelineDataGapRepository;
+import org.github.tess1o.geopulse.streaming.repository.TimelineStayRepository;
+import org.github.tess1o.geopulse.streaming.repository.TimelineTripRepository;
+import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.github.tess1o.geopulse.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+class TimelineMetricsTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final TimelineStayRepository stayRepository = mock(TimelineStayRepository.class);
+    private final TimelineTripRepository tripRepository = mock(TimelineTripRepository.class);
+    private final TimelineDataGapRepository dataGapRepository = mock(TimelineDataGapRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TimelineMetrics metrics;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        UserEntity user = UserEntity.builder().id(userId).email("timeline@example.com").build();
+        PanacheQuery<UserEntity> allUsers = mock(PanacheQuery.class);
+        when(allUsers.stream()).thenAnswer(invocation -> Stream.of(user));
+        when(userRepository.findAll()).thenReturn(allUsers);
+        when(userRepository.findByIdOptional(userId)).thenReturn(Optional.of(user));
+
+        Query counts = mock(Query.class);
+        when(counts.getResultList()).thenReturn(List.<Object[]>of(new Object[]{userId, 3L}));
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(counts);
+
+        metrics = new TimelineMetrics();
+        metrics.registry = registry;
+        metrics.stayRepository = stayRepository;
+        metrics.tripRepository = tripRepository;
+        metrics.dataGapRepository = dataGapRepository;
+        metrics.userRepository = userRepository;
+        metrics.entityManager = entityManager;
+        metrics.prometheusEnabled = true;
+        metrics.timelineMetricsEnabled = true;
+        metrics.onStart(null);
+    }
+
+    @Test
+    void regeneratedTimelineIsCountedAgainOnNextRefresh() {
+        assertThat(gauge("timeline_stays_total")).isEqualTo(3.0);
+
+        when(stayRepository.countByUser(userId)).thenReturn(5L);
+        when(tripRepository.countByUser(userId)).thenReturn(4L);
+        when(dataGapRepository.countByUser(userId)).thenReturn(1L);
+        metrics.onTimelineDataChanged(new TimelineDataChangedEvent(userId, Instant.EPOCH, Instant.now(), null));
+
+        // Marking alone leaves the published counts untouched
+        assertThat(gauge("timeline_stays_total")).isEqualTo(3.0);
+
+        metrics.refreshTotals();
+        assertThat(gauge("timeline_stays_total")).isEqualTo(5.0);
+        assertThat(gauge("timeline_trips_total")).isEqualTo(4.0);
+        assertThat(gauge("timeline_data_gaps_total")).isEqualTo(1.0);
+
+        // Nothing marked since, so the next refresh does not count again
+        metrics.refreshTotals();
+        verify(stayRepository).countByUser(userId);
+    }
+
+    @Test
+    void realTimeIngestDoesNotMarkTheTimeline() {
+        metrics.onGpsPointsChanged(new GpsPointsChangedEvent(userId, true, 5, Instant.now()));
+
+        metrics.refreshTotals();
+
+        verify(stayRepository, never()).countByUser(userId);
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+}
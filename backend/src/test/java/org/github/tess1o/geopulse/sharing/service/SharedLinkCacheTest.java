@@ -0,0 +1,124 @@
+package org.github.tess1o.geopulse.sharing.service;
+
+import org.github.tess1o.geopulse.sharing.events.SharedLinkChangedEvent;
+import org.github.tess1o.geopulse.sharing.model.ShareType;
+import org.github.tess1o.geopulse.sharing.model.SharedLinkSnapshot;
+import org.github.tess1o.geopulse.sharing.model.SharedPayload;
+import org.github.tess1o.geopulse.streaming.events.TimelineDataChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class SharedLinkCacheTest {
+
+    private static final Instant JAN_START = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant JAN_END = Instant.parse("2026-01-31T23:59:59Z");
+    private static final Instant MAR_START = Instant.parse("2026-03-01T00:00:00Z");
+    private static final Instant MAR_END = Instant.parse("2026-03-31T23:59:59Z");
+
+    private final UUID ownerId = UUID.randomUUID();
+    private final SharedLinkSnapshot link = timelineLink(UUID.randomUUID(), null);
+    private SharedLinkCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SharedLinkCache();
+        cache.enabled = true;
+        cache.linkTtlSeconds = 60;
+        cache.payloadTtlSeconds = 300;
+        cache.locationTtlSeconds = 10;
+        cache.maxPayloads = 2;
+    }
+
+    @Test
+    void getOrCompute_servesRepeatViewersTheSameBodyAndEtag() {
+        AtomicInteger calls = new AtomicInteger();
+
+        SharedPayload<String> first = cache.getOrCompute(link, SharedLinkCache.PayloadKind.TIMELINE, JAN_START, JAN_END,
+                () -> "timeline-" + calls.incrementAndGet());
+        SharedPayload<String> second = cache.getOrCompute(link, SharedLinkCache.PayloadKind.TIMELINE, JAN_START, JAN_END,
+                () -> "timeline-" + calls.incrementAndGet());
+        SharedPayload<String> path = cache.getOrCompute(link, SharedLinkCache.PayloadKind.PATH, JAN_START, JAN_END,
+                () -> "path-" + calls.incrementAndGet());
+
+        assertThat(calls).hasValue(2);
+        assertThat(second).isEqualTo(first);
+        assertThat(path.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void timelineDataChanged_dropsOnlyOverlappingRanges() {
+        AtomicInteger calls = new AtomicInteger();
+        cache.getOrCompute(link, SharedLinkCache.PayloadKind.TIMELINE, JAN_START, JAN_END, calls::incrementAndGet);
+        SharedPayload<Integer> march = cache.getOrCompute(link, SharedLinkCache.PayloadKind.TIMELINE, MAR_START, MAR_END,
+                calls::incrementAndGet);
+
+        cache.onTimelineDataChanged(new TimelineDataChangedEvent(ownerId,
+                Instant.parse("2026-01-15T00:00:00Z"), Instant.parse("2026-01-16T00:00:00Z"), null));
+
+        SharedPayload<Integer> january = cache.getOrCompute(link, SharedLinkCache.PayloadKind.TIMELINE, JAN_START, JAN_END,
+                calls::incrementAndGet);
+        SharedPayload<Integer> marchAgain = cache.getOrCompute(link, SharedLinkCache.PayloadKind.TIMELINE, MAR_START, MAR_END,
+                calls::incrementAndGet);
+
+        assertThat(january.body()).isEqualTo(3);
+        assertThat(marchAgain).isEqualTo(march);
+    }
+
+    @Test
+    void getOrCompute_doesNotStoreBodyLoadedAcrossAnInvalidation() {
+        cache.getOrCompute(link, SharedLinkCache.PayloadKind.PATH, JAN_START, JAN_END, () -> {
+            cache.invalidateOwner(ownerId, null, null);
+            return "stale";
+        });
+
+        assertThat(cache.cachedPayloads()).isZero();
+    }
+
+    @Test
+    void findActiveLink_reloadsAfterLinkChangeAndRejectsExpiredLinks() {
+        AtomicInteger loads = new AtomicInteger();
+        SharedLinkSnapshot expiring = timelineLink(link.id(), Instant.now().minusSeconds(1));
+
+        cache.findActiveLink(link.id(), () -> {
+            loads.incrementAndGet();
+            return Optional.of(link);
+        });
+        cache.findActiveLink(link.id(), () -> {
+            loads.incrementAndGet();
+            return Optional.of(link);
+        });
+        assertThat(loads).hasValue(1);
+
+        cache.onSharedLinkChanged(new SharedLinkChangedEvent(link.id()));
+        cache.findActiveLink(link.id(), () -> {
+            loads.incrementAndGet();
+            return Optional.of(expiring);
+        });
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.findActiveLink(link.id(), Optional::empty)).isEmpty();
+    }
+
+    @Test
+    void getOrCompute_evictsOldestBodiesBeyondCapacity() {
+        cache.getOrCompute(link, SharedLinkCache.PayloadKind.TIMELINE, JAN_START, JAN_END, () -> "a");
+        cache.getOrCompute(link, SharedLinkCache.PayloadKind.TIMELINE, MAR_START, MAR_END, () -> "b");
+        cache.getOrCompute(link, SharedLinkCache.PayloadKind.PATH, MAR_START, MAR_END, () -> "c");
+
+        assertThat(cache.cachedPayloads()).isEqualTo(2);
+    }
+
+    private SharedLinkSnapshot timelineLink(UUID linkId, Instant expiresAt) {
+        return new SharedLinkSnapshot(linkId, ownerId, ShareType.TIMELINE, expiresAt, false, 0,
+                JAN_START, MAR_END, false, false);
+    }
+}
@@ -0,0 +1,68 @@
+package org.github.tess1o.geopulse.statistics.repository;
+
+import org.github.tess1o.geopulse.statistics.model.HeatmapPlace;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class TripHeatmapAccumulatorTest {
+
+    private static final double LAT_A = 50.4501;
+    private static final double LON_A = 30.5234;
+    private static final double LAT_B = 50.4601;
+    private static final double LON_B = 30.5334;
+
+    @Test
+    void weightsPointsByClampedGapToNextPointOfSameTrip() {
+        TripHeatmapAccumulator accumulator = new TripHeatmapAccumulator(List.of(
+                trip("2024-01-01T10:00:00Z", "2024-01-01T10:10:00Z"),
+                trip("2024-01-01T11:00:00Z", "2024-01-01T11:05:00Z")
+        ), 100, 120);
+
+        accumulator.accept(Instant.parse("2024-01-01T09:59:00Z"), LAT_B, LON_B);
+        accumulator.accept(Instant.parse("2024-01-01T10:00:00Z"), LAT_A, LON_A);
+        accumulator.accept(Instant.parse("2024-01-01T10:01:00Z"), LAT_A, LON_A);
+        accumulator.accept(Instant.parse("2024-01-01T10:05:00Z"), LAT_B, LON_B);
+        // Between the trips: neither counted nor joined to the next trip's points
+        accumulator.accept(Instant.parse("2024-01-01T10:30:00Z"), LAT_A, LON_A);
+        accumulator.accept(Instant.parse("2024-01-01T11:00:00Z"), LAT_B, LON_B);
+        accumulator.accept(Instant.parse("2024-01-01T11:02:00Z"), LAT_B, LON_B);
+
+        List<HeatmapPlace> places = accumulator.places();
+
+        assertEquals(2, places.size());
+        HeatmapPlace first = places.get(0);
+        assertEquals(180, first.getDurationSeconds());
+        assertEquals(2, first.getVisits());
+        assertEquals(LAT_A, first.getLatitude(), 0.001);
+        assertEquals(LON_A, first.getLongitude(), 0.001);
+
+        HeatmapPlace second = places.get(1);
+        assertEquals(120, second.getDurationSeconds());
+        assertEquals(1, second.getVisits());
+        assertEquals(LAT_B, second.getLatitude(), 0.001);
+        assertEquals(LON_B, second.getLongitude(), 0.001);
+    }
+
+    @Test
+    void pointsOutsideEveryTripLeaveNoPlaces() {
+        TripHeatmapAccumulator accumulator = new TripHeatmapAccumulator(List.of(
+                trip("2024-01-01T10:00:00Z", "2024-01-01T10:10:00Z")
+        ), 100, 120);
+
+        accumulator.accept(Instant.parse("2024-01-01T09:00:00Z"), LAT_A, LON_A);
+        accumulator.accept(Instant.parse("2024-01-01T10:05:00Z"), LAT_A, LON_A);
+        accumulator.accept(Instant.parse("2024-01-01T12:00:00Z"), LAT_A, LON_A);
+
+        assertTrue(accumulator.places().isEmpty());
+    }
+
+    private static TripHeatmapAccumulator.TripInterval trip(String start, String end) {
+        return new TripHeatmapAccumulator.TripInterval(Instant.parse(start), Instant.parse(end));
+    }
+}
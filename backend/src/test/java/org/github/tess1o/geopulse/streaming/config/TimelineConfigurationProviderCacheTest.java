@@ -0,0 +1,60 @@
+package org.github.tess1o.geopulse.streaming.config;
+
+import jakarta.persistence.EntityManager;
+import org.github.tess1o.geopulse.user.mapper.TimelinePreferencesMapper;
+import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.github.tess1o.geopulse.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+class TimelineConfigurationProviderCacheTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private UserRepository userRepository;
+    private TimelineConfigurationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        GlobalTimelineConfig globalDefaults = mock(GlobalTimelineConfig.class);
+        when(globalDefaults.getDefaultTimelineConfig()).thenReturn(TimelineConfig.builder().build());
+        provider = new TimelineConfigurationProvider(userRepository, globalDefaults,
+                mock(TimelineConfigFieldRegistry.class), mock(TimelinePreferencesMapper.class), mock(EntityManager.class));
+        provider.cacheTtlSeconds = 600;
+        provider.cacheMaxEntries = 10;
+    }
+
+    @Test
+    void getConfigurationForUser_reusesCachedConfiguration() {
+        when(userRepository.findById(userId)).thenReturn(new UserEntity());
+
+        provider.getConfigurationForUser(userId);
+        provider.getConfigurationForUser(userId);
+
+        verify(userRepository, times(1)).findById(userId);
+    }
+
+    @Test
+    void getConfigurationForUser_doesNotCacheConfigurationReadBeforeAnInvalidation() {
+        // Preferences are updated and committed while the first read is still resolving the old ones
+        when(userRepository.findById(userId)).thenAnswer(invocation -> {
+            provider.invalidateUser(userId);
+            return new UserEntity();
+        }).thenReturn(new UserEntity());
+
+        provider.getConfigurationForUser(userId);
+        provider.getConfigurationForUser(userId);
+        provider.getConfigurationForUser(userId);
+
+        verify(userRepository, times(2)).findById(userId);
+    }
+}
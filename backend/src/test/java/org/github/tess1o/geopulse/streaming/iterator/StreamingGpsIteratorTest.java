@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -49,6 +51,32 @@ class StreamingGpsIteratorTest {
         ), repository.cursorRequests);
     }
 
+    @Test
+    void archivedPointsAreMergedInTimestampOrderAndDuplicatesOfLivePointsAreSkipped() {
+        Instant base = Instant.parse("2023-03-01T10:00:00Z");
+        FakeGpsPointRepository repository = new FakeGpsPointRepository(List.of(
+                row(2L, base.plusSeconds(60)),
+                row(4L, base.plusSeconds(180))
+        ));
+        GPSPoint reimported = new GPSPoint(4.0, 34.0, 1.0, 5.0, base.plusSeconds(180));
+        reimported.setId(40L);
+        repository.archived = List.of(
+                row(1L, base).point(),
+                row(3L, base.plusSeconds(120)).point(),
+                reimported,
+                row(5L, base.plusSeconds(240)).point());
+
+        StreamingGpsIterator iterator = new StreamingGpsIterator(repository, UUID.randomUUID(), base, 1);
+
+        List<Double> latitudes = new ArrayList<>();
+        while (iterator.hasNext()) {
+            latitudes.add(iterator.next().getLatitude());
+        }
+
+        assertEquals(List.of(1.0, 2.0, 3.0, 4.0, 5.0), latitudes);
+        assertEquals(5, iterator.getProcessedCount());
+    }
+
     private static Row row(long id, Instant timestamp) {
         GPSPoint point = new GPSPoint((double) id, 30.0 + id, 1.0, 5.0, timestamp);
         point.setId(id);
@@ -64,8 +92,10 @@ class StreamingGpsIteratorTest {
     private static class FakeGpsPointRepository extends GpsPointRepository {
         private final List<Row> rows;
         private final List<CursorRequest> cursorRequests = new ArrayList<>();
+        private List<GPSPoint> archived;
 
         private FakeGpsPointRepository(List<Row> rows) {
+            super(null);
             this.rows = rows;
         }
 
@@ -86,6 +116,11 @@ class StreamingGpsIteratorTest {
                     .toList();
         }
 
+        @Override
+        public Iterator<GPSPoint> iterateArchivedEssentialPoints(UUID userId, Instant fromTimestamp) {
+            return archived != null ? archived.iterator() : Collections.emptyIterator();
+        }
+
         private boolean isAfterCursor(Row row, Instant cursorTimestamp, Long cursorId) {
             if (cursorTimestamp == null || cursorId == null) {
                 return true;
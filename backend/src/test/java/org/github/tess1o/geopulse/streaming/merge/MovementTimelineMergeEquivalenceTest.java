@@ -0,0 +1,282 @@
+package org.github.tess1o.geopulse.streaming.merge;
+
+import lombok.extern.slf4j.Slf4j;
+import org.github.tess1o.geopulse.streaming.config.TimelineConfig;
+import org.github.tess1o.geopulse.streaming.model.domain.DataGap;
+import org.github.tess1o.geopulse.streaming.model.domain.RawTimeline;
+import org.github.tess1o.geopulse.streaming.model.domain.Stay;
+import org.github.tess1o.geopulse.streaming.model.domain.Trip;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the indexed merge pass with the previous pass, which scanned every trip and data gap for each pair of
+ * stays, on seeded random timelines. Boundaries are minute-aligned so trips and gaps often start exactly at a stay.
+ * The timing comparison on one long timeline is disabled by default; run with:
+ *
+ * mvn test -Dtest=MovementTimelineMergeEquivalenceTest -Dgeopulse.timeline.merge.benchmark=true \
+ *          -Dgeopulse.timeline.merge.benchmark.stays=20000
+ */
+@Tag("unit")
+@Slf4j
+class MovementTimelineMergeEquivalenceTest {
+
+    private static final Instant BASE_TIME = Instant.parse("2015-01-01T00:00:00Z");
+    private static final String[] LOCATIONS = {"Home", "Work", "Gym", "Cafe"};
+
+    private final MovementTimelineMergerImpl merger = new MovementTimelineMergerImpl(
+            new TimelineMergeAnalysisService(), new TimelineMergeExecutionService(), new TripFilteringService());
+
+    @Test
+    void indexedMergeMatchesFullScanOnRandomTimelines() {
+        Random random = new Random(50);
+        for (int run = 0; run < 300; run++) {
+            TimelineConfig config = TimelineConfig.builder()
+                    .mergeMaxDistanceMeters(random.nextInt(2_000))
+                    .mergeMaxTimeGapMinutes(random.nextInt(3_600))
+                    .isMergeEnabled(random.nextBoolean())
+                    .build();
+            RawTimeline timeline = randomTimeline(random, 1 + random.nextInt(120));
+
+            assertSameResult(merger.mergeSameNamedLocations(config, copy(timeline)),
+                    FullScanMerger.merge(config, copy(timeline)));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "geopulse.timeline.merge.benchmark", matches = "true")
+    void indexedMergeIsFasterOnALongTimeline() {
+        int stays = Integer.getInteger("geopulse.timeline.merge.benchmark.stays", 10_000);
+        TimelineConfig config = TimelineConfig.builder()
+                .mergeMaxDistanceMeters(200)
+                .mergeMaxTimeGapMinutes(600)
+                .isMergeEnabled(true)
+                .build();
+        RawTimeline timeline = randomTimeline(new Random(50), stays);
+
+        long startedAt = System.nanoTime();
+        RawTimeline fullScan = FullScanMerger.merge(config, copy(timeline));
+        long fullScanNanos = System.nanoTime() - startedAt;
+
+        startedAt = System.nanoTime();
+        RawTimeline indexed = merger.mergeSameNamedLocations(config, copy(timeline));
+        long indexedNanos = System.nanoTime() - startedAt;
+
+        log.info("Timeline merge benchmark: stays={}, trips={}, gaps={}, merged stays={}, full scan={} ms, "
+                        + "indexed={} ms",
+                stays, timeline.getTrips().size(), timeline.getDataGaps().size(), indexed.getStays().size(),
+                fullScanNanos / 1_000_000, indexedNanos / 1_000_000);
+
+        assertSameResult(indexed, fullScan);
+        assertThat(indexedNanos).isLessThan(fullScanNanos);
+    }
+
+    private static void assertSameResult(RawTimeline actual, RawTimeline expected) {
+        assertThat(actual.getStays()).isEqualTo(expected.getStays());
+        assertThat(actual.getTrips()).isEqualTo(expected.getTrips());
+    }
+
+    private static RawTimeline copy(RawTimeline timeline) {
+        return new RawTimeline(timeline.getUserId(), new ArrayList<>(timeline.getStays()),
+                new ArrayList<>(timeline.getTrips()), new ArrayList<>(timeline.getDataGaps()));
+    }
+
+    // Stays at a few places with short and long trips between them, some back-to-back stays and data gaps that
+    // may span several events
+    private static RawTimeline randomTimeline(Random random, int stayCount) {
+        List<Stay> stays = new ArrayList<>();
+        List<Trip> trips = new ArrayList<>();
+        List<DataGap> gaps = new ArrayList<>();
+        Instant time = BASE_TIME;
+        for (int i = 0; i < stayCount; i++) {
+            int location = random.nextInt(LOCATIONS.length);
+            Stay.StayBuilder stay = Stay.builder()
+                    .startTime(time)
+                    .duration(Duration.ofMinutes(5 + random.nextInt(600)))
+                    .locationName(LOCATIONS[location])
+                    .latitude(50 + location * 0.01)
+                    .longitude(30 + location * 0.01);
+            switch (random.nextInt(3)) {
+                case 0 -> stay.favoriteId((long) location);
+                case 1 -> stay.geocodingId((long) location);
+                default -> {
+                }
+            }
+            Stay built = stay.build();
+            stays.add(built);
+            time = time.plus(built.getDuration());
+
+            int tripCount = random.nextInt(10) < 3 ? 0 : 1 + random.nextInt(2);
+            for (int t = 0; t < tripCount; t++) {
+                Duration duration = Duration.ofMinutes(random.nextInt(90));
+                trips.add(Trip.builder()
+                        .startTime(time)
+                        .duration(duration)
+                        .distanceMeters(random.nextInt(5_000) + random.nextDouble())
+                        .build());
+                time = time.plus(duration);
+            }
+            if (random.nextInt(10) == 0) {
+                Instant gapStart = random.nextBoolean()
+                        ? built.getStartTime()
+                        : time.minus(Duration.ofMinutes(random.nextInt(2_000)));
+                gaps.add(DataGap.fromTimeRange(gapStart, gapStart.plus(Duration.ofMinutes(random.nextInt(3_000)))));
+            }
+            time = time.plus(Duration.ofMinutes(random.nextInt(3)));
+        }
+        return new RawTimeline(UUID.randomUUID(), stays, trips, gaps);
+    }
+
+    /**
+     * The merge pass as it was before the index: every trip and data gap is scanned for each pair of stays.
+     */
+    private static final class FullScanMerger {
+
+        static RawTimeline merge(TimelineConfig config, RawTimeline timeline) {
+            List<Stay> stays = timeline.getStays();
+            List<Trip> trips = timeline.getTrips();
+            if (stays.size() <= 1) {
+                return timeline;
+            }
+            stays.sort(Comparator.comparing(Stay::getStartTime));
+            trips.sort(Comparator.comparing(Trip::getStartTime));
+
+            List<Stay> mergedStays = new ArrayList<>();
+            Set<Integer> removedTrips = new HashSet<>();
+            int i = 0;
+            while (i < stays.size()) {
+                List<Integer> group = findMergeGroup(config, stays, trips, timeline.getDataGaps(), i);
+                if (group.size() > 1) {
+                    mergedStays.add(mergedStay(stays, group, trips));
+                    for (int g = 0; g < group.size() - 1; g++) {
+                        Instant from = stays.get(group.get(g)).getStartTime();
+                        Instant to = stays.get(group.get(g + 1)).getStartTime();
+                        for (int t = 0; t < trips.size(); t++) {
+                            if (isBetween(trips.get(t).getStartTime(), from, to)) {
+                                removedTrips.add(t);
+                            }
+                        }
+                    }
+                } else {
+                    mergedStays.add(stays.get(i));
+                }
+                i = group.getLast() + 1;
+            }
+
+            List<Trip> remainingTrips = new ArrayList<>();
+            for (int t = 0; t < trips.size(); t++) {
+                if (!removedTrips.contains(t)) {
+                    remainingTrips.add(trips.get(t));
+                }
+            }
+            return new RawTimeline(timeline.getUserId(), mergedStays, remainingTrips, timeline.getDataGaps());
+        }
+
+        private static List<Integer> findMergeGroup(TimelineConfig config, List<Stay> stays, List<Trip> trips,
+                                                    List<DataGap> gaps, int startIndex) {
+            List<Integer> group = new ArrayList<>();
+            group.add(startIndex);
+            Stay current = stays.get(startIndex);
+            int j = startIndex + 1;
+            while (j < stays.size() && isSameLocation(current, stays.get(j))) {
+                Stay last = stays.get(group.getLast());
+                Stay candidate = stays.get(j);
+                boolean noTrips = trips.stream()
+                        .noneMatch(trip -> isBetween(trip.getStartTime(), last.getStartTime(), candidate.getStartTime()));
+                boolean noGaps = !hasGap(last, candidate, gaps);
+                if ((noTrips && noGaps) || (config.getIsMergeEnabled() && canMerge(config, last, candidate, trips, gaps))) {
+                    group.add(j);
+                } else {
+                    break;
+                }
+                j++;
+            }
+            return group;
+        }
+
+        private static boolean canMerge(TimelineConfig config, Stay first, Stay second, List<Trip> trips,
+                                        List<DataGap> gaps) {
+            if (!first.getLocationName().equals(second.getLocationName()) || hasGap(first, second, gaps)) {
+                return false;
+            }
+            double distance = 0.0;
+            long duration = 0;
+            for (Trip trip : trips) {
+                if (isBetween(trip.getStartTime(), first.getStartTime(), second.getStartTime())) {
+                    distance += trip.getDistanceMeters();
+                    duration += trip.getDuration().getSeconds();
+                }
+            }
+            return distance < config.getMergeMaxDistanceMeters() || duration < config.getMergeMaxTimeGapMinutes();
+        }
+
+        private static boolean hasGap(Stay first, Stay second, List<DataGap> gaps) {
+            Instant from = first.getStartTime();
+            Instant to = second.getStartTime();
+            for (DataGap gap : gaps) {
+                if ((gap.getStartTime().isAfter(from) && gap.getStartTime().isBefore(to))
+                        || (gap.getEndTime().isAfter(from) && gap.getEndTime().isBefore(to))
+                        || (gap.getStartTime().isBefore(from) && gap.getEndTime().isAfter(to))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Stay mergedStay(List<Stay> stays, List<Integer> group, List<Trip> trips) {
+            Stay first = stays.get(group.get(0));
+            long seconds = 0;
+            for (Integer index : group) {
+                seconds += stays.get(index).getDuration().getSeconds();
+            }
+            for (int g = 0; g < group.size() - 1; g++) {
+                Instant from = stays.get(group.get(g)).getStartTime();
+                Instant to = stays.get(group.get(g + 1)).getStartTime();
+                for (Trip trip : trips) {
+                    if (isBetween(trip.getStartTime(), from, to)) {
+                        seconds += trip.getDuration().getSeconds();
+                    }
+                }
+            }
+            return Stay.builder()
+                    .startTime(first.getStartTime())
+                    .locationName(first.getLocationName())
+                    .duration(Duration.ofSeconds(seconds))
+                    .latitude(first.getLatitude())
+                    .longitude(first.getLongitude())
+                    .favoriteId(first.getFavoriteId())
+                    .geocodingId(first.getGeocodingId())
+                    .build();
+        }
+
+        private static boolean isSameLocation(Stay first, Stay second) {
+            if (first.getFavoriteId() != null && second.getFavoriteId() != null) {
+                return first.getFavoriteId().equals(second.getFavoriteId());
+            }
+            if (first.getGeocodingId() != null && second.getGeocodingId() != null) {
+                return first.getGeocodingId().equals(second.getGeocodingId());
+            }
+            if (first.getLocationName() != null && second.getLocationName() != null) {
+                return first.getLocationName().equals(second.getLocationName());
+            }
+            return false;
+        }
+
+        private static boolean isBetween(Instant time, Instant after, Instant before) {
+            return time.isAfter(after) && time.isBefore(before);
+        }
+    }
+}
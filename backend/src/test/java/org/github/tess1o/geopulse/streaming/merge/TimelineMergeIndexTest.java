@@ -0,0 +1,49 @@
+package org.github.tess1o.geopulse.streaming.merge;
+
+import org.github.tess1o.geopulse.streaming.model.domain.Trip;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+class TimelineMergeIndexTest {
+
+    private static final Instant FIRST_STAY = Instant.parse("2024-01-01T08:00:00Z");
+    private static final Instant SECOND_STAY = Instant.parse("2024-01-01T12:00:00Z");
+
+    private final TimelineMergeIndex index = TimelineMergeIndex.of(List.of(
+            trip("2024-01-01T07:00:00Z"),
+            trip("2024-01-01T09:00:00Z"),
+            trip("2024-01-01T13:00:00Z")
+    ), List.of());
+
+    @Test
+    void findsOnlyTripsStartingStrictlyBetweenTheStays() {
+        assertThat(index.hasTripBetween(FIRST_STAY, SECOND_STAY)).isTrue();
+        assertThat(index.tripsBetween(FIRST_STAY, SECOND_STAY))
+                .extracting(Trip::getStartTime)
+                .containsExactly(Instant.parse("2024-01-01T09:00:00Z"));
+        assertThat(index.tripIndicesBetween(FIRST_STAY, SECOND_STAY)).containsExactly(1);
+    }
+
+    @Test
+    void missingBoundHasNoTripsBetween() {
+        assertThat(index.hasTripBetween(FIRST_STAY, null)).isFalse();
+        assertThat(index.tripsBetween(FIRST_STAY, null)).isEmpty();
+        assertThat(index.tripIndicesBetween(FIRST_STAY, null)).isEmpty();
+
+        assertThat(index.hasTripBetween(null, SECOND_STAY)).isFalse();
+        assertThat(index.tripsBetween(null, SECOND_STAY)).isEmpty();
+        assertThat(index.tripIndicesBetween(null, SECOND_STAY)).isEmpty();
+    }
+
+    private static Trip trip(String start) {
+        return Trip.builder()
+                .startTime(Instant.parse(start))
+                .build();
+    }
+}
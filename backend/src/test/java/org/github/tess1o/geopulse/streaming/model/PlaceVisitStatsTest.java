@@ -0,0 +1,53 @@
+package org.github.tess1o.geopulse.streaming.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Tag("unit")
+class PlaceVisitStatsTest {
+
+    @Test
+    void visitPatterns_pickMostCommonBucketsAndBreakTiesTowardsEarlierOnes() {
+        PlaceVisitStats stats = stats(12,
+                new long[]{1, 3, 0, 3, 2, 2, 1},
+                new long[]{2, 4, 4, 2});
+
+        assertThat(stats.mostCommonDayOfWeek()).isEqualTo(2);
+        assertThat(stats.mostCommonDayVisitCount()).isEqualTo(3);
+        assertThat(stats.mostCommonArrivalPeriod()).isEqualTo("Afternoon");
+        assertThat(stats.mostCommonArrivalPeriodVisitCount()).isEqualTo(4);
+    }
+
+    @Test
+    void averageDaysBetweenVisits_isSpanOverGapCount() {
+        PlaceVisitStats stats = stats(11, new long[7], new long[4]);
+
+        // 11 visits over 20 days: 10 gaps averaging 2 days, whatever the individual gaps were
+        assertThat(stats.averageDaysBetweenVisits()).isCloseTo(2.0, within(1e-9));
+        assertThat(stats.averageDuration()).isEqualTo(3_600L / 11);
+    }
+
+    @Test
+    void averageDaysBetweenVisits_singleVisit_isNull() {
+        assertThat(stats(1, new long[7], new long[4]).averageDaysBetweenVisits()).isNull();
+    }
+
+    private static PlaceVisitStats stats(long visits, long[] days, long[] periods) {
+        return new PlaceVisitStats(
+                visits,
+                3_600L,
+                60L,
+                900L,
+                Instant.parse("2026-01-01T08:00:00Z"),
+                Instant.parse("2026-01-21T08:00:00Z"),
+                "Europe/Kyiv",
+                days,
+                periods
+        );
+    }
+}
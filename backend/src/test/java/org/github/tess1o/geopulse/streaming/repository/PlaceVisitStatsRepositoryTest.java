@@ -0,0 +1,246 @@
+package org.github.tess1o.geopulse.streaming.repository;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.github.tess1o.geopulse.db.PostgisTestResource;
+import org.github.tess1o.geopulse.favorites.model.FavoriteLocationType;
+import org.github.tess1o.geopulse.favorites.model.FavoritesEntity;
+import org.github.tess1o.geopulse.geocoding.model.ReverseGeocodingLocationEntity;
+import org.github.tess1o.geopulse.streaming.model.PlaceVisitStats;
+import org.github.tess1o.geopulse.streaming.model.domain.LocationSource;
+import org.github.tess1o.geopulse.streaming.model.entity.TimelineStayEntity;
+import org.github.tess1o.geopulse.testsupport.SerializedDatabaseTest;
+import org.github.tess1o.geopulse.testsupport.TestCoordinates;
+import org.github.tess1o.geopulse.testsupport.TestIds;
+import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Point;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that the V36.49 triggers keep {@code place_visit_stats} equal to an aggregate of {@code timeline_stays}
+ * as stays are inserted, updated and deleted. The recompute runs in a deferred trigger, so every change is made in
+ * its own committed transaction before the aggregate is read.
+ */
+@QuarkusTest
+@QuarkusTestResource(value = PostgisTestResource.class)
+@SerializedDatabaseTest
+class PlaceVisitStatsRepositoryTest {
+
+    // Monday morning, Wednesday afternoon and Wednesday night in UTC
+    private static final Instant MONDAY_MORNING = Instant.parse("2026-01-05T08:00:00Z");
+    private static final Instant WEDNESDAY_AFTERNOON = Instant.parse("2026-01-07T13:00:00Z");
+    private static final Instant WEDNESDAY_NIGHT = Instant.parse("2026-01-14T23:00:00Z");
+
+    @Inject
+    PlaceVisitStatsRepository repository;
+
+    @Inject
+    EntityManager entityManager;
+
+    private UUID userId;
+    private Long favoriteId;
+    private Long geocodingId;
+    private Point point;
+
+    @BeforeEach
+    void setUp() {
+        point = TestCoordinates.newScope().point(30.5234, 50.4501);
+        QuarkusTransaction.requiringNew().run(() -> {
+            UserEntity user = UserEntity.builder()
+                    .email(TestIds.uniqueEmail("place-visit-stats"))
+                    .passwordHash("test-hash")
+                    .timezone("UTC")
+                    .isActive(true)
+                    .emailVerified(true)
+                    .createdAt(Instant.now())
+                    .updatedAt(Instant.now())
+                    .build();
+            entityManager.persist(user);
+
+            FavoritesEntity favorite = FavoritesEntity.builder()
+                    .user(user)
+                    .name("Home")
+                    .type(FavoriteLocationType.POINT)
+                    .geometry(point)
+                    .mergeImpact(Boolean.FALSE)
+                    .build();
+            entityManager.persist(favorite);
+
+            ReverseGeocodingLocationEntity geocoding = new ReverseGeocodingLocationEntity();
+            geocoding.setRequestCoordinates(point);
+            geocoding.setResultCoordinates(point);
+            geocoding.setDisplayName("Cafe");
+            geocoding.setProviderName("place-visit-stats");
+            geocoding.setCity("Kyiv");
+            geocoding.setCountry("Ukraine");
+            entityManager.persist(geocoding);
+            entityManager.flush();
+
+            userId = user.getId();
+            favoriteId = favorite.getId();
+            geocodingId = geocoding.getId();
+        });
+    }
+
+    @Test
+    void insertedStaysAreAggregatedPerPlace() {
+        createFavoriteStay(MONDAY_MORNING, 600);
+        createFavoriteStay(WEDNESDAY_AFTERNOON, 1800);
+        createFavoriteStay(WEDNESDAY_NIGHT, 1200);
+
+        PlaceVisitStats stats = favoriteStats().orElseThrow();
+
+        assertEquals(3, stats.visitCount());
+        assertEquals(3600, stats.totalDuration());
+        assertEquals(600, stats.minDuration());
+        assertEquals(1800, stats.maxDuration());
+        assertEquals(MONDAY_MORNING, stats.firstVisit());
+        assertEquals(WEDNESDAY_NIGHT, stats.lastVisit());
+        assertEquals("UTC", stats.timezone());
+        assertArrayEquals(new long[]{1, 0, 2, 0, 0, 0, 0}, stats.dayOfWeekCounts());
+        assertArrayEquals(new long[]{1, 1, 0, 1}, stats.arrivalPeriodCounts());
+        assertTrue(geocodingStats().isEmpty());
+    }
+
+    @Test
+    void updatedStaysAreRecomputedForOldAndNewPlace() {
+        Long mondayStay = createFavoriteStay(MONDAY_MORNING, 600);
+        Long wednesdayStay = createFavoriteStay(WEDNESDAY_AFTERNOON, 1800);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            TimelineStayEntity stay = entityManager.find(TimelineStayEntity.class, mondayStay);
+            stay.setTimestamp(WEDNESDAY_NIGHT);
+            stay.setStayDuration(2400);
+        });
+
+        PlaceVisitStats favorite = favoriteStats().orElseThrow();
+        assertEquals(2, favorite.visitCount());
+        assertEquals(4200, favorite.totalDuration());
+        assertEquals(1800, favorite.minDuration());
+        assertEquals(2400, favorite.maxDuration());
+        assertEquals(WEDNESDAY_AFTERNOON, favorite.firstVisit());
+        assertEquals(WEDNESDAY_NIGHT, favorite.lastVisit());
+        assertArrayEquals(new long[]{0, 0, 2, 0, 0, 0, 0}, favorite.dayOfWeekCounts());
+        assertArrayEquals(new long[]{0, 1, 0, 1}, favorite.arrivalPeriodCounts());
+
+        // Moving a stay to another place takes it out of the old row and into the new one
+        QuarkusTransaction.requiringNew().run(() -> {
+            TimelineStayEntity stay = entityManager.find(TimelineStayEntity.class, wednesdayStay);
+            stay.setFavoriteLocation(null);
+            stay.setGeocodingLocation(entityManager.find(ReverseGeocodingLocationEntity.class, geocodingId));
+            stay.setLocationSource(LocationSource.GEOCODING);
+        });
+
+        favorite = favoriteStats().orElseThrow();
+        assertEquals(1, favorite.visitCount());
+        assertEquals(2400, favorite.totalDuration());
+        assertEquals(WEDNESDAY_NIGHT, favorite.firstVisit());
+
+        PlaceVisitStats geocoding = geocodingStats().orElseThrow();
+        assertEquals(1, geocoding.visitCount());
+        assertEquals(1800, geocoding.totalDuration());
+        assertEquals(WEDNESDAY_AFTERNOON, geocoding.firstVisit());
+        assertArrayEquals(new long[]{0, 1, 0, 0}, geocoding.arrivalPeriodCounts());
+    }
+
+    @Test
+    void deletedStaysAreRemovedAndEmptyPlacesDropTheirRow() {
+        Long mondayStay = createFavoriteStay(MONDAY_MORNING, 600);
+        Long wednesdayStay = createFavoriteStay(WEDNESDAY_AFTERNOON, 1800);
+
+        deleteStay(mondayStay);
+
+        PlaceVisitStats stats = favoriteStats().orElseThrow();
+        assertEquals(1, stats.visitCount());
+        assertEquals(1800, stats.totalDuration());
+        assertEquals(WEDNESDAY_AFTERNOON, stats.firstVisit());
+        assertArrayEquals(new long[]{0, 0, 1, 0, 0, 0, 0}, stats.dayOfWeekCounts());
+
+        deleteStay(wednesdayStay);
+
+        assertTrue(favoriteStats().isEmpty());
+        assertEquals(0, countStatsRows());
+    }
+
+    @Test
+    void changesInOneTransactionAreAppliedAtCommit() {
+        Long firstStay = createFavoriteStay(MONDAY_MORNING, 600);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            UserEntity user = entityManager.find(UserEntity.class, userId);
+            FavoritesEntity favorite = entityManager.find(FavoritesEntity.class, favoriteId);
+            entityManager.remove(entityManager.find(TimelineStayEntity.class, firstStay));
+            for (int i = 0; i < 5; i++) {
+                entityManager.persist(stay(user, favorite, WEDNESDAY_AFTERNOON.plusSeconds(i * 86_400L), 300));
+            }
+            entityManager.flush();
+
+            // Still the committed aggregate until the deferred recompute runs
+            assertEquals(1, repository.findByFavoriteLocationId(favoriteId, userId).orElseThrow().visitCount());
+        });
+
+        PlaceVisitStats stats = favoriteStats().orElseThrow();
+        assertEquals(5, stats.visitCount());
+        assertEquals(1500, stats.totalDuration());
+        assertEquals(0, countDirtyMarkers());
+    }
+
+    private Long createFavoriteStay(Instant timestamp, long duration) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            TimelineStayEntity stay = stay(entityManager.find(UserEntity.class, userId),
+                    entityManager.find(FavoritesEntity.class, favoriteId), timestamp, duration);
+            entityManager.persist(stay);
+            entityManager.flush();
+            return stay.getId();
+        });
+    }
+
+    private TimelineStayEntity stay(UserEntity user, FavoritesEntity favorite, Instant timestamp, long duration) {
+        return TimelineStayEntity.builder()
+                .user(user)
+                .timestamp(timestamp)
+                .stayDuration(duration)
+                .location(point)
+                .locationName(favorite.getName())
+                .favoriteLocation(favorite)
+                .locationSource(LocationSource.FAVORITE)
+                .build();
+    }
+
+    private void deleteStay(Long stayId) {
+        QuarkusTransaction.requiringNew().run(() ->
+                entityManager.remove(entityManager.find(TimelineStayEntity.class, stayId)));
+    }
+
+    private Optional<PlaceVisitStats> favoriteStats() {
+        return QuarkusTransaction.requiringNew().call(() -> repository.findByFavoriteLocationId(favoriteId, userId));
+    }
+
+    private Optional<PlaceVisitStats> geocodingStats() {
+        return QuarkusTransaction.requiringNew().call(() -> repository.findByGeocodingLocationId(geocodingId, userId));
+    }
+
+    private long countStatsRows() {
+        return QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM place_visit_stats WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .getSingleResult()).longValue());
+    }
+
+    private long countDirtyMarkers() {
+        return QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM place_visit_stats_dirty WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .getSingleResult()).longValue());
+    }
+}
@@ -0,0 +1,178 @@
+package org.github.tess1o.geopulse.streaming.repository;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.github.tess1o.geopulse.db.PostgisTestResource;
+import org.github.tess1o.geopulse.shared.geo.GeoUtils;
+import org.github.tess1o.geopulse.shared.geo.GpsPoint;
+import org.github.tess1o.geopulse.streaming.model.dto.TripPathPointDTO;
+import org.github.tess1o.geopulse.streaming.model.entity.TimelineTripEntity;
+import org.github.tess1o.geopulse.streaming.service.trips.TripPathLevel;
+import org.github.tess1o.geopulse.streaming.service.trips.TripPathTolerance;
+import org.github.tess1o.geopulse.testsupport.SerializedDatabaseTest;
+import org.github.tess1o.geopulse.testsupport.TestIds;
+import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.github.tess1o.geopulse.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.LineString;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies level selection in {@link TimelineTripPathLevelRepository#findPaths} against PostGIS. Every stored
+ * level of a test trip has a different number of points, so the chosen level can be told by its size.
+ */
+@QuarkusTest
+@QuarkusTestResource(value = PostgisTestResource.class)
+@SerializedDatabaseTest
+class TimelineTripPathLevelRepositoryTest {
+
+    // Point count of the stored level per tolerance
+    private static final Map<Integer, Integer> LEVELS = Map.of(10, 5, 50, 4, 250, 3, 1000, 2);
+
+    @Inject
+    TimelineTripPathLevelRepository repository;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    private UserEntity testUser;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        testUser = new UserEntity();
+        testUser.setEmail(TestIds.uniqueEmail("trip-path-levels"));
+        testUser.setFullName("Trip Path Levels Test User");
+        testUser.setPasswordHash("test-hash");
+        testUser.setCreatedAt(Instant.now());
+        userRepository.persist(testUser);
+    }
+
+    @Test
+    @Transactional
+    void findPaths_picksCoarsestLevelWithinTolerance() {
+        Long tripId = createTripWithLevels(49.0);
+
+        assertEquals(4, repository.findPaths(List.of(tripId), TripPathTolerance.ofMeters(100)).get(tripId).size());
+        assertEquals(2, repository.findPaths(List.of(tripId), TripPathTolerance.ofMeters(5000)).get(tripId).size());
+        assertEquals(5, repository.findPaths(List.of(tripId), TripPathTolerance.ofMeters(10)).get(tripId).size());
+    }
+
+    @Test
+    @Transactional
+    void findPaths_fallsBackToFinestLevelBelowAllTolerances() {
+        Long tripId = createTripWithLevels(49.0);
+
+        List<GpsPoint> path = repository.findPaths(List.of(tripId), TripPathTolerance.ofMeters(1)).get(tripId);
+
+        assertEquals(5, path.size());
+        assertEquals(49.0, path.getFirst().getLatitude(), 1e-9);
+    }
+
+    @Test
+    @Transactional
+    void findPaths_scalesZoomToleranceByTripLatitude() {
+        Long equatorTripId = createTripWithLevels(0.0);
+        Long northernTripId = createTripWithLevels(60.0);
+
+        // About 76 m per pixel on the equator and half of that at 60 degrees
+        Map<Long, List<GpsPoint>> paths = repository.findPaths(List.of(equatorTripId, northernTripId),
+                TripPathTolerance.forZoom(11));
+
+        assertEquals(4, paths.get(equatorTripId).size());
+        assertEquals(5, paths.get(northernTripId).size());
+    }
+
+    @Test
+    @Transactional
+    void findPaths_omitsTripsWithoutLevels() {
+        Long tripId = createTripWithLevels(49.0);
+        Long tripWithoutLevels = persistTrip();
+
+        Map<Long, List<GpsPoint>> paths = repository.findPaths(List.of(tripId, tripWithoutLevels),
+                TripPathTolerance.ofMeters(100));
+
+        assertEquals(1, paths.size());
+        assertTrue(paths.containsKey(tripId));
+        assertTrue(repository.findPaths(List.of(), TripPathTolerance.ofMeters(100)).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void insertLevels_ignoresLevelsAlreadyStored() {
+        Long tripId = persistTrip();
+        Map<Long, List<TripPathLevel>> levels = Map.of(tripId, levels(49.0));
+
+        assertEquals(LEVELS.size(), repository.insertLevels(levels));
+        assertEquals(0, repository.insertLevels(levels));
+        assertEquals(LEVELS.size(), countLevels(tripId));
+    }
+
+    @Test
+    @Transactional
+    void levelsAreDeletedWithTheirTrip() {
+        Long tripId = createTripWithLevels(49.0);
+
+        entityManager.remove(entityManager.find(TimelineTripEntity.class, tripId));
+        entityManager.flush();
+
+        assertEquals(0, countLevels(tripId));
+    }
+
+    private Long createTripWithLevels(double latitude) {
+        Long tripId = persistTrip();
+        repository.insertLevels(Map.of(tripId, levels(latitude)));
+        return tripId;
+    }
+
+    private Long persistTrip() {
+        TimelineTripEntity trip = new TimelineTripEntity();
+        trip.setUser(testUser);
+        trip.setTimestamp(Instant.parse("2026-05-01T08:00:00Z"));
+        trip.setDistanceMeters(1000L);
+        trip.setTripDuration(600L);
+        trip.setMovementType("CAR");
+        trip.setStartPoint(GeoUtils.createPoint(24.0, 49.0));
+        trip.setEndPoint(GeoUtils.createPoint(24.01, 49.0));
+        trip.setLastUpdated(Instant.now());
+        trip.setCreatedAt(Instant.now());
+        entityManager.persist(trip);
+        entityManager.flush();
+        return trip.getId();
+    }
+
+    private static List<TripPathLevel> levels(double latitude) {
+        return LEVELS.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new TripPathLevel(entry.getKey(), path(latitude, entry.getValue())))
+                .toList();
+    }
+
+    private static LineString path(double latitude, int pointCount) {
+        List<GpsPoint> points = new ArrayList<>(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            points.add(new TripPathPointDTO(latitude + i * 0.001, 24.0 + i * 0.001));
+        }
+        return GeoUtils.convertGpsPointsToLineString(points);
+    }
+
+    private long countLevels(Long tripId) {
+        return ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM timeline_trip_path_levels WHERE trip_id = :tripId")
+                .setParameter("tripId", tripId)
+                .getSingleResult()).longValue();
+    }
+}
@@ -677,6 +677,7 @@ class StreamingSingleTripAlgorithmTest {
         private String lastEnvironmentDatasetVersion;
 
         private WaterEvidenceGpsPointRepository(List<GPSPoint> points) {
+            super(null);
             this.points = points;
         }
 
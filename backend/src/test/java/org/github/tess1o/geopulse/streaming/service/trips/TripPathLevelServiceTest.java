@@ -0,0 +1,172 @@
+package org.github.tess1o.geopulse.streaming.service.trips;
+
+import org.github.tess1o.geopulse.gps.service.simplification.GpsPathSimplifier;
+import org.github.tess1o.geopulse.streaming.model.domain.GPSPoint;
+import org.github.tess1o.geopulse.streaming.model.domain.Trip;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Tag("unit")
+class TripPathLevelServiceTest {
+
+    private static final Instant START = Instant.parse("2026-05-01T08:00:00Z");
+
+    private TripPathLevelService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TripPathLevelService();
+        service.enabled = true;
+        service.tolerancesMeters = List.of(1000, 10, 50, 250);
+    }
+
+    @Test
+    void buildLevels_returnsFewerPointsForCoarserTolerances() {
+        List<TripPathLevel> levels = service.buildLevels(zigzag(400));
+
+        assertThat(levels).extracting(TripPathLevel::toleranceMeters).containsExactly(10, 50, 250, 1000);
+        assertThat(levels.getFirst().pointCount()).isLessThanOrEqualTo(400);
+        for (int i = 1; i < levels.size(); i++) {
+            assertThat(levels.get(i).pointCount()).isLessThanOrEqualTo(levels.get(i - 1).pointCount());
+        }
+    }
+
+    @Test
+    void buildLevels_simplifiesEveryLevelFromTheRawPoints() {
+        List<GPSPoint> points = zigzag(400);
+
+        List<TripPathLevel> levels = service.buildLevels(points);
+
+        for (TripPathLevel level : levels) {
+            List<GPSPoint> direct = GpsPathSimplifier.simplifyPath(points, level.toleranceMeters());
+            assertThat(level.pointCount()).isEqualTo(direct.size());
+            assertThat(level.path().getCoordinateN(level.pointCount() - 1).x).isEqualTo(direct.getLast().getLongitude());
+        }
+    }
+
+    @Test
+    void buildLevels_returnsNothingWhenDisabled() {
+        service.enabled = false;
+
+        assertThat(service.buildLevels(zigzag(50))).isEmpty();
+    }
+
+    @Test
+    void levelsToStore_skipsLevelsThatDoNotDropPoints() {
+        Trip straightTrip = tripWithPoints(List.of(point(0, 49.0, 24.0), point(1, 49.0, 24.001), point(2, 49.0, 24.002)));
+
+        List<TripPathLevel> levels = service.levelsToStore(straightTrip);
+
+        assertThat(levels).singleElement()
+                .satisfies(level -> {
+                    assertThat(level.toleranceMeters()).isEqualTo(10);
+                    assertThat(level.pointCount()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    void levelsToStore_usesEndpointsForTripsWithoutPoints() {
+        Trip inferredTrip = Trip.builder()
+                .startTime(START)
+                .startPoint(point(0, 49.0, 24.0))
+                .endPoint(point(60, 49.5, 24.5))
+                .build();
+
+        List<TripPathLevel> levels = service.levelsToStore(inferredTrip);
+
+        assertThat(levels).singleElement()
+                .satisfies(level -> assertThat(level.pointCount()).isEqualTo(2));
+    }
+
+    @Test
+    void mergeLevels_concatenatesSegmentsPerTolerance() {
+        List<GPSPoint> points = zigzag(400);
+        Trip first = tripWithPoints(points.subList(0, 200));
+        Trip second = tripWithPoints(points.subList(199, 400));
+
+        List<TripPathLevel> merged = TripPathLevelService.mergeLevels(List.of(first, second));
+
+        assertThat(merged).extracting(TripPathLevel::toleranceMeters).containsExactly(10, 50, 250, 1000);
+        for (int i = 0; i < merged.size(); i++) {
+            int firstCount = first.getPathLevels().get(i).pointCount();
+            int secondCount = second.getPathLevels().get(i).pointCount();
+            // The shared point between the segments is kept once
+            assertThat(merged.get(i).pointCount()).isEqualTo(firstCount + secondCount - 1);
+        }
+    }
+
+    @Test
+    void mergeLevels_usesEndpointsOfSegmentsWithoutLevels() {
+        Trip withLevels = tripWithPoints(zigzag(100));
+        Trip inferred = Trip.builder()
+                .startTime(START.plusSeconds(6000))
+                .startPoint(withLevels.getEndLocation())
+                .endPoint(point(200, 49.5, 24.5))
+                .build();
+
+        List<TripPathLevel> merged = TripPathLevelService.mergeLevels(List.of(withLevels, inferred));
+
+        assertThat(merged).isNotEmpty();
+        for (TripPathLevel level : merged) {
+            assertThat(level.pointCount()).isEqualTo(segmentLevel(withLevels, level.toleranceMeters()).pointCount() + 1);
+            assertThat(level.path().getEndPoint().getY()).isEqualTo(49.5);
+        }
+    }
+
+    @Test
+    void mergeLevels_returnsNullWhenNoSegmentHasLevels() {
+        Trip inferred = Trip.builder()
+                .startPoint(point(0, 49.0, 24.0))
+                .endPoint(point(60, 49.5, 24.5))
+                .build();
+
+        assertThat(TripPathLevelService.mergeLevels(List.of(inferred))).isNull();
+    }
+
+    @Test
+    void equatorToleranceForZoom_halvesWithEveryZoomLevel() {
+        assertThat(TripPathLevelService.equatorToleranceForZoom(0)).isCloseTo(156_543.03, within(0.01));
+        assertThat(TripPathLevelService.equatorToleranceForZoom(15)).isCloseTo(4.78, within(0.01));
+        assertThat(TripPathLevelService.equatorToleranceForZoom(14))
+                .isCloseTo(TripPathLevelService.equatorToleranceForZoom(15) * 2, within(0.0001));
+    }
+
+    private Trip tripWithPoints(List<GPSPoint> points) {
+        return Trip.builder()
+                .startTime(points.getFirst().getTimestamp())
+                .startPoint(points.getFirst())
+                .endPoint(points.getLast())
+                .pathLevels(service.buildLevels(points))
+                .build();
+    }
+
+    private static TripPathLevel segmentLevel(Trip trip, int toleranceMeters) {
+        return trip.getPathLevels().stream()
+                .filter(level -> level.toleranceMeters() == toleranceMeters)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // Eastbound track wobbling north and south with growing amplitude, so every tolerance keeps a different shape
+    private static List<GPSPoint> zigzag(int count) {
+        List<GPSPoint> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double amplitude = 0.00005 * (1 + i / 20);
+            double latitude = 49.0 + (i % 2 == 0 ? amplitude : -amplitude) + Math.sin(i / 40.0) * 0.02;
+            points.add(point(i, latitude, 24.0 + i * 0.0005));
+        }
+        return points;
+    }
+
+    private static GPSPoint point(int minute, double latitude, double longitude) {
+        return new GPSPoint(START.plusSeconds(minute * 60L), latitude, longitude, 10.0, 5.0);
+    }
+}
@@ -0,0 +1,275 @@
+package org.github.tess1o.geopulse.weather.repository;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.github.tess1o.geopulse.db.PostgisTestResource;
+import org.github.tess1o.geopulse.testsupport.SerializedDatabaseTest;
+import org.github.tess1o.geopulse.testsupport.TestIds;
+import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.github.tess1o.geopulse.user.repository.UserRepository;
+import org.github.tess1o.geopulse.weather.dto.WeatherProviderSample;
+import org.github.tess1o.geopulse.weather.model.WeatherObservationEntity;
+import org.github.tess1o.geopulse.weather.model.WeatherSampleEntity;
+import org.github.tess1o.geopulse.weather.model.WeatherSampleTargetEntity;
+import org.github.tess1o.geopulse.weather.model.WeatherTargetStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Backfills a year of hourly weather targets with synthetic provider responses, once through a copy of the writes the
+ * fetch loop used to make for every target and once storing each provider response as a group, and compares
+ * throughput.
+ * Disabled by default; run with:
+ *
+ * mvn verify -Dit.test=WeatherBackfillPersistenceBenchmarkTest -Dgeopulse.weather.benchmark=true \
+ *            -Dgeopulse.weather.benchmark.days=365
+ */
+@QuarkusTest
+@QuarkusTestResource(value = PostgisTestResource.class)
+@SerializedDatabaseTest
+@EnabledIfSystemProperty(named = "geopulse.weather.benchmark", matches = "true")
+@Slf4j
+class WeatherBackfillPersistenceBenchmarkTest {
+
+    private static final String PROVIDER = "OPEN_METEO";
+    private static final int GROUP_SIZE = 24;
+
+    @Inject
+    WeatherSampleTargetRepository targetRepository;
+
+    @Inject
+    WeatherSampleRepository sampleRepository;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void groupedPersistenceBackfillsAYearFasterThanPerTargetWrites() {
+        int days = Integer.getInteger("geopulse.weather.benchmark.days", 365);
+        UUID userId = QuarkusTransaction.requiringNew().call(this::createUser);
+
+        resetWeather(userId, days);
+        long startedAt = System.nanoTime();
+        int perTargetStored = backfill(false);
+        long perTargetNanos = System.nanoTime() - startedAt;
+
+        resetWeather(userId, days);
+        startedAt = System.nanoTime();
+        int groupedStored = backfill(true);
+        long groupedNanos = System.nanoTime() - startedAt;
+
+        log.info("Weather backfill persistence benchmark: days={}, targets={}, per-target={} ms ({} targets/s), "
+                        + "grouped={} ms ({} targets/s)",
+                days, groupedStored,
+                perTargetNanos / 1_000_000, throughput(perTargetStored, perTargetNanos),
+                groupedNanos / 1_000_000, throughput(groupedStored, groupedNanos));
+
+        assertThat(perTargetStored).isEqualTo(days * 24);
+        assertThat(groupedStored).isEqualTo(days * 24);
+        assertThat(countSamples(userId)).isEqualTo(days * 24L);
+    }
+
+    private int backfill(boolean grouped) {
+        int stored = 0;
+        while (true) {
+            WeatherTargetGroupClaim claim = targetRepository.claimNextTargetGroup(GROUP_SIZE);
+            if (claim.isEmpty()) {
+                return stored;
+            }
+            List<WeatherSampleTargetClaim> targets = claim.targets();
+            if (grouped) {
+                List<Long> targetIds = targets.stream().map(WeatherSampleTargetClaim::id).toList();
+                targetRepository.markAttemptsStarted(targetIds);
+                List<WeatherFetchedSample> fetched = targets.stream().map(this::syntheticSample).toList();
+                stored += QuarkusTransaction.requiringNew().call(() -> {
+                    int inserted = sampleRepository.storeFetchedSamples(PROVIDER, fetched);
+                    targetRepository.markCompleted(targetIds);
+                    return inserted;
+                });
+            } else {
+                PerTargetWrites writes = new PerTargetWrites();
+                targets.forEach(target ->
+                        QuarkusTransaction.requiringNew().run(() -> writes.markAttemptStarted(target.id())));
+                for (WeatherSampleTargetClaim target : targets) {
+                    WeatherProviderSample sample = syntheticSample(target).sample();
+                    if (QuarkusTransaction.requiringNew().call(() -> writes.storeProviderSample(target, sample))) {
+                        stored++;
+                    }
+                }
+            }
+        }
+    }
+
+    private WeatherFetchedSample syntheticSample(WeatherSampleTargetClaim target) {
+        double hour = target.targetAt().getEpochSecond() / 3600.0;
+        WeatherProviderSample sample = WeatherProviderSample.builder()
+                .requestedLatitude(target.latitude())
+                .requestedLongitude(target.longitude())
+                .providerLatitude(target.latitudeBucket())
+                .providerLongitude(target.longitudeBucket())
+                .observedAt(target.targetAt())
+                .timezone("UTC")
+                .weatherCode(3)
+                .temperature(10 + 8 * Math.sin(hour / 24.0))
+                .humidity(60.0)
+                .precipitation(hour % 7 == 0 ? 0.4 : 0.0)
+                .windSpeed(12.0)
+                .build();
+        return new WeatherFetchedSample(target, target.targetAt(), sample);
+    }
+
+    private UUID createUser() {
+        UserEntity user = new UserEntity();
+        user.setEmail(TestIds.uniqueEmail("weather-benchmark"));
+        user.setFullName("weather-benchmark");
+        user.setPasswordHash("test");
+        user.setActive(true);
+        userRepository.persist(user);
+        userRepository.flush();
+        return user.getId();
+    }
+
+    // One stay per day in a different coordinate bucket, sampled hourly, the shape a year of history backfill produces
+    private void resetWeather(UUID userId, int days) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            entityManager.createNativeQuery("DELETE FROM weather_sample_targets").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM weather_samples").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM weather_observations").executeUpdate();
+            entityManager.createNativeQuery("""
+                            INSERT INTO weather_sample_targets (
+                                user_id, provider, latitude, longitude, latitude_bucket, longitude_bucket, target_at,
+                                source, priority, status, attempts, next_attempt_at, created_at, updated_at
+                            )
+                            SELECT :userId, :provider,
+                                   48.0 + (h / 24) * 0.01, 24.0 + (h / 24) * 0.01,
+                                   48.0 + (h / 24) * 0.01, 24.0 + (h / 24) * 0.01,
+                                   TIMESTAMPTZ '2025-01-01 00:00:00+00' + h * INTERVAL '1 hour',
+                                   'HISTORICAL_BACKFILL', 70, 'PENDING', 0, NOW(), NOW(), NOW()
+                            FROM generate_series(0, :hours - 1) AS h
+                            """)
+                    .setParameter("userId", userId)
+                    .setParameter("provider", PROVIDER)
+                    .setParameter("hours", days * 24)
+                    .executeUpdate();
+        });
+    }
+
+    private long countSamples(UUID userId) {
+        return QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM weather_samples WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .getSingleResult()).longValue());
+    }
+
+    /**
+     * The writes the fetch loop made before provider responses were stored per group: one transaction to record the
+     * attempt of each target, then one per answered hour that loads the target, checks for an existing sample,
+     * upserts the pooled observation, persists the sample entity and completes the target.
+     */
+    private final class PerTargetWrites {
+
+        void markAttemptStarted(long targetId) {
+            WeatherSampleTargetEntity target = entityManager.find(WeatherSampleTargetEntity.class, targetId);
+            if (target != null) {
+                target.setLastAttemptAt(Instant.now());
+                target.setAttempts(target.getAttempts() + 1);
+            }
+        }
+
+        boolean storeProviderSample(WeatherSampleTargetClaim target, WeatherProviderSample providerSample) {
+            WeatherSampleTargetEntity targetEntity = entityManager.find(WeatherSampleTargetEntity.class, target.id());
+            if (targetEntity == null) {
+                return false;
+            }
+
+            Instant observedAt = providerSample.getObservedAt();
+            if (sampleRepository.existsAtBucketHour(
+                    target.userId(), PROVIDER, target.latitudeBucket(), target.longitudeBucket(), observedAt)) {
+                finish(targetEntity, WeatherTargetStatus.SKIPPED, "Weather sample already exists");
+                return true;
+            }
+
+            WeatherObservationEntity observation = findOrCreateObservation(target, observedAt, providerSample);
+            WeatherSampleEntity sample = WeatherSampleEntity.builder()
+                    .user(targetEntity.getUser())
+                    .provider(PROVIDER)
+                    .source(target.source())
+                    .requestedLatitude(providerSample.getRequestedLatitude())
+                    .requestedLongitude(providerSample.getRequestedLongitude())
+                    .latitudeBucket(target.latitudeBucket())
+                    .longitudeBucket(target.longitudeBucket())
+                    .observedAt(observedAt)
+                    .observation(observation)
+                    .build();
+
+            sampleRepository.persist(sample);
+            finish(targetEntity, WeatherTargetStatus.COMPLETED, null);
+            entityManager.flush();
+            return true;
+        }
+
+        private void finish(WeatherSampleTargetEntity target, WeatherTargetStatus status, String reason) {
+            target.setStatus(status);
+            target.setLockedAt(null);
+            target.setCompletedAt(Instant.now());
+            target.setLastError(reason);
+        }
+
+        private WeatherObservationEntity findOrCreateObservation(
+                WeatherSampleTargetClaim target, Instant observedAt, WeatherProviderSample sample) {
+            Number id = (Number) entityManager.createNativeQuery("""
+                            INSERT INTO weather_observations (
+                                provider, latitude_bucket, longitude_bucket, observed_at,
+                                provider_latitude, provider_longitude, fetched_at, timezone,
+                                weather_code, temperature, apparent_temperature, humidity, precipitation, rain,
+                                snowfall, cloud_cover, wind_speed, wind_gust, wind_direction, pressure,
+                                created_at, updated_at
+                            )
+                            VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8, ?9, ?10, ?11, ?12, ?13, ?14, ?15, ?16, ?17, ?18,
+                                    ?19, ?20, ?7, ?7)
+                            ON CONFLICT ON CONSTRAINT uq_weather_observations_provider_bucket_time
+                                DO UPDATE SET updated_at = weather_observations.updated_at
+                            RETURNING id
+                            """)
+                    .setParameter(1, PROVIDER)
+                    .setParameter(2, target.latitudeBucket())
+                    .setParameter(3, target.longitudeBucket())
+                    .setParameter(4, observedAt)
+                    .setParameter(5, sample.getProviderLatitude())
+                    .setParameter(6, sample.getProviderLongitude())
+                    .setParameter(7, Instant.now())
+                    .setParameter(8, sample.getTimezone())
+                    .setParameter(9, sample.getWeatherCode())
+                    .setParameter(10, sample.getTemperature())
+                    .setParameter(11, sample.getApparentTemperature())
+                    .setParameter(12, sample.getHumidity())
+                    .setParameter(13, sample.getPrecipitation())
+                    .setParameter(14, sample.getRain())
+                    .setParameter(15, sample.getSnowfall())
+                    .setParameter(16, sample.getCloudCover())
+                    .setParameter(17, sample.getWindSpeed())
+                    .setParameter(18, sample.getWindGust())
+                    .setParameter(19, sample.getWindDirection())
+                    .setParameter(20, sample.getPressure())
+                    .getSingleResult();
+            return entityManager.getReference(WeatherObservationEntity.class, id.longValue());
+        }
+    }
+
+    private static long throughput(int targets, long nanos) {
+        return nanos <= 0 ? 0 : targets * 1_000_000_000L / nanos;
+    }
+}
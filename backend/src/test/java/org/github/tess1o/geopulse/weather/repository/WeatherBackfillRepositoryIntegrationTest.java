@@ -10,6 +10,7 @@ import org.github.tess1o.geopulse.db.PostgisTestResource;
 import org.github.tess1o.geopulse.testsupport.SerializedDatabaseTest;
 import org.github.tess1o.geopulse.user.model.TimelineStatus;
 import org.github.tess1o.geopulse.user.model.UserEntity;
+import org.github.tess1o.geopulse.weather.dto.WeatherProviderSample;
 import org.github.tess1o.geopulse.weather.model.WeatherTargetSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,6 +33,9 @@ class WeatherBackfillRepositoryIntegrationTest {
     @Inject
     WeatherSampleTargetRepository targetRepository;
 
+    @Inject
+    WeatherSampleRepository sampleRepository;
+
     @Inject
     EntityManager entityManager;
 
@@ -43,6 +47,7 @@ class WeatherBackfillRepositoryIntegrationTest {
             entityManager.createNativeQuery("DELETE FROM weather_backfill_reconciliations").executeUpdate();
             entityManager.createNativeQuery("DELETE FROM weather_sample_targets").executeUpdate();
             entityManager.createNativeQuery("DELETE FROM weather_samples").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM weather_observations").executeUpdate();
 
             UserEntity user = UserEntity.builder()
                     .email("weather-backfill-" + UUID.randomUUID() + "@example.com")
@@ -103,13 +108,14 @@ class WeatherBackfillRepositoryIntegrationTest {
         QuarkusTransaction.requiringNew().run(() -> entityManager.createNativeQuery("""
                 INSERT INTO weather_samples (
                     user_id, provider, source, requested_latitude, requested_longitude,
-                    latitude_bucket, longitude_bucket, observed_at, fetched_at, created_at, updated_at
+                    latitude_bucket, longitude_bucket, observed_at, observation_id, created_at, updated_at
                 )
                 VALUES (?1, 'OPEN_METEO', 'HISTORICAL_BACKFILL', 50.45, 30.52,
-                        50.45, 30.52, ?2, NOW(), NOW(), NOW())
+                        50.45, 30.52, ?2, ?3, NOW(), NOW())
                 """)
                 .setParameter(1, userId)
                 .setParameter(2, sampledAt)
+                .setParameter(3, insertObservation(sampledAt))
                 .executeUpdate());
 
         int sampledInsert = QuarkusTransaction.requiringNew().call(() -> targetRepository.enqueueMissingBatch(
@@ -122,6 +128,68 @@ class WeatherBackfillRepositoryIntegrationTest {
         assertThat(sampledInsert).isZero();
     }
 
+    @Test
+    void pooledObservationsAreLinkedInsteadOfQueuedAndResolveClaimedTargets() {
+        Instant pooledAt = Instant.parse("2025-06-01T10:00:00Z");
+        Instant laterAt = pooledAt.plusSeconds(3600);
+        QuarkusTransaction.requiringNew().run(() -> insertObservation(pooledAt));
+
+        int queued = QuarkusTransaction.requiringNew().call(() -> targetRepository.enqueueMissingBatch(
+                userId,
+                "OPEN_METEO",
+                List.of(new WeatherTargetBatchRow(50.451, 30.521, 50.45, 30.52, pooledAt),
+                        new WeatherTargetBatchRow(50.451, 30.521, 50.45, 30.52, laterAt)),
+                WeatherTargetSource.HISTORICAL_BACKFILL,
+                70
+        ));
+        assertThat(queued).isOne();
+        assertThat(countUserSamples()).isOne();
+
+        // The later hour lands in the pool while its target waits, e.g. fetched for another user
+        QuarkusTransaction.requiringNew().run(() -> insertObservation(laterAt));
+        WeatherTargetGroupClaim claim = QuarkusTransaction.requiringNew().call(() ->
+                targetRepository.claimNextTargetGroup(24));
+
+        assertThat(claim.targets()).isEmpty();
+        assertThat(claim.resolvedFromPool()).isOne();
+        assertThat(countUserSamples()).isEqualTo(2);
+    }
+
+    @Test
+    void fetchedGroupIsStoredWithOneInsertAndCompletedTogether() {
+        Instant firstHour = Instant.parse("2025-06-01T10:00:00Z");
+        List<WeatherTargetBatchRow> rows = List.of(
+                new WeatherTargetBatchRow(50.451, 30.521, 50.45, 30.52, firstHour),
+                new WeatherTargetBatchRow(50.451, 30.521, 50.45, 30.52, firstHour.plusSeconds(3600)));
+        QuarkusTransaction.requiringNew().run(() -> targetRepository.enqueueMissingBatch(
+                userId, "OPEN_METEO", rows, WeatherTargetSource.HISTORICAL_BACKFILL, 70));
+
+        List<WeatherSampleTargetClaim> claimed = QuarkusTransaction.requiringNew().call(() ->
+                targetRepository.claimNextTargetGroup(24)).targets();
+        List<Long> ids = claimed.stream().map(WeatherSampleTargetClaim::id).toList();
+        List<WeatherFetchedSample> fetched = claimed.stream()
+                .map(target -> new WeatherFetchedSample(target, target.targetAt(), WeatherProviderSample.builder()
+                        .requestedLatitude(target.latitude())
+                        .requestedLongitude(target.longitude())
+                        .observedAt(target.targetAt())
+                        .temperature(19.5)
+                        .build()))
+                .toList();
+
+        int stored = QuarkusTransaction.requiringNew().call(() -> {
+            targetRepository.markAttemptsStarted(ids);
+            int inserted = sampleRepository.storeFetchedSamples("OPEN_METEO", fetched);
+            targetRepository.markCompleted(ids);
+            return inserted;
+        });
+
+        assertThat(claimed).hasSize(2);
+        assertThat(stored).isEqualTo(2);
+        assertThat(countUserSamples()).isEqualTo(2);
+        assertThat(QuarkusTransaction.requiringNew().call(() -> targetRepository.countByStatus()))
+                .containsEntry("COMPLETED", 2L);
+    }
+
     @Test
     void nearestTripCoordinateUsesPointsImmediatelyAroundTargetTime() {
         Instant tripStart = Instant.parse("2025-06-01T10:00:00Z");
@@ -142,6 +210,25 @@ class WeatherBackfillRepositoryIntegrationTest {
         assertThat(coordinate).containsExactly(50.43, 30.53);
     }
 
+    private long insertObservation(Instant observedAt) {
+        return ((Number) entityManager.createNativeQuery("""
+                INSERT INTO weather_observations (
+                    provider, latitude_bucket, longitude_bucket, observed_at, temperature, fetched_at, created_at, updated_at
+                )
+                VALUES ('OPEN_METEO', 50.45, 30.52, ?1, 21.0, NOW(), NOW(), NOW())
+                RETURNING id
+                """)
+                .setParameter(1, observedAt)
+                .getSingleResult()).longValue();
+    }
+
+    private long countUserSamples() {
+        return QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM weather_samples WHERE user_id = ?1")
+                .setParameter(1, userId)
+                .getSingleResult()).longValue());
+    }
+
     private void insertGpsPoint(Instant timestamp, double latitude, double longitude) {
         entityManager.createNativeQuery("""
                 INSERT INTO gps_points (
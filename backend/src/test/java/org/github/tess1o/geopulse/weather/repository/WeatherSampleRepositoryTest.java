@@ -1,6 +1,7 @@
 package org.github.tess1o.geopulse.weather.repository;
 
 import org.github.tess1o.geopulse.weather.dto.WeatherSampleDTO;
+import org.github.tess1o.geopulse.weather.model.WeatherObservationEntity;
 import org.github.tess1o.geopulse.weather.model.WeatherSampleEntity;
 import org.github.tess1o.geopulse.weather.model.WeatherTargetSource;
 import org.junit.jupiter.api.Tag;
@@ -23,12 +24,21 @@ class WeatherSampleRepositoryTest {
                 .latitudeBucket(49.55)
                 .longitudeBucket(25.60)
                 .observedAt(Instant.parse("2026-07-23T18:00:00Z"))
-                .fetchedAt(Instant.parse("2026-07-23T21:10:45Z"))
+                .observation(WeatherObservationEntity.builder()
+                        .provider("OPEN_METEO")
+                        .latitudeBucket(49.55)
+                        .longitudeBucket(25.60)
+                        .observedAt(Instant.parse("2026-07-23T18:00:00Z"))
+                        .fetchedAt(Instant.parse("2026-07-23T21:10:45Z"))
+                        .temperature(21.5)
+                        .build())
                 .build();
 
         WeatherSampleDTO dto = new WeatherSampleRepository().toDto(sample);
 
         assertThat(dto.getLatitude()).isEqualTo(49.54821);
         assertThat(dto.getLongitude()).isEqualTo(25.59631);
+        assertThat(dto.getTemperature()).isEqualTo(21.5);
+        assertThat(dto.getFetchedAt()).isEqualTo(Instant.parse("2026-07-23T21:10:45Z"));
     }
 }
@@ -13,18 +13,17 @@ import org.github.tess1o.geopulse.weather.dto.WeatherEndpointTestResponse;
 import org.github.tess1o.geopulse.weather.dto.WeatherProviderSample;
 import org.github.tess1o.geopulse.weather.dto.WeatherStatusResponse;
 import org.github.tess1o.geopulse.weather.dto.WeatherTestResponse;
-import org.github.tess1o.geopulse.weather.model.WeatherSampleEntity;
-import org.github.tess1o.geopulse.weather.model.WeatherSampleTargetEntity;
 import org.github.tess1o.geopulse.weather.model.WeatherTargetSource;
+import org.github.tess1o.geopulse.weather.repository.WeatherFetchedSample;
 import org.github.tess1o.geopulse.weather.repository.WeatherSampleRepository;
 import org.github.tess1o.geopulse.weather.repository.WeatherBackfillReconciliationRepository;
 import org.github.tess1o.geopulse.weather.repository.WeatherSampleTargetClaim;
 import org.github.tess1o.geopulse.weather.repository.WeatherSampleTargetRepository;
+import org.github.tess1o.geopulse.weather.repository.WeatherTargetGroupClaim;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -41,7 +40,6 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -142,7 +140,7 @@ class WeatherServiceFailureHandlingTest {
                 retryAfter,
                 "quota exhausted");
 
-        when(targetRepository.claimNextTargetGroup(24)).thenReturn(List.of(first, second), List.of());
+        when(targetRepository.claimNextTargetGroup(24)).thenReturn(group(first, second), WeatherTargetGroupClaim.empty());
         when(weatherClient.fetchHourlyBatch(eq(first.latitude()), eq(first.longitude()), anyList())).thenThrow(quotaError);
         when(integrationHealthService.recordQuotaExceeded(
                 any(),
@@ -157,12 +155,10 @@ class WeatherServiceFailureHandlingTest {
         int processed = service.fetchQueuedSamples();
 
         assertThat(processed).isZero();
-        verify(targetRepository).markAttemptStarted(1L);
-        verify(targetRepository).markAttemptStarted(2L);
+        verify(targetRepository).markAttemptsStarted(List.of(1L, 2L));
         verify(weatherClient).fetchHourlyBatch(eq(first.latitude()), eq(first.longitude()), anyList());
-        verify(targetRepository).releaseUntil(1L, retryAfter, "quota exhausted");
-        verify(targetRepository).releaseUntil(2L, retryAfter, "quota exhausted");
-        verify(targetRepository, never()).markFailedOrRetry(anyLong(), anyString());
+        verify(targetRepository).releaseUntil(List.of(1L, 2L), retryAfter, "quota exhausted");
+        verify(targetRepository, never()).markFailedOrRetry(anyList(), anyString());
         verify(workloadMetrics).increment("geopulse.weather.quota.blocks",
                 "component", "weather", "type", "provider", "provider", PROVIDER);
     }
@@ -187,7 +183,7 @@ class WeatherServiceFailureHandlingTest {
                 WeatherProviderErrorKind.PROVIDER_UNAVAILABLE,
                 "timeout");
 
-        when(targetRepository.claimNextTargetGroup(24)).thenReturn(List.of(first, second), List.of());
+        when(targetRepository.claimNextTargetGroup(24)).thenReturn(group(first, second), WeatherTargetGroupClaim.empty());
         when(weatherClient.fetchHourlyBatch(eq(first.latitude()), eq(first.longitude()), anyList())).thenThrow(unavailable);
         when(integrationHealthService.currentHealth(any(), eq(PROVIDER)))
                 .thenReturn(ExternalIntegrationHealthDto.builder().failureCount(0).build());
@@ -204,10 +200,8 @@ class WeatherServiceFailureHandlingTest {
         int processed = service.fetchQueuedSamples();
 
         assertThat(processed).isZero();
-        ArgumentCaptor<Instant> retryAt = ArgumentCaptor.forClass(Instant.class);
-        verify(targetRepository).releaseUntil(eq(1L), retryAt.capture(), eq("timeout"));
-        verify(targetRepository).releaseUntil(2L, retryAt.getValue(), "timeout");
-        verify(targetRepository).markAttemptStarted(2L);
+        verify(targetRepository).releaseUntil(eq(List.of(1L, 2L)), any(Instant.class), eq("timeout"));
+        verify(targetRepository).markAttemptsStarted(List.of(1L, 2L));
         verify(weatherClient).fetchHourlyBatch(eq(first.latitude()), eq(first.longitude()), anyList());
     }
 
@@ -216,18 +210,16 @@ class WeatherServiceFailureHandlingTest {
         allowFetches();
         WeatherSampleTargetClaim first = target(1L);
         WeatherSampleTargetClaim second = target(2L);
-        when(targetRepository.claimNextTargetGroup(24)).thenReturn(List.of(first, second), List.of());
+        when(targetRepository.claimNextTargetGroup(24)).thenReturn(group(first, second), WeatherTargetGroupClaim.empty());
         when(weatherClient.fetchHourlyBatch(anyDouble(), anyDouble(), anyList()))
                 .thenThrow(new WeatherProviderException(WeatherProviderErrorKind.NO_DATA, "batch has no data"));
 
         int processed = service.fetchQueuedSamples();
 
         assertThat(processed).isZero();
-        verify(targetRepository).markAttemptStarted(1L);
-        verify(targetRepository).markAttemptStarted(2L);
-        verify(targetRepository).markSkipped(1L, "Weather provider has no data: batch has no data");
-        verify(targetRepository).markSkipped(2L, "Weather provider has no data: batch has no data");
-        verify(targetRepository, never()).releaseUntil(anyLong(), any(Instant.class), anyString());
+        verify(targetRepository).markAttemptsStarted(List.of(1L, 2L));
+        verify(targetRepository).markSkipped(List.of(1L, 2L), "Weather provider has no data: batch has no data");
+        verify(targetRepository, never()).releaseUntil(anyList(), any(Instant.class), anyString());
         verify(integrationHealthService, never()).recordFailure(any(), anyString(), any(), anyString(), anyString(), any(), any());
         verify(integrationHealthService, never()).recordQuotaExceeded(any(), anyString(), any(), anyString(), anyString(), any(), any());
     }
@@ -245,15 +237,10 @@ class WeatherServiceFailureHandlingTest {
                 .observedAt(first.targetAt())
                 .temperature(18.0)
                 .build();
-        WeatherSampleTargetEntity targetEntity = WeatherSampleTargetEntity.builder()
-                .id(first.id())
-                .provider(PROVIDER)
-                .source(first.source())
-                .build();
 
         when(configurationService.providerOrder(PROVIDER)).thenReturn(List.of(PROVIDER, "PIRATE_WEATHER"));
         when(providerRegistry.client("PIRATE_WEATHER")).thenReturn(Optional.of(fallbackWeatherClient));
-        when(targetRepository.claimNextTargetGroup(24)).thenReturn(List.of(first), List.of());
+        when(targetRepository.claimNextTargetGroup(24)).thenReturn(group(first), WeatherTargetGroupClaim.empty());
         when(weatherClient.fetchHourlyBatch(eq(first.latitude()), eq(first.longitude()), anyList())).thenThrow(unavailable);
         when(fallbackWeatherClient.fetchHourlyBatch(eq(first.latitude()), eq(first.longitude()), anyList()))
                 .thenReturn(Map.of(first.targetAt(), fallbackSample));
@@ -268,18 +255,16 @@ class WeatherServiceFailureHandlingTest {
                 any(Instant.class),
                 any(Instant.class)))
                 .thenAnswer(invocation -> invocation.getArgument(5));
-        when(targetRepository.findById(first.id())).thenReturn(targetEntity);
-        when(sampleRepository.existsAtBucketHour(first.userId(), "PIRATE_WEATHER", first.latitudeBucket(), first.longitudeBucket(), first.targetAt()))
-                .thenReturn(false);
 
         int processed = service.fetchQueuedSamples();
 
         assertThat(processed).isEqualTo(1);
         verify(weatherClient).fetchHourlyBatch(eq(first.latitude()), eq(first.longitude()), anyList());
         verify(fallbackWeatherClient).fetchHourlyBatch(eq(first.latitude()), eq(first.longitude()), anyList());
-        verify(sampleRepository).persist(any(WeatherSampleEntity.class));
-        verify(targetRepository).markCompleted(targetEntity);
-        verify(targetRepository, never()).markFailedOrRetry(anyLong(), anyString());
+        verify(sampleRepository).storeFetchedSamples("PIRATE_WEATHER",
+                List.of(new WeatherFetchedSample(first, first.targetAt(), fallbackSample)));
+        verify(targetRepository).markCompleted(List.of(1L));
+        verify(targetRepository, never()).markFailedOrRetry(anyList(), anyString());
         verify(workloadMetrics).increment("geopulse.weather.provider.requests",
                 "component", "weather", "provider", PROVIDER,
                 "source", WeatherTargetSource.ONGOING.name(),
@@ -298,7 +283,7 @@ class WeatherServiceFailureHandlingTest {
                 WeatherProviderErrorKind.PROVIDER_UNAVAILABLE,
                 "Open-Meteo archive hourly weather request failed",
                 new SSLHandshakeException("Failed to create SSL connection"));
-        when(targetRepository.claimNextTargetGroup(24)).thenReturn(List.of(first), List.of());
+        when(targetRepository.claimNextTargetGroup(24)).thenReturn(group(first), WeatherTargetGroupClaim.empty());
         when(weatherClient.fetchHourlyBatch(eq(first.latitude()), eq(first.longitude()), anyList()))
                 .thenThrow(sslFailure)
                 .thenThrow(new WeatherProviderException(WeatherProviderErrorKind.NO_DATA, "no archive data"));
@@ -307,8 +292,8 @@ class WeatherServiceFailureHandlingTest {
 
         assertThat(processed).isZero();
         verify(weatherClient, times(2)).fetchHourlyBatch(eq(first.latitude()), eq(first.longitude()), anyList());
-        verify(targetRepository).markAttemptStarted(1L);
-        verify(targetRepository).markSkipped(1L, "Weather provider has no data: no archive data");
+        verify(targetRepository).markAttemptsStarted(List.of(1L));
+        verify(targetRepository).markSkipped(List.of(1L), "Weather provider has no data: no archive data");
         verify(integrationHealthService, never()).recordFailure(any(), anyString(), any(), anyString(), anyString(), any(), any());
     }
 
@@ -412,6 +397,24 @@ class WeatherServiceFailureHandlingTest {
         verify(backfillReconciliationRepository).summary();
     }
 
+    @Test
+    void groupResolvedFromObservationPoolSkipsProviderRequest() {
+        allowFetches();
+        when(targetRepository.claimNextTargetGroup(24))
+                .thenReturn(new WeatherTargetGroupClaim(List.of(), 3), WeatherTargetGroupClaim.empty());
+
+        int processed = service.fetchQueuedSamples();
+
+        assertThat(processed).isEqualTo(3);
+        verifyNoInteractions(weatherClient);
+        verify(quotaService, never()).tryReserve(any(), anyInt(), anyInt());
+        verify(targetRepository, never()).markAttemptsStarted(anyList());
+    }
+
+    private WeatherTargetGroupClaim group(WeatherSampleTargetClaim... targets) {
+        return new WeatherTargetGroupClaim(List.of(targets), 0);
+    }
+
     private WeatherSampleTargetClaim target(long id) {
         return new WeatherSampleTargetClaim(
                 id,